@@ -29,7 +29,6 @@ import org.apache.reef.annotations.audience.Private;
 
 import javax.inject.Inject;
 import java.io.ByteArrayInputStream;
-import java.io.ByteArrayOutputStream;
 
 /**
  * The one and only serializer for the Vortex protocol.
@@ -37,6 +36,8 @@ import java.io.ByteArrayOutputStream;
 @Private
 @Unstable
 public final class KryoUtils {
+  private static final int INITIAL_BUFFER_SIZE = 4096;
+
   /**
    * For reducing Kryo object instantiation cost.
    */
@@ -56,7 +57,8 @@ public final class KryoUtils {
   }
 
   public byte[] serialize(final Object object) {
-    try (Output out = new Output(new ByteArrayOutputStream())) {
+    // The buffer grows without limit: toBytes() only returns what is in the buffer.
+    try (Output out = new Output(INITIAL_BUFFER_SIZE, -1)) {
       final Kryo kryo = kryoPool.borrow();
       kryo.writeClassAndObject(out, object);
       kryoPool.release(kryo);
@@ -0,0 +1,114 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.reef.vortex.driver;
+
+import net.jcip.annotations.NotThreadSafe;
+import org.apache.reef.annotations.Unstable;
+import org.apache.reef.annotations.audience.DriverSide;
+import org.apache.reef.util.Optional;
+
+import javax.inject.Inject;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Schedules aggregateable tasklets onto the worker that last ran a tasklet of the same aggregate function,
+ * as long as it has enough resources, so that their results are aggregated together on fewer workers.
+ * Falls back to {@link FirstFitSchedulingPolicy} otherwise, and for tasklets that are not aggregateable.
+ */
+@Unstable
+@DriverSide
+@NotThreadSafe
+public class AggregateLocalitySchedulingPolicy implements SchedulingPolicy {
+
+  private final FirstFitSchedulingPolicy firstFitSchedulingPolicy;
+
+  /**
+   * The worker that last ran a tasklet of each aggregate function.
+   */
+  private final Map<Integer, String> aggregateFunctionWorkerMap = new HashMap<>();
+
+  @Inject
+  AggregateLocalitySchedulingPolicy(final FirstFitSchedulingPolicy firstFitSchedulingPolicy) {
+    this.firstFitSchedulingPolicy = firstFitSchedulingPolicy;
+  }
+
+  /**
+   * @param tasklet to schedule
+   * @return the worker of the aggregate function of the tasklet if it has enough resources,
+   * or else the first worker that fits
+   */
+  @Override
+  public Optional<String> trySchedule(final Tasklet tasklet) {
+    final Optional<Integer> aggregateFunctionId = tasklet.getAggregateFunctionId();
+    if (aggregateFunctionId.isPresent()) {
+      final String workerId = aggregateFunctionWorkerMap.get(aggregateFunctionId.get());
+      if (workerId != null && firstFitSchedulingPolicy.hasCapacity(workerId)) {
+        return Optional.of(workerId);
+      }
+    }
+    return firstFitSchedulingPolicy.trySchedule(tasklet);
+  }
+
+  /**
+   * @param vortexWorker added
+   */
+  @Override
+  public void workerAdded(final VortexWorkerManager vortexWorker) {
+    firstFitSchedulingPolicy.workerAdded(vortexWorker);
+  }
+
+  /**
+   * @param vortexWorker removed
+   */
+  @Override
+  public void workerRemoved(final VortexWorkerManager vortexWorker) {
+    firstFitSchedulingPolicy.workerRemoved(vortexWorker);
+    final Iterator<String> workerIds = aggregateFunctionWorkerMap.values().iterator();
+    while (workerIds.hasNext()) {
+      if (workerIds.next().equals(vortexWorker.getId())) {
+        workerIds.remove();
+      }
+    }
+  }
+
+  /**
+   * @param vortexWorker that the tasklet was launched onto
+   * @param tasklet launched
+   */
+  @Override
+  public void taskletLaunched(final VortexWorkerManager vortexWorker, final Tasklet tasklet) {
+    firstFitSchedulingPolicy.taskletLaunched(vortexWorker, tasklet);
+    final Optional<Integer> aggregateFunctionId = tasklet.getAggregateFunctionId();
+    if (aggregateFunctionId.isPresent()) {
+      aggregateFunctionWorkerMap.put(aggregateFunctionId.get(), vortexWorker.getId());
+    }
+  }
+
+  /**
+   * @param vortexWorker that the tasklets completed in
+   * @param tasklets completed
+   */
+  @Override
+  public void taskletsDone(final VortexWorkerManager vortexWorker, final List<Tasklet> tasklets) {
+    firstFitSchedulingPolicy.taskletsDone(vortexWorker, tasklets);
+  }
+}
@@ -149,52 +149,50 @@ final class DefaultVortexMaster implements VortexMaster {
     }
   }
 
+  /**
+   * Processes a batch of reports in one pass: the tasklets of the whole batch are marked as done
+   * in runningWorkers at once, and their delegates are fetched under a single lock before they are notified.
+   */
   @Override
   public void workerReported(final String workerId, final WorkerToMasterReports workerToMasterReports) {
-    for (final WorkerToMasterReport workerToMasterReport : workerToMasterReports.getReports()) {
+    final List<WorkerToMasterReport> reports = workerToMasterReports.getReports();
+    final List<List<Integer>> reportTaskletIds = new ArrayList<>(reports.size());
+    final List<Integer> doneTaskletIds = new ArrayList<>();
+    for (final WorkerToMasterReport workerToMasterReport : reports) {
+      final List<Integer> taskletIds = getTaskletIds(workerToMasterReport);
+      reportTaskletIds.add(taskletIds);
+      doneTaskletIds.addAll(taskletIds);
+    }
+
+    runningWorkers.doneTasklets(workerId, doneTaskletIds);
+    final List<VortexFutureDelegate> delegates = fetchDelegates(reportTaskletIds);
+
+    for (int i = 0; i < reports.size(); ++i) {
+      final WorkerToMasterReport workerToMasterReport = reports.get(i);
+      final VortexFutureDelegate delegate = delegates.get(i);
       switch (workerToMasterReport.getType()) {
       case TaskletResult:
         final TaskletResultReport taskletResultReport = (TaskletResultReport) workerToMasterReport;
-
-        final int resultTaskletId = taskletResultReport.getTaskletId();
-        final List<Integer> singletonResultTaskletId = Collections.singletonList(resultTaskletId);
-        runningWorkers.doneTasklets(workerId, singletonResultTaskletId);
-        fetchDelegate(singletonResultTaskletId).completed(resultTaskletId, taskletResultReport.getResult());
-
+        delegate.completed(taskletResultReport.getTaskletId(), taskletResultReport.getResult());
         break;
       case TaskletAggregationResult:
         final TaskletAggregationResultReport taskletAggregationResultReport =
             (TaskletAggregationResultReport) workerToMasterReport;
-
-        final List<Integer> aggregatedTaskletIds = taskletAggregationResultReport.getTaskletIds();
-        runningWorkers.doneTasklets(workerId, aggregatedTaskletIds);
-        fetchDelegate(aggregatedTaskletIds).aggregationCompleted(
-            aggregatedTaskletIds, taskletAggregationResultReport.getResult());
-
+        delegate.aggregationCompleted(
+            taskletAggregationResultReport.getTaskletIds(), taskletAggregationResultReport.getResult());
         break;
       case TaskletCancelled:
         final TaskletCancelledReport taskletCancelledReport = (TaskletCancelledReport) workerToMasterReport;
-        final List<Integer> cancelledIdToList = Collections.singletonList(taskletCancelledReport.getTaskletId());
-        runningWorkers.doneTasklets(workerId, cancelledIdToList);
-        fetchDelegate(cancelledIdToList).cancelled(taskletCancelledReport.getTaskletId());
-
+        delegate.cancelled(taskletCancelledReport.getTaskletId());
         break;
       case TaskletFailure:
         final TaskletFailureReport taskletFailureReport = (TaskletFailureReport) workerToMasterReport;
-
-        final int failureTaskletId = taskletFailureReport.getTaskletId();
-        final List<Integer> singletonFailedTaskletId = Collections.singletonList(failureTaskletId);
-        runningWorkers.doneTasklets(workerId, singletonFailedTaskletId);
-        fetchDelegate(singletonFailedTaskletId).threwException(failureTaskletId, taskletFailureReport.getException());
-
+        delegate.threwException(taskletFailureReport.getTaskletId(), taskletFailureReport.getException());
         break;
       case TaskletAggregationFailure:
         final TaskletAggregationFailureReport taskletAggregationFailureReport =
             (TaskletAggregationFailureReport) workerToMasterReport;
-
-        final List<Integer> aggregationFailedTaskletIds = taskletAggregationFailureReport.getTaskletIds();
-        runningWorkers.doneTasklets(workerId, aggregationFailedTaskletIds);
-        fetchDelegate(aggregationFailedTaskletIds).aggregationThrewException(aggregationFailedTaskletIds,
+        delegate.aggregationThrewException(taskletAggregationFailureReport.getTaskletIds(),
             taskletAggregationFailureReport.getException());
         break;
       default:
@@ -203,6 +201,26 @@ final class DefaultVortexMaster implements VortexMaster {
     }
   }
 
+  /**
+   * @return the ids of the Tasklets a report is about.
+   */
+  private static List<Integer> getTaskletIds(final WorkerToMasterReport workerToMasterReport) {
+    switch (workerToMasterReport.getType()) {
+    case TaskletResult:
+      return Collections.singletonList(((TaskletResultReport) workerToMasterReport).getTaskletId());
+    case TaskletAggregationResult:
+      return ((TaskletAggregationResultReport) workerToMasterReport).getTaskletIds();
+    case TaskletCancelled:
+      return Collections.singletonList(((TaskletCancelledReport) workerToMasterReport).getTaskletId());
+    case TaskletFailure:
+      return Collections.singletonList(((TaskletFailureReport) workerToMasterReport).getTaskletId());
+    case TaskletAggregationFailure:
+      return ((TaskletAggregationFailureReport) workerToMasterReport).getTaskletIds();
+    default:
+      throw new RuntimeException("Unknown Report");
+    }
+  }
+
   /**
    * Terminate the job.
    */
@@ -220,6 +238,17 @@ final class DefaultVortexMaster implements VortexMaster {
     }
   }
 
+  /**
+   * Fetches the delegates that map to each list of Tasklets.
+   */
+  private synchronized List<VortexFutureDelegate> fetchDelegates(final List<List<Integer>> taskletIdLists) {
+    final List<VortexFutureDelegate> delegates = new ArrayList<>(taskletIdLists.size());
+    for (final List<Integer> taskletIds : taskletIdLists) {
+      delegates.add(fetchDelegate(taskletIds));
+    }
+    return delegates;
+  }
+
   /**
    * Fetches a delegate that maps to the list of Tasklets.
    */
@@ -25,6 +25,8 @@ import java.util.List;
 import javax.inject.Inject;
 
 import net.jcip.annotations.NotThreadSafe;
+import org.apache.reef.annotations.Unstable;
+import org.apache.reef.annotations.audience.DriverSide;
 import org.apache.reef.tang.annotations.Parameter;
 import org.apache.reef.util.Optional;
 
@@ -32,8 +34,10 @@ import org.apache.reef.util.Optional;
  * Always select the next worker that has enough resource in a round-robin fashion
  * based on the worker capacity configured.
  */
+@Unstable
+@DriverSide
 @NotThreadSafe
-class FirstFitSchedulingPolicy implements SchedulingPolicy {
+public class FirstFitSchedulingPolicy implements SchedulingPolicy {
 
   private final int workerCapacity;
 
@@ -77,6 +81,15 @@ class FirstFitSchedulingPolicy implements SchedulingPolicy {
     return Optional.empty();
   }
 
+  /**
+   * @param workerId of the worker in question
+   * @return true if the worker is known and has enough resources for another tasklet
+   */
+  boolean hasCapacity(final String workerId) {
+    final Integer load = idLoadMap.get(workerId);
+    return load != null && load < workerCapacity;
+  }
+
   /**
    * @param vortexWorker added
    */
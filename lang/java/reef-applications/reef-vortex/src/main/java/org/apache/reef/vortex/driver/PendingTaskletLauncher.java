@@ -19,9 +19,11 @@
 package org.apache.reef.vortex.driver;
 
 import org.apache.reef.annotations.audience.DriverSide;
+import org.apache.reef.tang.annotations.Parameter;
 import org.apache.reef.wake.EventHandler;
 
 import javax.inject.Inject;
+import java.util.List;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 
@@ -34,23 +36,26 @@ final class PendingTaskletLauncher implements EventHandler<Integer> {
 
   private final RunningWorkers runningWorkers;
   private final PendingTasklets pendingTasklets;
+  private final int launchBatchSize;
 
   @Inject
   private PendingTaskletLauncher(final RunningWorkers runningWorkers,
-                                 final PendingTasklets pendingTasklets) {
+                                 final PendingTasklets pendingTasklets,
+                                 @Parameter(VortexMasterConf.LaunchBatchSize.class) final int launchBatchSize) {
     this.runningWorkers = runningWorkers;
     this.pendingTasklets = pendingTasklets;
+    this.launchBatchSize = launchBatchSize;
   }
 
   /**
-   * Repeatedly take a tasklet from the pending queue and launch it via RunningWorkers.
+   * Repeatedly take a batch of tasklets from the pending queue and launch them via RunningWorkers.
    */
   @Override
   public void onNext(final Integer integer) {
     while (!runningWorkers.isTerminated()) {
       try {
-        final Tasklet tasklet = pendingTasklets.takeFirst(); // blocks when no tasklet exists
-        runningWorkers.launchTasklet(tasklet); // blocks when no worker exists
+        final List<Tasklet> tasklets = pendingTasklets.takeFirstBatch(launchBatchSize); // blocks when no tasklet exists
+        runningWorkers.launchTasklets(tasklets); // blocks when no worker exists
       } catch (InterruptedException e) {
         LOG.log(Level.INFO, "Interrupted upon termination");
       }
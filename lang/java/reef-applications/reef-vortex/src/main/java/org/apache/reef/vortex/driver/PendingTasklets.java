@@ -22,6 +22,8 @@ import net.jcip.annotations.ThreadSafe;
 import org.apache.reef.annotations.audience.DriverSide;
 
 import javax.inject.Inject;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.concurrent.BlockingDeque;
 import java.util.concurrent.LinkedBlockingDeque;
 
@@ -48,4 +50,16 @@ final class PendingTasklets {
   Tasklet takeFirst() throws InterruptedException {
     return pendingTasklets.takeFirst();
   }
+
+  /**
+   * Takes the first tasklet, waiting for one if needed, along with the tasklets that follow it.
+   * @param maxTasklets maximum number of tasklets to take
+   * @return the tasklets taken, in order
+   */
+  List<Tasklet> takeFirstBatch(final int maxTasklets) throws InterruptedException {
+    final List<Tasklet> tasklets = new ArrayList<>();
+    tasklets.add(pendingTasklets.takeFirst());
+    pendingTasklets.drainTo(tasklets, maxTasklets - 1);
+    return tasklets;
+  }
 }
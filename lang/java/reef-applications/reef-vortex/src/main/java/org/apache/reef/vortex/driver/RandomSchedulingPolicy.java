@@ -19,6 +19,8 @@
 package org.apache.reef.vortex.driver;
 
 import net.jcip.annotations.NotThreadSafe;
+import org.apache.reef.annotations.Unstable;
+import org.apache.reef.annotations.audience.DriverSide;
 import org.apache.reef.util.Optional;
 
 import java.util.ArrayList;
@@ -31,8 +33,10 @@ import javax.inject.Inject;
  * Randomly select a running worker for scheduling a tasklet,
  * without considering worker load or capacity.
  */
+@Unstable
+@DriverSide
 @NotThreadSafe
-class RandomSchedulingPolicy implements SchedulingPolicy {
+public class RandomSchedulingPolicy implements SchedulingPolicy {
   private final Random rand = new Random();
 
   /**
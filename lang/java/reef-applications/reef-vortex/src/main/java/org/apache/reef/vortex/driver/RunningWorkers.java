@@ -34,7 +34,7 @@ import java.util.logging.Logger;
 
 /**
  * Keeps track of all running VortexWorkers and Tasklets.
- * Upon Tasklet launch request, randomly schedules it to a VortexWorkerManager.
+ * Upon Tasklet launch request, schedules it to a VortexWorkerManager chosen by the SchedulingPolicy.
  */
 @ThreadSafe
 @DriverSide
@@ -131,18 +131,42 @@ final class RunningWorkers {
    * Parameter: Same tasklet can be launched multiple times.
    */
   void launchTasklet(final Tasklet tasklet) {
+    launchTasklets(Collections.singletonList(tasklet));
+  }
+
+  /**
+   * Schedules the tasklets in order under a single lock acquisition,
+   * and launches the tasklets scheduled to the same worker with a single message.
+   * If Vortex is terminated before the whole batch is launched, the tasklets left are failed.
+   * Concurrency: Called by single scheduler thread.
+   * Parameter: Same tasklet can be launched multiple times.
+   */
+  void launchTasklets(final List<Tasklet> tasklets) {
+    final Map<VortexWorkerManager, List<Tasklet>> toLaunch = new LinkedHashMap<>();
     lock.lock();
     try {
-      if (!terminated) {
+      for (int i = 0; i < tasklets.size(); ++i) {
+        final Tasklet tasklet = tasklets.get(i);
+        if (terminated) {
+          failTasklets(tasklets.subList(i, tasklets.size()));
+          return;
+        }
+
         Optional<String> workerId;
         while(true) {
           workerId = schedulingPolicy.trySchedule(tasklet);
           if (!workerId.isPresent()) {
+            // Workers only report back the tasklets they have, so send what is scheduled before waiting
+            launch(toLaunch);
             try {
               noWorkerOrResource.await();
             } catch (InterruptedException e) {
               throw new RuntimeException(e);
             }
+            if (terminated) {
+              failTasklets(tasklets.subList(i, tasklets.size()));
+              return;
+            }
           } else {
             break;
           }
@@ -153,7 +177,7 @@ final class RunningWorkers {
           tasklet.cancelled();
           taskletsToCancel.remove(tasklet.getId());
           LOG.log(Level.FINE, "Cancelled tasklet {0}.", tasklet.getId());
-          return;
+          continue;
         }
 
         final Optional<Integer> taskletAggFunctionId =  tasklet.getAggregateFunctionId();
@@ -171,14 +195,40 @@ final class RunningWorkers {
           workerAggregateFunctionMap.get(vortexWorkerManager.getId()).add(taskletAggFunctionId.get());
         }
 
-        vortexWorkerManager.launchTasklet(tasklet);
+        List<Tasklet> workerTasklets = toLaunch.get(vortexWorkerManager);
+        if (workerTasklets == null) {
+          workerTasklets = new ArrayList<>();
+          toLaunch.put(vortexWorkerManager, workerTasklets);
+        }
+        workerTasklets.add(tasklet);
         schedulingPolicy.taskletLaunched(vortexWorkerManager, tasklet);
       }
+      launch(toLaunch);
     } finally {
       lock.unlock();
     }
   }
 
+  /**
+   * Launches the tasklets scheduled so far, one message per worker, and clears them.
+   */
+  private void launch(final Map<VortexWorkerManager, List<Tasklet>> toLaunch) {
+    for (final Map.Entry<VortexWorkerManager, List<Tasklet>> entry : toLaunch.entrySet()) {
+      entry.getKey().launchTasklets(entry.getValue());
+    }
+    toLaunch.clear();
+  }
+
+  /**
+   * Fails the tasklets of a batch that were not launched before Vortex was terminated.
+   */
+  private void failTasklets(final List<Tasklet> tasklets) {
+    LOG.log(Level.WARNING, "Failing {0} tasklets not launched before termination", tasklets.size());
+    for (final Tasklet tasklet : tasklets) {
+      tasklet.failed(new IllegalStateException("Vortex was terminated before " + tasklet + " was launched"));
+    }
+  }
+
   /**
    * Concurrency: Called by multiple threads.
    * Parameter: Same taskletId can come in multiple times.
@@ -236,6 +286,9 @@ final class RunningWorkers {
           schedulingPolicy.workerRemoved(vortexWorkerManager);
         }
         runningWorkers.clear();
+
+        // Wake up the scheduler, so that it fails the tasklets it was waiting to launch
+        noWorkerOrResource.signalAll();
       } else {
         throw new RuntimeException("Attempting to terminate an already terminated RunningWorkers");
       }
@@ -18,6 +18,8 @@
  */
 package org.apache.reef.vortex.driver;
 
+import org.apache.reef.annotations.Unstable;
+import org.apache.reef.annotations.audience.DriverSide;
 import org.apache.reef.tang.annotations.DefaultImplementation;
 import org.apache.reef.util.Optional;
 
@@ -25,9 +27,12 @@ import java.util.List;
 
 /**
  * For choosing which worker to schedule the tasklet onto.
+ * Selected with {@link VortexMasterConf#SCHEDULING_POLICY}.
  */
+@Unstable
+@DriverSide
 @DefaultImplementation(FirstFitSchedulingPolicy.class)
-interface SchedulingPolicy {
+public interface SchedulingPolicy {
   /**
    * Implementation of this method is expected to be fast.
    * @param tasklet to schedule
@@ -80,6 +80,13 @@ class Tasklet<TInput, TOutput> {
     delegate.cancelled(taskletId);
   }
 
+  /**
+   * Called by {@link RunningWorkers} to fail the Tasklet that cannot be launched any more.
+   */
+  void failed(final Exception exception) {
+    delegate.threwException(taskletId, exception);
+  }
+
   /**
    * @return description of the tasklet in string.
    */
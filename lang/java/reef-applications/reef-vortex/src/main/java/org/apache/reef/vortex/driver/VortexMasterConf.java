@@ -73,6 +73,13 @@ public final class VortexMasterConf extends ConfigurationModuleBuilder {
   final class CallbackThreadPoolSize implements Name<Integer> {
   }
 
+  /**
+   * Maximum number of pending Tasklets scheduled at once.
+   */
+  @NamedParameter(doc = "Maximum number of pending Tasklets scheduled at once", default_value = "256")
+  final class LaunchBatchSize implements Name<Integer> {
+  }
+
   /**
    * Number of Workers.
    */
@@ -108,6 +115,17 @@ public final class VortexMasterConf extends ConfigurationModuleBuilder {
    */
   public static final OptionalParameter<Integer> FUTURE_CALLBACK_THREAD_POOL_SIZE = new OptionalParameter<>();
 
+  /**
+   * Maximum number of pending Tasklets scheduled at once.
+   */
+  public static final OptionalParameter<Integer> LAUNCH_BATCH_SIZE = new OptionalParameter<>();
+
+  /**
+   * Policy for choosing the worker to schedule each Tasklet onto, {@link FirstFitSchedulingPolicy} by default.
+   * {@link AggregateLocalitySchedulingPolicy} keeps the Tasklets of an aggregate function on the same Worker.
+   */
+  public static final OptionalImpl<SchedulingPolicy> SCHEDULING_POLICY = new OptionalImpl<>();
+
   /**
    * Vortex Master configuration.
    */
@@ -119,5 +137,7 @@ public final class VortexMasterConf extends ConfigurationModuleBuilder {
       .bindImplementation(VortexStart.class, VORTEX_START)
       .bindNamedParameter(NumberOfVortexStartThreads.class, NUM_OF_VORTEX_START_THREAD)
       .bindNamedParameter(CallbackThreadPoolSize.class, FUTURE_CALLBACK_THREAD_POOL_SIZE)
+      .bindNamedParameter(LaunchBatchSize.class, LAUNCH_BATCH_SIZE)
+      .bindImplementation(SchedulingPolicy.class, SCHEDULING_POLICY)
       .build();
 }
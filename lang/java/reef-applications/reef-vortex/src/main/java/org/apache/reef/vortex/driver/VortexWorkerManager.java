@@ -24,6 +24,8 @@ import org.apache.reef.driver.task.RunningTask;
 import org.apache.reef.vortex.api.VortexAggregateFunction;
 import org.apache.reef.vortex.api.VortexAggregatePolicy;
 import org.apache.reef.vortex.api.VortexFunction;
+import org.apache.reef.vortex.protocol.mastertoworker.MasterToWorkerRequest;
+import org.apache.reef.vortex.protocol.mastertoworker.MasterToWorkerRequests;
 import org.apache.reef.vortex.protocol.mastertoworker.TaskletAggregateExecutionRequest;
 import org.apache.reef.vortex.protocol.mastertoworker.TaskletAggregationRequest;
 import org.apache.reef.vortex.protocol.mastertoworker.TaskletCancellationRequest;
@@ -66,21 +68,36 @@ class VortexWorkerManager {
   /**
    * Sends a request to launch a Tasklet on a {@link org.apache.reef.vortex.evaluator.VortexWorker}.
    */
-  <TInput, TOutput> void launchTasklet(final Tasklet<TInput, TOutput> tasklet) {
-    assert !runningTasklets.containsKey(tasklet.getId());
-    runningTasklets.put(tasklet.getId(), tasklet);
+  void launchTasklet(final Tasklet tasklet) {
+    launchTasklets(Collections.singletonList(tasklet));
+  }
+
+  /**
+   * Sends a single request to launch the Tasklets on a {@link org.apache.reef.vortex.evaluator.VortexWorker}.
+   */
+  void launchTasklets(final List<Tasklet> tasklets) {
+    final List<MasterToWorkerRequest> requests = new ArrayList<>(tasklets.size());
+    for (final Tasklet tasklet : tasklets) {
+      assert !runningTasklets.containsKey(tasklet.getId());
+      runningTasklets.put(tasklet.getId(), tasklet);
+      requests.add(newExecutionRequest(tasklet));
+    }
+
+    if (requests.size() == 1) {
+      vortexRequestor.sendAsync(reefTask, requests.get(0));
+    } else if (!requests.isEmpty()) {
+      vortexRequestor.sendAsync(reefTask, new MasterToWorkerRequests(requests));
+    }
+  }
 
+  private static <TInput, TOutput> MasterToWorkerRequest newExecutionRequest(final Tasklet<TInput, TOutput> tasklet) {
     if (tasklet.getAggregateFunctionId().isPresent()) {
       // function is aggregateable.
-      final TaskletAggregateExecutionRequest<TInput> taskletAggregateExecutionRequest =
-          new TaskletAggregateExecutionRequest<>(tasklet.getId(), tasklet.getAggregateFunctionId().get(),
-              tasklet.getInput());
-      vortexRequestor.sendAsync(reefTask, taskletAggregateExecutionRequest);
+      return new TaskletAggregateExecutionRequest<>(tasklet.getId(), tasklet.getAggregateFunctionId().get(),
+          tasklet.getInput());
     } else {
       // function is not aggregateable.
-      final TaskletExecutionRequest<TInput, TOutput> taskletExecutionRequest
-          = new TaskletExecutionRequest<>(tasklet.getId(), tasklet.getUserFunction(), tasklet.getInput());
-      vortexRequestor.sendAsync(reefTask, taskletExecutionRequest);
+      return new TaskletExecutionRequest<>(tasklet.getId(), tasklet.getUserFunction(), tasklet.getInput());
     }
   }
 
@@ -23,14 +23,11 @@ import org.apache.commons.lang3.tuple.Pair;
 import org.apache.reef.annotations.Unstable;
 import org.apache.reef.annotations.audience.DriverSide;
 import org.apache.reef.annotations.audience.Private;
-import org.apache.reef.task.HeartBeatTriggerManager;
-import org.apache.reef.vortex.common.KryoUtils;
 import org.apache.reef.vortex.protocol.mastertoworker.TaskletAggregationRequest;
 import org.apache.reef.vortex.protocol.workertomaster.*;
 
 import javax.annotation.concurrent.GuardedBy;
 import java.util.*;
-import java.util.concurrent.BlockingDeque;
 import java.util.concurrent.Executors;
 import java.util.concurrent.ScheduledExecutorService;
 import java.util.concurrent.TimeUnit;
@@ -47,9 +44,7 @@ final class AggregateContainer {
 
   private final Object stateLock = new Object();
   private final TaskletAggregationRequest taskletAggregationRequest;
-  private final HeartBeatTriggerManager heartBeatTriggerManager;
-  private final KryoUtils kryoUtils;
-  private final BlockingDeque<byte[]> workerReportsQueue;
+  private final WorkerReports workerReports;
   private final ScheduledExecutorService timer = Executors.newScheduledThreadPool(1);
 
   @GuardedBy("stateLock")
@@ -61,13 +56,9 @@ final class AggregateContainer {
   @GuardedBy("stateLock")
   private final List<Pair<Integer, Exception>> failedTasklets = new ArrayList<>();
 
-  AggregateContainer(final HeartBeatTriggerManager heartBeatTriggerManager,
-                     final KryoUtils kryoUtils,
-                     final BlockingDeque<byte[]> workerReportsQueue,
+  AggregateContainer(final WorkerReports workerReports,
                      final TaskletAggregationRequest taskletAggregationRequest) {
-    this.heartBeatTriggerManager = heartBeatTriggerManager;
-    this.kryoUtils = kryoUtils;
-    this.workerReportsQueue = workerReportsQueue;
+    this.workerReports = workerReports;
     this.taskletAggregationRequest = taskletAggregationRequest;
   }
 
@@ -136,8 +127,7 @@ final class AggregateContainer {
 
     // Add to worker report only if there is something to report back.
     if (!workerToMasterReports.isEmpty()) {
-      workerReportsQueue.addLast(kryoUtils.serialize(new WorkerToMasterReports(workerToMasterReports)));
-      heartBeatTriggerManager.triggerHeartBeat();
+      workerReports.addReports(workerToMasterReports);
     }
   }
 
@@ -54,11 +54,10 @@ public final class VortexWorker implements Task, TaskMessageSource {
   private static final String MESSAGE_SOURCE_ID = ""; // empty string as there is no use for it
 
   private final BlockingDeque<byte[]> pendingRequests = new LinkedBlockingDeque<>();
-  private final BlockingDeque<byte[]> workerReports = new LinkedBlockingDeque<>();
   private final ConcurrentMap<Integer, AggregateContainer> aggregates = new ConcurrentHashMap<>();
 
   private final KryoUtils kryoUtils;
-  private final HeartBeatTriggerManager heartBeatTriggerManager;
+  private final WorkerReports workerReports;
   private final int numOfThreads;
   private final CountDownLatch terminated = new CountDownLatch(1);
 
@@ -66,8 +65,8 @@ public final class VortexWorker implements Task, TaskMessageSource {
   private VortexWorker(final HeartBeatTriggerManager heartBeatTriggerManager,
                        final KryoUtils kryoUtils,
                        @Parameter(VortexWorkerConf.NumOfThreads.class) final int numOfThreads) {
-    this.heartBeatTriggerManager = heartBeatTriggerManager;
     this.kryoUtils = kryoUtils;
+    this.workerReports = new WorkerReports(heartBeatTriggerManager, kryoUtils);
     this.numOfThreads = numOfThreads;
   }
 
@@ -97,31 +96,7 @@ public final class VortexWorker implements Task, TaskMessageSource {
           // Command Executor: Deserialize the command
           final MasterToWorkerRequest masterToWorkerRequest = (MasterToWorkerRequest)kryoUtils.deserialize(message);
 
-          switch (masterToWorkerRequest.getType()) {
-            case AggregateTasklets:
-              final TaskletAggregationRequest taskletAggregationRequest =
-                  (TaskletAggregationRequest) masterToWorkerRequest;
-              aggregates.put(taskletAggregationRequest.getAggregateFunctionId(),
-                  new AggregateContainer(heartBeatTriggerManager, kryoUtils, workerReports,
-                      taskletAggregationRequest));
-              break;
-            case ExecuteAggregateTasklet:
-              executeAggregateTasklet(commandExecutor, masterToWorkerRequest);
-              break;
-            case ExecuteTasklet:
-              executeTasklet(commandExecutor, futures, masterToWorkerRequest);
-              break;
-            case CancelTasklet:
-              final TaskletCancellationRequest cancellationRequest = (TaskletCancellationRequest) masterToWorkerRequest;
-              LOG.log(Level.FINE, "Cancelling Tasklet with ID {0}.", cancellationRequest.getTaskletId());
-              final Future future = futures.get(cancellationRequest.getTaskletId());
-              if (future != null) {
-                future.cancel(true);
-              }
-              break;
-            default:
-              throw new RuntimeException("Unknown Command");
-          }
+          handleRequest(commandExecutor, futures, masterToWorkerRequest);
         }
       }
     });
@@ -130,6 +105,43 @@ public final class VortexWorker implements Task, TaskMessageSource {
     return null;
   }
 
+  /**
+   * Handles a request from the {@link org.apache.reef.vortex.driver.VortexDriver} on the scheduler thread.
+   */
+  private void handleRequest(final ExecutorService commandExecutor,
+                             final ConcurrentMap<Integer, Future> futures,
+                             final MasterToWorkerRequest masterToWorkerRequest) {
+    switch (masterToWorkerRequest.getType()) {
+    case AggregateTasklets:
+      final TaskletAggregationRequest taskletAggregationRequest =
+          (TaskletAggregationRequest) masterToWorkerRequest;
+      aggregates.put(taskletAggregationRequest.getAggregateFunctionId(),
+          new AggregateContainer(workerReports, taskletAggregationRequest));
+      break;
+    case ExecuteAggregateTasklet:
+      executeAggregateTasklet(commandExecutor, masterToWorkerRequest);
+      break;
+    case ExecuteTasklet:
+      executeTasklet(commandExecutor, futures, masterToWorkerRequest);
+      break;
+    case CancelTasklet:
+      final TaskletCancellationRequest cancellationRequest = (TaskletCancellationRequest) masterToWorkerRequest;
+      LOG.log(Level.FINE, "Cancelling Tasklet with ID {0}.", cancellationRequest.getTaskletId());
+      final Future future = futures.get(cancellationRequest.getTaskletId());
+      if (future != null) {
+        future.cancel(true);
+      }
+      break;
+    case Batch:
+      for (final MasterToWorkerRequest request : ((MasterToWorkerRequests) masterToWorkerRequest).getRequests()) {
+        handleRequest(commandExecutor, futures, request);
+      }
+      break;
+    default:
+      throw new RuntimeException("Unknown Command");
+    }
+  }
+
   /**
    * Executes an tasklet request from the {@link org.apache.reef.vortex.driver.VortexDriver}.
    */
@@ -146,7 +158,6 @@ public final class VortexWorker implements Task, TaskMessageSource {
         commandExecutor.submit(new Runnable() {
           @Override
           public void run() {
-            final WorkerToMasterReports reports;
             final List<WorkerToMasterReport> holder = new ArrayList<>();
 
             try {
@@ -168,8 +179,6 @@ public final class VortexWorker implements Task, TaskMessageSource {
               holder.add(workerToMasterReport);
             }
 
-            reports = new WorkerToMasterReports(holder);
-            workerReports.addLast(kryoUtils.serialize(reports));
             try {
               latch.await();
             } catch (final InterruptedException e) {
@@ -177,7 +186,7 @@ public final class VortexWorker implements Task, TaskMessageSource {
               throw new RuntimeException(e);
             }
             futures.remove(taskletExecutionRequest.getTaskletId());
-            heartBeatTriggerManager.triggerHeartBeat();
+            workerReports.addReports(holder);
           }
         }));
 
@@ -214,11 +223,11 @@ public final class VortexWorker implements Task, TaskMessageSource {
   }
 
   /**
-   * @return the workerReport the worker wishes to send.
+   * @return all workerReports the worker wishes to send, batched in one message.
    */
   @Override
   public Optional<TaskMessage> getMessage() {
-    final byte[] msg = workerReports.pollFirst();
+    final byte[] msg = workerReports.drainReports();
     if (msg != null) {
       return Optional.of(TaskMessage.from(MESSAGE_SOURCE_ID, msg));
     } else {
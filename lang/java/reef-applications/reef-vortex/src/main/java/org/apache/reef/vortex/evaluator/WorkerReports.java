@@ -0,0 +1,77 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.reef.vortex.evaluator;
+
+import org.apache.reef.annotations.Unstable;
+import org.apache.reef.annotations.audience.Private;
+import org.apache.reef.annotations.audience.TaskSide;
+import org.apache.reef.task.HeartBeatTriggerManager;
+import org.apache.reef.vortex.common.KryoUtils;
+import org.apache.reef.vortex.protocol.workertomaster.WorkerToMasterReport;
+import org.apache.reef.vortex.protocol.workertomaster.WorkerToMasterReports;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Reports of a {@link VortexWorker} waiting to be sent to the master.
+ * Every heartbeat carries all reports that are pending when it is sent, serialized as one
+ * {@link WorkerToMasterReports}, and only the first report added after a heartbeat triggers the next one.
+ */
+@Private
+@Unstable
+@TaskSide
+final class WorkerReports {
+
+  private final HeartBeatTriggerManager heartBeatTriggerManager;
+  private final KryoUtils kryoUtils;
+  private final BlockingQueue<WorkerToMasterReport> pendingReports = new LinkedBlockingQueue<>();
+  private final AtomicBoolean heartBeatTriggered = new AtomicBoolean(false);
+
+  WorkerReports(final HeartBeatTriggerManager heartBeatTriggerManager, final KryoUtils kryoUtils) {
+    this.heartBeatTriggerManager = heartBeatTriggerManager;
+    this.kryoUtils = kryoUtils;
+  }
+
+  /**
+   * Add reports to be sent, triggering a heartbeat unless one is already on its way.
+   */
+  void addReports(final Collection<WorkerToMasterReport> reports) {
+    pendingReports.addAll(reports);
+    if (heartBeatTriggered.compareAndSet(false, true)) {
+      heartBeatTriggerManager.triggerHeartBeat();
+    }
+  }
+
+  /**
+   * Remove all pending reports.
+   * @return the pending reports serialized as one {@link WorkerToMasterReports}, or null if there are none.
+   */
+  byte[] drainReports() {
+    // Reset before draining, so that reports added from now on trigger another heartbeat if they are missed.
+    heartBeatTriggered.set(false);
+    final List<WorkerToMasterReport> reports = new ArrayList<>();
+    pendingReports.drainTo(reports);
+    return reports.isEmpty() ? null : kryoUtils.serialize(new WorkerToMasterReports(reports));
+  }
+}
@@ -22,6 +22,7 @@ import org.apache.reef.tang.Configuration;
 import org.apache.reef.tang.Tang;
 import org.apache.reef.tang.annotations.Name;
 import org.apache.reef.tang.annotations.NamedParameter;
+import org.apache.reef.vortex.driver.AggregateLocalitySchedulingPolicy;
 import org.apache.reef.vortex.driver.VortexJobConf;
 import org.apache.reef.vortex.driver.VortexLauncher;
 import org.apache.reef.vortex.driver.VortexMasterConf;
@@ -43,6 +44,7 @@ final class SumOnes {
         .set(VortexMasterConf.WORKER_CORES, 4)
         .set(VortexMasterConf.WORKER_CAPACITY, 2000)
         .set(VortexMasterConf.VORTEX_START, SumOnesAggregateStart.class)
+        .set(VortexMasterConf.SCHEDULING_POLICY, AggregateLocalitySchedulingPolicy.class)
         .build();
 
     final Configuration userConf = Tang.Factory.getTang().newConfigurationBuilder()
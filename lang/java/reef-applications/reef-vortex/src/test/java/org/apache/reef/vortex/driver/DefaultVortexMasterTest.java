@@ -31,6 +31,7 @@ import org.junit.Test;
 
 import java.util.*;
 import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.TimeoutException;
 import java.util.concurrent.atomic.AtomicBoolean;
@@ -129,6 +130,53 @@ public class DefaultVortexMasterTest {
     assertTrue("The VortexFuture should be done", future.isDone());
   }
 
+  /**
+   * Test handling of the results and failures of multiple tasklets reported in one batch.
+   */
+  @Test(timeout = 10000)
+  public void testBatchedReports() throws Exception {
+    final VortexFunction vortexFunction = testUtil.newIntegerFunction();
+    final VortexWorkerManager vortexWorkerManager1 = testUtil.newWorker();
+    final RunningWorkers runningWorkers = new RunningWorkers(new RandomSchedulingPolicy(),
+        testUtil.newAggregateFunctionRepository());
+    final PendingTasklets pendingTasklets = new PendingTasklets();
+    final DefaultVortexMaster vortexMaster = new DefaultVortexMaster(runningWorkers, pendingTasklets,
+        testUtil.newAggregateFunctionRepository(), 5);
+
+    vortexMaster.workerAllocated(vortexWorkerManager1);
+    final int numOfTasklets = 10;
+    final List<VortexFuture> futures = new ArrayList<>();
+    for (int i = 0; i < numOfTasklets; i++) {
+      futures.add(vortexMaster.enqueueTasklet(vortexFunction, null, Optional.<FutureCallback<Integer>>empty()));
+    }
+    final ArrayList<Integer> taskletIds = launchTasklets(runningWorkers, pendingTasklets, numOfTasklets);
+
+    final List<WorkerToMasterReport> reports = new ArrayList<>();
+    for (final int taskletId : taskletIds) {
+      reports.add(taskletId % 2 == 0 ? new TaskletResultReport(taskletId, INTEGER_RESULT)
+          : new TaskletFailureReport(taskletId, new RuntimeException("Test exception.")));
+    }
+    vortexMaster.workerReported(vortexWorkerManager1.getId(), new WorkerToMasterReports(reports));
+
+    for (int i = 0; i < numOfTasklets; i++) {
+      final VortexFuture future = futures.get(i);
+      assertTrue("The VortexFuture should be done", future.isDone());
+      if (taskletIds.get(i) % 2 == 0) {
+        assertEquals(INTEGER_RESULT, future.get());
+      } else {
+        try {
+          future.get();
+          fail("The VortexFuture should have thrown an exception");
+        } catch (final ExecutionException e) {
+          assertEquals("Test exception.", e.getCause().getMessage());
+        }
+      }
+    }
+    for (final int taskletId : taskletIds) {
+      assertFalse("The tasklet should be done", vortexWorkerManager1.containsTasklet(taskletId));
+    }
+  }
+
   /**
    * Test handling of multiple tasklet execution with failures.
    */
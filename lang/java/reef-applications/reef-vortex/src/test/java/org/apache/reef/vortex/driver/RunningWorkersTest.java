@@ -23,12 +23,20 @@ import org.apache.reef.tang.exceptions.InjectionException;
 import org.junit.Test;
 
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collection;
+import java.util.Collections;
 import java.util.List;
 
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertTrue;
+import static org.mockito.Matchers.any;
+import static org.mockito.Matchers.anyInt;
+import static org.mockito.Matchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
 
 /**
  * Test Possible Race Conditions.
@@ -76,4 +84,74 @@ public class RunningWorkersTest {
     runningWorkers.doneTasklets(vortexWorkerManager.getId(), taskletIds);
     assertFalse("Tasklet must not have been completed", schedulingPolicy.taskletIsDone(tasklet.getId()));
   }
+
+  /**
+   * Test launching a batch of tasklets that does not fit in the workers at once.
+   * The tasklets scheduled before the workers got full must be launched before waiting for resources.
+   */
+  @Test(timeout = 10000)
+  public void launchTaskletsMoreThanCapacity() throws Exception {
+    final RunningWorkers firstFitWorkers = new RunningWorkers(
+        new FirstFitSchedulingPolicy(1), testUtil.newAggregateFunctionRepository());
+    final VortexWorkerManager vortexWorkerManager = testUtil.newWorker();
+    firstFitWorkers.addWorker(vortexWorkerManager);
+
+    final Tasklet first = testUtil.newTasklet();
+    final Tasklet second = testUtil.newTasklet();
+    final Thread launcher = new Thread(new Runnable() {
+      @Override
+      public void run() {
+        firstFitWorkers.launchTasklets(Arrays.asList(first, second)); // blocks until the first is done
+      }
+    });
+    launcher.start();
+
+    while (!isLaunched(firstFitWorkers, first)) {
+      Thread.sleep(10);
+    }
+    assertFalse("The second Tasklet must wait for resources", isLaunched(firstFitWorkers, second));
+    firstFitWorkers.doneTasklets(vortexWorkerManager.getId(), Collections.singletonList(first.getId()));
+
+    launcher.join();
+    assertTrue("The second Tasklet must have been launched", isLaunched(firstFitWorkers, second));
+  }
+
+  /**
+   * Test terminating Vortex while a batch of tasklets waits for resources.
+   * The tasklets of the batch that were not launched must be failed, not dropped.
+   */
+  @Test(timeout = 10000)
+  public void terminateWhileLaunchingTasklets() throws Exception {
+    final RunningWorkers firstFitWorkers = new RunningWorkers(
+        new FirstFitSchedulingPolicy(1), testUtil.newAggregateFunctionRepository());
+    firstFitWorkers.addWorker(testUtil.newWorker());
+
+    final VortexFutureDelegate firstDelegate = mock(VortexFutureDelegate.class);
+    final VortexFutureDelegate secondDelegate = mock(VortexFutureDelegate.class);
+    final VortexFutureDelegate thirdDelegate = mock(VortexFutureDelegate.class);
+    final Tasklet first = testUtil.newTasklet(firstDelegate);
+    final Tasklet second = testUtil.newTasklet(secondDelegate);
+    final Tasklet third = testUtil.newTasklet(thirdDelegate);
+    final Thread launcher = new Thread(new Runnable() {
+      @Override
+      public void run() {
+        firstFitWorkers.launchTasklets(Arrays.asList(first, second, third)); // blocks until terminated
+      }
+    });
+    launcher.start();
+
+    while (!isLaunched(firstFitWorkers, first)) {
+      Thread.sleep(10);
+    }
+    firstFitWorkers.terminate();
+    launcher.join();
+
+    verify(firstDelegate, never()).threwException(anyInt(), any(Exception.class));
+    verify(secondDelegate).threwException(eq(second.getId()), any(IllegalStateException.class));
+    verify(thirdDelegate).threwException(eq(third.getId()), any(IllegalStateException.class));
+  }
+
+  private static boolean isLaunched(final RunningWorkers workers, final Tasklet tasklet) {
+    return workers.getWhereTaskletWasScheduledTo(tasklet.getId()) != null;
+  }
 }
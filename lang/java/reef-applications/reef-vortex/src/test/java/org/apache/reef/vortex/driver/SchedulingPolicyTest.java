@@ -18,8 +18,15 @@
  */
 package org.apache.reef.vortex.driver;
 
+import org.apache.reef.tang.Configuration;
+import org.apache.reef.tang.Tang;
+import org.apache.reef.tang.exceptions.InjectionException;
+import org.apache.reef.vortex.api.VortexStart;
+import org.apache.reef.vortex.api.VortexThreadPool;
 import org.junit.Test;
 
+import javax.inject.Inject;
+
 import java.util.ArrayDeque;
 import java.util.Deque;
 
@@ -38,6 +45,34 @@ public class SchedulingPolicyTest {
   public void testCommon() throws Exception {
     commonPolicyTests(new RandomSchedulingPolicy());
     commonPolicyTests(new FirstFitSchedulingPolicy(10));
+    commonPolicyTests(new AggregateLocalitySchedulingPolicy(new FirstFitSchedulingPolicy(10)));
+  }
+
+  /**
+   * Test that VortexMasterConf selects the scheduling policy, FirstFitSchedulingPolicy by default.
+   */
+  @Test
+  public void testSchedulingPolicyConfiguration() throws InjectionException {
+    final Configuration defaultConf = VortexMasterConf.CONF
+        .set(VortexMasterConf.WORKER_NUM, 1)
+        .set(VortexMasterConf.WORKER_MEM, 128)
+        .set(VortexMasterConf.WORKER_CORES, 1)
+        .set(VortexMasterConf.WORKER_CAPACITY, 10)
+        .set(VortexMasterConf.VORTEX_START, NoopVortexStart.class)
+        .build();
+    assertTrue(Tang.Factory.getTang().newInjector(defaultConf).getInstance(SchedulingPolicy.class)
+        instanceof FirstFitSchedulingPolicy);
+
+    final Configuration aggregateLocalityConf = VortexMasterConf.CONF
+        .set(VortexMasterConf.WORKER_NUM, 1)
+        .set(VortexMasterConf.WORKER_MEM, 128)
+        .set(VortexMasterConf.WORKER_CORES, 1)
+        .set(VortexMasterConf.WORKER_CAPACITY, 10)
+        .set(VortexMasterConf.VORTEX_START, NoopVortexStart.class)
+        .set(VortexMasterConf.SCHEDULING_POLICY, AggregateLocalitySchedulingPolicy.class)
+        .build();
+    assertTrue(Tang.Factory.getTang().newInjector(aggregateLocalityConf).getInstance(SchedulingPolicy.class)
+        instanceof AggregateLocalitySchedulingPolicy);
   }
 
   /**
@@ -101,6 +136,43 @@ public class SchedulingPolicyTest {
     assertFalse("All workers should be full", policy.trySchedule(testUtil.newTasklet()).isPresent());
   }
 
+  /**
+   * Test AggregateLocalitySchedulingPolicy keeps the tasklets of an aggregate function together.
+   */
+  @Test
+  public void testAggregateLocality() throws Exception {
+    final int workerCapacity = 2;
+    final AggregateLocalitySchedulingPolicy policy =
+        new AggregateLocalitySchedulingPolicy(new FirstFitSchedulingPolicy(workerCapacity));
+    final VortexWorkerManager first = testUtil.newWorker();
+    final VortexWorkerManager second = testUtil.newWorker();
+    policy.workerAdded(first);
+    policy.workerAdded(second);
+
+    // Tasklets of the same aggregate function go to the same worker while it has resources
+    final Tasklet tasklet = testUtil.newAggregateTasklet(0);
+    final String workerId = policy.trySchedule(tasklet).get();
+    final VortexWorkerManager worker = workerId.equals(first.getId()) ? first : second;
+    final VortexWorkerManager other = worker == first ? second : first;
+    policy.taskletLaunched(worker, tasklet);
+    final Tasklet sameFunction = testUtil.newAggregateTasklet(0);
+    assertEquals("This should be the worker of the aggregate function", workerId,
+        policy.trySchedule(sameFunction).get());
+    policy.taskletLaunched(worker, sameFunction);
+
+    // ...and to another worker when it is full
+    assertEquals("The worker of the aggregate function is full", other.getId(),
+        policy.trySchedule(testUtil.newAggregateTasklet(0)).get());
+
+    // The worker of the aggregate function is forgotten when it is removed
+    policy.workerRemoved(worker);
+    final Tasklet afterRemoval = testUtil.newAggregateTasklet(0);
+    assertEquals("Only one worker exists", other.getId(), policy.trySchedule(afterRemoval).get());
+    policy.taskletLaunched(other, afterRemoval);
+    assertEquals("This should be the worker of the aggregate function", other.getId(),
+        policy.trySchedule(testUtil.newAggregateTasklet(0)).get());
+  }
+
   /**
    * Simple protocol tests.
    */
@@ -117,4 +189,17 @@ public class SchedulingPolicyTest {
     policy.workerRemoved(worker);
     assertFalse("No worker exists", policy.trySchedule(testUtil.newTasklet()).isPresent());
   }
+
+  /**
+   * VortexStart that does nothing, required by VortexMasterConf.
+   */
+  public static final class NoopVortexStart implements VortexStart {
+    @Inject
+    private NoopVortexStart() {
+    }
+
+    @Override
+    public void start(final VortexThreadPool vortexThreadPool) {
+    }
+  }
 }
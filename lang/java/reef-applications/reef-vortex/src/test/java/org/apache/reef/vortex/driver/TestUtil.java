@@ -94,6 +94,21 @@ public final class TestUtil {
     return new Tasklet(id, Optional.empty(), null, null, new VortexFuture(executor, vortexMaster, id));
   }
 
+  /**
+   * @return a new dummy tasklet that reports to the delegate.
+   */
+  public Tasklet newTasklet(final VortexFutureDelegate delegate) {
+    return new Tasklet(taskletId.getAndIncrement(), Optional.empty(), null, null, delegate);
+  }
+
+  /**
+   * @return a new dummy tasklet of the aggregate function.
+   */
+  public Tasklet newAggregateTasklet(final int aggregateFunctionId) {
+    final int id = taskletId.getAndIncrement();
+    return new Tasklet(id, Optional.of(aggregateFunctionId), null, null, new VortexFuture(executor, vortexMaster, id));
+  }
+
   /**
    * @return a new {@link AggregateFunctionRepository}
    */
@@ -57,6 +57,7 @@ import javax.inject.Inject;
 import java.io.IOException;
 import java.net.InetSocketAddress;
 import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 
@@ -86,9 +87,9 @@ public final class GRPCDriverClientService extends DriverClientGrpc.DriverClient
 
   private final InjectionFuture<DriverClientDispatcher> clientDriverDispatcher;
 
-  private final Map<String, AllocatedEvaluatorBridge> evaluatorBridgeMap = new HashMap<>();
+  private final Map<String, AllocatedEvaluatorBridge> evaluatorBridgeMap = new ConcurrentHashMap<>();
 
-  private final Map<String, ActiveContextBridge> activeContextBridgeMap = new HashMap<>();
+  private final Map<String, ActiveContextBridge> activeContextBridgeMap = new ConcurrentHashMap<>();
 
   private int outstandingEvaluatorCount = 0;
 
@@ -551,6 +552,142 @@ public final class GRPCDriverClientService extends DriverClientGrpc.DriverClient
     }
   }
 
+  @Override
+  public StreamObserver<DriverEventBatch> eventStream(final StreamObserver<DriverEventAck> responseObserver) {
+    LOG.log(Level.INFO, "Driver event stream opened");
+    return new StreamObserver<DriverEventBatch>() {
+      @Override
+      @SuppressWarnings("checkstyle:illegalcatch")
+      public void onNext(final DriverEventBatch batch) {
+        // gRPC delivers the batches one at a time, so the events are handled in order
+        for (final DriverEvent event : batch.getEventsList()) {
+          try {
+            handleEvent(event);
+          } catch (final RuntimeException e) {
+            // as with a failed unary call, the driver carries on with the next event
+            LOG.log(Level.WARNING, "Error handling driver event " + event.getSequenceNumber(), e);
+          }
+        }
+        if (batch.getEventsCount() > 0) {
+          responseObserver.onNext(DriverEventAck.newBuilder()
+              .setSequenceNumber(batch.getEvents(batch.getEventsCount() - 1).getSequenceNumber())
+              .build());
+        }
+      }
+
+      @Override
+      public void onError(final Throwable t) {
+        LOG.log(Level.WARNING, "Driver event stream failed", t);
+      }
+
+      @Override
+      public void onCompleted() {
+        LOG.log(Level.INFO, "Driver event stream closed");
+        responseObserver.onCompleted();
+      }
+    };
+  }
+
+  /**
+   * Handles an event of the event stream with the handler of its unary call.
+   */
+  private void handleEvent(final DriverEvent event) {
+    final StreamObserver<Void> observer = new EventObserver(event.getSequenceNumber());
+    switch (event.getEventCase()) {
+    case ALARM_TRIGGER:
+      alarmTrigger(event.getAlarmTrigger(), observer);
+      break;
+    case ALLOCATED_EVALUATOR:
+      allocatedEvaluatorHandler(event.getAllocatedEvaluator(), observer);
+      break;
+    case COMPLETED_EVALUATOR:
+      completedEvaluatorHandler(event.getCompletedEvaluator(), observer);
+      break;
+    case FAILED_EVALUATOR:
+      failedEvaluatorHandler(event.getFailedEvaluator(), observer);
+      break;
+    case ACTIVE_CONTEXT:
+      activeContextHandler(event.getActiveContext(), observer);
+      break;
+    case CLOSED_CONTEXT:
+      closedContextHandler(event.getClosedContext(), observer);
+      break;
+    case FAILED_CONTEXT:
+      failedContextHandler(event.getFailedContext(), observer);
+      break;
+    case CONTEXT_MESSAGE:
+      contextMessageHandler(event.getContextMessage(), observer);
+      break;
+    case RUNNING_TASK:
+      runningTaskHandler(event.getRunningTask(), observer);
+      break;
+    case FAILED_TASK:
+      failedTaskHandler(event.getFailedTask(), observer);
+      break;
+    case COMPLETED_TASK:
+      completedTaskHandler(event.getCompletedTask(), observer);
+      break;
+    case SUSPENDED_TASK:
+      suspendedTaskHandler(event.getSuspendedTask(), observer);
+      break;
+    case TASK_MESSAGE:
+      taskMessageHandler(event.getTaskMessage(), observer);
+      break;
+    case CLIENT_MESSAGE:
+      clientMessageHandler(event.getClientMessage(), observer);
+      break;
+    case CLIENT_CLOSE:
+      clientCloseHandler(event.getClientClose(), observer);
+      break;
+    case CLIENT_CLOSE_WITH_MESSAGE:
+      clientCloseWithMessageHandler(event.getClientCloseWithMessage(), observer);
+      break;
+    case DRIVER_RESTART:
+      driverRestartHandler(event.getDriverRestart(), observer);
+      break;
+    case DRIVER_RESTART_ACTIVE_CONTEXT:
+      driverRestartActiveContextHandler(event.getDriverRestartActiveContext(), observer);
+      break;
+    case DRIVER_RESTART_RUNNING_TASK:
+      driverRestartRunningTaskHandler(event.getDriverRestartRunningTask(), observer);
+      break;
+    case DRIVER_RESTART_COMPLETED:
+      driverRestartCompletedHandler(event.getDriverRestartCompleted(), observer);
+      break;
+    case DRIVER_RESTART_FAILED_EVALUATOR:
+      driverRestartFailedEvaluatorHandler(event.getDriverRestartFailedEvaluator(), observer);
+      break;
+    default:
+      LOG.log(Level.WARNING, "Unknown driver event {0}", event.getEventCase());
+    }
+  }
+
+  /**
+   * Stands in for the response observer of a unary call when handling an event of the event stream.
+   * The stream has no response per event, so errors are logged.
+   */
+  private static final class EventObserver implements StreamObserver<Void> {
+
+    private final long sequenceNumber;
+
+    private EventObserver(final long sequenceNumber) {
+      this.sequenceNumber = sequenceNumber;
+    }
+
+    @Override
+    public void onNext(final Void value) {
+    }
+
+    @Override
+    public void onError(final Throwable t) {
+      LOG.log(Level.WARNING, "Error handling driver event " + this.sequenceNumber, t);
+    }
+
+    @Override
+    public void onCompleted() {
+    }
+  }
+
   // Helper methods
   private boolean isIdle() {
     LOG.log(Level.INFO, "Clock idle {0}, outstanding evaluators {1}, current evaluators {2}",
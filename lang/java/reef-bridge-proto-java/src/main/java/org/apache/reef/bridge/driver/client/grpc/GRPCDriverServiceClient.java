@@ -87,6 +87,7 @@ public final class GRPCDriverServiceClient implements DriverServiceClient {
         DriverClientRegistration.newBuilder()
             .setHost(host)
             .setPort(port)
+            .setEventStream(true)
             .build());
   }
 
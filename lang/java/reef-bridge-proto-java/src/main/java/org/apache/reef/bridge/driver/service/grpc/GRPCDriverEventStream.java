@@ -0,0 +1,232 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.reef.bridge.driver.service.grpc;
+
+import io.grpc.Context;
+import io.grpc.stub.StreamObserver;
+import org.apache.reef.bridge.proto.DriverClientGrpc;
+import org.apache.reef.bridge.proto.DriverEvent;
+import org.apache.reef.bridge.proto.DriverEventAck;
+import org.apache.reef.bridge.proto.DriverEventBatch;
+import org.apache.reef.wake.EventHandler;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Sends driver events to the driver client on one {@code EventStream} call.
+ * Events are sent in the order they are given to {@link #send}, without waiting for the client to handle them.
+ * A single sender thread numbers the queued events and sends them in batches; it stops sending
+ * while the client is more than a window of events behind, so batches grow with the load.
+ */
+final class GRPCDriverEventStream implements AutoCloseable {
+
+  private static final Logger LOG = Logger.getLogger(GRPCDriverEventStream.class.getName());
+
+  private final BlockingQueue<DriverEvent.Builder> queue = new LinkedBlockingQueue<>();
+
+  private final AtomicLong numQueued = new AtomicLong(0);
+
+  private final int batchSize;
+
+  private final int window;
+
+  private final EventHandler<Throwable> errorHandler;
+
+  private final StreamObserver<DriverEventBatch> requestObserver;
+
+  private final Thread sender;
+
+  /**
+   * Sequence number of the last event sent. Guarded by this.
+   */
+  private long numSent = 0;
+
+  /**
+   * Sequence number of the last event acknowledged by the client. Guarded by this.
+   */
+  private long numAcked = 0;
+
+  private Throwable error = null;
+
+  private volatile boolean closed = false;
+
+  /**
+   * Opens the event stream.
+   * @param stub of the driver client
+   * @param batchSize maximum number of events in a batch
+   * @param window maximum number of events sent and not yet acknowledged
+   * @param errorHandler called, at most once, if the stream fails
+   */
+  GRPCDriverEventStream(
+      final DriverClientGrpc.DriverClientStub stub,
+      final int batchSize,
+      final int window,
+      final EventHandler<Throwable> errorHandler) {
+    if (batchSize <= 0 || window <= 0) {
+      throw new IllegalArgumentException("Batch size and window must be positive");
+    }
+    this.batchSize = Math.min(batchSize, window);
+    this.window = window;
+    this.errorHandler = errorHandler;
+    // The stream is usually opened while handling the registration call, and must outlive it
+    final Context context = Context.current().fork();
+    final Context previous = context.attach();
+    try {
+      this.requestObserver = stub.eventStream(new StreamObserver<DriverEventAck>() {
+        @Override
+        public void onNext(final DriverEventAck ack) {
+          synchronized (GRPCDriverEventStream.this) {
+            numAcked = Math.max(numAcked, ack.getSequenceNumber());
+            GRPCDriverEventStream.this.notifyAll();
+          }
+        }
+
+        @Override
+        public void onError(final Throwable t) {
+          fail(t);
+        }
+
+        @Override
+        public void onCompleted() {
+          if (!closed) {
+            fail(new IllegalStateException("Driver client closed the event stream"));
+          }
+        }
+      });
+    } finally {
+      context.detach(previous);
+    }
+    this.sender = new Thread(new Runnable() {
+      @Override
+      public void run() {
+        sendLoop();
+      }
+    }, "GRPCDriverEventStream");
+    this.sender.setDaemon(true);
+    this.sender.start();
+  }
+
+  /**
+   * Queues an event to be sent to the client. Never blocks.
+   * @param event without its sequence number
+   */
+  void send(final DriverEvent.Builder event) {
+    if (this.closed) {
+      LOG.log(Level.WARNING, "Event stream closed, dropping event {0}", event.getEventCase());
+      return;
+    }
+    this.numQueued.incrementAndGet();
+    this.queue.add(event);
+  }
+
+  /**
+   * Waits until the client has acknowledged all events sent before this call.
+   * @param timeoutMs maximum time to wait, in milliseconds
+   * @return true if all events were acknowledged, false on timeout or if the stream failed
+   * @throws InterruptedException if interrupted while waiting
+   */
+  synchronized boolean flush(final long timeoutMs) throws InterruptedException {
+    final long target = this.numQueued.get();
+    final long deadline = System.currentTimeMillis() + timeoutMs;
+    while (this.numAcked < target && this.error == null && !this.closed) {
+      final long remaining = deadline - System.currentTimeMillis();
+      if (remaining <= 0) {
+        return false;
+      }
+      this.wait(remaining);
+    }
+    return this.numAcked >= target;
+  }
+
+  /**
+   * Stops sending and completes the call. Events not yet sent are dropped.
+   */
+  @Override
+  public void close() {
+    final boolean failed;
+    synchronized (this) {
+      if (this.closed) {
+        return;
+      }
+      this.closed = true;
+      failed = this.error != null;
+      this.notifyAll();
+    }
+    this.sender.interrupt();
+    if (Thread.currentThread() != this.sender) {
+      try {
+        this.sender.join();
+      } catch (final InterruptedException e) {
+        LOG.log(Level.WARNING, "Interrupted while waiting for the event sender to stop", e);
+        Thread.currentThread().interrupt();
+      }
+      if (!failed) {
+        this.requestObserver.onCompleted();
+      }
+    }
+  }
+
+  @SuppressWarnings("checkstyle:illegalcatch")
+  private void sendLoop() {
+    final List<DriverEvent.Builder> events = new ArrayList<>(this.batchSize);
+    try {
+      while (!this.closed) {
+        events.add(this.queue.take());
+        this.queue.drainTo(events, this.batchSize - 1);
+        final DriverEventBatch.Builder batch = DriverEventBatch.newBuilder();
+        synchronized (this) {
+          while (this.numSent + events.size() - this.numAcked > this.window && this.error == null && !this.closed) {
+            this.wait();
+          }
+          if (this.error != null || this.closed) {
+            return;
+          }
+          for (final DriverEvent.Builder event : events) {
+            batch.addEvents(event.setSequenceNumber(++this.numSent));
+          }
+        }
+        this.requestObserver.onNext(batch.build());
+        events.clear();
+      }
+    } catch (final InterruptedException e) {
+      LOG.log(Level.FINE, "Event sender interrupted");
+    } catch (final RuntimeException e) {
+      this.requestObserver.onError(e);
+      fail(e);
+    }
+  }
+
+  private void fail(final Throwable t) {
+    synchronized (this) {
+      if (this.error != null || this.closed) {
+        return;
+      }
+      this.error = t;
+      this.notifyAll();
+    }
+    LOG.log(Level.SEVERE, "Driver client event stream failed", t);
+    this.errorHandler.onNext(t);
+  }
+}
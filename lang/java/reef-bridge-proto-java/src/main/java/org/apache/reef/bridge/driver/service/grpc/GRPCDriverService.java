@@ -32,6 +32,8 @@ import org.apache.reef.bridge.driver.common.grpc.ObserverCleanup;
 import org.apache.reef.bridge.driver.service.DriverService;
 import org.apache.reef.bridge.proto.*;
 import org.apache.reef.bridge.proto.Void;
+import org.apache.reef.bridge.driver.service.parameters.DriverClientEventBatchSize;
+import org.apache.reef.bridge.driver.service.parameters.DriverClientEventWindow;
 import org.apache.reef.bridge.service.parameters.DriverClientCommand;
 import org.apache.reef.driver.context.ActiveContext;
 import org.apache.reef.driver.context.ClosedContext;
@@ -62,9 +64,9 @@ import javax.inject.Inject;
 import java.io.*;
 import java.net.InetSocketAddress;
 import java.util.Arrays;
-import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ExecutionException;
 import java.util.concurrent.Future;
 import java.util.concurrent.TimeUnit;
@@ -87,7 +89,12 @@ public final class GRPCDriverService implements DriverService, DriverIdlenessSou
 
   private Server server;
 
-  private DriverClientGrpc.DriverClientFutureStub clientStub;
+  private volatile DriverClientGrpc.DriverClientFutureStub clientStub;
+
+  /**
+   * Carries the driver events if the client registered for the event stream, null otherwise.
+   */
+  private volatile GRPCDriverEventStream eventStream;
 
   private final Clock clock;
 
@@ -107,11 +114,15 @@ public final class GRPCDriverService implements DriverService, DriverIdlenessSou
 
   private final String driverClientCommand;
 
-  private final Map<String, AllocatedEvaluator> allocatedEvaluatorMap = new HashMap<>();
+  private final int eventBatchSize;
+
+  private final int eventWindow;
+
+  private final Map<String, AllocatedEvaluator> allocatedEvaluatorMap = new ConcurrentHashMap<>();
 
-  private final Map<String, ActiveContext> activeContextMap = new HashMap<>();
+  private final Map<String, ActiveContext> activeContextMap = new ConcurrentHashMap<>();
 
-  private final Map<String, RunningTask> runningTaskMap = new HashMap<>();
+  private final Map<String, RunningTask> runningTaskMap = new ConcurrentHashMap<>();
 
   private boolean stopped = false;
 
@@ -125,7 +136,9 @@ public final class GRPCDriverService implements DriverService, DriverIdlenessSou
       final DotNetProcessFactory dotNetProcessFactory,
       final TcpPortProvider tcpPortProvider,
       final ExceptionCodec exceptionCodec,
-      @Parameter(DriverClientCommand.class) final String driverClientCommand) {
+      @Parameter(DriverClientCommand.class) final String driverClientCommand,
+      @Parameter(DriverClientEventBatchSize.class) final int eventBatchSize,
+      @Parameter(DriverClientEventWindow.class) final int eventWindow) {
     this.clock = clock;
     this.reefFileNames = reefFileNames;
     this.exceptionCodec = exceptionCodec;
@@ -135,6 +148,8 @@ public final class GRPCDriverService implements DriverService, DriverIdlenessSou
     this.evaluatorRequestor = evaluatorRequestor;
     this.driverClientCommand = driverClientCommand;
     this.tcpPortProvider = tcpPortProvider;
+    this.eventBatchSize = eventBatchSize;
+    this.eventWindow = eventWindow;
   }
 
   private void start() throws IOException, InterruptedException {
@@ -197,10 +212,14 @@ public final class GRPCDriverService implements DriverService, DriverIdlenessSou
     stop(null);
   }
 
-  private void stop(final Throwable t) {
+  private synchronized void stop(final Throwable t) {
     LOG.log(Level.INFO, "STOP: gRPC Driver Service", t);
     if (!stopped) {
       try {
+        if (this.eventStream != null) {
+          this.eventStream.close();
+          this.eventStream = null;
+        }
         if (!clock.isClosed()) {
           if (t != null) {
             clock.stop(t);
@@ -286,9 +305,55 @@ public final class GRPCDriverService implements DriverService, DriverIdlenessSou
   }
 
 
+  /**
+   * Sends an event on the event stream, if there is one.
+   * @param event without its sequence number
+   * @return false if the client did not register for the event stream,
+   * in which case the event should be sent with the unary call of its handler
+   */
+  private boolean sendEvent(final DriverEvent.Builder event) {
+    final GRPCDriverEventStream stream = this.eventStream;
+    if (stream == null) {
+      return false;
+    }
+    stream.send(event);
+    return true;
+  }
+
+  /**
+   * Waits until the client has handled all events sent on the event stream, if there is one.
+   * @param timeoutMs maximum time to wait, in milliseconds
+   */
+  private void flushEvents(final long timeoutMs) throws InterruptedException {
+    final GRPCDriverEventStream stream = this.eventStream;
+    if (stream != null && !stream.flush(timeoutMs)) {
+      LOG.log(Level.WARNING, "Driver client did not handle all events within {0} ms", timeoutMs);
+    }
+  }
+
+  /**
+   * Waits up to a minute for the client to handle the events sent on the event stream.
+   * Must not be called while holding the lock of the service.
+   * @return false if interrupted, in which case the service is stopped
+   */
+  private boolean flushEventsOrStop() {
+    try {
+      flushEvents(TimeUnit.MINUTES.toMillis(1));
+      return true;
+    } catch (final InterruptedException e) {
+      stop(e);
+      return false;
+    }
+  }
+
   @Override
   public IdleMessage getIdleStatus() {
     final String componentName = "Java Bridge DriverService";
+    // The client cannot be idle before it handled the events sent to it.
+    // Wait for them outside of the lock, which the calls from the client take.
+    if (!flushEventsOrStop()) {
+      return new IdleMessage(componentName, "stub not initialized", true);
+    }
     synchronized (this) {
       if (this.clientStub != null) {
         try {
@@ -331,12 +396,14 @@ public final class GRPCDriverService implements DriverService, DriverIdlenessSou
 
   @Override
   public void stopHandler(final StopTime stopTime) {
+    // Let the client handle the events sent before the stop, without holding the lock
+    flushEventsOrStop();
     synchronized (this) {
       if (clientStub != null) {
         LOG.log(Level.INFO, "Stop handler called at {0}", stopTime);
-        final Future<ExceptionInfo> callCompletion = this.clientStub.stopHandler(
-            StopTimeInfo.newBuilder().setStopTime(stopTime.getTimestamp()).build());
         try {
+          final Future<ExceptionInfo> callCompletion = this.clientStub.stopHandler(
+              StopTimeInfo.newBuilder().setStopTime(stopTime.getTimestamp()).build());
           final ExceptionInfo error = callCompletion.get(5L, TimeUnit.MINUTES);
           if (!error.getNoError()) {
             final Optional<Throwable> t = parseException(error);
@@ -363,264 +430,276 @@ public final class GRPCDriverService implements DriverService, DriverIdlenessSou
 
   @Override
   public void allocatedEvaluatorHandler(final AllocatedEvaluator eval) {
-    synchronized (this) {
-      if (this.clientStub != null) {
-        this.allocatedEvaluatorMap.put(eval.getId(), eval);
-        this.clientStub.allocatedEvaluatorHandler(
-            EvaluatorInfo.newBuilder()
-                .setEvaluatorId(eval.getId())
-                .setDescriptorInfo(
-                    GRPCUtils.toEvaluatorDescriptorInfo(eval.getEvaluatorDescriptor()))
-                .build());
-      } else {
-        LOG.log(Level.WARNING, "client shutdown has already completed");
+    final DriverClientGrpc.DriverClientFutureStub stub = this.clientStub;
+    if (stub != null) {
+      this.allocatedEvaluatorMap.put(eval.getId(), eval);
+      final EvaluatorInfo info = EvaluatorInfo.newBuilder()
+          .setEvaluatorId(eval.getId())
+          .setDescriptorInfo(
+              GRPCUtils.toEvaluatorDescriptorInfo(eval.getEvaluatorDescriptor()))
+          .build();
+      if (!sendEvent(DriverEvent.newBuilder().setAllocatedEvaluator(info))) {
+        stub.allocatedEvaluatorHandler(info);
       }
+    } else {
+      LOG.log(Level.WARNING, "client shutdown has already completed");
     }
   }
 
   @Override
   public void completedEvaluatorHandler(final CompletedEvaluator eval) {
-    synchronized (this) {
-      if (this.clientStub != null) {
-        this.allocatedEvaluatorMap.remove(eval.getId());
-        this.clientStub.completedEvaluatorHandler(
-            EvaluatorInfo.newBuilder().setEvaluatorId(eval.getId()).build());
-      } else {
-        LOG.log(Level.WARNING, "client shutdown has already completed");
+    final DriverClientGrpc.DriverClientFutureStub stub = this.clientStub;
+    if (stub != null) {
+      this.allocatedEvaluatorMap.remove(eval.getId());
+      final EvaluatorInfo info = EvaluatorInfo.newBuilder().setEvaluatorId(eval.getId()).build();
+      if (!sendEvent(DriverEvent.newBuilder().setCompletedEvaluator(info))) {
+        stub.completedEvaluatorHandler(info);
       }
+    } else {
+      LOG.log(Level.WARNING, "client shutdown has already completed");
     }
   }
 
   @Override
   public void failedEvaluatorHandler(final FailedEvaluator eval) {
-    synchronized (this) {
-      if (this.clientStub != null) {
-        this.allocatedEvaluatorMap.remove(eval.getId());
-        this.clientStub.failedEvaluatorHandler(
-            EvaluatorInfo.newBuilder().setEvaluatorId(eval.getId()).build());
-      } else {
-        LOG.log(Level.WARNING, "client shutdown has already completed");
+    final DriverClientGrpc.DriverClientFutureStub stub = this.clientStub;
+    if (stub != null) {
+      this.allocatedEvaluatorMap.remove(eval.getId());
+      final EvaluatorInfo info = EvaluatorInfo.newBuilder().setEvaluatorId(eval.getId()).build();
+      if (!sendEvent(DriverEvent.newBuilder().setFailedEvaluator(info))) {
+        stub.failedEvaluatorHandler(info);
       }
+    } else {
+      LOG.log(Level.WARNING, "client shutdown has already completed");
     }
   }
 
   @Override
   public void activeContextHandler(final ActiveContext context) {
-    synchronized (this) {
-      if (this.clientStub != null) {
-        this.activeContextMap.put(context.getId(), context);
-        this.clientStub.activeContextHandler(GRPCUtils.toContextInfo(context));
-      } else {
-        LOG.log(Level.WARNING, "client shutdown has already completed");
+    final DriverClientGrpc.DriverClientFutureStub stub = this.clientStub;
+    if (stub != null) {
+      this.activeContextMap.put(context.getId(), context);
+      final ContextInfo info = GRPCUtils.toContextInfo(context);
+      if (!sendEvent(DriverEvent.newBuilder().setActiveContext(info))) {
+        stub.activeContextHandler(info);
       }
+    } else {
+      LOG.log(Level.WARNING, "client shutdown has already completed");
     }
   }
 
   @Override
   public void closedContextHandler(final ClosedContext context) {
-    synchronized (this) {
-      if (this.clientStub != null) {
-        this.activeContextMap.remove(context.getId());
-        this.clientStub.closedContextHandler(GRPCUtils.toContextInfo(context));
-      } else {
-        LOG.log(Level.WARNING, "client shutdown has already completed");
+    final DriverClientGrpc.DriverClientFutureStub stub = this.clientStub;
+    if (stub != null) {
+      this.activeContextMap.remove(context.getId());
+      final ContextInfo info = GRPCUtils.toContextInfo(context);
+      if (!sendEvent(DriverEvent.newBuilder().setClosedContext(info))) {
+        stub.closedContextHandler(info);
       }
+    } else {
+      LOG.log(Level.WARNING, "client shutdown has already completed");
     }
   }
 
   @Override
   public void failedContextHandler(final FailedContext context) {
-    synchronized (this) {
-      if (this.clientStub != null) {
-        final ExceptionInfo error;
-        if (context.getReason().isPresent()) {
-          final Throwable reason = context.getReason().get();
-          error = GRPCUtils.createExceptionInfo(this.exceptionCodec, reason);
-        } else if (context.getData().isPresent()) {
-          error = ExceptionInfo.newBuilder()
-              .setName(context.toString())
-              .setMessage(context.getDescription().orElse(
-                  context.getMessage() != null ? context.getMessage() : ""))
-              .setData(ByteString.copyFrom(context.getData().get()))
-              .build();
-        } else {
-          error = GRPCUtils.createExceptionInfo(this.exceptionCodec, context.asError());
-        }
-        this.activeContextMap.remove(context.getId());
-        this.clientStub.failedContextHandler(GRPCUtils.toContextInfo(context, error));
+    final DriverClientGrpc.DriverClientFutureStub stub = this.clientStub;
+    if (stub != null) {
+      final ExceptionInfo error;
+      if (context.getReason().isPresent()) {
+        final Throwable reason = context.getReason().get();
+        error = GRPCUtils.createExceptionInfo(this.exceptionCodec, reason);
+      } else if (context.getData().isPresent()) {
+        error = ExceptionInfo.newBuilder()
+            .setName(context.toString())
+            .setMessage(context.getDescription().orElse(
+                context.getMessage() != null ? context.getMessage() : ""))
+            .setData(ByteString.copyFrom(context.getData().get()))
+            .build();
       } else {
-        LOG.log(Level.WARNING, "client shutdown has already completed");
+        error = GRPCUtils.createExceptionInfo(this.exceptionCodec, context.asError());
+      }
+      this.activeContextMap.remove(context.getId());
+      final ContextInfo info = GRPCUtils.toContextInfo(context, error);
+      if (!sendEvent(DriverEvent.newBuilder().setFailedContext(info))) {
+        stub.failedContextHandler(info);
       }
+    } else {
+      LOG.log(Level.WARNING, "client shutdown has already completed");
     }
   }
 
   @Override
   public void contextMessageHandler(final ContextMessage message) {
-    synchronized (this) {
-      if (this.clientStub != null) {
-        this.clientStub.contextMessageHandler(
-            ContextMessageInfo.newBuilder()
-                .setContextId(message.getId())
-                .setMessageSourceId(message.getMessageSourceID())
-                .setSequenceNumber(message.getSequenceNumber())
-                .setPayload(ByteString.copyFrom(message.get()))
-                .build());
-      } else {
-        LOG.log(Level.WARNING, "client shutdown has already completed");
+    final DriverClientGrpc.DriverClientFutureStub stub = this.clientStub;
+    if (stub != null) {
+      final ContextMessageInfo info = ContextMessageInfo.newBuilder()
+          .setContextId(message.getId())
+          .setMessageSourceId(message.getMessageSourceID())
+          .setSequenceNumber(message.getSequenceNumber())
+          .setPayload(ByteString.copyFrom(message.get()))
+          .build();
+      if (!sendEvent(DriverEvent.newBuilder().setContextMessage(info))) {
+        stub.contextMessageHandler(info);
       }
+    } else {
+      LOG.log(Level.WARNING, "client shutdown has already completed");
     }
   }
 
   @Override
   public void runningTaskHandler(final RunningTask task) {
-    synchronized (this) {
-      if (this.clientStub != null) {
-        final ActiveContext context = task.getActiveContext();
-        if (!this.activeContextMap.containsKey(context.getId())) {
-          this.activeContextMap.put(context.getId(), context);
-        }
-        this.runningTaskMap.put(task.getId(), task);
-        this.clientStub.runningTaskHandler(
-            TaskInfo.newBuilder()
-                .setTaskId(task.getId())
-                .setContext(GRPCUtils.toContextInfo(context))
-                .build());
-      } else {
-        LOG.log(Level.WARNING, "client shutdown has already completed");
+    final DriverClientGrpc.DriverClientFutureStub stub = this.clientStub;
+    if (stub != null) {
+      final ActiveContext context = task.getActiveContext();
+      this.activeContextMap.putIfAbsent(context.getId(), context);
+      this.runningTaskMap.put(task.getId(), task);
+      final TaskInfo info = TaskInfo.newBuilder()
+          .setTaskId(task.getId())
+          .setContext(GRPCUtils.toContextInfo(context))
+          .build();
+      if (!sendEvent(DriverEvent.newBuilder().setRunningTask(info))) {
+        stub.runningTaskHandler(info);
       }
+    } else {
+      LOG.log(Level.WARNING, "client shutdown has already completed");
     }
   }
 
   @Override
   public void failedTaskHandler(final FailedTask task) {
-    synchronized (this) {
-      if (this.clientStub != null) {
-        if (task.getActiveContext().isPresent() &&
-            !this.activeContextMap.containsKey(task.getActiveContext().get().getId())) {
-          this.activeContextMap.put(task.getActiveContext().get().getId(), task.getActiveContext().get());
-        }
-        final TaskInfo.Builder taskInfoBuilder = TaskInfo.newBuilder()
-            .setTaskId(task.getId());
-        if (task.getActiveContext().isPresent()) {
-          taskInfoBuilder.setContext(GRPCUtils.toContextInfo(task.getActiveContext().get()));
-        }
-        if (task.getReason().isPresent()) {
-          LOG.log(Level.WARNING, "Task exception present", task.getReason().get());
-          taskInfoBuilder.setException(GRPCUtils.createExceptionInfo(this.exceptionCodec, task.getReason().get()));
-        } else if (task.getData().isPresent()) {
-          LOG.log(Level.WARNING, "Not able to deserialize task exception {0}", task.getMessage());
-          final Throwable reason = task.asError();
-          taskInfoBuilder.setException(ExceptionInfo.newBuilder()
-              .setName(reason.toString())
-              .setMessage(StringUtils.isNotEmpty(task.getMessage()) ? task.getMessage() : reason.toString())
-              .setData(ByteString.copyFrom(task.getData().get()))
-              .build());
-        } else {
-          LOG.log(Level.WARNING, "Serialize generic error");
-          taskInfoBuilder.setException(GRPCUtils.createExceptionInfo(this.exceptionCodec, task.asError()));
-        }
-        this.runningTaskMap.remove(task.getId());
-        this.clientStub.failedTaskHandler(taskInfoBuilder.build());
+    final DriverClientGrpc.DriverClientFutureStub stub = this.clientStub;
+    if (stub != null) {
+      if (task.getActiveContext().isPresent()) {
+        this.activeContextMap.putIfAbsent(task.getActiveContext().get().getId(), task.getActiveContext().get());
+      }
+      final TaskInfo.Builder taskInfoBuilder = TaskInfo.newBuilder()
+          .setTaskId(task.getId());
+      if (task.getActiveContext().isPresent()) {
+        taskInfoBuilder.setContext(GRPCUtils.toContextInfo(task.getActiveContext().get()));
+      }
+      if (task.getReason().isPresent()) {
+        LOG.log(Level.WARNING, "Task exception present", task.getReason().get());
+        taskInfoBuilder.setException(GRPCUtils.createExceptionInfo(this.exceptionCodec, task.getReason().get()));
+      } else if (task.getData().isPresent()) {
+        LOG.log(Level.WARNING, "Not able to deserialize task exception {0}", task.getMessage());
+        final Throwable reason = task.asError();
+        taskInfoBuilder.setException(ExceptionInfo.newBuilder()
+            .setName(reason.toString())
+            .setMessage(StringUtils.isNotEmpty(task.getMessage()) ? task.getMessage() : reason.toString())
+            .setData(ByteString.copyFrom(task.getData().get()))
+            .build());
       } else {
-        LOG.log(Level.WARNING, "client shutdown has already completed");
+        LOG.log(Level.WARNING, "Serialize generic error");
+        taskInfoBuilder.setException(GRPCUtils.createExceptionInfo(this.exceptionCodec, task.asError()));
       }
+      this.runningTaskMap.remove(task.getId());
+      final TaskInfo info = taskInfoBuilder.build();
+      if (!sendEvent(DriverEvent.newBuilder().setFailedTask(info))) {
+        stub.failedTaskHandler(info);
+      }
+    } else {
+      LOG.log(Level.WARNING, "client shutdown has already completed");
     }
   }
 
   @Override
   public void completedTaskHandler(final CompletedTask task) {
-    synchronized (this) {
-      if (this.clientStub != null) {
-        if (!this.activeContextMap.containsKey(task.getActiveContext().getId())) {
-          this.activeContextMap.put(task.getActiveContext().getId(), task.getActiveContext());
-        }
-        this.runningTaskMap.remove(task.getId());
-        this.clientStub.completedTaskHandler(
-            TaskInfo.newBuilder()
-                .setTaskId(task.getId())
-                .setContext(GRPCUtils.toContextInfo(task.getActiveContext()))
-                .build());
-      } else {
-        LOG.log(Level.WARNING, "client shutdown has already completed");
+    final DriverClientGrpc.DriverClientFutureStub stub = this.clientStub;
+    if (stub != null) {
+      this.activeContextMap.putIfAbsent(task.getActiveContext().getId(), task.getActiveContext());
+      this.runningTaskMap.remove(task.getId());
+      final TaskInfo info = TaskInfo.newBuilder()
+          .setTaskId(task.getId())
+          .setContext(GRPCUtils.toContextInfo(task.getActiveContext()))
+          .build();
+      if (!sendEvent(DriverEvent.newBuilder().setCompletedTask(info))) {
+        stub.completedTaskHandler(info);
       }
+    } else {
+      LOG.log(Level.WARNING, "client shutdown has already completed");
     }
   }
 
   @Override
   public void suspendedTaskHandler(final SuspendedTask task) {
-    synchronized (this) {
-      if (this.clientStub != null) {
-        if (!this.activeContextMap.containsKey(task.getActiveContext().getId())) {
-          this.activeContextMap.put(task.getActiveContext().getId(), task.getActiveContext());
-        }
-        this.runningTaskMap.remove(task.getId());
-        this.clientStub.suspendedTaskHandler(
-            TaskInfo.newBuilder()
-                .setTaskId(task.getId())
-                .setContext(GRPCUtils.toContextInfo(task.getActiveContext()))
-                .setResult(task.get() == null || task.get().length == 0 ?
-                    null : ByteString.copyFrom(task.get()))
-                .build());
-      } else {
-        LOG.log(Level.WARNING, "client shutdown has already completed");
+    final DriverClientGrpc.DriverClientFutureStub stub = this.clientStub;
+    if (stub != null) {
+      this.activeContextMap.putIfAbsent(task.getActiveContext().getId(), task.getActiveContext());
+      this.runningTaskMap.remove(task.getId());
+      final TaskInfo info = TaskInfo.newBuilder()
+          .setTaskId(task.getId())
+          .setContext(GRPCUtils.toContextInfo(task.getActiveContext()))
+          .setResult(task.get() == null || task.get().length == 0 ?
+              null : ByteString.copyFrom(task.get()))
+          .build();
+      if (!sendEvent(DriverEvent.newBuilder().setSuspendedTask(info))) {
+        stub.suspendedTaskHandler(info);
       }
+    } else {
+      LOG.log(Level.WARNING, "client shutdown has already completed");
     }
   }
 
   @Override
   public void taskMessageHandler(final TaskMessage message) {
-    synchronized (this) {
-      if (this.clientStub != null) {
-        this.clientStub.taskMessageHandler(
-            TaskMessageInfo.newBuilder()
-                .setTaskId(message.getId())
-                .setContextId(message.getContextId())
-                .setMessageSourceId(message.getMessageSourceID())
-                .setSequenceNumber(message.getSequenceNumber())
-                .setPayload(ByteString.copyFrom(message.get()))
-                .build());
-      } else {
-        LOG.log(Level.WARNING, "client shutdown has already completed");
+    final DriverClientGrpc.DriverClientFutureStub stub = this.clientStub;
+    if (stub != null) {
+      final TaskMessageInfo info = TaskMessageInfo.newBuilder()
+          .setTaskId(message.getId())
+          .setContextId(message.getContextId())
+          .setMessageSourceId(message.getMessageSourceID())
+          .setSequenceNumber(message.getSequenceNumber())
+          .setPayload(ByteString.copyFrom(message.get()))
+          .build();
+      if (!sendEvent(DriverEvent.newBuilder().setTaskMessage(info))) {
+        stub.taskMessageHandler(info);
       }
+    } else {
+      LOG.log(Level.WARNING, "client shutdown has already completed");
     }
   }
 
   @Override
   public void clientMessageHandler(final byte[] message) {
-    synchronized (this) {
-      if (this.clientStub != null) {
-        this.clientStub.clientMessageHandler(
-            ClientMessageInfo.newBuilder()
-                .setPayload(ByteString.copyFrom(message))
-                .build());
-      } else {
-        LOG.log(Level.WARNING, "client shutdown has already completed");
+    final DriverClientGrpc.DriverClientFutureStub stub = this.clientStub;
+    if (stub != null) {
+      final ClientMessageInfo info = ClientMessageInfo.newBuilder()
+          .setPayload(ByteString.copyFrom(message))
+          .build();
+      if (!sendEvent(DriverEvent.newBuilder().setClientMessage(info))) {
+        stub.clientMessageHandler(info);
       }
+    } else {
+      LOG.log(Level.WARNING, "client shutdown has already completed");
     }
   }
 
   @Override
   public void clientCloseHandler() {
-    synchronized (this) {
-      if (this.clientStub != null) {
-        this.clientStub.clientCloseHandler(VOID);
-      } else {
-        LOG.log(Level.WARNING, "client shutdown has already completed");
+    final DriverClientGrpc.DriverClientFutureStub stub = this.clientStub;
+    if (stub != null) {
+      if (!sendEvent(DriverEvent.newBuilder().setClientClose(VOID))) {
+        stub.clientCloseHandler(VOID);
       }
+    } else {
+      LOG.log(Level.WARNING, "client shutdown has already completed");
     }
   }
 
   @Override
   public void clientCloseWithMessageHandler(final byte[] message) {
-    synchronized (this) {
-      if (this.clientStub != null) {
-        this.clientStub.clientCloseWithMessageHandler(
-            ClientMessageInfo.newBuilder()
-                .setPayload(ByteString.copyFrom(message))
-                .build());
-      } else {
-        LOG.log(Level.WARNING, "client shutdown has already completed");
+    final DriverClientGrpc.DriverClientFutureStub stub = this.clientStub;
+    if (stub != null) {
+      final ClientMessageInfo info = ClientMessageInfo.newBuilder()
+          .setPayload(ByteString.copyFrom(message))
+          .build();
+      if (!sendEvent(DriverEvent.newBuilder().setClientCloseWithMessage(info))) {
+        stub.clientCloseWithMessageHandler(info);
       }
+    } else {
+      LOG.log(Level.WARNING, "client shutdown has already completed");
     }
   }
 
@@ -631,82 +710,88 @@ public final class GRPCDriverService implements DriverService, DriverIdlenessSou
     } catch (final InterruptedException | IOException e) {
       throw new RuntimeException("unable to start driver client", e);
     }
-    synchronized (this) {
-      if (this.clientStub != null) {
-        this.clientStub.driverRestartHandler(DriverRestartInfo.newBuilder()
-            .setResubmissionAttempts(restart.getResubmissionAttempts())
-            .setStartTime(StartTimeInfo.newBuilder()
-                .setStartTime(restart.getStartTime().getTimestamp()).build())
-            .addAllExpectedEvaluatorIds(restart.getExpectedEvaluatorIds())
-            .build());
-      } else {
-        throw new RuntimeException("client stub not running");
+    final DriverClientGrpc.DriverClientFutureStub stub = this.clientStub;
+    if (stub != null) {
+      final DriverRestartInfo info = DriverRestartInfo.newBuilder()
+          .setResubmissionAttempts(restart.getResubmissionAttempts())
+          .setStartTime(StartTimeInfo.newBuilder()
+              .setStartTime(restart.getStartTime().getTimestamp()).build())
+          .addAllExpectedEvaluatorIds(restart.getExpectedEvaluatorIds())
+          .build();
+      if (!sendEvent(DriverEvent.newBuilder().setDriverRestart(info))) {
+        stub.driverRestartHandler(info);
       }
+    } else {
+      throw new RuntimeException("client stub not running");
     }
   }
 
   @Override
   public void restartRunningTask(final RunningTask task) {
-    synchronized (this) {
-      if (this.clientStub != null) {
-        final ActiveContext context = task.getActiveContext();
-        if (!this.activeContextMap.containsKey(context.getId())) {
-          this.activeContextMap.put(context.getId(), context);
-        }
-        this.runningTaskMap.put(task.getId(), task);
-        this.clientStub.driverRestartRunningTaskHandler(
-            TaskInfo.newBuilder()
-                .setTaskId(task.getId())
-                .setContext(GRPCUtils.toContextInfo(context))
-                .build());
-      } else {
-        throw new RuntimeException("client stub not running");
+    final DriverClientGrpc.DriverClientFutureStub stub = this.clientStub;
+    if (stub != null) {
+      final ActiveContext context = task.getActiveContext();
+      this.activeContextMap.putIfAbsent(context.getId(), context);
+      this.runningTaskMap.put(task.getId(), task);
+      final TaskInfo info = TaskInfo.newBuilder()
+          .setTaskId(task.getId())
+          .setContext(GRPCUtils.toContextInfo(context))
+          .build();
+      if (!sendEvent(DriverEvent.newBuilder().setDriverRestartRunningTask(info))) {
+        stub.driverRestartRunningTaskHandler(info);
       }
+    } else {
+      throw new RuntimeException("client stub not running");
     }
   }
 
   @Override
   public void restartActiveContext(final ActiveContext context) {
-    synchronized (this) {
-      if (this.clientStub != null) {
-        this.activeContextMap.put(context.getId(), context);
-        this.clientStub.driverRestartActiveContextHandler(
-            GRPCUtils.toContextInfo(context));
-      } else {
-        throw new RuntimeException("client stub not running");
+    final DriverClientGrpc.DriverClientFutureStub stub = this.clientStub;
+    if (stub != null) {
+      this.activeContextMap.put(context.getId(), context);
+      final ContextInfo info = GRPCUtils.toContextInfo(context);
+      if (!sendEvent(DriverEvent.newBuilder().setDriverRestartActiveContext(info))) {
+        stub.driverRestartActiveContextHandler(info);
       }
+    } else {
+      throw new RuntimeException("client stub not running");
     }
   }
 
   @Override
   public void driverRestartCompleted(final DriverRestartCompleted restartCompleted) {
-    synchronized (this) {
-      if (this.clientStub != null) {
-        this.clientStub.driverRestartCompletedHandler(DriverRestartCompletedInfo.newBuilder()
-            .setCompletionTime(StopTimeInfo.newBuilder()
-                .setStopTime(restartCompleted.getCompletedTime().getTimestamp()).build())
-            .setIsTimedOut(restartCompleted.isTimedOut())
-            .build());
-      } else {
-        throw new RuntimeException("client stub not running");
+    final DriverClientGrpc.DriverClientFutureStub stub = this.clientStub;
+    if (stub != null) {
+      final DriverRestartCompletedInfo info = DriverRestartCompletedInfo.newBuilder()
+          .setCompletionTime(StopTimeInfo.newBuilder()
+              .setStopTime(restartCompleted.getCompletedTime().getTimestamp()).build())
+          .setIsTimedOut(restartCompleted.isTimedOut())
+          .build();
+      if (!sendEvent(DriverEvent.newBuilder().setDriverRestartCompleted(info))) {
+        stub.driverRestartCompletedHandler(info);
       }
+    } else {
+      throw new RuntimeException("client stub not running");
     }
   }
 
   @Override
   public void restartFailedEvalautor(final FailedEvaluator evaluator) {
-    synchronized (this) {
-      if (this.clientStub != null) {
-        this.clientStub.driverRestartFailedEvaluatorHandler(EvaluatorInfo.newBuilder()
-            .setEvaluatorId(evaluator.getId())
-            .setFailure(EvaluatorInfo.FailureInfo.newBuilder()
-                .setMessage(evaluator.getEvaluatorException() != null ?
-                    evaluator.getEvaluatorException().getMessage() : "unknown failure during restart")
-                .build())
-            .build());
-      } else {
-        throw new RuntimeException("client stub not running");
+    final DriverClientGrpc.DriverClientFutureStub stub = this.clientStub;
+    if (stub != null) {
+      final EvaluatorInfo info = EvaluatorInfo.newBuilder()
+          .setEvaluatorId(evaluator.getId())
+          .setFailure(EvaluatorInfo.FailureInfo.newBuilder()
+              .setMessage(evaluator.getEvaluatorException() != null ?
+                  evaluator.getEvaluatorException().getMessage() : "unknown failure during restart")
+              .build())
+          .build();
+      if (!sendEvent(DriverEvent.newBuilder().setDriverRestartFailedEvaluator(info))) {
+        stub.driverRestartFailedEvaluatorHandler(info);
       }
+    } else {
+      throw new RuntimeException("client stub not running");
     }
   }
 
@@ -746,8 +831,18 @@ public final class GRPCDriverService implements DriverService, DriverIdlenessSou
                 .forAddress(request.getHost(), request.getPort())
                 .usePlaintext()
                 .build();
+            if (request.getEventStream()) {
+              GRPCDriverService.this.eventStream = new GRPCDriverEventStream(
+                  DriverClientGrpc.newStub(channel), eventBatchSize, eventWindow, new EventHandler<Throwable>() {
+                    @Override
+                    public void onNext(final Throwable t) {
+                      stop(t);
+                    }
+                  });
+            }
             GRPCDriverService.this.clientStub = DriverClientGrpc.newFutureStub(channel);
-            LOG.log(Level.INFO, "Driver has registered on port {0}", request.getPort());
+            LOG.log(Level.INFO, "Driver has registered on port {0}, event stream {1}",
+                new Object[] {request.getPort(), request.getEventStream()});
           }
         } finally {
           GRPCDriverService.this.notifyAll();
@@ -818,10 +913,15 @@ public final class GRPCDriverService implements DriverService, DriverIdlenessSou
           @Override
           public void onNext(final Alarm value) {
             LOG.log(Level.INFO, "Trigger alarm {0}", request.getAlarmId());
-            synchronized (GRPCDriverService.this) {
-              GRPCDriverService.this.clientStub.alarmTrigger(
-                  AlarmTriggerInfo.newBuilder().setAlarmId(request.getAlarmId()).build());
+            final DriverClientGrpc.DriverClientFutureStub stub = GRPCDriverService.this.clientStub;
+            if (stub != null) {
+              final AlarmTriggerInfo info = AlarmTriggerInfo.newBuilder().setAlarmId(request.getAlarmId()).build();
+              if (!sendEvent(DriverEvent.newBuilder().setAlarmTrigger(info))) {
+                stub.alarmTrigger(info);
+              }
               LOG.log(Level.INFO, "DONE: trigger alarm {0}", request.getAlarmId());
+            } else {
+              LOG.log(Level.WARNING, "client shutdown has already completed");
             }
           }
         });
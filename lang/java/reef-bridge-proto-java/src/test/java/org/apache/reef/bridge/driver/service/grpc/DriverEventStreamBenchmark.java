@@ -0,0 +1,172 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.reef.bridge.driver.service.grpc;
+
+import com.google.protobuf.ByteString;
+import io.grpc.ManagedChannel;
+import io.grpc.Server;
+import io.grpc.inprocess.InProcessChannelBuilder;
+import io.grpc.inprocess.InProcessServerBuilder;
+import io.grpc.stub.StreamObserver;
+import org.apache.reef.bridge.proto.*;
+import org.apache.reef.bridge.proto.Void;
+import org.apache.reef.wake.EventHandler;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Compares the throughput of task messages sent to the driver client as unary calls and on the event stream.
+ * The driver client is an in-process gRPC stand-in that counts the messages it handles.
+ * Unary calls are sent either one round trip at a time or all at once, waiting for all of them at the end.
+ * <p>
+ * Run with {@code java -cp <test classpath> org.apache.reef.bridge.driver.service.grpc.DriverEventStreamBenchmark
+ * [events] [batch size] [window]}.
+ */
+public final class DriverEventStreamBenchmark {
+
+  private static final int WARMUP_EVENTS = 20000;
+
+  private static final ByteString PAYLOAD = ByteString.copyFrom(new byte[64]);
+
+  private DriverEventStreamBenchmark() {
+  }
+
+  public static void main(final String[] args) throws Exception {
+    final int events = args.length > 0 ? Integer.parseInt(args[0]) : 100000;
+    final int batchSize = args.length > 1 ? Integer.parseInt(args[1]) : 256;
+    final int window = args.length > 2 ? Integer.parseInt(args[2]) : 4096;
+
+    final String name = InProcessServerBuilder.generateName();
+    final DriverClientStandIn client = new DriverClientStandIn();
+    final Server server = InProcessServerBuilder.forName(name).addService(client).build().start();
+    final ManagedChannel channel = InProcessChannelBuilder.forName(name).build();
+    try {
+      final DriverClientGrpc.DriverClientFutureStub futureStub = DriverClientGrpc.newFutureStub(channel);
+      final GRPCDriverEventStream stream = new GRPCDriverEventStream(
+          DriverClientGrpc.newStub(channel), batchSize, window, new EventHandler<Throwable>() {
+            @Override
+            public void onNext(final Throwable t) {
+              throw new RuntimeException("event stream failed", t);
+            }
+          });
+
+      runBlocking(futureStub, WARMUP_EVENTS);
+      runPipelined(futureStub, WARMUP_EVENTS);
+      runStream(stream, WARMUP_EVENTS);
+
+      report("blocking unary", runBlocking(futureStub, events), events);
+      report("pipelined unary", runPipelined(futureStub, events), events);
+      report("event stream", runStream(stream, events), events);
+      System.out.println(String.format("%d events handled", client.handled.get()));
+      stream.close();
+    } finally {
+      channel.shutdownNow();
+      server.shutdownNow();
+    }
+  }
+
+  private static long runBlocking(final DriverClientGrpc.DriverClientFutureStub stub, final int events)
+      throws ExecutionException, InterruptedException {
+    final long start = System.nanoTime();
+    for (int i = 0; i < events; ++i) {
+      stub.taskMessageHandler(taskMessage(i)).get();
+    }
+    return System.nanoTime() - start;
+  }
+
+  private static long runPipelined(final DriverClientGrpc.DriverClientFutureStub stub, final int events)
+      throws ExecutionException, InterruptedException {
+    final long start = System.nanoTime();
+    final List<Future<Void>> calls = new ArrayList<>(events);
+    for (int i = 0; i < events; ++i) {
+      calls.add(stub.taskMessageHandler(taskMessage(i)));
+    }
+    for (final Future<Void> call : calls) {
+      call.get();
+    }
+    return System.nanoTime() - start;
+  }
+
+  private static long runStream(final GRPCDriverEventStream stream, final int events) throws InterruptedException {
+    final long start = System.nanoTime();
+    for (int i = 0; i < events; ++i) {
+      stream.send(DriverEvent.newBuilder().setTaskMessage(taskMessage(i)));
+    }
+    if (!stream.flush(60000)) {
+      throw new IllegalStateException("events not acknowledged");
+    }
+    return System.nanoTime() - start;
+  }
+
+  private static TaskMessageInfo taskMessage(final int sequenceNumber) {
+    return TaskMessageInfo.newBuilder()
+        .setTaskId("Task-" + (sequenceNumber % 100))
+        .setContextId("Context-" + (sequenceNumber % 100))
+        .setMessageSourceId("Source")
+        .setSequenceNumber(sequenceNumber)
+        .setPayload(PAYLOAD)
+        .build();
+  }
+
+  private static void report(final String name, final long nanos, final int events) {
+    System.out.println(String.format("%-16s %10.0f events/s %8.2f us/event",
+        name, events * 1e9 / nanos, nanos / 1000.0 / events));
+  }
+
+  /**
+   * Handles task messages as unary calls and on the event stream.
+   */
+  private static final class DriverClientStandIn extends DriverClientGrpc.DriverClientImplBase {
+
+    private final AtomicLong handled = new AtomicLong(0);
+
+    @Override
+    public void taskMessageHandler(final TaskMessageInfo request, final StreamObserver<Void> responseObserver) {
+      this.handled.incrementAndGet();
+      responseObserver.onNext(Void.getDefaultInstance());
+      responseObserver.onCompleted();
+    }
+
+    @Override
+    public StreamObserver<DriverEventBatch> eventStream(final StreamObserver<DriverEventAck> responseObserver) {
+      return new StreamObserver<DriverEventBatch>() {
+        @Override
+        public void onNext(final DriverEventBatch batch) {
+          handled.addAndGet(batch.getEventsCount());
+          responseObserver.onNext(DriverEventAck.newBuilder()
+              .setSequenceNumber(batch.getEvents(batch.getEventsCount() - 1).getSequenceNumber())
+              .build());
+        }
+
+        @Override
+        public void onError(final Throwable t) {
+        }
+
+        @Override
+        public void onCompleted() {
+          responseObserver.onCompleted();
+        }
+      };
+    }
+  }
+}
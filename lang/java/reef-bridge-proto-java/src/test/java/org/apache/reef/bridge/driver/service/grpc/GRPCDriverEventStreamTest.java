@@ -0,0 +1,332 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.reef.bridge.driver.service.grpc;
+
+import io.grpc.ManagedChannel;
+import io.grpc.Server;
+import io.grpc.Status;
+import io.grpc.inprocess.InProcessChannelBuilder;
+import io.grpc.inprocess.InProcessServerBuilder;
+import io.grpc.stub.StreamObserver;
+import org.apache.reef.bridge.proto.DriverClientGrpc;
+import org.apache.reef.bridge.proto.DriverEvent;
+import org.apache.reef.bridge.proto.DriverEventAck;
+import org.apache.reef.bridge.proto.DriverEventBatch;
+import org.apache.reef.bridge.proto.TaskMessageInfo;
+import org.apache.reef.wake.EventHandler;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Tests for GRPCDriverEventStream, against an in-process stand-in of the driver client
+ * that acknowledges the events either as they arrive or when the test says so.
+ */
+public final class GRPCDriverEventStreamTest {
+
+  private static final long TIMEOUT_MS = 10000;
+
+  private DriverClientStandIn client;
+
+  private Server server;
+
+  private ManagedChannel channel;
+
+  private final BlockingQueue<Throwable> errors = new LinkedBlockingQueue<>();
+
+  @Before
+  public void setUp() throws IOException {
+    final String name = InProcessServerBuilder.generateName();
+    this.client = new DriverClientStandIn();
+    this.server = InProcessServerBuilder.forName(name).addService(this.client).build().start();
+    this.channel = InProcessChannelBuilder.forName(name).build();
+  }
+
+  @After
+  public void tearDown() {
+    this.channel.shutdownNow();
+    this.server.shutdownNow();
+  }
+
+  /**
+   * Events arrive in the order they were sent, numbered from 1, and a flush waits for all of them.
+   */
+  @Test
+  public void testEventsArriveInOrder() throws InterruptedException {
+    this.client.setAutoAck(true);
+    final int numEvents = 1000;
+    try (GRPCDriverEventStream stream = newStream(16, 64)) {
+      for (int i = 0; i < numEvents; ++i) {
+        stream.send(taskMessage(i));
+      }
+      Assert.assertTrue(stream.flush(TIMEOUT_MS));
+      final List<DriverEvent> received = this.client.getReceived();
+      Assert.assertEquals(numEvents, received.size());
+      for (int i = 0; i < numEvents; ++i) {
+        Assert.assertEquals(i + 1, received.get(i).getSequenceNumber());
+        Assert.assertEquals(i, received.get(i).getTaskMessage().getSequenceNumber());
+      }
+    }
+    Assert.assertTrue(this.errors.isEmpty());
+  }
+
+  /**
+   * No more than a window of events is sent ahead of the acknowledgements of the client.
+   */
+  @Test
+  public void testWindowLimitsUnacknowledgedEvents() throws InterruptedException {
+    final int window = 8;
+    try (GRPCDriverEventStream stream = newStream(4, window)) {
+      for (int i = 0; i < 100; ++i) {
+        stream.send(taskMessage(i));
+      }
+      this.client.awaitReceived(window);
+      Thread.sleep(200);
+      Assert.assertEquals(window, this.client.getReceived().size());
+
+      // Each acknowledgement lets the sender go on by as many events
+      this.client.ack(4);
+      this.client.awaitReceived(window + 4);
+      Thread.sleep(200);
+      Assert.assertEquals(window + 4, this.client.getReceived().size());
+
+      this.client.setAutoAck(true);
+      this.client.ack(window + 4);
+      Assert.assertTrue(stream.flush(TIMEOUT_MS));
+      Assert.assertEquals(100, this.client.getReceived().size());
+    }
+    Assert.assertTrue(this.errors.isEmpty());
+  }
+
+  /**
+   * A flush returns at once when no event is pending, as when the driver is idle,
+   * and otherwise waits until the client acknowledged the events sent before it.
+   */
+  @Test
+  public void testFlushWaitsForAcknowledgements() throws InterruptedException {
+    try (GRPCDriverEventStream stream = newStream(4, 8)) {
+      Assert.assertTrue(stream.flush(0));
+
+      stream.send(taskMessage(0));
+      stream.send(taskMessage(1));
+      this.client.awaitReceived(2);
+      Assert.assertFalse(stream.flush(100));
+
+      this.client.ack(1);
+      Assert.assertFalse(stream.flush(100));
+
+      // Events sent after the flush started are not waited for
+      final BlockingQueue<Boolean> flushed = flushInBackground(stream);
+      stream.send(taskMessage(2));
+      this.client.awaitReceived(3);
+      this.client.ack(2);
+      Assert.assertEquals(Boolean.TRUE, flushed.poll(TIMEOUT_MS, TimeUnit.MILLISECONDS));
+      Assert.assertFalse(stream.flush(100));
+    }
+    Assert.assertTrue(this.errors.isEmpty());
+  }
+
+  /**
+   * Closing the stream, as the driver service does when it stops, releases a pending flush
+   * and completes the call without reporting an error.
+   */
+  @Test
+  public void testCloseReleasesFlushAndCompletesCall() throws InterruptedException {
+    final GRPCDriverEventStream stream = newStream(4, 8);
+    stream.send(taskMessage(0));
+    this.client.awaitReceived(1);
+
+    final BlockingQueue<Boolean> flushed = flushInBackground(stream);
+    stream.close();
+    Assert.assertEquals(Boolean.FALSE, flushed.poll(TIMEOUT_MS, TimeUnit.MILLISECONDS));
+
+    Assert.assertTrue(this.client.awaitCompleted());
+    Assert.assertTrue(this.errors.isEmpty());
+
+    // Events sent after close are dropped
+    stream.send(taskMessage(1));
+    Assert.assertEquals(1, this.client.getReceived().size());
+    stream.close();
+  }
+
+  /**
+   * A failure of the call is reported once to the error handler, and releases a pending flush.
+   */
+  @Test
+  public void testStreamFailure() throws InterruptedException {
+    try (GRPCDriverEventStream stream = newStream(4, 8)) {
+      stream.send(taskMessage(0));
+      this.client.awaitReceived(1);
+      final BlockingQueue<Boolean> flushed = flushInBackground(stream);
+
+      this.client.fail();
+      final Throwable error = this.errors.poll(TIMEOUT_MS, TimeUnit.MILLISECONDS);
+      Assert.assertNotNull(error);
+      Assert.assertEquals(Status.Code.INTERNAL, Status.fromThrowable(error).getCode());
+
+      Assert.assertEquals(Boolean.FALSE, flushed.poll(TIMEOUT_MS, TimeUnit.MILLISECONDS));
+      Assert.assertFalse(stream.flush(TIMEOUT_MS));
+    }
+    Assert.assertTrue(this.errors.isEmpty());
+  }
+
+  /**
+   * The client completing the call while the stream is open is a failure of the stream.
+   */
+  @Test
+  public void testClientCompletesStream() throws InterruptedException {
+    try (GRPCDriverEventStream stream = newStream(4, 8)) {
+      stream.send(taskMessage(0));
+      this.client.awaitReceived(1);
+
+      this.client.complete();
+      final Throwable error = this.errors.poll(TIMEOUT_MS, TimeUnit.MILLISECONDS);
+      Assert.assertTrue(error instanceof IllegalStateException);
+      Assert.assertFalse(stream.flush(TIMEOUT_MS));
+    }
+    Assert.assertTrue(this.errors.isEmpty());
+  }
+
+  private GRPCDriverEventStream newStream(final int batchSize, final int window) {
+    return new GRPCDriverEventStream(DriverClientGrpc.newStub(this.channel), batchSize, window,
+        new EventHandler<Throwable>() {
+          @Override
+          public void onNext(final Throwable t) {
+            errors.add(t);
+          }
+        });
+  }
+
+  /**
+   * Starts a flush in another thread, and waits until it is waiting for acknowledgements.
+   * @return the queue that receives the result of the flush.
+   */
+  private static BlockingQueue<Boolean> flushInBackground(final GRPCDriverEventStream stream)
+      throws InterruptedException {
+    final BlockingQueue<Boolean> result = new LinkedBlockingQueue<>();
+    final Thread flusher = new Thread(new Runnable() {
+      @Override
+      public void run() {
+        try {
+          result.add(stream.flush(TIMEOUT_MS));
+        } catch (final InterruptedException e) {
+          Thread.currentThread().interrupt();
+        }
+      }
+    });
+    flusher.setDaemon(true);
+    flusher.start();
+    while (flusher.getState() != Thread.State.TIMED_WAITING && flusher.isAlive()) {
+      Thread.sleep(1);
+    }
+    return result;
+  }
+
+  private static DriverEvent.Builder taskMessage(final int sequenceNumber) {
+    return DriverEvent.newBuilder().setTaskMessage(
+        TaskMessageInfo.newBuilder().setTaskId("Task").setSequenceNumber(sequenceNumber).build());
+  }
+
+  /**
+   * Driver client that records the events it receives on the event stream.
+   */
+  private static final class DriverClientStandIn extends DriverClientGrpc.DriverClientImplBase {
+
+    private final List<DriverEvent> received = new ArrayList<>();
+
+    private final CountDownLatch completed = new CountDownLatch(1);
+
+    private StreamObserver<DriverEventAck> acks;
+
+    private boolean autoAck = false;
+
+    @Override
+    public StreamObserver<DriverEventBatch> eventStream(final StreamObserver<DriverEventAck> responseObserver) {
+      synchronized (this) {
+        this.acks = responseObserver;
+      }
+      return new StreamObserver<DriverEventBatch>() {
+        @Override
+        public void onNext(final DriverEventBatch batch) {
+          synchronized (DriverClientStandIn.this) {
+            received.addAll(batch.getEventsList());
+            DriverClientStandIn.this.notifyAll();
+            if (autoAck) {
+              ack(batch.getEvents(batch.getEventsCount() - 1).getSequenceNumber());
+            }
+          }
+        }
+
+        @Override
+        public void onError(final Throwable t) {
+        }
+
+        @Override
+        public void onCompleted() {
+          completed.countDown();
+          synchronized (DriverClientStandIn.this) {
+            responseObserver.onCompleted();
+          }
+        }
+      };
+    }
+
+    synchronized void setAutoAck(final boolean autoAck) {
+      this.autoAck = autoAck;
+    }
+
+    synchronized void ack(final long sequenceNumber) {
+      this.acks.onNext(DriverEventAck.newBuilder().setSequenceNumber(sequenceNumber).build());
+    }
+
+    synchronized void fail() {
+      this.acks.onError(Status.INTERNAL.withDescription("driver client failed").asRuntimeException());
+    }
+
+    synchronized void complete() {
+      this.acks.onCompleted();
+    }
+
+    synchronized List<DriverEvent> getReceived() {
+      return new ArrayList<>(this.received);
+    }
+
+    synchronized void awaitReceived(final int numEvents) throws InterruptedException {
+      final long deadline = System.currentTimeMillis() + TIMEOUT_MS;
+      while (this.received.size() < numEvents) {
+        final long remaining = deadline - System.currentTimeMillis();
+        Assert.assertTrue("Timed out waiting for " + numEvents + " events", remaining > 0);
+        this.wait(remaining);
+      }
+    }
+
+    boolean awaitCompleted() throws InterruptedException {
+      return this.completed.await(TIMEOUT_MS, TimeUnit.MILLISECONDS);
+    }
+  }
+}
@@ -196,6 +196,17 @@ public final class DriverConfiguration extends ConfigurationModuleBuilder {
    */
   public static final OptionalParameter<Integer> EVALUATOR_DISPATCHER_THREADS = new OptionalParameter<>();
 
+  /**
+   * Number of single-threaded lanes shared by all evaluators to dispatch their events, keeping
+   * the events of each evaluator in order. Defaults to 0, i.e. one thread pool per evaluator.
+   */
+  public static final OptionalParameter<Integer> EVALUATOR_DISPATCHER_LANES = new OptionalParameter<>();
+
+  /**
+   * Whether to serialize the configurations of JVM evaluators in the compact binary form. Defaults to false.
+   */
+  public static final OptionalParameter<Boolean> COMPACT_EVALUATOR_CONFIGURATION = new OptionalParameter<>();
+
   /**
    * The number of submissions that the resource manager will attempt to submit the application. Defaults to 1.
    */
@@ -257,6 +268,8 @@ public final class DriverConfiguration extends ConfigurationModuleBuilder {
 
           // Various parameters
       .bindNamedParameter(EvaluatorDispatcherThreads.class, EVALUATOR_DISPATCHER_THREADS)
+      .bindNamedParameter(EvaluatorDispatcherLanes.class, EVALUATOR_DISPATCHER_LANES)
+      .bindNamedParameter(CompactEvaluatorConfiguration.class, COMPACT_EVALUATOR_CONFIGURATION)
       .bindNamedParameter(EvaluatorIdlenessThreadPoolSize.class, EVALUATOR_IDLENESS_THREAD_POOL_SIZE)
       .bindNamedParameter(EvaluatorIdlenessWaitInMilliseconds.class, EVALUATOR_IDLENESS_WAIT_IN_MS)
       .bindImplementation(ProgressProvider.class, PROGRESS_PROVIDER)
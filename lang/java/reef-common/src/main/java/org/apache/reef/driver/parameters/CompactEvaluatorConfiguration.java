@@ -0,0 +1,36 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.reef.driver.parameters;
+
+import org.apache.reef.tang.annotations.Name;
+import org.apache.reef.tang.annotations.NamedParameter;
+
+/**
+ * Whether to serialize the configurations of JVM Evaluators with the CompactConfigurationSerializer.
+ * Their context, service and task configurations are then embedded as structures sharing one string table,
+ * instead of as JSON strings. CLR Evaluators always get JSON configurations.
+ * Off by default, as Evaluators of earlier versions cannot read the compact form.
+ */
+@NamedParameter(
+    doc = "Whether to serialize the configurations of JVM Evaluators in the compact binary form.",
+    default_value = "false")
+public final class CompactEvaluatorConfiguration implements Name<Boolean> {
+  private CompactEvaluatorConfiguration() {
+  }
+}
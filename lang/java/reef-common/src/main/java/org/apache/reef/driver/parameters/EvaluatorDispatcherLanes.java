@@ -0,0 +1,36 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.reef.driver.parameters;
+
+import org.apache.reef.tang.annotations.Name;
+import org.apache.reef.tang.annotations.NamedParameter;
+
+/**
+ * Number of single-threaded lanes shared by all Evaluators to dispatch their events.
+ * Each Evaluator is hashed onto one lane, so its events are handled in order while different Evaluators
+ * are handled in parallel. 0 allocates a thread pool of {@link EvaluatorDispatcherThreads} per Evaluator instead.
+ */
+@NamedParameter(
+    doc = "Number of single-threaded lanes shared by all Evaluators to dispatch their events. " +
+        "0 allocates a thread pool of EvaluatorDispatcherThreads per Evaluator instead.",
+    default_value = "0")
+public final class EvaluatorDispatcherLanes implements Name<Integer> {
+  private EvaluatorDispatcherLanes() {
+  }
+}
@@ -28,6 +28,7 @@ import org.apache.reef.tang.Configuration;
 import org.apache.reef.tang.ConfigurationBuilder;
 import org.apache.reef.tang.ConfigurationProvider;
 import org.apache.reef.tang.Tang;
+import org.apache.reef.tang.formats.CompactConfigurationSerializer;
 import org.apache.reef.tang.formats.ConfigurationModule;
 import org.apache.reef.tang.formats.ConfigurationSerializer;
 import org.apache.reef.util.Optional;
@@ -53,6 +54,7 @@ public final class AllocatedEvaluatorImpl implements AllocatedEvaluator {
   private final EvaluatorManager evaluatorManager;
   private final String remoteID;
   private final ConfigurationSerializer configurationSerializer;
+  private final boolean compactEvaluatorConfiguration;
   private final String jobIdentifier;
   private final LoggingScopeFactory loggingScopeFactory;
   private final Set<ConfigurationProvider> evaluatorConfigurationProviders;
@@ -70,12 +72,14 @@ public final class AllocatedEvaluatorImpl implements AllocatedEvaluator {
   AllocatedEvaluatorImpl(final EvaluatorManager evaluatorManager,
                          final String remoteID,
                          final ConfigurationSerializer configurationSerializer,
+                         final boolean compactEvaluatorConfiguration,
                          final String jobIdentifier,
                          final LoggingScopeFactory loggingScopeFactory,
                          final Set<ConfigurationProvider> evaluatorConfigurationProviders) {
     this.evaluatorManager = evaluatorManager;
     this.remoteID = remoteID;
     this.configurationSerializer = configurationSerializer;
+    this.compactEvaluatorConfiguration = compactEvaluatorConfiguration;
     this.jobIdentifier = jobIdentifier;
     this.loggingScopeFactory = loggingScopeFactory;
     this.evaluatorConfigurationProviders = evaluatorConfigurationProviders;
@@ -280,18 +284,24 @@ public final class AllocatedEvaluatorImpl implements AllocatedEvaluator {
                                                    final Optional<Configuration> serviceConfiguration,
                                                    final Optional<Configuration> taskConfiguration) {
 
-    final String contextConfigurationString = this.configurationSerializer.toString(contextConfiguration);
+    // CLR Evaluators can only read JSON configurations
+    final ConfigurationSerializer nestedConfigurationSerializer = this.compactEvaluatorConfiguration &&
+        EvaluatorType.JVM == this.evaluatorManager.getEvaluatorDescriptor().getProcess().getType()
+        ? new CompactConfigurationSerializer() : this.configurationSerializer;
+
+    final String contextConfigurationString = nestedConfigurationSerializer.toString(contextConfiguration);
 
     final Optional<String> taskConfigurationString;
     if (taskConfiguration.isPresent()) {
-      taskConfigurationString = Optional.of(this.configurationSerializer.toString(taskConfiguration.get()));
+      taskConfigurationString = Optional.of(nestedConfigurationSerializer.toString(taskConfiguration.get()));
     } else {
       taskConfigurationString = Optional.empty();
     }
 
     final Optional<Configuration> mergedServiceConfiguration = makeRootServiceConfiguration(serviceConfiguration);
     if (mergedServiceConfiguration.isPresent()) {
-      final String serviceConfigurationString = this.configurationSerializer.toString(mergedServiceConfiguration.get());
+      final String serviceConfigurationString =
+          nestedConfigurationSerializer.toString(mergedServiceConfiguration.get());
       return makeEvaluatorConfiguration(contextConfigurationString, Optional.<String>empty(),
           Optional.of(serviceConfigurationString), taskConfigurationString);
     } else {
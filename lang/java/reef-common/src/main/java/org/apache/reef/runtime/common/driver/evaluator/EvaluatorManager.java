@@ -21,6 +21,7 @@ package org.apache.reef.runtime.common.driver.evaluator;
 import org.apache.reef.annotations.audience.DriverSide;
 import org.apache.reef.annotations.audience.Private;
 import org.apache.reef.driver.evaluator.FailedEvaluator;
+import org.apache.reef.driver.parameters.CompactEvaluatorConfiguration;
 import org.apache.reef.driver.parameters.EvaluatorConfigurationProviders;
 import org.apache.reef.driver.restart.DriverRestartManager;
 import org.apache.reef.driver.restart.EvaluatorRestartState;
@@ -46,6 +47,7 @@ import org.apache.reef.runtime.common.driver.context.ContextControlHandler;
 import org.apache.reef.runtime.common.driver.context.ContextRepresenters;
 import org.apache.reef.runtime.common.driver.idle.EventHandlerIdlenessSource;
 import org.apache.reef.runtime.common.driver.resourcemanager.ResourceStatusEvent;
+import org.apache.reef.runtime.common.driver.task.TaskMessageImpl;
 import org.apache.reef.runtime.common.driver.task.TaskRepresenter;
 import org.apache.reef.runtime.common.utils.ExceptionCodec;
 import org.apache.reef.runtime.common.utils.RemoteManager;
@@ -101,6 +103,7 @@ public final class EvaluatorManager implements Identifiable, AutoCloseable {
   private final EventHandlerIdlenessSource idlenessSource;
   private final RemoteManager remoteManager;
   private final ConfigurationSerializer configurationSerializer;
+  private final boolean compactEvaluatorConfiguration;
   private final LoggingScopeFactory loggingScopeFactory;
   private final Set<ConfigurationProvider> evaluatorConfigurationProviders;
   private final DriverRestartManager driverRestartManager;
@@ -118,6 +121,7 @@ public final class EvaluatorManager implements Identifiable, AutoCloseable {
       @Parameter(EvaluatorDescriptorName.class) final EvaluatorDescriptor evaluatorDescriptor,
       @Parameter(EvaluatorConfigurationProviders.class)
         final Set<ConfigurationProvider> evaluatorConfigurationProviders,
+      @Parameter(CompactEvaluatorConfiguration.class) final boolean compactEvaluatorConfiguration,
       final Clock clock,
       final RemoteManager remoteManager,
       final ResourceReleaseHandler resourceReleaseHandler,
@@ -156,6 +160,7 @@ public final class EvaluatorManager implements Identifiable, AutoCloseable {
 
     this.remoteManager = remoteManager;
     this.configurationSerializer = configurationSerializer;
+    this.compactEvaluatorConfiguration = compactEvaluatorConfiguration;
     this.loggingScopeFactory = loggingScopeFactory;
     this.driverRestartManager = driverRestartManager;
     this.idlenessThreadPool = idlenessThreadPool;
@@ -192,6 +197,7 @@ public final class EvaluatorManager implements Identifiable, AutoCloseable {
           new AllocatedEvaluatorImpl(this,
               this.remoteManager.getMyIdentifier(),
               this.configurationSerializer,
+              this.compactEvaluatorConfiguration,
               getJobIdentifier(),
               this.loggingScopeFactory,
               this.evaluatorConfigurationProviders);
@@ -446,7 +452,9 @@ public final class EvaluatorManager implements Identifiable, AutoCloseable {
       }
 
       // Process the Context status message(s)
-      final boolean informClientOfNewContexts = !evaluatorHeartbeatProto.hasTaskStatus();
+      // A delta heartbeat leaves out the status of a task that did not change, so check for a known task too.
+      final boolean informClientOfNewContexts = !evaluatorHeartbeatProto.hasTaskStatus() &&
+          !(evaluatorHeartbeatProto.getDelta() && this.task.isPresent());
       final List<ContextStatusPOJO> contextStatusList = new ArrayList<>();
       for (ReefServiceProtos.ContextStatusProto proto : evaluatorHeartbeatProto.getContextStatusList()) {
         contextStatusList.add(new ContextStatusPOJO(proto, messageSequenceNumber));
@@ -463,6 +471,27 @@ public final class EvaluatorManager implements Identifiable, AutoCloseable {
     }
   }
 
+  /**
+   * Dispatches the messages that a task sent outside of heartbeats to the TaskMessage handlers.
+   * Unlike heartbeats, these do not go through the state handling of the evaluator.
+   *
+   * @param taskMessages the messages of the task.
+   */
+  public void onTaskMessages(final EvaluatorRuntimeProtocol.TaskMessagesProto taskMessages) {
+
+    if (this.stateManager.isCompleted()) {
+      LOG.log(Level.FINE, "Ignoring task messages received for Evaluator {0} which is already in state {1}.",
+          new Object[] {this.getId(), this.stateManager});
+      return;
+    }
+
+    for (final ReefServiceProtos.TaskStatusProto.TaskMessageProto taskMessage : taskMessages.getTaskMessageList()) {
+      this.messageDispatcher.onTaskMessage(new TaskMessageImpl(taskMessage.getMessage().toByteArray(),
+          taskMessages.getTaskId(), taskMessages.getContextId(), taskMessage.getSourceId(),
+          taskMessages.getTimestamp()));
+    }
+  }
+
   /**
    * Process a evaluator status message.
    *
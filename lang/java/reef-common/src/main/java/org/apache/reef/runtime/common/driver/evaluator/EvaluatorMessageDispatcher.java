@@ -28,6 +28,7 @@ import org.apache.reef.driver.evaluator.FailedEvaluator;
 import org.apache.reef.driver.parameters.*;
 import org.apache.reef.driver.task.*;
 import org.apache.reef.runtime.common.driver.DriverExceptionHandler;
+import org.apache.reef.runtime.common.utils.DispatchLanes;
 import org.apache.reef.runtime.common.utils.DispatchingEStage;
 import org.apache.reef.tang.annotations.Parameter;
 import org.apache.reef.wake.EventHandler;
@@ -40,6 +41,8 @@ import java.util.logging.Logger;
 
 /**
  * Central dispatcher for all Evaluator related events. This exists once per Evaluator.
+ * Events are processed by a thread pool of this dispatcher, or, if {@link EvaluatorDispatcherLanes} is set,
+ * in order on the lane of the {@link DispatchLanes} that the Evaluator ID hashes to.
  */
 public final class EvaluatorMessageDispatcher implements AutoCloseable {
 
@@ -130,13 +133,16 @@ public final class EvaluatorMessageDispatcher implements AutoCloseable {
       @Parameter(EvaluatorDispatcherThreads.class) final int numberOfThreads,
       @Parameter(EvaluatorManager.EvaluatorIdentifier.class) final String evaluatorIdentifier,
       final DriverExceptionHandler driverExceptionHandler,
+      final DispatchLanes dispatchLanes,
       final IdlenessCallbackEventHandlerFactory idlenessCallbackEventHandlerFactory) {
 
     LOG.log(Level.FINER, "Creating message dispatcher for {0}", evaluatorIdentifier);
 
     this.evaluatorIdentifier = evaluatorIdentifier;
-    this.serviceDispatcher = new DispatchingEStage(
-        driverExceptionHandler, numberOfThreads, "EvaluatorMessageDispatcher:" + evaluatorIdentifier);
+    this.serviceDispatcher = dispatchLanes.isEnabled() ?
+        new DispatchingEStage(driverExceptionHandler, dispatchLanes, evaluatorIdentifier) :
+        new DispatchingEStage(
+            driverExceptionHandler, numberOfThreads, "EvaluatorMessageDispatcher:" + evaluatorIdentifier);
 
     this.applicationDispatcher = new DispatchingEStage(this.serviceDispatcher);
     this.driverRestartApplicationDispatcher = new DispatchingEStage(this.serviceDispatcher);
@@ -288,7 +294,7 @@ public final class EvaluatorMessageDispatcher implements AutoCloseable {
   @Override
   public void close() {
     LOG.log(Level.FINER, "Closing message dispatcher for {0}", this.evaluatorIdentifier);
-    // This effectively closes all dispatchers as they share the same stage.
+    // This effectively closes all dispatchers as they share the same stage or lane.
     this.serviceDispatcher.close();
     if (!this.serviceDispatcher.isClosed()) {
       LOG.log(Level.SEVERE,
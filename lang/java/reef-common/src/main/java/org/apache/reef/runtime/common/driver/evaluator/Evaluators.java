@@ -22,6 +22,7 @@ import org.apache.reef.annotations.audience.DriverSide;
 import org.apache.reef.annotations.audience.Private;
 import org.apache.reef.driver.parameters.DriverIdentifier;
 import org.apache.reef.runtime.common.driver.resourcemanager.ResourceAllocationEvent;
+import org.apache.reef.runtime.common.utils.DispatchLanes;
 import org.apache.reef.tang.annotations.Parameter;
 import org.apache.reef.util.Optional;
 import org.apache.reef.tang.util.MonotonicSet;
@@ -52,8 +53,16 @@ public final class Evaluators implements AutoCloseable {
    */
   private final MonotonicSet<String> closedEvaluatorIds = new MonotonicSet<>();
 
+  /**
+   * Dispatch lanes shared by the EvaluatorMessageDispatchers of all evaluators.
+   * Held here so that they are instantiated once per driver and closed with it.
+   */
+  private final DispatchLanes dispatchLanes;
+
   @Inject
-  private Evaluators(@Parameter(DriverIdentifier.class) final String driverId) {
+  private Evaluators(@Parameter(DriverIdentifier.class) final String driverId,
+                     final DispatchLanes dispatchLanes) {
+    this.dispatchLanes = dispatchLanes;
     LOG.log(Level.FINE, "Instantiated 'Evaluators' for driver {0}", driverId);
     // There can be several instances of the class for multiple REEFEnvironments.
     // It is still a singleton when REEF Driver owns the entire JVM.
@@ -80,6 +89,8 @@ public final class Evaluators implements AutoCloseable {
       }
     }
 
+    this.dispatchLanes.close();
+
     LOG.log(Level.FINER, "Closing the evaluators - end");
   }
 
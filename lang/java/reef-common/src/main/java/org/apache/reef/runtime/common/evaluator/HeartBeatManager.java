@@ -22,6 +22,7 @@ import org.apache.reef.proto.EvaluatorRuntimeProtocol;
 import org.apache.reef.proto.ReefServiceProtos;
 import org.apache.reef.runtime.common.evaluator.context.ContextManager;
 import org.apache.reef.runtime.common.evaluator.parameters.DriverRemoteIdentifier;
+import org.apache.reef.runtime.common.evaluator.parameters.HeartbeatFullSnapshotPeriod;
 import org.apache.reef.runtime.common.evaluator.parameters.HeartbeatPeriod;
 import org.apache.reef.runtime.common.utils.RemoteManager;
 import org.apache.reef.tang.InjectionFuture;
@@ -40,6 +41,9 @@ import java.util.logging.Logger;
 
 /**
  * Heartbeat manager.
+ * Unless configured to send the full status in every heartbeat (see {@link HeartbeatFullSnapshotPeriod}),
+ * the heartbeats in between full snapshots are deltas that leave out the context and task statuses
+ * that did not change since the previous heartbeat.
  */
 @Unit
 public final class HeartBeatManager {
@@ -51,6 +55,7 @@ public final class HeartBeatManager {
   private final EventHandler<EvaluatorRuntimeProtocol.EvaluatorHeartbeatProto> evaluatorHeartbeatHandler;
   private final InjectionFuture<EvaluatorRuntime> evaluatorRuntime;
   private final InjectionFuture<ContextManager> contextManager;
+  private final HeartbeatStatusCache statusCache;
 
   @Inject
   private HeartBeatManager(
@@ -59,12 +64,14 @@ public final class HeartBeatManager {
       final Clock clock,
       final RemoteManager remoteManager,
       @Parameter(HeartbeatPeriod.class) final int heartbeatPeriod,
+      @Parameter(HeartbeatFullSnapshotPeriod.class) final int fullSnapshotPeriod,
       @Parameter(DriverRemoteIdentifier.class) final String driverRID) {
 
     this.evaluatorRuntime = evaluatorRuntime;
     this.contextManager = contextManager;
     this.clock = clock;
     this.heartbeatPeriod = heartbeatPeriod;
+    this.statusCache = new HeartbeatStatusCache(fullSnapshotPeriod);
     this.evaluatorHeartbeatHandler = remoteManager.getHandler(
         driverRID, EvaluatorRuntimeProtocol.EvaluatorHeartbeatProto.class);
   }
@@ -83,7 +90,7 @@ public final class HeartBeatManager {
     this.sendHeartBeat(this.getEvaluatorHeartbeatProto(
         this.evaluatorRuntime.get().getEvaluatorStatus(),
         this.contextManager.get().getContextStatusCollection(),
-        Optional.of(taskStatusProto)));
+        Optional.of(taskStatusProto), true));
   }
 
   /**
@@ -100,7 +107,7 @@ public final class HeartBeatManager {
     final EvaluatorRuntimeProtocol.EvaluatorHeartbeatProto heartbeatProto =
         this.getEvaluatorHeartbeatProto(
             this.evaluatorRuntime.get().getEvaluatorStatus(),
-            contextStatusList, Optional.<ReefServiceProtos.TaskStatusProto>empty());
+            contextStatusList, Optional.<ReefServiceProtos.TaskStatusProto>empty(), false);
 
     this.sendHeartBeat(heartbeatProto);
   }
@@ -134,28 +141,15 @@ public final class HeartBeatManager {
     return this.getEvaluatorHeartbeatProto(
         this.evaluatorRuntime.get().getEvaluatorStatus(),
         this.contextManager.get().getContextStatusCollection(),
-        this.contextManager.get().getTaskStatus());
+        this.contextManager.get().getTaskStatus(), false);
   }
 
   private EvaluatorRuntimeProtocol.EvaluatorHeartbeatProto getEvaluatorHeartbeatProto(
       final ReefServiceProtos.EvaluatorStatusProto evaluatorStatusProto,
       final Iterable<ReefServiceProtos.ContextStatusProto> contextStatusProtos,
-      final Optional<ReefServiceProtos.TaskStatusProto> taskStatusProto) {
-
-    final EvaluatorRuntimeProtocol.EvaluatorHeartbeatProto.Builder builder =
-        EvaluatorRuntimeProtocol.EvaluatorHeartbeatProto.newBuilder()
-            .setTimestamp(System.currentTimeMillis())
-            .setEvaluatorStatus(evaluatorStatusProto);
-
-    for (final ReefServiceProtos.ContextStatusProto contextStatusProto : contextStatusProtos) {
-      builder.addContextStatus(contextStatusProto);
-    }
-
-    if (taskStatusProto.isPresent()) {
-      builder.setTaskStatus(taskStatusProto.get());
-    }
-
-    return builder.build();
+      final Optional<ReefServiceProtos.TaskStatusProto> taskStatusProto,
+      final boolean forceTaskStatus) {
+    return this.statusCache.newHeartbeat(evaluatorStatusProto, contextStatusProtos, taskStatusProto, forceTaskStatus);
   }
 
   final class HeartbeatAlarmHandler implements EventHandler<Alarm> {
@@ -0,0 +1,104 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.reef.runtime.common.evaluator;
+
+import org.apache.reef.proto.EvaluatorRuntimeProtocol;
+import org.apache.reef.proto.ReefServiceProtos;
+import org.apache.reef.util.Optional;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Remembers the context and task statuses last sent to the Driver, so that heartbeats in between
+ * full snapshots can leave out the statuses that did not change.
+ * Statuses that carry messages are always sent.
+ */
+final class HeartbeatStatusCache {
+
+  private final int fullSnapshotPeriod;
+
+  // The statuses sent last, without their messages
+  private final Map<String, ReefServiceProtos.ContextStatusProto> lastContextStatus = new HashMap<>();
+  private ReefServiceProtos.TaskStatusProto lastTaskStatus = null;
+  private int heartbeatsSinceFullSnapshot = 0;
+
+  /**
+   * @param fullSnapshotPeriod every how many heartbeats to send a full snapshot; 1 or less for every heartbeat
+   */
+  HeartbeatStatusCache(final int fullSnapshotPeriod) {
+    this.fullSnapshotPeriod = fullSnapshotPeriod;
+  }
+
+  /**
+   * Assembles a heartbeat, which is a delta unless it is time for a full snapshot.
+   *
+   * @param evaluatorStatusProto the status of the evaluator
+   * @param contextStatusProtos the statuses of the contexts
+   * @param taskStatusProto the status of the task, if there is one
+   * @param forceTaskStatus whether to include the task status even if it did not change
+   * @return the heartbeat to send
+   */
+  EvaluatorRuntimeProtocol.EvaluatorHeartbeatProto newHeartbeat(
+      final ReefServiceProtos.EvaluatorStatusProto evaluatorStatusProto,
+      final Iterable<ReefServiceProtos.ContextStatusProto> contextStatusProtos,
+      final Optional<ReefServiceProtos.TaskStatusProto> taskStatusProto,
+      final boolean forceTaskStatus) {
+
+    final boolean delta = this.heartbeatsSinceFullSnapshot > 0;
+    this.heartbeatsSinceFullSnapshot = (this.heartbeatsSinceFullSnapshot + 1) % Math.max(1, this.fullSnapshotPeriod);
+
+    final EvaluatorRuntimeProtocol.EvaluatorHeartbeatProto.Builder builder =
+        EvaluatorRuntimeProtocol.EvaluatorHeartbeatProto.newBuilder()
+            .setTimestamp(System.currentTimeMillis())
+            .setEvaluatorStatus(evaluatorStatusProto);
+    if (delta) {
+      builder.setDelta(true);
+    }
+
+    for (final ReefServiceProtos.ContextStatusProto contextStatusProto : contextStatusProtos) {
+      final String contextId = contextStatusProto.getContextId();
+      final ReefServiceProtos.ContextStatusProto withoutMessages = contextStatusProto.getContextMessageCount() == 0 ?
+          contextStatusProto : contextStatusProto.toBuilder().clearContextMessage().build();
+      if (!delta || contextStatusProto.getContextMessageCount() > 0 ||
+          !withoutMessages.equals(this.lastContextStatus.get(contextId))) {
+        builder.addContextStatus(contextStatusProto);
+      }
+      if (contextStatusProto.getContextState() == ReefServiceProtos.ContextStatusProto.State.READY) {
+        this.lastContextStatus.put(contextId, withoutMessages);
+      } else {
+        this.lastContextStatus.remove(contextId);
+      }
+    }
+
+    if (taskStatusProto.isPresent()) {
+      final ReefServiceProtos.TaskStatusProto withoutMessages = taskStatusProto.get().getTaskMessageCount() == 0 ?
+          taskStatusProto.get() : taskStatusProto.get().toBuilder().clearTaskMessage().build();
+      if (!delta || forceTaskStatus || taskStatusProto.get().getTaskMessageCount() > 0 ||
+          !withoutMessages.equals(this.lastTaskStatus)) {
+        builder.setTaskStatus(taskStatusProto.get());
+      }
+      this.lastTaskStatus = withoutMessages;
+    } else {
+      this.lastTaskStatus = null;
+    }
+
+    return builder.build();
+  }
+}
@@ -0,0 +1,163 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.reef.runtime.common.evaluator.task;
+
+import com.google.protobuf.ByteString;
+import org.apache.reef.annotations.audience.EvaluatorSide;
+import org.apache.reef.annotations.audience.Private;
+import org.apache.reef.driver.task.TaskConfigurationOptions;
+import org.apache.reef.evaluator.context.parameters.ContextIdentifier;
+import org.apache.reef.proto.EvaluatorRuntimeProtocol;
+import org.apache.reef.proto.ReefServiceProtos;
+import org.apache.reef.runtime.common.evaluator.HeartBeatManager;
+import org.apache.reef.runtime.common.evaluator.parameters.DriverRemoteIdentifier;
+import org.apache.reef.runtime.common.evaluator.parameters.EvaluatorIdentifier;
+import org.apache.reef.runtime.common.evaluator.parameters.TaskMessageLatencyBudget;
+import org.apache.reef.runtime.common.utils.RemoteManager;
+import org.apache.reef.tang.InjectionFuture;
+import org.apache.reef.tang.annotations.Parameter;
+import org.apache.reef.task.TaskMessage;
+import org.apache.reef.task.TaskMessageSource;
+import org.apache.reef.util.Optional;
+import org.apache.reef.wake.EventHandler;
+import org.apache.reef.wake.time.Clock;
+import org.apache.reef.wake.time.event.Alarm;
+
+import javax.inject.Inject;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Sends the messages of the TaskMessageSources of a running task to the Driver outside of heartbeats.
+ * The messages of all the requests made within the latency budget are drained from the sources
+ * and sent together in one message.
+ * The sources and the task status are injected lazily, since the task itself is often a source.
+ */
+@Private
+@EvaluatorSide
+public final class TaskMessageSender {
+
+  private static final Logger LOG = Logger.getLogger(TaskMessageSender.class.getName());
+
+  /**
+   * Maximum number of messages taken from one source at a time,
+   * so that a source that always has a message does not keep the sender busy.
+   * Whatever is left is sent next time.
+   */
+  private static final int MAX_MESSAGES_PER_SOURCE = 1024;
+
+  private final String evaluatorId;
+  private final String contextId;
+  private final String taskId;
+  private final InjectionFuture<Set<TaskMessageSource>> taskMessageSources;
+  private final InjectionFuture<TaskStatus> taskStatus;
+  private final HeartBeatManager heartBeatManager;
+  private final Clock clock;
+  private final int latencyBudget;
+  private final EventHandler<EvaluatorRuntimeProtocol.TaskMessagesProto> taskMessagesHandler;
+
+  private final AtomicBoolean scheduled = new AtomicBoolean(false);
+  private final EventHandler<Alarm> sendHandler = new EventHandler<Alarm>() {
+    @Override
+    public void onNext(final Alarm alarm) {
+      scheduled.set(false);
+      send();
+    }
+  };
+
+  @Inject
+  private TaskMessageSender(@Parameter(EvaluatorIdentifier.class) final String evaluatorId,
+                            @Parameter(ContextIdentifier.class) final String contextId,
+                            @Parameter(TaskConfigurationOptions.Identifier.class) final String taskId,
+                            @Parameter(TaskConfigurationOptions.TaskMessageSources.class)
+                            final InjectionFuture<Set<TaskMessageSource>> taskMessageSources,
+                            @Parameter(TaskMessageLatencyBudget.class) final int latencyBudget,
+                            @Parameter(DriverRemoteIdentifier.class) final String driverRID,
+                            final InjectionFuture<TaskStatus> taskStatus,
+                            final HeartBeatManager heartBeatManager,
+                            final Clock clock,
+                            final RemoteManager remoteManager) {
+    this.evaluatorId = evaluatorId;
+    this.contextId = contextId;
+    this.taskId = taskId;
+    this.taskMessageSources = taskMessageSources;
+    this.latencyBudget = latencyBudget;
+    this.taskStatus = taskStatus;
+    this.heartBeatManager = heartBeatManager;
+    this.clock = clock;
+    this.taskMessagesHandler = remoteManager.getHandler(driverRID, EvaluatorRuntimeProtocol.TaskMessagesProto.class);
+  }
+
+  /**
+   * Sends the messages of the sources within the latency budget, together with those of any later requests.
+   */
+  public void messagesAvailable() {
+    if (this.scheduled.compareAndSet(false, true)) {
+      this.clock.scheduleAlarm(this.latencyBudget, this.sendHandler);
+    }
+  }
+
+  /**
+   * Drains the sources and sends their messages, if the task is running.
+   * Holds the lock of the HeartBeatManager, so that the messages reach the Driver in the order in which
+   * they are taken from the sources, whether they are sent here or in a heartbeat.
+   */
+  private void send() {
+    synchronized (this.heartBeatManager) {
+      if (!this.taskStatus.get().isRunning()) {
+        LOG.log(Level.FINE, "Not sending task messages, because the task is not running. " +
+            "Pending messages are sent in heartbeats, if at all.");
+        return;
+      }
+
+      final EvaluatorRuntimeProtocol.TaskMessagesProto.Builder builder =
+          EvaluatorRuntimeProtocol.TaskMessagesProto.newBuilder()
+              .setTimestamp(System.currentTimeMillis())
+              .setEvaluatorId(this.evaluatorId)
+              .setContextId(this.contextId)
+              .setTaskId(this.taskId);
+
+      boolean drained = true;
+      for (final TaskMessageSource messageSource : this.taskMessageSources.get()) {
+        int numMessages = 0;
+        for (Optional<TaskMessage> taskMessage = messageSource.getMessage(); taskMessage.isPresent();
+             taskMessage = messageSource.getMessage()) {
+          builder.addTaskMessage(ReefServiceProtos.TaskStatusProto.TaskMessageProto.newBuilder()
+              .setSourceId(taskMessage.get().getMessageSourceID())
+              .setMessage(ByteString.copyFrom(taskMessage.get().get())));
+          if (++numMessages == MAX_MESSAGES_PER_SOURCE) {
+            drained = false;
+            break;
+          }
+        }
+      }
+
+      if (builder.getTaskMessageCount() > 0) {
+        LOG.log(Level.FINEST, "Sending {0} task messages.", builder.getTaskMessageCount());
+        this.taskMessagesHandler.onNext(builder.build());
+      }
+      if (!drained) {
+        // Send the rest after another latency budget, as if the source asked for it.
+        this.messagesAvailable();
+      }
+    }
+  }
+}
@@ -63,6 +63,8 @@ public final class REEFMessageCodec implements Codec<GeneratedMessage> {
         return message.getEvaluatorControl();
       } else if (message.hasEvaluatorHeartBeat()) {
         return message.getEvaluatorHeartBeat();
+      } else if (message.hasTaskMessages()) {
+        return message.getTaskMessages();
       } else if (message.hasEvaluatorShimCommand()) {
         return message.getEvaluatorShimCommand();
       } else if (message.hasEvaluatorShimStatus()) {
@@ -88,6 +90,8 @@ public final class REEFMessageCodec implements Codec<GeneratedMessage> {
       message.setEvaluatorControl((EvaluatorRuntimeProtocol.EvaluatorControlProto) msg);
     } else if (msg instanceof EvaluatorRuntimeProtocol.EvaluatorHeartbeatProto) {
       message.setEvaluatorHeartBeat((EvaluatorRuntimeProtocol.EvaluatorHeartbeatProto) msg);
+    } else if (msg instanceof EvaluatorRuntimeProtocol.TaskMessagesProto) {
+      message.setTaskMessages((EvaluatorRuntimeProtocol.TaskMessagesProto) msg);
     } else if (msg instanceof EvaluatorShimProtocol.EvaluatorShimControlProto) {
       message.setEvaluatorShimCommand((EvaluatorShimProtocol.EvaluatorShimControlProto) msg);
     } else if (msg instanceof EvaluatorShimProtocol.EvaluatorShimStatusProto) {
@@ -0,0 +1,143 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.reef.runtime.common.utils;
+
+import org.apache.reef.annotations.audience.DriverSide;
+import org.apache.reef.annotations.audience.Private;
+import org.apache.reef.driver.parameters.EvaluatorDispatcherLanes;
+import org.apache.reef.tang.annotations.Parameter;
+import org.apache.reef.wake.EventHandler;
+import org.apache.reef.wake.impl.ThreadPoolStage;
+
+import javax.inject.Inject;
+import java.util.Arrays;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * A fixed set of single-threaded stages shared by many DispatchingEStages.
+ * Each key (e.g. an Evaluator ID) always maps to the same lane, so the events of one key
+ * are processed in order, while the events of different keys can be processed in parallel.
+ * <p>
+ * The lanes are registered with the {@link org.apache.reef.wake.impl.StageManager} like any stage,
+ * so their queue depths are part of its metrics, as well as logged when the lanes close.
+ */
+@Private
+@DriverSide
+public final class DispatchLanes implements AutoCloseable {
+
+  private static final Logger LOG = Logger.getLogger(DispatchLanes.class.getName());
+
+  private final ThreadPoolStage<Runnable>[] lanes;
+
+  /**
+   * @param numLanes number of lanes; 0 disables the lanes.
+   */
+  @Inject
+  private DispatchLanes(@Parameter(EvaluatorDispatcherLanes.class) final int numLanes) {
+    this(numLanes, "EvaluatorDispatchLane");
+  }
+
+  /**
+   * @param numLanes number of lanes; 0 disables the lanes.
+   * @param name     prefix of the names of the lane stages and their threads.
+   */
+  @SuppressWarnings("unchecked")
+  public DispatchLanes(final int numLanes, final String name) {
+    if (numLanes < 0) {
+      throw new IllegalArgumentException("Number of dispatch lanes must not be negative: " + numLanes);
+    }
+    this.lanes = new ThreadPoolStage[numLanes];
+    for (int i = 0; i < numLanes; ++i) {
+      this.lanes[i] = new ThreadPoolStage<>(name + ":" + i, new EventHandler<Runnable>() {
+        @Override
+        public void onNext(final Runnable runnable) {
+          runnable.run();
+        }
+      }, 1);
+    }
+    LOG.log(Level.FINE, "Instantiated {0} dispatch lanes", numLanes);
+  }
+
+  /**
+   * @return true if there is at least one lane to dispatch events to.
+   */
+  public boolean isEnabled() {
+    return this.lanes.length > 0;
+  }
+
+  /**
+   * @return number of lanes.
+   */
+  public int getNumLanes() {
+    return this.lanes.length;
+  }
+
+  /**
+   * @param key key of an event source, e.g. an Evaluator ID.
+   * @return index of the lane that processes all events of that key.
+   */
+  public int getLaneIndex(final String key) {
+    final int hash = key.hashCode();
+    return Math.floorMod(hash ^ (hash >>> 16), this.lanes.length);
+  }
+
+  /**
+   * @param key key of an event source, e.g. an Evaluator ID.
+   * @return the lane that processes all events of that key.
+   */
+  ThreadPoolStage<Runnable> getLane(final String key) {
+    return this.lanes[this.getLaneIndex(key)];
+  }
+
+  /**
+   * @param lane index of the lane.
+   * @return number of events queued or in processing on that lane.
+   */
+  public int getQueueDepth(final int lane) {
+    return this.lanes[lane].getActiveCount();
+  }
+
+  /**
+   * @return number of events queued or in processing on each lane.
+   */
+  public int[] getQueueDepths() {
+    final int[] depths = new int[this.lanes.length];
+    for (int i = 0; i < depths.length; ++i) {
+      depths[i] = this.getQueueDepth(i);
+    }
+    return depths;
+  }
+
+  /**
+   * Close all lanes. Events already queued are processed before the lanes shut down.
+   */
+  @Override
+  public void close() {
+    LOG.log(Level.FINE, "Closing dispatch lanes with queue depths {0}", this);
+    for (final ThreadPoolStage<Runnable> lane : this.lanes) {
+      lane.close();
+    }
+  }
+
+  @Override
+  public String toString() {
+    return "DispatchLanes:" + Arrays.toString(this.getQueueDepths());
+  }
+}
@@ -20,20 +20,25 @@ package org.apache.reef.runtime.common.utils;
 
 import org.apache.reef.annotations.audience.DriverSide;
 import org.apache.reef.annotations.audience.Private;
-import org.apache.reef.tang.util.MonotonicHashMap;
 import org.apache.reef.util.ExceptionHandlingEventHandler;
 import org.apache.reef.wake.EventHandler;
+import org.apache.reef.wake.WakeParameters;
 import org.apache.reef.wake.impl.ThreadPoolStage;
 
-import java.util.Collections;
-import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 
 /**
  * Delayed event router that dispatches messages to the proper event handler by type.
  * This class is used in EvaluatorManager to isolate user threads from REEF.
+ * Messages are processed either by a thread pool of its own, or by a single-threaded lane
+ * of {@link DispatchLanes} that it shares with other dispatchers.
  */
 @Private
 @DriverSide
@@ -41,19 +46,37 @@ public final class DispatchingEStage implements AutoCloseable {
 
   private static final Logger LOG = Logger.getLogger(DispatchingEStage.class.getName());
 
+  private static final long SHUTDOWN_TIMEOUT = WakeParameters.EXECUTOR_SHUTDOWN_TIMEOUT;
+
   /**
    * A map of event handlers, populated in the register() method.
+   * Handlers are never replaced, so lookups need no locking.
    */
-  private final Map<Class<?>, EventHandler<?>> handlers =
-      Collections.synchronizedMap(new MonotonicHashMap<Class<?>, EventHandler<?>>());
+  private final ConcurrentMap<Class<?>, EventHandler<?>> handlers = new ConcurrentHashMap<>();
   /**
    * Exception handler, one for all event handlers.
    */
   private final EventHandler<Throwable> errorHandler;
   /**
-   * Thread pool to process delayed event handler invocations.
+   * Thread pool to process delayed event handler invocations, or null if a shared lane is used instead.
    */
   private final ThreadPoolStage<DelayedOnNext> stage;
+  /**
+   * Shared single-threaded lane to process delayed event handler invocations, or null if the thread pool is used.
+   */
+  private final ThreadPoolStage<Runnable> lane;
+  /**
+   * Number of messages queued or in processing on the lane. Also the monitor that close() waits on.
+   */
+  private final AtomicInteger pending;
+  /**
+   * The lane thread while it processes a message of this dispatcher, or null.
+   */
+  private final AtomicReference<Thread> processing;
+  /**
+   * Whether this dispatcher still accepts messages for the lane.
+   */
+  private final AtomicBoolean closed;
 
   /**
    * @param errorHandler used for exceptions thrown from the event handlers registered.
@@ -73,7 +96,28 @@ public final class DispatchingEStage implements AutoCloseable {
           }
         }, numThreads
     );
+    this.lane = null;
+    this.pending = null;
+    this.processing = null;
+    this.closed = null;
+  }
 
+  /**
+   * Constructs a DispatchingEStage that processes its messages in order on a lane shared with other dispatchers.
+   *
+   * @param errorHandler used for exceptions thrown from the event handlers registered.
+   * @param lanes        lanes shared by all dispatchers.
+   * @param key          key that selects the lane, e.g. an Evaluator ID.
+   */
+  public DispatchingEStage(final EventHandler<Throwable> errorHandler,
+                           final DispatchLanes lanes,
+                           final String key) {
+    this.errorHandler = errorHandler;
+    this.stage = null;
+    this.lane = lanes.getLane(key);
+    this.pending = new AtomicInteger(0);
+    this.processing = new AtomicReference<>();
+    this.closed = new AtomicBoolean(false);
   }
 
   /**
@@ -84,6 +128,10 @@ public final class DispatchingEStage implements AutoCloseable {
   public DispatchingEStage(final DispatchingEStage other) {
     this.errorHandler = other.errorHandler;
     this.stage = other.stage;
+    this.lane = other.lane;
+    this.pending = other.pending;
+    this.processing = other.processing;
+    this.closed = other.closed;
   }
 
   /**
@@ -96,8 +144,11 @@ public final class DispatchingEStage implements AutoCloseable {
    */
   @SuppressWarnings("checkstyle:hiddenfield")
   public <T, U extends T> void register(final Class<T> type, final Set<EventHandler<U>> handlers) {
-    this.handlers.put(type, new ExceptionHandlingEventHandler<>(
+    final EventHandler<?> prev = this.handlers.putIfAbsent(type, new ExceptionHandlingEventHandler<>(
         new BroadCastEventHandler<>(handlers), this.errorHandler));
+    if (prev != null) {
+      throw new IllegalArgumentException("Attempt to re-add handlers for: " + type.getCanonicalName());
+    }
   }
 
   /**
@@ -112,10 +163,31 @@ public final class DispatchingEStage implements AutoCloseable {
   public <T, U extends T> void onNext(final Class<T> type, final U message) {
     if (this.isClosed()) {
       LOG.log(Level.WARNING, "Dispatcher {0} already closed: ignoring message {1}: {2}",
-          new Object[] {this.stage, type.getCanonicalName(), message});
+          new Object[] {this.stage != null ? this.stage : this.lane, type.getCanonicalName(), message});
+      return;
+    }
+    final DelayedOnNext promise = new DelayedOnNext((EventHandler<T>) this.handlers.get(type), message);
+    if (this.stage != null) {
+      this.stage.onNext(promise);
     } else {
-      final EventHandler<T> handler = (EventHandler<T>) this.handlers.get(type);
-      this.stage.onNext(new DelayedOnNext(handler, message));
+      this.pending.incrementAndGet();
+      this.lane.onNext(new Runnable() {
+        @Override
+        public void run() {
+          processing.set(Thread.currentThread());
+          try {
+            promise.handler.onNext(promise.message);
+          } finally {
+            processing.set(null);
+            pending.decrementAndGet();
+            if (closed.get()) {
+              synchronized (pending) {
+                pending.notifyAll();
+              }
+            }
+          }
+        }
+      });
     }
   }
 
@@ -123,16 +195,50 @@ public final class DispatchingEStage implements AutoCloseable {
    * Return true if there are no messages queued or in processing, false otherwise.
    */
   public boolean isEmpty() {
-    return this.stage.getQueueLength() + this.stage.getActiveCount() == 0;
+    if (this.stage != null) {
+      return this.stage.getQueueLength() + this.stage.getActiveCount() == 0;
+    }
+    return this.pending.get() == 0;
   }
 
   /**
-   * Close the stage adn stop accepting new messages.
-   * Closes the internal thread pool.
+   * Close the stage and stop accepting new messages.
+   * Like the internal thread pool, a dispatcher on a shared lane waits for the messages already queued
+   * to be processed, for at most {@link WakeParameters#EXECUTOR_SHUTDOWN_TIMEOUT} ms.
+   * The lane itself stays open for the other dispatchers.
    */
   @Override
   public void close() {
-    this.stage.close();
+    if (this.stage != null) {
+      this.stage.close();
+    } else if (this.closed.compareAndSet(false, true)) {
+      this.awaitPending();
+    }
+  }
+
+  /**
+   * Wait for the messages queued on the lane to be processed, except the one that called close(), if any.
+   */
+  private void awaitPending() {
+    final int own = this.processing.get() == Thread.currentThread() ? 1 : 0;
+    final long deadline = System.currentTimeMillis() + SHUTDOWN_TIMEOUT;
+    try {
+      synchronized (this.pending) {
+        long remaining = SHUTDOWN_TIMEOUT;
+        while (this.pending.get() > own && remaining > 0) {
+          this.pending.wait(remaining);
+          remaining = deadline - System.currentTimeMillis();
+        }
+      }
+    } catch (final InterruptedException ex) {
+      LOG.log(Level.WARNING, "Interrupted closing dispatcher on " + this.lane, ex);
+      Thread.currentThread().interrupt();
+    }
+    final int left = this.pending.get() - own;
+    if (left > 0) {
+      LOG.log(Level.SEVERE, "Closing dispatcher on {0}: {1} messages still queued after {2} ms",
+          new Object[] {this.lane, left, SHUTDOWN_TIMEOUT});
+    }
   }
 
   /**
@@ -140,7 +246,7 @@ public final class DispatchingEStage implements AutoCloseable {
    * @return true if the stage can no longer accept messages, false otherwise.
    */
   public boolean isClosed() {
-    return this.stage.isClosed();
+    return this.stage != null ? this.stage.isClosed() : this.closed.get();
   }
 
   /**
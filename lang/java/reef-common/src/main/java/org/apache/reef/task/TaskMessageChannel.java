@@ -0,0 +1,54 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.reef.task;
+
+import org.apache.reef.annotations.Unstable;
+import org.apache.reef.annotations.audience.Public;
+import org.apache.reef.annotations.audience.TaskSide;
+import org.apache.reef.runtime.common.evaluator.task.TaskMessageSender;
+
+import javax.inject.Inject;
+
+/**
+ * Pushes the messages of the TaskMessageSources to the Driver without waiting for the next heartbeat.
+ * Unlike {@link HeartBeatTriggerManager}, this sends only the messages, and takes all that each source has.
+ * The messages of the calls made within
+ * {@link org.apache.reef.runtime.common.evaluator.parameters.TaskMessageLatencyBudget} are sent together.
+ * <p>
+ * The Driver receives the messages through its TaskMessage handlers, as with the messages sent in heartbeats.
+ */
+@TaskSide
+@Public
+@Unstable
+public final class TaskMessageChannel {
+  private final TaskMessageSender taskMessageSender;
+
+  @Inject
+  TaskMessageChannel(final TaskMessageSender taskMessageSender) {
+    this.taskMessageSender = taskMessageSender;
+  }
+
+  /**
+   * Tells the channel that the TaskMessageSources have messages to send.
+   * Returns right away; the messages are sent within the latency budget.
+   */
+  public void messagesAvailable() {
+    this.taskMessageSender.messagesAvailable();
+  }
+}
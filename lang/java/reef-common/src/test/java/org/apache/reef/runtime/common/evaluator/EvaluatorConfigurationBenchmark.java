@@ -0,0 +1,160 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.reef.runtime.common.evaluator;
+
+import org.apache.reef.driver.context.ContextConfiguration;
+import org.apache.reef.driver.context.ServiceConfiguration;
+import org.apache.reef.driver.task.TaskConfiguration;
+import org.apache.reef.task.Task;
+import org.apache.reef.task.events.TaskStart;
+import org.apache.reef.task.events.TaskStop;
+import org.apache.reef.tang.Configuration;
+import org.apache.reef.tang.formats.AvroConfigurationSerializer;
+import org.apache.reef.tang.formats.CompactConfigurationSerializer;
+import org.apache.reef.tang.formats.ConfigurationSerializer;
+import org.apache.reef.wake.EventHandler;
+
+import javax.inject.Inject;
+import java.io.IOException;
+
+/**
+ * Compares the size and parse time of evaluator configurations in the JSON and the compact formats.
+ * The configuration has the shape of the one AllocatedEvaluatorImpl makes to submit a context, a service
+ * and a task, and is parsed the way the evaluator does: the outer configuration, then each nested one.
+ * <p>
+ * Run with {@code java -cp <test classpath> org.apache.reef.runtime.common.evaluator.EvaluatorConfigurationBenchmark
+ * [iterations]}.
+ */
+public final class EvaluatorConfigurationBenchmark {
+
+  private static final int WARMUP_ITERATIONS = 2000;
+
+  private EvaluatorConfigurationBenchmark() {
+  }
+
+  public static void main(final String[] args) throws IOException {
+    final int iterations = args.length > 0 ? Integer.parseInt(args[0]) : 10000;
+
+    final Configuration contextConf = ContextConfiguration.CONF
+        .set(ContextConfiguration.IDENTIFIER, "RootContext")
+        .set(ContextConfiguration.ON_TASK_STARTED, TaskStartHandler.class)
+        .set(ContextConfiguration.ON_TASK_STOP, TaskStopHandler.class)
+        .build();
+    final Configuration serviceConf = ServiceConfiguration.CONF
+        .set(ServiceConfiguration.SERVICES, BenchmarkService.class)
+        .set(ServiceConfiguration.ON_TASK_STARTED, TaskStartHandler.class)
+        .build();
+    final Configuration taskConf = TaskConfiguration.CONF
+        .set(TaskConfiguration.IDENTIFIER, "Task")
+        .set(TaskConfiguration.TASK, BenchmarkTask.class)
+        .set(TaskConfiguration.ON_TASK_STARTED, TaskStartHandler.class)
+        .build();
+
+    final AvroConfigurationSerializer avroSerializer = new AvroConfigurationSerializer();
+    final CompactConfigurationSerializer compactSerializer = new CompactConfigurationSerializer();
+    final Encoded json = new Encoded(avroSerializer, contextConf, serviceConf, taskConf);
+    final Encoded compact = new Encoded(compactSerializer, contextConf, serviceConf, taskConf);
+
+    // The evaluator reads both formats with the AvroConfigurationSerializer
+    run(avroSerializer, json, WARMUP_ITERATIONS);
+    run(avroSerializer, compact, WARMUP_ITERATIONS);
+
+    report("json", json, run(avroSerializer, json, iterations), iterations);
+    report("compact", compact, run(avroSerializer, compact, iterations), iterations);
+  }
+
+  private static long run(final ConfigurationSerializer serializer, final Encoded encoded, final int iterations)
+      throws IOException {
+    final long start = System.nanoTime();
+    for (int i = 0; i < iterations; ++i) {
+      serializer.fromByteArray(encoded.evaluatorConfiguration);
+      serializer.fromString(encoded.contextConfiguration);
+      serializer.fromString(encoded.serviceConfiguration);
+      serializer.fromString(encoded.taskConfiguration);
+    }
+    return System.nanoTime() - start;
+  }
+
+  private static void report(final String name, final Encoded encoded, final long nanos, final int iterations) {
+    System.out.println(String.format("%-8s %6d bytes %8.2f us/parse",
+        name, encoded.evaluatorConfiguration.length, nanos / 1000.0 / iterations));
+  }
+
+  /**
+   * An evaluator configuration and the configurations nested in it, as the evaluator receives them.
+   */
+  private static final class Encoded {
+    private final byte[] evaluatorConfiguration;
+    private final String contextConfiguration;
+    private final String serviceConfiguration;
+    private final String taskConfiguration;
+
+    Encoded(final ConfigurationSerializer serializer, final Configuration contextConf,
+            final Configuration serviceConf, final Configuration taskConf) throws IOException {
+      this.contextConfiguration = serializer.toString(contextConf);
+      this.serviceConfiguration = serializer.toString(serviceConf);
+      this.taskConfiguration = serializer.toString(taskConf);
+      this.evaluatorConfiguration = serializer.toByteArray(EvaluatorConfiguration.CONF
+          .set(EvaluatorConfiguration.APPLICATION_IDENTIFIER, "EvaluatorConfigurationBenchmark")
+          .set(EvaluatorConfiguration.DRIVER_REMOTE_IDENTIFIER, "socket://127.0.0.1:10000")
+          .set(EvaluatorConfiguration.EVALUATOR_IDENTIFIER, "Node-1-1000000000000")
+          .set(EvaluatorConfiguration.ROOT_CONTEXT_CONFIGURATION, this.contextConfiguration)
+          .set(EvaluatorConfiguration.ROOT_SERVICE_CONFIGURATION, this.serviceConfiguration)
+          .set(EvaluatorConfiguration.TASK_CONFIGURATION, this.taskConfiguration)
+          .build());
+    }
+  }
+
+  static final class BenchmarkService {
+    @Inject
+    BenchmarkService() {
+    }
+  }
+
+  static final class BenchmarkTask implements Task {
+    @Inject
+    BenchmarkTask() {
+    }
+
+    @Override
+    public byte[] call(final byte[] memento) {
+      return null;
+    }
+  }
+
+  static final class TaskStartHandler implements EventHandler<TaskStart> {
+    @Inject
+    TaskStartHandler() {
+    }
+
+    @Override
+    public void onNext(final TaskStart taskStart) {
+    }
+  }
+
+  static final class TaskStopHandler implements EventHandler<TaskStop> {
+    @Inject
+    TaskStopHandler() {
+    }
+
+    @Override
+    public void onNext(final TaskStop taskStop) {
+    }
+  }
+}
@@ -0,0 +1,144 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.reef.runtime.common.evaluator;
+
+import com.google.protobuf.ByteString;
+import org.apache.reef.proto.EvaluatorRuntimeProtocol.EvaluatorHeartbeatProto;
+import org.apache.reef.proto.ReefServiceProtos;
+import org.apache.reef.proto.ReefServiceProtos.ContextStatusProto;
+import org.apache.reef.proto.ReefServiceProtos.TaskStatusProto;
+import org.apache.reef.util.Optional;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+/**
+ * Test for HeartbeatStatusCache.
+ */
+public final class HeartbeatStatusCacheTest {
+
+  private static final int NUM_CONTEXTS = 100;
+
+  private static final ReefServiceProtos.EvaluatorStatusProto EVALUATOR_STATUS =
+      ReefServiceProtos.EvaluatorStatusProto.newBuilder()
+          .setEvaluatorId("evaluator")
+          .setState(ReefServiceProtos.State.RUNNING)
+          .build();
+
+  private static final TaskStatusProto TASK_STATUS = TaskStatusProto.newBuilder()
+      .setTaskId("task")
+      .setContextId("context" + (NUM_CONTEXTS - 1))
+      .setState(ReefServiceProtos.State.RUNNING)
+      .build();
+
+  /**
+   * With the default period, every heartbeat has every status.
+   */
+  @Test
+  public void testFullSnapshots() {
+    final HeartbeatStatusCache cache = new HeartbeatStatusCache(1);
+    final List<ContextStatusProto> contexts = newContextStack();
+    for (int i = 0; i < 3; ++i) {
+      final EvaluatorHeartbeatProto heartbeat = cache.newHeartbeat(EVALUATOR_STATUS, contexts,
+          Optional.of(TASK_STATUS), false);
+      assertFalse(heartbeat.getDelta());
+      assertEquals(NUM_CONTEXTS, heartbeat.getContextStatusCount());
+      assertTrue(heartbeat.hasTaskStatus());
+    }
+  }
+
+  /**
+   * Deltas leave out the unchanged statuses, but keep the ones that carry messages.
+   */
+  @Test
+  public void testDeltas() {
+    final int period = 10;
+    final HeartbeatStatusCache cache = new HeartbeatStatusCache(period);
+    final List<ContextStatusProto> contexts = newContextStack();
+
+    final EvaluatorHeartbeatProto full = cache.newHeartbeat(EVALUATOR_STATUS, contexts,
+        Optional.of(TASK_STATUS), false);
+    assertFalse(full.getDelta());
+    assertEquals(NUM_CONTEXTS, full.getContextStatusCount());
+
+    final EvaluatorHeartbeatProto unchanged = cache.newHeartbeat(EVALUATOR_STATUS, contexts,
+        Optional.of(TASK_STATUS), false);
+    assertTrue(unchanged.getDelta());
+    assertEquals(0, unchanged.getContextStatusCount());
+    assertFalse(unchanged.hasTaskStatus());
+    assertTrue("A delta should be much smaller than a full snapshot",
+        unchanged.getSerializedSize() * 10 < full.getSerializedSize());
+
+    // A context with a message and a task status that is explicitly sent
+    contexts.set(3, contexts.get(3).toBuilder().addContextMessage(
+        ContextStatusProto.ContextMessageProto.newBuilder()
+            .setSourceId("source")
+            .setMessage(ByteString.copyFromUtf8("message"))).build());
+    final EvaluatorHeartbeatProto withMessage = cache.newHeartbeat(EVALUATOR_STATUS, contexts,
+        Optional.of(TASK_STATUS), true);
+    assertEquals(1, withMessage.getContextStatusCount());
+    assertEquals("context3", withMessage.getContextStatus(0).getContextId());
+    assertEquals(TASK_STATUS, withMessage.getTaskStatus());
+
+    // The message is not part of the status sent last
+    contexts.set(3, contexts.get(3).toBuilder().clearContextMessage().build());
+    assertEquals(0, cache.newHeartbeat(EVALUATOR_STATUS, contexts, Optional.of(TASK_STATUS), false)
+        .getContextStatusCount());
+
+    // A task that changed its state
+    final TaskStatusProto done = TASK_STATUS.toBuilder().setState(ReefServiceProtos.State.DONE).build();
+    assertEquals(done, cache.newHeartbeat(EVALUATOR_STATUS, contexts, Optional.of(done), false).getTaskStatus());
+
+    // A context that is done, and the one under it that is now on top of the stack
+    contexts.set(NUM_CONTEXTS - 1, contexts.get(NUM_CONTEXTS - 1).toBuilder()
+        .setContextState(ContextStatusProto.State.DONE).build());
+    final EvaluatorHeartbeatProto contextDone = cache.newHeartbeat(EVALUATOR_STATUS, contexts,
+        Optional.<TaskStatusProto>empty(), false);
+    assertEquals(1, contextDone.getContextStatusCount());
+    assertEquals(ContextStatusProto.State.DONE, contextDone.getContextStatus(0).getContextState());
+    contexts.remove(NUM_CONTEXTS - 1);
+
+    // Every period-th heartbeat is a full snapshot again
+    for (int i = 6; i < period; ++i) {
+      assertTrue(cache.newHeartbeat(EVALUATOR_STATUS, contexts, Optional.<TaskStatusProto>empty(), false)
+          .getDelta());
+    }
+    final EvaluatorHeartbeatProto resync = cache.newHeartbeat(EVALUATOR_STATUS, contexts,
+        Optional.<TaskStatusProto>empty(), false);
+    assertFalse(resync.getDelta());
+    assertEquals(NUM_CONTEXTS - 1, resync.getContextStatusCount());
+  }
+
+  private static List<ContextStatusProto> newContextStack() {
+    final List<ContextStatusProto> contexts = new ArrayList<>();
+    for (int i = 0; i < NUM_CONTEXTS; ++i) {
+      final ContextStatusProto.Builder builder = ContextStatusProto.newBuilder()
+          .setContextId("context" + i)
+          .setContextState(ContextStatusProto.State.READY);
+      if (i > 0) {
+        builder.setParentId("context" + (i - 1));
+      }
+      contexts.add(builder.build());
+    }
+    return contexts;
+  }
+}
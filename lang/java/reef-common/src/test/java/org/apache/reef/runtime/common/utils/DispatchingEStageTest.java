@@ -0,0 +1,252 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.reef.runtime.common.utils;
+
+import org.apache.reef.wake.EventHandler;
+import org.apache.reef.wake.impl.StageManager;
+import org.apache.reef.wake.metrics.StageMetrics;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.*;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.*;
+
+/**
+ * Test for DispatchingEStage on shared DispatchLanes.
+ */
+public final class DispatchingEStageTest {
+
+  private static final int NUM_LANES = 4;
+
+  private final EventHandler<Throwable> errorHandler = new EventHandler<Throwable>() {
+    @Override
+    public void onNext(final Throwable throwable) {
+      throw new AssertionError("Unexpected exception from handler", throwable);
+    }
+  };
+
+  private DispatchLanes lanes;
+
+  @Before
+  public void setUp() {
+    this.lanes = new DispatchLanes(NUM_LANES, "DispatchingEStageTest");
+  }
+
+  @After
+  public void tearDown() {
+    this.lanes.close();
+  }
+
+  /**
+   * Events of each key are processed in the order they were dispatched.
+   */
+  @Test(timeout = 10000)
+  public void testPerKeyOrdering() throws Exception {
+    final int numKeys = 16;
+    final int numEvents = 1000;
+    final Map<String, List<Integer>> received = new HashMap<>();
+    final List<DispatchingEStage> dispatchers = new ArrayList<>();
+    for (int i = 0; i < numKeys; ++i) {
+      final List<Integer> events = Collections.synchronizedList(new ArrayList<Integer>());
+      received.put("Evaluator-" + i, events);
+      dispatchers.add(newDispatcher("Evaluator-" + i, new EventHandler<Integer>() {
+        @Override
+        public void onNext(final Integer value) {
+          events.add(value);
+        }
+      }));
+    }
+
+    for (int j = 0; j < numEvents; ++j) {
+      for (final DispatchingEStage dispatcher : dispatchers) {
+        dispatcher.onNext(Integer.class, j);
+      }
+    }
+    for (final DispatchingEStage dispatcher : dispatchers) {
+      awaitEmpty(dispatcher);
+    }
+
+    for (final List<Integer> events : received.values()) {
+      assertEquals(numEvents, events.size());
+      for (int j = 0; j < numEvents; ++j) {
+        assertEquals(j, (int) events.get(j));
+      }
+    }
+  }
+
+  /**
+   * Keys on different lanes are processed in parallel: a blocked handler does not hold back another lane.
+   */
+  @Test(timeout = 10000)
+  public void testParallelLanes() throws Exception {
+    final String key1 = "Evaluator-0";
+    String key2 = null;
+    for (int i = 1; key2 == null; ++i) {
+      if (this.lanes.getLaneIndex("Evaluator-" + i) != this.lanes.getLaneIndex(key1)) {
+        key2 = "Evaluator-" + i;
+      }
+    }
+
+    final CountDownLatch secondDone = new CountDownLatch(1);
+    final CountDownLatch firstDone = new CountDownLatch(1);
+    final DispatchingEStage first = newDispatcher(key1, new EventHandler<Integer>() {
+      @Override
+      public void onNext(final Integer value) {
+        try {
+          assertTrue(secondDone.await(5, TimeUnit.SECONDS));
+        } catch (final InterruptedException e) {
+          throw new RuntimeException(e);
+        }
+        firstDone.countDown();
+      }
+    });
+    final DispatchingEStage second = newDispatcher(key2, new EventHandler<Integer>() {
+      @Override
+      public void onNext(final Integer value) {
+        secondDone.countDown();
+      }
+    });
+
+    first.onNext(Integer.class, 1);
+    assertFalse(first.isEmpty());
+    assertEquals(1, this.lanes.getQueueDepth(this.lanes.getLaneIndex(key1)));
+    second.onNext(Integer.class, 2);
+
+    assertTrue(firstDone.await(5, TimeUnit.SECONDS));
+    awaitEmpty(first);
+    awaitEmpty(second);
+  }
+
+  /**
+   * Closing one dispatcher leaves the shared lane open for the others.
+   */
+  @Test(timeout = 10000)
+  public void testCloseKeepsLaneOpen() throws Exception {
+    final List<Integer> events = Collections.synchronizedList(new ArrayList<Integer>());
+    final EventHandler<Integer> handler = new EventHandler<Integer>() {
+      @Override
+      public void onNext(final Integer value) {
+        events.add(value);
+      }
+    };
+    final DispatchingEStage closed = newDispatcher("Evaluator-0", handler);
+    final DispatchingEStage open = newDispatcher("Evaluator-0", handler);
+
+    closed.close();
+    assertTrue(closed.isClosed());
+    assertFalse(open.isClosed());
+    closed.onNext(Integer.class, 1);
+    open.onNext(Integer.class, 2);
+    awaitEmpty(open);
+
+    assertEquals(Collections.singletonList(2), events);
+  }
+
+  /**
+   * Like closing its own thread pool, closing a dispatcher on a lane waits for its queued messages.
+   */
+  @Test(timeout = 10000)
+  public void testCloseDrainsQueuedMessages() throws Exception {
+    final List<Integer> events = Collections.synchronizedList(new ArrayList<Integer>());
+    final CountDownLatch release = new CountDownLatch(1);
+    final DispatchingEStage dispatcher = newDispatcher("Evaluator-0", new EventHandler<Integer>() {
+      @Override
+      public void onNext(final Integer value) {
+        try {
+          assertTrue(release.await(5, TimeUnit.SECONDS));
+        } catch (final InterruptedException e) {
+          throw new RuntimeException(e);
+        }
+        events.add(value);
+      }
+    });
+    for (int i = 0; i < 3; ++i) {
+      dispatcher.onNext(Integer.class, i);
+    }
+
+    final Thread releaser = new Thread(new Runnable() {
+      @Override
+      public void run() {
+        try {
+          Thread.sleep(100);
+        } catch (final InterruptedException e) {
+          throw new RuntimeException(e);
+        }
+        release.countDown();
+      }
+    });
+    releaser.start();
+    dispatcher.close();
+    releaser.join();
+
+    assertEquals(Arrays.asList(0, 1, 2), events);
+    assertTrue(dispatcher.isEmpty());
+  }
+
+  /**
+   * The queue depth of each lane is part of the stage metrics collected by the StageManager.
+   */
+  @Test(timeout = 10000)
+  public void testQueueDepthInStageMetrics() throws Exception {
+    final String key = "Evaluator-0";
+    final CountDownLatch release = new CountDownLatch(1);
+    final DispatchingEStage dispatcher = newDispatcher(key, new EventHandler<Integer>() {
+      @Override
+      public void onNext(final Integer value) {
+        try {
+          assertTrue(release.await(5, TimeUnit.SECONDS));
+        } catch (final InterruptedException e) {
+          throw new RuntimeException(e);
+        }
+      }
+    });
+    for (int i = 0; i < 3; ++i) {
+      dispatcher.onNext(Integer.class, i);
+    }
+
+    final String laneName = "DispatchingEStageTest:" + this.lanes.getLaneIndex(key);
+    long queueDepth = -1;
+    for (final StageMetrics metrics : StageManager.instance().getMetrics()) {
+      if (metrics.getStageName().equals(laneName)) {
+        queueDepth = metrics.getQueueDepth();
+      }
+    }
+    assertEquals(3, queueDepth);
+    assertEquals(3, this.lanes.getQueueDepth(this.lanes.getLaneIndex(key)));
+
+    release.countDown();
+    awaitEmpty(dispatcher);
+  }
+
+  private DispatchingEStage newDispatcher(final String key, final EventHandler<Integer> handler) {
+    final DispatchingEStage dispatcher = new DispatchingEStage(this.errorHandler, this.lanes, key);
+    dispatcher.register(Integer.class, Collections.singleton(handler));
+    return dispatcher;
+  }
+
+  private static void awaitEmpty(final DispatchingEStage dispatcher) throws InterruptedException {
+    while (!dispatcher.isEmpty()) {
+      Thread.sleep(1);
+    }
+  }
+}
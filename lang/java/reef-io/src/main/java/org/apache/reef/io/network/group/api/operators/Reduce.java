@@ -87,6 +87,12 @@ public interface Reduce {
   /**
    * Interface for a Reduce Function takes in an {@link Iterable} returns an.
    * aggregate value computed from the {@link Iterable}
+   * <p>
+   * The function must be associative and commutative, as values are combined
+   * in the order in which they arrive. When the operator is configured with
+   * {@code ReduceOperatorSpec.Builder#setParallelReduce(true)}, a task with several children
+   * applies the function and the codec of the operator from several threads at once,
+   * so both must then be thread-safe.
    */
   interface ReduceFunction<T> {
     /**
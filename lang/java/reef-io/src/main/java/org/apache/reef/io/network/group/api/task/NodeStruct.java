@@ -38,5 +38,25 @@ public interface NodeStruct {
 
   byte[] getData();
 
+  /**
+   * Retrieves and removes the next message from this node, waiting if necessary.
+   *
+   * @return the next message
+   */
+  GroupCommunicationMessage getMessage();
+
+  /**
+   * Retrieves and removes the next message from this node if there is one.
+   *
+   * @return the next message, or null if there is none
+   */
+  GroupCommunicationMessage pollMessage();
+
+  /**
+   * @param gcm a message from this node
+   * @return true if the message signals that this node is dead
+   */
+  boolean checkDead(GroupCommunicationMessage gcm);
+
   void addData(GroupCommunicationMessage msg);
 }
@@ -52,6 +52,9 @@ public interface OperatorTopology {
 
   byte[] recvFromParent(ReefNetworkGroupCommProtos.GroupCommMessage.Type msgType) throws ParentDeadException;
 
+  byte[] recvFromParentAndForwardToChildren(ReefNetworkGroupCommProtos.GroupCommMessage.Type msgType)
+      throws ParentDeadException;
+
   void sendToChildren(byte[] data, ReefNetworkGroupCommProtos.GroupCommMessage.Type msgType) throws ParentDeadException;
 
   void sendToChildren(Map<String, byte[]> dataMap,
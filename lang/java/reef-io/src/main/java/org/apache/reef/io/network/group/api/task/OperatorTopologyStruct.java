@@ -46,6 +46,21 @@ public interface OperatorTopologyStruct {
 
   int getVersion();
 
+  /**
+   * @return size of the segments that large messages to children are split into; 0 if not streaming
+   */
+  int getSegmentSize();
+
+  /**
+   * @return number of segments that can be in flight to one child
+   */
+  int getStreamingWindow();
+
+  /**
+   * @return whether values received from several children are decoded and reduced in parallel
+   */
+  boolean isParallelReduce();
+
   NodeStruct getParent();
 
   Collection<? extends NodeStruct> getChildren();
@@ -68,6 +83,15 @@ public interface OperatorTopologyStruct {
 
   byte[] recvFromParent(ReefNetworkGroupCommProtos.GroupCommMessage.Type msgType);
 
+  /**
+   * Receive a message from the parent and send it on to all children.
+   * A message streamed in segments is forwarded segment by segment as it arrives.
+   *
+   * @param msgType message type
+   * @return message sent from the parent, or null if the parent died
+   */
+  byte[] recvFromParentAndForwardToChildren(ReefNetworkGroupCommProtos.GroupCommMessage.Type msgType);
+
   void sendToChildren(byte[] data, ReefNetworkGroupCommProtos.GroupCommMessage.Type msgType);
 
   void sendToChildren(Map<String, byte[]> dataMap, ReefNetworkGroupCommProtos.GroupCommMessage.Type msgType);
@@ -34,12 +34,31 @@ public class BroadcastOperatorSpec implements OperatorSpec {
    */
   private final Class<? extends Codec> dataCodecClass;
 
+  /**
+   * Size of the segments that large messages are streamed in; 0 to send them whole.
+   */
+  private final int segmentSize;
+
+  /**
+   * Number of segments that can be in flight to one child.
+   */
+  private final int streamingWindow;
+
 
   public BroadcastOperatorSpec(final String senderId,
                                final Class<? extends Codec> dataCodecClass) {
+    this(senderId, dataCodecClass, 0, 4);
+  }
+
+  public BroadcastOperatorSpec(final String senderId,
+                               final Class<? extends Codec> dataCodecClass,
+                               final int segmentSize,
+                               final int streamingWindow) {
     super();
     this.senderId = senderId;
     this.dataCodecClass = dataCodecClass;
+    this.segmentSize = segmentSize;
+    this.streamingWindow = streamingWindow;
   }
 
   public String getSenderId() {
@@ -51,10 +70,18 @@ public class BroadcastOperatorSpec implements OperatorSpec {
     return dataCodecClass;
   }
 
+  public int getSegmentSize() {
+    return segmentSize;
+  }
+
+  public int getStreamingWindow() {
+    return streamingWindow;
+  }
+
   @Override
   public String toString() {
     return "Broadcast Operator Spec: [sender=" + senderId + "] [dataCodecClass=" + Utils.simpleName(dataCodecClass)
-        + "]";
+        + "] [segmentSize=" + segmentSize + "] [streamingWindow=" + streamingWindow + "]";
   }
 
   public static Builder newBuilder() {
@@ -66,6 +93,9 @@ public class BroadcastOperatorSpec implements OperatorSpec {
 
     private Class<? extends Codec> dataCodecClass;
 
+    private int segmentSize = 0;
+
+    private int streamingWindow = 4;
 
     public Builder setSenderId(final String senderId) {
       this.senderId = senderId;
@@ -77,9 +107,27 @@ public class BroadcastOperatorSpec implements OperatorSpec {
       return this;
     }
 
+    /**
+     * Stream messages larger than {@code size} bytes in segments of that size,
+     * which tasks in the middle of the tree forward as they arrive.
+     * @param size segment size in bytes; 0 to send large messages whole
+     */
+    public Builder setSegmentSize(final int size) {
+      this.segmentSize = size;
+      return this;
+    }
+
+    /**
+     * @param window number of segments that can be in flight to one child
+     */
+    public Builder setStreamingWindow(final int window) {
+      this.streamingWindow = window;
+      return this;
+    }
+
     @Override
     public BroadcastOperatorSpec build() {
-      return new BroadcastOperatorSpec(senderId, dataCodecClass);
+      return new BroadcastOperatorSpec(senderId, dataCodecClass, segmentSize, streamingWindow);
     }
   }
 
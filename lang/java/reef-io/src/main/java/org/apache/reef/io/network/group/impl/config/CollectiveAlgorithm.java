@@ -0,0 +1,48 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.reef.io.network.group.impl.config;
+
+/**
+ * Algorithms of the AllReduce, AllGather and ReduceScatter operators.
+ * <p>
+ * Payloads up to the tree threshold of the operator always use {@link #TREE}, which takes the fewest steps.
+ * Larger payloads use the algorithm configured on the operator, which spreads the traffic over all tasks.
+ */
+public enum CollectiveAlgorithm {
+
+  /**
+   * Reduce or gather up the operator topology and broadcast the result down.
+   * Takes two passes over the tree, but all data goes through the root.
+   */
+  TREE,
+
+  /**
+   * Pass blocks around a ring of the tasks in p - 1 steps.
+   * Every task sends and receives about as much data as the result, whatever the number of tasks.
+   * Not available for AllReduce, whose elements cannot be split into blocks.
+   */
+  RING,
+
+  /**
+   * Exchange data with partners at doubling (AllReduce, AllGather) or halving (ReduceScatter) distances
+   * in log p steps. AllGather and ReduceScatter fall back to {@link #RING} if the number of tasks
+   * is not a power of two.
+   */
+  RECURSIVE
+}
@@ -40,14 +40,27 @@ public class ReduceOperatorSpec implements OperatorSpec {
    */
   private final Class<? extends ReduceFunction> redFuncClass;
 
+  /**
+   * Whether the values received from several children are decoded and reduced in parallel.
+   */
+  private final boolean parallelReduce;
+
 
   public ReduceOperatorSpec(final String receiverId,
                             final Class<? extends Codec> dataCodecClass,
                             final Class<? extends ReduceFunction> redFuncClass) {
+    this(receiverId, dataCodecClass, redFuncClass, false);
+  }
+
+  public ReduceOperatorSpec(final String receiverId,
+                            final Class<? extends Codec> dataCodecClass,
+                            final Class<? extends ReduceFunction> redFuncClass,
+                            final boolean parallelReduce) {
     super();
     this.receiverId = receiverId;
     this.dataCodecClass = dataCodecClass;
     this.redFuncClass = redFuncClass;
+    this.parallelReduce = parallelReduce;
   }
 
   public String getReceiverId() {
@@ -61,6 +74,13 @@ public class ReduceOperatorSpec implements OperatorSpec {
     return redFuncClass;
   }
 
+  /**
+   * @return whether the values received from several children are decoded and reduced in parallel
+   */
+  public boolean isParallelReduce() {
+    return parallelReduce;
+  }
+
   @Override
   public Class<? extends Codec> getDataCodecClass() {
     return dataCodecClass;
@@ -69,7 +89,7 @@ public class ReduceOperatorSpec implements OperatorSpec {
   @Override
   public String toString() {
     return "Reduce Operator Spec: [receiver=" + receiverId + "] [dataCodecClass=" + Utils.simpleName(dataCodecClass)
-        + "] [reduceFunctionClass=" + Utils.simpleName(redFuncClass) + "]";
+        + "] [reduceFunctionClass=" + Utils.simpleName(redFuncClass) + "] [parallelReduce=" + parallelReduce + "]";
   }
 
   public static Builder newBuilder() {
@@ -84,6 +104,8 @@ public class ReduceOperatorSpec implements OperatorSpec {
 
     private Class<? extends ReduceFunction> redFuncClass;
 
+    private boolean parallelReduce = false;
+
     public Builder setReceiverId(final String receiverId) {
       this.receiverId = receiverId;
       return this;
@@ -100,9 +122,19 @@ public class ReduceOperatorSpec implements OperatorSpec {
       return this;
     }
 
+    /**
+     * Decode and reduce the values received from several children in parallel.
+     * The reduce function and the codec must then be thread-safe.
+     */
+    @SuppressWarnings("checkstyle:hiddenfield")
+    public Builder setParallelReduce(final boolean parallelReduce) {
+      this.parallelReduce = parallelReduce;
+      return this;
+    }
+
     @Override
     public ReduceOperatorSpec build() {
-      return new ReduceOperatorSpec(receiverId, dataCodecClass, redFuncClass);
+      return new ReduceOperatorSpec(receiverId, dataCodecClass, redFuncClass, parallelReduce);
     }
   }
 }
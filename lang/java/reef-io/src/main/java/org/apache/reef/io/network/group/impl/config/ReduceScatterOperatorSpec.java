@@ -0,0 +1,131 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.reef.io.network.group.impl.config;
+
+import org.apache.reef.io.network.group.api.config.OperatorSpec;
+import org.apache.reef.io.network.group.api.operators.Reduce.ReduceFunction;
+import org.apache.reef.io.network.group.impl.utils.Utils;
+import org.apache.reef.io.serialization.Codec;
+
+/**
+ * The specification for the ReduceScatter operator.
+ */
+public class ReduceScatterOperatorSpec implements OperatorSpec {
+
+  private final String rootId;
+  private final Class<? extends Codec> dataCodecClass;
+  private final Class<? extends ReduceFunction> redFuncClass;
+  private final CollectiveAlgorithm algorithm;
+  private final int treeThreshold;
+
+  /**
+   * @param rootId        the task at the root of the operator topology
+   * @param algorithm     the algorithm for payloads above {@code treeThreshold}
+   * @param treeThreshold the largest payload in bytes that goes through the operator topology
+   */
+  public ReduceScatterOperatorSpec(final String rootId,
+                               final Class<? extends Codec> dataCodecClass,
+                               final Class<? extends ReduceFunction> redFuncClass,
+                               final CollectiveAlgorithm algorithm,
+                               final int treeThreshold) {
+    this.rootId = rootId;
+    this.dataCodecClass = dataCodecClass;
+    this.redFuncClass = redFuncClass;
+    this.algorithm = algorithm;
+    this.treeThreshold = treeThreshold;
+  }
+
+  public String getRootId() {
+    return rootId;
+  }
+
+  @Override
+  public Class<? extends Codec> getDataCodecClass() {
+    return dataCodecClass;
+  }
+
+  public Class<? extends ReduceFunction> getRedFuncClass() {
+    return redFuncClass;
+  }
+
+  public CollectiveAlgorithm getAlgorithm() {
+    return algorithm;
+  }
+
+  public int getTreeThreshold() {
+    return treeThreshold;
+  }
+
+  @Override
+  public String toString() {
+    return "ReduceScatter Operator Spec: [root=" + rootId + "] [dataCodecClass=" + Utils.simpleName(dataCodecClass)
+        + "] [reduceFunctionClass=" + Utils.simpleName(redFuncClass) + "] [algorithm=" + algorithm
+        + "] [treeThreshold=" + treeThreshold + "]";
+  }
+
+  public static Builder newBuilder() {
+    return new ReduceScatterOperatorSpec.Builder();
+  }
+
+  public static class Builder implements org.apache.reef.util.Builder<ReduceScatterOperatorSpec> {
+
+    private String rootId;
+    private Class<? extends Codec> dataCodecClass;
+    private Class<? extends ReduceFunction> redFuncClass;
+    private CollectiveAlgorithm algorithm = CollectiveAlgorithm.RECURSIVE;
+    private int treeThreshold = 65536;
+
+    public Builder setRootId(final String rootId) {
+      this.rootId = rootId;
+      return this;
+    }
+
+    public Builder setDataCodecClass(final Class<? extends Codec> codecClazz) {
+      this.dataCodecClass = codecClazz;
+      return this;
+    }
+
+    @SuppressWarnings("checkstyle:hiddenfield")
+    public Builder setReduceFunctionClass(final Class<? extends ReduceFunction> redFuncClass) {
+      this.redFuncClass = redFuncClass;
+      return this;
+    }
+
+    /**
+     * @param algorithm the algorithm for payloads above the tree threshold
+     */
+    public Builder setAlgorithm(final CollectiveAlgorithm algorithm) {
+      this.algorithm = algorithm;
+      return this;
+    }
+
+    /**
+     * @param threshold the largest payload in bytes that goes through the operator topology
+     */
+    public Builder setTreeThreshold(final int threshold) {
+      this.treeThreshold = threshold;
+      return this;
+    }
+
+    @Override
+    public ReduceScatterOperatorSpec build() {
+      return new ReduceScatterOperatorSpec(rootId, dataCodecClass, redFuncClass, algorithm, treeThreshold);
+    }
+  }
+}
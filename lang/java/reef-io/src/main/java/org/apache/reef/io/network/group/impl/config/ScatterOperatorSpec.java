@@ -29,11 +29,22 @@ public class ScatterOperatorSpec implements OperatorSpec {
 
   private final String senderId;
   private final Class<? extends Codec> dataCodecClass;
+  private final int segmentSize;
+  private final int streamingWindow;
 
   public ScatterOperatorSpec(final String senderId,
                              final Class<? extends Codec> dataCodecClass) {
+    this(senderId, dataCodecClass, 0, 4);
+  }
+
+  public ScatterOperatorSpec(final String senderId,
+                             final Class<? extends Codec> dataCodecClass,
+                             final int segmentSize,
+                             final int streamingWindow) {
     this.senderId = senderId;
     this.dataCodecClass = dataCodecClass;
+    this.segmentSize = segmentSize;
+    this.streamingWindow = streamingWindow;
   }
 
   public String getSenderId() {
@@ -45,12 +56,24 @@ public class ScatterOperatorSpec implements OperatorSpec {
     return dataCodecClass;
   }
 
+  public int getSegmentSize() {
+    return segmentSize;
+  }
+
+  public int getStreamingWindow() {
+    return streamingWindow;
+  }
+
   @Override
   public String toString() {
     final StringBuilder sb = new StringBuilder("Scatter Operator Spec: [sender=")
         .append(senderId)
         .append("] [dataCodecClass=")
         .append(Utils.simpleName(dataCodecClass))
+        .append("] [segmentSize=")
+        .append(segmentSize)
+        .append("] [streamingWindow=")
+        .append(streamingWindow)
         .append("]");
     return sb.toString();
   }
@@ -63,6 +86,8 @@ public class ScatterOperatorSpec implements OperatorSpec {
 
     private String senderId;
     private Class<? extends Codec> dataCodecClass;
+    private int segmentSize = 0;
+    private int streamingWindow = 4;
 
     public Builder setSenderId(final String senderId) {
       this.senderId = senderId;
@@ -74,9 +99,26 @@ public class ScatterOperatorSpec implements OperatorSpec {
       return this;
     }
 
+    /**
+     * Stream the messages to children that are larger than {@code size} bytes in segments of that size.
+     * @param size segment size in bytes; 0 to send large messages whole
+     */
+    public Builder setSegmentSize(final int size) {
+      this.segmentSize = size;
+      return this;
+    }
+
+    /**
+     * @param window number of segments that can be in flight to one child
+     */
+    public Builder setStreamingWindow(final int window) {
+      this.streamingWindow = window;
+      return this;
+    }
+
     @Override
     public ScatterOperatorSpec build() {
-      return new ScatterOperatorSpec(senderId, dataCodecClass);
+      return new ScatterOperatorSpec(senderId, dataCodecClass, segmentSize, streamingWindow);
     }
   }
 }
@@ -27,9 +27,12 @@ import org.apache.reef.io.network.group.api.driver.Topology;
 import org.apache.reef.io.network.group.impl.GroupChangesCodec;
 import org.apache.reef.io.network.group.impl.GroupChangesImpl;
 import org.apache.reef.io.network.group.impl.GroupCommunicationMessage;
+import org.apache.reef.io.network.group.impl.config.AllGatherOperatorSpec;
+import org.apache.reef.io.network.group.impl.config.AllReduceOperatorSpec;
 import org.apache.reef.io.network.group.impl.config.BroadcastOperatorSpec;
 import org.apache.reef.io.network.group.impl.config.GatherOperatorSpec;
 import org.apache.reef.io.network.group.impl.config.ReduceOperatorSpec;
+import org.apache.reef.io.network.group.impl.config.ReduceScatterOperatorSpec;
 import org.apache.reef.io.network.group.impl.config.ScatterOperatorSpec;
 import org.apache.reef.io.network.group.impl.config.parameters.*;
 import org.apache.reef.io.network.group.impl.operators.*;
@@ -120,6 +123,8 @@ public final class FlatTopology implements Topology {
     jcb.bindNamedParameter(TaskVersion.class, Integer.toString(version));
     if (operatorSpec instanceof BroadcastOperatorSpec) {
       final BroadcastOperatorSpec broadcastOperatorSpec = (BroadcastOperatorSpec) operatorSpec;
+      jcb.bindNamedParameter(StreamingSegmentSize.class, Integer.toString(broadcastOperatorSpec.getSegmentSize()));
+      jcb.bindNamedParameter(StreamingWindow.class, Integer.toString(broadcastOperatorSpec.getStreamingWindow()));
       if (taskId.equals(broadcastOperatorSpec.getSenderId())) {
         jcb.bindImplementation(GroupCommOperator.class, BroadcastSender.class);
       } else {
@@ -128,6 +133,7 @@ public final class FlatTopology implements Topology {
     } else if (operatorSpec instanceof ReduceOperatorSpec) {
       final ReduceOperatorSpec reduceOperatorSpec = (ReduceOperatorSpec) operatorSpec;
       jcb.bindNamedParameter(ReduceFunctionParam.class, reduceOperatorSpec.getRedFuncClass());
+      jcb.bindNamedParameter(ParallelReduce.class, Boolean.toString(reduceOperatorSpec.isParallelReduce()));
       if (taskId.equals(reduceOperatorSpec.getReceiverId())) {
         jcb.bindImplementation(GroupCommOperator.class, ReduceReceiver.class);
       } else {
@@ -135,6 +141,8 @@ public final class FlatTopology implements Topology {
       }
     } else if (operatorSpec instanceof ScatterOperatorSpec) {
       final ScatterOperatorSpec scatterOperatorSpec = (ScatterOperatorSpec) operatorSpec;
+      jcb.bindNamedParameter(StreamingSegmentSize.class, Integer.toString(scatterOperatorSpec.getSegmentSize()));
+      jcb.bindNamedParameter(StreamingWindow.class, Integer.toString(scatterOperatorSpec.getStreamingWindow()));
       if (taskId.equals(scatterOperatorSpec.getSenderId())) {
         jcb.bindImplementation(GroupCommOperator.class, ScatterSender.class);
       } else {
@@ -147,6 +155,27 @@ public final class FlatTopology implements Topology {
       } else {
         jcb.bindImplementation(GroupCommOperator.class, GatherSender.class);
       }
+    } else if (operatorSpec instanceof AllReduceOperatorSpec) {
+      final AllReduceOperatorSpec allReduceOperatorSpec = (AllReduceOperatorSpec) operatorSpec;
+      jcb.bindNamedParameter(RootTaskId.class, allReduceOperatorSpec.getRootId());
+      jcb.bindNamedParameter(ReduceFunctionParam.class, allReduceOperatorSpec.getRedFuncClass());
+      jcb.bindNamedParameter(CollectiveAlgorithmName.class, allReduceOperatorSpec.getAlgorithm().name());
+      jcb.bindNamedParameter(TreeAlgorithmThreshold.class, Integer.toString(allReduceOperatorSpec.getTreeThreshold()));
+      jcb.bindImplementation(GroupCommOperator.class, AllReducer.class);
+    } else if (operatorSpec instanceof AllGatherOperatorSpec) {
+      final AllGatherOperatorSpec allGatherOperatorSpec = (AllGatherOperatorSpec) operatorSpec;
+      jcb.bindNamedParameter(RootTaskId.class, allGatherOperatorSpec.getRootId());
+      jcb.bindNamedParameter(CollectiveAlgorithmName.class, allGatherOperatorSpec.getAlgorithm().name());
+      jcb.bindNamedParameter(TreeAlgorithmThreshold.class, Integer.toString(allGatherOperatorSpec.getTreeThreshold()));
+      jcb.bindImplementation(GroupCommOperator.class, AllGatherer.class);
+    } else if (operatorSpec instanceof ReduceScatterOperatorSpec) {
+      final ReduceScatterOperatorSpec reduceScatterOperatorSpec = (ReduceScatterOperatorSpec) operatorSpec;
+      jcb.bindNamedParameter(RootTaskId.class, reduceScatterOperatorSpec.getRootId());
+      jcb.bindNamedParameter(ReduceFunctionParam.class, reduceScatterOperatorSpec.getRedFuncClass());
+      jcb.bindNamedParameter(CollectiveAlgorithmName.class, reduceScatterOperatorSpec.getAlgorithm().name());
+      jcb.bindNamedParameter(TreeAlgorithmThreshold.class,
+          Integer.toString(reduceScatterOperatorSpec.getTreeThreshold()));
+      jcb.bindImplementation(GroupCommOperator.class, ReduceScatterer.class);
     }
     return jcb.build();
   }
@@ -0,0 +1,188 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.reef.io.network.group.impl.operators;
+
+import org.apache.reef.driver.task.TaskConfigurationOptions;
+import org.apache.reef.exception.evaluator.NetworkException;
+import org.apache.reef.io.network.group.api.operators.AllGather;
+import org.apache.reef.io.network.group.api.task.CommGroupNetworkHandler;
+import org.apache.reef.io.network.group.api.task.CommunicationGroupServiceClient;
+import org.apache.reef.io.network.group.impl.GroupCommunicationMessage;
+import org.apache.reef.io.network.group.impl.config.CollectiveAlgorithm;
+import org.apache.reef.io.network.group.impl.config.parameters.*;
+import org.apache.reef.io.network.impl.NetworkService;
+import org.apache.reef.io.network.proto.ReefNetworkGroupCommProtos;
+import org.apache.reef.io.serialization.Codec;
+import org.apache.reef.tang.annotations.Parameter;
+import org.apache.reef.wake.Identifier;
+
+import javax.inject.Inject;
+import java.nio.charset.StandardCharsets;
+import java.util.*;
+import java.util.logging.Logger;
+
+/**
+ * AllGather that gathers small elements up the operator topology and broadcasts them,
+ * and exchanges large elements between the tasks on a ring or by recursive doubling.
+ * <p>
+ * On the ring, every task passes the element it received last to its successor, in p - 1 steps.
+ * Recursive doubling takes log p steps, in each of which a task exchanges all the elements it has
+ * with a partner at twice the distance of the previous step. It needs a power-of-two number of tasks
+ * and falls back to the ring otherwise.
+ */
+public final class AllGatherer<T> extends CollectiveOperator implements AllGather<T> {
+
+  private static final Logger LOG = Logger.getLogger(AllGatherer.class.getName());
+
+  private final Codec<T> dataCodec;
+
+  @Inject
+  public AllGatherer(@Parameter(CommunicationGroupName.class) final String groupName,
+                     @Parameter(OperatorName.class) final String operName,
+                     @Parameter(TaskConfigurationOptions.Identifier.class) final String selfId,
+                     @Parameter(RootTaskId.class) final String rootId,
+                     @Parameter(DataCodec.class) final Codec<T> dataCodec,
+                     @Parameter(DriverIdentifierGroupComm.class) final String driverId,
+                     @Parameter(TaskVersion.class) final int version,
+                     @Parameter(CollectiveAlgorithmName.class) final String algorithm,
+                     @Parameter(TreeAlgorithmThreshold.class) final int treeThreshold,
+                     final CommGroupNetworkHandler commGroupNetworkHandler,
+                     final NetworkService<GroupCommunicationMessage> netService,
+                     final CommunicationGroupServiceClient commGroupClient) {
+    this(groupName, operName, selfId, rootId, dataCodec, driverId, version, algorithm, treeThreshold,
+        commGroupNetworkHandler, new Sender(netService), commGroupClient);
+  }
+
+  /**
+   * Constructor for tests, which send messages with {@code sender}.
+   */
+  AllGatherer(final String groupName,
+              final String operName,
+              final String selfId,
+              final String rootId,
+              final Codec<T> dataCodec,
+              final String driverId,
+              final int version,
+              final String algorithm,
+              final int treeThreshold,
+              final CommGroupNetworkHandler commGroupNetworkHandler,
+              final Sender sender,
+              final CommunicationGroupServiceClient commGroupClient) {
+    super(groupName, operName, selfId, rootId, driverId, version, algorithm, treeThreshold,
+        ReefNetworkGroupCommProtos.GroupCommMessage.Type.Gather,
+        ReefNetworkGroupCommProtos.GroupCommMessage.Type.AllGather,
+        commGroupNetworkHandler, sender, commGroupClient);
+    this.dataCodec = dataCodec;
+  }
+
+  @Override
+  public List<T> apply(final T element) throws NetworkException, InterruptedException {
+    return apply(element, null);
+  }
+
+  /**
+   * @param order the order of the tasks in the returned list; the same on every task.
+   *              null for the order of the task ids.
+   */
+  @Override
+  public List<T> apply(final T element, final List<? extends Identifier> order)
+      throws NetworkException, InterruptedException {
+    LOG.entering("AllGatherer", "apply", this);
+
+    final byte[] data = dataCodec.encode(element);
+    // The tree payload holds the id of each task followed by its element
+    final Plan plan = agree(encodeBlocks(Arrays.asList(getSelfId().getBytes(StandardCharsets.UTF_8), data)));
+    final List<T> retVal;
+    if (plan == null) {
+      retVal = null;
+    } else {
+      final List<String> members = getMembers(plan, order);
+      final byte[][] blocks;
+      if (plan.getAlgorithm() == CollectiveAlgorithm.TREE) {
+        blocks = fromTreeResult(members, plan.getResult());
+      } else if (plan.getAlgorithm() == CollectiveAlgorithm.RECURSIVE && Integer.bitCount(members.size()) == 1) {
+        blocks = recursiveDoubling(plan, members, data);
+      } else {
+        blocks = ring(plan, members, data);
+      }
+      retVal = new ArrayList<>(blocks.length);
+      for (final byte[] block : blocks) {
+        retVal.add(dataCodec.decode(block));
+      }
+    }
+
+    LOG.exiting("AllGatherer", "apply", this);
+    return retVal;
+  }
+
+  @Override
+  protected byte[] mergePayloads(final byte[] first, final byte[] second) {
+    final List<byte[]> blocks = decodeBlocks(first);
+    blocks.addAll(decodeBlocks(second));
+    return encodeBlocks(blocks);
+  }
+
+  private static byte[][] fromTreeResult(final List<String> members, final byte[] result) {
+    final List<byte[]> records = decodeBlocks(result);
+    final Map<String, byte[]> elements = new HashMap<>();
+    for (int i = 0; i < records.size(); i += 2) {
+      elements.put(new String(records.get(i), StandardCharsets.UTF_8), records.get(i + 1));
+    }
+    final byte[][] blocks = new byte[members.size()][];
+    for (int i = 0; i < blocks.length; ++i) {
+      blocks[i] = elements.get(members.get(i));
+    }
+    return blocks;
+  }
+
+  private byte[][] ring(final Plan plan, final List<String> members, final byte[] data) {
+    final int numTasks = members.size();
+    final int rank = members.indexOf(getSelfId());
+    final String successor = members.get((rank + 1) % numTasks);
+    final String predecessor = members.get((rank + numTasks - 1) % numTasks);
+
+    final byte[][] blocks = new byte[numTasks][];
+    blocks[rank] = data;
+    for (int step = 0; step < numTasks - 1; ++step) {
+      send(plan, successor, blocks[(rank + numTasks - step) % numTasks]);
+      blocks[(rank + numTasks - step - 1) % numTasks] = receive(predecessor);
+    }
+    return blocks;
+  }
+
+  private byte[][] recursiveDoubling(final Plan plan, final List<String> members, final byte[] data) {
+    final int numTasks = members.size();
+    final int rank = members.indexOf(getSelfId());
+
+    final byte[][] blocks = new byte[numTasks][];
+    blocks[rank] = data;
+    for (int mask = 1; mask < numTasks; mask <<= 1) {
+      final int partnerRank = rank ^ mask;
+      // Both hold the elements of a run of mask tasks, aligned to mask
+      final int start = rank & ~(mask - 1);
+      final int partnerStart = partnerRank & ~(mask - 1);
+      send(plan, members.get(partnerRank), encodeBlocks(Arrays.asList(blocks).subList(start, start + mask)));
+      final List<byte[]> received = decodeBlocks(receive(members.get(partnerRank)));
+      for (int i = 0; i < mask; ++i) {
+        blocks[partnerStart + i] = received.get(i);
+      }
+    }
+    return blocks;
+  }
+}
@@ -0,0 +1,183 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.reef.io.network.group.impl.operators;
+
+import org.apache.reef.driver.task.TaskConfigurationOptions;
+import org.apache.reef.exception.evaluator.NetworkException;
+import org.apache.reef.io.network.group.api.operators.AllReduce;
+import org.apache.reef.io.network.group.api.operators.Reduce.ReduceFunction;
+import org.apache.reef.io.network.group.api.task.CommGroupNetworkHandler;
+import org.apache.reef.io.network.group.api.task.CommunicationGroupServiceClient;
+import org.apache.reef.io.network.group.impl.GroupCommunicationMessage;
+import org.apache.reef.io.network.group.impl.config.CollectiveAlgorithm;
+import org.apache.reef.io.network.group.impl.config.parameters.*;
+import org.apache.reef.io.network.impl.NetworkService;
+import org.apache.reef.io.network.proto.ReefNetworkGroupCommProtos;
+import org.apache.reef.io.serialization.Codec;
+import org.apache.reef.tang.annotations.Parameter;
+import org.apache.reef.wake.Identifier;
+
+import javax.inject.Inject;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.logging.Logger;
+
+/**
+ * AllReduce that reduces small elements up the operator topology and broadcasts the result,
+ * and reduces large elements by recursive doubling between the tasks.
+ * <p>
+ * Recursive doubling takes log p steps. In each step, every task exchanges its partial result with a partner
+ * at twice the distance of the previous step. If the number of tasks p is not a power of two,
+ * the surplus tasks first hand their element to a neighbor and get the result back at the end.
+ */
+public final class AllReducer<T> extends CollectiveOperator implements AllReduce<T> {
+
+  private static final Logger LOG = Logger.getLogger(AllReducer.class.getName());
+
+  private final Codec<T> dataCodec;
+  private final ReduceFunction<T> reduceFunction;
+
+  @Inject
+  public AllReducer(@Parameter(CommunicationGroupName.class) final String groupName,
+                    @Parameter(OperatorName.class) final String operName,
+                    @Parameter(TaskConfigurationOptions.Identifier.class) final String selfId,
+                    @Parameter(RootTaskId.class) final String rootId,
+                    @Parameter(DataCodec.class) final Codec<T> dataCodec,
+                    @Parameter(ReduceFunctionParam.class) final ReduceFunction<T> reduceFunction,
+                    @Parameter(DriverIdentifierGroupComm.class) final String driverId,
+                    @Parameter(TaskVersion.class) final int version,
+                    @Parameter(CollectiveAlgorithmName.class) final String algorithm,
+                    @Parameter(TreeAlgorithmThreshold.class) final int treeThreshold,
+                    final CommGroupNetworkHandler commGroupNetworkHandler,
+                    final NetworkService<GroupCommunicationMessage> netService,
+                    final CommunicationGroupServiceClient commGroupClient) {
+    this(groupName, operName, selfId, rootId, dataCodec, reduceFunction, driverId, version, algorithm,
+        treeThreshold, commGroupNetworkHandler, new Sender(netService), commGroupClient);
+  }
+
+  /**
+   * Constructor for tests, which send messages with {@code sender}.
+   */
+  AllReducer(final String groupName,
+             final String operName,
+             final String selfId,
+             final String rootId,
+             final Codec<T> dataCodec,
+             final ReduceFunction<T> reduceFunction,
+             final String driverId,
+             final int version,
+             final String algorithm,
+             final int treeThreshold,
+             final CommGroupNetworkHandler commGroupNetworkHandler,
+             final Sender sender,
+             final CommunicationGroupServiceClient commGroupClient) {
+    super(groupName, operName, selfId, rootId, driverId, version, algorithm, treeThreshold,
+        ReefNetworkGroupCommProtos.GroupCommMessage.Type.Reduce,
+        ReefNetworkGroupCommProtos.GroupCommMessage.Type.AllReduce,
+        commGroupNetworkHandler, sender, commGroupClient);
+    this.dataCodec = dataCodec;
+    this.reduceFunction = reduceFunction;
+  }
+
+  @Override
+  public T apply(final T element) throws InterruptedException, NetworkException {
+    return apply(element, null);
+  }
+
+  /**
+   * @param order the order in which the elements of the tasks are reduced; the same on every task.
+   *              null for the order of the task ids. The tree algorithm reduces the elements
+   *              in the order in which they arrive, so a call with an order always runs recursive doubling.
+   */
+  @Override
+  public T apply(final T element, final List<? extends Identifier> order)
+      throws InterruptedException, NetworkException {
+    LOG.entering("AllReducer", "apply", this);
+
+    final Plan plan = agree(dataCodec.encode(element), order == null);
+    final T retVal;
+    if (plan == null) {
+      retVal = null;
+    } else {
+      final List<String> members = getMembers(plan, order);
+      if (plan.getAlgorithm() == CollectiveAlgorithm.TREE) {
+        retVal = dataCodec.decode(plan.getResult());
+      } else {
+        retVal = recursiveDoubling(plan, members, element);
+      }
+    }
+
+    LOG.exiting("AllReducer", "apply", this);
+    return retVal;
+  }
+
+  @Override
+  public ReduceFunction<T> getReduceFunction() {
+    return reduceFunction;
+  }
+
+  @Override
+  protected byte[] mergePayloads(final byte[] first, final byte[] second) {
+    return dataCodec.encode(reduce(dataCodec.decode(first), dataCodec.decode(second)));
+  }
+
+  private T recursiveDoubling(final Plan plan, final List<String> members, final T element) {
+    final int numTasks = members.size();
+    final int rank = members.indexOf(getSelfId());
+    final int numParticipants = Integer.highestOneBit(numTasks);
+    final int numSurplus = numTasks - numParticipants;
+
+    T value = element;
+    final int participantRank;
+    if (rank < 2 * numSurplus) {
+      if (rank % 2 == 0) {
+        // Let the next task reduce for both of us
+        final String neighbor = members.get(rank + 1);
+        send(plan, neighbor, dataCodec.encode(value));
+        return dataCodec.decode(receive(neighbor));
+      }
+      value = reduce(dataCodec.decode(receive(members.get(rank - 1))), value);
+      participantRank = rank / 2;
+    } else {
+      participantRank = rank - numSurplus;
+    }
+
+    for (int mask = 1; mask < numParticipants; mask <<= 1) {
+      final int partnerParticipantRank = participantRank ^ mask;
+      final int partnerRank = partnerParticipantRank < numSurplus
+          ? 2 * partnerParticipantRank + 1 : partnerParticipantRank + numSurplus;
+      final String partner = members.get(partnerRank);
+      send(plan, partner, dataCodec.encode(value));
+      final T partnerValue = dataCodec.decode(receive(partner));
+      value = partnerRank < rank ? reduce(partnerValue, value) : reduce(value, partnerValue);
+    }
+
+    if (rank < 2 * numSurplus) {
+      send(plan, members.get(rank - 1), dataCodec.encode(value));
+    }
+    return value;
+  }
+
+  private T reduce(final T first, final T second) {
+    final List<T> vals = new ArrayList<>(2);
+    vals.add(first);
+    vals.add(second);
+    return reduceFunction.apply(vals);
+  }
+}
@@ -0,0 +1,456 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.reef.io.network.group.impl.operators;
+
+import org.apache.reef.io.network.exception.ParentDeadException;
+import org.apache.reef.io.network.group.api.operators.GroupCommOperator;
+import org.apache.reef.io.network.group.api.operators.Reduce.ReduceFunction;
+import org.apache.reef.io.network.group.api.task.CommGroupNetworkHandler;
+import org.apache.reef.io.network.group.api.task.CommunicationGroupServiceClient;
+import org.apache.reef.io.network.group.api.task.OperatorTopology;
+import org.apache.reef.io.network.group.impl.GroupCommunicationMessage;
+import org.apache.reef.io.network.group.impl.config.CollectiveAlgorithm;
+import org.apache.reef.io.network.group.impl.task.OperatorTopologyImpl;
+import org.apache.reef.io.network.group.impl.utils.Utils;
+import org.apache.reef.io.network.proto.ReefNetworkGroupCommProtos;
+import org.apache.reef.io.serialization.Codec;
+import org.apache.reef.tang.annotations.Name;
+import org.apache.reef.wake.EventHandler;
+import org.apache.reef.wake.Identifier;
+
+import java.io.*;
+import java.util.*;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.logging.Logger;
+
+/**
+ * Base of the operators that run the same code on every task: AllReduce, AllGather and ReduceScatter.
+ * <p>
+ * Every call starts with a pass up the operator topology that collects the members of the group,
+ * the size of the largest payload and, if no payload is larger than the tree threshold,
+ * the payloads combined by the operator. The root then broadcasts a {@link Plan} down the topology:
+ * either the final result of the tree algorithm, or the members between which the configured algorithm
+ * exchanges the payloads directly through the {@link PeerExchange}.
+ * <p>
+ * The tree algorithm copes with failures like the other operators. The peer algorithms
+ * expect the members of the plan to stay alive until the call is over.
+ */
+abstract class CollectiveOperator implements GroupCommOperator, EventHandler<GroupCommunicationMessage> {
+
+  private static final Logger LOG = Logger.getLogger(CollectiveOperator.class.getName());
+
+  private final Class<? extends Name<String>> groupName;
+  private final Class<? extends Name<String>> operName;
+  private final String selfId;
+  private final int version;
+  private final boolean isRoot;
+  private final CollectiveAlgorithm algorithm;
+  private final int treeThreshold;
+  private final ReefNetworkGroupCommProtos.GroupCommMessage.Type treeMsgType;
+
+  private final OperatorTopology topology;
+  private final PeerExchange peers;
+  private final CommunicationGroupServiceClient commGroupClient;
+  private final AtomicBoolean init = new AtomicBoolean(false);
+
+  private final Codec<Summary> summaryCodec = new SummaryCodec();
+  private final ReduceFunction<Summary> summaryMerger = new ReduceFunction<Summary>() {
+    @Override
+    public Summary apply(final Iterable<Summary> elements) {
+      Summary retVal = null;
+      for (final Summary summary : elements) {
+        retVal = retVal == null ? summary : merge(retVal, summary);
+      }
+      return retVal;
+    }
+  };
+
+  /**
+   * @param treeMsgType type of the messages up the operator topology
+   * @param peerMsgType type of the messages between peers
+   */
+  CollectiveOperator(final String groupName,
+                     final String operName,
+                     final String selfId,
+                     final String rootId,
+                     final String driverId,
+                     final int version,
+                     final String algorithmName,
+                     final int treeThreshold,
+                     final ReefNetworkGroupCommProtos.GroupCommMessage.Type treeMsgType,
+                     final ReefNetworkGroupCommProtos.GroupCommMessage.Type peerMsgType,
+                     final CommGroupNetworkHandler commGroupNetworkHandler,
+                     final Sender sender,
+                     final CommunicationGroupServiceClient commGroupClient) {
+    this.groupName = Utils.getClass(groupName);
+    this.operName = Utils.getClass(operName);
+    this.selfId = selfId;
+    this.version = version;
+    this.isRoot = selfId.equals(rootId);
+    this.algorithm = CollectiveAlgorithm.valueOf(algorithmName);
+    this.treeThreshold = treeThreshold;
+    this.treeMsgType = treeMsgType;
+    this.topology = new OperatorTopologyImpl(this.groupName, this.operName, selfId, driverId, sender, version);
+    this.peers = new PeerExchange(this.groupName, this.operName, selfId, version, sender, peerMsgType);
+    this.commGroupClient = commGroupClient;
+    commGroupNetworkHandler.register(this.operName, this);
+  }
+
+  @Override
+  public int getVersion() {
+    return version;
+  }
+
+  @Override
+  public void initialize() throws ParentDeadException {
+    topology.initialize();
+  }
+
+  @Override
+  public Class<? extends Name<String>> getOperName() {
+    return operName;
+  }
+
+  @Override
+  public Class<? extends Name<String>> getGroupName() {
+    return groupName;
+  }
+
+  @Override
+  public String toString() {
+    return getClass().getSimpleName() + ":" + Utils.simpleName(groupName) + ":" + Utils.simpleName(operName) + ":"
+        + version;
+  }
+
+  @Override
+  public void onNext(final GroupCommunicationMessage msg) {
+    if (peers.accepts(msg)) {
+      peers.onNext(msg);
+    } else {
+      topology.handle(msg);
+    }
+  }
+
+  /**
+   * Combine the tree payloads of two disjoint sets of tasks.
+   *
+   * @return the combined payload
+   */
+  protected abstract byte[] mergePayloads(byte[] first, byte[] second);
+
+  /**
+   * @return the algorithm configured for large payloads
+   */
+  protected CollectiveAlgorithm getAlgorithm() {
+    return algorithm;
+  }
+
+  protected String getSelfId() {
+    return selfId;
+  }
+
+  /**
+   * Agree with the other tasks on how to run this call.
+   *
+   * @param payload the payload of this task for the tree algorithm
+   * @return the plan of the root, or null if an ancestor is dead
+   */
+  protected Plan agree(final byte[] payload) {
+    return agree(payload, true);
+  }
+
+  /**
+   * Agree with the other tasks on how to run this call.
+   * If a task does not allow the tree algorithm, the call runs the configured algorithm,
+   * or {@link CollectiveAlgorithm#RECURSIVE} if the configured one is the tree.
+   *
+   * @param payload the payload of this task for the tree algorithm
+   * @param treeAllowed false if the call must not run the tree algorithm, whatever the size of the payloads
+   * @return the plan of the root, or null if an ancestor is dead
+   */
+  protected Plan agree(final byte[] payload, final boolean treeAllowed) {
+    LOG.entering("CollectiveOperator", "agree", new Object[]{this, payload.length, treeAllowed});
+
+    if (init.compareAndSet(false, true)) {
+      commGroupClient.initialize();
+    }
+
+    final boolean useTree =
+        treeAllowed && (algorithm == CollectiveAlgorithm.TREE || payload.length <= treeThreshold);
+    final Summary own = new Summary(selfId, version, payload.length, useTree ? payload : null);
+    final Plan retVal;
+    try {
+      final Summary fromChildren = topology.recvFromChildren(summaryMerger, summaryCodec);
+      final Summary merged = fromChildren == null ? own : merge(own, fromChildren);
+
+      if (isRoot) {
+        retVal = merged.payload == null
+            ? new Plan(algorithm == CollectiveAlgorithm.TREE ? CollectiveAlgorithm.RECURSIVE : algorithm,
+                merged.members, null)
+            : new Plan(CollectiveAlgorithm.TREE, merged.members, merged.payload);
+        LOG.finest(this + " Largest payload " + merged.maxSize + " bytes. Sending plan to children: " + retVal);
+        topology.sendToChildren(retVal.encode(), ReefNetworkGroupCommProtos.GroupCommMessage.Type.Broadcast);
+      } else {
+        topology.sendToParent(summaryCodec.encode(merged), treeMsgType);
+        final byte[] plan =
+            topology.recvFromParentAndForwardToChildren(ReefNetworkGroupCommProtos.GroupCommMessage.Type.Broadcast);
+        if (plan == null) {
+          LOG.fine(this + " Received null. Perhaps one of my ancestors is dead.");
+          retVal = null;
+        } else {
+          retVal = Plan.decode(plan);
+        }
+      }
+    } catch (final ParentDeadException e) {
+      throw new RuntimeException("ParentDeadException", e);
+    }
+
+    LOG.exiting("CollectiveOperator", "agree", retVal);
+    return retVal;
+  }
+
+  /**
+   * Order the members of a plan.
+   *
+   * @param plan the plan
+   * @param order the order requested by the user, or null for the order of the task ids
+   * @return the ids of the members in order
+   */
+  protected static List<String> getMembers(final Plan plan, final List<? extends Identifier> order) {
+    if (order == null) {
+      return plan.getMembers();
+    }
+    final List<String> retVal = new ArrayList<>(order.size());
+    for (final Identifier id : order) {
+      retVal.add(id.toString());
+    }
+    if (!new HashSet<>(retVal).equals(new HashSet<>(plan.getMembers()))) {
+      throw new IllegalArgumentException("The order " + retVal + " does not match the tasks of the operator "
+          + plan.getMembers());
+    }
+    return retVal;
+  }
+
+  protected void send(final Plan plan, final String peerId, final byte[] data) {
+    peers.send(peerId, plan.getVersion(peerId), data);
+  }
+
+  protected byte[] receive(final String peerId) {
+    return peers.receive(peerId);
+  }
+
+  private Summary merge(final Summary first, final Summary second) {
+    final SortedMap<String, Integer> members = new TreeMap<>(first.members);
+    members.putAll(second.members);
+    final byte[] payload = first.payload == null || second.payload == null
+        ? null : mergePayloads(first.payload, second.payload);
+    return new Summary(members, Math.max(first.maxSize, second.maxSize), payload);
+  }
+
+  /**
+   * Encode byte arrays into one.
+   */
+  protected static byte[] encodeBlocks(final List<byte[]> blocks) {
+    int size = 4;
+    for (final byte[] block : blocks) {
+      size += 4 + block.length;
+    }
+    final ByteArrayOutputStream bstream = new ByteArrayOutputStream(size);
+    try (DataOutputStream dstream = new DataOutputStream(bstream)) {
+      dstream.writeInt(blocks.size());
+      for (final byte[] block : blocks) {
+        dstream.writeInt(block.length);
+        dstream.write(block);
+      }
+    } catch (final IOException e) {
+      throw new RuntimeException("IOException while encoding blocks", e);
+    }
+    return bstream.toByteArray();
+  }
+
+  /**
+   * Decode byte arrays encoded by {@link #encodeBlocks(List)}.
+   */
+  protected static List<byte[]> decodeBlocks(final byte[] data) {
+    try (DataInputStream dstream = new DataInputStream(new ByteArrayInputStream(data))) {
+      final int numBlocks = dstream.readInt();
+      final List<byte[]> retVal = new ArrayList<>(numBlocks);
+      for (int i = 0; i < numBlocks; ++i) {
+        final byte[] block = new byte[dstream.readInt()];
+        dstream.readFully(block);
+        retVal.add(block);
+      }
+      return retVal;
+    } catch (final IOException e) {
+      throw new RuntimeException("IOException while decoding blocks", e);
+    }
+  }
+
+  /**
+   * What a subtree of the operator topology reports to its parent.
+   */
+  private static final class Summary {
+
+    private final SortedMap<String, Integer> members;
+    private final int maxSize;
+
+    /**
+     * Payload combined over the subtree; null if a payload in the subtree is over the threshold.
+     */
+    private final byte[] payload;
+
+    Summary(final String id, final int version, final int size, final byte[] payload) {
+      this(new TreeMap<>(Collections.singletonMap(id, version)), size, payload);
+    }
+
+    Summary(final SortedMap<String, Integer> members, final int maxSize, final byte[] payload) {
+      this.members = members;
+      this.maxSize = maxSize;
+      this.payload = payload;
+    }
+  }
+
+  private static final class SummaryCodec implements Codec<Summary> {
+
+    @Override
+    public byte[] encode(final Summary summary) {
+      final ByteArrayOutputStream bstream = new ByteArrayOutputStream();
+      try (DataOutputStream dstream = new DataOutputStream(bstream)) {
+        writeMembers(dstream, summary.members);
+        dstream.writeInt(summary.maxSize);
+        writePayload(dstream, summary.payload);
+      } catch (final IOException e) {
+        throw new RuntimeException("IOException while encoding summary", e);
+      }
+      return bstream.toByteArray();
+    }
+
+    @Override
+    public Summary decode(final byte[] data) {
+      try (DataInputStream dstream = new DataInputStream(new ByteArrayInputStream(data))) {
+        final SortedMap<String, Integer> members = readMembers(dstream);
+        final int maxSize = dstream.readInt();
+        return new Summary(members, maxSize, readPayload(dstream));
+      } catch (final IOException e) {
+        throw new RuntimeException("IOException while decoding summary", e);
+      }
+    }
+  }
+
+  /**
+   * How the tasks run a call, decided by the root.
+   */
+  static final class Plan {
+
+    private final CollectiveAlgorithm algorithm;
+    private final SortedMap<String, Integer> members;
+    private final byte[] result;
+
+    /**
+     * @param result the result of the tree algorithm; null for the other algorithms
+     */
+    Plan(final CollectiveAlgorithm algorithm, final SortedMap<String, Integer> members, final byte[] result) {
+      this.algorithm = algorithm;
+      this.members = members;
+      this.result = result;
+    }
+
+    CollectiveAlgorithm getAlgorithm() {
+      return algorithm;
+    }
+
+    /**
+     * @return ids of the tasks taking part in the call, in the order of the ids
+     */
+    List<String> getMembers() {
+      return new ArrayList<>(members.keySet());
+    }
+
+    int getVersion(final String id) {
+      return members.get(id);
+    }
+
+    byte[] getResult() {
+      return result;
+    }
+
+    byte[] encode() {
+      final ByteArrayOutputStream bstream = new ByteArrayOutputStream();
+      try (DataOutputStream dstream = new DataOutputStream(bstream)) {
+        dstream.writeUTF(algorithm.name());
+        writeMembers(dstream, members);
+        writePayload(dstream, result);
+      } catch (final IOException e) {
+        throw new RuntimeException("IOException while encoding plan", e);
+      }
+      return bstream.toByteArray();
+    }
+
+    static Plan decode(final byte[] data) {
+      try (DataInputStream dstream = new DataInputStream(new ByteArrayInputStream(data))) {
+        final CollectiveAlgorithm algorithm = CollectiveAlgorithm.valueOf(dstream.readUTF());
+        final SortedMap<String, Integer> members = readMembers(dstream);
+        return new Plan(algorithm, members, readPayload(dstream));
+      } catch (final IOException e) {
+        throw new RuntimeException("IOException while decoding plan", e);
+      }
+    }
+
+    @Override
+    public String toString() {
+      return "Plan: [algorithm=" + algorithm + "] [members=" + members.keySet() + "]";
+    }
+  }
+
+  private static void writeMembers(final DataOutputStream dstream, final SortedMap<String, Integer> members)
+      throws IOException {
+    dstream.writeInt(members.size());
+    for (final Map.Entry<String, Integer> member : members.entrySet()) {
+      dstream.writeUTF(member.getKey());
+      dstream.writeInt(member.getValue());
+    }
+  }
+
+  private static SortedMap<String, Integer> readMembers(final DataInputStream dstream) throws IOException {
+    final SortedMap<String, Integer> members = new TreeMap<>();
+    final int numMembers = dstream.readInt();
+    for (int i = 0; i < numMembers; ++i) {
+      final String id = dstream.readUTF();
+      members.put(id, dstream.readInt());
+    }
+    return members;
+  }
+
+  private static void writePayload(final DataOutputStream dstream, final byte[] payload) throws IOException {
+    dstream.writeBoolean(payload != null);
+    if (payload != null) {
+      dstream.writeInt(payload.length);
+      dstream.write(payload);
+    }
+  }
+
+  private static byte[] readPayload(final DataInputStream dstream) throws IOException {
+    if (!dstream.readBoolean()) {
+      return null;
+    }
+    final byte[] payload = new byte[dstream.readInt()];
+    dstream.readFully(payload);
+    return payload;
+  }
+}
@@ -0,0 +1,133 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.reef.io.network.group.impl.operators;
+
+import org.apache.reef.exception.evaluator.NetworkException;
+import org.apache.reef.io.network.group.impl.GroupCommunicationMessage;
+import org.apache.reef.io.network.group.impl.utils.Utils;
+import org.apache.reef.io.network.proto.ReefNetworkGroupCommProtos;
+import org.apache.reef.tang.annotations.Name;
+
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.logging.Logger;
+
+/**
+ * Direct messages between any two tasks of an operator, outside of the operator topology.
+ * Messages from each task are queued in the order they arrive until the operator asks for them.
+ */
+final class PeerExchange {
+
+  private static final Logger LOG = Logger.getLogger(PeerExchange.class.getName());
+
+  private final Class<? extends Name<String>> groupName;
+  private final Class<? extends Name<String>> operName;
+  private final String selfId;
+  private final int version;
+  private final Sender sender;
+  private final ReefNetworkGroupCommProtos.GroupCommMessage.Type msgType;
+
+  private final ConcurrentMap<String, BlockingQueue<GroupCommunicationMessage>> queues = new ConcurrentHashMap<>();
+
+  /**
+   * @param msgType the type of the messages between peers. Messages of other types go to the operator topology.
+   */
+  PeerExchange(final Class<? extends Name<String>> groupName,
+               final Class<? extends Name<String>> operName,
+               final String selfId,
+               final int version,
+               final Sender sender,
+               final ReefNetworkGroupCommProtos.GroupCommMessage.Type msgType) {
+    this.groupName = groupName;
+    this.operName = operName;
+    this.selfId = selfId;
+    this.version = version;
+    this.sender = sender;
+    this.msgType = msgType;
+  }
+
+  /**
+   * @return true if {@code msg} is a message from a peer
+   */
+  boolean accepts(final GroupCommunicationMessage msg) {
+    return msg.getType() == msgType;
+  }
+
+  /**
+   * Queue a message from a peer.
+   */
+  void onNext(final GroupCommunicationMessage msg) {
+    if (msg.getVersion() < version) {
+      LOG.warning(getQualifiedName() + "Received a ver-" + msg.getVersion() + " msg from " + msg.getSrcid()
+          + " while expecting ver-" + version + ". Discarding msg");
+      return;
+    }
+    getQueue(msg.getSrcid()).add(msg);
+  }
+
+  /**
+   * Send data to a peer.
+   *
+   * @param peerId id of the peer
+   * @param peerVersion version of the peer
+   * @param data the data
+   */
+  void send(final String peerId, final int peerVersion, final byte[] data) {
+    LOG.finest(getQualifiedName() + "Sending " + data.length + " bytes to " + peerId);
+    try {
+      sender.send(Utils.bldVersionedGCM(groupName, operName, msgType, selfId, version, peerId, peerVersion, data));
+    } catch (final NetworkException e) {
+      throw new RuntimeException("NetworkException while sending " + msgType + " data from " + selfId
+          + " to " + peerId, e);
+    }
+  }
+
+  /**
+   * Wait for the next message from a peer.
+   *
+   * @param peerId id of the peer
+   * @return data of the message
+   */
+  byte[] receive(final String peerId) {
+    LOG.finest(getQualifiedName() + "Waiting for data from " + peerId);
+    try {
+      return Utils.getData(getQueue(peerId).take());
+    } catch (final InterruptedException e) {
+      throw new RuntimeException("InterruptedException while waiting for " + msgType + " data from " + peerId, e);
+    }
+  }
+
+  private BlockingQueue<GroupCommunicationMessage> getQueue(final String peerId) {
+    BlockingQueue<GroupCommunicationMessage> queue = queues.get(peerId);
+    if (queue == null) {
+      final BlockingQueue<GroupCommunicationMessage> newQueue = new LinkedBlockingQueue<>();
+      queue = queues.putIfAbsent(peerId, newQueue);
+      if (queue == null) {
+        queue = newQueue;
+      }
+    }
+    return queue;
+  }
+
+  private String getQualifiedName() {
+    return Utils.simpleName(groupName) + ":" + Utils.simpleName(operName) + ":" + selfId + ":ver(" + version + ") - ";
+  }
+}
@@ -0,0 +1,242 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.reef.io.network.group.impl.operators;
+
+import org.apache.reef.driver.task.TaskConfigurationOptions;
+import org.apache.reef.exception.evaluator.NetworkException;
+import org.apache.reef.io.network.group.api.operators.Reduce.ReduceFunction;
+import org.apache.reef.io.network.group.api.operators.ReduceScatter;
+import org.apache.reef.io.network.group.api.task.CommGroupNetworkHandler;
+import org.apache.reef.io.network.group.api.task.CommunicationGroupServiceClient;
+import org.apache.reef.io.network.group.impl.GroupCommunicationMessage;
+import org.apache.reef.io.network.group.impl.config.CollectiveAlgorithm;
+import org.apache.reef.io.network.group.impl.config.parameters.*;
+import org.apache.reef.io.network.impl.NetworkService;
+import org.apache.reef.io.network.proto.ReefNetworkGroupCommProtos;
+import org.apache.reef.io.serialization.Codec;
+import org.apache.reef.tang.annotations.Parameter;
+import org.apache.reef.wake.Identifier;
+
+import javax.inject.Inject;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.logging.Logger;
+
+/**
+ * ReduceScatter that reduces small lists up the operator topology and broadcasts the result,
+ * and reduces large lists between the tasks on a ring or by recursive halving.
+ * <p>
+ * The lists are split into one block per task, as given by the counts. On the ring, every task
+ * adds its own block to the partial block it received last and passes it on, in p - 1 steps.
+ * Recursive halving takes log p steps, in each of which a task sends half of the blocks it is
+ * still reducing to a partner and reduces the other half. It needs a power-of-two number of tasks
+ * and falls back to the ring otherwise.
+ */
+public final class ReduceScatterer<T> extends CollectiveOperator implements ReduceScatter<T> {
+
+  private static final Logger LOG = Logger.getLogger(ReduceScatterer.class.getName());
+
+  private final Codec<T> dataCodec;
+  private final ReduceFunction<T> reduceFunction;
+
+  @Inject
+  public ReduceScatterer(@Parameter(CommunicationGroupName.class) final String groupName,
+                         @Parameter(OperatorName.class) final String operName,
+                         @Parameter(TaskConfigurationOptions.Identifier.class) final String selfId,
+                         @Parameter(RootTaskId.class) final String rootId,
+                         @Parameter(DataCodec.class) final Codec<T> dataCodec,
+                         @Parameter(ReduceFunctionParam.class) final ReduceFunction<T> reduceFunction,
+                         @Parameter(DriverIdentifierGroupComm.class) final String driverId,
+                         @Parameter(TaskVersion.class) final int version,
+                         @Parameter(CollectiveAlgorithmName.class) final String algorithm,
+                         @Parameter(TreeAlgorithmThreshold.class) final int treeThreshold,
+                         final CommGroupNetworkHandler commGroupNetworkHandler,
+                         final NetworkService<GroupCommunicationMessage> netService,
+                         final CommunicationGroupServiceClient commGroupClient) {
+    this(groupName, operName, selfId, rootId, dataCodec, reduceFunction, driverId, version, algorithm,
+        treeThreshold, commGroupNetworkHandler, new Sender(netService), commGroupClient);
+  }
+
+  /**
+   * Constructor for tests, which send messages with {@code sender}.
+   */
+  ReduceScatterer(final String groupName,
+                  final String operName,
+                  final String selfId,
+                  final String rootId,
+                  final Codec<T> dataCodec,
+                  final ReduceFunction<T> reduceFunction,
+                  final String driverId,
+                  final int version,
+                  final String algorithm,
+                  final int treeThreshold,
+                  final CommGroupNetworkHandler commGroupNetworkHandler,
+                  final Sender sender,
+                  final CommunicationGroupServiceClient commGroupClient) {
+    super(groupName, operName, selfId, rootId, driverId, version, algorithm, treeThreshold,
+        ReefNetworkGroupCommProtos.GroupCommMessage.Type.Reduce,
+        ReefNetworkGroupCommProtos.GroupCommMessage.Type.ReduceScatter,
+        commGroupNetworkHandler, sender, commGroupClient);
+    this.dataCodec = dataCodec;
+    this.reduceFunction = reduceFunction;
+  }
+
+  @Override
+  public List<T> apply(final List<T> elements, final List<Integer> counts)
+      throws InterruptedException, NetworkException {
+    return apply(elements, counts, null);
+  }
+
+  /**
+   * @param order the order of the tasks that {@code counts} refers to; the same on every task.
+   *              null for the order of the task ids.
+   */
+  @Override
+  public List<T> apply(final List<T> elements, final List<Integer> counts, final List<? extends Identifier> order)
+      throws InterruptedException, NetworkException {
+    LOG.entering("ReduceScatterer", "apply", this);
+
+    int total = 0;
+    for (final int count : counts) {
+      total += count;
+    }
+    if (total != elements.size()) {
+      throw new IllegalArgumentException("The counts add up to " + total + " but there are " + elements.size()
+          + " elements");
+    }
+
+    final Plan plan = agree(encodeList(elements));
+    final List<T> retVal;
+    if (plan == null) {
+      retVal = null;
+    } else {
+      final List<String> members = getMembers(plan, order);
+      if (counts.size() != members.size()) {
+        throw new IllegalArgumentException("Got " + counts.size() + " counts for " + members.size() + " tasks");
+      }
+      final int rank = members.indexOf(getSelfId());
+      if (plan.getAlgorithm() == CollectiveAlgorithm.TREE) {
+        retVal = split(decodeList(plan.getResult()), counts).get(rank);
+      } else if (plan.getAlgorithm() == CollectiveAlgorithm.RECURSIVE && Integer.bitCount(members.size()) == 1) {
+        retVal = recursiveHalving(plan, members, split(elements, counts));
+      } else {
+        retVal = ring(plan, members, split(elements, counts));
+      }
+    }
+
+    LOG.exiting("ReduceScatterer", "apply", this);
+    return retVal;
+  }
+
+  @Override
+  public ReduceFunction<T> getReduceFunction() {
+    return reduceFunction;
+  }
+
+  @Override
+  protected byte[] mergePayloads(final byte[] first, final byte[] second) {
+    return encodeList(reduce(decodeList(first), decodeList(second)));
+  }
+
+  private List<T> ring(final Plan plan, final List<String> members, final List<List<T>> blocks) {
+    final int numTasks = members.size();
+    final int rank = members.indexOf(getSelfId());
+    final String successor = members.get((rank + 1) % numTasks);
+    final String predecessor = members.get((rank + numTasks - 1) % numTasks);
+
+    // Every task ends up with the block of its own rank
+    for (int step = 0; step < numTasks - 1; ++step) {
+      send(plan, successor, encodeList(blocks.get((2 * numTasks + rank - step - 1) % numTasks)));
+      final int index = (2 * numTasks + rank - step - 2) % numTasks;
+      blocks.set(index, reduce(decodeList(receive(predecessor)), blocks.get(index)));
+    }
+    return blocks.get(rank);
+  }
+
+  private List<T> recursiveHalving(final Plan plan, final List<String> members, final List<List<T>> blocks) {
+    final int rank = members.indexOf(getSelfId());
+
+    // This task is reducing the blocks [start, start + 2 * mask), which contain its own
+    int start = 0;
+    for (int mask = members.size() / 2; mask >= 1; mask >>= 1) {
+      final int partnerRank = rank ^ mask;
+      final boolean keepLower = (rank & mask) == 0;
+      final int sendStart = keepLower ? start + mask : start;
+      final int keepStart = keepLower ? start : start + mask;
+
+      final List<byte[]> toSend = new ArrayList<>(mask);
+      for (int i = 0; i < mask; ++i) {
+        toSend.add(encodeList(blocks.get(sendStart + i)));
+      }
+      send(plan, members.get(partnerRank), encodeBlocks(toSend));
+
+      final List<byte[]> received = decodeBlocks(receive(members.get(partnerRank)));
+      for (int i = 0; i < mask; ++i) {
+        final List<T> partnerBlock = decodeList(received.get(i));
+        final List<T> ownBlock = blocks.get(keepStart + i);
+        blocks.set(keepStart + i, partnerRank < rank ? reduce(partnerBlock, ownBlock) : reduce(ownBlock, partnerBlock));
+      }
+      start = keepStart;
+    }
+    return blocks.get(rank);
+  }
+
+  private static <T> List<List<T>> split(final List<T> elements, final List<Integer> counts) {
+    final List<List<T>> blocks = new ArrayList<>(counts.size());
+    int offset = 0;
+    for (final int count : counts) {
+      blocks.add(elements.subList(offset, offset + count));
+      offset += count;
+    }
+    return blocks;
+  }
+
+  private List<T> reduce(final List<T> first, final List<T> second) {
+    if (first.size() != second.size()) {
+      throw new IllegalArgumentException("Cannot reduce lists of " + first.size() + " and " + second.size()
+          + " elements");
+    }
+    final List<T> retVal = new ArrayList<>(first.size());
+    final List<T> vals = new ArrayList<>(2);
+    for (int i = 0; i < first.size(); ++i) {
+      vals.clear();
+      vals.add(first.get(i));
+      vals.add(second.get(i));
+      retVal.add(reduceFunction.apply(vals));
+    }
+    return retVal;
+  }
+
+  private byte[] encodeList(final List<T> elements) {
+    final List<byte[]> blocks = new ArrayList<>(elements.size());
+    for (final T element : elements) {
+      blocks.add(dataCodec.encode(element));
+    }
+    return encodeBlocks(blocks);
+  }
+
+  private List<T> decodeList(final byte[] data) {
+    final List<byte[]> blocks = decodeBlocks(data);
+    final List<T> retVal = new ArrayList<>(blocks.size());
+    for (final byte[] block : blocks) {
+      retVal.add(dataCodec.decode(block));
+    }
+    return retVal;
+  }
+}
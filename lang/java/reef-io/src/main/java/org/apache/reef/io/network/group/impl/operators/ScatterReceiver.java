@@ -64,6 +64,8 @@ public final class ScatterReceiver<T> implements Scatter.Receiver<T>, EventHandl
                          @Parameter(DataCodec.class) final Codec<T> dataCodec,
                          @Parameter(DriverIdentifierGroupComm.class) final String driverId,
                          @Parameter(TaskVersion.class) final int version,
+                         @Parameter(StreamingSegmentSize.class) final int segmentSize,
+                         @Parameter(StreamingWindow.class) final int window,
                          final CommGroupNetworkHandler commGroupNetworkHandler,
                          final NetworkService<GroupCommunicationMessage> netService,
                          final CommunicationGroupServiceClient commGroupClient,
@@ -75,7 +77,8 @@ public final class ScatterReceiver<T> implements Scatter.Receiver<T>, EventHandl
     this.dataCodec = dataCodec;
     this.scatterDecoder = scatterDecoder;
     this.topology = new OperatorTopologyImpl(this.groupName, this.operName,
-                                             selfId, driverId, new Sender(netService), version);
+                                             selfId, driverId, new Sender(netService), version,
+        segmentSize, window);
     this.commGroupClient = commGroupClient;
     commGroupNetworkHandler.register(this.operName, this);
   }
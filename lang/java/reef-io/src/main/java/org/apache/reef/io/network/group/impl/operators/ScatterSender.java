@@ -66,6 +66,8 @@ public final class ScatterSender<T> implements Scatter.Sender<T>, EventHandler<G
                        @Parameter(DataCodec.class) final Codec<T> dataCodec,
                        @Parameter(DriverIdentifierGroupComm.class) final String driverId,
                        @Parameter(TaskVersion.class) final int version,
+                       @Parameter(StreamingSegmentSize.class) final int segmentSize,
+                       @Parameter(StreamingWindow.class) final int window,
                        final CommGroupNetworkHandler commGroupNetworkHandler,
                        final NetworkService<GroupCommunicationMessage> netService,
                        final CommunicationGroupServiceClient commGroupClient,
@@ -77,7 +79,8 @@ public final class ScatterSender<T> implements Scatter.Sender<T>, EventHandler<G
     this.dataCodec = dataCodec;
     this.scatterEncoder = scatterEncoder;
     this.topology = new OperatorTopologyImpl(this.groupName, this.operName,
-                                             selfId, driverId, new Sender(netService), version);
+                                             selfId, driverId, new Sender(netService), version,
+        segmentSize, window);
     this.commGroupClient = commGroupClient;
     commGroupNetworkHandler.register(this.operName, this);
   }
@@ -27,6 +27,10 @@ import org.apache.reef.io.network.util.StringIdentifierFactory;
 import org.apache.reef.wake.Identifier;
 import org.apache.reef.wake.IdentifierFactory;
 
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.logging.Level;
 import java.util.logging.Logger;
 
 public class Sender extends AbstractGroupCommOperator {
@@ -55,4 +59,24 @@ public class Sender extends AbstractGroupCommOperator {
     link.write(msg);
     LOG.exiting("Sender", "send", msg);
   }
+
+  /**
+   * Resolve the addresses of the destinations with one name lookup, ahead of the sends to them.
+   * A failure is only logged, as every send still looks up its destination.
+   *
+   * @param dests the ids of the destinations
+   */
+  public void resolve(final Collection<String> dests) {
+    LOG.entering("Sender", "resolve", dests);
+    final List<Identifier> destIds = new ArrayList<>(dests.size());
+    for (final String dest : dests) {
+      destIds.add(idFac.getNewInstance(dest));
+    }
+    try {
+      netService.resolve(destIds);
+    } catch (final Exception e) {
+      LOG.log(Level.WARNING, "Could not resolve " + dests + " ahead of the sends", e);
+    }
+    LOG.exiting("Sender", "resolve", dests);
+  }
 }
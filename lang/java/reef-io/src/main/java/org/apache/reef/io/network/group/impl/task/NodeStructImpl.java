@@ -78,6 +78,20 @@ public abstract class NodeStructImpl implements NodeStruct {
     return retVal;
   }
 
+  @Override
+  public GroupCommunicationMessage getMessage() {
+    try {
+      return dataQue.take();
+    } catch (final InterruptedException e) {
+      throw new RuntimeException("InterruptedException while waiting for data from " + id, e);
+    }
+  }
+
+  @Override
+  public GroupCommunicationMessage pollMessage() {
+    return dataQue.poll();
+  }
+
   @Override
   public String toString() {
     return "(" + id + "," + version + ")";
@@ -98,5 +112,6 @@ public abstract class NodeStructImpl implements NodeStruct {
     return 31 * id.hashCode() + version;
   }
 
+  @Override
   public abstract boolean checkDead(GroupCommunicationMessage gcm);
 }
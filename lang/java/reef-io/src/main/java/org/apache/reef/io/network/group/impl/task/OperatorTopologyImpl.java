@@ -21,6 +21,7 @@ package org.apache.reef.io.network.group.impl.task;
 import org.apache.reef.exception.evaluator.NetworkException;
 import org.apache.reef.io.network.exception.ParentDeadException;
 import org.apache.reef.io.network.group.api.operators.Reduce;
+import org.apache.reef.io.network.group.api.task.NodeStruct;
 import org.apache.reef.io.network.group.api.task.OperatorTopology;
 import org.apache.reef.io.network.group.api.task.OperatorTopologyStruct;
 import org.apache.reef.io.network.group.impl.GroupCommunicationMessage;
@@ -34,8 +35,10 @@ import org.apache.reef.wake.EStage;
 import org.apache.reef.wake.EventHandler;
 import org.apache.reef.wake.impl.SingleThreadStage;
 
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.HashSet;
+import java.util.List;
 import java.util.Map;
 import java.util.Set;
 import java.util.concurrent.BlockingQueue;
@@ -55,6 +58,9 @@ public class OperatorTopologyImpl implements OperatorTopology {
   private final Object topologyLock = new Object();
 
   private final int version;
+  private final int segmentSize;
+  private final int window;
+  private final boolean parallelReduce;
 
   private final BlockingQueue<GroupCommunicationMessage> deltas = new LinkedBlockingQueue<>();
   private final BlockingQueue<GroupCommunicationMessage> deletionDeltas = new LinkedBlockingQueue<>();
@@ -81,6 +87,31 @@ public class OperatorTopologyImpl implements OperatorTopology {
   public OperatorTopologyImpl(final Class<? extends Name<String>> groupName,
                               final Class<? extends Name<String>> operName, final String selfId,
                               final String driverId, final Sender sender, final int version) {
+    this(groupName, operName, selfId, driverId, sender, version, 0, 4);
+  }
+
+  /**
+   * @param segmentSize size of the segments that large messages to children are split into;
+   *                    0 to send large messages whole
+   * @param window      number of segments that can be in flight to one child
+   */
+  public OperatorTopologyImpl(final Class<? extends Name<String>> groupName,
+                              final Class<? extends Name<String>> operName, final String selfId,
+                              final String driverId, final Sender sender, final int version,
+                              final int segmentSize, final int window) {
+    this(groupName, operName, selfId, driverId, sender, version, segmentSize, window, false);
+  }
+
+  /**
+   * @param segmentSize    size of the segments that large messages to children are split into;
+   *                       0 to send large messages whole
+   * @param window         number of segments that can be in flight to one child
+   * @param parallelReduce whether values received from several children are decoded and reduced in parallel
+   */
+  public OperatorTopologyImpl(final Class<? extends Name<String>> groupName,
+                              final Class<? extends Name<String>> operName, final String selfId,
+                              final String driverId, final Sender sender, final int version,
+                              final int segmentSize, final int window, final boolean parallelReduce) {
     super();
     this.groupName = groupName;
     this.operName = operName;
@@ -88,6 +119,9 @@ public class OperatorTopologyImpl implements OperatorTopology {
     this.driverId = driverId;
     this.sender = sender;
     this.version = version;
+    this.segmentSize = segmentSize;
+    this.window = window;
+    this.parallelReduce = parallelReduce;
   }
 
   /**
@@ -236,6 +270,18 @@ public class OperatorTopologyImpl implements OperatorTopology {
     return retVal;
   }
 
+  @Override
+  public byte[] recvFromParentAndForwardToChildren(final ReefNetworkGroupCommProtos.GroupCommMessage.Type msgType)
+      throws ParentDeadException {
+    LOG.entering("OperatorTopologyImpl", "recvFromParentAndForwardToChildren",
+        new Object[] {getQualifiedName(), msgType});
+    refreshEffectiveTopology();
+    assert effectiveTopology != null;
+    final byte[] retVal = effectiveTopology.recvFromParentAndForwardToChildren(msgType);
+    LOG.exiting("OperatorTopologyImpl", "recvFromParentAndForwardToChildren", getQualifiedName());
+    return retVal;
+  }
+
   @Override
   public <T> T recvFromChildren(final Reduce.ReduceFunction<T> redFunc, final Codec<T> dataCodec)
       throws ParentDeadException {
@@ -286,7 +332,8 @@ public class OperatorTopologyImpl implements OperatorTopology {
    */
   private void createBaseTopology() throws ParentDeadException {
     LOG.entering("OperatorTopologyImpl", "createBaseTopology", getQualifiedName());
-    baseTopology = new OperatorTopologyStructImpl(groupName, operName, selfId, driverId, sender, version);
+    baseTopology = new OperatorTopologyStructImpl(groupName, operName, selfId, driverId, sender, version,
+        segmentSize, window, parallelReduce);
     updateBaseTopology();
     LOG.exiting("OperatorTopologyImpl", "createBaseTopology", getQualifiedName());
   }
@@ -396,10 +443,28 @@ public class OperatorTopologyImpl implements OperatorTopology {
       //Create effectiveTopology from baseTopology
       effectiveTopology = new OperatorTopologyStructImpl(baseTopology);
       baseTopology.setChanges(false);
+      resolveNeighbors();
     }
     LOG.exiting("OperatorTopologyImpl", "updateEffTopologyFromBaseTopology", getQualifiedName());
   }
 
+  /**
+   * Look up the addresses of the parent and the children of the new effective topology at once,
+   * instead of one lookup per node when the first message is sent to it.
+   */
+  private void resolveNeighbors() {
+    final List<String> neighbors = new ArrayList<>();
+    if (effectiveTopology.getParent() != null) {
+      neighbors.add(effectiveTopology.getParent().getId());
+    }
+    for (final NodeStruct child : effectiveTopology.getChildren()) {
+      neighbors.add(child.getId());
+    }
+    if (!neighbors.isEmpty()) {
+      sender.resolve(neighbors);
+    }
+  }
+
   /**
    * @param deletionDeltasForUpdate
    * @throws ParentDeadException
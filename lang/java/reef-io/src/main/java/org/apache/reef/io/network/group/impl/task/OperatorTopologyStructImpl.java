@@ -18,7 +18,6 @@
  */
 package org.apache.reef.io.network.group.impl.task;
 
-import org.apache.commons.lang.ArrayUtils;
 import org.apache.reef.exception.evaluator.NetworkException;
 import org.apache.reef.io.network.group.api.operators.Reduce.ReduceFunction;
 import org.apache.reef.io.network.group.api.task.NodeStruct;
@@ -29,12 +28,10 @@ import org.apache.reef.io.network.group.impl.utils.Utils;
 import org.apache.reef.io.network.proto.ReefNetworkGroupCommProtos;
 import org.apache.reef.io.serialization.Codec;
 import org.apache.reef.tang.annotations.Name;
+import org.apache.reef.wake.impl.DefaultThreadFactory;
 
 import java.util.*;
-import java.util.concurrent.BlockingQueue;
-import java.util.concurrent.ConcurrentHashMap;
-import java.util.concurrent.ConcurrentMap;
-import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.*;
 import java.util.logging.Logger;
 
 /**
@@ -63,9 +60,49 @@ public class OperatorTopologyStructImpl implements OperatorTopologyStruct {
 
   private final int version;
 
+  /**
+   * Size of the segments of streamed messages; 0 if large messages are sent whole with a handshake.
+   */
+  private final int segmentSize;
+
+  /**
+   * Number of segments that can be in flight to one child.
+   */
+  private final int window;
+
+  /**
+   * Whether values received from several children are decoded and reduced in parallel.
+   */
+  private final boolean parallelReduce;
+
   public OperatorTopologyStructImpl(final Class<? extends Name<String>> groupName,
                                     final Class<? extends Name<String>> operName, final String selfId,
                                     final String driverId, final Sender sender, final int version) {
+    this(groupName, operName, selfId, driverId, sender, version, 0, 4);
+  }
+
+  /**
+   * @param segmentSize size of the segments that large messages to children are split into;
+   *                    0 to send large messages whole, one child at a time
+   * @param window      number of segments that can be in flight to one child
+   */
+  public OperatorTopologyStructImpl(final Class<? extends Name<String>> groupName,
+                                    final Class<? extends Name<String>> operName, final String selfId,
+                                    final String driverId, final Sender sender, final int version,
+                                    final int segmentSize, final int window) {
+    this(groupName, operName, selfId, driverId, sender, version, segmentSize, window, false);
+  }
+
+  /**
+   * @param segmentSize    size of the segments that large messages to children are split into;
+   *                       0 to send large messages whole, one child at a time
+   * @param window         number of segments that can be in flight to one child
+   * @param parallelReduce whether values received from several children are decoded and reduced in parallel
+   */
+  public OperatorTopologyStructImpl(final Class<? extends Name<String>> groupName,
+                                    final Class<? extends Name<String>> operName, final String selfId,
+                                    final String driverId, final Sender sender, final int version,
+                                    final int segmentSize, final int window, final boolean parallelReduce) {
     super();
     this.groupName = groupName;
     this.operName = operName;
@@ -73,6 +110,9 @@ public class OperatorTopologyStructImpl implements OperatorTopologyStruct {
     this.driverId = driverId;
     this.sender = sender;
     this.version = version;
+    this.segmentSize = segmentSize;
+    this.window = Math.max(1, window);
+    this.parallelReduce = parallelReduce;
   }
 
   public OperatorTopologyStructImpl(final OperatorTopologyStruct topology) {
@@ -86,6 +126,9 @@ public class OperatorTopologyStructImpl implements OperatorTopologyStruct {
     this.parent = topology.getParent();
     this.children.addAll(topology.getChildren());
     this.version = topology.getVersion();
+    this.segmentSize = topology.getSegmentSize();
+    this.window = topology.getStreamingWindow();
+    this.parallelReduce = topology.isParallelReduce();
   }
 
   @Override
@@ -142,6 +185,21 @@ public class OperatorTopologyStructImpl implements OperatorTopologyStruct {
     return version;
   }
 
+  @Override
+  public int getSegmentSize() {
+    return segmentSize;
+  }
+
+  @Override
+  public int getStreamingWindow() {
+    return window;
+  }
+
+  @Override
+  public boolean isParallelReduce() {
+    return parallelReduce;
+  }
+
   @Override
   public void addAsData(final GroupCommunicationMessage msg) {
     LOG.entering("OperatorTopologyStructImpl", "addAsData", new Object[]{getQualifiedName(), msg});
@@ -248,8 +306,24 @@ public class OperatorTopologyStructImpl implements OperatorTopologyStruct {
   private byte[] recvFromNodeCheckBigMsg(final NodeStruct node,
                                          final ReefNetworkGroupCommProtos.GroupCommMessage.Type msgType) {
     LOG.entering("OperatorTopologyStructImpl", "recvFromNodeCheckBigMsg", new Object[]{node, msgType});
+    final byte[] retVal = checkBigMsg(node, msgType, receiveFromNode(node, false));
+    LOG.exiting("OperatorTopologyStructImpl", "recvFromNodeCheckBigMsg");
+    return retVal;
+  }
 
-    byte[] retVal = receiveFromNode(node, false);
+  /**
+   * Complete the big message handshake if {@code firstVal}, the first message received from {@code node},
+   * is the empty message that announces a big message.
+   *
+   * @param node node the message was received from
+   * @param msgType message type
+   * @param firstVal data of the first message
+   * @return message sent from {@code node}
+   */
+  private byte[] checkBigMsg(final NodeStruct node,
+                             final ReefNetworkGroupCommProtos.GroupCommMessage.Type msgType,
+                             final byte[] firstVal) {
+    byte[] retVal = firstVal;
     if (retVal != null && retVal.length == 0) {
       LOG.finest(getQualifiedName() + " Got msg that node " + node.getId()
           + " has large data and is ready to send it. Sending ACK to receive data.");
@@ -265,8 +339,6 @@ public class OperatorTopologyStructImpl implements OperatorTopologyStruct {
             + " but received nothing.");
       }
     }
-
-    LOG.exiting("OperatorTopologyStructImpl", "recvFromNodeCheckBigMsg");
     return retVal;
   }
 
@@ -303,8 +375,17 @@ public class OperatorTopologyStructImpl implements OperatorTopologyStruct {
   @Override
   public void sendToChildren(final byte[] data, final ReefNetworkGroupCommProtos.GroupCommMessage.Type msgType) {
     LOG.entering("OperatorTopologyStructImpl", "sendToChildren", new Object[]{getQualifiedName(), msgType});
-    for (final NodeStruct child : children) {
-      sendToNode(data, msgType, child);
+    if (isStreamed(data)) {
+      final Segments segments = new Segments(data, segmentSize, children.size());
+      final List<OutgoingStream> streams = new ArrayList<>(children.size());
+      for (final NodeStruct child : children) {
+        streams.add(new OutgoingStream(child, segments));
+      }
+      finishStreams(streams, msgType);
+    } else {
+      for (final NodeStruct child : children) {
+        sendToNode(data, msgType, child);
+      }
     }
     LOG.exiting("OperatorTopologyStructImpl", "sendToChildren", getQualifiedName());
   }
@@ -313,13 +394,20 @@ public class OperatorTopologyStructImpl implements OperatorTopologyStruct {
   public void sendToChildren(final Map<String, byte[]> dataMap,
                              final ReefNetworkGroupCommProtos.GroupCommMessage.Type msgType) {
     LOG.entering("OperatorTopologyStructImpl", "sendToChildren", new Object[]{getQualifiedName(), msgType});
+    final List<OutgoingStream> streams = new ArrayList<>();
     for (final NodeStruct child : children) {
       if (dataMap.containsKey(child.getId())) {
-        sendToNode(dataMap.get(child.getId()), msgType, child);
+        final byte[] data = dataMap.get(child.getId());
+        if (isStreamed(data)) {
+          streams.add(new OutgoingStream(child, new Segments(data, segmentSize, 1)));
+        } else {
+          sendToNode(data, msgType, child);
+        }
       } else {
         throw new RuntimeException("No message specified for " + child.getId() + " in dataMap.");
       }
     }
+    finishStreams(streams, msgType);
     LOG.exiting("OperatorTopologyStructImpl", "sendToChildren", getQualifiedName());
   }
 
@@ -327,44 +415,309 @@ public class OperatorTopologyStructImpl implements OperatorTopologyStruct {
   public byte[] recvFromParent(final ReefNetworkGroupCommProtos.GroupCommMessage.Type msgType) {
     LOG.entering("OperatorTopologyStructImpl", "recvFromParent", getQualifiedName());
     LOG.finest(getQualifiedName() + "Waiting for " + parent.getId() + " to send data");
-    final byte[] retVal = recvFromNodeCheckBigMsg(parent, msgType);
+    final byte[] retVal = recvFromParent(msgType, false);
     LOG.exiting("OperatorTopologyStructImpl", "recvFromParent", getQualifiedName());
     return retVal;
   }
 
+  @Override
+  public byte[] recvFromParentAndForwardToChildren(final ReefNetworkGroupCommProtos.GroupCommMessage.Type msgType) {
+    LOG.entering("OperatorTopologyStructImpl", "recvFromParentAndForwardToChildren", getQualifiedName());
+    LOG.finest(getQualifiedName() + "Waiting for " + parent.getId() + " to send data");
+    final byte[] retVal = recvFromParent(msgType, true);
+    LOG.exiting("OperatorTopologyStructImpl", "recvFromParentAndForwardToChildren", getQualifiedName());
+    return retVal;
+  }
+
+  /**
+   * Receive a message from the parent, which may be streamed in segments.
+   *
+   * @param msgType message type
+   * @param forward if true, send the message on to all children. Segments of a streamed message
+   *                are forwarded as soon as they arrive.
+   * @return message sent from the parent, or null if the parent died
+   */
+  private byte[] recvFromParent(final ReefNetworkGroupCommProtos.GroupCommMessage.Type msgType,
+                                final boolean forward) {
+    final GroupCommunicationMessage first = parent.getMessage();
+    if (SegmentHeader.isStreaming(first)) {
+      return recvSegmentsFromParent(first, msgType, forward);
+    }
+    final byte[] retVal = checkBigMsg(parent, msgType, parent.checkDead(first) ? null : Utils.getData(first));
+    if (forward && retVal != null) {
+      sendToChildren(retVal, msgType);
+    }
+    return retVal;
+  }
+
+  /**
+   * Receive the segments of a streamed message from the parent and return a credit for each of them.
+   *
+   * @param first first segment of the message
+   * @param msgType message type
+   * @param forward whether to forward each segment to all children as soon as it arrives
+   * @return the reassembled message, or null if the parent died
+   */
+  private byte[] recvSegmentsFromParent(final GroupCommunicationMessage first,
+                                        final ReefNetworkGroupCommProtos.GroupCommMessage.Type msgType,
+                                        final boolean forward) {
+    final SegmentHeader firstHeader = SegmentHeader.of(first);
+    LOG.finest(getQualifiedName() + "Receiving streamed msg from " + parent.getId() + ": " + firstHeader);
+
+    final byte[] retVal = new byte[firstHeader.getTotalLength()];
+    final Segments relay = new Segments(firstHeader, forward ? children.size() : 0);
+    final List<OutgoingStream> streams = new ArrayList<>();
+    if (forward) {
+      for (final NodeStruct child : children) {
+        streams.add(new OutgoingStream(child, relay));
+      }
+    }
+
+    GroupCommunicationMessage msg = first;
+    int offset = 0;
+    for (int i = 0; i < firstHeader.getCount(); ++i) {
+      if (i > 0) {
+        msg = parent.getMessage();
+      }
+      nodesWithData.remove(parent);
+      if (parent.checkDead(msg)) {
+        LOG.fine(getQualifiedName() + "Parent " + parent.getId() + " died while streaming a msg");
+        return null;
+      }
+      if (!SegmentHeader.isStreaming(msg) || !SegmentHeader.of(msg).isSegment()
+          || SegmentHeader.of(msg).getIndex() != i) {
+        throw new RuntimeException(getQualifiedName() + "Expected segment " + i + " of a streamed msg from "
+            + parent.getId() + " but got " + msg);
+      }
+      final byte[] chunk = msg.getData()[1];
+      System.arraycopy(chunk, 0, retVal, offset, chunk.length);
+      offset += chunk.length;
+      sendCredit(parent, msgType);
+
+      relay.add(i, chunk);
+      pump(streams, msgType);
+      for (final OutgoingStream stream : streams) {
+        while (!stream.dead && readCredit(stream, false)) {
+          LOG.finest(getQualifiedName() + "Got credit from " + stream.node.getId());
+        }
+      }
+    }
+
+    finishStreams(streams, msgType);
+    return retVal;
+  }
+
+  /**
+   * @param data a message to children
+   * @return true if the message is sent in segments
+   */
+  private boolean isStreamed(final byte[] data) {
+    // An empty message is streamed so that it cannot be taken for the announcement of a big message
+    return segmentSize > 0 && (data.length > segmentSize || data.length == 0);
+  }
+
+  /**
+   * Send as many segments as the available segments and the credits allow on every stream.
+   */
+  private void pump(final List<OutgoingStream> streams,
+                    final ReefNetworkGroupCommProtos.GroupCommMessage.Type msgType) {
+    for (final OutgoingStream stream : streams) {
+      while (!stream.dead && stream.sent < stream.segments.available && stream.sent - stream.acked < window) {
+        sendSegment(stream, msgType);
+      }
+    }
+  }
+
+  /**
+   * Send all segments on every stream and wait until every live child has returned all credits.
+   * While waiting, blocks on the child that is furthest behind, which has segments in flight.
+   */
+  private void finishStreams(final List<OutgoingStream> streams,
+                             final ReefNetworkGroupCommProtos.GroupCommMessage.Type msgType) {
+    while (true) {
+      pump(streams, msgType);
+      OutgoingStream laggard = null;
+      for (final OutgoingStream stream : streams) {
+        if (!stream.dead && stream.acked < stream.segments.count
+            && (laggard == null || stream.acked < laggard.acked)) {
+          laggard = stream;
+        }
+      }
+      if (laggard == null) {
+        return;
+      }
+      readCredit(laggard, true);
+      for (final OutgoingStream stream : streams) {
+        while (!stream.dead && readCredit(stream, false)) {
+          LOG.finest(getQualifiedName() + "Got credit from " + stream.node.getId());
+        }
+      }
+    }
+  }
+
+  private void sendSegment(final OutgoingStream stream,
+                           final ReefNetworkGroupCommProtos.GroupCommMessage.Type msgType) {
+    final NodeStruct node = stream.node;
+    final Segments segments = stream.segments;
+    final int index = stream.sent;
+    try {
+      sender.send(Utils.bldVersionedGCM(groupName, operName, msgType, selfId, version, node.getId(),
+          node.getVersion(), SegmentHeader.segment(index, segments.count, segments.totalLength),
+          segments.get(index)));
+    } catch (final NetworkException e) {
+      throw new RuntimeException(
+          "NetworkException while sending segment " + index + " of " + msgType + " data from " + selfId
+              + " to " + node.getId(), e);
+    }
+    segments.sent(index);
+    ++stream.sent;
+  }
+
+  private void sendCredit(final NodeStruct node, final ReefNetworkGroupCommProtos.GroupCommMessage.Type msgType) {
+    try {
+      sender.send(Utils.bldVersionedGCM(groupName, operName, msgType, selfId, version, node.getId(),
+          node.getVersion(), SegmentHeader.credit(1), Utils.EMPTY_BYTE_ARR));
+    } catch (final NetworkException e) {
+      throw new RuntimeException(
+          "NetworkException while sending " + msgType + " credit from " + selfId + " to " + node.getId(), e);
+    }
+  }
+
+  /**
+   * Read one message from the child of a stream, expecting a credit or a death notice.
+   *
+   * @param stream the stream
+   * @param block whether to wait for a message
+   * @return true if a message was read
+   */
+  private boolean readCredit(final OutgoingStream stream, final boolean block) {
+    final GroupCommunicationMessage msg = block ? stream.node.getMessage() : stream.node.pollMessage();
+    if (msg == null) {
+      return false;
+    }
+    nodesWithData.remove(stream.node);
+    if (stream.node.checkDead(msg)) {
+      LOG.fine(getQualifiedName() + "Child " + stream.node.getId() + " died while streaming a msg to it");
+      stream.dead = true;
+    } else if (SegmentHeader.isStreaming(msg) && SegmentHeader.of(msg).isCredit()) {
+      stream.acked += SegmentHeader.of(msg).getIndex();
+    } else {
+      LOG.warning(getQualifiedName() + "Discarding unexpected msg from " + stream.node.getId()
+          + " while waiting for credits: " + msg);
+    }
+    return true;
+  }
+
   @Override
   public <T> T recvFromChildren(final ReduceFunction<T> redFunc, final Codec<T> dataCodec) {
     LOG.entering("OperatorTopologyStructImpl", "recvFromChildren", new Object[]{getQualifiedName(), redFunc,
         dataCodec});
-    final List<T> retLst = new ArrayList<>(2);
     for (final NodeStruct child : children) {
       childrenToRcvFrom.add(child.getId());
     }
 
+    final T retVal;
+    if (parallelReduce && childrenToRcvFrom.size() > 1) {
+      retVal = recvFromChildrenParallel(redFunc, dataCodec);
+    } else {
+      final List<T> retLst = new ArrayList<>(2);
+      while (!childrenToRcvFrom.isEmpty()) {
+        LOG.finest(getQualifiedName() + "Waiting for some child to send data");
+        final NodeStruct child = nodesWithDataTakeUnsafe();
+        final byte[] receivedVal = recvFromNodeCheckBigMsg(child,
+            ReefNetworkGroupCommProtos.GroupCommMessage.Type.Reduce);
+
+        if (receivedVal != null) {
+          retLst.add(dataCodec.decode(receivedVal));
+          if (retLst.size() == 2) {
+            final T redVal = redFunc.apply(retLst);
+            retLst.clear();
+            retLst.add(redVal);
+          }
+        }
+        childrenToRcvFrom.remove(child.getId());
+      }
+      retVal = retLst.isEmpty() ? null : retLst.get(0);
+    }
+    LOG.exiting("OperatorTopologyStructImpl", "recvFromChildren", getQualifiedName());
+    return retVal;
+  }
+
+  /**
+   * Receive data from all children, decoding and reducing the values in a pool of at most
+   * one thread per core while this thread keeps taking messages off the network.
+   * The pool belongs to this reduction and is shut down before returning.
+   * Every worker combines its value with any partial result that is waiting in a shared queue,
+   * and leaves its result there when the queue is empty, so no worker ever blocks on another.
+   * The partial results that are left when all children have sent their data are reduced here.
+   *
+   * @return the reduced value, or null if no child sent data
+   */
+  private <T> T recvFromChildrenParallel(final ReduceFunction<T> redFunc, final Codec<T> dataCodec) {
+    final Queue<T> partials = new ConcurrentLinkedQueue<>();
+    final List<Future<?>> futures = new ArrayList<>(childrenToRcvFrom.size());
+    final ExecutorService reducePool = Executors.newFixedThreadPool(
+        Math.min(childrenToRcvFrom.size(), Runtime.getRuntime().availableProcessors()),
+        new DefaultThreadFactory(Utils.simpleName(operName) + "-Reduce"));
+    try {
+      return recvFromChildrenParallel(redFunc, dataCodec, reducePool, partials, futures);
+    } finally {
+      reducePool.shutdownNow();
+    }
+  }
+
+  private <T> T recvFromChildrenParallel(final ReduceFunction<T> redFunc, final Codec<T> dataCodec,
+                                         final ExecutorService reducePool, final Queue<T> partials,
+                                         final List<Future<?>> futures) {
     while (!childrenToRcvFrom.isEmpty()) {
       LOG.finest(getQualifiedName() + "Waiting for some child to send data");
       final NodeStruct child = nodesWithDataTakeUnsafe();
-      final byte[] retVal = recvFromNodeCheckBigMsg(child,
+      final byte[] receivedVal = recvFromNodeCheckBigMsg(child,
           ReefNetworkGroupCommProtos.GroupCommMessage.Type.Reduce);
 
-      if (retVal != null) {
-        retLst.add(dataCodec.decode(retVal));
-        if (retLst.size() == 2) {
-          final T redVal = redFunc.apply(retLst);
-          retLst.clear();
-          retLst.add(redVal);
-        }
+      if (receivedVal != null) {
+        futures.add(reducePool.submit(new Runnable() {
+          @Override
+          public void run() {
+            T val = dataCodec.decode(receivedVal);
+            for (T other = partials.poll(); other != null; other = partials.poll()) {
+              val = reduce(redFunc, other, val);
+            }
+            partials.add(val);
+          }
+        }));
       }
       childrenToRcvFrom.remove(child.getId());
     }
-    final T retVal = retLst.isEmpty() ? null : retLst.get(0);
-    LOG.exiting("OperatorTopologyStructImpl", "recvFromChildren", getQualifiedName());
+
+    for (final Future<?> future : futures) {
+      try {
+        future.get();
+      } catch (final InterruptedException e) {
+        throw new RuntimeException("InterruptedException while waiting for the reduction of children data", e);
+      } catch (final ExecutionException e) {
+        throw new RuntimeException("Exception while reducing children data", e.getCause());
+      }
+    }
+
+    T retVal = partials.poll();
+    for (T other = partials.poll(); other != null; other = partials.poll()) {
+      retVal = reduce(redFunc, retVal, other);
+    }
     return retVal;
   }
 
+  private static <T> T reduce(final ReduceFunction<T> redFunc, final T first, final T second) {
+    final List<T> elements = new ArrayList<>(2);
+    elements.add(first);
+    elements.add(second);
+    return redFunc.apply(elements);
+  }
+
   /**
    * Receive data from all children as a single byte array.
-   * Messages from children are simply byte-concatenated.
+   * Messages from children are simply byte-concatenated, in the order in which they arrive.
+   * The messages are kept until all children have sent theirs and then copied once into the result.
    * This method is currently used only by the Gather operator.
    *
    * @return gathered data as a byte array
@@ -376,7 +729,8 @@ public class OperatorTopologyStructImpl implements OperatorTopologyStruct {
       childrenToRcvFrom.add(child.getId());
     }
 
-    byte[] retVal = new byte[0];
+    final List<byte[]> receivedVals = new ArrayList<>(childrenToRcvFrom.size());
+    int length = 0;
     while (!childrenToRcvFrom.isEmpty()) {
       LOG.finest(getQualifiedName() + "Waiting for some child to send data");
       final NodeStruct child = nodesWithDataTakeUnsafe();
@@ -384,11 +738,19 @@ public class OperatorTopologyStructImpl implements OperatorTopologyStruct {
           ReefNetworkGroupCommProtos.GroupCommMessage.Type.Gather);
 
       if (receivedVal != null) {
-        retVal = ArrayUtils.addAll(retVal, receivedVal);
+        receivedVals.add(receivedVal);
+        length += receivedVal.length;
       }
       childrenToRcvFrom.remove(child.getId());
     }
 
+    final byte[] retVal = new byte[length];
+    int offset = 0;
+    for (final byte[] receivedVal : receivedVals) {
+      System.arraycopy(receivedVal, 0, retVal, offset, receivedVal.length);
+      offset += receivedVal.length;
+    }
+
     LOG.exiting("OperatorTopologyStructImpl", "recvFromChildren", getQualifiedName());
     return retVal;
   }
@@ -641,4 +1003,92 @@ public class OperatorTopologyStructImpl implements OperatorTopologyStruct {
   private String getQualifiedName() {
     return Utils.simpleName(groupName) + ":" + Utils.simpleName(operName) + ":" + selfId + ":ver(" + version + ") - ";
   }
+
+  /**
+   * The segments of a streamed message, shared by the streams that send it.
+   * A segment is kept until every stream has sent it.
+   */
+  private static final class Segments {
+
+    private final byte[] data;
+    private final int segmentSize;
+    private final int count;
+    private final int totalLength;
+    private final byte[][] chunks;
+    private final int[] pendingSends;
+    private final int numStreams;
+
+    /**
+     * Number of segments that can be sent.
+     */
+    private int available;
+
+    /**
+     * Segments of a local message, cut on demand.
+     */
+    Segments(final byte[] data, final int segmentSize, final int numStreams) {
+      this.data = data;
+      this.segmentSize = segmentSize;
+      this.count = Math.max(1, (int) ((data.length + (long) segmentSize - 1) / segmentSize));
+      this.totalLength = data.length;
+      this.chunks = new byte[count][];
+      this.pendingSends = new int[count];
+      this.numStreams = numStreams;
+      this.available = count;
+    }
+
+    /**
+     * Segments of a message being received, added as they arrive.
+     */
+    Segments(final SegmentHeader header, final int numStreams) {
+      this.data = null;
+      this.segmentSize = 0;
+      this.count = header.getCount();
+      this.totalLength = header.getTotalLength();
+      this.chunks = new byte[count][];
+      this.pendingSends = new int[count];
+      this.numStreams = numStreams;
+      this.available = 0;
+    }
+
+    void add(final int index, final byte[] chunk) {
+      if (numStreams > 0) {
+        chunks[index] = chunk;
+        pendingSends[index] = numStreams;
+      }
+      ++available;
+    }
+
+    byte[] get(final int index) {
+      if (chunks[index] == null && data != null) {
+        final int from = index * segmentSize;
+        chunks[index] = Arrays.copyOfRange(data, from, Math.min(data.length, from + segmentSize));
+        pendingSends[index] = numStreams;
+      }
+      return chunks[index];
+    }
+
+    void sent(final int index) {
+      if (--pendingSends[index] <= 0) {
+        chunks[index] = null;
+      }
+    }
+  }
+
+  /**
+   * A streamed message on its way to one child.
+   */
+  private static final class OutgoingStream {
+
+    private final NodeStruct node;
+    private final Segments segments;
+    private int sent = 0;
+    private int acked = 0;
+    private boolean dead = false;
+
+    OutgoingStream(final NodeStruct node, final Segments segments) {
+      this.node = node;
+      this.segments = segments;
+    }
+  }
 }
@@ -0,0 +1,118 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.reef.io.network.group.impl.task;
+
+import org.apache.reef.io.network.group.impl.GroupCommunicationMessage;
+
+import java.nio.ByteBuffer;
+
+/**
+ * Header of the messages of the streaming large-message protocol.
+ * <p>
+ * A streamed payload is sent as a sequence of segment messages. Each message has two bodies:
+ * this header and a chunk of the payload. The receiver returns one credit message per segment,
+ * which has this header and an empty body. Plain data messages have a single body,
+ * so the two kinds of messages can be told apart by the number of bodies.
+ */
+final class SegmentHeader {
+
+  static final int SEGMENT = 1;
+  static final int CREDIT = 2;
+
+  private static final int SIZE = 4 * Integer.SIZE / Byte.SIZE;
+
+  private final int kind;
+  private final int index;
+  private final int count;
+  private final int totalLength;
+
+  private SegmentHeader(final int kind, final int index, final int count, final int totalLength) {
+    this.kind = kind;
+    this.index = index;
+    this.count = count;
+    this.totalLength = totalLength;
+  }
+
+  /**
+   * @param index       index of the segment
+   * @param count       number of segments of the payload
+   * @param totalLength length of the payload in bytes
+   * @return encoded header of a segment message
+   */
+  static byte[] segment(final int index, final int count, final int totalLength) {
+    return encode(SEGMENT, index, count, totalLength);
+  }
+
+  /**
+   * @param credits number of segments consumed by the receiver
+   * @return encoded header of a credit message
+   */
+  static byte[] credit(final int credits) {
+    return encode(CREDIT, credits, 0, 0);
+  }
+
+  private static byte[] encode(final int kind, final int index, final int count, final int totalLength) {
+    return ByteBuffer.allocate(SIZE).putInt(kind).putInt(index).putInt(count).putInt(totalLength).array();
+  }
+
+  /**
+   * @param msg a message
+   * @return true if the message belongs to the streaming protocol
+   */
+  static boolean isStreaming(final GroupCommunicationMessage msg) {
+    return msg.getMsgsCount() == 2 && msg.getData()[0].length == SIZE;
+  }
+
+  /**
+   * @param msg a message of the streaming protocol
+   * @return the decoded header of the message
+   */
+  static SegmentHeader of(final GroupCommunicationMessage msg) {
+    final ByteBuffer buf = ByteBuffer.wrap(msg.getData()[0]);
+    return new SegmentHeader(buf.getInt(), buf.getInt(), buf.getInt(), buf.getInt());
+  }
+
+  boolean isSegment() {
+    return kind == SEGMENT;
+  }
+
+  boolean isCredit() {
+    return kind == CREDIT;
+  }
+
+  /**
+   * @return index of the segment, or the number of credits of a credit message
+   */
+  int getIndex() {
+    return index;
+  }
+
+  int getCount() {
+    return count;
+  }
+
+  int getTotalLength() {
+    return totalLength;
+  }
+
+  @Override
+  public String toString() {
+    return (isSegment() ? "Segment " : "Credit ") + index + "/" + count + " of " + totalLength + " bytes";
+  }
+}
@@ -0,0 +1,148 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.reef.io.network.impl;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Small integer ids of the connection factory and end point ids sent over one link,
+ * used by the compact framing of {@link NetworkConnectionServiceMessageCodec}.
+ * <p>
+ * The ids are scoped by a random session number that every frame carries, so the receiver
+ * keeps one dictionary per session. A frame carries the string of an id along with the id
+ * until a frame that carried it has been written to the link: as frames are written in order,
+ * every frame encoded after that is sure to reach the receiver after the definition.
+ * When a write fails, the dictionary starts a new session, as the receiver may be new as well.
+ */
+final class EndpointIdDictionary {
+
+  private static final Random RANDOM = new Random();
+
+  /**
+   * An interned id.
+   */
+  static final class Entry {
+    private final int id;
+    private final String name;
+    private volatile boolean confirmed = false;
+
+    private Entry(final int id, final String name) {
+      this.id = id;
+      this.name = name;
+    }
+
+    int getId() {
+      return this.id;
+    }
+
+    String getName() {
+      return this.name;
+    }
+
+    boolean isConfirmed() {
+      return this.confirmed;
+    }
+  }
+
+  /**
+   * The ids a frame defined, to be confirmed once the frame has been written.
+   */
+  static final class Definitions {
+    private final EndpointIdDictionary dictionary;
+    private final List<Entry> entries = new ArrayList<>(3);
+
+    private Definitions(final EndpointIdDictionary dictionary) {
+      this.dictionary = dictionary;
+    }
+
+    void add(final Entry entry) {
+      this.entries.add(entry);
+    }
+
+    /**
+     * The frame was written: later frames no longer need to carry these definitions.
+     */
+    void confirm() {
+      for (final Entry entry : this.entries) {
+        entry.confirmed = true;
+      }
+    }
+
+    /**
+     * The frame could not be written: start a new session.
+     */
+    void reset() {
+      this.dictionary.reset();
+    }
+  }
+
+  /**
+   * The ids of one session.
+   */
+  static final class Session {
+    private final long number = RANDOM.nextLong();
+    private final ConcurrentMap<String, Entry> entries = new ConcurrentHashMap<>();
+    private final AtomicInteger nextId = new AtomicInteger(0);
+
+    long getNumber() {
+      return this.number;
+    }
+
+    /**
+     * Get the id of a string, assigning a new one if needed.
+     *
+     * @param name the string
+     * @return the entry of the string
+     */
+    Entry intern(final String name) {
+      final Entry entry = this.entries.get(name);
+      if (entry != null) {
+        return entry;
+      }
+      final Entry newEntry = new Entry(this.nextId.getAndIncrement(), name);
+      final Entry prior = this.entries.putIfAbsent(name, newEntry);
+      return prior == null ? newEntry : prior;
+    }
+  }
+
+  private volatile Session session = new Session();
+
+  /**
+   * @return the current session
+   */
+  Session getSession() {
+    return this.session;
+  }
+
+  /**
+   * @return new definitions of a frame
+   */
+  Definitions newDefinitions() {
+    return new Definitions(this);
+  }
+
+  private void reset() {
+    this.session = new Session();
+  }
+}
@@ -24,6 +24,7 @@ import org.apache.reef.io.network.ConnectionFactory;
 import org.apache.reef.io.network.Message;
 import org.apache.reef.io.network.NetworkConnectionService;
 import org.apache.reef.io.network.exception.NetworkRuntimeException;
+import org.apache.reef.io.network.impl.config.NetworkConnectionServiceCompactFraming;
 import org.apache.reef.io.network.impl.config.NetworkConnectionServiceIdFactory;
 import org.apache.reef.io.network.impl.config.NetworkConnectionServicePort;
 import org.apache.reef.io.network.naming.NameResolver;
@@ -34,6 +35,7 @@ import org.apache.reef.wake.Identifier;
 import org.apache.reef.wake.IdentifierFactory;
 import org.apache.reef.wake.impl.SingleThreadStage;
 import org.apache.reef.wake.remote.Codec;
+import org.apache.reef.wake.remote.Encoder;
 import org.apache.reef.wake.remote.impl.TransportEvent;
 import org.apache.reef.wake.remote.transport.Link;
 import org.apache.reef.wake.remote.transport.LinkListener;
@@ -76,7 +78,11 @@ public final class NetworkConnectionServiceImpl implements NetworkConnectionServ
   /**
    * A network connection service message codec.
    */
-  private final Codec<NetworkConnectionServiceMessage> nsCodec;
+  private final NetworkConnectionServiceMessageCodec nsCodec;
+  /**
+   * Whether links send compact frames.
+   */
+  private final boolean compactFraming;
   /**
    * A network connection service link listener.
    */
@@ -102,17 +108,20 @@ public final class NetworkConnectionServiceImpl implements NetworkConnectionServ
   private NetworkConnectionServiceImpl(
       @Parameter(NetworkConnectionServiceIdFactory.class) final IdentifierFactory idFactory,
       @Parameter(NetworkConnectionServicePort.class) final int nsPort,
+      @Parameter(NetworkConnectionServiceCompactFraming.class) final boolean compactFraming,
       final TransportFactory transportFactory,
       final NameResolver nameResolver) {
     this.idFactory = idFactory;
     this.connFactoryMap = new ConcurrentHashMap<>();
     this.nsCodec = new NetworkConnectionServiceMessageCodec(idFactory, connFactoryMap);
+    this.compactFraming = compactFraming;
     this.nsLinkListener = new NetworkConnectionServiceLinkListener(connFactoryMap);
     final EventHandler<TransportEvent> recvHandler =
         new NetworkConnectionServiceReceiveHandler(connFactoryMap, nsCodec);
     this.nameResolver = nameResolver;
     this.transport = transportFactory.newInstance(nsPort, recvHandler, recvHandler,
         new NetworkConnectionServiceExceptionHandler());
+    this.nsCodec.setTransport(this.transport);
 
     this.nameServiceRegisteringStage = new SingleThreadStage<>(
         "NameServiceRegisterer", new EventHandler<Tuple<Identifier, InetSocketAddress>>() {
@@ -217,13 +226,26 @@ public final class NetworkConnectionServiceImpl implements NetworkConnectionServ
       if (address == null) {
         throw new NetworkException("Lookup " + remoteId + " is null");
       }
-      return transport.open(address, nsCodec, nsLinkListener);
+      final Link<NetworkConnectionServiceMessage<T>> link = transport.get(address);
+      if (link != null) {
+        return link;
+      }
+      return transport.open(address, newEncoder(), nsLinkListener);
     } catch(final Exception e) {
       throw new NetworkException(e);
     }
   }
 
 
+  /**
+   * Creates the encoder of a new link.
+   * With compact framing, every link has an encoder of its own that assigns the ids sent over it.
+   * The encoder goes away with its link, so a link opened to a restarted receiver starts a new session.
+   */
+  private Encoder<NetworkConnectionServiceMessage> newEncoder() {
+    return compactFraming ? nsCodec.newLinkEncoder() : nsCodec;
+  }
+
   private Identifier getEndPointIdWithConnectionFactoryId(
       final Identifier connectionFactoryId, final Identifier endPointId) {
     final String identifier = connectionFactoryId.toString() + DELIMITER + endPointId.toString();
@@ -34,6 +34,10 @@ final class NetworkConnectionServiceLinkListener implements LinkListener<Network
 
   @Override
   public void onSuccess(final NetworkConnectionServiceMessage message) {
+    final EndpointIdDictionary.Definitions idDefinitions = message.getIdDefinitions();
+    if (idDefinitions != null) {
+      idDefinitions.confirm();
+    }
     final LinkListener listener = connFactoryMap.get(message.getConnectionFactoryId()).getLinkListener();
     if (listener != null) {
       listener.onSuccess(message);
@@ -44,6 +48,10 @@ final class NetworkConnectionServiceLinkListener implements LinkListener<Network
   @Override
   public void onException(final Throwable cause, final SocketAddress remoteAddress,
                           final NetworkConnectionServiceMessage message) {
+    final EndpointIdDictionary.Definitions idDefinitions = message.getIdDefinitions();
+    if (idDefinitions != null) {
+      idDefinitions.reset();
+    }
     final LinkListener listener = connFactoryMap.get(message.getConnectionFactoryId()).getLinkListener();
     if (listener != null) {
       listener.onException(cause, remoteAddress, message);
@@ -36,6 +36,7 @@ final class NetworkConnectionServiceMessage<T> implements Message<T> {
   private final String connFactoryId;
   private final Identifier srcId;
   private final Identifier destId;
+  private EndpointIdDictionary.Definitions idDefinitions;
 
   /**
    * Constructs a network connection service message.
@@ -60,6 +61,24 @@ final class NetworkConnectionServiceMessage<T> implements Message<T> {
     this.remoteAddr = remoteAddress;
   }
 
+  /**
+   * Sets the ids defined by the compact frame this message was encoded to.
+   *
+   * @param idDefinitions the ids defined by the frame
+   */
+  void setIdDefinitions(final EndpointIdDictionary.Definitions idDefinitions) {
+    this.idDefinitions = idDefinitions;
+  }
+
+  /**
+   * Gets the ids defined by the compact frame this message was encoded to.
+   *
+   * @return the ids defined by the frame, or null if the message was not encoded to a compact frame
+   */
+  EndpointIdDictionary.Definitions getIdDefinitions() {
+    return idDefinitions;
+  }
+
   /**
    * Gets a destination identifier.
    *
@@ -18,25 +18,44 @@
  */
 package org.apache.reef.io.network.impl;
 
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.ByteBufOutputStream;
+import io.netty.buffer.Unpooled;
 import org.apache.reef.wake.Identifier;
 import org.apache.reef.wake.IdentifierFactory;
 import org.apache.reef.wake.remote.Codec;
+import org.apache.reef.wake.remote.transport.Transport;
+import org.apache.reef.wake.remote.transport.netty.ByteBufEncoder;
 
 import java.io.*;
+import java.net.SocketAddress;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Map;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ConcurrentMap;
-import java.util.logging.Level;
-import java.util.logging.Logger;
 
 /**
  * DefaultNetworkMessageCodec implementation.
  * This codec encodes/decodes NetworkConnectionServiceMessageImpl according to the type <T>.
+ * <p>
+ * The codec itself writes the ids of the connection factory, the source and the destination as strings
+ * in every message. The encoders of {@link #newLinkEncoder()} write compact frames instead, which carry
+ * small integer ids assigned per link by an {@link EndpointIdDictionary}, and varint lengths.
+ * Both formats are always decoded. Messages are encoded straight into the buffer of the transport.
+ * <p>
+ * The receiver keeps the ids of each session along with the address of the connection it came from.
+ * When a new session starts, the sessions of connections that the transport no longer has a link to,
+ * and older sessions of the same connection, are forgotten.
  */
-final class NetworkConnectionServiceMessageCodec implements Codec<NetworkConnectionServiceMessage> {
-  private static final Logger LOG = Logger.getLogger(NetworkConnectionServiceMessageCodec.class.getName());
+final class NetworkConnectionServiceMessageCodec
+    implements Codec<NetworkConnectionServiceMessage>, ByteBufEncoder<NetworkConnectionServiceMessage> {
+
+  /**
+   * First byte of a compact frame. A frame of the string format starts with the length of
+   * the connection factory id, whose high byte is never 0xFF for an id shorter than 65280 bytes.
+   */
+  private static final byte COMPACT_FRAME = (byte) 0xFF;
 
   private final IdentifierFactory factory;
   /**
@@ -47,6 +66,14 @@ final class NetworkConnectionServiceMessageCodec implements Codec<NetworkConnect
    * Contains entries of (instance of codec, boolean whether the codec is streaming or not).
    */
   private final ConcurrentMap<Codec, Boolean> isStreamingCodecMap;
+  /**
+   * Contains entries of (session of a sender, ids received in compact frames of that session).
+   */
+  private final ConcurrentMap<Long, ReceivedSession> receivedSessions;
+  /**
+   * The transport that receives the frames, which keeps a link per open connection.
+   */
+  private volatile Transport transport;
 
   /**
    * Constructs a network connection service message codec.
@@ -57,6 +84,34 @@ final class NetworkConnectionServiceMessageCodec implements Codec<NetworkConnect
     this.factory = factory;
     this.connFactoryMap = connFactoryMap;
     this.isStreamingCodecMap = new ConcurrentHashMap<>();
+    this.receivedSessions = new ConcurrentHashMap<>();
+  }
+
+  /**
+   * Sets the transport that receives the frames. The ids of the connections it closed are then forgotten.
+   * @param transport the transport
+   */
+  void setTransport(final Transport transport) {
+    this.transport = transport;
+  }
+
+  /**
+   * Creates an encoder of compact frames for one link. Its ids are only valid on that link.
+   * @return a new encoder
+   */
+  ByteBufEncoder<NetworkConnectionServiceMessage> newLinkEncoder() {
+    final EndpointIdDictionary dictionary = new EndpointIdDictionary();
+    return new ByteBufEncoder<NetworkConnectionServiceMessage>() {
+      @Override
+      public byte[] encode(final NetworkConnectionServiceMessage obj) {
+        return encodeToBytes(obj, dictionary);
+      }
+
+      @Override
+      public void encode(final NetworkConnectionServiceMessage obj, final ByteBuf buf) {
+        encodeToBuffer(obj, buf, dictionary);
+      }
+    };
   }
 
   /**
@@ -66,39 +121,114 @@ final class NetworkConnectionServiceMessageCodec implements Codec<NetworkConnect
    */
   @Override
   public byte[] encode(final NetworkConnectionServiceMessage obj) {
+    return encodeToBytes(obj, null);
+  }
+
+  /**
+   * Encodes a network connection service message into a buffer.
+   * @param obj a message
+   * @param buf the buffer to write to
+   */
+  @Override
+  public void encode(final NetworkConnectionServiceMessage obj, final ByteBuf buf) {
+    encodeToBuffer(obj, buf, null);
+  }
+
+  private byte[] encodeToBytes(final NetworkConnectionServiceMessage obj, final EndpointIdDictionary dictionary) {
+    final ByteBuf buf = Unpooled.buffer();
+    encodeToBuffer(obj, buf, dictionary);
+    final byte[] bytes = new byte[buf.readableBytes()];
+    buf.readBytes(bytes);
+    return bytes;
+  }
+
+  /**
+   * Encodes a message as a compact frame if {@code dictionary} is given, or else with string ids.
+   */
+  private void encodeToBuffer(final NetworkConnectionServiceMessage obj, final ByteBuf buf,
+                              final EndpointIdDictionary dictionary) {
     final Codec codec = connFactoryMap.get(obj.getConnectionFactoryId()).getCodec();
     Boolean isStreamingCodec = isStreamingCodecMap.get(codec);
     if (isStreamingCodec == null) {
       isStreamingCodec = codec instanceof StreamingCodec;
       isStreamingCodecMap.putIfAbsent(codec, isStreamingCodec);
     }
+    final boolean compact = dictionary != null;
 
-    try (ByteArrayOutputStream baos = new ByteArrayOutputStream()) {
-      try (DataOutputStream daos = new DataOutputStream(baos)) {
+    try (DataOutputStream daos = new DataOutputStream(new ByteBufOutputStream(buf))) {
+      if (compact) {
+        final EndpointIdDictionary.Session session = dictionary.getSession();
+        final EndpointIdDictionary.Definitions definitions = dictionary.newDefinitions();
+        daos.writeByte(COMPACT_FRAME);
+        daos.writeLong(session.getNumber());
+        writeId(daos, session.intern(obj.getConnectionFactoryId()), definitions);
+        writeId(daos, session.intern(obj.getSrcId().toString()), definitions);
+        writeId(daos, session.intern(obj.getDestId().toString()), definitions);
+        writeVarInt(daos, obj.getData().size());
+        obj.setIdDefinitions(definitions);
+      } else {
         daos.writeUTF(obj.getConnectionFactoryId());
         daos.writeUTF(obj.getSrcId().toString());
         daos.writeUTF(obj.getDestId().toString());
         daos.writeInt(obj.getData().size());
+      }
 
-        if (isStreamingCodec) {
-          for (final Object rec : obj.getData()) {
-            ((StreamingCodec) codec).encodeToStream(rec, daos);
-          }
-        } else {
-          final Iterable dataList = obj.getData();
-          for (final Object message : dataList) {
-            final byte[] bytes = codec.encode(message);
+      if (isStreamingCodec) {
+        for (final Object rec : obj.getData()) {
+          ((StreamingCodec) codec).encodeToStream(rec, daos);
+        }
+      } else {
+        final Iterable dataList = obj.getData();
+        for (final Object message : dataList) {
+          final byte[] bytes = codec.encode(message);
+          if (compact) {
+            writeVarInt(daos, bytes.length);
+          } else {
             daos.writeInt(bytes.length);
-            daos.write(bytes);
           }
+          daos.write(bytes);
         }
-        return baos.toByteArray();
       }
     } catch (final IOException e) {
       throw new RuntimeException("IOException", e);
     }
   }
 
+  /**
+   * Write an id, along with its string until a frame that carried it has been written.
+   */
+  private static void writeId(final DataOutputStream daos, final EndpointIdDictionary.Entry entry,
+                              final EndpointIdDictionary.Definitions definitions) throws IOException {
+    if (entry.isConfirmed()) {
+      writeVarInt(daos, entry.getId() << 1);
+    } else {
+      writeVarInt(daos, entry.getId() << 1 | 1);
+      daos.writeUTF(entry.getName());
+      definitions.add(entry);
+    }
+  }
+
+  private static void writeVarInt(final DataOutputStream daos, final int value) throws IOException {
+    int remaining = value;
+    while ((remaining & ~0x7F) != 0) {
+      daos.writeByte(remaining & 0x7F | 0x80);
+      remaining >>>= 7;
+    }
+    daos.writeByte(remaining);
+  }
+
+  private static int readVarInt(final DataInputStream dais) throws IOException {
+    int value = 0;
+    for (int shift = 0; shift < Integer.SIZE; shift += 7) {
+      final byte b = dais.readByte();
+      value |= (b & 0x7F) << shift;
+      if (b >= 0) {
+        return value;
+      }
+    }
+    throw new IOException("Malformed varint");
+  }
+
   /**
    * Decodes a network connection service message from bytes.
    *
@@ -107,45 +237,162 @@ final class NetworkConnectionServiceMessageCodec implements Codec<NetworkConnect
    */
   @Override
   public NetworkConnectionServiceMessage decode(final byte[] data) {
-    try (ByteArrayInputStream bais = new ByteArrayInputStream(data)) {
-      try (DataInputStream dais = new DataInputStream(bais)) {
-        final String connFactoryId = dais.readUTF();
-        final Identifier srcId = factory.getNewInstance(dais.readUTF());
-        final Identifier destId = factory.getNewInstance(dais.readUTF());
-        final int size = dais.readInt();
-        final List list = new ArrayList(size);
-        final Codec codec = connFactoryMap.get(connFactoryId).getCodec();
-        Boolean isStreamingCodec = isStreamingCodecMap.get(codec);
-        if (isStreamingCodec == null) {
-          isStreamingCodec = codec instanceof StreamingCodec;
-          isStreamingCodecMap.putIfAbsent(codec, isStreamingCodec);
-        }
+    return decode(data, null);
+  }
 
-        if (isStreamingCodec) {
-          for (int i = 0; i < size; i++) {
-            list.add(((StreamingCodec) codec).decodeFromStream(dais));
-          }
-        } else {
-          for (int i = 0; i < size; i++) {
-            final int byteSize = dais.readInt();
-            final byte[] bytes = new byte[byteSize];
-            if (dais.read(bytes) == -1) {
-              LOG.log(Level.FINE, "No data read because end of stream was reached");
-            }
-            list.add(codec.decode(bytes));
-          }
-        }
+  /**
+   * Decodes a network connection service message received from a remote address.
+   *
+   * @param data bytes
+   * @param remoteAddress the remote address of the connection; null if unknown
+   * @return a message
+   */
+  NetworkConnectionServiceMessage decode(final byte[] data, final SocketAddress remoteAddress) {
+    try (DataInputStream dais = new DataInputStream(new ByteArrayInputStream(data))) {
+      final boolean compact = data.length > 0 && data[0] == COMPACT_FRAME;
+      final String connFactoryId;
+      final Identifier srcId;
+      final Identifier destId;
+      final int size;
+      if (compact) {
+        dais.readByte();
+        final long session = dais.readLong();
+        final ConcurrentMap<Integer, ReceivedId> ids = getSession(session, remoteAddress).ids;
+        connFactoryId = readId(dais, ids, session).name;
+        srcId = readId(dais, ids, session).getIdentifier();
+        destId = readId(dais, ids, session).getIdentifier();
+        size = readVarInt(dais);
+      } else {
+        connFactoryId = dais.readUTF();
+        srcId = factory.getNewInstance(dais.readUTF());
+        destId = factory.getNewInstance(dais.readUTF());
+        size = dais.readInt();
+      }
+      final List list = new ArrayList(size);
+      final Codec codec = connFactoryMap.get(connFactoryId).getCodec();
+      Boolean isStreamingCodec = isStreamingCodecMap.get(codec);
+      if (isStreamingCodec == null) {
+        isStreamingCodec = codec instanceof StreamingCodec;
+        isStreamingCodecMap.putIfAbsent(codec, isStreamingCodec);
+      }
 
-        return new NetworkConnectionServiceMessage(
-            connFactoryId,
-            srcId,
-            destId,
-            list
-        );
+      if (isStreamingCodec) {
+        for (int i = 0; i < size; i++) {
+          list.add(((StreamingCodec) codec).decodeFromStream(dais));
+        }
+      } else {
+        for (int i = 0; i < size; i++) {
+          final int byteSize = compact ? readVarInt(dais) : dais.readInt();
+          final byte[] bytes = new byte[byteSize];
+          dais.readFully(bytes);
+          list.add(codec.decode(bytes));
+        }
       }
+
+      return new NetworkConnectionServiceMessage(
+          connFactoryId,
+          srcId,
+          destId,
+          list
+      );
     } catch (final IOException e) {
       throw new RuntimeException("IOException", e);
     }
   }
 
+  /**
+   * Get the ids of a session, starting it if it is new.
+   */
+  private ReceivedSession getSession(final long session, final SocketAddress remoteAddress) {
+    final ReceivedSession received = receivedSessions.get(session);
+    if (received != null) {
+      return received;
+    }
+    final ReceivedSession newSession = new ReceivedSession(remoteAddress);
+    final ReceivedSession prior = receivedSessions.putIfAbsent(session, newSession);
+    if (prior != null) {
+      return prior;
+    }
+    removeObsoleteSessions(session, remoteAddress);
+    return newSession;
+  }
+
+  /**
+   * Forget the sessions of closed connections, and the older sessions of the connection of a new session:
+   * a sender only starts a new session on a link after a failed write.
+   */
+  private void removeObsoleteSessions(final long newSession, final SocketAddress remoteAddress) {
+    final Transport currentTransport = this.transport;
+    for (final Map.Entry<Long, ReceivedSession> entry : receivedSessions.entrySet()) {
+      final SocketAddress address = entry.getValue().remoteAddress;
+      if (address == null || entry.getKey() == newSession) {
+        continue;
+      }
+      if (address.equals(remoteAddress) || currentTransport != null && currentTransport.get(address) == null) {
+        receivedSessions.remove(entry.getKey(), entry.getValue());
+      }
+    }
+  }
+
+  /**
+   * @return the number of sessions whose ids are kept
+   */
+  int getSessionCount() {
+    return receivedSessions.size();
+  }
+
+  /**
+   * Read an id of a compact frame, recording its string if the frame carries it.
+   */
+  private ReceivedId readId(final DataInputStream dais, final ConcurrentMap<Integer, ReceivedId> ids,
+                            final long session) throws IOException {
+    final int value = readVarInt(dais);
+    final int id = value >>> 1;
+    if ((value & 1) != 0) {
+      final String name = dais.readUTF();
+      final ReceivedId receivedId = ids.get(id);
+      if (receivedId != null) {
+        return receivedId;
+      }
+      final ReceivedId newId = new ReceivedId(name);
+      final ReceivedId prior = ids.putIfAbsent(id, newId);
+      return prior == null ? newId : prior;
+    }
+    final ReceivedId receivedId = ids.get(id);
+    if (receivedId == null) {
+      throw new IOException("Undefined id " + id + " in session " + session);
+    }
+    return receivedId;
+  }
+
+  /**
+   * The ids received in the compact frames of one session, and the address of the connection they came from.
+   */
+  private static final class ReceivedSession {
+    private final SocketAddress remoteAddress;
+    private final ConcurrentMap<Integer, ReceivedId> ids = new ConcurrentHashMap<>();
+
+    private ReceivedSession(final SocketAddress remoteAddress) {
+      this.remoteAddress = remoteAddress;
+    }
+  }
+
+  /**
+   * An id received in a compact frame. Its {@link Identifier} is created once, on first use.
+   */
+  private final class ReceivedId {
+    private final String name;
+    private volatile Identifier identifier;
+
+    private ReceivedId(final String name) {
+      this.name = name;
+    }
+
+    private Identifier getIdentifier() {
+      if (identifier == null) {
+        identifier = factory.getNewInstance(name);
+      }
+      return identifier;
+    }
+  }
 }
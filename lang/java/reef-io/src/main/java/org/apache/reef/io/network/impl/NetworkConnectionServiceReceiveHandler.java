@@ -19,7 +19,6 @@
 package org.apache.reef.io.network.impl;
 
 import org.apache.reef.wake.EventHandler;
-import org.apache.reef.wake.remote.Codec;
 import org.apache.reef.wake.remote.impl.TransportEvent;
 
 import java.util.Map;
@@ -31,18 +30,19 @@ import java.util.Map;
 final class NetworkConnectionServiceReceiveHandler implements EventHandler<TransportEvent> {
 
   private final Map<String, NetworkConnectionFactory> connFactoryMap;
-  private final Codec<NetworkConnectionServiceMessage> codec;
+  private final NetworkConnectionServiceMessageCodec codec;
 
   NetworkConnectionServiceReceiveHandler(
       final Map<String, NetworkConnectionFactory> connFactoryMap,
-      final Codec<NetworkConnectionServiceMessage> codec) {
+      final NetworkConnectionServiceMessageCodec codec) {
     this.connFactoryMap = connFactoryMap;
     this.codec = codec;
   }
 
   @Override
   public void onNext(final TransportEvent transportEvent) {
-    final NetworkConnectionServiceMessage nsMessage = codec.decode(transportEvent.getData());
+    final NetworkConnectionServiceMessage nsMessage =
+        codec.decode(transportEvent.getData(), transportEvent.getRemoteAddress());
     nsMessage.setRemoteAddress(transportEvent.getRemoteAddress());
     final NetworkConnectionFactory connFactory = connFactoryMap.get(nsMessage.getConnectionFactoryId());
     final EventHandler eventHandler = connFactory.getEventHandler();
@@ -138,6 +138,17 @@ public final class NetworkService<T> implements Stage, ConnectionFactory<T> {
     return this.nameResolver;
   }
 
+  /**
+   * Looks up the addresses of many identifiers with one request to the name service and caches them,
+   * so that the connections to them open without a lookup each.
+   *
+   * @param ids the identifiers
+   * @throws Exception if the name service could not be reached
+   */
+  public void resolve(final Iterable<Identifier> ids) throws Exception {
+    this.nameResolver.lookup(ids);
+  }
+
   public IdentifierFactory getIdentifierFactory() {
     return this.factory;
   }
@@ -19,16 +19,17 @@
 package org.apache.reef.io.network.naming;
 
 import org.apache.reef.exception.evaluator.NetworkException;
+import org.apache.reef.io.naming.NameAssignment;
 import org.apache.reef.io.network.naming.exception.NamingException;
 import org.apache.reef.io.network.naming.parameters.NameResolverCacheTimeout;
 import org.apache.reef.io.network.naming.parameters.NameResolverRetryCount;
 import org.apache.reef.io.network.naming.parameters.NameResolverRetryTimeout;
 import org.apache.reef.tang.annotations.Parameter;
-import org.apache.reef.util.cache.Cache;
 import org.apache.reef.wake.Identifier;
 
 import javax.inject.Inject;
 import java.net.InetSocketAddress;
+import java.util.List;
 import java.util.concurrent.Callable;
 import java.util.logging.Level;
 import java.util.logging.Logger;
@@ -49,7 +50,7 @@ public final class LocalNameResolverImpl implements NameResolver {
   /**
    * A cache for lookup.
    */
-  private final Cache<Identifier, InetSocketAddress> cache;
+  private final NameCache cache;
 
   /**
    * Retry count for lookup.
@@ -120,4 +121,17 @@ public final class LocalNameResolverImpl implements NameResolver {
       }
     });
   }
+
+  /**
+   * Finds the addresses of the identifiers in the local name server at once.
+   * The addresses found replace the ones in the cache.
+   */
+  @Override
+  public List<NameAssignment> lookup(final Iterable<Identifier> ids) throws Exception {
+    final List<NameAssignment> assignments = nameServer.lookup(ids);
+    for (final NameAssignment assignment : assignments) {
+      cache.put(assignment.getIdentifier(), assignment.getAddress());
+    }
+    return assignments;
+  }
 }
@@ -18,8 +18,8 @@
  */
 package org.apache.reef.io.network.naming;
 
+import org.apache.reef.util.cache.BoundedCache;
 import org.apache.reef.util.cache.Cache;
-import org.apache.reef.util.cache.CacheImpl;
 import org.apache.reef.util.cache.SystemTime;
 import org.apache.reef.wake.Identifier;
 
@@ -32,15 +32,30 @@ import java.util.concurrent.ExecutionException;
  */
 public class NameCache implements Cache<Identifier, InetSocketAddress> {
 
-  private final Cache<Identifier, InetSocketAddress> cache;
+  /**
+   * Default maximum number of cached addresses.
+   */
+  public static final int DEFAULT_MAXIMUM_SIZE = 65536;
+
+  private final BoundedCache<Identifier, InetSocketAddress> cache;
 
   /**
-   * Constructs a naming cache.
+   * Constructs a naming cache of the default maximum size.
    *
    * @param timeout a cache entry timeout after write
    */
   public NameCache(final long timeout) {
-    cache = new CacheImpl<>(new SystemTime(), timeout);
+    this(timeout, DEFAULT_MAXIMUM_SIZE);
+  }
+
+  /**
+   * Constructs a naming cache.
+   *
+   * @param timeout     a cache entry timeout after write
+   * @param maximumSize the maximum number of cached addresses; the least recently used ones are evicted
+   */
+  public NameCache(final long timeout, final int maximumSize) {
+    cache = new BoundedCache<>(new SystemTime(), timeout, maximumSize);
   }
 
   /**
@@ -67,4 +82,28 @@ public class NameCache implements Cache<Identifier, InetSocketAddress> {
     cache.invalidate(key);
   }
 
+  /**
+   * Invalidates the entries of all identifiers.
+   */
+  public void invalidateAll() {
+    cache.invalidateAll();
+  }
+
+  /**
+   * Caches an address that was looked up in bulk, replacing the cached address of the identifier.
+   *
+   * @param key     an identifier
+   * @param address its address
+   * @throws ExecutionException
+   */
+  public void put(final Identifier key, final InetSocketAddress address) throws ExecutionException {
+    cache.invalidate(key);
+    cache.get(key, new Callable<InetSocketAddress>() {
+      @Override
+      public InetSocketAddress call() {
+        return address;
+      }
+    });
+  }
+
 }
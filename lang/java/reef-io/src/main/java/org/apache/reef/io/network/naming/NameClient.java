@@ -20,6 +20,8 @@ package org.apache.reef.io.network.naming;
 
 import org.apache.reef.io.network.naming.exception.NamingRuntimeException;
 import org.apache.reef.io.network.naming.parameters.*;
+import org.apache.reef.io.naming.NameAssignment;
+import org.apache.reef.io.network.naming.serialization.NamingInvalidation;
 import org.apache.reef.io.network.naming.serialization.NamingLookupResponse;
 import org.apache.reef.io.network.naming.serialization.NamingMessage;
 import org.apache.reef.io.network.naming.serialization.NamingRegisterResponse;
@@ -37,6 +39,7 @@ import org.apache.reef.wake.remote.transport.TransportFactory;
 import javax.inject.Inject;
 import java.io.IOException;
 import java.net.InetSocketAddress;
+import java.util.List;
 import java.util.concurrent.BlockingQueue;
 import java.util.concurrent.LinkedBlockingQueue;
 import java.util.logging.Level;
@@ -61,6 +64,7 @@ public final class NameClient implements NameResolver {
      * @param factory an identifier factory
      * @param retryCount the number of retries
      * @param retryTimeout retry timeout
+     * @param subscribe whether to subscribe to invalidations of cached lookups
      * @param localAddressProvider a local address provider
      * @param tpFactory transport factory
      */
@@ -72,20 +76,23 @@ public final class NameClient implements NameResolver {
       @Parameter(NameResolverIdentifierFactory.class) final IdentifierFactory factory,
       @Parameter(NameResolverRetryCount.class) final int retryCount,
       @Parameter(NameResolverRetryTimeout.class) final int retryTimeout,
+      @Parameter(NameResolverSubscribe.class) final boolean subscribe,
       final LocalAddressProvider localAddressProvider,
       final TransportFactory tpFactory) {
 
-    final BlockingQueue<NamingLookupResponse> replyLookupQueue = new LinkedBlockingQueue<>();
+    final NamingLookupResponseHandler replyLookupHandler = new NamingLookupResponseHandler();
+    final NameCache cache = new NameCache(timeout);
     final BlockingQueue<NamingRegisterResponse> replyRegisterQueue = new LinkedBlockingQueue<>();
     final Codec<NamingMessage> codec = NamingCodecFactory.createFullCodec(factory);
 
     this.transport = tpFactory.newInstance(localAddressProvider.getLocalAddress(), 0,
         new SyncStage<>(new NamingClientEventHandler(
-            new NamingResponseHandler(replyLookupQueue, replyRegisterQueue), codec)),
+            new NamingResponseHandler(replyLookupHandler, new NamingInvalidationHandler(cache), replyRegisterQueue),
+            codec)),
         null, retryCount, retryTimeout);
 
     this.lookupClient = new NameLookupClient(serverAddr, serverPort, timeout, factory,
-        retryCount, retryTimeout, replyLookupQueue, this.transport);
+        retryCount, retryTimeout, replyLookupHandler, cache, subscribe, this.transport);
 
     this.registryClient = new NameRegistryClient(serverAddr, serverPort, timeout,
         factory, replyRegisterQueue, this.transport);
@@ -125,6 +132,17 @@ public final class NameClient implements NameResolver {
     return this.lookupClient.lookup(id);
   }
 
+  /**
+   * Finds the addresses of many identifiers in one request to the name server.
+   *
+   * @param ids the identifiers
+   * @return the name assignments of the identifiers that are registered
+   */
+  @Override
+  public List<NameAssignment> lookup(final Iterable<Identifier> ids) throws Exception {
+    return this.lookupClient.lookup(ids);
+  }
+
   /**
    * Retrieves an address for an identifier remotely.
    *
@@ -185,21 +203,24 @@ class NamingClientEventHandler implements EventHandler<TransportEvent> {
 class NamingResponseHandler implements EventHandler<NamingMessage> {
   private static final Logger LOG = Logger.getLogger(NamingResponseHandler.class.getName());
 
-  private final BlockingQueue<NamingLookupResponse> replyLookupQueue;
+  private final EventHandler<NamingLookupResponse> replyLookupHandler;
+  private final EventHandler<NamingInvalidation> invalidationHandler;
   private final BlockingQueue<NamingRegisterResponse> replyRegisterQueue;
 
-  NamingResponseHandler(final BlockingQueue<NamingLookupResponse> replyLookupQueue,
+  NamingResponseHandler(final EventHandler<NamingLookupResponse> replyLookupHandler,
+                        final EventHandler<NamingInvalidation> invalidationHandler,
                         final BlockingQueue<NamingRegisterResponse> replyRegisterQueue) {
-    this.replyLookupQueue = replyLookupQueue;
+    this.replyLookupHandler = replyLookupHandler;
+    this.invalidationHandler = invalidationHandler;
     this.replyRegisterQueue = replyRegisterQueue;
   }
 
   @Override
   public void onNext(final NamingMessage value) {
     if (value instanceof NamingLookupResponse) {
-      if (!replyLookupQueue.offer((NamingLookupResponse) value)) {
-        LOG.log(Level.FINEST, "Element {0} was not added to the queue", value);
-      }
+      replyLookupHandler.onNext((NamingLookupResponse) value);
+    } else if (value instanceof NamingInvalidation) {
+      invalidationHandler.onNext((NamingInvalidation) value);
     } else if (value instanceof NamingRegisterResponse) {
       if (!replyRegisterQueue.offer((NamingRegisterResponse) value)) {
         LOG.log(Level.FINEST, "Element {0} was not added to the queue", value);
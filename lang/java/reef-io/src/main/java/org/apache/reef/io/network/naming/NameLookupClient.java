@@ -21,17 +21,20 @@ package org.apache.reef.io.network.naming;
 import org.apache.reef.io.naming.NameAssignment;
 import org.apache.reef.io.naming.NamingLookup;
 import org.apache.reef.io.network.naming.exception.NamingException;
+import org.apache.reef.io.network.naming.exception.NamingRuntimeException;
 import org.apache.reef.io.network.naming.parameters.NameResolverCacheTimeout;
 import org.apache.reef.io.network.naming.parameters.NameResolverIdentifierFactory;
 import org.apache.reef.io.network.naming.parameters.NameResolverNameServerAddr;
 import org.apache.reef.io.network.naming.parameters.NameResolverNameServerPort;
 import org.apache.reef.io.network.naming.parameters.NameResolverRetryCount;
 import org.apache.reef.io.network.naming.parameters.NameResolverRetryTimeout;
+import org.apache.reef.io.network.naming.parameters.NameResolverSubscribe;
+import org.apache.reef.io.network.naming.serialization.NamingInvalidation;
 import org.apache.reef.io.network.naming.serialization.NamingLookupRequest;
 import org.apache.reef.io.network.naming.serialization.NamingLookupResponse;
 import org.apache.reef.io.network.naming.serialization.NamingMessage;
+import org.apache.reef.io.network.naming.serialization.NamingSubscribeRequest;
 import org.apache.reef.tang.annotations.Parameter;
-import org.apache.reef.util.cache.Cache;
 import org.apache.reef.wake.EventHandler;
 import org.apache.reef.wake.Identifier;
 import org.apache.reef.wake.IdentifierFactory;
@@ -48,18 +51,23 @@ import org.apache.reef.wake.remote.transport.netty.LoggingLinkListener;
 import javax.inject.Inject;
 import java.net.InetSocketAddress;
 import java.net.SocketAddress;
-import java.util.Arrays;
 import java.util.Collections;
 import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
 import java.util.concurrent.BlockingQueue;
 import java.util.concurrent.Callable;
-import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 
 /**
  * Naming lookup client.
+ * Lookups are tagged with request IDs, so any number of them can be in flight at once.
+ * If it subscribes, the name server pushes invalidations of the identifiers
+ * that are re-registered or unregistered into its cache.
  */
 public final class NameLookupClient implements Stage, NamingLookup {
 
@@ -67,11 +75,19 @@ public final class NameLookupClient implements Stage, NamingLookup {
   private final SocketAddress serverSocketAddr;
   private final Transport transport;
   private final Codec<NamingMessage> codec;
-  private final BlockingQueue<NamingLookupResponse> replyQueue;
+  private final NamingLookupResponseHandler replies;
   private final long timeout;
-  private final Cache<Identifier, InetSocketAddress> cache;
+  private final NameCache cache;
   private final int retryCount;
   private final int retryTimeout;
+  private final boolean subscribe;
+
+  /**
+   * The link the subscription was sent on. A new link after a reconnect has to subscribe again.
+   * Written under subscribeLock, after the subscription.
+   */
+  private volatile Link<NamingMessage> subscribedLink = null;
+  private final Object subscribeLock = new Object();
 
 
   /**
@@ -83,7 +99,9 @@ public final class NameLookupClient implements Stage, NamingLookup {
    * @param factory    an identifier factory
    * @param retryCount a count of retrying lookup
    * @param retryTimeout retry timeout
-   * @param replyQueue a reply queue
+   * @param replies    the handler of the lookup responses
+   * @param cache      the cache the invalidations of the transport go to
+   * @param subscribe  whether to subscribe to invalidations
    * @param transport  a transport
    */
   NameLookupClient(final String serverAddr,
@@ -92,15 +110,18 @@ public final class NameLookupClient implements Stage, NamingLookup {
                           final IdentifierFactory factory,
                           final int retryCount,
                           final int retryTimeout,
-                          final BlockingQueue<NamingLookupResponse> replyQueue,
+                          final NamingLookupResponseHandler replies,
+                          final NameCache cache,
+                          final boolean subscribe,
                           final Transport transport) {
     this.serverSocketAddr = new InetSocketAddress(serverAddr, serverPort);
     this.timeout = timeout;
-    this.cache = new NameCache(timeout);
+    this.cache = cache;
     this.codec = NamingCodecFactory.createFullCodec(factory);
-    this.replyQueue = replyQueue;
+    this.replies = replies;
     this.retryCount = retryCount;
     this.retryTimeout = retryTimeout;
+    this.subscribe = subscribe;
     this.transport = transport;
   }
 
@@ -111,6 +132,7 @@ public final class NameLookupClient implements Stage, NamingLookup {
     * @param serverPort a server port number
     * @param timeout    request timeout in ms
     * @param factory    an identifier factory
+    * @param subscribe  whether to subscribe to invalidations
     * @param tpFactory  a transport factory
     */
   @Inject
@@ -121,21 +143,24 @@ public final class NameLookupClient implements Stage, NamingLookup {
             @Parameter(NameResolverIdentifierFactory.class) final IdentifierFactory factory,
             @Parameter(NameResolverRetryCount.class) final int retryCount,
             @Parameter(NameResolverRetryTimeout.class) final int retryTimeout,
+            @Parameter(NameResolverSubscribe.class) final boolean subscribe,
             final LocalAddressProvider localAddressProvider,
             final TransportFactory tpFactory) {
     this.serverSocketAddr = new InetSocketAddress(serverAddr, serverPort);
     this.timeout = timeout;
-    this.cache = new NameCache(timeout);
+    final NameCache nameCache = new NameCache(timeout);
+    this.cache = nameCache;
     this.codec = NamingCodecFactory.createLookupCodec(factory);
-    this.replyQueue = new LinkedBlockingQueue<>();
+    this.replies = new NamingLookupResponseHandler();
 
     this.transport = tpFactory.newInstance(localAddressProvider.getLocalAddress(), 0,
             new SyncStage<>(new NamingLookupClientHandler(
-                    new NamingLookupResponseHandler(this.replyQueue), this.codec)),
+                    this.replies, new NamingInvalidationHandler(nameCache), this.codec)),
             null, retryCount, retryTimeout);
 
     this.retryCount = retryCount;
     this.retryTimeout = retryTimeout;
+    this.subscribe = subscribe;
   }
 
   /**
@@ -151,31 +176,67 @@ public final class NameLookupClient implements Stage, NamingLookup {
 
       @Override
       public InetSocketAddress call() throws Exception {
-        final int origRetryCount = NameLookupClient.this.retryCount;
-        int retriesLeft = origRetryCount;
-        while (true) {
-          try {
+        return withRetries(id, new Callable<InetSocketAddress>() {
+          @Override
+          public InetSocketAddress call() throws Exception {
             return remoteLookup(id);
-          } catch (final NamingException e) {
-            if (retriesLeft <= 0) {
-              throw e;
-            } else {
-              final int currentRetryTimeout = NameLookupClient.this.retryTimeout
-                  * (origRetryCount - retriesLeft + 1);
-              LOG.log(Level.WARNING,
-                  "Caught Naming Exception while looking up " + id
-                      + " with Name Server. Will retry " + retriesLeft
-                      + " time(s) after waiting for " + currentRetryTimeout + " msec.");
-              Thread.sleep(currentRetryTimeout);
-              --retriesLeft;
-            }
           }
-        }
+        });
       }
 
     });
   }
 
+  /**
+   * Finds the addresses of many identifiers in one request to the name server,
+   * e.g. to resolve all the members of a communication group.
+   * The addresses found replace the ones in the cache.
+   *
+   * @param ids the identifiers
+   * @return the name assignments of the identifiers that are registered
+   */
+  public List<NameAssignment> lookup(final Iterable<Identifier> ids) throws Exception {
+    final List<NameAssignment> assignments = withRetries(ids, new Callable<List<NameAssignment>>() {
+      @Override
+      public List<NameAssignment> call() throws Exception {
+        final NamingLookupResponse resp = remoteLookup(ids);
+        if (resp == null) {
+          throw new NamingException("Lookup of " + ids + " from the name server timed out");
+        }
+        return resp.getNameAssignments();
+      }
+    });
+
+    for (final NameAssignment assignment : assignments) {
+      cache.put(assignment.getIdentifier(), assignment.getAddress());
+    }
+    return assignments;
+  }
+
+  /**
+   * Retries a lookup that fails with a {@link NamingException}, waiting longer before every retry.
+   */
+  private <T> T withRetries(final Object ids, final Callable<T> lookup) throws Exception {
+    int retriesLeft = this.retryCount;
+    while (true) {
+      try {
+        return lookup.call();
+      } catch (final NamingException e) {
+        if (retriesLeft <= 0) {
+          throw e;
+        } else {
+          final int currentRetryTimeout = this.retryTimeout * (this.retryCount - retriesLeft + 1);
+          LOG.log(Level.WARNING,
+              "Caught Naming Exception while looking up " + ids
+                  + " with Name Server. Will retry " + retriesLeft
+                  + " time(s) after waiting for " + currentRetryTimeout + " msec.");
+          Thread.sleep(currentRetryTimeout);
+          --retriesLeft;
+        }
+      }
+    }
+  }
+
   /**
    * Retrieves an address for an identifier remotely.
    *
@@ -184,35 +245,63 @@ public final class NameLookupClient implements Stage, NamingLookup {
    * @throws Exception
    */
   public InetSocketAddress remoteLookup(final Identifier id) throws Exception {
-    // the lookup is not thread-safe, because concurrent replies may
-    // be read by the wrong thread.
-    // TODO: better fix uses a map of id's after REEF-198
-    synchronized (this) {
+    final NamingLookupResponse resp = remoteLookup(Collections.singletonList(id));
+    final List<NameAssignment> list = resp == null ? Collections.<NameAssignment>emptyList()
+        : resp.getNameAssignments();
+    if (list.isEmpty()) {
+      throw new NamingException("Cannot find " + id + " from the name server");
+    } else {
+      return list.get(0).getAddress();
+    }
+  }
 
-      LOG.log(Level.INFO, "Looking up {0} on NameServer {1}", new Object[]{id, serverSocketAddr});
+  /**
+   * Sends a lookup request tagged with a new request ID and waits for the response to it.
+   *
+   * @return the response; null if it did not arrive within the timeout
+   */
+  private NamingLookupResponse remoteLookup(final Iterable<Identifier> ids) throws Exception {
+    LOG.log(Level.INFO, "Looking up {0} on NameServer {1}", new Object[]{ids, serverSocketAddr});
 
-      final List<Identifier> ids = Arrays.asList(id);
+    final long requestId = replies.newRequest();
+    try {
       final Link<NamingMessage> link = transport.open(serverSocketAddr, codec,
           new LoggingLinkListener<NamingMessage>());
-      link.write(new NamingLookupRequest(ids));
-
-      final NamingLookupResponse resp;
-      for (;;) {
-        try {
-          resp = replyQueue.poll(timeout, TimeUnit.MILLISECONDS);
-          break;
-        } catch (final InterruptedException e) {
-          LOG.log(Level.INFO, "Lookup interrupted", e);
-          throw new NamingException(e);
-        }
+      if (subscribe) {
+        subscribeOn(link);
       }
+      link.write(new NamingLookupRequest(requestId, ids));
+      return replies.awaitResponse(requestId, timeout);
+    } catch (final InterruptedException e) {
+      LOG.log(Level.INFO, "Lookup interrupted", e);
+      throw new NamingException(e);
+    } finally {
+      replies.removeRequest(requestId);
+    }
+  }
 
-      final List<NameAssignment> list = resp == null ? Collections.<NameAssignment>emptyList()
-          : resp.getNameAssignments();
-      if (list.isEmpty()) {
-        throw new NamingException("Cannot find " + id + " from the name server");
-      } else {
-        return list.get(0).getAddress();
+  /**
+   * Subscribes to invalidations on the link, unless it already did.
+   * The transport opens a new link after the connection to the name server is lost, and the server
+   * forgets the subscriptions of closed connections, so a new link subscribes again.
+   * The invalidations pushed while the client was disconnected are lost: the cached addresses are dropped.
+   * The link is only recorded as subscribed once the request is written, and concurrent lookups on a new link
+   * wait for it, so the request goes ahead of every lookup on the link and no invalidation after a response
+   * is missed.
+   */
+  private void subscribeOn(final Link<NamingMessage> link) {
+    if (subscribedLink == link) {
+      return;
+    }
+    synchronized (subscribeLock) {
+      final Link<NamingMessage> previous = subscribedLink;
+      if (previous != link) {
+        if (previous != null) {
+          LOG.log(Level.FINE, "Subscribe again on {0}", link);
+          cache.invalidateAll();
+        }
+        link.write(new NamingSubscribeRequest(true));
+        subscribedLink = link;
       }
     }
   }
@@ -224,6 +313,13 @@ public final class NameLookupClient implements Stage, NamingLookup {
   public void close() throws Exception {
     // Should not close transport as we did not
     // create it
+    synchronized (subscribeLock) {
+      final Link<NamingMessage> link = subscribedLink;
+      subscribedLink = null;
+      if (link != null) {
+        link.write(new NamingSubscribeRequest(false));
+      }
+    }
   }
 }
 
@@ -233,36 +329,91 @@ public final class NameLookupClient implements Stage, NamingLookup {
 class NamingLookupClientHandler implements EventHandler<TransportEvent> {
 
   private final EventHandler<NamingLookupResponse> handler;
+  private final EventHandler<NamingInvalidation> invalidationHandler;
   private final Codec<NamingMessage> codec;
 
-  NamingLookupClientHandler(final EventHandler<NamingLookupResponse> handler, final Codec<NamingMessage> codec) {
+  NamingLookupClientHandler(final EventHandler<NamingLookupResponse> handler,
+                            final EventHandler<NamingInvalidation> invalidationHandler,
+                            final Codec<NamingMessage> codec) {
     this.handler = handler;
+    this.invalidationHandler = invalidationHandler;
     this.codec = codec;
   }
 
   @Override
   public void onNext(final TransportEvent value) {
-    handler.onNext((NamingLookupResponse) codec.decode(value.getData()));
+    final NamingMessage message = codec.decode(value.getData());
+    if (message instanceof NamingLookupResponse) {
+      handler.onNext((NamingLookupResponse) message);
+    } else if (message instanceof NamingInvalidation) {
+      invalidationHandler.onNext((NamingInvalidation) message);
+    } else {
+      throw new NamingRuntimeException("Unknown naming response message");
+    }
   }
 
 }
 
 /**
  * Naming lookup response handler.
+ * Hands every response to the lookup waiting for its request ID.
  */
 class NamingLookupResponseHandler implements EventHandler<NamingLookupResponse> {
   private static final Logger LOG = Logger.getLogger(NamingLookupResponseHandler.class.getName());
 
-  private final BlockingQueue<NamingLookupResponse> replyQueue;
+  private final AtomicLong lastRequestId = new AtomicLong(0);
+  private final ConcurrentMap<Long, BlockingQueue<NamingLookupResponse>> pending = new ConcurrentHashMap<>();
 
-  NamingLookupResponseHandler(final BlockingQueue<NamingLookupResponse> replyQueue) {
-    this.replyQueue = replyQueue;
+  /**
+   * @return the ID of a new request, to wait for its response with {@link #awaitResponse}
+   */
+  long newRequest() {
+    final long requestId = lastRequestId.incrementAndGet();
+    pending.put(requestId, new ArrayBlockingQueue<NamingLookupResponse>(1));
+    return requestId;
+  }
+
+  /**
+   * @return the response to the request; null if it did not arrive within the timeout
+   */
+  NamingLookupResponse awaitResponse(final long requestId, final long timeout) throws InterruptedException {
+    return pending.get(requestId).poll(timeout, TimeUnit.MILLISECONDS);
+  }
+
+  /**
+   * Stops waiting for the response to the request.
+   */
+  void removeRequest(final long requestId) {
+    pending.remove(requestId);
   }
 
   @Override
   public void onNext(final NamingLookupResponse value) {
-    if (!replyQueue.offer(value)) {
-      LOG.log(Level.FINEST, "Element {0} was not added to the queue", value);
+    final BlockingQueue<NamingLookupResponse> queue = pending.get(value.getRequestId());
+    if (queue == null || !queue.offer(value)) {
+      LOG.log(Level.FINEST, "Response to request {0} arrived after its lookup gave up", value.getRequestId());
+    }
+  }
+}
+
+/**
+ * Naming invalidation handler.
+ * Drops the invalidated identifiers from the cache, so that the next lookups go to the name server.
+ */
+class NamingInvalidationHandler implements EventHandler<NamingInvalidation> {
+  private static final Logger LOG = Logger.getLogger(NamingInvalidationHandler.class.getName());
+
+  private final NameCache cache;
+
+  NamingInvalidationHandler(final NameCache cache) {
+    this.cache = cache;
+  }
+
+  @Override
+  public void onNext(final NamingInvalidation value) {
+    for (final Identifier id : value.getIdentifiers()) {
+      LOG.log(Level.FINE, "Invalidate {0}", id);
+      cache.invalidate(id);
     }
   }
 }
@@ -18,14 +18,39 @@
  */
 package org.apache.reef.io.network.naming;
 
+import org.apache.reef.io.naming.NameAssignment;
 import org.apache.reef.io.naming.Naming;
 import org.apache.reef.tang.annotations.DefaultImplementation;
+import org.apache.reef.wake.Identifier;
 import org.apache.reef.wake.Stage;
 
+import java.net.InetSocketAddress;
+import java.util.ArrayList;
+import java.util.List;
+
 /**
  * NameClient interface.
  */
 @DefaultImplementation(NameClient.class)
 public interface NameResolver extends Stage, Naming {
 
+  /**
+   * Finds the addresses of many identifiers at once, e.g. all the members of a communication group,
+   * and caches them for the lookups that follow.
+   * The default implementation looks up the identifiers one by one with {@link #lookup(Identifier)}.
+   *
+   * @param ids the identifiers
+   * @return the name assignments of the identifiers that are registered
+   * @throws Exception if the name service could not be reached
+   */
+  default List<NameAssignment> lookup(final Iterable<Identifier> ids) throws Exception {
+    final List<NameAssignment> assignments = new ArrayList<>();
+    for (final Identifier id : ids) {
+      final InetSocketAddress address = lookup(id);
+      if (address != null) {
+        assignments.add(new NameAssignmentTuple(id, address));
+      }
+    }
+    return assignments;
+  }
 }
@@ -60,6 +60,11 @@ public final class NameResolverConfiguration extends ConfigurationModuleBuilder
    */
   public static final OptionalParameter<Integer> RETRY_COUNT = new OptionalParameter<>();
 
+  /**
+   * Whether to subscribe to invalidations of cached lookups from the name server.
+   */
+  public static final OptionalParameter<Boolean> SUBSCRIBE = new OptionalParameter<>();
+
   public static final ConfigurationModule CONF = new NameResolverConfiguration()
       .bindNamedParameter(NameResolverNameServerPort.class, NAME_SERVICE_PORT)
       .bindNamedParameter(NameResolverNameServerAddr.class, NAME_SERVER_HOSTNAME)
@@ -67,5 +72,6 @@ public final class NameResolverConfiguration extends ConfigurationModuleBuilder
       .bindNamedParameter(NameResolverCacheTimeout.class, CACHE_TIMEOUT)
       .bindNamedParameter(NameResolverRetryTimeout.class, RETRY_TIMEOUT)
       .bindNamedParameter(NameResolverRetryCount.class, RETRY_COUNT)
+      .bindNamedParameter(NameResolverSubscribe.class, SUBSCRIBE)
       .build();
 }
@@ -34,13 +34,16 @@ import org.apache.reef.wake.remote.RemoteConfiguration;
 import org.apache.reef.wake.remote.address.LocalAddressProvider;
 import org.apache.reef.wake.remote.impl.TransportEvent;
 import org.apache.reef.wake.remote.ports.TcpPortProvider;
+import org.apache.reef.wake.remote.transport.Link;
 import org.apache.reef.wake.remote.transport.Transport;
 import org.apache.reef.wake.remote.transport.netty.NettyMessagingTransport;
 import org.apache.reef.webserver.ReefEventStateManager;
 
 import javax.inject.Inject;
 import java.net.InetSocketAddress;
+import java.net.SocketAddress;
 import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 
@@ -54,6 +57,9 @@ public final class NameServerImpl implements NameServer {
 
   private final Transport transport;
   private final Map<Identifier, InetSocketAddress> idToAddrMap;
+  private final Set<SocketAddress> subscribers =
+      Collections.newSetFromMap(new ConcurrentHashMap<SocketAddress, Boolean>());
+  private final Codec<NamingMessage> codec;
   private final ReefEventStateManager reefEventStateManager;
   private final int port;
   private final LocalAddressProvider localAddressProvider;
@@ -76,8 +82,8 @@ public final class NameServerImpl implements NameServer {
 
     this.localAddressProvider = localAddressProvider;
     this.reefEventStateManager = null;
-    final Codec<NamingMessage> codec = NamingCodecFactory.createFullCodec(factory);
-    final EventHandler<NamingMessage> handler = createEventHandler(codec);
+    this.codec = NamingCodecFactory.createFullCodec(factory);
+    final EventHandler<NamingMessage> handler = createEventHandler();
 
     String host = UNKNOWN_HOST_NAME.equals(hostAddress) ? localAddressProvider.getLocalAddress() : hostAddress;
     injector.bindVolatileParameter(RemoteConfiguration.HostAddress.class, host);
@@ -98,7 +104,7 @@ public final class NameServerImpl implements NameServer {
     LOG.log(Level.FINE, "NameServer starting, listening at port {0}", this.port);
   }
 
-  private EventHandler<NamingMessage> createEventHandler(final Codec<NamingMessage> codec) {
+  private EventHandler<NamingMessage> createEventHandler() {
 
     final Map<Class<? extends NamingMessage>, EventHandler<? extends NamingMessage>>
         clazzToHandlerMap = new HashMap<>();
@@ -106,6 +112,7 @@ public final class NameServerImpl implements NameServer {
     clazzToHandlerMap.put(NamingLookupRequest.class, new NamingLookupRequestHandler(this, codec));
     clazzToHandlerMap.put(NamingRegisterRequest.class, new NamingRegisterRequestHandler(this, codec));
     clazzToHandlerMap.put(NamingUnregisterRequest.class, new NamingUnregisterRequestHandler(this));
+    clazzToHandlerMap.put(NamingSubscribeRequest.class, new NamingSubscribeRequestHandler(this));
     final EventHandler<NamingMessage> handler = new MultiEventHandler<>(clazzToHandlerMap);
 
     return handler;
@@ -135,7 +142,10 @@ public final class NameServerImpl implements NameServer {
   @Override
   public void register(final Identifier id, final InetSocketAddress addr) {
     LOG.log(Level.FINE, "id: " + id + " addr: " + addr);
-    idToAddrMap.put(id, addr);
+    final InetSocketAddress previous = idToAddrMap.put(id, addr);
+    if (previous != null && !previous.equals(addr)) {
+      invalidate(id);
+    }
   }
 
   /**
@@ -146,7 +156,73 @@ public final class NameServerImpl implements NameServer {
   @Override
   public void unregister(final Identifier id) {
     LOG.log(Level.FINE, "id: " + id);
-    idToAddrMap.remove(id);
+    if (idToAddrMap.remove(id) != null) {
+      invalidate(id);
+    }
+  }
+
+  /**
+   * Pushes the invalidations of registered identifiers to the remote end of the link
+   * until it unsubscribes or its connection closes.
+   *
+   * @param link the link to a name client
+   */
+  void subscribe(final Link<byte[]> link) {
+    LOG.log(Level.FINE, "subscribe: {0}", link.getRemoteAddress());
+    removeClosedSubscribers();
+    subscribers.add(link.getRemoteAddress());
+  }
+
+  /**
+   * Stops pushing invalidations to the remote end of the link.
+   *
+   * @param link the link to a name client
+   */
+  void unsubscribe(final Link<byte[]> link) {
+    LOG.log(Level.FINE, "unsubscribe: {0}", link.getRemoteAddress());
+    subscribers.remove(link.getRemoteAddress());
+  }
+
+  /**
+   * @return the number of name clients that invalidations are pushed to
+   */
+  int getSubscriberCount() {
+    removeClosedSubscribers();
+    return subscribers.size();
+  }
+
+  /**
+   * Tells the subscribers to drop their cached address of an identifier.
+   * The invalidation is written to the link the transport keeps for each subscriber.
+   * Clients whose connection failed or closed have no link any more and are removed.
+   */
+  private void invalidate(final Identifier id) {
+    if (subscribers.isEmpty()) {
+      return;
+    }
+    final byte[] invalidation = codec.encode(new NamingInvalidation(Collections.singletonList(id)));
+    for (final SocketAddress subscriber : subscribers) {
+      final Link<byte[]> link = transport.get(subscriber);
+      if (link == null) {
+        LOG.log(Level.FINE, "Remove closed subscriber {0}", subscriber);
+        subscribers.remove(subscriber);
+      } else {
+        link.write(invalidation);
+      }
+    }
+  }
+
+  /**
+   * Removes the subscribers whose connection failed or closed,
+   * so that clients that die without unsubscribing are not kept.
+   */
+  private void removeClosedSubscribers() {
+    for (final SocketAddress subscriber : subscribers) {
+      if (transport.get(subscriber) == null) {
+        LOG.log(Level.FINE, "Remove closed subscriber {0}", subscriber);
+        subscribers.remove(subscriber);
+      }
+    }
   }
 
   /**
@@ -227,7 +303,7 @@ class NamingLookupRequestHandler implements EventHandler<NamingLookupRequest> {
   @Override
   public void onNext(final NamingLookupRequest value) {
     final List<NameAssignment> nas = server.lookup(value.getIdentifiers());
-    final byte[] resp = codec.encode(new NamingLookupResponse(nas));
+    final byte[] resp = codec.encode(new NamingLookupResponse(value.getRequestId(), nas));
     value.getLink().write(resp);
   }
 }
@@ -272,3 +348,24 @@ class NamingUnregisterRequestHandler implements EventHandler<NamingUnregisterReq
     server.unregister(value.getIdentifier());
   }
 }
+
+/**
+ * Naming subscription request handler.
+ */
+class NamingSubscribeRequestHandler implements EventHandler<NamingSubscribeRequest> {
+
+  private final NameServerImpl server;
+
+  NamingSubscribeRequestHandler(final NameServerImpl server) {
+    this.server = server;
+  }
+
+  @Override
+  public void onNext(final NamingSubscribeRequest value) {
+    if (value.isSubscribe()) {
+      server.subscribe(value.getLink());
+    } else {
+      server.unsubscribe(value.getLink());
+    }
+  }
+}
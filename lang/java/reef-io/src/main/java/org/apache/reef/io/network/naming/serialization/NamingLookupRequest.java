@@ -25,6 +25,7 @@ import org.apache.reef.wake.Identifier;
  */
 public class NamingLookupRequest extends NamingMessage {
   private Iterable<Identifier> ids;
+  private final long requestId;
 
   /**
    * Constructs a naming lookup request.
@@ -32,6 +33,17 @@ public class NamingLookupRequest extends NamingMessage {
    * @param ids the iterable of identifiers
    */
   public NamingLookupRequest(final Iterable<Identifier> ids) {
+    this(0, ids);
+  }
+
+  /**
+   * Constructs a naming lookup request whose response carries the same request ID.
+   *
+   * @param requestId the request ID
+   * @param ids the iterable of identifiers
+   */
+  public NamingLookupRequest(final long requestId, final Iterable<Identifier> ids) {
+    this.requestId = requestId;
     this.ids = ids;
   }
 
@@ -43,4 +55,13 @@ public class NamingLookupRequest extends NamingMessage {
   public Iterable<Identifier> getIdentifiers() {
     return ids;
   }
+
+  /**
+   * Gets the request ID.
+   *
+   * @return the request ID; 0 if the request is not tagged
+   */
+  public long getRequestId() {
+    return requestId;
+  }
 }
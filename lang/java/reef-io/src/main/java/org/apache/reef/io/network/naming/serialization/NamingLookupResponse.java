@@ -27,6 +27,7 @@ import java.util.List;
  */
 public class NamingLookupResponse extends NamingMessage {
   private final List<NameAssignment> nas;
+  private final long requestId;
 
   /**
    * Constructs a naming lookup response.
@@ -34,6 +35,17 @@ public class NamingLookupResponse extends NamingMessage {
    * @param nas the list of name assignments
    */
   public NamingLookupResponse(final List<NameAssignment> nas) {
+    this(0, nas);
+  }
+
+  /**
+   * Constructs a naming lookup response.
+   *
+   * @param requestId the ID of the request this responds to
+   * @param nas the list of name assignments
+   */
+  public NamingLookupResponse(final long requestId, final List<NameAssignment> nas) {
+    this.requestId = requestId;
     this.nas = nas;
   }
 
@@ -45,4 +57,13 @@ public class NamingLookupResponse extends NamingMessage {
   public List<NameAssignment> getNameAssignments() {
     return nas;
   }
+
+  /**
+   * Gets the ID of the request this responds to.
+   *
+   * @return the request ID; 0 if the request was not tagged
+   */
+  public long getRequestId() {
+    return requestId;
+  }
 }
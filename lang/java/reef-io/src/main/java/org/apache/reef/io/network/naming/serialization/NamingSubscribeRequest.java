@@ -0,0 +1,45 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.reef.io.network.naming.serialization;
+
+/**
+ * Naming subscription request: asks the name server to push invalidations
+ * of registered identifiers to the link of this request, or to stop doing so.
+ */
+public class NamingSubscribeRequest extends NamingMessage {
+  private final boolean subscribe;
+
+  /**
+   * Constructs a naming subscription request.
+   *
+   * @param subscribe true to subscribe, false to unsubscribe
+   */
+  public NamingSubscribeRequest(final boolean subscribe) {
+    this.subscribe = subscribe;
+  }
+
+  /**
+   * Whether this subscribes or unsubscribes.
+   *
+   * @return true to subscribe, false to unsubscribe
+   */
+  public boolean isSubscribe() {
+    return subscribe;
+  }
+}
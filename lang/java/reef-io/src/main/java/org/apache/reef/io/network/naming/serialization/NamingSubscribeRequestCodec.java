@@ -0,0 +1,65 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.reef.io.network.naming.serialization;
+
+import org.apache.reef.io.network.naming.avro.AvroNamingSubscribeRequest;
+import org.apache.reef.wake.remote.Codec;
+
+import javax.inject.Inject;
+
+/**
+ * Naming subscription request codec.
+ */
+public final class NamingSubscribeRequestCodec implements Codec<NamingSubscribeRequest> {
+
+  /**
+   * Constructs a naming subscription request codec.
+   */
+  @Inject
+  public NamingSubscribeRequestCodec() {
+  }
+
+  /**
+   * Encodes the naming subscription request to bytes.
+   *
+   * @param obj the naming subscription request
+   * @return a byte array
+   */
+  @Override
+  public byte[] encode(final NamingSubscribeRequest obj) {
+    final AvroNamingSubscribeRequest result = AvroNamingSubscribeRequest.newBuilder()
+        .setSubscribe(obj.isSubscribe())
+        .build();
+    return AvroUtils.toBytes(result, AvroNamingSubscribeRequest.class);
+  }
+
+  /**
+   * Decodes the bytes to a naming subscription request.
+   *
+   * @param buf the byte array
+   * @return a naming subscription request
+   * @throws org.apache.reef.io.network.naming.exception.NamingRuntimeException
+   */
+  @Override
+  public NamingSubscribeRequest decode(final byte[] buf) {
+    final AvroNamingSubscribeRequest result = AvroUtils.fromBytes(buf, AvroNamingSubscribeRequest.class);
+    return new NamingSubscribeRequest(result.getSubscribe());
+  }
+
+}
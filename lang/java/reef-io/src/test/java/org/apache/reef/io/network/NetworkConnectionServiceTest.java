@@ -61,9 +61,15 @@ public class NetworkConnectionServiceTest {
   public TestName name = new TestName();
 
   private void runMessagingNetworkConnectionService(final Codec<String> codec) throws Exception {
+    runMessagingNetworkConnectionService(codec, false);
+  }
+
+  private void runMessagingNetworkConnectionService(final Codec<String> codec, final boolean compactFraming)
+      throws Exception {
     final int numMessages = 2000;
     final Monitor monitor = new Monitor();
-    try (NetworkMessagingTestService messagingTestService = new NetworkMessagingTestService(localAddress)) {
+    try (NetworkMessagingTestService messagingTestService =
+             new NetworkMessagingTestService(localAddress, compactFraming)) {
       messagingTestService.registerTestConnectionFactory(groupCommClientId, numMessages, monitor, codec);
 
       try (Connection<String> conn = messagingTestService.getConnectionFromSenderToReceiver(groupCommClientId)) {
@@ -100,6 +106,16 @@ public class NetworkConnectionServiceTest {
     runMessagingNetworkConnectionService(new StreamingStringCodec());
   }
 
+  /**
+   * NetworkConnectionService messaging test with compact framing.
+   */
+  @Test
+  public void testCompactFramingNetworkConnectionService() throws Exception {
+    LOG.log(Level.FINEST, name.getMethodName());
+    runMessagingNetworkConnectionService(new StringCodec(), true);
+    runMessagingNetworkConnectionService(new StreamingStringCodec(), true);
+  }
+
   public void runNetworkConnServiceWithMultipleConnFactories(final Codec<String> stringCodec,
                                                              final Codec<Integer> integerCodec)
       throws Exception {
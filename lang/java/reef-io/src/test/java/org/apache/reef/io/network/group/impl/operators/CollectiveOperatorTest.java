@@ -0,0 +1,353 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.reef.io.network.group.impl.operators;
+
+import org.apache.reef.exception.evaluator.NetworkException;
+import org.apache.reef.io.network.group.api.operators.Reduce.ReduceFunction;
+import org.apache.reef.io.network.group.api.operators.GroupCommOperator;
+import org.apache.reef.io.network.group.api.task.CommGroupNetworkHandler;
+import org.apache.reef.io.network.group.api.task.CommunicationGroupServiceClient;
+import org.apache.reef.io.network.group.impl.GroupCommunicationMessage;
+import org.apache.reef.io.network.group.impl.config.CollectiveAlgorithm;
+import org.apache.reef.io.network.group.impl.utils.Utils;
+import org.apache.reef.io.network.proto.ReefNetworkGroupCommProtos.GroupCommMessage.Type;
+import org.apache.reef.io.network.util.StringIdentifierFactory;
+import org.apache.reef.io.serialization.SerializableCodec;
+import org.apache.reef.tang.annotations.Name;
+import org.apache.reef.tang.annotations.NamedParameter;
+import org.apache.reef.wake.EventHandler;
+import org.apache.reef.wake.Identifier;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.*;
+import java.util.concurrent.*;
+
+import static org.mockito.Mockito.mock;
+
+/**
+ * Tests for AllReduce, AllGather and ReduceScatter with each algorithm.
+ * The tasks run in threads of this process and send messages to each other in memory,
+ * on a binary tree topology rooted at Task-0.
+ */
+public final class CollectiveOperatorTest {
+
+  @NamedParameter
+  private static final class GroupName implements Name<String> {
+  }
+
+  @NamedParameter
+  private static final class OperName implements Name<String> {
+  }
+
+  private static final String DRIVER_ID = "driver";
+  private static final int TREE_ONLY = Integer.MAX_VALUE;
+  private static final int NEVER_TREE = 0;
+  private static final int DEFAULT_THRESHOLD = 65536;
+  private static final StringIdentifierFactory IDENTIFIER_FACTORY = new StringIdentifierFactory();
+
+  private final Map<String, EventHandler<GroupCommunicationMessage>> tasks = new ConcurrentHashMap<>();
+
+  private final Queue<Set<String>> resolved = new ConcurrentLinkedQueue<>();
+
+  /**
+   * Delivers every message to the operator of its destination. Acks to the driver are dropped.
+   * Records the sets of destinations that are resolved at once.
+   */
+  private final Sender sender = new Sender(null) {
+    @Override
+    public void resolve(final Collection<String> dests) {
+      resolved.add(new HashSet<>(dests));
+    }
+
+    @Override
+    public void send(final GroupCommunicationMessage msg) throws NetworkException {
+      tasks.get(msg.getDestid()).onNext(msg);
+    }
+
+    @Override
+    public void send(final GroupCommunicationMessage msg, final String dest) throws NetworkException {
+      if (!DRIVER_ID.equals(dest)) {
+        tasks.get(dest).onNext(msg);
+      }
+    }
+  };
+
+  /**
+   * Sums Integers.
+   */
+  private static final class SumFunction implements ReduceFunction<Integer> {
+    @Override
+    public Integer apply(final Iterable<Integer> elements) {
+      int sum = 0;
+      for (final Integer element : elements) {
+        sum += element;
+      }
+      return sum;
+    }
+  }
+
+  /**
+   * Concatenates Strings, which is associative but not commutative.
+   */
+  private static final class ConcatFunction implements ReduceFunction<String> {
+    @Override
+    public String apply(final Iterable<String> elements) {
+      final StringBuilder concat = new StringBuilder();
+      for (final String element : elements) {
+        concat.append(element);
+      }
+      return concat.toString();
+    }
+  }
+
+  @Test(timeout = 30000)
+  public void testAllReduce() throws Exception {
+    for (final int numTasks : new int[] {1, 5, 8}) {
+      testAllReduce(numTasks, CollectiveAlgorithm.TREE, TREE_ONLY);
+      testAllReduce(numTasks, CollectiveAlgorithm.RECURSIVE, NEVER_TREE);
+    }
+  }
+
+  /**
+   * The elements are reduced in the order given by the tasks, also for payloads under the tree threshold
+   * and when the tree algorithm is configured.
+   */
+  @Test(timeout = 30000)
+  public void testAllReduceWithOrder() throws Exception {
+    for (final int numTasks : new int[] {1, 5, 8}) {
+      testAllReduceWithOrder(numTasks, CollectiveAlgorithm.RECURSIVE, NEVER_TREE);
+      testAllReduceWithOrder(numTasks, CollectiveAlgorithm.RECURSIVE, DEFAULT_THRESHOLD);
+      testAllReduceWithOrder(numTasks, CollectiveAlgorithm.TREE, TREE_ONLY);
+    }
+  }
+
+  @Test(timeout = 30000)
+  public void testAllGather() throws Exception {
+    for (final int numTasks : new int[] {1, 6, 8}) {
+      testAllGather(numTasks, CollectiveAlgorithm.TREE, TREE_ONLY);
+      testAllGather(numTasks, CollectiveAlgorithm.RING, NEVER_TREE);
+      testAllGather(numTasks, CollectiveAlgorithm.RECURSIVE, NEVER_TREE);
+    }
+  }
+
+  @Test(timeout = 30000)
+  public void testReduceScatter() throws Exception {
+    for (final int numTasks : new int[] {1, 6, 8}) {
+      testReduceScatter(numTasks, CollectiveAlgorithm.TREE, TREE_ONLY);
+      testReduceScatter(numTasks, CollectiveAlgorithm.RING, NEVER_TREE);
+      testReduceScatter(numTasks, CollectiveAlgorithm.RECURSIVE, NEVER_TREE);
+    }
+  }
+
+  /**
+   * Every task resolves its parent and children at once when its topology is set up.
+   */
+  @Test(timeout = 30000)
+  public void testNeighborsResolvedAtOnce() throws Exception {
+    resolved.clear();
+    testAllReduce(5, CollectiveAlgorithm.TREE, TREE_ONLY);
+    Assert.assertEquals(5, resolved.size());
+    Assert.assertTrue(resolved.contains(new HashSet<>(Arrays.asList("Task-1", "Task-2"))));
+    Assert.assertTrue(resolved.contains(new HashSet<>(Arrays.asList("Task-0", "Task-3", "Task-4"))));
+    Assert.assertTrue(resolved.contains(Collections.singleton("Task-0")));
+    Assert.assertTrue(resolved.contains(Collections.singleton("Task-1")));
+  }
+
+  /**
+   * The tree threshold picks the tree algorithm for small payloads even if another one is configured.
+   */
+  @Test(timeout = 30000)
+  public void testThreshold() throws Exception {
+    testAllReduce(6, CollectiveAlgorithm.RECURSIVE, 1000);
+    testAllGather(6, CollectiveAlgorithm.RING, 1000);
+    testReduceScatter(6, CollectiveAlgorithm.RING, 1000);
+  }
+
+  private void testAllReduce(final int numTasks, final CollectiveAlgorithm algorithm, final int threshold)
+      throws Exception {
+    final List<AllReducer<Integer>> operators = new ArrayList<>();
+    for (int i = 0; i < numTasks; ++i) {
+      operators.add(new AllReducer<>(GroupName.class.getName(), OperName.class.getName(), "Task-" + i, "Task-0",
+          new SerializableCodec<Integer>(), new SumFunction(), DRIVER_ID, 0, algorithm.name(), threshold,
+          mock(CommGroupNetworkHandler.class), sender, mock(CommunicationGroupServiceClient.class)));
+    }
+    final List<Integer> results = run(operators, new Apply<AllReducer<Integer>, Integer>() {
+      @Override
+      public Integer apply(final AllReducer<Integer> operator, final int rank) throws Exception {
+        return operator.apply(rank + 1);
+      }
+    });
+    for (final Integer result : results) {
+      Assert.assertEquals(algorithm + " over " + numTasks, numTasks * (numTasks + 1) / 2, (int) result);
+    }
+  }
+
+  private void testAllReduceWithOrder(final int numTasks, final CollectiveAlgorithm algorithm, final int threshold)
+      throws Exception {
+    final List<AllReducer<String>> operators = new ArrayList<>();
+    final List<Identifier> order = new ArrayList<>();
+    final StringBuilder expected = new StringBuilder();
+    for (int i = 0; i < numTasks; ++i) {
+      operators.add(new AllReducer<>(GroupName.class.getName(), OperName.class.getName(), "Task-" + i, "Task-0",
+          new SerializableCodec<String>(), new ConcatFunction(), DRIVER_ID, 0, algorithm.name(), threshold,
+          mock(CommGroupNetworkHandler.class), sender, mock(CommunicationGroupServiceClient.class)));
+    }
+    // Odd ranks first, then even ones, each in decreasing order
+    for (int parity = 1; parity >= 0; --parity) {
+      for (int i = numTasks - 1; i >= 0; --i) {
+        if (i % 2 == parity) {
+          order.add(IDENTIFIER_FACTORY.getNewInstance("Task-" + i));
+          expected.append(i).append(';');
+        }
+      }
+    }
+    final List<String> results = run(operators, new Apply<AllReducer<String>, String>() {
+      @Override
+      public String apply(final AllReducer<String> operator, final int rank) throws Exception {
+        return operator.apply(rank + ";", order);
+      }
+    });
+    for (final String result : results) {
+      Assert.assertEquals(algorithm + " ordered reduce over " + numTasks, expected.toString(), result);
+    }
+  }
+
+  private void testAllGather(final int numTasks, final CollectiveAlgorithm algorithm, final int threshold)
+      throws Exception {
+    final List<AllGatherer<Integer>> operators = new ArrayList<>();
+    final List<Integer> expected = new ArrayList<>();
+    for (int i = 0; i < numTasks; ++i) {
+      operators.add(new AllGatherer<>(GroupName.class.getName(), OperName.class.getName(), "Task-" + i, "Task-0",
+          new SerializableCodec<Integer>(), DRIVER_ID, 0, algorithm.name(), threshold,
+          mock(CommGroupNetworkHandler.class), sender, mock(CommunicationGroupServiceClient.class)));
+      expected.add(100 + i);
+    }
+    final List<List<Integer>> results = run(operators, new Apply<AllGatherer<Integer>, List<Integer>>() {
+      @Override
+      public List<Integer> apply(final AllGatherer<Integer> operator, final int rank) throws Exception {
+        return operator.apply(100 + rank);
+      }
+    });
+    for (final List<Integer> result : results) {
+      Assert.assertEquals(algorithm + " over " + numTasks, expected, result);
+    }
+  }
+
+  private void testReduceScatter(final int numTasks, final CollectiveAlgorithm algorithm, final int threshold)
+      throws Exception {
+    final List<ReduceScatterer<Integer>> operators = new ArrayList<>();
+    final List<Integer> counts = new ArrayList<>();
+    for (int i = 0; i < numTasks; ++i) {
+      operators.add(new ReduceScatterer<>(GroupName.class.getName(), OperName.class.getName(), "Task-" + i,
+          "Task-0", new SerializableCodec<Integer>(), new SumFunction(), DRIVER_ID, 0, algorithm.name(), threshold,
+          mock(CommGroupNetworkHandler.class), sender, mock(CommunicationGroupServiceClient.class)));
+      counts.add(i % 3);
+    }
+    final List<List<Integer>> results = run(operators, new Apply<ReduceScatterer<Integer>, List<Integer>>() {
+      @Override
+      public List<Integer> apply(final ReduceScatterer<Integer> operator, final int rank) throws Exception {
+        final List<Integer> elements = new ArrayList<>();
+        for (int j = 0; j < sum(counts); ++j) {
+          elements.add(j * rank);
+        }
+        return operator.apply(elements, counts);
+      }
+    });
+
+    // Element j is reduced to j * (0 + 1 + ... + numTasks - 1)
+    int offset = 0;
+    for (int i = 0; i < numTasks; ++i) {
+      final List<Integer> expected = new ArrayList<>();
+      for (int j = offset; j < offset + counts.get(i); ++j) {
+        expected.add(j * numTasks * (numTasks - 1) / 2);
+      }
+      Assert.assertEquals(algorithm + " over " + numTasks + " at Task-" + i, expected, results.get(i));
+      offset += counts.get(i);
+    }
+  }
+
+  private static int sum(final List<Integer> counts) {
+    int sum = 0;
+    for (final int count : counts) {
+      sum += count;
+    }
+    return sum;
+  }
+
+  /**
+   * Call of an operator on one task.
+   */
+  private interface Apply<O, R> {
+    R apply(O operator, int rank) throws Exception;
+  }
+
+  /**
+   * Set up a binary tree topology of the operators and apply them, each in its own thread.
+   *
+   * @return the results of the operators in order
+   */
+  private <O extends GroupCommOperator & EventHandler<GroupCommunicationMessage>, R> List<R> run(
+      final List<O> operators, final Apply<O, R> apply) throws Exception {
+    tasks.clear();
+    for (int i = 0; i < operators.size(); ++i) {
+      tasks.put("Task-" + i, operators.get(i));
+    }
+    for (int i = 0; i < operators.size(); ++i) {
+      final String taskId = "Task-" + i;
+      if (i > 0) {
+        operators.get(i).onNext(Utils.bldVersionedGCM(GroupName.class, OperName.class, Type.ParentAdd,
+            "Task-" + (i - 1) / 2, 0, taskId, 0, Utils.EMPTY_BYTE_ARR));
+      }
+      for (int child = 2 * i + 1; child <= 2 * i + 2 && child < operators.size(); ++child) {
+        operators.get(i).onNext(Utils.bldVersionedGCM(GroupName.class, OperName.class, Type.ChildAdd,
+            "Task-" + child, 0, taskId, 0, Utils.EMPTY_BYTE_ARR));
+      }
+      operators.get(i).onNext(Utils.bldVersionedGCM(GroupName.class, OperName.class, Type.TopologySetup,
+          DRIVER_ID, 0, taskId, 0, Utils.EMPTY_BYTE_ARR));
+    }
+
+    // A task drops the data messages that arrive before its topology is set up, so no task may start
+    // sending before every task is initialized
+    final CyclicBarrier initialized = new CyclicBarrier(operators.size());
+    final ExecutorService executor = Executors.newFixedThreadPool(operators.size());
+    try {
+      final List<Future<R>> futures = new ArrayList<>();
+      for (int i = 0; i < operators.size(); ++i) {
+        final O operator = operators.get(i);
+        final int rank = i;
+        futures.add(executor.submit(new Callable<R>() {
+          @Override
+          public R call() throws Exception {
+            operator.initialize();
+            initialized.await();
+            return apply.apply(operator, rank);
+          }
+        }));
+      }
+      final List<R> results = new ArrayList<>();
+      for (final Future<R> future : futures) {
+        results.add(future.get());
+      }
+      return results;
+    } finally {
+      executor.shutdownNow();
+    }
+  }
+}
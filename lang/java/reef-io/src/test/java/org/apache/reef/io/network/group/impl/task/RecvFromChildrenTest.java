@@ -0,0 +1,251 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.reef.io.network.group.impl.task;
+
+import org.apache.reef.exception.evaluator.NetworkException;
+import org.apache.reef.io.network.group.api.operators.Reduce.ReduceFunction;
+import org.apache.reef.io.network.group.impl.GroupCommunicationMessage;
+import org.apache.reef.io.network.group.impl.operators.Sender;
+import org.apache.reef.io.network.group.impl.utils.Utils;
+import org.apache.reef.io.network.proto.ReefNetworkGroupCommProtos.GroupCommMessage.Type;
+import org.apache.reef.io.serialization.Codec;
+import org.apache.reef.tang.annotations.Name;
+import org.apache.reef.tang.annotations.NamedParameter;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Tests and benchmarks of receiving Gather and Reduce data from many children.
+ * The children are simulated by adding their messages straight to the topology of the root.
+ */
+public final class RecvFromChildrenTest {
+
+  private static final Logger LOG = Logger.getLogger(RecvFromChildrenTest.class.getName());
+
+  @NamedParameter
+  private static final class GroupName implements Name<String> {
+  }
+
+  @NamedParameter
+  private static final class OperName implements Name<String> {
+  }
+
+  private static final int[] NUM_CHILDREN = {64, 256, 1024};
+  private static final int VECTOR_LENGTH = 4096;
+
+  /**
+   * Never called, as the children send no big messages.
+   */
+  private static final Sender SENDER = new Sender(null) {
+    @Override
+    public void send(final GroupCommunicationMessage msg) throws NetworkException {
+      throw new NetworkException("Unexpected message " + msg);
+    }
+  };
+
+  private static final Codec<int[]> VECTOR_CODEC = new Codec<int[]>() {
+    @Override
+    public byte[] encode(final int[] vector) {
+      final ByteBuffer buffer = ByteBuffer.allocate(vector.length * 4);
+      buffer.asIntBuffer().put(vector);
+      return buffer.array();
+    }
+
+    @Override
+    public int[] decode(final byte[] data) {
+      final int[] vector = new int[data.length / 4];
+      ByteBuffer.wrap(data).asIntBuffer().get(vector);
+      return vector;
+    }
+  };
+
+  private static final ReduceFunction<int[]> VECTOR_SUM = new ReduceFunction<int[]>() {
+    @Override
+    public int[] apply(final Iterable<int[]> elements) {
+      final int[] sum = new int[VECTOR_LENGTH];
+      for (final int[] vector : elements) {
+        for (int i = 0; i < sum.length; ++i) {
+          sum[i] += vector[i];
+        }
+      }
+      return sum;
+    }
+  };
+
+  /**
+   * Gather the data of every child and check that each message appears whole in the result.
+   */
+  @Test(timeout = 60000)
+  public void testGather() {
+    for (final int numChildren : NUM_CHILDREN) {
+      final OperatorTopologyStructImpl root = newTopology(numChildren);
+      for (int i = 0; i < numChildren; ++i) {
+        addData(root, i, Type.Gather, gatherData(i));
+      }
+
+      final long start = System.nanoTime();
+      final byte[] gathered = root.recvFromChildren();
+      LOG.log(Level.INFO, "Gathered {0} bytes from {1} children in {2} us",
+          new Object[]{gathered.length, numChildren, (System.nanoTime() - start) / 1000});
+
+      final int[] expected = new int[Byte.MAX_VALUE];
+      for (int i = 0; i < numChildren; ++i) {
+        expected[i % Byte.MAX_VALUE]++;
+      }
+      final int[] counts = new int[Byte.MAX_VALUE];
+      for (int offset = 0; offset < gathered.length; offset += gathered[offset] + 1) {
+        for (int i = offset; i <= offset + gathered[offset]; ++i) {
+          Assert.assertEquals(gathered[offset], gathered[i]);
+        }
+        counts[gathered[offset]]++;
+      }
+      Assert.assertArrayEquals(expected, counts);
+    }
+  }
+
+  /**
+   * Reduce the vectors of every child and check the sum, sequentially and in parallel.
+   */
+  @Test(timeout = 60000)
+  public void testReduce() {
+    for (final boolean parallelReduce : new boolean[]{false, true}) {
+      for (final int numChildren : NUM_CHILDREN) {
+        final OperatorTopologyStructImpl root = newTopology(numChildren, parallelReduce);
+        for (int i = 0; i < numChildren; ++i) {
+          final int[] vector = new int[VECTOR_LENGTH];
+          for (int j = 0; j < VECTOR_LENGTH; ++j) {
+            vector[j] = i + j;
+          }
+          addData(root, i, Type.Reduce, VECTOR_CODEC.encode(vector));
+        }
+
+        final long start = System.nanoTime();
+        final int[] sum = root.recvFromChildren(VECTOR_SUM, VECTOR_CODEC);
+        LOG.log(Level.INFO, "Reduced vectors of {0} children in {1} us, parallel: {2}",
+            new Object[]{numChildren, (System.nanoTime() - start) / 1000, parallelReduce});
+
+        for (int j = 0; j < VECTOR_LENGTH; ++j) {
+          Assert.assertEquals(numChildren * (numChildren - 1) / 2 + numChildren * j, sum[j]);
+        }
+      }
+    }
+  }
+
+  /**
+   * Unless parallel reduce is enabled, the reduce function only runs on the receiving thread.
+   */
+  @Test(timeout = 10000)
+  public void testReduceIsSequentialByDefault() {
+    final Set<Thread> reducingThreads = reduceOnes(newTopology(8, false), 8);
+    Assert.assertEquals(Collections.singleton(Thread.currentThread()), reducingThreads);
+  }
+
+  /**
+   * Parallel reduce runs the reduce function on threads of its own, which are gone once it returns.
+   */
+  @Test(timeout = 10000)
+  public void testParallelReduceStopsItsThreads() throws InterruptedException {
+    final Set<Thread> reducingThreads = reduceOnes(newTopology(8, true), 8);
+    reducingThreads.remove(Thread.currentThread());
+    Assert.assertFalse(reducingThreads.isEmpty());
+    for (final Thread thread : reducingThreads) {
+      thread.join(5000);
+      Assert.assertFalse(thread.getName() + " is still running", thread.isAlive());
+    }
+  }
+
+  /**
+   * Children that died without sending data are skipped.
+   */
+  @Test(timeout = 10000)
+  public void testReduceWithDeadChild() {
+    for (final boolean parallelReduce : new boolean[]{false, true}) {
+      final OperatorTopologyStructImpl root = newTopology(3, parallelReduce);
+      addData(root, 0, Type.Reduce, VECTOR_CODEC.encode(new int[VECTOR_LENGTH]));
+      root.addAsData(Utils.bldVersionedGCM(GroupName.class, OperName.class, Type.ChildDead,
+          "child1", 0, "root", 0, Utils.EMPTY_BYTE_ARR));
+      final int[] ones = new int[VECTOR_LENGTH];
+      Arrays.fill(ones, 1);
+      addData(root, 2, Type.Reduce, VECTOR_CODEC.encode(ones));
+
+      Assert.assertArrayEquals(ones, root.recvFromChildren(VECTOR_SUM, VECTOR_CODEC));
+    }
+  }
+
+  /**
+   * Reduce a vector of ones from each child, check the sum and return the threads that ran the reduce function.
+   */
+  private static Set<Thread> reduceOnes(final OperatorTopologyStructImpl root, final int numChildren) {
+    final int[] ones = new int[VECTOR_LENGTH];
+    Arrays.fill(ones, 1);
+    for (int i = 0; i < numChildren; ++i) {
+      addData(root, i, Type.Reduce, VECTOR_CODEC.encode(ones));
+    }
+    final Set<Thread> reducingThreads = Collections.newSetFromMap(new ConcurrentHashMap<Thread, Boolean>());
+    final int[] sum = root.recvFromChildren(new ReduceFunction<int[]>() {
+      @Override
+      public int[] apply(final Iterable<int[]> elements) {
+        reducingThreads.add(Thread.currentThread());
+        return VECTOR_SUM.apply(elements);
+      }
+    }, VECTOR_CODEC);
+    final int[] expected = new int[VECTOR_LENGTH];
+    Arrays.fill(expected, numChildren);
+    Assert.assertArrayEquals(expected, sum);
+    return reducingThreads;
+  }
+
+  private static OperatorTopologyStructImpl newTopology(final int numChildren) {
+    return newTopology(numChildren, false);
+  }
+
+  private static OperatorTopologyStructImpl newTopology(final int numChildren, final boolean parallelReduce) {
+    final OperatorTopologyStructImpl root = new OperatorTopologyStructImpl(
+        GroupName.class, OperName.class, "root", "driver", SENDER, 0, 0, 4, parallelReduce);
+    for (int i = 0; i < numChildren; ++i) {
+      root.update(Utils.bldVersionedGCM(GroupName.class, OperName.class, Type.ChildAdd,
+          "child" + i, 0, "root", 0, Utils.EMPTY_BYTE_ARR));
+    }
+    return root;
+  }
+
+  private static void addData(final OperatorTopologyStructImpl root, final int child, final Type type,
+                              final byte[] data) {
+    root.addAsData(Utils.bldVersionedGCM(GroupName.class, OperName.class, type,
+        "child" + child, 0, "root", 0, data));
+  }
+
+  /**
+   * @return a message of {@code child % 127 + 1} bytes, each holding {@code child % 127}
+   */
+  private static byte[] gatherData(final int child) {
+    final byte value = (byte) (child % Byte.MAX_VALUE);
+    final byte[] data = new byte[value + 1];
+    Arrays.fill(data, value);
+    return data;
+  }
+}
@@ -0,0 +1,228 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.reef.io.network.group.impl.task;
+
+import org.apache.reef.exception.evaluator.NetworkException;
+import org.apache.reef.io.network.group.impl.GroupCommunicationMessage;
+import org.apache.reef.io.network.group.impl.operators.Sender;
+import org.apache.reef.io.network.group.impl.utils.Utils;
+import org.apache.reef.io.network.proto.ReefNetworkGroupCommProtos.GroupCommMessage.Type;
+import org.apache.reef.tang.annotations.Name;
+import org.apache.reef.tang.annotations.NamedParameter;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Tests for streaming large messages in segments through a topology.
+ * The topologies of the tasks are wired to each other in memory.
+ */
+public final class StreamingTopologyTest {
+
+  @NamedParameter
+  private static final class GroupName implements Name<String> {
+  }
+
+  @NamedParameter
+  private static final class OperName implements Name<String> {
+  }
+
+  private static final int SEGMENT_SIZE = 1000;
+  private static final int WINDOW = 2;
+
+  private final Map<String, OperatorTopologyStructImpl> topologies = new ConcurrentHashMap<>();
+  private final AtomicInteger numSegments = new AtomicInteger(0);
+
+  /**
+   * Delivers every message to the topology of its destination as data.
+   */
+  private final Sender sender = new Sender(null) {
+    @Override
+    public void send(final GroupCommunicationMessage msg) throws NetworkException {
+      if (SegmentHeader.isStreaming(msg) && SegmentHeader.of(msg).isSegment()) {
+        numSegments.incrementAndGet();
+      }
+      topologies.get(msg.getDestid()).addAsData(msg);
+    }
+  };
+
+  /**
+   * Broadcast a message through a tree of depth two and check that every task receives it intact,
+   * in as many segments as expected.
+   */
+  @Test(timeout = 10000)
+  public void testStreamedBroadcast() throws Exception {
+    final byte[] data = randomBytes(10 * SEGMENT_SIZE + 7);
+    final OperatorTopologyStructImpl root = newTopology("root");
+    final List<OperatorTopologyStructImpl> receivers = new ArrayList<>();
+    for (int i = 0; i < 2; ++i) {
+      final OperatorTopologyStructImpl mid = newTopology("mid" + i);
+      connect(root, mid);
+      receivers.add(mid);
+      for (int j = 0; j < 2; ++j) {
+        final OperatorTopologyStructImpl leaf = newTopology("leaf" + i + j);
+        connect(mid, leaf);
+        receivers.add(leaf);
+      }
+    }
+
+    final List<byte[]> received = receiveAll(receivers, true, new Runnable() {
+      @Override
+      public void run() {
+        root.sendToChildren(data, Type.Broadcast);
+      }
+    });
+
+    for (final byte[] recv : received) {
+      Assert.assertArrayEquals(data, recv);
+    }
+    Assert.assertEquals(11 * receivers.size(), numSegments.get());
+  }
+
+  /**
+   * Messages no larger than the segment size go in one piece; empty messages are still streamed.
+   */
+  @Test(timeout = 10000)
+  public void testSmallAndEmptyMessages() throws Exception {
+    final OperatorTopologyStructImpl root = newTopology("root");
+    final OperatorTopologyStructImpl leaf = newTopology("leaf");
+    connect(root, leaf);
+
+    for (final byte[] data : new byte[][] {randomBytes(SEGMENT_SIZE), new byte[0]}) {
+      final List<byte[]> received = receiveAll(Collections.singletonList(leaf), false, new Runnable() {
+        @Override
+        public void run() {
+          root.sendToChildren(data, Type.Broadcast);
+        }
+      });
+      Assert.assertArrayEquals(data, received.get(0));
+    }
+    Assert.assertEquals(1, numSegments.get());
+  }
+
+  /**
+   * Scatter different messages to the children, only some of which are streamed.
+   */
+  @Test(timeout = 10000)
+  public void testStreamedScatter() throws Exception {
+    final OperatorTopologyStructImpl root = newTopology("root");
+    final List<OperatorTopologyStructImpl> receivers = new ArrayList<>();
+    final Map<String, byte[]> dataMap = new HashMap<>();
+    for (int i = 0; i < 3; ++i) {
+      final OperatorTopologyStructImpl leaf = newTopology("leaf" + i);
+      connect(root, leaf);
+      receivers.add(leaf);
+      dataMap.put("leaf" + i, randomBytes(i * 3 * SEGMENT_SIZE));
+    }
+
+    final List<byte[]> received = receiveAll(receivers, false, new Runnable() {
+      @Override
+      public void run() {
+        root.sendToChildren(dataMap, Type.Scatter);
+      }
+    });
+
+    for (int i = 0; i < 3; ++i) {
+      Assert.assertArrayEquals(dataMap.get("leaf" + i), received.get(i));
+    }
+    Assert.assertEquals(1 + 3 + 6, numSegments.get());
+  }
+
+  /**
+   * The sender stops streaming to a child that dies and finishes with the others.
+   */
+  @Test(timeout = 10000)
+  public void testChildDeadWhileStreaming() throws Exception {
+    final byte[] data = randomBytes(20 * SEGMENT_SIZE);
+    final OperatorTopologyStructImpl root = newTopology("root");
+    final OperatorTopologyStructImpl live = newTopology("live");
+    connect(root, live);
+    // Never reads its messages, so the root runs out of credits for it
+    final OperatorTopologyStructImpl stuck = newTopology("stuck");
+    connect(root, stuck);
+
+    final List<byte[]> received = receiveAll(Collections.singletonList(live), false, new Runnable() {
+      @Override
+      public void run() {
+        new Timer(true).schedule(new TimerTask() {
+          @Override
+          public void run() {
+            root.addAsData(Utils.bldVersionedGCM(GroupName.class, OperName.class, Type.ChildDead,
+                "stuck", 0, "root", 0, Utils.EMPTY_BYTE_ARR));
+          }
+        }, 100);
+        root.sendToChildren(data, Type.Broadcast);
+      }
+    });
+
+    Assert.assertArrayEquals(data, received.get(0));
+  }
+
+  private OperatorTopologyStructImpl newTopology(final String id) {
+    final OperatorTopologyStructImpl topology = new OperatorTopologyStructImpl(
+        GroupName.class, OperName.class, id, "driver", sender, 0, SEGMENT_SIZE, WINDOW);
+    topologies.put(id, topology);
+    return topology;
+  }
+
+  private static void connect(final OperatorTopologyStructImpl parent, final OperatorTopologyStructImpl child) {
+    parent.update(Utils.bldVersionedGCM(GroupName.class, OperName.class, Type.ChildAdd,
+        child.getSelfId(), 0, parent.getSelfId(), 0, Utils.EMPTY_BYTE_ARR));
+    child.update(Utils.bldVersionedGCM(GroupName.class, OperName.class, Type.ParentAdd,
+        parent.getSelfId(), 0, child.getSelfId(), 0, Utils.EMPTY_BYTE_ARR));
+  }
+
+  /**
+   * Receive from the parent on every receiver in its own thread while {@code send} runs.
+   * @return the data received by each receiver, in order
+   */
+  private static List<byte[]> receiveAll(final List<OperatorTopologyStructImpl> receivers, final boolean forward,
+                                         final Runnable send) throws Exception {
+    final ExecutorService executor = Executors.newFixedThreadPool(receivers.size());
+    try {
+      final List<Future<byte[]>> futures = new ArrayList<>();
+      for (final OperatorTopologyStructImpl receiver : receivers) {
+        futures.add(executor.submit(new Callable<byte[]>() {
+          @Override
+          public byte[] call() {
+            return forward ? receiver.recvFromParentAndForwardToChildren(Type.Broadcast)
+                : receiver.recvFromParent(Type.Broadcast);
+          }
+        }));
+      }
+      send.run();
+      final List<byte[]> retVal = new ArrayList<>();
+      for (final Future<byte[]> future : futures) {
+        retVal.add(future.get());
+      }
+      return retVal;
+    } finally {
+      executor.shutdownNow();
+    }
+  }
+
+  private static byte[] randomBytes(final int length) {
+    final byte[] bytes = new byte[length];
+    new Random(length).nextBytes(bytes);
+    return bytes;
+  }
+}
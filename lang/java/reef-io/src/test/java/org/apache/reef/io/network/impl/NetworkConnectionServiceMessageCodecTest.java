@@ -0,0 +1,211 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.reef.io.network.impl;
+
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.Unpooled;
+import org.apache.reef.io.network.util.StreamingStringCodec;
+import org.apache.reef.io.network.util.StringCodec;
+import org.apache.reef.io.network.util.StringIdentifierFactory;
+import org.apache.reef.wake.IdentifierFactory;
+import org.apache.reef.wake.remote.Codec;
+import org.apache.reef.wake.remote.transport.Link;
+import org.apache.reef.wake.remote.transport.Transport;
+import org.apache.reef.wake.remote.transport.netty.ByteBufEncoder;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.net.InetSocketAddress;
+import java.net.SocketAddress;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * Tests for the string and compact frames of NetworkConnectionServiceMessageCodec.
+ */
+public final class NetworkConnectionServiceMessageCodecTest {
+
+  private static final String CONN_FACTORY_ID = "groupComm";
+  private static final String STREAMING_CONN_FACTORY_ID = "shuffle";
+
+  private final IdentifierFactory idFactory = new StringIdentifierFactory();
+  private final Map<String, NetworkConnectionFactory> connFactoryMap = new HashMap<>();
+
+  public NetworkConnectionServiceMessageCodecTest() {
+    connFactoryMap.put(CONN_FACTORY_ID, newConnFactory(CONN_FACTORY_ID, new StringCodec()));
+    connFactoryMap.put(STREAMING_CONN_FACTORY_ID, newConnFactory(STREAMING_CONN_FACTORY_ID,
+        new StreamingStringCodec()));
+  }
+
+  /**
+   * Messages encoded with string ids are decoded as they were.
+   */
+  @Test
+  public void testStringFrames() {
+    final NetworkConnectionServiceMessageCodec codec = newCodec();
+    for (final String connFactoryId : new String[]{CONN_FACTORY_ID, STREAMING_CONN_FACTORY_ID}) {
+      final NetworkConnectionServiceMessage<String> msg = newMessage(connFactoryId, "hello", "world");
+      assertMessageEquals(msg, codec.decode(codec.encode(msg)));
+      Assert.assertNull(msg.getIdDefinitions());
+    }
+  }
+
+  /**
+   * Compact frames carry the strings of their ids until a frame that carried them is written,
+   * and are then smaller than frames with string ids.
+   */
+  @Test
+  public void testCompactFrames() {
+    final NetworkConnectionServiceMessageCodec codec = newCodec();
+    final ByteBufEncoder<NetworkConnectionServiceMessage> encoder = codec.newLinkEncoder();
+    final NetworkConnectionServiceMessageCodec decoder = newCodec();
+
+    final NetworkConnectionServiceMessage<String> first = newMessage(CONN_FACTORY_ID, "hello");
+    final byte[] firstFrame = encoder.encode(first);
+    final NetworkConnectionServiceMessage<String> second = newMessage(CONN_FACTORY_ID, "hello");
+    final byte[] secondFrame = encoder.encode(second);
+    Assert.assertEquals(firstFrame.length, secondFrame.length);
+
+    // The second frame may arrive before the first is confirmed written
+    assertMessageEquals(second, decoder.decode(secondFrame));
+    assertMessageEquals(first, decoder.decode(firstFrame));
+    first.getIdDefinitions().confirm();
+
+    final NetworkConnectionServiceMessage<String> third = newMessage(CONN_FACTORY_ID, "hello");
+    final byte[] thirdFrame = encoder.encode(third);
+    assertMessageEquals(third, decoder.decode(thirdFrame));
+    Assert.assertTrue(thirdFrame.length < firstFrame.length);
+    Assert.assertTrue(thirdFrame.length < codec.encode(third).length);
+
+    // Only the new id of the streaming connection factory is defined
+    final NetworkConnectionServiceMessage<String> streamed =
+        newMessage(STREAMING_CONN_FACTORY_ID, "hello", "world");
+    final ByteBuf buf = Unpooled.buffer();
+    encoder.encode(streamed, buf);
+    final byte[] streamedFrame = new byte[buf.readableBytes()];
+    buf.readBytes(streamedFrame);
+    assertMessageEquals(streamed, decoder.decode(streamedFrame));
+  }
+
+  /**
+   * After a failed write, the encoder starts a new session and defines its ids again.
+   */
+  @Test
+  public void testResetAfterFailedWrite() {
+    final NetworkConnectionServiceMessageCodec codec = newCodec();
+    final ByteBufEncoder<NetworkConnectionServiceMessage> encoder = codec.newLinkEncoder();
+
+    final NetworkConnectionServiceMessage<String> first = newMessage(CONN_FACTORY_ID, "hello");
+    final byte[] firstFrame = encoder.encode(first);
+    first.getIdDefinitions().confirm();
+    final NetworkConnectionServiceMessage<String> failed = newMessage(CONN_FACTORY_ID, "hello");
+    encoder.encode(failed);
+    failed.getIdDefinitions().reset();
+
+    // A new receiver has not seen the first frame
+    final NetworkConnectionServiceMessage<String> next = newMessage(CONN_FACTORY_ID, "hello");
+    final byte[] nextFrame = encoder.encode(next);
+    Assert.assertEquals(firstFrame.length, nextFrame.length);
+    assertMessageEquals(next, newCodec().decode(nextFrame));
+  }
+
+  /**
+   * A compact frame whose ids were never defined cannot be decoded.
+   */
+  @Test(expected = RuntimeException.class)
+  public void testUndefinedIds() {
+    final ByteBufEncoder<NetworkConnectionServiceMessage> encoder = newCodec().newLinkEncoder();
+    final NetworkConnectionServiceMessage<String> first = newMessage(CONN_FACTORY_ID, "hello");
+    encoder.encode(first);
+    first.getIdDefinitions().confirm();
+
+    newCodec().decode(encoder.encode(newMessage(CONN_FACTORY_ID, "hello")));
+  }
+
+  /**
+   * A new session from a connection replaces the older sessions of that connection.
+   */
+  @Test
+  public void testNewSessionReplacesOlderSessionsOfConnection() {
+    final NetworkConnectionServiceMessageCodec decoder = newCodec();
+    final SocketAddress address = new InetSocketAddress("localhost", 10000);
+    final ByteBufEncoder<NetworkConnectionServiceMessage> encoder = newCodec().newLinkEncoder();
+
+    final NetworkConnectionServiceMessage<String> first = newMessage(CONN_FACTORY_ID, "hello");
+    decoder.decode(encoder.encode(first), address);
+    first.getIdDefinitions().confirm();
+    final NetworkConnectionServiceMessage<String> failed = newMessage(CONN_FACTORY_ID, "hello");
+    decoder.decode(encoder.encode(failed), address);
+    failed.getIdDefinitions().reset();
+
+    final NetworkConnectionServiceMessage<String> next = newMessage(CONN_FACTORY_ID, "hello");
+    assertMessageEquals(next, decoder.decode(encoder.encode(next), address));
+    Assert.assertEquals(1, decoder.getSessionCount());
+  }
+
+  /**
+   * The sessions of connections that the transport closed are forgotten when a new session starts.
+   */
+  @Test
+  public void testSessionsOfClosedConnectionsAreRemoved() {
+    final SocketAddress closedAddress = new InetSocketAddress("localhost", 10000);
+    final SocketAddress openAddress = new InetSocketAddress("localhost", 10001);
+    final Transport transport = mock(Transport.class);
+    when(transport.get(openAddress)).thenReturn(mock(Link.class));
+    final NetworkConnectionServiceMessageCodec decoder = newCodec();
+    decoder.setTransport(transport);
+
+    decoder.decode(newCodec().newLinkEncoder().encode(newMessage(CONN_FACTORY_ID, "hello")), closedAddress);
+    decoder.decode(newCodec().newLinkEncoder().encode(newMessage(CONN_FACTORY_ID, "hello")), openAddress);
+    Assert.assertEquals(1, decoder.getSessionCount());
+
+    // A sender restarted at the closed address starts a new session
+    final NetworkConnectionServiceMessage<String> restarted = newMessage(CONN_FACTORY_ID, "hello");
+    assertMessageEquals(restarted,
+        decoder.decode(newCodec().newLinkEncoder().encode(restarted), closedAddress));
+    Assert.assertEquals(2, decoder.getSessionCount());
+  }
+
+  private NetworkConnectionServiceMessageCodec newCodec() {
+    return new NetworkConnectionServiceMessageCodec(idFactory, connFactoryMap);
+  }
+
+  private NetworkConnectionFactory<String> newConnFactory(final String connFactoryId, final Codec<String> codec) {
+    return new NetworkConnectionFactory<>(null, idFactory.getNewInstance(connFactoryId), codec, null, null,
+        idFactory.getNewInstance("sender"));
+  }
+
+  private NetworkConnectionServiceMessage<String> newMessage(final String connFactoryId, final String... data) {
+    return new NetworkConnectionServiceMessage<>(connFactoryId, idFactory.getNewInstance("sender"),
+        idFactory.getNewInstance("receiver"), Arrays.asList(data));
+  }
+
+  private static void assertMessageEquals(final NetworkConnectionServiceMessage<String> expected,
+                                          final NetworkConnectionServiceMessage actual) {
+    Assert.assertEquals(expected.getConnectionFactoryId(), actual.getConnectionFactoryId());
+    Assert.assertEquals(expected.getSrcId(), actual.getSrcId());
+    Assert.assertEquals(expected.getDestId(), actual.getDestId());
+    Assert.assertEquals(expected.getData(), (List) actual.getData());
+  }
+}
@@ -28,14 +28,20 @@ import org.apache.reef.tang.exceptions.InjectionException;
 import org.apache.reef.util.Optional;
 import org.apache.reef.wake.Identifier;
 import org.apache.reef.wake.IdentifierFactory;
+import org.apache.reef.wake.impl.SyncStage;
 import org.apache.reef.wake.remote.address.LocalAddressProvider;
+import org.apache.reef.wake.remote.transport.Transport;
+import org.apache.reef.wake.remote.transport.TransportFactory;
 import org.junit.Assert;
 import org.junit.Rule;
 import org.junit.Test;
 import org.junit.rules.TestName;
 
 import java.net.InetSocketAddress;
+import java.util.Arrays;
+import java.util.Collections;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 import java.util.Set;
 import java.util.concurrent.*;
@@ -251,6 +257,302 @@ public class NamingTest {
     }
   }
 
+  /**
+   * Many lookups in flight at once, and a bulk lookup of all the identifiers in one request.
+   *
+   * @throws Exception
+   */
+  @Test(timeout = 30000)
+  public void testPipelinedAndBulkNamingLookup() throws Exception {
+
+    LOG.log(Level.FINEST, this.name.getMethodName());
+
+    final String localAddress = localAddressProvider.getLocalAddress();
+    final int numIds = 500;
+    final Map<Identifier, InetSocketAddress> idToAddrMap = new HashMap<>();
+    for (int i = 0; i < numIds; ++i) {
+      idToAddrMap.put(this.factory.getNewInstance("task" + i), new InetSocketAddress(localAddress, 7000 + i));
+    }
+
+    final Injector injector = Tang.Factory.getTang().newInjector();
+    injector.bindVolatileParameter(NameServerParameters.NameServerIdentifierFactory.class, this.factory);
+    injector.bindVolatileInstance(LocalAddressProvider.class, this.localAddressProvider);
+    try (NameServer server = injector.getInstance(NameServer.class)) {
+      this.port = server.getPort();
+      for (final Identifier id : idToAddrMap.keySet()) {
+        server.register(id, idToAddrMap.get(id));
+      }
+
+      try (NameLookupClient client =
+               getNewNameLookupClient(localAddress, port, TTL, RETRY_COUNT, RETRY_TIMEOUT,
+                   Optional.of(this.localAddressProvider), Optional.of(this.factory))) {
+
+        final List<NameAssignment> nas = client.lookup(idToAddrMap.keySet());
+        final Map<Identifier, InetSocketAddress> bulkMap = new HashMap<>();
+        for (final NameAssignment na : nas) {
+          bulkMap.put(na.getIdentifier(), na.getAddress());
+        }
+        Assert.assertTrue(isEqual(idToAddrMap, bulkMap));
+
+        final ExecutorService e = Executors.newFixedThreadPool(16);
+        try {
+          final Map<Identifier, Future<InetSocketAddress>> futures = new HashMap<>();
+          for (final Identifier id : idToAddrMap.keySet()) {
+            futures.put(id, e.submit(new Callable<InetSocketAddress>() {
+              @Override
+              public InetSocketAddress call() throws Exception {
+                return client.remoteLookup(id);
+              }
+            }));
+          }
+          final Map<Identifier, InetSocketAddress> respMap = new HashMap<>();
+          for (final Map.Entry<Identifier, Future<InetSocketAddress>> entry : futures.entrySet()) {
+            respMap.put(entry.getKey(), entry.getValue().get());
+          }
+          Assert.assertTrue(isEqual(idToAddrMap, respMap));
+        } finally {
+          e.shutdown();
+        }
+      }
+    }
+  }
+
+  /**
+   * A subscribed NameClient drops its cached address when the identifier is registered again,
+   * long before the cache entry expires.
+   *
+   * @throws Exception
+   */
+  @Test(timeout = 30000)
+  public void testSubscribedNameClientInvalidation() throws Exception {
+
+    LOG.log(Level.FINEST, this.name.getMethodName());
+
+    final String localAddress = localAddressProvider.getLocalAddress();
+    final Injector injector = Tang.Factory.getTang().newInjector();
+    injector.bindVolatileParameter(NameServerParameters.NameServerIdentifierFactory.class, this.factory);
+    injector.bindVolatileInstance(LocalAddressProvider.class, this.localAddressProvider);
+    try (NameServer server = injector.getInstance(NameServer.class)) {
+      this.port = server.getPort();
+
+      final Identifier id = this.factory.getNewInstance("task1");
+      final InetSocketAddress addr1 = new InetSocketAddress(localAddress, 7001);
+      final InetSocketAddress addr2 = new InetSocketAddress(localAddress, 7002);
+      server.register(id, addr1);
+
+      final Configuration nameResolverConf = NameResolverConfiguration.CONF
+          .set(NameResolverConfiguration.NAME_SERVER_HOSTNAME, localAddress)
+          .set(NameResolverConfiguration.NAME_SERVICE_PORT, this.port)
+          .set(NameResolverConfiguration.CACHE_TIMEOUT, TTL)
+          .set(NameResolverConfiguration.RETRY_TIMEOUT, RETRY_TIMEOUT)
+          .set(NameResolverConfiguration.RETRY_COUNT, RETRY_COUNT)
+          .set(NameResolverConfiguration.SUBSCRIBE, true)
+          .build();
+
+      try (NameResolver client
+               = Tang.Factory.getTang().newInjector(nameResolverConf).getInstance(NameClient.class)) {
+        Assert.assertEquals(addr1, client.lookup(id));
+
+        server.register(id, addr2);
+        while (!addr2.equals(client.lookup(id))) {
+          Thread.sleep(10);
+        }
+
+        server.unregister(id);
+        // Cannot find it any more once the invalidation arrives
+        for (;;) {
+          try {
+            client.lookup(id);
+            Thread.sleep(10);
+          } catch (final Exception e) {
+            break;
+          }
+        }
+      }
+    }
+  }
+
+  /**
+   * A bulk lookup replaces the cached addresses of the identifiers it finds.
+   *
+   * @throws Exception
+   */
+  @Test(timeout = 30000)
+  public void testBulkLookupRefreshesCache() throws Exception {
+
+    LOG.log(Level.FINEST, this.name.getMethodName());
+
+    final String localAddress = localAddressProvider.getLocalAddress();
+    final Injector injector = Tang.Factory.getTang().newInjector();
+    injector.bindVolatileParameter(NameServerParameters.NameServerIdentifierFactory.class, this.factory);
+    injector.bindVolatileInstance(LocalAddressProvider.class, this.localAddressProvider);
+    try (NameServer server = injector.getInstance(NameServer.class)) {
+      this.port = server.getPort();
+
+      final Identifier id = this.factory.getNewInstance("task1");
+      final InetSocketAddress addr1 = new InetSocketAddress(localAddress, 7001);
+      final InetSocketAddress addr2 = new InetSocketAddress(localAddress, 7002);
+      server.register(id, addr1);
+
+      try (NameLookupClient client =
+               getNewNameLookupClient(localAddress, port, TTL, RETRY_COUNT, RETRY_TIMEOUT,
+                   Optional.of(this.localAddressProvider), Optional.of(this.factory))) {
+        Assert.assertEquals(addr1, client.lookup(id));
+
+        server.register(id, addr2);
+        Assert.assertEquals(addr1, client.lookup(id));
+
+        final List<NameAssignment> nas = client.lookup(Collections.singletonList(id));
+        Assert.assertEquals(1, nas.size());
+        Assert.assertEquals(addr2, nas.get(0).getAddress());
+        Assert.assertEquals(addr2, client.lookup(id));
+      }
+    }
+  }
+
+  /**
+   * A NameResolver that only implements single lookups gets bulk lookups that skip unknown identifiers.
+   *
+   * @throws Exception
+   */
+  @Test
+  public void testDefaultBulkLookup() throws Exception {
+
+    LOG.log(Level.FINEST, this.name.getMethodName());
+
+    final Map<Identifier, InetSocketAddress> addresses = new HashMap<>();
+    final Identifier id1 = this.factory.getNewInstance("task1");
+    final Identifier id2 = this.factory.getNewInstance("task2");
+    addresses.put(id1, new InetSocketAddress(localAddressProvider.getLocalAddress(), 7001));
+
+    final NameResolver resolver = new NameResolver() {
+      @Override
+      public InetSocketAddress lookup(final Identifier id) {
+        return addresses.get(id);
+      }
+
+      @Override
+      public void register(final Identifier id, final InetSocketAddress addr) {
+        addresses.put(id, addr);
+      }
+
+      @Override
+      public void unregister(final Identifier id) {
+        addresses.remove(id);
+      }
+
+      @Override
+      public void close() {
+      }
+    };
+
+    final List<NameAssignment> nas = resolver.lookup(Arrays.asList(id1, id2));
+    Assert.assertEquals(1, nas.size());
+    Assert.assertEquals(id1, nas.get(0).getIdentifier());
+    Assert.assertEquals(addresses.get(id1), nas.get(0).getAddress());
+  }
+
+  /**
+   * The name server stops pushing invalidations to a client whose connection closed without unsubscribing.
+   *
+   * @throws Exception
+   */
+  @Test(timeout = 30000)
+  public void testClosedSubscriberIsRemoved() throws Exception {
+
+    LOG.log(Level.FINEST, this.name.getMethodName());
+
+    final String localAddress = localAddressProvider.getLocalAddress();
+    final Injector injector = Tang.Factory.getTang().newInjector();
+    injector.bindVolatileParameter(NameServerParameters.NameServerIdentifierFactory.class, this.factory);
+    injector.bindVolatileInstance(LocalAddressProvider.class, this.localAddressProvider);
+    try (NameServerImpl server = (NameServerImpl) injector.getInstance(NameServer.class)) {
+      this.port = server.getPort();
+
+      final Identifier id = this.factory.getNewInstance("task1");
+      server.register(id, new InetSocketAddress(localAddress, 7001));
+
+      final NamingLookupResponseHandler replies = new NamingLookupResponseHandler();
+      final NameCache cache = new NameCache(TTL);
+      final Transport transport = Tang.Factory.getTang().newInjector().getInstance(TransportFactory.class)
+          .newInstance(localAddress, 0, new SyncStage<>(new NamingLookupClientHandler(replies,
+              new NamingInvalidationHandler(cache), NamingCodecFactory.createLookupCodec(this.factory))),
+              null, RETRY_COUNT, RETRY_TIMEOUT);
+      final NameLookupClient client = new NameLookupClient(localAddress, this.port, TTL, this.factory,
+          RETRY_COUNT, RETRY_TIMEOUT, replies, cache, true, transport);
+      client.lookup(id);
+      Assert.assertEquals(1, server.getSubscriberCount());
+
+      // The client dies without unsubscribing
+      transport.close();
+      while (server.getSubscriberCount() > 0) {
+        Thread.sleep(10);
+      }
+    }
+  }
+
+  /**
+   * A subscribed NameClient subscribes again after it reconnects to a restarted name server.
+   *
+   * @throws Exception
+   */
+  @Test(timeout = 30000)
+  public void testSubscriptionSurvivesReconnect() throws Exception {
+
+    LOG.log(Level.FINEST, this.name.getMethodName());
+
+    final String localAddress = localAddressProvider.getLocalAddress();
+    final Identifier id = this.factory.getNewInstance("task1");
+    final InetSocketAddress addr1 = new InetSocketAddress(localAddress, 7001);
+    final InetSocketAddress addr2 = new InetSocketAddress(localAddress, 7002);
+
+    final Injector injector = Tang.Factory.getTang().newInjector();
+    injector.bindVolatileParameter(NameServerParameters.NameServerIdentifierFactory.class, this.factory);
+    injector.bindVolatileInstance(LocalAddressProvider.class, this.localAddressProvider);
+    final NameServer firstServer = injector.getInstance(NameServer.class);
+    this.port = firstServer.getPort();
+    firstServer.register(id, addr1);
+
+    final Configuration nameResolverConf = NameResolverConfiguration.CONF
+        .set(NameResolverConfiguration.NAME_SERVER_HOSTNAME, localAddress)
+        .set(NameResolverConfiguration.NAME_SERVICE_PORT, this.port)
+        .set(NameResolverConfiguration.CACHE_TIMEOUT, TTL)
+        .set(NameResolverConfiguration.RETRY_TIMEOUT, RETRY_TIMEOUT)
+        .set(NameResolverConfiguration.RETRY_COUNT, RETRY_COUNT)
+        .set(NameResolverConfiguration.SUBSCRIBE, true)
+        .build();
+
+    try (NameClient client = Tang.Factory.getTang().newInjector(nameResolverConf).getInstance(NameClient.class)) {
+      Assert.assertEquals(addr1, client.lookup(id));
+      firstServer.close();
+
+      final Injector secondInjector = Tang.Factory.getTang().newInjector();
+      secondInjector.bindVolatileParameter(NameServerParameters.NameServerIdentifierFactory.class, this.factory);
+      secondInjector.bindVolatileParameter(NameServerParameters.NameServerPort.class, this.port);
+      secondInjector.bindVolatileInstance(LocalAddressProvider.class, this.localAddressProvider);
+      try (NameServerImpl server = (NameServerImpl) secondInjector.getInstance(NameServer.class)) {
+        final Identifier other = this.factory.getNewInstance("task2");
+        server.register(id, addr1);
+        server.register(other, addr1);
+
+        // The next remote lookup reconnects and subscribes to the new server
+        while (server.getSubscriberCount() == 0) {
+          try {
+            client.remoteLookup(other);
+          } catch (final Exception e) {
+            Thread.sleep(10);
+          }
+        }
+        Assert.assertEquals(addr1, client.lookup(id));
+
+        server.register(id, addr2);
+        while (!addr2.equals(client.lookup(id))) {
+          Thread.sleep(10);
+        }
+      }
+    }
+  }
+
   /**
    * NameServer and NameRegistryClient test.
    *
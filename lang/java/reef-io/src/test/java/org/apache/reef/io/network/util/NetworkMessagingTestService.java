@@ -22,6 +22,7 @@ import org.apache.reef.exception.evaluator.NetworkException;
 import org.apache.reef.io.network.Connection;
 import org.apache.reef.io.network.Message;
 import org.apache.reef.io.network.NetworkConnectionService;
+import org.apache.reef.io.network.impl.config.NetworkConnectionServiceCompactFraming;
 import org.apache.reef.io.network.impl.config.NetworkConnectionServiceIdFactory;
 import org.apache.reef.io.network.naming.NameResolverConfiguration;
 import org.apache.reef.io.network.naming.NameServer;
@@ -53,12 +54,19 @@ public final class NetworkMessagingTestService implements AutoCloseable {
   private final NameServer nameServer;
 
   public NetworkMessagingTestService(final String localAddress) throws InjectionException {
+    this(localAddress, false);
+  }
+
+  public NetworkMessagingTestService(final String localAddress, final boolean compactFraming)
+      throws InjectionException {
     // name server
     final Injector injector = Tang.Factory.getTang().newInjector();
     this.nameServer = injector.getInstance(NameServer.class);
-    final Configuration netConf = NameResolverConfiguration.CONF
+    final Configuration netConf = Tang.Factory.getTang().newConfigurationBuilder(NameResolverConfiguration.CONF
         .set(NameResolverConfiguration.NAME_SERVER_HOSTNAME, localAddress)
         .set(NameResolverConfiguration.NAME_SERVICE_PORT, nameServer.getPort())
+        .build())
+        .bindNamedParameter(NetworkConnectionServiceCompactFraming.class, Boolean.toString(compactFraming))
         .build();
 
     LOG.log(Level.FINEST, "=== Test network connection service receiver start");
@@ -21,6 +21,8 @@ package org.apache.reef.runtime.local.driver;
 import org.apache.reef.annotations.audience.DriverSide;
 import org.apache.reef.annotations.audience.Private;
 import org.apache.reef.driver.evaluator.EvaluatorProcess;
+import org.apache.reef.driver.evaluator.EvaluatorType;
+import org.apache.reef.driver.parameters.CompactEvaluatorConfiguration;
 import org.apache.reef.runtime.common.driver.api.ResourceLaunchEvent;
 import org.apache.reef.runtime.common.driver.api.ResourceReleaseEvent;
 import org.apache.reef.runtime.common.driver.api.ResourceRequestEvent;
@@ -36,6 +38,7 @@ import org.apache.reef.runtime.common.parameters.JVMHeapSlack;
 import org.apache.reef.runtime.common.utils.RemoteManager;
 import org.apache.reef.tang.annotations.Parameter;
 import org.apache.reef.tang.exceptions.BindException;
+import org.apache.reef.tang.formats.CompactConfigurationSerializer;
 import org.apache.reef.tang.formats.ConfigurationSerializer;
 import org.apache.reef.util.Optional;
 import org.apache.reef.util.logging.LoggingScope;
@@ -66,6 +69,10 @@ public final class ResourceManager {
   private final ContainerManager theContainers;
   private final EventHandler<RuntimeStatusEvent> runtimeStatusHandlerEventHandler;
   private final ConfigurationSerializer configurationSerializer;
+  /**
+   * Writes the configurations of JVM Evaluators. CLR Evaluators get the ones of configurationSerializer.
+   */
+  private final ConfigurationSerializer jvmConfigurationSerializer;
   private final RemoteManager remoteManager;
   private final REEFFileNames fileNames;
   private final double jvmHeapFactor;
@@ -80,6 +87,7 @@ public final class ResourceManager {
       final EventHandler<RuntimeStatusEvent> runtimeStatusHandlerEventHandler,
       @Parameter(JVMHeapSlack.class) final double jvmHeapSlack,
       final ConfigurationSerializer configurationSerializer,
+      @Parameter(CompactEvaluatorConfiguration.class) final boolean compactEvaluatorConfiguration,
       final RemoteManager remoteManager,
       final REEFFileNames fileNames,
       final LoggingScopeFactory loggingScopeFactory) {
@@ -88,6 +96,8 @@ public final class ResourceManager {
     this.allocationHandler = allocationHandler;
     this.runtimeStatusHandlerEventHandler = runtimeStatusHandlerEventHandler;
     this.configurationSerializer = configurationSerializer;
+    this.jvmConfigurationSerializer =
+        compactEvaluatorConfiguration ? new CompactConfigurationSerializer() : configurationSerializer;
     this.remoteManager = remoteManager;
     this.fileNames = fileNames;
     this.jvmHeapFactor = 1.0 - jvmHeapSlack;
@@ -170,8 +180,11 @@ public final class ResourceManager {
         // Make the configuration file of the evaluator.
         final File evaluatorConfigurationFile = new File(c.getFolder(), fileNames.getEvaluatorConfigurationPath());
 
+        final ConfigurationSerializer evaluatorConfigurationSerializer =
+            EvaluatorType.JVM == launchRequest.getProcess().getType()
+                ? this.jvmConfigurationSerializer : this.configurationSerializer;
         try {
-          this.configurationSerializer.toFile(launchRequest.getEvaluatorConf(), evaluatorConfigurationFile);
+          evaluatorConfigurationSerializer.toFile(launchRequest.getEvaluatorConf(), evaluatorConfigurationFile);
         } catch (final IOException | BindException e) {
           throw new RuntimeException("Unable to write configuration.", e);
         }
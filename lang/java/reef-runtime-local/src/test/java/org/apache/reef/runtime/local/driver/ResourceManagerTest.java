@@ -18,6 +18,9 @@
  */
 package org.apache.reef.runtime.local.driver;
 
+import org.apache.reef.driver.evaluator.JVMProcessFactory;
+import org.apache.reef.runtime.common.driver.api.ResourceLaunchEvent;
+import org.apache.reef.runtime.common.driver.api.ResourceLaunchEventImpl;
 import org.apache.reef.runtime.common.driver.api.ResourceRequestEvent;
 import org.apache.reef.runtime.common.driver.api.ResourceRequestEventImpl;
 import org.apache.reef.runtime.common.driver.api.RuntimeParameters;
@@ -26,27 +29,37 @@ import org.apache.reef.runtime.common.driver.resourcemanager.ResourceAllocationE
 import org.apache.reef.runtime.common.driver.resourcemanager.ResourceStatusEvent;
 import org.apache.reef.runtime.common.driver.resourcemanager.RuntimeStatusEvent;
 import org.apache.reef.runtime.common.files.REEFFileNames;
+import org.apache.reef.runtime.common.files.RuntimeClasspathProvider;
 import org.apache.reef.runtime.common.utils.RemoteManager;
+import org.apache.reef.runtime.local.LocalClasspathProvider;
 import org.apache.reef.runtime.local.client.parameters.MaxNumberOfEvaluators;
 import org.apache.reef.runtime.local.client.parameters.RackNames;
 import org.apache.reef.runtime.local.client.parameters.RootFolder;
+import org.apache.reef.tang.Configuration;
 import org.apache.reef.tang.Injector;
 import org.apache.reef.tang.JavaConfigurationBuilder;
 import org.apache.reef.tang.Tang;
 import org.apache.reef.tang.exceptions.InjectionException;
+import org.apache.reef.tang.formats.CompactConfigurationSerializer;
 import org.apache.reef.tang.formats.ConfigurationSerializer;
 import org.apache.reef.util.logging.LoggingScopeFactory;
 import org.apache.reef.wake.EventHandler;
 import org.junit.After;
 import org.junit.Assert;
 import org.junit.Before;
+import org.junit.Rule;
 import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
 import org.mockito.ArgumentCaptor;
 
+import java.io.File;
+import java.lang.reflect.Field;
 import java.lang.reflect.Method;
+import java.nio.file.Files;
 import java.util.Arrays;
 import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Set;
 
 import static org.mockito.Mockito.*;
@@ -71,6 +84,9 @@ public class ResourceManagerTest {
   private static final double JVM_HEAP_SLACK = 0.1;
   private LoggingScopeFactory loggingScopeFactory;
 
+  @Rule
+  public TemporaryFolder tempFolder = new TemporaryFolder();
+
   @SuppressWarnings("unchecked")
   @Before
   public void setUp() throws InjectionException {
@@ -110,6 +126,54 @@ public class ResourceManagerTest {
     }
   }
 
+  /**
+   * Helper method to launch an evaluator on a mock container in a temporary folder,
+   * which is put in the containers of the containerManager.
+   *
+   * @return the content of the evaluator configuration file written for the launch
+   */
+  @SuppressWarnings("unchecked")
+  private byte[] launchEvaluator(final boolean compactEvaluatorConfiguration) throws Exception {
+    containerManager = injector.getInstance(ContainerManager.class);
+    resourceManager = new ResourceManager(containerManager, mockResourceAllocationHandler, mockRuntimeStatusHandler,
+        JVM_HEAP_SLACK, configurationSerializer, compactEvaluatorConfiguration, remoteManager,
+        filenames, loggingScopeFactory);
+
+    final File folder = tempFolder.newFolder();
+    new File(folder, filenames.getEvaluatorConfigurationPath()).getParentFile().mkdirs();
+    final Container container = mock(Container.class);
+    when(container.getFolder()).thenReturn(folder);
+    final Field containers = ContainerManager.class.getDeclaredField("containers");
+    containers.setAccessible(true);
+    ((Map<String, Container>) containers.get(containerManager)).put("container", container);
+
+    final Configuration evaluatorConf = Tang.Factory.getTang().newConfigurationBuilder()
+        .bindNamedParameter(RootFolder.class, "evaluator").build();
+    final ResourceLaunchEvent launchRequest = ResourceLaunchEventImpl.newBuilder()
+        .setIdentifier("container").setRemoteId("remote").setEvaluatorConf(evaluatorConf)
+        .setProcess(Tang.Factory.getTang().newInjector(Tang.Factory.getTang().newConfigurationBuilder()
+            .bindImplementation(RuntimeClasspathProvider.class, LocalClasspathProvider.class).build())
+            .getInstance(JVMProcessFactory.class).newEvaluatorProcess())
+        .setRuntimeName(RuntimeIdentifier.RUNTIME_NAME).build();
+    resourceManager.onResourceLaunchRequest(launchRequest);
+
+    verify(container).run(anyListOf(String.class));
+    return Files.readAllBytes(new File(folder, filenames.getEvaluatorConfigurationPath()).toPath());
+  }
+
+  @Test
+  public void testDefaultEvaluatorConfigurationIsJson() throws Exception {
+    final byte[] conf = launchEvaluator(false);
+    Assert.assertFalse(CompactConfigurationSerializer.isCompact(conf));
+    Assert.assertTrue(new String(conf, "UTF-8").contains(RootFolder.class.getName()));
+  }
+
+  @Test
+  public void testCompactEvaluatorConfiguration() throws Exception {
+    final byte[] conf = launchEvaluator(true);
+    Assert.assertTrue(CompactConfigurationSerializer.isCompact(conf));
+  }
+
   @Test(expected = InjectionException.class)
   public void testInvalidRacksConfigured() throws InjectionException {
     // Given
@@ -127,7 +191,7 @@ public class ResourceManagerTest {
     containerManager = injector.getInstance(ContainerManager.class);
     sendNodeDescriptors();
     resourceManager = new ResourceManager(containerManager, mockResourceAllocationHandler, mockRuntimeStatusHandler,
-        JVM_HEAP_SLACK, configurationSerializer, remoteManager, filenames, loggingScopeFactory);
+        JVM_HEAP_SLACK, configurationSerializer, false, remoteManager, filenames, loggingScopeFactory);
     final ResourceRequestEvent request = ResourceRequestEventImpl.newBuilder().setResourceCount(1).setVirtualCores(1)
         .setMemorySize(64).build();
     // When
@@ -143,7 +207,7 @@ public class ResourceManagerTest {
     containerManager = injector.getInstance(ContainerManager.class);
     // not sending notifications, there are no available free slots in the container manager
     resourceManager = new ResourceManager(containerManager, mockResourceAllocationHandler, mockRuntimeStatusHandler,
-        JVM_HEAP_SLACK, configurationSerializer, remoteManager,
+        JVM_HEAP_SLACK, configurationSerializer, false, remoteManager,
         filenames, loggingScopeFactory);
     final ResourceRequestEvent request = ResourceRequestEventImpl.newBuilder().setResourceCount(2).setVirtualCores(1)
         .setMemorySize(64).build();
@@ -164,7 +228,7 @@ public class ResourceManagerTest {
     containerManager = injector.getInstance(ContainerManager.class); // inject containerManager with this updated info
     sendNodeDescriptors();
     resourceManager = new ResourceManager(containerManager, mockResourceAllocationHandler, mockRuntimeStatusHandler,
-        JVM_HEAP_SLACK, configurationSerializer, remoteManager,
+        JVM_HEAP_SLACK, configurationSerializer, false, remoteManager,
         filenames, loggingScopeFactory);
     final ResourceRequestEvent request = ResourceRequestEventImpl.newBuilder().setResourceCount(2).setVirtualCores(1)
         .setMemorySize(64).addRackName(availableRacks.get(0)).addRackName(availableRacks.get(1)).build();
@@ -185,7 +249,7 @@ public class ResourceManagerTest {
     containerManager = injector.getInstance(ContainerManager.class);
     sendNodeDescriptors();
     resourceManager = new ResourceManager(containerManager, mockResourceAllocationHandler, mockRuntimeStatusHandler,
-        JVM_HEAP_SLACK, configurationSerializer, remoteManager,
+        JVM_HEAP_SLACK, configurationSerializer, false, remoteManager,
         filenames, loggingScopeFactory);
     final ResourceRequestEvent request = ResourceRequestEventImpl.newBuilder().setResourceCount(2).setVirtualCores(1)
         .setMemorySize(64).build();
@@ -206,7 +270,7 @@ public class ResourceManagerTest {
     containerManager = injector.getInstance(ContainerManager.class);
     sendNodeDescriptors();
     resourceManager = new ResourceManager(containerManager, mockResourceAllocationHandler, mockRuntimeStatusHandler,
-        JVM_HEAP_SLACK, configurationSerializer, remoteManager,
+        JVM_HEAP_SLACK, configurationSerializer, false, remoteManager,
         filenames, loggingScopeFactory);
     final ResourceRequestEvent request = ResourceRequestEventImpl.newBuilder().setResourceCount(3).setVirtualCores(1)
         .setMemorySize(64).addRackName("dc1/*").addRackName("/dc2/*").build();
@@ -229,7 +293,7 @@ public class ResourceManagerTest {
     containerManager = injector.getInstance(ContainerManager.class);
     sendNodeDescriptors();
     resourceManager = new ResourceManager(containerManager, mockResourceAllocationHandler, mockRuntimeStatusHandler,
-        JVM_HEAP_SLACK, configurationSerializer, remoteManager,
+        JVM_HEAP_SLACK, configurationSerializer, false, remoteManager,
         filenames, loggingScopeFactory);
     final ResourceRequestEvent request = ResourceRequestEventImpl.newBuilder().setResourceCount(3).setVirtualCores(1)
         .setMemorySize(64).addNodeName("Node-8").build();
@@ -259,7 +323,7 @@ public class ResourceManagerTest {
     containerManager = injector.getInstance(ContainerManager.class);
     sendNodeDescriptors();
     resourceManager = new ResourceManager(containerManager, mockResourceAllocationHandler, mockRuntimeStatusHandler,
-        JVM_HEAP_SLACK, configurationSerializer, remoteManager,
+        JVM_HEAP_SLACK, configurationSerializer, false, remoteManager,
         filenames, loggingScopeFactory);
     final ResourceRequestEvent request = ResourceRequestEventImpl.newBuilder().setResourceCount(3).setVirtualCores(1)
         .setMemorySize(64).addRackName("/dc3/rack1").addRackName("/*").build();
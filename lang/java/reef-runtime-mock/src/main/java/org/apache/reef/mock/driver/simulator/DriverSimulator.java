@@ -0,0 +1,507 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.reef.mock.driver.simulator;
+
+import org.apache.reef.annotations.Unstable;
+import org.apache.reef.driver.task.TaskConfigurationOptions;
+import org.apache.reef.evaluator.context.parameters.ContextIdentifier;
+import org.apache.reef.mock.driver.simulator.parameters.*;
+import org.apache.reef.proto.EvaluatorRuntimeProtocol.ContextControlProto;
+import org.apache.reef.proto.EvaluatorRuntimeProtocol.EvaluatorControlProto;
+import org.apache.reef.proto.EvaluatorRuntimeProtocol.EvaluatorHeartbeatProto;
+import org.apache.reef.proto.EvaluatorRuntimeProtocol.TaskMessagesProto;
+import org.apache.reef.runtime.common.driver.api.*;
+import org.apache.reef.runtime.common.driver.catalog.ResourceCatalogImpl;
+import org.apache.reef.runtime.common.driver.evaluator.pojos.State;
+import org.apache.reef.runtime.common.driver.resourcemanager.*;
+import org.apache.reef.runtime.common.evaluator.parameters.InitialTaskConfiguration;
+import org.apache.reef.runtime.common.evaluator.parameters.RootContextConfiguration;
+import org.apache.reef.runtime.common.launch.REEFMessageCodec;
+import org.apache.reef.runtime.common.utils.RemoteManager;
+import org.apache.reef.tang.Injector;
+import org.apache.reef.tang.Tang;
+import org.apache.reef.tang.annotations.Name;
+import org.apache.reef.tang.annotations.Parameter;
+import org.apache.reef.tang.annotations.Unit;
+import org.apache.reef.tang.exceptions.InjectionException;
+import org.apache.reef.tang.formats.ConfigurationSerializer;
+import org.apache.reef.wake.EventHandler;
+import org.apache.reef.wake.impl.DefaultThreadFactory;
+import org.apache.reef.wake.remote.RemoteIdentifier;
+import org.apache.reef.wake.remote.RemoteIdentifierFactory;
+import org.apache.reef.wake.remote.RemoteManagerFactory;
+import org.apache.reef.wake.remote.RemoteMessage;
+import org.apache.reef.wake.time.runtime.event.RuntimeStart;
+import org.apache.reef.wake.time.runtime.event.RuntimeStop;
+
+import javax.inject.Inject;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * A resource manager runtime that simulates thousands of Evaluators in the Driver process.
+ * <p>
+ * Unlike {@link org.apache.reef.mock.driver.MockRuntime}, it runs the real Driver stack (EvaluatorManager,
+ * DriverStatusManager, DriverIdleManager, ...): the resource manager events are real, and so are the heartbeats,
+ * task messages and control messages, which go to the remote manager of the Driver over connections of their own.
+ * Only the Evaluator processes are missing. Each simulated Evaluator has a root context and at most one task,
+ * and can fail at random. Configure it with {@link SimulatorConfiguration}.
+ */
+@Unstable
+@Unit
+public final class DriverSimulator {
+
+  private static final Logger LOG = Logger.getLogger(DriverSimulator.class.getName());
+
+  /**
+   * The name of the simulated runtime.
+   */
+  public static final String RUNTIME_NAME = "SIMULATOR";
+
+  private static final String MESSAGE_SOURCE_ID = "DriverSimulator";
+  private static final int DEFAULT_MEMORY_SIZE = 512;
+  private static final int NODE_MEMORY_SIZE = 64 * 1024;
+  private static final long CLOSE_TIMEOUT = 30000;
+
+  private final EventHandler<NodeDescriptorEvent> nodeDescriptorHandler;
+  private final EventHandler<ResourceAllocationEvent> allocationHandler;
+  private final EventHandler<ResourceStatusEvent> resourceStatusHandler;
+  private final EventHandler<RuntimeStatusEvent> runtimeStatusHandler;
+  private final RemoteManager remoteManager;
+  private final RemoteManagerFactory remoteManagerFactory;
+  private final RemoteIdentifierFactory remoteIdentifierFactory;
+  private final REEFMessageCodec codec;
+  private final ConfigurationSerializer configurationSerializer;
+  private final int heartbeatPeriod;
+  private final int taskMessagePeriod;
+  private final double failureProbability;
+  private final int numberOfNodes;
+  private final int numberOfConnections;
+  private final ScheduledExecutorService executor;
+
+  /** Allocated and not released yet. */
+  private final Set<String> containers = ConcurrentHashMap.newKeySet();
+  /** Launched and not released yet. */
+  private final ConcurrentMap<String, SimulatedEvaluator> evaluators = new ConcurrentHashMap<>();
+  private final AtomicInteger outstandingRequests = new AtomicInteger(0);
+  private final AtomicInteger nextContainerId = new AtomicInteger(0);
+
+  private final AtomicLong numberOfHeartbeats = new AtomicLong(0);
+  private final AtomicLong numberOfTaskMessages = new AtomicLong(0);
+  private final AtomicLong numberOfFailures = new AtomicLong(0);
+
+  /** The simulated Evaluators share these connections to the Driver, round-robin. */
+  private final List<Connection> connections = new ArrayList<>();
+
+  @Inject
+  private DriverSimulator(
+      @Parameter(RuntimeParameters.NodeDescriptorHandler.class)
+      final EventHandler<NodeDescriptorEvent> nodeDescriptorHandler,
+      @Parameter(RuntimeParameters.ResourceAllocationHandler.class)
+      final EventHandler<ResourceAllocationEvent> allocationHandler,
+      @Parameter(RuntimeParameters.ResourceStatusHandler.class)
+      final EventHandler<ResourceStatusEvent> resourceStatusHandler,
+      @Parameter(RuntimeParameters.RuntimeStatusHandler.class)
+      final EventHandler<RuntimeStatusEvent> runtimeStatusHandler,
+      final RemoteManager remoteManager,
+      final RemoteManagerFactory remoteManagerFactory,
+      final RemoteIdentifierFactory remoteIdentifierFactory,
+      final REEFMessageCodec codec,
+      final ConfigurationSerializer configurationSerializer,
+      @Parameter(SimulatedHeartbeatPeriod.class) final int heartbeatPeriod,
+      @Parameter(SimulatedTaskMessagePeriod.class) final int taskMessagePeriod,
+      @Parameter(SimulatedFailureProbability.class) final double failureProbability,
+      @Parameter(SimulatedNodeCount.class) final int numberOfNodes,
+      @Parameter(SimulatedConnectionCount.class) final int numberOfConnections,
+      @Parameter(SimulatorThreadCount.class) final int numberOfThreads) {
+    this.nodeDescriptorHandler = nodeDescriptorHandler;
+    this.allocationHandler = allocationHandler;
+    this.resourceStatusHandler = resourceStatusHandler;
+    this.runtimeStatusHandler = runtimeStatusHandler;
+    this.remoteManager = remoteManager;
+    this.remoteManagerFactory = remoteManagerFactory;
+    this.remoteIdentifierFactory = remoteIdentifierFactory;
+    this.codec = codec;
+    this.configurationSerializer = configurationSerializer;
+    this.heartbeatPeriod = heartbeatPeriod;
+    this.taskMessagePeriod = taskMessagePeriod;
+    this.failureProbability = failureProbability;
+    this.numberOfNodes = numberOfNodes;
+    this.numberOfConnections = numberOfConnections;
+    this.executor = Executors.newScheduledThreadPool(numberOfThreads, new DefaultThreadFactory(RUNTIME_NAME));
+  }
+
+  /**
+   * @return the number of heartbeats sent by the simulated Evaluators so far.
+   */
+  public long getNumberOfHeartbeats() {
+    return this.numberOfHeartbeats.get();
+  }
+
+  /**
+   * @return the number of task messages sent by the simulated tasks so far.
+   */
+  public long getNumberOfTaskMessages() {
+    return this.numberOfTaskMessages.get();
+  }
+
+  /**
+   * @return the number of simulated Evaluator failures so far.
+   */
+  public long getNumberOfFailures() {
+    return this.numberOfFailures.get();
+  }
+
+  /**
+   * @return the number of simulated Evaluators that were launched and not released yet.
+   */
+  public int getNumberOfEvaluators() {
+    return this.evaluators.size();
+  }
+
+  /**
+   * @param message a message sent by a simulated task.
+   * @return the {@link System#nanoTime()} at which the simulator sent it.
+   */
+  public static long getSendTime(final byte[] message) {
+    return ByteBuffer.wrap(message).getLong();
+  }
+
+  private void onStart() {
+    final RemoteIdentifier driverIdentifier =
+        this.remoteIdentifierFactory.getNewInstance(this.remoteManager.getMyIdentifier());
+    final EventHandler<Throwable> errorHandler = new EventHandler<Throwable>() {
+      @Override
+      public void onNext(final Throwable throwable) {
+        LOG.log(Level.SEVERE, "Simulated Evaluator connection failed", throwable);
+      }
+    };
+    final ControlHandler controlHandler = new ControlHandler();
+    for (int i = 0; i < this.numberOfConnections; ++i) {
+      this.connections.add(new Connection(this.remoteManagerFactory.getInstance(
+          RUNTIME_NAME + "-" + i, this.codec, errorHandler), driverIdentifier, controlHandler));
+    }
+    for (int i = 0; i < this.numberOfNodes; ++i) {
+      this.nodeDescriptorHandler.onNext(NodeDescriptorEventImpl.newBuilder()
+          .setIdentifier(getNodeId(i))
+          .setHostName(getNodeId(i))
+          .setPort(0)
+          .setMemorySize(NODE_MEMORY_SIZE)
+          .setRackName(ResourceCatalogImpl.DEFAULT_RACK)
+          .build());
+    }
+    LOG.log(Level.INFO, "Simulating Evaluators over {0} connections to {1}",
+        new Object[]{this.numberOfConnections, driverIdentifier});
+  }
+
+  @SuppressWarnings("checkstyle:illegalcatch")
+  private void onStop() {
+    for (final SimulatedEvaluator evaluator : this.evaluators.values()) {
+      evaluator.stop();
+    }
+    this.executor.shutdownNow();
+
+    // Each connection takes a while to close, so close them all at once
+    final ExecutorService closer = Executors.newFixedThreadPool(
+        Math.max(1, this.connections.size()), new DefaultThreadFactory(RUNTIME_NAME + ":close"));
+    for (final Connection connection : this.connections) {
+      closer.execute(new Runnable() {
+        @Override
+        public void run() {
+          try {
+            connection.remoteManager.close();
+          } catch (final Exception e) {
+            LOG.log(Level.WARNING, "Unable to close a simulated Evaluator connection", e);
+          }
+        }
+      });
+    }
+    closer.shutdown();
+    try {
+      if (!closer.awaitTermination(CLOSE_TIMEOUT, TimeUnit.MILLISECONDS)) {
+        LOG.log(Level.WARNING, "Simulated Evaluator connections did not close in {0} ms", CLOSE_TIMEOUT);
+      }
+    } catch (final InterruptedException e) {
+      LOG.log(Level.WARNING, "Interrupted while closing the simulated Evaluator connections", e);
+      Thread.currentThread().interrupt();
+    }
+    LOG.log(Level.INFO, "Simulated {0} heartbeats, {1} task messages and {2} failures",
+        new Object[]{this.numberOfHeartbeats, this.numberOfTaskMessages, this.numberOfFailures});
+  }
+
+  private void onRequest(final ResourceRequestEvent request) {
+    final int memorySize = request.getMemorySize().orElse(DEFAULT_MEMORY_SIZE);
+    final int virtualCores = request.getVirtualCores().orElse(1);
+    this.outstandingRequests.addAndGet(request.getResourceCount());
+    // Tell the Driver right away, so that it does not go idle before the allocations
+    sendRuntimeStatus();
+    this.executor.execute(new LoggingRunnable() {
+      @Override
+      void runLogged() {
+        for (int i = 0; i < request.getResourceCount(); ++i) {
+          final int id = nextContainerId.getAndIncrement();
+          final String containerId = "SimulatedContainer-" + id;
+          containers.add(containerId);
+          outstandingRequests.decrementAndGet();
+          allocationHandler.onNext(ResourceEventImpl.newAllocationBuilder()
+              .setIdentifier(containerId)
+              .setNodeId(getNodeId(id % numberOfNodes))
+              .setResourceMemory(memorySize)
+              .setVirtualCores(virtualCores)
+              .setRackName(ResourceCatalogImpl.DEFAULT_RACK)
+              .setRuntimeName(RUNTIME_NAME)
+              .build());
+        }
+        sendRuntimeStatus();
+      }
+    });
+  }
+
+  private void onLaunch(final ResourceLaunchEvent launch) {
+    final String contextId;
+    final String taskId;
+    try {
+      final Injector injector = Tang.Factory.getTang().newInjector(launch.getEvaluatorConf());
+      contextId = getIdentifier(injector.getNamedInstance(RootContextConfiguration.class), ContextIdentifier.class);
+      taskId = injector.isParameterSet(InitialTaskConfiguration.class)
+          ? getIdentifier(injector.getNamedInstance(InitialTaskConfiguration.class),
+              TaskConfigurationOptions.Identifier.class)
+          : null;
+    } catch (final InjectionException e) {
+      throw new RuntimeException("Unable to read the configuration of Evaluator " + launch.getIdentifier(), e);
+    }
+
+    final Connection connection =
+        this.connections.get(Math.abs(launch.getIdentifier().hashCode() % this.connections.size()));
+    final SimulatedEvaluator evaluator = new SimulatedEvaluator(
+        launch.getIdentifier(), contextId, taskId, connection.heartbeatSender, connection.taskMessagesSender);
+    this.evaluators.put(evaluator.getId(), evaluator);
+
+    // Like a real Evaluator: a heartbeat as soon as it is up, and then every period, not in sync with the others.
+    final Runnable heartbeat = new LoggingRunnable() {
+      @Override
+      void runLogged() {
+        if (failureProbability > 0 && ThreadLocalRandom.current().nextDouble() < failureProbability) {
+          fail(evaluator);
+        } else if (evaluator.heartbeat()) {
+          numberOfHeartbeats.incrementAndGet();
+        }
+      }
+    };
+    this.executor.execute(heartbeat);
+    evaluator.addSchedule(this.executor.scheduleAtFixedRate(heartbeat,
+        ThreadLocalRandom.current().nextInt(this.heartbeatPeriod) + 1, this.heartbeatPeriod, TimeUnit.MILLISECONDS));
+
+    if (this.taskMessagePeriod > 0) {
+      evaluator.addSchedule(this.executor.scheduleAtFixedRate(new LoggingRunnable() {
+        @Override
+        void runLogged() {
+          final byte[] message = ByteBuffer.allocate(Long.SIZE / Byte.SIZE).putLong(System.nanoTime()).array();
+          if (evaluator.sendTaskMessage(MESSAGE_SOURCE_ID, message)) {
+            numberOfTaskMessages.incrementAndGet();
+          }
+        }
+      }, ThreadLocalRandom.current().nextInt(this.taskMessagePeriod) + 1, this.taskMessagePeriod,
+          TimeUnit.MILLISECONDS));
+    }
+  }
+
+  private void onRelease(final ResourceReleaseEvent release) {
+    final SimulatedEvaluator evaluator = this.evaluators.remove(release.getIdentifier());
+    if (evaluator != null) {
+      evaluator.stop();
+    }
+    this.containers.remove(release.getIdentifier());
+    sendRuntimeStatus();
+  }
+
+  /**
+   * Makes the evaluator fail as if its process had crashed.
+   */
+  private void fail(final SimulatedEvaluator evaluator) {
+    if (!evaluator.stop()) {
+      return;
+    }
+    this.numberOfFailures.incrementAndGet();
+    LOG.log(Level.FINE, "Simulating the failure of Evaluator {0}", evaluator.getId());
+    this.resourceStatusHandler.onNext(ResourceStatusEventImpl.newBuilder()
+        .setIdentifier(evaluator.getId())
+        .setState(State.FAILED)
+        .setExitCode(1)
+        .setDiagnostics("Simulated failure")
+        .setRuntimeName(RUNTIME_NAME)
+        .build());
+  }
+
+  private void sendRuntimeStatus() {
+    final RuntimeStatusEventImpl.Builder builder = RuntimeStatusEventImpl.newBuilder()
+        .setName(RUNTIME_NAME)
+        .setState(State.RUNNING)
+        .setOutstandingContainerRequests(this.outstandingRequests.get());
+    for (final String containerId : this.containers) {
+      builder.addContainerAllocation(containerId);
+    }
+    this.runtimeStatusHandler.onNext(builder.build());
+  }
+
+  private static String getNodeId(final int node) {
+    return "SimulatedNode-" + node;
+  }
+
+  private String getIdentifier(final String configuration, final Class<? extends Name<String>> identifier)
+      throws InjectionException {
+    try {
+      return Tang.Factory.getTang().newInjector(this.configurationSerializer.fromString(configuration))
+          .getNamedInstance(identifier);
+    } catch (final IOException e) {
+      throw new RuntimeException("Unable to parse a configuration", e);
+    }
+  }
+
+  /**
+   * A connection to the Driver, as an Evaluator process would have.
+   */
+  private static final class Connection {
+
+    private final org.apache.reef.wake.remote.RemoteManager remoteManager;
+    private final EventHandler<EvaluatorHeartbeatProto> heartbeatSender;
+    private final EventHandler<TaskMessagesProto> taskMessagesSender;
+
+    Connection(final org.apache.reef.wake.remote.RemoteManager remoteManager,
+               final RemoteIdentifier driverIdentifier,
+               final EventHandler<RemoteMessage<EvaluatorControlProto>> controlHandler) {
+      this.remoteManager = remoteManager;
+      this.heartbeatSender = remoteManager.getHandler(driverIdentifier, EvaluatorHeartbeatProto.class);
+      this.taskMessagesSender = remoteManager.getHandler(driverIdentifier, TaskMessagesProto.class);
+      remoteManager.registerHandler(EvaluatorControlProto.class, controlHandler);
+    }
+  }
+
+  /**
+   * Logs the exceptions that the executor would swallow, and that would cancel a periodic task silently.
+   */
+  private abstract static class LoggingRunnable implements Runnable {
+
+    abstract void runLogged();
+
+    @Override
+    @SuppressWarnings("checkstyle:illegalcatch")
+    public final void run() {
+      try {
+        runLogged();
+      } catch (final RuntimeException e) {
+        LOG.log(Level.SEVERE, "Simulator task failed", e);
+        throw e;
+      }
+    }
+  }
+
+  /**
+   * Handles the control messages the Driver sends to the simulated Evaluators.
+   */
+  final class ControlHandler implements EventHandler<RemoteMessage<EvaluatorControlProto>> {
+    @Override
+    public void onNext(final RemoteMessage<EvaluatorControlProto> message) {
+      final EvaluatorControlProto control = message.getMessage();
+      final SimulatedEvaluator evaluator = evaluators.get(control.getIdentifier());
+      if (evaluator == null) {
+        LOG.log(Level.FINE, "Ignoring a control message to unknown Evaluator {0}", control.getIdentifier());
+        return;
+      }
+      if (control.hasKillEvaluator() || control.hasStopEvaluator() || control.hasDoneEvaluator()) {
+        evaluator.stop();
+      } else if (control.hasContextControl()) {
+        final ContextControlProto contextControl = control.getContextControl();
+        if (contextControl.hasStartTask()) {
+          try {
+            evaluator.startTask(getIdentifier(contextControl.getStartTask().getConfiguration(),
+                TaskConfigurationOptions.Identifier.class));
+          } catch (final InjectionException e) {
+            throw new RuntimeException("Unable to read the task configuration of Evaluator " + evaluator.getId(), e);
+          }
+        } else if (contextControl.hasStopTask()) {
+          evaluator.stopTask();
+        } else if (contextControl.hasRemoveContext()) {
+          evaluator.close();
+        } else {
+          LOG.log(Level.WARNING, "Simulated Evaluator {0} ignores context control message {1}",
+              new Object[]{evaluator.getId(), contextControl});
+        }
+      }
+    }
+  }
+
+  /**
+   * Starts the simulator with the Driver.
+   */
+  public final class StartHandler implements ResourceManagerStartHandler {
+    @Override
+    public void onNext(final RuntimeStart runtimeStart) {
+      onStart();
+    }
+  }
+
+  /**
+   * Stops all the simulated Evaluators with the Driver.
+   */
+  public final class StopHandler implements ResourceManagerStopHandler {
+    @Override
+    public void onNext(final RuntimeStop runtimeStop) {
+      onStop();
+    }
+  }
+
+  /**
+   * Allocates simulated containers, right away.
+   */
+  public final class RequestHandler implements ResourceRequestHandler {
+    @Override
+    public void onNext(final ResourceRequestEvent request) {
+      onRequest(request);
+    }
+  }
+
+  /**
+   * Starts a simulated Evaluator in a container.
+   */
+  public final class LaunchHandler implements ResourceLaunchHandler {
+    @Override
+    public void onNext(final ResourceLaunchEvent launch) {
+      onLaunch(launch);
+    }
+  }
+
+  /**
+   * Stops the simulated Evaluator of a container, if any, and releases the container.
+   */
+  public final class ReleaseHandler implements ResourceReleaseHandler {
+    @Override
+    public void onNext(final ResourceReleaseEvent release) {
+      onRelease(release);
+    }
+  }
+}
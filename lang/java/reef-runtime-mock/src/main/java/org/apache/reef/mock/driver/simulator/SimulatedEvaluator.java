@@ -0,0 +1,199 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.reef.mock.driver.simulator;
+
+import com.google.protobuf.ByteString;
+import org.apache.reef.proto.EvaluatorRuntimeProtocol.EvaluatorHeartbeatProto;
+import org.apache.reef.proto.EvaluatorRuntimeProtocol.TaskMessagesProto;
+import org.apache.reef.proto.ReefServiceProtos;
+import org.apache.reef.proto.ReefServiceProtos.ContextStatusProto;
+import org.apache.reef.proto.ReefServiceProtos.State;
+import org.apache.reef.wake.EventHandler;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Future;
+
+/**
+ * An Evaluator of the {@link DriverSimulator}: sends the heartbeats and task messages
+ * a real Evaluator with a single root context would send, without running anything.
+ */
+final class SimulatedEvaluator {
+
+  private final String evaluatorId;
+  private final String contextId;
+  private final EventHandler<EvaluatorHeartbeatProto> heartbeatHandler;
+  private final EventHandler<TaskMessagesProto> taskMessagesHandler;
+
+  /** Timestamp of the last heartbeat, to keep them increasing. Guarded by this. */
+  private long lastTimestamp = 0;
+
+  /** Identifier of the running task, if any. Guarded by this. */
+  private String taskId;
+
+  /** Whether the Driver knows about the task yet. Guarded by this. */
+  private boolean taskReported = false;
+
+  /** Guarded by this. */
+  private boolean stopped = false;
+
+  /** The periodic heartbeats and task messages of this evaluator. Guarded by this. */
+  private final List<Future<?>> schedules = new ArrayList<>();
+
+  SimulatedEvaluator(final String evaluatorId, final String contextId, final String taskId,
+                     final EventHandler<EvaluatorHeartbeatProto> heartbeatHandler,
+                     final EventHandler<TaskMessagesProto> taskMessagesHandler) {
+    this.evaluatorId = evaluatorId;
+    this.contextId = contextId;
+    this.taskId = taskId;
+    this.heartbeatHandler = heartbeatHandler;
+    this.taskMessagesHandler = taskMessagesHandler;
+  }
+
+  String getId() {
+    return this.evaluatorId;
+  }
+
+  /**
+   * Keeps a periodic heartbeat or task message, to cancel it when the evaluator stops.
+   */
+  synchronized void addSchedule(final Future<?> schedule) {
+    if (this.stopped) {
+      schedule.cancel(false);
+    } else {
+      this.schedules.add(schedule);
+    }
+  }
+
+  /**
+   * Sends a heartbeat with the evaluator RUNNING, its root context READY and its task RUNNING, if any.
+   * Like a real Evaluator, reports a new task as INIT first.
+   * @return false if the evaluator has stopped.
+   */
+  synchronized boolean heartbeat() {
+    if (this.stopped) {
+      return false;
+    }
+    if (this.taskId == null) {
+      this.heartbeatHandler.onNext(newHeartbeat(State.RUNNING, ContextStatusProto.State.READY).build());
+      return true;
+    }
+    if (!this.taskReported) {
+      this.heartbeatHandler.onNext(newTaskHeartbeat(State.INIT));
+      this.taskReported = true;
+    }
+    this.heartbeatHandler.onNext(newTaskHeartbeat(State.RUNNING));
+    return true;
+  }
+
+  /**
+   * Starts a task on the root context.
+   */
+  synchronized void startTask(final String newTaskId) {
+    this.taskId = newTaskId;
+    this.taskReported = false;
+    heartbeat();
+  }
+
+  /**
+   * Completes the running task, if any.
+   */
+  synchronized void stopTask() {
+    if (this.stopped || this.taskId == null) {
+      return;
+    }
+    this.heartbeatHandler.onNext(newTaskHeartbeat(State.DONE));
+    this.taskId = null;
+  }
+
+  /**
+   * Closes the root context, which shuts the evaluator down cleanly.
+   */
+  synchronized void close() {
+    if (this.stopped) {
+      return;
+    }
+    this.heartbeatHandler.onNext(newHeartbeat(State.DONE, ContextStatusProto.State.DONE).build());
+    stop();
+  }
+
+  /**
+   * Sends a message from the running task, if any, outside of the heartbeats.
+   * @return false if the evaluator has stopped.
+   */
+  boolean sendTaskMessage(final String sourceId, final byte[] message) {
+    final String currentTaskId;
+    synchronized (this) {
+      if (this.stopped) {
+        return false;
+      }
+      currentTaskId = this.taskId;
+    }
+    if (currentTaskId != null) {
+      this.taskMessagesHandler.onNext(TaskMessagesProto.newBuilder()
+          .setTimestamp(System.currentTimeMillis())
+          .setEvaluatorId(this.evaluatorId)
+          .setContextId(this.contextId)
+          .setTaskId(currentTaskId)
+          .addTaskMessage(ReefServiceProtos.TaskStatusProto.TaskMessageProto.newBuilder()
+              .setSourceId(sourceId)
+              .setMessage(ByteString.copyFrom(message)))
+          .build());
+    }
+    return true;
+  }
+
+  /**
+   * Stops sending anything, as if the process was gone.
+   * @return false if the evaluator had stopped already.
+   */
+  synchronized boolean stop() {
+    if (this.stopped) {
+      return false;
+    }
+    this.stopped = true;
+    for (final Future<?> schedule : this.schedules) {
+      schedule.cancel(false);
+    }
+    this.schedules.clear();
+    return true;
+  }
+
+  private EvaluatorHeartbeatProto newTaskHeartbeat(final State taskState) {
+    return newHeartbeat(State.RUNNING, ContextStatusProto.State.READY)
+        .setTaskStatus(ReefServiceProtos.TaskStatusProto.newBuilder()
+            .setTaskId(this.taskId)
+            .setContextId(this.contextId)
+            .setState(taskState))
+        .build();
+  }
+
+  private EvaluatorHeartbeatProto.Builder newHeartbeat(final State evaluatorState,
+                                                       final ContextStatusProto.State contextState) {
+    this.lastTimestamp = Math.max(this.lastTimestamp + 1, System.currentTimeMillis());
+    return EvaluatorHeartbeatProto.newBuilder()
+        .setTimestamp(this.lastTimestamp)
+        .setEvaluatorStatus(ReefServiceProtos.EvaluatorStatusProto.newBuilder()
+            .setEvaluatorId(this.evaluatorId)
+            .setState(evaluatorState))
+        .addContextStatus(ContextStatusProto.newBuilder()
+            .setContextId(this.contextId)
+            .setContextState(contextState));
+  }
+}
@@ -0,0 +1,55 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.reef.mock.driver.simulator;
+
+import org.apache.reef.runtime.common.files.RuntimeClasspathProvider;
+
+import javax.inject.Inject;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * The simulated Evaluators run no code, so they need no classpath.
+ */
+final class SimulatorClasspathProvider implements RuntimeClasspathProvider {
+
+  @Inject
+  private SimulatorClasspathProvider() {
+  }
+
+  @Override
+  public List<String> getDriverClasspathPrefix() {
+    return Collections.emptyList();
+  }
+
+  @Override
+  public List<String> getDriverClasspathSuffix() {
+    return Collections.emptyList();
+  }
+
+  @Override
+  public List<String> getEvaluatorClasspathPrefix() {
+    return Collections.emptyList();
+  }
+
+  @Override
+  public List<String> getEvaluatorClasspathSuffix() {
+    return Collections.emptyList();
+  }
+}
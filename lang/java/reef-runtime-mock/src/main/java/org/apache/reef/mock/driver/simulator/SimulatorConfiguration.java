@@ -0,0 +1,101 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.reef.mock.driver.simulator;
+
+import org.apache.reef.annotations.Unstable;
+import org.apache.reef.mock.driver.simulator.parameters.*;
+import org.apache.reef.runtime.common.driver.api.*;
+import org.apache.reef.runtime.common.driver.parameters.ClientRemoteIdentifier;
+import org.apache.reef.runtime.common.driver.parameters.DefinedRuntimes;
+import org.apache.reef.runtime.common.driver.parameters.JobIdentifier;
+import org.apache.reef.runtime.common.files.RuntimeClasspathProvider;
+import org.apache.reef.runtime.common.launch.REEFMessageCodec;
+import org.apache.reef.runtime.common.launch.parameters.ErrorHandlerRID;
+import org.apache.reef.runtime.common.launch.parameters.LaunchID;
+import org.apache.reef.tang.formats.ConfigurationModule;
+import org.apache.reef.tang.formats.ConfigurationModuleBuilder;
+import org.apache.reef.tang.formats.OptionalParameter;
+import org.apache.reef.tang.formats.RequiredParameter;
+import org.apache.reef.wake.remote.RemoteConfiguration;
+
+/**
+ * Configures the {@link DriverSimulator} as the runtime of a Driver that runs in-process, e.g.
+ * {@code REEFEnvironment.fromConfiguration(SimulatorConfiguration.CONF.set(...).build(), driverConfiguration).run()}.
+ */
+@Unstable
+public final class SimulatorConfiguration extends ConfigurationModuleBuilder {
+
+  /**
+   * The identifier of the simulated job.
+   */
+  public static final RequiredParameter<String> JOB_IDENTIFIER = new RequiredParameter<>();
+
+  /**
+   * Period of the heartbeats of each simulated Evaluator, in milliseconds.
+   */
+  public static final OptionalParameter<Integer> HEARTBEAT_PERIOD = new OptionalParameter<>();
+
+  /**
+   * Period of the task messages of each simulated task, in milliseconds. No task messages by default.
+   */
+  public static final OptionalParameter<Integer> TASK_MESSAGE_PERIOD = new OptionalParameter<>();
+
+  /**
+   * Probability that a simulated Evaluator fails at each heartbeat. No failures by default.
+   */
+  public static final OptionalParameter<Double> FAILURE_PROBABILITY = new OptionalParameter<>();
+
+  /**
+   * Number of nodes the simulated Evaluators are spread over.
+   */
+  public static final OptionalParameter<Integer> NUMBER_OF_NODES = new OptionalParameter<>();
+
+  /**
+   * Number of connections the simulated Evaluators share to talk to the Driver. A real Evaluator has one of its own,
+   * but the messages of each connection are handled in order, one at a time.
+   */
+  public static final OptionalParameter<Integer> NUMBER_OF_CONNECTIONS = new OptionalParameter<>();
+
+  /**
+   * Number of threads that simulate the Evaluators.
+   */
+  public static final OptionalParameter<Integer> NUMBER_OF_THREADS = new OptionalParameter<>();
+
+  public static final ConfigurationModule CONF = new SimulatorConfiguration()
+      .bindImplementation(ResourceLaunchHandler.class, DriverSimulator.LaunchHandler.class)
+      .bindImplementation(ResourceRequestHandler.class, DriverSimulator.RequestHandler.class)
+      .bindImplementation(ResourceReleaseHandler.class, DriverSimulator.ReleaseHandler.class)
+      .bindImplementation(ResourceManagerStartHandler.class, DriverSimulator.StartHandler.class)
+      .bindImplementation(ResourceManagerStopHandler.class, DriverSimulator.StopHandler.class)
+      .bindImplementation(RuntimeClasspathProvider.class, SimulatorClasspathProvider.class)
+      .bindNamedParameter(ClientRemoteIdentifier.class, ClientRemoteIdentifier.NONE)
+      .bindNamedParameter(ErrorHandlerRID.class, ClientRemoteIdentifier.NONE)
+      .bindNamedParameter(JobIdentifier.class, JOB_IDENTIFIER)
+      .bindNamedParameter(LaunchID.class, JOB_IDENTIFIER)
+      .bindSetEntry(DefinedRuntimes.class, DriverSimulator.RUNTIME_NAME)
+      .bindNamedParameter(RemoteConfiguration.ManagerName.class, DriverSimulator.RUNTIME_NAME)
+      .bindNamedParameter(RemoteConfiguration.MessageCodec.class, REEFMessageCodec.class)
+      .bindNamedParameter(SimulatedHeartbeatPeriod.class, HEARTBEAT_PERIOD)
+      .bindNamedParameter(SimulatedTaskMessagePeriod.class, TASK_MESSAGE_PERIOD)
+      .bindNamedParameter(SimulatedFailureProbability.class, FAILURE_PROBABILITY)
+      .bindNamedParameter(SimulatedNodeCount.class, NUMBER_OF_NODES)
+      .bindNamedParameter(SimulatedConnectionCount.class, NUMBER_OF_CONNECTIONS)
+      .bindNamedParameter(SimulatorThreadCount.class, NUMBER_OF_THREADS)
+      .build();
+}
@@ -0,0 +1,95 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.reef.mock.driver.simulator;
+
+import org.apache.reef.client.DriverConfiguration;
+import org.apache.reef.proto.ReefServiceProtos;
+import org.apache.reef.runtime.common.REEFEnvironment;
+import org.apache.reef.tang.Configuration;
+import org.apache.reef.tang.Tang;
+import org.apache.reef.tang.exceptions.InjectionException;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Loads the Driver stack with thousands of simulated Evaluators that heartbeat, send task messages and fail,
+ * and reports the events/s the Driver handles, the latency of the task messages, the heap and the lock contention.
+ * <p>
+ * Run with {@code java -cp <test classpath> org.apache.reef.mock.driver.simulator.DriverScaleBenchmark
+ * [evaluators] [seconds] [heartbeat period ms] [task message period ms] [failure probability per heartbeat]}.
+ */
+public final class DriverScaleBenchmark {
+
+  private static final int EVALUATORS_PER_NODE = 16;
+
+  /** Each run needs a Driver identifier of its own, as parts of the Driver are singletons per identifier. */
+  private static final AtomicInteger NUMBER_OF_RUNS = new AtomicInteger(0);
+
+  private DriverScaleBenchmark() {
+  }
+
+  public static void main(final String[] args) throws InjectionException {
+    final int evaluators = args.length > 0 ? Integer.parseInt(args[0]) : 1000;
+    final int seconds = args.length > 1 ? Integer.parseInt(args[1]) : 30;
+    final int heartbeatPeriod = args.length > 2 ? Integer.parseInt(args[2]) : 1000;
+    final int taskMessagePeriod = args.length > 3 ? Integer.parseInt(args[3]) : 1000;
+    final double failureProbability = args.length > 4 ? Double.parseDouble(args[4]) : 0.0;
+
+    final ReefServiceProtos.JobStatusProto status =
+        run(evaluators, seconds * 1000, heartbeatPeriod, taskMessagePeriod, failureProbability);
+    System.out.println("Job status: " + status.getState());
+  }
+
+  /**
+   * Runs the {@link ScaleDriver} on simulated Evaluators until the end of the measurement.
+   * @return the final status of the job.
+   */
+  static ReefServiceProtos.JobStatusProto run(final int evaluators, final int measurementPeriod,
+                                              final int heartbeatPeriod, final int taskMessagePeriod,
+                                              final double failureProbability) throws InjectionException {
+    final Configuration runtimeConfiguration = SimulatorConfiguration.CONF
+        .set(SimulatorConfiguration.JOB_IDENTIFIER, "DriverScaleBenchmark")
+        .set(SimulatorConfiguration.HEARTBEAT_PERIOD, heartbeatPeriod)
+        .set(SimulatorConfiguration.TASK_MESSAGE_PERIOD, taskMessagePeriod)
+        .set(SimulatorConfiguration.FAILURE_PROBABILITY, failureProbability)
+        .set(SimulatorConfiguration.NUMBER_OF_NODES, Math.max(1, evaluators / EVALUATORS_PER_NODE))
+        .build();
+
+    final Configuration driverConfiguration = DriverConfiguration.CONF
+        .set(DriverConfiguration.DRIVER_IDENTIFIER, "DriverScaleBenchmark-" + NUMBER_OF_RUNS.incrementAndGet())
+        .set(DriverConfiguration.ON_DRIVER_STARTED, ScaleDriver.StartHandler.class)
+        .set(DriverConfiguration.ON_DRIVER_STOP, ScaleDriver.StopHandler.class)
+        .set(DriverConfiguration.ON_EVALUATOR_ALLOCATED, ScaleDriver.EvaluatorAllocatedHandler.class)
+        .set(DriverConfiguration.ON_EVALUATOR_FAILED, ScaleDriver.EvaluatorFailedHandler.class)
+        .set(DriverConfiguration.ON_TASK_RUNNING, ScaleDriver.TaskRunningHandler.class)
+        .set(DriverConfiguration.ON_TASK_MESSAGE, ScaleDriver.TaskMessageHandler.class)
+        .build();
+
+    final Configuration benchmarkConfiguration = Tang.Factory.getTang().newConfigurationBuilder()
+        .bindNamedParameter(ScaleDriver.NumberOfEvaluators.class, Integer.toString(evaluators))
+        .bindNamedParameter(ScaleDriver.MeasurementPeriod.class, Integer.toString(measurementPeriod))
+        .build();
+
+    try (REEFEnvironment reef = REEFEnvironment.fromConfiguration(
+        runtimeConfiguration, driverConfiguration, benchmarkConfiguration)) {
+      reef.run();
+      return reef.getLastStatus();
+    }
+  }
+}
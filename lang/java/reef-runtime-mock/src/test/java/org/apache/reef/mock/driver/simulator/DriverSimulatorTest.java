@@ -0,0 +1,45 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.reef.mock.driver.simulator;
+
+import org.apache.reef.proto.ReefServiceProtos;
+import org.junit.Assert;
+import org.junit.Test;
+
+/**
+ * Runs a Driver on a few simulated Evaluators.
+ */
+public final class DriverSimulatorTest {
+
+  /**
+   * All the tasks run, send messages and complete, and the Driver exits cleanly.
+   */
+  @Test(timeout = 60000)
+  public void testTasksRunAndComplete() throws Exception {
+    Assert.assertEquals(ReefServiceProtos.State.DONE, DriverScaleBenchmark.run(20, 1000, 100, 50, 0.0).getState());
+  }
+
+  /**
+   * The Driver replaces the simulated Evaluators that fail and still exits cleanly.
+   */
+  @Test(timeout = 60000)
+  public void testFailedEvaluatorsAreReplaced() throws Exception {
+    Assert.assertEquals(ReefServiceProtos.State.DONE, DriverScaleBenchmark.run(20, 1000, 50, 0, 0.02).getState());
+  }
+}
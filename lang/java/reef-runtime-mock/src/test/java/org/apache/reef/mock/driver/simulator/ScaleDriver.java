@@ -0,0 +1,271 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.reef.mock.driver.simulator;
+
+import org.apache.reef.driver.context.ContextConfiguration;
+import org.apache.reef.driver.evaluator.AllocatedEvaluator;
+import org.apache.reef.driver.evaluator.EvaluatorRequest;
+import org.apache.reef.driver.evaluator.EvaluatorRequestor;
+import org.apache.reef.driver.evaluator.FailedEvaluator;
+import org.apache.reef.driver.task.RunningTask;
+import org.apache.reef.driver.task.TaskConfiguration;
+import org.apache.reef.driver.task.TaskMessage;
+import org.apache.reef.tang.annotations.Name;
+import org.apache.reef.tang.annotations.NamedParameter;
+import org.apache.reef.tang.annotations.Parameter;
+import org.apache.reef.tang.annotations.Unit;
+import org.apache.reef.task.Task;
+import org.apache.reef.wake.EventHandler;
+import org.apache.reef.wake.metrics.LogLinearHistogram;
+import org.apache.reef.wake.time.Clock;
+import org.apache.reef.wake.time.event.Alarm;
+import org.apache.reef.wake.time.event.StartTime;
+import org.apache.reef.wake.time.event.StopTime;
+
+import javax.inject.Inject;
+import java.lang.management.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * A Driver that keeps a task running on each of many simulated Evaluators, replaces the ones that fail,
+ * and reports the throughput, latency, heap and lock contention of the Driver over a measurement window.
+ * The window starts once all the tasks are running; at its end, the Driver closes all the tasks and exits.
+ */
+@Unit
+public final class ScaleDriver {
+
+  @NamedParameter(doc = "Number of Evaluators to keep running.")
+  static final class NumberOfEvaluators implements Name<Integer> {
+  }
+
+  @NamedParameter(doc = "Length of the measurement window, in milliseconds.")
+  static final class MeasurementPeriod implements Name<Integer> {
+  }
+
+  private final int numberOfEvaluators;
+  private final int measurementPeriod;
+  private final EvaluatorRequestor requestor;
+  private final Clock clock;
+  private final DriverSimulator simulator;
+
+  private final ConcurrentMap<String, RunningTask> runningTasks = new ConcurrentHashMap<>();
+  private final AtomicInteger numberOfTasksStarted = new AtomicInteger(0);
+  private final AtomicLong numberOfTaskMessages = new AtomicLong(0);
+  private final AtomicLong numberOfFailures = new AtomicLong(0);
+  private final LogLinearHistogram taskMessageLatency = new LogLinearHistogram();
+
+  /** Set at the end of the measurement window. */
+  private volatile boolean closing = false;
+
+  // At the start of the measurement window
+  private long measurementStart;
+  private long startHeartbeats;
+  private long startTaskMessages;
+  private long startBlockedCount;
+  private long startBlockedTime;
+
+  @Inject
+  private ScaleDriver(@Parameter(NumberOfEvaluators.class) final int numberOfEvaluators,
+                      @Parameter(MeasurementPeriod.class) final int measurementPeriod,
+                      final EvaluatorRequestor requestor,
+                      final Clock clock,
+                      final DriverSimulator simulator) {
+    this.numberOfEvaluators = numberOfEvaluators;
+    this.measurementPeriod = measurementPeriod;
+    this.requestor = requestor;
+    this.clock = clock;
+    this.simulator = simulator;
+  }
+
+  private void request(final int number) {
+    this.requestor.submit(EvaluatorRequest.newBuilder().setNumber(number).setMemory(64).setNumberOfCores(1).build());
+  }
+
+  private synchronized void startMeasurement() {
+    final ThreadMXBean threads = ManagementFactory.getThreadMXBean();
+    if (threads.isThreadContentionMonitoringSupported()) {
+      threads.setThreadContentionMonitoringEnabled(true);
+    }
+    for (final MemoryPoolMXBean pool : ManagementFactory.getMemoryPoolMXBeans()) {
+      pool.resetPeakUsage();
+    }
+    this.taskMessageLatency.reset();
+    this.startBlockedCount = getBlockedCount();
+    this.startBlockedTime = getBlockedTime();
+    this.startHeartbeats = this.simulator.getNumberOfHeartbeats();
+    this.startTaskMessages = this.numberOfTaskMessages.get();
+    this.measurementStart = System.nanoTime();
+
+    this.clock.scheduleAlarm(this.measurementPeriod, new EventHandler<Alarm>() {
+      @Override
+      public void onNext(final Alarm alarm) {
+        report();
+        closing = true;
+        for (final RunningTask task : runningTasks.values()) {
+          task.close();
+        }
+      }
+    });
+  }
+
+  private synchronized void report() {
+    final double seconds = (System.nanoTime() - this.measurementStart) / 1e9;
+    final long heartbeats = this.simulator.getNumberOfHeartbeats() - this.startHeartbeats;
+    final long taskMessages = this.numberOfTaskMessages.get() - this.startTaskMessages;
+
+    long peakHeap = 0;
+    for (final MemoryPoolMXBean pool : ManagementFactory.getMemoryPoolMXBeans()) {
+      if (pool.getType() == MemoryType.HEAP) {
+        peakHeap += pool.getPeakUsage().getUsed();
+      }
+    }
+
+    System.out.println(String.format(
+        "%d evaluators: %.0f events/s (%.0f heartbeats/s, %.0f task messages/s), %d failures, " +
+        "task message latency p50 %.2f ms p99 %.2f ms p99.9 %.2f ms, peak heap %d MB, used heap %d MB, " +
+        "%d blocked (%d ms)",
+        this.simulator.getNumberOfEvaluators(), (heartbeats + taskMessages) / seconds, heartbeats / seconds,
+        taskMessages / seconds, this.numberOfFailures.get(),
+        this.taskMessageLatency.getPercentile(50) / 1e6, this.taskMessageLatency.getPercentile(99) / 1e6,
+        this.taskMessageLatency.getPercentile(99.9) / 1e6, peakHeap >> 20,
+        ManagementFactory.getMemoryMXBean().getHeapMemoryUsage().getUsed() >> 20,
+        getBlockedCount() - this.startBlockedCount, getBlockedTime() - this.startBlockedTime));
+  }
+
+  private static long getBlockedCount() {
+    long count = 0;
+    for (final ThreadInfo info : ManagementFactory.getThreadMXBean().dumpAllThreads(false, false)) {
+      count += info.getBlockedCount();
+    }
+    return count;
+  }
+
+  private static long getBlockedTime() {
+    long time = 0;
+    for (final ThreadInfo info : ManagementFactory.getThreadMXBean().dumpAllThreads(false, false)) {
+      time += Math.max(0, info.getBlockedTime());
+    }
+    return time;
+  }
+
+  /**
+   * Requests all the Evaluators.
+   */
+  public final class StartHandler implements EventHandler<StartTime> {
+    @Override
+    public void onNext(final StartTime startTime) {
+      request(numberOfEvaluators);
+    }
+  }
+
+  /**
+   * Fails the job if the Driver stops before the end of the measurement.
+   */
+  public final class StopHandler implements EventHandler<StopTime> {
+    @Override
+    public void onNext(final StopTime stopTime) {
+      if (!closing) {
+        throw new IllegalStateException("The Driver stopped before the end of the measurement");
+      }
+    }
+  }
+
+  /**
+   * Submits a task to the allocated Evaluator.
+   */
+  public final class EvaluatorAllocatedHandler implements EventHandler<AllocatedEvaluator> {
+    @Override
+    public void onNext(final AllocatedEvaluator allocatedEvaluator) {
+      if (closing) {
+        allocatedEvaluator.close();
+        return;
+      }
+      allocatedEvaluator.submitContextAndTask(
+          ContextConfiguration.CONF
+              .set(ContextConfiguration.IDENTIFIER, "Context-" + allocatedEvaluator.getId())
+              .build(),
+          TaskConfiguration.CONF
+              .set(TaskConfiguration.IDENTIFIER, "Task-" + allocatedEvaluator.getId())
+              .set(TaskConfiguration.TASK, SimulatedTask.class)
+              .build());
+    }
+  }
+
+  /**
+   * Starts the measurement once all the tasks are running.
+   */
+  public final class TaskRunningHandler implements EventHandler<RunningTask> {
+    @Override
+    public void onNext(final RunningTask runningTask) {
+      if (closing) {
+        runningTask.close();
+        return;
+      }
+      runningTasks.put(runningTask.getId(), runningTask);
+      if (numberOfTasksStarted.incrementAndGet() == numberOfEvaluators) {
+        startMeasurement();
+      }
+    }
+  }
+
+  /**
+   * Records the latency of the task message.
+   */
+  public final class TaskMessageHandler implements EventHandler<TaskMessage> {
+    @Override
+    public void onNext(final TaskMessage taskMessage) {
+      taskMessageLatency.update(System.nanoTime() - DriverSimulator.getSendTime(taskMessage.get()));
+      numberOfTaskMessages.incrementAndGet();
+    }
+  }
+
+  /**
+   * Replaces the failed Evaluator.
+   */
+  public final class EvaluatorFailedHandler implements EventHandler<FailedEvaluator> {
+    @Override
+    public void onNext(final FailedEvaluator failedEvaluator) {
+      numberOfFailures.incrementAndGet();
+      if (failedEvaluator.getFailedTask().isPresent()) {
+        runningTasks.remove(failedEvaluator.getFailedTask().get().getId());
+      }
+      if (!closing) {
+        request(1);
+      }
+    }
+  }
+
+  /**
+   * Never runs: the simulated Evaluators only report it as running.
+   */
+  public static final class SimulatedTask implements Task {
+
+    @Inject
+    private SimulatedTask() {
+    }
+
+    @Override
+    public byte[] call(final byte[] memento) {
+      throw new UnsupportedOperationException("Simulated tasks do not run");
+    }
+  }
+}
@@ -40,7 +40,8 @@ import org.apache.reef.tang.formats.OptionalImpl;
 @Unstable
 public final class YarnDriverRestartConfiguration extends ConfigurationModuleBuilder {
   /**
-   * The Evaluator Preserver implementation used for YARN. Defaults to DFSEvaluatorPreserver.
+   * The Evaluator Preserver implementation used for YARN. Defaults to DFSEvaluatorJournalPreserver.
+   * DFSEvaluatorPreserver keeps the log of previous versions, a text file rewritten or appended to on every change.
    */
   public static final OptionalImpl<EvaluatorPreserver> EVALUATOR_PRESERVER = new OptionalImpl<>();
 
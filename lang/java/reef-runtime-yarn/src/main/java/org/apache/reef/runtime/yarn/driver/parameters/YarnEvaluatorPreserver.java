@@ -19,15 +19,15 @@
 package org.apache.reef.runtime.yarn.driver.parameters;
 
 import org.apache.reef.runtime.common.driver.EvaluatorPreserver;
-import org.apache.reef.runtime.yarn.driver.restart.DFSEvaluatorPreserver;
+import org.apache.reef.runtime.yarn.driver.restart.DFSEvaluatorJournalPreserver;
 import org.apache.reef.tang.annotations.Name;
 import org.apache.reef.tang.annotations.NamedParameter;
 
 /**
- * The Evaluator Preserver to use on YARN, defaults to DFS.
+ * The Evaluator Preserver to use on YARN, defaults to a journal on DFS.
  */
-@NamedParameter(doc = "The Evaluator Preserver to use on YARN, defaults to DFS.",
-    default_class = DFSEvaluatorPreserver.class)
+@NamedParameter(doc = "The Evaluator Preserver to use on YARN, defaults to a journal on DFS.",
+    default_class = DFSEvaluatorJournalPreserver.class)
 public final class YarnEvaluatorPreserver implements Name<EvaluatorPreserver> {
   private YarnEvaluatorPreserver() {
   }
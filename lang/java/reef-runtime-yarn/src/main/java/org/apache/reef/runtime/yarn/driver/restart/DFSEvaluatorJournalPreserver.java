@@ -0,0 +1,484 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.reef.runtime.yarn.driver.restart;
+
+import org.apache.commons.lang.StringUtils;
+import org.apache.hadoop.fs.FileSystem;
+import org.apache.hadoop.fs.Path;
+import org.apache.hadoop.yarn.api.records.ApplicationId;
+import org.apache.reef.annotations.Unstable;
+import org.apache.reef.annotations.audience.DriverSide;
+import org.apache.reef.annotations.audience.RuntimeAuthor;
+import org.apache.reef.driver.parameters.FailDriverOnEvaluatorLogErrors;
+import org.apache.reef.exception.DriverFatalRuntimeException;
+import org.apache.reef.runtime.common.driver.EvaluatorPreserver;
+import org.apache.reef.runtime.common.driver.evaluator.EvaluatorManager;
+import org.apache.reef.runtime.yarn.driver.parameters.*;
+import org.apache.reef.runtime.yarn.util.YarnUtilities;
+import org.apache.reef.tang.annotations.Parameter;
+import org.apache.reef.util.CloseableIterable;
+
+import javax.inject.Inject;
+import java.io.IOException;
+import java.util.*;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * An Evaluator Preserver that keeps an {@link EvaluatorJournal} on the DFS on YARN.
+ * <p>
+ * Unlike {@link DFSEvaluatorPreserver}, it never rewrites the log: entries are appended to the journal,
+ * which is compacted in the background. Entries recorded concurrently are committed together, in one
+ * write and one hsync. A batch is committed when it has {@link EvaluatorJournalFlushBatchSize} entries or
+ * when {@link EvaluatorJournalFlushInterval} has elapsed since its first entry, whichever comes first.
+ * Recording an entry returns once the entry is committed, when the commit failed, or when the recording
+ * thread is interrupted. If the committer thread stops, the entries it has not committed are failed.
+ * <p>
+ * When there is no journal yet, the evaluators of the change log written by {@link DFSEvaluatorPreserver}
+ * in the same job submission directory are imported, so that a driver started with that preserver
+ * can be restarted with this one.
+ */
+@DriverSide
+@RuntimeAuthor
+@Unstable
+public final class DFSEvaluatorJournalPreserver implements EvaluatorPreserver, AutoCloseable {
+  private static final Logger LOG = Logger.getLogger(DFSEvaluatorJournalPreserver.class.getName());
+
+  private static final long CLOSE_TIMEOUT_MS = 10000;
+
+  /**
+   * Name of the change log of {@link DFSEvaluatorPreserver}, next to the directory of the journal.
+   */
+  private static final String CHANGE_LOG_NAME = "evaluatorsChangesLog";
+
+  private final boolean failDriverOnEvaluatorLogErrors;
+  private final int flushIntervalMs;
+  private final int flushBatchSize;
+
+  private FileSystem fileSystem;
+  private EvaluatorJournal journal;
+
+  private Thread committer;
+  private ExecutorService compactor;
+
+  /**
+   * The batch to be committed next; guarded by this.
+   */
+  private Batch pending = new Batch();
+
+  /**
+   * The batch being written by the committer thread, or null; guarded by this.
+   */
+  private Batch committing = null;
+
+  private boolean closed = false;
+
+  /**
+   * Set when the committer thread stopped before the journal was closed; guarded by this.
+   */
+  private IOException committerFailure = null;
+
+  @Inject
+  DFSEvaluatorJournalPreserver(@Parameter(FailDriverOnEvaluatorLogErrors.class)
+                               final boolean failDriverOnEvaluatorLogErrors,
+                               @Parameter(EvaluatorJournalFlushInterval.class) final int flushIntervalMs,
+                               @Parameter(EvaluatorJournalFlushBatchSize.class) final int flushBatchSize,
+                               @Parameter(EvaluatorJournalSegmentSize.class) final int segmentSize,
+                               @Parameter(EvaluatorJournalSegmentsToCompact.class) final int segmentsToCompact) {
+    this(failDriverOnEvaluatorLogErrors, flushIntervalMs, flushBatchSize, segmentSize, segmentsToCompact,
+        "/ReefApplications/" + getEvaluatorJournalFolderLocation());
+  }
+
+  @Inject
+  private DFSEvaluatorJournalPreserver(@Parameter(FailDriverOnEvaluatorLogErrors.class)
+                                       final boolean failDriverOnEvaluatorLogErrors,
+                                       @Parameter(EvaluatorJournalFlushInterval.class) final int flushIntervalMs,
+                                       @Parameter(EvaluatorJournalFlushBatchSize.class) final int flushBatchSize,
+                                       @Parameter(EvaluatorJournalSegmentSize.class) final int segmentSize,
+                                       @Parameter(EvaluatorJournalSegmentsToCompact.class)
+                                       final int segmentsToCompact,
+                                       @Parameter(JobSubmissionDirectory.class)
+                                       final String jobSubmissionDirectory) {
+    this(failDriverOnEvaluatorLogErrors, flushIntervalMs, flushBatchSize, segmentSize, segmentsToCompact,
+        getFileSystem(), new Path("/" + StringUtils.strip(jobSubmissionDirectory, "/") + "/evaluatorsJournal"));
+  }
+
+  /**
+   * @param fileSystem the file system holding the journal, or null if it could not be instantiated.
+   * @param directory  the directory of the journal.
+   */
+  DFSEvaluatorJournalPreserver(final boolean failDriverOnEvaluatorLogErrors,
+                               final int flushIntervalMs,
+                               final int flushBatchSize,
+                               final int segmentSize,
+                               final int segmentsToCompact,
+                               final FileSystem fileSystem,
+                               final Path directory) {
+    this.failDriverOnEvaluatorLogErrors = failDriverOnEvaluatorLogErrors;
+    this.flushIntervalMs = flushIntervalMs;
+    this.flushBatchSize = flushBatchSize;
+
+    if (fileSystem == null) {
+      this.handleException(new IOException("Unable to instantiate FileSystem"),
+          "Cannot read from the evaluator journal, evaluators will not be recovered.",
+          "Driver was not able to instantiate FileSystem.");
+      return;
+    }
+
+    this.fileSystem = fileSystem;
+    this.compactor = Executors.newSingleThreadExecutor(newDaemonThreadFactory("EvaluatorJournalCompactor"));
+    this.journal = new EvaluatorJournal(fileSystem, directory, segmentSize, segmentsToCompact, this.compactor);
+    try {
+      this.journal.open();
+      if (this.journal.isNew()) {
+        this.importChangeLog(new Path(directory.getParent(), CHANGE_LOG_NAME));
+      }
+    } catch (final IOException e) {
+      this.handleException(e, "Cannot read from the evaluator journal with Exception " + e +
+          ", evaluators will not be recovered.", "Cannot read from the evaluator journal.");
+      this.journal = null;
+      return;
+    }
+
+    this.committer = newDaemonThreadFactory("EvaluatorJournalCommitter").newThread(new Runnable() {
+      @Override
+      public void run() {
+        commitBatches();
+      }
+    });
+    this.committer.start();
+  }
+
+  /**
+   * Imports the evaluators of a change log written by {@link DFSEvaluatorPreserver}, if there is one.
+   */
+  private void importChangeLog(final Path changeLogPath) throws IOException {
+    if (!this.fileSystem.exists(changeLogPath) && !this.fileSystem.exists(new Path(changeLogPath + ".alt"))) {
+      return;
+    }
+
+    // Reads the change log written with or without append; closing it would close the FileSystem.
+    final DFSEvaluatorLogReaderWriter changeLog =
+        new DFSEvaluatorLogOverwriteReaderWriter(this.fileSystem, changeLogPath);
+    final Set<String> evaluators = new HashSet<>();
+    try (CloseableIterable<String> lines = changeLog.readFromEvaluatorLog()) {
+      for (final String line : lines) {
+        if (line.isEmpty()) {
+          continue;
+        }
+        if (line.charAt(0) == EvaluatorJournal.ADD_FLAG) {
+          evaluators.add(line.substring(1));
+        } else if (line.charAt(0) == EvaluatorJournal.REMOVE_FLAG) {
+          evaluators.remove(line.substring(1));
+        }
+      }
+    } catch (final IOException e) {
+      throw e;
+    } catch (final Exception e) {
+      throw new IOException("Unable to read the change log " + changeLogPath, e);
+    }
+
+    this.journal.importEvaluators(evaluators);
+    LOG.log(Level.INFO, "Imported {0} evaluators from the change log {1}",
+        new Object[] {evaluators.size(), changeLogPath});
+  }
+
+  private static FileSystem getFileSystem() {
+    try {
+      return FileSystem.get(new org.apache.hadoop.conf.Configuration());
+    } catch (final IOException e) {
+      LOG.log(Level.WARNING, "Unable to instantiate FileSystem", e);
+      return null;
+    }
+  }
+
+  /**
+   * @return the folder for the Evaluator journal.
+   */
+  private static String getEvaluatorJournalFolderLocation() {
+    final ApplicationId appId = YarnUtilities.getApplicationId();
+    if (appId != null) {
+      return appId.toString();
+    }
+
+    final String jobIdentifier = EvaluatorManager.getJobIdentifier();
+    if (jobIdentifier != null) {
+      return jobIdentifier;
+    }
+
+    throw new RuntimeException("Could not retrieve a suitable DFS folder for preserving Evaluator journal.");
+  }
+
+  private static ThreadFactory newDaemonThreadFactory(final String name) {
+    return new ThreadFactory() {
+      @Override
+      public Thread newThread(final Runnable runnable) {
+        // Nothing is lost if the driver exits while a thread runs: entries are recorded once committed,
+        // and an interrupted compaction is cleaned up when the journal is next opened.
+        final Thread thread = new Thread(runnable, name);
+        thread.setDaemon(true);
+        return thread;
+      }
+    };
+  }
+
+  /**
+   * Recovers the set of evaluators that are alive.
+   */
+  @Override
+  public Set<String> recoverEvaluators() {
+    if (this.journal == null) {
+      LOG.log(Level.WARNING, "Unable to recover evaluators due to failure to open the evaluator journal. " +
+          "Returning an empty set.");
+      return new HashSet<>();
+    }
+    return this.journal.getEvaluators();
+  }
+
+  /**
+   * Adds the allocated evaluator entry to the evaluator journal.
+   * @param id
+   */
+  @Override
+  public void recordAllocatedEvaluator(final String id) {
+    this.record(EvaluatorJournal.ADD_FLAG + id);
+  }
+
+  /**
+   * Adds the removed evaluator entry to the evaluator journal.
+   * @param id
+   */
+  @Override
+  public void recordRemovedEvaluator(final String id) {
+    this.record(EvaluatorJournal.REMOVE_FLAG + id);
+  }
+
+  /**
+   * Adds an entry to the next batch and waits for the batch to be committed.
+   */
+  private void record(final String entry) {
+    if (this.journal == null) {
+      return;
+    }
+
+    final Exception failure;
+    synchronized (this) {
+      if (this.committerFailure != null) {
+        failure = this.committerFailure;
+      } else if (this.closed) {
+        LOG.log(Level.WARNING, "Evaluator journal is closed, not recording {0}", entry);
+        return;
+      } else {
+        final Batch batch = this.pending;
+        batch.add(entry);
+        if (batch.size() == 1 || batch.size() >= this.flushBatchSize) {
+          this.notifyAll();
+        }
+
+        try {
+          while (!batch.isCommitted()) {
+            this.wait();
+          }
+        } catch (final InterruptedException e) {
+          Thread.currentThread().interrupt();
+          LOG.log(Level.WARNING, "Interrupted while waiting for {0} to be committed to the evaluator journal. " +
+              "It is still committed with its batch.", entry);
+          return;
+        }
+        failure = batch.getFailure();
+      }
+    }
+
+    if (failure != null) {
+      this.handleException(failure, "Unable to log the change of container [" + entry +
+          "] to the evaluator journal. Driver restart won't work properly.", "Unable to log container change.");
+    }
+  }
+
+  /**
+   * Commits the batches of entries until the journal is closed. Runs on the committer thread.
+   */
+  private void commitBatches() {
+    boolean committedAll = false;
+    try {
+      commitBatchesUntilClosed();
+      committedAll = true;
+    } finally {
+      if (!committedAll) {
+        failUncommittedBatches();
+      }
+    }
+  }
+
+  /**
+   * Fails the batch being committed and the pending one, and the entries recorded from now on,
+   * when the committer thread stops before the journal is closed.
+   */
+  private synchronized void failUncommittedBatches() {
+    LOG.log(Level.SEVERE, "Evaluator journal committer stopped unexpectedly");
+    this.committerFailure = new IOException("Evaluator journal committer stopped unexpectedly");
+    if (this.committing != null && !this.committing.isCommitted()) {
+      this.committing.setCommitted(this.committerFailure);
+    }
+    this.pending.setCommitted(this.committerFailure);
+    this.notifyAll();
+  }
+
+  private void commitBatchesUntilClosed() {
+    while (true) {
+      final Batch batch;
+      synchronized (this) {
+        while (!this.isReadyToCommit()) {
+          try {
+            if (this.pending.size() == 0) {
+              this.wait();
+            } else {
+              this.wait(Math.max(1, this.pending.getFirstEntryTime() + this.flushIntervalMs -
+                  System.currentTimeMillis()));
+            }
+          } catch (final InterruptedException e) {
+            LOG.log(Level.FINEST, "Evaluator journal committer interrupted", e);
+          }
+        }
+        if (this.pending.size() == 0) {
+          // Closed, and all entries committed
+          return;
+        }
+        batch = this.pending;
+        this.pending = new Batch();
+        this.committing = batch;
+      }
+
+      Exception failure = null;
+      try {
+        this.journal.write(batch.getEntries());
+      } catch (final Exception e) {
+        failure = e;
+      }
+
+      synchronized (this) {
+        batch.setCommitted(failure);
+        this.committing = null;
+        this.notifyAll();
+      }
+    }
+  }
+
+  /**
+   * @return true if the pending batch is to be committed now, or if the journal is closed.
+   */
+  private boolean isReadyToCommit() {
+    return this.closed || this.pending.size() >= this.flushBatchSize || this.pending.size() > 0 &&
+        System.currentTimeMillis() - this.pending.getFirstEntryTime() >= this.flushIntervalMs;
+  }
+
+  private void handleException(final Exception e, final String errorMsg, final String fatalMsg) {
+    if (this.failDriverOnEvaluatorLogErrors) {
+      LOG.log(Level.SEVERE, errorMsg, e);
+
+      try {
+        this.close();
+      } catch (Exception e1) {
+        LOG.log(Level.SEVERE, "Failed on closing resource with " + Arrays.toString(e1.getStackTrace()));
+      }
+
+      throw new DriverFatalRuntimeException(fatalMsg, e);
+    } else {
+      LOG.log(Level.WARNING, errorMsg, e);
+    }
+  }
+
+  /**
+   * Commits the pending entries, waits for the running compaction and closes the FileSystem.
+   * @throws Exception
+   */
+  @Override
+  public void close() throws Exception {
+    synchronized (this) {
+      if (this.closed) {
+        return;
+      }
+      this.closed = true;
+      this.notifyAll();
+    }
+
+    if (this.committer != null && Thread.currentThread() != this.committer) {
+      this.committer.join(CLOSE_TIMEOUT_MS);
+    }
+    if (this.compactor != null) {
+      this.compactor.shutdown();
+      this.compactor.awaitTermination(CLOSE_TIMEOUT_MS, TimeUnit.MILLISECONDS);
+    }
+    try {
+      if (this.journal != null) {
+        this.journal.close();
+      }
+    } finally {
+      if (this.fileSystem != null) {
+        this.fileSystem.close();
+      }
+    }
+  }
+
+  /**
+   * Entries committed together.
+   */
+  private static final class Batch {
+    private final List<String> entries = new ArrayList<>();
+    private long firstEntryTime;
+    private boolean committed = false;
+    private Exception failure = null;
+
+    void add(final String entry) {
+      if (this.entries.isEmpty()) {
+        this.firstEntryTime = System.currentTimeMillis();
+      }
+      this.entries.add(entry);
+    }
+
+    int size() {
+      return this.entries.size();
+    }
+
+    List<String> getEntries() {
+      return this.entries;
+    }
+
+    long getFirstEntryTime() {
+      return this.firstEntryTime;
+    }
+
+    void setCommitted(final Exception commitFailure) {
+      this.committed = true;
+      this.failure = commitFailure;
+    }
+
+    boolean isCommitted() {
+      return this.committed;
+    }
+
+    Exception getFailure() {
+      return this.failure;
+    }
+  }
+}
@@ -0,0 +1,372 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.reef.runtime.yarn.driver.restart;
+
+import org.apache.hadoop.fs.FSDataInputStream;
+import org.apache.hadoop.fs.FSDataOutputStream;
+import org.apache.hadoop.fs.FileStatus;
+import org.apache.hadoop.fs.FileSystem;
+import org.apache.hadoop.fs.Path;
+import org.apache.reef.annotations.audience.Private;
+
+import java.io.*;
+import java.util.*;
+import java.util.concurrent.Executor;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+import java.util.zip.CRC32;
+
+/**
+ * A segmented, append-only journal of evaluator additions and removals on a Hadoop {@link FileSystem}.
+ * <p>
+ * Entries are written in frames, each holding a batch of entries and committed with one hsync.
+ * A frame is its payload length, the CRC32 of the payload and the payload: per entry, the flag
+ * ({@code +} or {@code -}) and the evaluator ID in modified UTF-8. A frame cut short by a failure is
+ * detected and ignored when the journal is read.
+ * <p>
+ * Files are never appended to once closed, so no support for append is needed: the journal writes
+ * {@code segment-<n>} files, starting a new one when the current one is full or after a restart.
+ * Every few full segments, the journal writes the evaluators that are alive in {@code snapshot-<n>},
+ * which replaces all segments up to {@code n}, and deletes those segments.
+ * <p>
+ * This class is not thread-safe, except for {@link #getEvaluators()}. Snapshots are written by the executor
+ * given to the constructor.
+ */
+@Private
+final class EvaluatorJournal implements AutoCloseable {
+  private static final Logger LOG = Logger.getLogger(EvaluatorJournal.class.getName());
+
+  static final char ADD_FLAG = '+';
+  static final char REMOVE_FLAG = '-';
+
+  private static final String SEGMENT_PREFIX = "segment-";
+  private static final String SNAPSHOT_PREFIX = "snapshot-";
+  private static final String TEMPORARY_SUFFIX = ".tmp";
+
+  /**
+   * Maximum number of entries in a frame of a snapshot.
+   */
+  private static final int SNAPSHOT_FRAME_ENTRIES = 4096;
+
+  /**
+   * Frames longer than this are corrupt.
+   */
+  private static final int MAX_FRAME_LENGTH = 64 * 1024 * 1024;
+
+  private final FileSystem fileSystem;
+  private final Path directory;
+  private final int segmentSize;
+  private final int segmentsToCompact;
+  private final Executor compactor;
+
+  private final Set<String> evaluators = new HashSet<>();
+
+  private boolean isNew = false;
+  private long nextSegment = 0;
+  private int segmentsSinceSnapshot = 0;
+  private FSDataOutputStream segment = null;
+  private long segmentLength = 0;
+
+  /**
+   * @param fileSystem        the file system holding the journal.
+   * @param directory         the directory of the journal, created if missing.
+   * @param segmentSize       size in bytes after which a new segment is started.
+   * @param segmentsToCompact number of full segments after which they are replaced by a snapshot.
+   * @param compactor         executor writing the snapshots.
+   */
+  EvaluatorJournal(final FileSystem fileSystem, final Path directory, final int segmentSize,
+                   final int segmentsToCompact, final Executor compactor) {
+    this.fileSystem = fileSystem;
+    this.directory = directory;
+    this.segmentSize = segmentSize;
+    this.segmentsToCompact = segmentsToCompact;
+    this.compactor = compactor;
+  }
+
+  /**
+   * Reads the journal left by previous instances of the driver, if any. Must be called before writing.
+   * @throws IOException when the journal cannot be read.
+   */
+  void open() throws IOException {
+    this.fileSystem.mkdirs(this.directory);
+
+    long snapshot = -1;
+    final SortedMap<Long, Path> segments = new TreeMap<>();
+    for (final FileStatus status : this.fileSystem.listStatus(this.directory)) {
+      final String name = status.getPath().getName();
+      if (name.endsWith(TEMPORARY_SUFFIX)) {
+        // Left by a compaction that did not finish
+        this.fileSystem.delete(status.getPath(), false);
+      } else if (name.startsWith(SNAPSHOT_PREFIX)) {
+        snapshot = Math.max(snapshot, Long.parseLong(name.substring(SNAPSHOT_PREFIX.length())));
+      } else if (name.startsWith(SEGMENT_PREFIX)) {
+        segments.put(Long.parseLong(name.substring(SEGMENT_PREFIX.length())), status.getPath());
+      }
+    }
+
+    this.isNew = snapshot < 0 && segments.isEmpty();
+    final Set<String> recovered = new HashSet<>();
+    if (snapshot >= 0) {
+      read(snapshotPath(snapshot), recovered);
+      this.nextSegment = snapshot + 1;
+    }
+    for (final Map.Entry<Long, Path> entry : segments.entrySet()) {
+      if (entry.getKey() <= snapshot) {
+        // Already in the snapshot, left by a compaction that did not finish
+        this.fileSystem.delete(entry.getValue(), false);
+      } else {
+        read(entry.getValue(), recovered);
+        this.nextSegment = entry.getKey() + 1;
+        ++this.segmentsSinceSnapshot;
+      }
+    }
+
+    synchronized (this.evaluators) {
+      this.evaluators.addAll(recovered);
+    }
+    LOG.log(Level.FINE, "Recovered {0} evaluators from journal {1}", new Object[] {recovered.size(), this.directory});
+  }
+
+  /**
+   * @return true if {@link #open()} found no journal to read.
+   */
+  boolean isNew() {
+    return this.isNew;
+  }
+
+  /**
+   * Adds evaluators recorded elsewhere to a new journal, in a snapshot. Must be called right after opening it.
+   * @param importedEvaluators the evaluators that are alive.
+   * @throws IOException when the snapshot cannot be written; the journal is then still new when reopened.
+   */
+  void importEvaluators(final Set<String> importedEvaluators) throws IOException {
+    if (!this.isNew || this.segment != null) {
+      throw new IllegalStateException("Evaluators can only be imported into a new journal");
+    }
+    writeSnapshot(this.nextSegment, importedEvaluators);
+    ++this.nextSegment;
+    this.isNew = false;
+    synchronized (this.evaluators) {
+      this.evaluators.addAll(importedEvaluators);
+    }
+  }
+
+  /**
+   * @return the evaluators that have been added and not removed.
+   */
+  Set<String> getEvaluators() {
+    synchronized (this.evaluators) {
+      return new HashSet<>(this.evaluators);
+    }
+  }
+
+  /**
+   * Commits a batch of entries in one frame.
+   * @param entries the entries, each the flag followed by the evaluator ID.
+   * @throws IOException when the entries cannot be written; the next batch then starts a new segment.
+   */
+  void write(final List<String> entries) throws IOException {
+    final byte[] frame = frame(entries);
+    try {
+      if (this.segment == null) {
+        this.segment = this.fileSystem.create(segmentPath(this.nextSegment++), false);
+        this.segmentLength = 0;
+      }
+      this.segment.write(frame);
+      this.segment.hsync();
+      this.segmentLength += frame.length;
+    } catch (final IOException e) {
+      closeSegment();
+      throw e;
+    }
+
+    synchronized (this.evaluators) {
+      for (final String entry : entries) {
+        if (entry.charAt(0) == ADD_FLAG) {
+          this.evaluators.add(entry.substring(1));
+        } else {
+          this.evaluators.remove(entry.substring(1));
+        }
+      }
+    }
+
+    if (this.segmentLength >= this.segmentSize) {
+      closeSegment();
+      if (++this.segmentsSinceSnapshot >= this.segmentsToCompact) {
+        this.segmentsSinceSnapshot = 0;
+        final long snapshot = this.nextSegment - 1;
+        final Set<String> liveEvaluators = getEvaluators();
+        this.compactor.execute(new Runnable() {
+          @Override
+          public void run() {
+            compact(snapshot, liveEvaluators);
+          }
+        });
+      }
+    }
+  }
+
+  /**
+   * Closes the current segment.
+   */
+  @Override
+  public void close() throws IOException {
+    if (this.segment != null) {
+      final FSDataOutputStream closing = this.segment;
+      this.segment = null;
+      closing.close();
+    }
+  }
+
+  private void closeSegment() {
+    try {
+      close();
+    } catch (final IOException e) {
+      LOG.log(Level.WARNING, "Unable to close journal segment, starting a new one.", e);
+    }
+  }
+
+  /**
+   * Replaces all segments up to a given one by a snapshot of the evaluators alive at its end.
+   */
+  private void compact(final long lastSegment, final Set<String> liveEvaluators) {
+    try {
+      writeSnapshot(lastSegment, liveEvaluators);
+      LOG.log(Level.FINE, "Compacted evaluator journal up to segment {0}: {1} evaluators",
+          new Object[] {lastSegment, liveEvaluators.size()});
+    } catch (final IOException e) {
+      // The segments are still there, the next compaction includes them
+      LOG.log(Level.WARNING, "Unable to compact the evaluator journal up to segment " + lastSegment, e);
+    }
+  }
+
+  /**
+   * Writes the snapshot of the evaluators alive at the end of a segment, and deletes the files it replaces.
+   */
+  private void writeSnapshot(final long lastSegment, final Set<String> liveEvaluators) throws IOException {
+    final Path snapshotPath = snapshotPath(lastSegment);
+    final Path temporaryPath = new Path(this.directory, snapshotPath.getName() + TEMPORARY_SUFFIX);
+    try (FSDataOutputStream out = this.fileSystem.create(temporaryPath, true)) {
+      final List<String> entries = new ArrayList<>(Math.min(liveEvaluators.size(), SNAPSHOT_FRAME_ENTRIES));
+      for (final String evaluator : liveEvaluators) {
+        entries.add(ADD_FLAG + evaluator);
+        if (entries.size() == SNAPSHOT_FRAME_ENTRIES) {
+          out.write(frame(entries));
+          entries.clear();
+        }
+      }
+      out.write(frame(entries));
+      out.hsync();
+    }
+    if (!this.fileSystem.rename(temporaryPath, snapshotPath)) {
+      throw new IOException("Unable to rename " + temporaryPath + " to " + snapshotPath);
+    }
+
+    for (final FileStatus status : this.fileSystem.listStatus(this.directory)) {
+      final String name = status.getPath().getName();
+      if (name.startsWith(SEGMENT_PREFIX) &&
+              Long.parseLong(name.substring(SEGMENT_PREFIX.length())) <= lastSegment ||
+          name.startsWith(SNAPSHOT_PREFIX) && !name.endsWith(TEMPORARY_SUFFIX) &&
+              Long.parseLong(name.substring(SNAPSHOT_PREFIX.length())) < lastSegment) {
+        this.fileSystem.delete(status.getPath(), false);
+      }
+    }
+  }
+
+  private Path segmentPath(final long index) {
+    return new Path(this.directory, SEGMENT_PREFIX + index);
+  }
+
+  private Path snapshotPath(final long index) {
+    return new Path(this.directory, SNAPSHOT_PREFIX + index);
+  }
+
+  private static byte[] frame(final List<String> entries) throws IOException {
+    final ByteArrayOutputStream payload = new ByteArrayOutputStream();
+    try (DataOutputStream out = new DataOutputStream(payload)) {
+      for (final String entry : entries) {
+        out.writeByte(entry.charAt(0));
+        out.writeUTF(entry.substring(1));
+      }
+    }
+    final CRC32 crc = new CRC32();
+    crc.update(payload.toByteArray());
+
+    final ByteArrayOutputStream frame = new ByteArrayOutputStream(payload.size() + 8);
+    try (DataOutputStream out = new DataOutputStream(frame)) {
+      out.writeInt(payload.size());
+      out.writeInt((int) crc.getValue());
+      payload.writeTo(out);
+    }
+    return frame.toByteArray();
+  }
+
+  /**
+   * Replays the frames of a journal file, stopping at the first incomplete or corrupt one.
+   */
+  private void read(final Path path, final Set<String> liveEvaluators) throws IOException {
+    try (FSDataInputStream in = this.fileSystem.open(path)) {
+      while (true) {
+        final int first = in.read();
+        if (first < 0) {
+          return;
+        }
+
+        final byte[] payload;
+        final int checksum;
+        try {
+          final int length = first << 24 | in.readUnsignedByte() << 16 | in.readUnsignedByte() << 8 |
+              in.readUnsignedByte();
+          checksum = in.readInt();
+          if (length < 0 || length > MAX_FRAME_LENGTH) {
+            LOG.log(Level.WARNING, "Ignoring frame of invalid length {0} at the end of {1}",
+                new Object[] {length, path});
+            return;
+          }
+          payload = new byte[length];
+          in.readFully(payload);
+        } catch (final EOFException e) {
+          LOG.log(Level.WARNING, "Ignoring incomplete frame at the end of {0}", path);
+          return;
+        }
+
+        final CRC32 crc = new CRC32();
+        crc.update(payload);
+        if ((int) crc.getValue() != checksum) {
+          LOG.log(Level.WARNING, "Ignoring corrupt frame at the end of {0}", path);
+          return;
+        }
+
+        try (DataInputStream entries = new DataInputStream(new ByteArrayInputStream(payload))) {
+          while (entries.available() > 0) {
+            final char flag = (char) entries.readByte();
+            final String evaluator = entries.readUTF();
+            if (flag == ADD_FLAG) {
+              if (!liveEvaluators.add(evaluator)) {
+                LOG.log(Level.WARNING, "Duplicated add record found in the journal for evaluator {0}", evaluator);
+              }
+            } else if (!liveEvaluators.remove(evaluator)) {
+              LOG.log(Level.WARNING, "Journal includes a removal of unknown evaluator {0}", evaluator);
+            }
+          }
+        }
+      }
+    }
+  }
+}
@@ -0,0 +1,222 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.reef.runtime.yarn.driver.restart;
+
+import org.apache.hadoop.conf.Configuration;
+import org.apache.hadoop.fs.FSDataOutputStream;
+import org.apache.hadoop.fs.FileStatus;
+import org.apache.hadoop.fs.FileSystem;
+import org.apache.hadoop.fs.Path;
+import org.apache.reef.exception.DriverFatalRuntimeException;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.IOException;
+import java.util.*;
+import java.util.concurrent.*;
+
+import static org.mockito.Matchers.any;
+import static org.mockito.Matchers.anyBoolean;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.spy;
+
+/**
+ * Tests for {@link DFSEvaluatorJournalPreserver}, on Hadoop's LocalFileSystem.
+ * Each test records evaluators in a preserver, closes it and recovers them in another, as a restarted driver does.
+ */
+public final class DFSEvaluatorJournalPreserverTest {
+
+  @Rule
+  public final TemporaryFolder folder = new TemporaryFolder();
+
+  private Path directory;
+
+  @Before
+  public void setUp() {
+    this.directory = new Path(this.folder.getRoot().toURI().toString(), "evaluatorsJournal");
+  }
+
+  @Test
+  public void testRecordAndRecover() throws Exception {
+    try (DFSEvaluatorJournalPreserver preserver = newPreserver(1024, 4)) {
+      Assert.assertTrue(preserver.recoverEvaluators().isEmpty());
+      preserver.recordAllocatedEvaluator("container_1");
+      preserver.recordAllocatedEvaluator("container_2");
+      preserver.recordAllocatedEvaluator("container_3");
+      preserver.recordRemovedEvaluator("container_2");
+      Assert.assertEquals(new HashSet<>(Arrays.asList("container_1", "container_3")), preserver.recoverEvaluators());
+    }
+
+    try (DFSEvaluatorJournalPreserver preserver = newPreserver(1024, 4)) {
+      Assert.assertEquals(new HashSet<>(Arrays.asList("container_1", "container_3")), preserver.recoverEvaluators());
+      preserver.recordRemovedEvaluator("container_1");
+      preserver.recordAllocatedEvaluator("container_4");
+    }
+
+    try (DFSEvaluatorJournalPreserver preserver = newPreserver(1024, 4)) {
+      Assert.assertEquals(new HashSet<>(Arrays.asList("container_3", "container_4")), preserver.recoverEvaluators());
+    }
+  }
+
+  /**
+   * Evaluators recorded concurrently are all committed, and each record returns once its entry is committed.
+   */
+  @Test(timeout = 60000)
+  public void testConcurrentRecords() throws Exception {
+    final int numThreads = 8;
+    final int numEvaluators = 100;
+    final Set<String> expected = Collections.newSetFromMap(new ConcurrentHashMap<String, Boolean>());
+
+    try (DFSEvaluatorJournalPreserver preserver = newPreserver(4096, 2)) {
+      final ExecutorService executor = Executors.newFixedThreadPool(numThreads);
+      final List<Future<?>> futures = new ArrayList<>();
+      for (int i = 0; i < numThreads; ++i) {
+        final String prefix = "container_" + i + "_";
+        futures.add(executor.submit(new Runnable() {
+          @Override
+          public void run() {
+            for (int j = 0; j < numEvaluators; ++j) {
+              preserver.recordAllocatedEvaluator(prefix + j);
+              if (j % 3 == 0) {
+                preserver.recordRemovedEvaluator(prefix + j);
+              } else {
+                expected.add(prefix + j);
+              }
+              Assert.assertEquals(j % 3 != 0, preserver.recoverEvaluators().contains(prefix + j));
+            }
+          }
+        }));
+      }
+      for (final Future<?> future : futures) {
+        future.get();
+      }
+      executor.shutdown();
+    }
+
+    try (DFSEvaluatorJournalPreserver preserver = newPreserver(4096, 2)) {
+      Assert.assertEquals(expected, preserver.recoverEvaluators());
+    }
+  }
+
+  /**
+   * Full segments are replaced by snapshots, so the journal does not grow with the number of changes.
+   */
+  @Test
+  public void testCompaction() throws Exception {
+    final Set<String> expected = new HashSet<>();
+    try (DFSEvaluatorJournalPreserver preserver = newPreserver(64, 2)) {
+      for (int i = 0; i < 500; ++i) {
+        preserver.recordAllocatedEvaluator("container_" + i);
+        if (i % 10 != 0) {
+          preserver.recordRemovedEvaluator("container_" + i);
+        } else {
+          expected.add("container_" + i);
+        }
+      }
+    }
+
+    final FileSystem fileSystem = FileSystem.getLocal(new Configuration());
+    final FileStatus[] files = fileSystem.listStatus(this.directory);
+    // One snapshot, at most two full segments and the last one
+    Assert.assertTrue("Journal has " + files.length + " files", files.length <= 4);
+    fileSystem.close();
+
+    try (DFSEvaluatorJournalPreserver preserver = newPreserver(64, 2)) {
+      Assert.assertEquals(expected, preserver.recoverEvaluators());
+    }
+  }
+
+  /**
+   * A frame cut short when the driver failed is ignored, and the journal is written to again after restart.
+   */
+  @Test
+  public void testIncompleteFrame() throws Exception {
+    try (DFSEvaluatorJournalPreserver preserver = newPreserver(1024, 4)) {
+      preserver.recordAllocatedEvaluator("container_1");
+    }
+
+    final FileSystem fileSystem = FileSystem.getLocal(new Configuration());
+    try (FSDataOutputStream out = fileSystem.create(new Path(this.directory, "segment-1"))) {
+      out.writeInt(100);
+      out.writeInt(0);
+      out.write(new byte[10]);
+    }
+    fileSystem.close();
+
+    try (DFSEvaluatorJournalPreserver preserver = newPreserver(1024, 4)) {
+      Assert.assertEquals(Collections.singleton("container_1"), preserver.recoverEvaluators());
+      preserver.recordAllocatedEvaluator("container_2");
+    }
+
+    try (DFSEvaluatorJournalPreserver preserver = newPreserver(1024, 4)) {
+      Assert.assertEquals(new HashSet<>(Arrays.asList("container_1", "container_2")), preserver.recoverEvaluators());
+    }
+  }
+
+  /**
+   * A new journal starts with the evaluators of the change log of DFSEvaluatorPreserver, which is read only once.
+   */
+  @Test
+  public void testImportChangeLog() throws Exception {
+    final FileSystem fileSystem = FileSystem.getLocal(new Configuration());
+    final Path changeLogPath = new Path(this.directory.getParent(), "evaluatorsChangesLog");
+    final DFSEvaluatorLogReaderWriter changeLog = new DFSEvaluatorLogOverwriteReaderWriter(fileSystem, changeLogPath);
+    for (final String entry : new String[] {"+container_1", "+container_2", "+container_3", "-container_2"}) {
+      changeLog.writeToEvaluatorLog(entry + System.lineSeparator());
+    }
+    changeLog.close();
+
+    try (DFSEvaluatorJournalPreserver preserver = newPreserver(1024, 4)) {
+      Assert.assertEquals(new HashSet<>(Arrays.asList("container_1", "container_3")), preserver.recoverEvaluators());
+      preserver.recordAllocatedEvaluator("container_4");
+    }
+
+    try (DFSEvaluatorJournalPreserver preserver = newPreserver(1024, 4)) {
+      Assert.assertEquals(new HashSet<>(Arrays.asList("container_1", "container_3", "container_4")),
+          preserver.recoverEvaluators());
+      preserver.recordRemovedEvaluator("container_1");
+    }
+
+    try (DFSEvaluatorJournalPreserver preserver = newPreserver(1024, 4)) {
+      Assert.assertEquals(new HashSet<>(Arrays.asList("container_3", "container_4")), preserver.recoverEvaluators());
+    }
+  }
+
+  /**
+   * An unchecked exception thrown while committing is reported to the recording thread instead of hanging it.
+   */
+  @Test(timeout = 10000, expected = DriverFatalRuntimeException.class)
+  public void testUncheckedCommitFailure() throws Exception {
+    final FileSystem fileSystem = spy(FileSystem.getLocal(new Configuration()));
+    doThrow(new IllegalStateException("create failed")).when(fileSystem).create(any(Path.class), anyBoolean());
+    try (DFSEvaluatorJournalPreserver preserver =
+             new DFSEvaluatorJournalPreserver(true, 0, 512, 1024, 4, fileSystem, this.directory)) {
+      preserver.recordAllocatedEvaluator("container_1");
+    }
+  }
+
+  private DFSEvaluatorJournalPreserver newPreserver(final int segmentSize, final int segmentsToCompact)
+      throws IOException {
+    return new DFSEvaluatorJournalPreserver(true, 0, 512, segmentSize, segmentsToCompact,
+        FileSystem.getLocal(new Configuration()), this.directory);
+  }
+}
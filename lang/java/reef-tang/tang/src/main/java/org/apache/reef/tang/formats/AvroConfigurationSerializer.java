@@ -42,11 +42,15 @@ import org.apache.reef.tang.util.ReflectionUtilities;
 import javax.inject.Inject;
 
 import java.io.*;
+import java.nio.file.Files;
 import java.util.*;
 
 /**
  * (De-)Serializing Configuration to and from AvroConfiguration.
  * <p>
+ * Configurations written by {@link CompactConfigurationSerializer} are recognized by their header
+ * and can be read from files, byte arrays and strings as well.
+ * <p>
  * This class is stateless and is therefore safe to reuse.
  */
 public final class AvroConfigurationSerializer implements ConfigurationSerializer {
@@ -116,6 +120,9 @@ public final class AvroConfigurationSerializer implements ConfigurationSerialize
   }
 
   private static AvroConfiguration avroFromFile(final File file) throws IOException {
+    if (CompactConfigurationSerializer.isCompact(file)) {
+      return avroFromBytes(Files.readAllBytes(file.toPath()));
+    }
     final AvroConfiguration avroConfiguration;
     try (DataFileReader<AvroConfiguration> dataFileReader =
              new DataFileReader<>(file, new SpecificDatumReader<>(AvroConfiguration.class))) {
@@ -125,12 +132,18 @@ public final class AvroConfigurationSerializer implements ConfigurationSerialize
   }
 
   private static AvroConfiguration avroFromBytes(final byte[] theBytes) throws IOException {
+    if (CompactConfigurationSerializer.isCompact(theBytes)) {
+      return CompactConfigurationSerializer.toAvro(CompactConfigurationSerializer.avroFromBytes(theBytes));
+    }
     final BinaryDecoder decoder = DecoderFactory.get().binaryDecoder(theBytes, null);
     final SpecificDatumReader<AvroConfiguration> reader = new SpecificDatumReader<>(AvroConfiguration.class);
     return reader.read(null, decoder);
   }
 
   private static AvroConfiguration avroFromString(final String theString) throws IOException {
+    if (CompactConfigurationSerializer.isCompact(theString)) {
+      return CompactConfigurationSerializer.toAvro(CompactConfigurationSerializer.avroFromString(theString));
+    }
     final JsonDecoder decoder = DecoderFactory.get().jsonDecoder(AvroConfiguration.getClassSchema(), theString);
     final SpecificDatumReader<AvroConfiguration> reader = new SpecificDatumReader<>(AvroConfiguration.class);
     return reader.read(null, decoder);
@@ -0,0 +1,402 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.reef.tang.formats;
+
+import org.apache.avro.io.BinaryDecoder;
+import org.apache.avro.io.BinaryEncoder;
+import org.apache.avro.io.DecoderFactory;
+import org.apache.avro.io.EncoderFactory;
+import org.apache.avro.io.JsonEncoder;
+import org.apache.avro.specific.SpecificDatumReader;
+import org.apache.avro.specific.SpecificDatumWriter;
+import org.apache.reef.tang.ClassHierarchy;
+import org.apache.reef.tang.Configuration;
+import org.apache.reef.tang.exceptions.BindException;
+import org.apache.reef.tang.formats.avro.*;
+
+import javax.inject.Inject;
+import java.io.*;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.*;
+
+/**
+ * (De-)Serializing Configuration to and from a compact binary form.
+ * <p>
+ * The bindings are those of {@link AvroConfigurationSerializer}, encoded as Avro binary. Every key and value
+ * is written once in a string table and referred to by its index. A value that is itself a configuration
+ * serialized by this class, such as the context and task configurations nested in an evaluator configuration,
+ * is embedded as a structure sharing that string table instead of as an opaque string.
+ * <p>
+ * The string form is the same header followed by the rest of the binary form in Base64, so that it survives
+ * being nested in JSON. {@link AvroConfigurationSerializer} recognizes the header of both forms, so it reads
+ * configurations written by this class. The text file form is the JSON of AvroConfigurationSerializer,
+ * so that it stays readable.
+ * <p>
+ * This class is stateless and is therefore safe to reuse.
+ */
+public final class CompactConfigurationSerializer implements ConfigurationSerializer {
+
+  /**
+   * Header of the serialized configurations: a zero byte, "TC" and the format version.
+   */
+  private static final byte[] HEADER = {0, 'T', 'C', 1};
+
+  private static final String HEADER_STRING = new String(HEADER, StandardCharsets.US_ASCII);
+
+  /**
+   * Avro datum readers and writers are thread-safe, and creating them resolves the schema.
+   */
+  private static final SpecificDatumReader<CompactConfiguration> READER =
+      new SpecificDatumReader<>(CompactConfiguration.class);
+  private static final SpecificDatumWriter<CompactConfiguration> WRITER =
+      new SpecificDatumWriter<>(CompactConfiguration.class);
+
+  private final AvroConfigurationSerializer avroSerializer = new AvroConfigurationSerializer();
+
+  @Inject
+  public CompactConfigurationSerializer() {
+  }
+
+  /**
+   * @param theBytes a serialized configuration.
+   * @return true if the configuration was serialized by this class.
+   */
+  public static boolean isCompact(final byte[] theBytes) {
+    if (theBytes.length < HEADER.length) {
+      return false;
+    }
+    for (int i = 0; i < HEADER.length; ++i) {
+      if (theBytes[i] != HEADER[i]) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  /**
+   * @param file a file holding a serialized configuration.
+   * @return true if the configuration was serialized by this class.
+   * @throws IOException if the file could not be read.
+   */
+  static boolean isCompact(final File file) throws IOException {
+    final byte[] header = new byte[HEADER.length];
+    try (InputStream in = new FileInputStream(file)) {
+      int length = 0;
+      while (length < header.length) {
+        final int read = in.read(header, length, header.length - length);
+        if (read < 0) {
+          return false;
+        }
+        length += read;
+      }
+    }
+    return isCompact(header);
+  }
+
+  /**
+   * @param theString a serialized configuration.
+   * @return true if the configuration was serialized by this class.
+   */
+  public static boolean isCompact(final String theString) {
+    return theString.startsWith(HEADER_STRING);
+  }
+
+  /**
+   * Converts a given Configuration to its compact Avro form, embedding the nested compact configurations.
+   *
+   * @param configuration a Tang configuration.
+   * @return the compact Avro form of the configuration.
+   * @throws IOException if a nested compact configuration is corrupt.
+   */
+  public CompactConfiguration toCompact(final Configuration configuration) throws IOException {
+    final StringTable strings = new StringTable();
+    final AvroConfiguration avroConfiguration = this.avroSerializer.toAvro(configuration);
+    final List<CompactConfigurationEntry> entries = new ArrayList<>(avroConfiguration.getBindings().size());
+    for (final ConfigurationEntry entry : avroConfiguration.getBindings()) {
+      final String value = entry.getValue().toString();
+      entries.add(new CompactConfigurationEntry(strings.indexOf(entry.getKey().toString()),
+          isCompact(value) ? embed(avroFromString(value), strings) : strings.indexOf(value)));
+    }
+    return new CompactConfiguration(
+        avroConfiguration.getLanguage(), strings.getStrings(), new CompactBindings(entries));
+  }
+
+  /**
+   * Converts a given compact configuration to an AvroConfiguration.
+   * The nested configurations are bound to their compact string forms.
+   *
+   * @param compactConfiguration a compact configuration.
+   * @return the AvroConfiguration with the same bindings.
+   */
+  public static AvroConfiguration toAvro(final CompactConfiguration compactConfiguration) {
+    final List<CharSequence> strings = compactConfiguration.getStrings();
+    final List<CompactConfigurationEntry> entries = compactConfiguration.getBindings().getEntries();
+    final List<ConfigurationEntry> avroEntries = new ArrayList<>(entries.size());
+    for (final CompactConfigurationEntry entry : entries) {
+      final Object value = entry.getValue();
+      final CharSequence avroValue;
+      if (value instanceof Integer) {
+        avroValue = strings.get((Integer) value);
+      } else {
+        // Written out on its own, with only the strings it uses
+        final StringTable nestedStrings = new StringTable();
+        final CompactBindings nestedBindings = embed((CompactBindings) value, strings, nestedStrings);
+        avroValue = toString(new CompactConfiguration(
+            compactConfiguration.getLanguage(), nestedStrings.getStrings(), nestedBindings));
+      }
+      avroEntries.add(new ConfigurationEntry(strings.get(entry.getKey()), avroValue));
+    }
+    return new AvroConfiguration(compactConfiguration.getLanguage(), avroEntries);
+  }
+
+  /**
+   * Converts a given compact configuration to Configuration.
+   *
+   * @param compactConfiguration a compact configuration.
+   * @return a Configuration version of the given compact configuration.
+   */
+  public Configuration fromCompact(final CompactConfiguration compactConfiguration) throws BindException {
+    return this.avroSerializer.fromAvro(toAvro(compactConfiguration));
+  }
+
+  /**
+   * Converts a given compact configuration to Configuration.
+   *
+   * @param compactConfiguration a compact configuration.
+   * @param classHierarchy       the class hierarchy used for validation.
+   * @return a Configuration version of the given compact configuration.
+   */
+  public Configuration fromCompact(final CompactConfiguration compactConfiguration,
+                                   final ClassHierarchy classHierarchy) throws BindException {
+    return this.avroSerializer.fromAvro(toAvro(compactConfiguration), classHierarchy);
+  }
+
+  @Override
+  public void toFile(final Configuration conf, final File file) throws IOException {
+    Files.write(file.toPath(), toByteArray(conf));
+  }
+
+  /**
+   * Writes the JSON text form of {@link AvroConfigurationSerializer}, in which the nested compact configurations
+   * are converted to JSON as well. The file can be read by any ConfigurationSerializer.
+   */
+  @Override
+  public void toTextFile(final Configuration conf, final File file) throws IOException {
+    try (OutputStream out = new FileOutputStream(file)) {
+      writeJson(toAvro(toCompact(conf)), out);
+    }
+  }
+
+  @Override
+  public byte[] toByteArray(final Configuration conf) throws IOException {
+    return toBytes(toCompact(conf));
+  }
+
+  /**
+   * Produce the string form of a given configuration.
+   * Nest it in another configuration to have it embedded as a structure by this class.
+   *
+   * @param configuration Tang configuration to convert into a string.
+   * @return A string that corresponds to the given Tang configuration.
+   */
+  @Override
+  public String toString(final Configuration configuration) {
+    try {
+      return toString(toCompact(configuration));
+    } catch (final IOException e) {
+      throw new RuntimeException(e);
+    }
+  }
+
+  @Override
+  public Configuration fromFile(final File file) throws IOException, BindException {
+    return fromByteArray(Files.readAllBytes(file.toPath()));
+  }
+
+  @Override
+  public Configuration fromFile(final File file, final ClassHierarchy classHierarchy)
+      throws IOException, BindException {
+    return fromByteArray(Files.readAllBytes(file.toPath()), classHierarchy);
+  }
+
+  @Override
+  public Configuration fromTextFile(final File file) throws IOException, BindException {
+    return isCompact(file) ? fromFile(file) : this.avroSerializer.fromTextFile(file);
+  }
+
+  @Override
+  public Configuration fromTextFile(final File file, final ClassHierarchy classHierarchy) throws IOException {
+    return isCompact(file) ? fromFile(file, classHierarchy) : this.avroSerializer.fromTextFile(file, classHierarchy);
+  }
+
+  @Override
+  public Configuration fromByteArray(final byte[] theBytes) throws IOException, BindException {
+    return fromCompact(avroFromBytes(theBytes));
+  }
+
+  @Override
+  public Configuration fromByteArray(final byte[] theBytes, final ClassHierarchy classHierarchy)
+      throws IOException, BindException {
+    return fromCompact(avroFromBytes(theBytes), classHierarchy);
+  }
+
+  @Override
+  public Configuration fromString(final String theString) throws IOException, BindException {
+    return fromCompact(avroFromString(theString));
+  }
+
+  @Override
+  public Configuration fromString(final String theString, final ClassHierarchy classHierarchy)
+      throws IOException, BindException {
+    return fromCompact(avroFromString(theString), classHierarchy);
+  }
+
+  /**
+   * Writes a configuration as JSON, converting the nested compact configurations to JSON strings.
+   */
+  private static void writeJson(final AvroConfiguration avroConfiguration, final OutputStream out)
+      throws IOException {
+    final List<ConfigurationEntry> entries = new ArrayList<>(avroConfiguration.getBindings().size());
+    for (final ConfigurationEntry entry : avroConfiguration.getBindings()) {
+      final String value = entry.getValue().toString();
+      if (isCompact(value)) {
+        final ByteArrayOutputStream nested = new ByteArrayOutputStream();
+        writeJson(toAvro(avroFromString(value)), nested);
+        entries.add(new ConfigurationEntry(entry.getKey(), nested.toString(StandardCharsets.ISO_8859_1.name())));
+      } else {
+        entries.add(entry);
+      }
+    }
+    final JsonEncoder encoder = EncoderFactory.get().jsonEncoder(AvroConfiguration.SCHEMA$, out);
+    new SpecificDatumWriter<>(AvroConfiguration.class).write(
+        new AvroConfiguration(avroConfiguration.getLanguage(), entries), encoder);
+    encoder.flush();
+  }
+
+  /**
+   * @param theBytes a configuration serialized by this class.
+   * @return its compact Avro form.
+   * @throws IOException if the bytes are not a compact configuration.
+   */
+  static CompactConfiguration avroFromBytes(final byte[] theBytes) throws IOException {
+    if (!isCompact(theBytes)) {
+      throw new IOException("Not a compact configuration: header mismatch");
+    }
+    return avroFromBody(theBytes, HEADER.length);
+  }
+
+  /**
+   * @param theString the string form of a configuration serialized by this class.
+   * @return its compact Avro form.
+   * @throws IOException if the string is not a compact configuration.
+   */
+  static CompactConfiguration avroFromString(final String theString) throws IOException {
+    if (!isCompact(theString)) {
+      throw new IOException("Not a compact configuration: header mismatch");
+    }
+    final byte[] theBytes;
+    try {
+      theBytes = Base64.getDecoder().decode(theString.substring(HEADER_STRING.length()));
+    } catch (final IllegalArgumentException e) {
+      throw new IOException("Not a compact configuration: invalid Base64", e);
+    }
+    return avroFromBody(theBytes, 0);
+  }
+
+  private static CompactConfiguration avroFromBody(final byte[] theBytes, final int offset) throws IOException {
+    final BinaryDecoder decoder = DecoderFactory.get().binaryDecoder(theBytes, offset, theBytes.length - offset, null);
+    return READER.read(null, decoder);
+  }
+
+  private static byte[] toBytes(final CompactConfiguration compactConfiguration) {
+    try (ByteArrayOutputStream out = new ByteArrayOutputStream()) {
+      out.write(HEADER);
+      writeBody(compactConfiguration, out);
+      return out.toByteArray();
+    } catch (final IOException e) {
+      throw new RuntimeException("Unable to write to memory", e);
+    }
+  }
+
+  private static String toString(final CompactConfiguration compactConfiguration) {
+    try (ByteArrayOutputStream out = new ByteArrayOutputStream()) {
+      writeBody(compactConfiguration, out);
+      return HEADER_STRING + Base64.getEncoder().encodeToString(out.toByteArray());
+    } catch (final IOException e) {
+      throw new RuntimeException("Unable to write to memory", e);
+    }
+  }
+
+  private static void writeBody(final CompactConfiguration compactConfiguration, final OutputStream out)
+      throws IOException {
+    final BinaryEncoder encoder = EncoderFactory.get().binaryEncoder(out, null);
+    WRITER.write(compactConfiguration, encoder);
+    encoder.flush();
+  }
+
+  /**
+   * @return the bindings of a nested configuration, referring to the strings of the enclosing one.
+   */
+  private static CompactBindings embed(final CompactConfiguration nested, final StringTable strings) {
+    return embed(nested.getBindings(), nested.getStrings(), strings);
+  }
+
+  /**
+   * Copy bindings from one string table to another.
+   *
+   * @param bindings    bindings referring to fromStrings.
+   * @param fromStrings the string table of the bindings.
+   * @param toStrings   the string table of the copy, to which missing strings are added.
+   * @return a copy of the bindings referring to toStrings.
+   */
+  private static CompactBindings embed(final CompactBindings bindings, final List<CharSequence> fromStrings,
+                                       final StringTable toStrings) {
+    final List<CompactConfigurationEntry> entries = new ArrayList<>(bindings.getEntries().size());
+    for (final CompactConfigurationEntry entry : bindings.getEntries()) {
+      final Object value = entry.getValue();
+      entries.add(new CompactConfigurationEntry(toStrings.indexOf(fromStrings.get(entry.getKey()).toString()),
+          value instanceof Integer ? toStrings.indexOf(fromStrings.get((Integer) value).toString())
+              : embed((CompactBindings) value, fromStrings, toStrings)));
+    }
+    return new CompactBindings(entries);
+  }
+
+  /**
+   * Strings of a compact configuration, each stored once.
+   */
+  private static final class StringTable {
+    private final Map<String, Integer> indexes = new HashMap<>();
+    private final List<CharSequence> strings = new ArrayList<>();
+
+    int indexOf(final String string) {
+      final Integer index = this.indexes.get(string);
+      if (index != null) {
+        return index;
+      }
+      this.indexes.put(string, this.strings.size());
+      this.strings.add(string);
+      return this.strings.size() - 1;
+    }
+
+    List<CharSequence> getStrings() {
+      return this.strings;
+    }
+  }
+}
@@ -36,6 +36,7 @@ import java.lang.reflect.Type;
 import java.net.URL;
 import java.net.URLClassLoader;
 import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
 
 public class ClassHierarchyImpl implements JavaClassHierarchy {
   // TODO Want to add a "register namespace" method, but Java is not designed
@@ -72,6 +73,27 @@ public class ClassHierarchyImpl implements JavaClassHierarchy {
    * sanity check short names so that name clashes get resolved.
    */
   private final Map<String, NamedParameterNode<?>> shortNames = new MonotonicTreeMap<>();
+  /**
+   * Classes already loaded by classForName(), by name. Class loading goes through the whole
+   * chain of class loaders, and the same names are looked up again by every injector.
+   */
+  private final Map<String, Class<?>> loadedClasses = new ConcurrentHashMap<>();
+  /**
+   * Nodes already registered, by full name. getNode() looks nodes up here without locking,
+   * and only registers new nodes under the lock.
+   */
+  private final Map<String, Node> registeredNodes = new ConcurrentHashMap<>();
+  /**
+   * Class hierarchy indexes of the packages on the classpath, each read on the first registration
+   * of one of its classes.
+   */
+  private ClassHierarchyIndex index = ClassHierarchyIndex.create();
+  /**
+   * Constructors resolved and compiled by the injectors that use this class hierarchy.
+   * ConstructorDef.equals() ignores the order of arguments, so the constructors are looked up by identity.
+   */
+  private final Map<ConstructorDef<?>, CompiledConstructor<?>> compiledConstructors =
+      Collections.synchronizedMap(new IdentityHashMap<ConstructorDef<?>, CompiledConstructor<?>>());
 
   @SuppressWarnings("unchecked")
   public ClassHierarchyImpl() {
@@ -187,9 +209,33 @@ public class ClassHierarchyImpl implements JavaClassHierarchy {
    */
   @Override
   public Class<?> classForName(final String name) throws ClassNotFoundException {
-    return ReflectionUtilities.classForName(name, loader);
+    Class<?> clazz = loadedClasses.get(name);
+    if (clazz == null) {
+      clazz = ReflectionUtilities.classForName(name, loader);
+      loadedClasses.put(name, clazz);
+    }
+    return clazz;
   }
 
+  /**
+   * Return the compiled constructor of a ConstructorDef, resolving and compiling it on first use.
+   *
+   * @param def a constructor of a class in this class hierarchy.
+   * @return the compiled constructor.
+   * @throws ReflectiveOperationException if the class or constructor cannot be found or accessed.
+   */
+  @SuppressWarnings("unchecked")
+  <T> CompiledConstructor<T> getCompiledConstructor(final ConstructorDef<T> def)
+      throws ReflectiveOperationException {
+    CompiledConstructor<T> compiled = (CompiledConstructor<T>) compiledConstructors.get(def);
+    if (compiled == null) {
+      compiled = CompiledConstructor.compile(def, this);
+      compiledConstructors.put(def, compiled);
+    }
+    return compiled;
+  }
+
+  @SuppressWarnings("unchecked")
   private <T, U> Node buildPathToNode(final Class<U> clazz)
       throws ClassHierarchyException {
     final String[] path = clazz.getName().split("\\$");
@@ -205,20 +251,26 @@ public class ClassHierarchyImpl implements JavaClassHierarchy {
     }
     final Node parent = root;
 
-    final Type argType = ReflectionUtilities.getNamedParameterTargetOrNull(clazz);
+    // Indexed nodes were built and checked the same way when the index was written
+    final ClassHierarchyIndex.IndexedNode indexed = index.get(clazz);
+    final Type argType = indexed == null ? ReflectionUtilities.getNamedParameterTargetOrNull(clazz) : null;
 
-    if (argType == null) {
+    if (indexed instanceof ClassHierarchyIndex.IndexedClassNode) {
+      return indexed.newNode(parent);
+    } else if (indexed == null && argType == null) {
       return JavaNodeFactory.createClassNode(parent, clazz);
     } else {
 
       // checked inside of NamedParameterNode, using reflection.
-      @SuppressWarnings("unchecked") final NamedParameterNode<T> np = JavaNodeFactory.createNamedParameterNode(
-          parent, (Class<? extends Name<T>>) clazz, argType);
+      final NamedParameterNode<?> np = indexed != null
+          ? (NamedParameterNode<?>) indexed.newNode(parent)
+          : JavaNodeFactory.createNamedParameterNode(parent, (Class<? extends Name<T>>) clazz, argType);
 
-      if (parameterParser.canParse(ReflectionUtilities.getFullName(argType)) &&
+      // Parsers may have been added since the index was written, so this is checked either way
+      if (parameterParser.canParse(np.getFullArgName()) &&
           clazz.getAnnotation(NamedParameter.class).default_class() != Void.class) {
         throw new ClassHierarchyException("Named parameter " + ReflectionUtilities.getFullName(clazz) +
-            " defines default implementation for parsable type " + ReflectionUtilities.getFullName(argType));
+            " defines default implementation for parsable type " + np.getFullArgName());
       }
 
       final String shortName = np.getShortName();
@@ -253,8 +305,21 @@ public class ClassHierarchyImpl implements JavaClassHierarchy {
     }
   }
 
+  /**
+   * Reflect over all classes, even those in a class hierarchy index.
+   * Used to write the indexes, which must not depend on the previous ones.
+   */
+  synchronized void ignoreIndex() {
+    index = ClassHierarchyIndex.empty();
+  }
+
   @Override
-  public synchronized Node getNode(final String name) throws NameResolutionException {
+  public Node getNode(final String name) throws NameResolutionException {
+    final Node n = registeredNodes.get(name);
+    return n != null ? n : registerNode(name);
+  }
+
+  private synchronized Node registerNode(final String name) throws NameResolutionException {
     final Node n = register(name);
     if (n == null) {
       // This will never succeed; it just generates a nice exception.
@@ -262,6 +327,7 @@ public class ClassHierarchyImpl implements JavaClassHierarchy {
       throw new IllegalStateException("IMPLEMENTATION BUG: Register failed, "
           + "but getAlreadyBoundNode succeeded!");
     }
+    registeredNodes.put(name, n);
     return n;
   }
 
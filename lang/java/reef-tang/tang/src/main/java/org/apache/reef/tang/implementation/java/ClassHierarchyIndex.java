@@ -0,0 +1,465 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.reef.tang.implementation.java;
+
+import org.apache.reef.tang.implementation.types.ClassNodeImpl;
+import org.apache.reef.tang.implementation.types.ConstructorArgImpl;
+import org.apache.reef.tang.implementation.types.ConstructorDefImpl;
+import org.apache.reef.tang.implementation.types.NamedParameterNodeImpl;
+import org.apache.reef.tang.types.*;
+import org.apache.reef.tang.util.ReflectionUtilities;
+
+import java.io.*;
+import java.lang.reflect.Constructor;
+import java.net.MalformedURLException;
+import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import java.security.CodeSource;
+import java.util.*;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+import java.util.zip.CRC32;
+
+/**
+ * The class hierarchy nodes precomputed at build time by {@link ClassHierarchyIndexer}
+ * for the classes of each package of a jar or classes directory.
+ * ClassHierarchyImpl creates the nodes of indexed classes from here instead of
+ * reflecting over their constructors and annotations.
+ * <p>
+ * Each package has its own index in its jar, which is only read when the first class of that package
+ * is registered. The indexes are in a plain binary format, so that reading them costs less than the
+ * reflection they save.
+ * Each indexed node carries a checksum of the constructor signatures of its class, and is ignored
+ * if they have changed since.
+ */
+final class ClassHierarchyIndex {
+
+  /**
+   * Directory of the index resources in each jar, which holds one index per package.
+   */
+  static final String RESOURCE_DIRECTORY = "META-INF/tang/";
+  static final String RESOURCE_FILE = "class-hierarchy.bin";
+
+  private static final Logger LOG = Logger.getLogger(ClassHierarchyIndex.class.getName());
+
+  private static final int MAGIC = 0x54414e47;
+  private static final int VERSION = 1;
+
+  private static final byte CLASS_NODE = 0;
+  private static final byte NAMED_PARAMETER_NODE = 1;
+
+  /**
+   * Indexed nodes of each package of each jar or classes directory read so far, by index URL and full name.
+   * Packages without an index map to an empty map.
+   */
+  private final Map<String, Map<String, IndexedNode>> packages = new HashMap<>();
+
+  private final boolean enabled;
+
+  private ClassHierarchyIndex(final boolean enabled) {
+    this.enabled = enabled;
+  }
+
+  /**
+   * @return an index that reads the indexes of the packages of the classes it is asked for.
+   */
+  static ClassHierarchyIndex create() {
+    return new ClassHierarchyIndex(true);
+  }
+
+  /**
+   * @return an index without nodes.
+   */
+  static ClassHierarchyIndex empty() {
+    return new ClassHierarchyIndex(false);
+  }
+
+  /**
+   * Look up the indexed node of a class, reading the index of its package on first use.
+   * Not thread-safe: ClassHierarchyImpl only calls it while registering nodes, under its lock.
+   *
+   * @param clazz the class.
+   * @return the indexed node of the class, or null if it is not indexed or its index is out of date.
+   */
+  IndexedNode get(final Class<?> clazz) {
+    if (!this.enabled) {
+      return null;
+    }
+    final URL url = getIndexUrl(clazz);
+    if (url == null) {
+      return null;
+    }
+    final String key = url.toString();
+    Map<String, IndexedNode> nodes = this.packages.get(key);
+    if (nodes == null) {
+      nodes = read(url);
+      this.packages.put(key, nodes);
+    }
+    final IndexedNode n = nodes.get(ReflectionUtilities.getFullName(clazz));
+    if (n != null && n.classChecksum != checksum(clazz)) {
+      LOG.log(Level.WARNING, "Class hierarchy index of {0} is out of date, using reflection", clazz.getName());
+      return null;
+    }
+    return n;
+  }
+
+  /**
+   * @param packageName a package name.
+   * @return the name of the index resource of the package.
+   */
+  static String getResourceName(final String packageName) {
+    return RESOURCE_DIRECTORY + (packageName.isEmpty() ? "" : packageName.replace('.', '/') + '/') + RESOURCE_FILE;
+  }
+
+  /**
+   * @param className a class name.
+   * @return the name of its package, or an empty string for the default package.
+   */
+  static String getPackageName(final String className) {
+    final int lastDot = className.lastIndexOf('.');
+    return lastDot < 0 ? "" : className.substring(0, lastDot);
+  }
+
+  /**
+   * @return the URL of the index of the package of a class, in the jar or classes directory of the class.
+   */
+  private static URL getIndexUrl(final Class<?> clazz) {
+    final CodeSource codeSource = clazz.getProtectionDomain().getCodeSource();
+    final URL location = codeSource == null ? null : codeSource.getLocation();
+    if (location == null) {
+      return null;
+    }
+    final String resourceName = getResourceName(getPackageName(clazz.getName()));
+    try {
+      return location.getPath().endsWith("/")
+          ? new URL(location, resourceName)
+          : new URL("jar:" + location + "!/" + resourceName);
+    } catch (final MalformedURLException e) {
+      LOG.log(Level.FINE, "No class hierarchy index for " + location, e);
+      return null;
+    }
+  }
+
+  /**
+   * Read the index of a package, if it has one.
+   * Indexes that cannot be read are skipped; their classes are reflected over instead.
+   */
+  private static Map<String, IndexedNode> read(final URL url) {
+    try (InputStream in = url.openStream()) {
+      final Map<String, IndexedNode> nodes = read(in);
+      LOG.log(Level.FINEST, "Loaded class hierarchy index of {0} nodes from {1}", new Object[] {nodes.size(), url});
+      return nodes;
+    } catch (final FileNotFoundException e) {
+      return Collections.emptyMap();
+    } catch (final IOException e) {
+      LOG.log(Level.WARNING, "Could not read class hierarchy index " + url, e);
+      return Collections.emptyMap();
+    }
+  }
+
+  /**
+   * Checksum of the constructor signatures of a class, to tell whether they have changed since the class
+   * was indexed. This covers the erased parameter types of all declared constructors, which reflection
+   * returns cheaply, but not their annotations and generic types, which is what the index saves getting.
+   *
+   * @param clazz the class.
+   * @return the CRC-32 of the constructor signatures.
+   */
+  static long checksum(final Class<?> clazz) {
+    final Constructor<?>[] constructors = clazz.getDeclaredConstructors();
+    final String[] signatures = new String[constructors.length];
+    for (int i = 0; i < constructors.length; ++i) {
+      final StringBuilder signature = new StringBuilder();
+      for (final Class<?> parameterType : constructors[i].getParameterTypes()) {
+        signature.append(parameterType.getName()).append(',');
+      }
+      signatures[i] = signature.toString();
+    }
+    Arrays.sort(signatures);
+    final CRC32 crc = new CRC32();
+    for (final String signature : signatures) {
+      crc.update(signature.getBytes(StandardCharsets.UTF_8));
+      crc.update(';');
+    }
+    return crc.getValue();
+  }
+
+  /**
+   * Write the nodes of an index.
+   *
+   * @param nodes the nodes.
+   * @param out   the stream to write to.
+   * @throws IOException if the nodes could not be written.
+   */
+  static void write(final Collection<IndexedNode> nodes, final OutputStream out) throws IOException {
+    final DataOutputStream data = new DataOutputStream(new BufferedOutputStream(out));
+    data.writeInt(MAGIC);
+    data.writeInt(VERSION);
+    data.writeInt(nodes.size());
+    for (final IndexedNode n : nodes) {
+      n.write(data);
+    }
+    data.flush();
+  }
+
+  /**
+   * Read the nodes of an index.
+   *
+   * @param in the stream to read from.
+   * @return the nodes, by full name.
+   * @throws IOException if the index could not be read, or is not in a known format.
+   */
+  static Map<String, IndexedNode> read(final InputStream in) throws IOException {
+    final DataInputStream data = new DataInputStream(new BufferedInputStream(in));
+    if (data.readInt() != MAGIC) {
+      throw new IOException("Not a class hierarchy index");
+    }
+    final int version = data.readInt();
+    if (version != VERSION) {
+      throw new IOException("Unknown class hierarchy index version " + version);
+    }
+    final int size = data.readInt();
+    final Map<String, IndexedNode> nodes = new HashMap<>(size * 2);
+    for (int i = 0; i < size; ++i) {
+      final IndexedNode n = IndexedNode.read(data);
+      nodes.put(n.fullName, n);
+    }
+    return nodes;
+  }
+
+  private static void writeNullable(final DataOutputStream data, final String s) throws IOException {
+    data.writeBoolean(s != null);
+    if (s != null) {
+      data.writeUTF(s);
+    }
+  }
+
+  private static String readNullable(final DataInputStream data) throws IOException {
+    return data.readBoolean() ? data.readUTF() : null;
+  }
+
+  /**
+   * The indexed node of a class or named parameter.
+   */
+  abstract static class IndexedNode {
+
+    private final String name;
+    private final String fullName;
+    private final long classChecksum;
+
+    IndexedNode(final String name, final String fullName, final long classChecksum) {
+      this.name = name;
+      this.fullName = fullName;
+      this.classChecksum = classChecksum;
+    }
+
+    /**
+     * Index a class or named parameter node of a class hierarchy.
+     *
+     * @param n             the class or named parameter node.
+     * @param classChecksum the checksum of the constructor signatures of the class of the node.
+     * @return the indexed node.
+     */
+    static IndexedNode of(final Node n, final long classChecksum) {
+      if (n instanceof NamedParameterNode) {
+        return new IndexedNamedParameterNode((NamedParameterNode<?>) n, classChecksum);
+      } else if (n instanceof ClassNode) {
+        return new IndexedClassNode((ClassNode<?>) n, classChecksum);
+      }
+      throw new IllegalArgumentException("Not a class or named parameter node: " + n.getFullName());
+    }
+
+    String getFullName() {
+      return this.fullName;
+    }
+
+    String getName() {
+      return this.name;
+    }
+
+    /**
+     * Create the node of the indexed class, as JavaNodeFactory would.
+     *
+     * @param parent the parent node, already registered.
+     * @return a new node, child of parent.
+     */
+    abstract Node newNode(Node parent);
+
+    void write(final DataOutputStream data) throws IOException {
+      data.writeByte(this instanceof IndexedClassNode ? CLASS_NODE : NAMED_PARAMETER_NODE);
+      data.writeUTF(this.name);
+      data.writeUTF(this.fullName);
+      data.writeLong(this.classChecksum);
+    }
+
+    static IndexedNode read(final DataInputStream data) throws IOException {
+      final byte type = data.readByte();
+      final String name = data.readUTF();
+      final String fullName = data.readUTF();
+      final long classChecksum = data.readLong();
+      switch (type) {
+      case CLASS_NODE:
+        return new IndexedClassNode(name, fullName, classChecksum, data);
+      case NAMED_PARAMETER_NODE:
+        return new IndexedNamedParameterNode(name, fullName, classChecksum, data);
+      default:
+        throw new IOException("Unknown node type " + type + " of " + fullName);
+      }
+    }
+  }
+
+  /**
+   * The indexed node of a class.
+   */
+  static final class IndexedClassNode extends IndexedNode {
+
+    private final boolean isUnit;
+    private final boolean isInjectionCandidate;
+    private final boolean isExternalConstructor;
+    private final String defaultImplementation;
+    /** The injectable constructors first, then the others. */
+    private final ConstructorDef<?>[] constructors;
+    private final int numInjectableConstructors;
+
+    private IndexedClassNode(final ClassNode<?> n, final long classChecksum) {
+      super(n.getName(), n.getFullName(), classChecksum);
+      this.isUnit = n.isUnit();
+      this.isInjectionCandidate = n.isInjectionCandidate();
+      this.isExternalConstructor = n.isExternalConstructor();
+      this.defaultImplementation = n.getDefaultImplementation();
+      final List<ConstructorDef<?>> defs = new ArrayList<>(Arrays.asList(n.getInjectableConstructors()));
+      this.numInjectableConstructors = defs.size();
+      for (final ConstructorDef<?> def : n.getAllConstructors()) {
+        if (!defs.contains(def)) {
+          defs.add(def);
+        }
+      }
+      this.constructors = defs.toArray(new ConstructorDef<?>[defs.size()]);
+    }
+
+    private IndexedClassNode(final String name, final String fullName, final long classChecksum,
+                             final DataInputStream data) throws IOException {
+      super(name, fullName, classChecksum);
+      this.isUnit = data.readBoolean();
+      this.isInjectionCandidate = data.readBoolean();
+      this.isExternalConstructor = data.readBoolean();
+      this.defaultImplementation = readNullable(data);
+      this.numInjectableConstructors = data.readInt();
+      this.constructors = new ConstructorDef<?>[data.readInt()];
+      for (int i = 0; i < this.constructors.length; ++i) {
+        final String className = data.readUTF();
+        final ConstructorArg[] args = new ConstructorArg[data.readInt()];
+        for (int j = 0; j < args.length; ++j) {
+          args[j] = new ConstructorArgImpl(data.readUTF(), readNullable(data), data.readBoolean());
+        }
+        this.constructors[i] = new ConstructorDefImpl<>(className, args, i < this.numInjectableConstructors);
+      }
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    Node newNode(final Node parent) {
+      final ConstructorDef<Object>[] all = (ConstructorDef<Object>[]) this.constructors.clone();
+      final ConstructorDef<Object>[] injectable = Arrays.copyOf(all, this.numInjectableConstructors);
+      return new ClassNodeImpl<>(parent, getName(), getFullName(), this.isUnit, this.isInjectionCandidate,
+          this.isExternalConstructor, injectable, all, this.defaultImplementation);
+    }
+
+    @Override
+    void write(final DataOutputStream data) throws IOException {
+      super.write(data);
+      data.writeBoolean(this.isUnit);
+      data.writeBoolean(this.isInjectionCandidate);
+      data.writeBoolean(this.isExternalConstructor);
+      writeNullable(data, this.defaultImplementation);
+      data.writeInt(this.numInjectableConstructors);
+      data.writeInt(this.constructors.length);
+      for (final ConstructorDef<?> def : this.constructors) {
+        data.writeUTF(def.getClassName());
+        data.writeInt(def.getArgs().length);
+        for (final ConstructorArg arg : def.getArgs()) {
+          data.writeUTF(arg.getType());
+          writeNullable(data, arg.getNamedParameterName());
+          data.writeBoolean(arg.isInjectionFuture());
+        }
+      }
+    }
+  }
+
+  /**
+   * The indexed node of a named parameter.
+   */
+  static final class IndexedNamedParameterNode extends IndexedNode {
+
+    private final String fullArgName;
+    private final String simpleArgName;
+    private final boolean isSet;
+    private final boolean isList;
+    private final String documentation;
+    private final String shortName;
+    private final String[] defaultInstanceAsStrings;
+
+    private IndexedNamedParameterNode(final NamedParameterNode<?> n, final long classChecksum) {
+      super(n.getName(), n.getFullName(), classChecksum);
+      this.fullArgName = n.getFullArgName();
+      this.simpleArgName = n.getSimpleArgName();
+      this.isSet = n.isSet();
+      this.isList = n.isList();
+      this.documentation = n.getDocumentation();
+      this.shortName = n.getShortName();
+      this.defaultInstanceAsStrings = n.getDefaultInstanceAsStrings();
+    }
+
+    private IndexedNamedParameterNode(final String name, final String fullName, final long classChecksum,
+                                      final DataInputStream data) throws IOException {
+      super(name, fullName, classChecksum);
+      this.fullArgName = data.readUTF();
+      this.simpleArgName = data.readUTF();
+      this.isSet = data.readBoolean();
+      this.isList = data.readBoolean();
+      this.documentation = readNullable(data);
+      this.shortName = readNullable(data);
+      this.defaultInstanceAsStrings = new String[data.readInt()];
+      for (int i = 0; i < this.defaultInstanceAsStrings.length; ++i) {
+        this.defaultInstanceAsStrings[i] = data.readUTF();
+      }
+    }
+
+    @Override
+    Node newNode(final Node parent) {
+      return new NamedParameterNodeImpl<>(parent, getName(), getFullName(), this.fullArgName, this.simpleArgName,
+          this.isSet, this.isList, this.documentation, this.shortName, this.defaultInstanceAsStrings.clone());
+    }
+
+    @Override
+    void write(final DataOutputStream data) throws IOException {
+      super.write(data);
+      data.writeUTF(this.fullArgName);
+      data.writeUTF(this.simpleArgName);
+      data.writeBoolean(this.isSet);
+      data.writeBoolean(this.isList);
+      writeNullable(data, this.documentation);
+      writeNullable(data, this.shortName);
+      data.writeInt(this.defaultInstanceAsStrings.length);
+      for (final String s : this.defaultInstanceAsStrings) {
+        data.writeUTF(s);
+      }
+    }
+  }
+}
@@ -0,0 +1,220 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.reef.tang.implementation.java;
+
+import org.apache.reef.tang.annotations.DefaultImplementation;
+import org.apache.reef.tang.annotations.Name;
+import org.apache.reef.tang.annotations.NamedParameter;
+import org.apache.reef.tang.annotations.Unit;
+import org.apache.reef.tang.exceptions.ClassHierarchyException;
+import org.apache.reef.tang.implementation.java.ClassHierarchyIndex.IndexedNode;
+import org.apache.reef.tang.types.ClassNode;
+import org.apache.reef.tang.types.NamedParameterNode;
+import org.apache.reef.tang.types.Node;
+
+import javax.inject.Inject;
+import java.io.*;
+import java.lang.reflect.Constructor;
+import java.util.*;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Writes the class hierarchy indexes of a directory of compiled classes, to be packaged in its jar.
+ * The indexes hold the nodes of the classes in that directory that Tang can inject or bind, one index per package,
+ * so that ClassHierarchyImpl does not need to reflect over them at runtime.
+ * <p>
+ * Run after compilation, with the classes and their dependencies on the classpath:
+ * {@code java -cp <classpath> org.apache.reef.tang.implementation.java.ClassHierarchyIndexer <classes directory>}.
+ * The build runs it on wake, reef-common and reef-io with the {@code tang-index} profile only:
+ * an index saves reflection when many classes of a package are registered, but reading it
+ * can cost more than it saves when only a few are.
+ */
+public final class ClassHierarchyIndexer {
+
+  private static final Logger LOG = Logger.getLogger(ClassHierarchyIndexer.class.getName());
+
+  private static final String CLASS_SUFFIX = ".class";
+
+  private ClassHierarchyIndexer() {
+  }
+
+  public static void main(final String[] args) throws IOException, ClassNotFoundException {
+    if (args.length != 1) {
+      throw new IllegalArgumentException("Usage: ClassHierarchyIndexer <classes directory>");
+    }
+    final File classesDir = new File(args[0]);
+    final List<File> indexFiles = write(index(classesDir), classesDir);
+    LOG.log(Level.INFO, "Wrote {0} class hierarchy indexes in {1}", new Object[] {indexFiles.size(), classesDir});
+  }
+
+  /**
+   * Write the index of each package of the indexed nodes, in the format read by ClassHierarchyIndex.
+   * The indexes left in the directory by a previous build are deleted first.
+   *
+   * @param nodes      the indexed nodes.
+   * @param classesDir the directory of the classes, under which the indexes are written.
+   * @return the files written.
+   * @throws IOException if a file could not be written.
+   */
+  static List<File> write(final Collection<IndexedNode> nodes, final File classesDir) throws IOException {
+    deleteIndexes(new File(classesDir, ClassHierarchyIndex.RESOURCE_DIRECTORY));
+    final Map<String, List<IndexedNode>> packages = new TreeMap<>();
+    for (final IndexedNode n : nodes) {
+      final String packageName = ClassHierarchyIndex.getPackageName(n.getFullName());
+      if (!packages.containsKey(packageName)) {
+        packages.put(packageName, new ArrayList<IndexedNode>());
+      }
+      packages.get(packageName).add(n);
+    }
+    final List<File> indexFiles = new ArrayList<>();
+    for (final Map.Entry<String, List<IndexedNode>> entry : packages.entrySet()) {
+      final File indexFile = new File(classesDir, ClassHierarchyIndex.getResourceName(entry.getKey()));
+      if (!indexFile.getParentFile().isDirectory() && !indexFile.getParentFile().mkdirs()) {
+        throw new IOException("Could not create directory " + indexFile.getParentFile());
+      }
+      try (OutputStream out = new FileOutputStream(indexFile)) {
+        ClassHierarchyIndex.write(entry.getValue(), out);
+      }
+      indexFiles.add(indexFile);
+    }
+    return indexFiles;
+  }
+
+  /**
+   * Delete the index files under a directory.
+   *
+   * @param dir the directory.
+   * @throws IOException if a file could not be deleted.
+   */
+  static void deleteIndexes(final File dir) throws IOException {
+    final File[] files = dir.listFiles();
+    if (files == null) {
+      return;
+    }
+    for (final File file : files) {
+      if (file.isDirectory()) {
+        deleteIndexes(file);
+      } else if (file.getName().equals(ClassHierarchyIndex.RESOURCE_FILE) && !file.delete()) {
+        throw new IOException("Could not delete " + file);
+      }
+    }
+  }
+
+  /**
+   * Index the class and named parameter nodes of the classes in a directory that Tang can inject or bind.
+   * Classes that cannot be loaded or are rejected by Tang are left out of the index.
+   *
+   * @param classesDir directory of compiled classes, which must also be on the classpath.
+   * @return the indexed nodes of the classes in the directory.
+   * @throws ClassNotFoundException if an indexed class cannot be loaded any more.
+   */
+  static List<IndexedNode> index(final File classesDir) throws ClassNotFoundException {
+    final Set<String> ownClasses = new HashSet<>();
+    findClasses(classesDir, "", ownClasses);
+
+    // A class rejected by Tang may leave some of its nodes behind, unchecked. The hierarchy is rebuilt
+    // from the accepted classes after each rejection, so it only holds nodes of successful registrations.
+    final List<Class<?>> acceptedClasses = new ArrayList<>();
+    ClassHierarchyImpl classHierarchy = newClassHierarchy();
+    for (final String name : ownClasses) {
+      try {
+        final Class<?> clazz = classHierarchy.classForName(name);
+        if (isTangClass(clazz)) {
+          classHierarchy.getNode(clazz);
+          acceptedClasses.add(clazz);
+        }
+      } catch (final ClassNotFoundException | LinkageError | TypeNotPresentException | ClassHierarchyException e) {
+        LOG.log(Level.FINE, "Not indexing " + name, e);
+        classHierarchy = newClassHierarchy();
+        for (final Class<?> clazz : acceptedClasses) {
+          classHierarchy.getNode(clazz);
+        }
+      }
+    }
+    LOG.log(Level.FINE, "Indexed {0} of {1} classes in {2}",
+        new Object[] {acceptedClasses.size(), ownClasses.size(), classesDir});
+
+    final List<IndexedNode> nodes = new ArrayList<>();
+    collect(classHierarchy.getNamespace(), classHierarchy, ownClasses, nodes);
+    return nodes;
+  }
+
+  /**
+   * @return a class hierarchy that ignores the index left by a previous build of the same classes.
+   */
+  private static ClassHierarchyImpl newClassHierarchy() {
+    final ClassHierarchyImpl classHierarchy = new ClassHierarchyImpl();
+    classHierarchy.ignoreIndex();
+    return classHierarchy;
+  }
+
+  private static void findClasses(final File dir, final String packagePrefix, final Set<String> classes) {
+    final File[] files = dir.listFiles();
+    if (files == null) {
+      return;
+    }
+    for (final File file : files) {
+      if (file.isDirectory()) {
+        findClasses(file, packagePrefix + file.getName() + ".", classes);
+      } else if (file.getName().endsWith(CLASS_SUFFIX)) {
+        final String simpleName = file.getName().substring(0, file.getName().length() - CLASS_SUFFIX.length());
+        if (!simpleName.equals("package-info")) {
+          classes.add(packagePrefix + simpleName);
+        }
+      }
+    }
+  }
+
+  /**
+   * @return true if the class is a named parameter, has an injectable constructor, or an annotation Tang reads.
+   */
+  private static boolean isTangClass(final Class<?> clazz) {
+    if (clazz.isAnonymousClass() || clazz.isSynthetic()) {
+      return false;
+    }
+    if (Name.class.isAssignableFrom(clazz) && clazz.isAnnotationPresent(NamedParameter.class)) {
+      return true;
+    }
+    if (clazz.isAnnotationPresent(DefaultImplementation.class) || clazz.isAnnotationPresent(Unit.class)) {
+      return true;
+    }
+    for (final Constructor<?> constructor : clazz.getDeclaredConstructors()) {
+      if (constructor.isAnnotationPresent(Inject.class)) {
+        return true;
+      }
+    }
+    return false;
+  }
+
+  /**
+   * Index the class and named parameter nodes of the classes in the directory, leaving out
+   * the packages and the classes of other directories.
+   */
+  private static void collect(final Node n, final ClassHierarchyImpl classHierarchy, final Set<String> ownClasses,
+                              final List<IndexedNode> nodes) throws ClassNotFoundException {
+    if ((n instanceof ClassNode || n instanceof NamedParameterNode) && ownClasses.contains(n.getFullName())) {
+      final Class<?> clazz = classHierarchy.classForName(n.getFullName());
+      nodes.add(IndexedNode.of(n, ClassHierarchyIndex.checksum(clazz)));
+    }
+    for (final Node child : n.getChildren()) {
+      collect(child, classHierarchy, ownClasses, nodes);
+    }
+  }
+}
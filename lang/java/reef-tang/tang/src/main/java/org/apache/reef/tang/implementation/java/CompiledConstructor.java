@@ -0,0 +1,103 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.reef.tang.implementation.java;
+
+import org.apache.reef.tang.InjectionFuture;
+import org.apache.reef.tang.JavaClassHierarchy;
+import org.apache.reef.tang.types.ConstructorArg;
+import org.apache.reef.tang.types.ConstructorDef;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.InvocationTargetException;
+
+/**
+ * A constructor resolved once for a ConstructorDef, along with a MethodHandle that invokes it.
+ * Instances are cached by the ClassHierarchyImpl and shared by all injectors that use it,
+ * so that injection does not look up classes and constructors reflectively every time.
+ *
+ * @param <T> type of the objects constructed.
+ */
+final class CompiledConstructor<T> {
+
+  private final java.lang.reflect.Constructor<T> constructor;
+  /**
+   * Invokes the constructor with an Object[] of arguments and returns an Object.
+   */
+  private final MethodHandle handle;
+
+  private CompiledConstructor(final java.lang.reflect.Constructor<T> constructor) throws IllegalAccessException {
+    this.constructor = constructor;
+    final int arity = constructor.getParameterTypes().length;
+    this.handle = MethodHandles.lookup().unreflectConstructor(constructor)
+        .asFixedArity()
+        .asType(MethodType.genericMethodType(arity))
+        .asSpreader(Object[].class, arity);
+  }
+
+  /**
+   * Resolve the constructor of a ConstructorDef and compile its invocation.
+   *
+   * @param def       the constructor to resolve.
+   * @param namespace the class hierarchy to load the classes from.
+   * @return the compiled constructor.
+   * @throws ReflectiveOperationException if the class or constructor cannot be found or accessed.
+   */
+  static <T> CompiledConstructor<T> compile(final ConstructorDef<T> def, final JavaClassHierarchy namespace)
+      throws ReflectiveOperationException {
+    @SuppressWarnings("unchecked") final Class<T> clazz = (Class<T>) namespace.classForName(def.getClassName());
+    final ConstructorArg[] args = def.getArgs();
+    final Class<?>[] parameterTypes = new Class[args.length];
+    for (int i = 0; i < args.length; i++) {
+      if (args[i].isInjectionFuture()) {
+        parameterTypes[i] = InjectionFuture.class;
+      } else {
+        parameterTypes[i] = namespace.classForName(args[i].getType());
+      }
+    }
+    final java.lang.reflect.Constructor<T> cons = clazz.getDeclaredConstructor(parameterTypes);
+    cons.setAccessible(true);
+    return new CompiledConstructor<>(cons);
+  }
+
+  /**
+   * @return the reflective constructor, e.g. to pass to an Aspect.
+   */
+  java.lang.reflect.Constructor<T> getConstructor() {
+    return this.constructor;
+  }
+
+  /**
+   * Invoke the constructor through the MethodHandle.
+   *
+   * @param args the constructor arguments.
+   * @return the new instance.
+   * @throws InvocationTargetException wrapping anything the constructor throws,
+   *                                   like {@link java.lang.reflect.Constructor#newInstance(Object...)}.
+   */
+  @SuppressWarnings({"unchecked", "checkstyle:illegalcatch"})
+  T newInstance(final Object[] args) throws InvocationTargetException {
+    try {
+      return (T) this.handle.invokeExact(args);
+    } catch (final Throwable t) {
+      throw new InvocationTargetException(t);
+    }
+  }
+}
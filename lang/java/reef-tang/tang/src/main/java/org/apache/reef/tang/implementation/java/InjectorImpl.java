@@ -30,6 +30,7 @@ import org.apache.reef.tang.util.TracingMonotonicTreeMap;
 
 import java.lang.reflect.InvocationTargetException;
 import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
 
 public class InjectorImpl implements Injector {
   static final InjectionPlan<?> BUILDING = new InjectionPlan<Object>(null) {
@@ -78,7 +79,12 @@ public class InjectorImpl implements Injector {
   private final Map<NamedParameterNode<?>, Object> namedParameterInstances = new TracingMonotonicTreeMap<>();
   private final Configuration c;
   private final ClassHierarchy namespace;
-  private final JavaClassHierarchy javaNamespace;
+  private final ClassHierarchyImpl javaNamespace;
+  /**
+   * Injection plans built by this injector, by node. Plans only depend on the configuration and the volatile
+   * bindings, so they are reused until a volatile binding is added, and copied into forked injectors.
+   */
+  private final Map<Node, InjectionPlan<?>> planCache = new ConcurrentHashMap<>();
   private final Set<InjectionFuture<?>> pendingFutures = new HashSet<>();
   private boolean concurrentModificationGuard = false;
   private Aspect aspect;
@@ -126,6 +132,10 @@ public class InjectorImpl implements Injector {
           .getNode(np.getFullName());
       i.namedParameterInstances.put(newNp, o);
     }
+    // Without new configurations, the fork has the same bindings and can reuse our plans
+    if (configurations.length == 0 && i.namespace == old.namespace) {
+      i.planCache.putAll(old.planCache);
+    }
     // Fork the aspect (if any)
     if (old.aspect != null) {
       i.bindAspect(old.aspect.createChildAspect());
@@ -400,6 +410,11 @@ public class InjectorImpl implements Injector {
         return;
       }
     }
+    final InjectionPlan<?> cachedPlan = planCache.get(n);
+    if (cachedPlan != null) {
+      memo.put(n, cachedPlan);
+      return;
+    }
     memo.put(n, BUILDING);
     final InjectionPlan<T> ip;
     if (n instanceof NamedParameterNode) {
@@ -468,8 +483,13 @@ public class InjectorImpl implements Injector {
    * @throws NameResolutionException
    */
   public InjectionPlan<?> getInjectionPlan(final Node n) {
+    final InjectionPlan<?> cachedPlan = planCache.get(n);
+    if (cachedPlan != null) {
+      return cachedPlan;
+    }
     final Map<Node, InjectionPlan<?>> memo = new HashMap<>();
     buildInjectionPlan(n, memo);
+    planCache.putAll(memo);
     return memo.get(n);
   }
 
@@ -551,26 +571,6 @@ public class InjectorImpl implements Injector {
     return getNamedInstance(clazz);
   }
 
-  private <T> java.lang.reflect.Constructor<T> getConstructor(
-      final ConstructorDef<T> constructor) throws ClassNotFoundException,
-      NoSuchMethodException, SecurityException {
-    @SuppressWarnings("unchecked") final Class<T> clazz =
-        (Class<T>) javaNamespace.classForName(constructor.getClassName());
-    final ConstructorArg[] args = constructor.getArgs();
-    final Class<?>[] parameterTypes = new Class[args.length];
-    for (int i = 0; i < args.length; i++) {
-      if (args[i].isInjectionFuture()) {
-        parameterTypes[i] = InjectionFuture.class;
-      } else {
-        parameterTypes[i] = javaNamespace.classForName(args[i].getType());
-      }
-    }
-    final java.lang.reflect.Constructor<T> cons = clazz
-        .getDeclaredConstructor(parameterTypes);
-    cons.setAccessible(true);
-    return cons;
-  }
-
   /**
    * This gets really nasty now that constructors can invoke operations on us.
    * The upshot is that we should check to see if instances have been
@@ -629,10 +629,10 @@ public class InjectorImpl implements Injector {
         T ret;
         try {
           final ConstructorDef<T> def = constructor.getConstructorDef();
-          final java.lang.reflect.Constructor<T> construct = getConstructor(def);
+          final CompiledConstructor<T> construct = javaNamespace.getCompiledConstructor(def);
 
           if (aspect != null) {
-            ret = aspect.inject(def, construct, args);
+            ret = aspect.inject(def, construct.getConstructor(), args);
           } else {
             ret = construct.newInstance(args);
           }
@@ -700,6 +700,7 @@ public class InjectorImpl implements Injector {
             + old + " new value is " + o);
       }
       instances.put(cn, o);
+      planCache.clear();
     } else {
       throw new IllegalArgumentException("Expected Class but got " + cl
           + " (probably a named parameter).");
@@ -720,6 +721,7 @@ public class InjectorImpl implements Injector {
       }
       try {
         namedParameterInstances.put(np, o);
+        planCache.clear();
       } catch (final IllegalArgumentException e) {
         throw new BindException(
             "Attempt to bind named parameter " + ReflectionUtilities.getFullName(cl) + " failed. "
@@ -0,0 +1,147 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.reef.tang;
+
+import org.apache.reef.tang.annotations.Name;
+import org.apache.reef.tang.annotations.NamedParameter;
+import org.apache.reef.tang.annotations.Parameter;
+import org.apache.reef.tang.exceptions.BindException;
+import org.apache.reef.tang.exceptions.InjectionException;
+
+import javax.inject.Inject;
+import java.util.Set;
+
+/**
+ * Measures the latency of injection in forked injectors, the way REEF instantiates contexts and tasks:
+ * a root injector holds the long-lived services, and each context forks it to inject a small object graph.
+ * <p>
+ * Run with {@code java -cp <test classpath> org.apache.reef.tang.InjectionBenchmark [iterations]}.
+ */
+public final class InjectionBenchmark {
+
+  private static final int WARMUP_ITERATIONS = 20000;
+
+  private InjectionBenchmark() {
+  }
+
+  public static void main(final String[] args) throws BindException, InjectionException {
+    final int iterations = args.length > 0 ? Integer.parseInt(args[0]) : 100000;
+    final Tang tang = Tang.Factory.getTang();
+
+    final Injector root = tang.newInjector(tang.newConfigurationBuilder()
+        .bindImplementation(Service.class, ServiceImpl.class)
+        .bindNamedParameter(ServiceName.class, "root")
+        .build());
+    root.getInstance(Service.class);
+
+    final Configuration contextConf = tang.newConfigurationBuilder()
+        .bindNamedParameter(ContextId.class, "context")
+        .bindSetEntry(ContextHandlers.class, HandlerA.class)
+        .bindSetEntry(ContextHandlers.class, HandlerB.class)
+        .bindSetEntry(ContextHandlers.class, HandlerC.class)
+        .build();
+
+    final Injector contextInjector = root.forkInjector(contextConf);
+    run("fork", contextInjector, null, WARMUP_ITERATIONS);
+    run("fork with configuration", root, contextConf, WARMUP_ITERATIONS);
+
+    report("fork", run("fork", contextInjector, null, iterations), iterations);
+    report("fork with configuration", run("fork with configuration", root, contextConf, iterations), iterations);
+  }
+
+  private static long run(final String name, final Injector parent, final Configuration conf, final int iterations)
+      throws BindException, InjectionException {
+    final long start = System.nanoTime();
+    for (int i = 0; i < iterations; ++i) {
+      final Injector child = conf == null ? parent.forkInjector() : parent.forkInjector(conf);
+      if (child.getInstance(Context.class).getHandlers().size() != 3) {
+        throw new IllegalStateException(name + ": wrong number of handlers");
+      }
+    }
+    return System.nanoTime() - start;
+  }
+
+  private static void report(final String name, final long nanos, final int iterations) {
+    System.out.println(String.format("%-25s %8.2f us/injection", name, nanos / 1000.0 / iterations));
+  }
+
+  @NamedParameter(default_value = "service")
+  static final class ServiceName implements Name<String> {
+  }
+
+  @NamedParameter
+  static final class ContextId implements Name<String> {
+  }
+
+  @NamedParameter
+  static final class ContextHandlers implements Name<Set<Handler>> {
+  }
+
+  interface Service {
+  }
+
+  static final class ServiceImpl implements Service {
+    @Inject
+    ServiceImpl(@Parameter(ServiceName.class) final String name) {
+    }
+  }
+
+  interface Handler {
+  }
+
+  static final class HandlerA implements Handler {
+    @Inject
+    HandlerA(final Service service) {
+    }
+  }
+
+  static final class HandlerB implements Handler {
+    @Inject
+    HandlerB(final Service service, @Parameter(ContextId.class) final String id) {
+    }
+  }
+
+  static final class HandlerC implements Handler {
+    @Inject
+    HandlerC() {
+    }
+  }
+
+  static final class Messenger {
+    @Inject
+    Messenger(final Service service, @Parameter(ContextId.class) final String id) {
+    }
+  }
+
+  static final class Context {
+    private final Set<Handler> handlers;
+
+    @Inject
+    Context(@Parameter(ContextId.class) final String id,
+            @Parameter(ContextHandlers.class) final Set<Handler> handlers,
+            final Messenger messenger,
+            final Service service) {
+      this.handlers = handlers;
+    }
+
+    Set<Handler> getHandlers() {
+      return handlers;
+    }
+  }
+}
@@ -0,0 +1,144 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.reef.tang;
+
+import org.apache.reef.tang.annotations.Name;
+import org.apache.reef.tang.annotations.NamedParameter;
+import org.apache.reef.tang.annotations.Parameter;
+import org.apache.reef.tang.exceptions.BindException;
+import org.apache.reef.tang.exceptions.InjectionException;
+import org.apache.reef.tang.implementation.InjectionPlan;
+import org.junit.Assert;
+import org.junit.Test;
+
+import javax.inject.Inject;
+
+/**
+ * Tests for the caching of injection plans and compiled constructors in the injector.
+ */
+public class TestInjectionPlanCache {
+
+  private final Tang tang = Tang.Factory.getTang();
+
+  @Test
+  public void testPlanReused() throws BindException {
+    final Injector i = tang.newInjector(tang.newConfigurationBuilder()
+        .bindImplementation(CacheInterface.class, CacheImpl.class).build());
+    Assert.assertSame(i.getInjectionPlan(CacheUser.class), i.getInjectionPlan(CacheUser.class));
+  }
+
+  @Test
+  public void testVolatileInstanceInvalidatesPlans() throws BindException, InjectionException {
+    final Injector i = tang.newInjector();
+    Assert.assertFalse(i.isInjectable(CacheUser.class));
+    i.bindVolatileInstance(CacheInterface.class, new CacheImpl(7));
+    Assert.assertTrue(i.isInjectable(CacheUser.class));
+    Assert.assertEquals(7, i.getInstance(CacheUser.class).getValue());
+  }
+
+  @Test
+  public void testVolatileParameterInvalidatesPlans() throws BindException, InjectionException {
+    final Injector i = tang.newInjector();
+    Assert.assertFalse(i.isInjectable(CacheImpl.class));
+    i.bindVolatileParameter(CacheValue.class, 3);
+    Assert.assertEquals(3, i.getInstance(CacheImpl.class).getValue());
+  }
+
+  @Test
+  public void testForkReusesPlans() throws BindException, InjectionException {
+    final Injector parent = tang.newInjector(tang.newConfigurationBuilder()
+        .bindImplementation(CacheInterface.class, CacheImpl.class)
+        .bindNamedParameter(CacheValue.class, "5").build());
+    final InjectionPlan<?> plan = parent.getInjectionPlan(CacheUser.class);
+    final CacheInterface parentImpl = parent.getInstance(CacheInterface.class);
+
+    final Injector child = parent.forkInjector();
+    Assert.assertSame(plan, child.getInjectionPlan(CacheUser.class));
+    final CacheUser childUser = child.getInstance(CacheUser.class);
+    Assert.assertSame(parentImpl, childUser.getImpl());
+
+    // Singletons of the fork do not leak into the parent through the shared plans.
+    Assert.assertNotSame(childUser, parent.getInstance(CacheUser.class));
+  }
+
+  @Test
+  public void testForkWithVolatileBinding() throws BindException, InjectionException {
+    final Injector parent = tang.newInjector();
+    Assert.assertFalse(parent.isInjectable(CacheImpl.class));
+
+    final Injector child = parent.forkInjector();
+    child.bindVolatileParameter(CacheValue.class, 9);
+    Assert.assertEquals(9, child.getInstance(CacheImpl.class).getValue());
+    Assert.assertFalse(parent.isInjectable(CacheImpl.class));
+  }
+
+  @Test
+  public void testConstructorException() throws BindException {
+    final Injector i = tang.newInjector(tang.newConfigurationBuilder()
+        .bindNamedParameter(CacheValue.class, "-1").build());
+    try {
+      i.getInstance(CacheImpl.class);
+      Assert.fail("Constructor should have thrown");
+    } catch (final InjectionException e) {
+      Assert.assertTrue(e.getCause() instanceof IllegalArgumentException);
+    }
+  }
+
+  @NamedParameter
+  static final class CacheValue implements Name<Integer> {
+  }
+
+  interface CacheInterface {
+    int getValue();
+  }
+
+  static final class CacheImpl implements CacheInterface {
+    private final int value;
+
+    @Inject
+    CacheImpl(@Parameter(CacheValue.class) final int value) {
+      if (value < 0) {
+        throw new IllegalArgumentException("Negative value " + value);
+      }
+      this.value = value;
+    }
+
+    @Override
+    public int getValue() {
+      return value;
+    }
+  }
+
+  static final class CacheUser {
+    private final CacheInterface impl;
+
+    @Inject
+    private CacheUser(final CacheInterface impl) {
+      this.impl = impl;
+    }
+
+    CacheInterface getImpl() {
+      return impl;
+    }
+
+    int getValue() {
+      return impl.getValue();
+    }
+  }
+}
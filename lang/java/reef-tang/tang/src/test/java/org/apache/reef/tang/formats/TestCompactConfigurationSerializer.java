@@ -0,0 +1,184 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.reef.tang.formats;
+
+import org.apache.reef.tang.Configuration;
+import org.apache.reef.tang.Tang;
+import org.apache.reef.tang.annotations.Name;
+import org.apache.reef.tang.annotations.NamedParameter;
+import org.apache.reef.tang.formats.avro.CompactBindings;
+import org.apache.reef.tang.formats.avro.CompactConfiguration;
+import org.apache.reef.tang.formats.avro.CompactConfigurationEntry;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.io.File;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.Set;
+
+/**
+ * Tests for the nesting and string sharing of CompactConfigurationSerializer.
+ */
+public final class TestCompactConfigurationSerializer {
+
+  private final CompactConfigurationSerializer serializer = new CompactConfigurationSerializer();
+
+  @NamedParameter
+  static final class Inner implements Name<String> {
+  }
+
+  @NamedParameter
+  static final class Outer implements Name<String> {
+  }
+
+  @NamedParameter
+  static final class Value implements Name<String> {
+  }
+
+  @NamedParameter
+  static final class Values implements Name<Set<String>> {
+  }
+
+  private static Configuration newConfiguration(final String value) {
+    return Tang.Factory.getTang().newConfigurationBuilder()
+        .bindNamedParameter(Value.class, value)
+        .bindSetEntry(Values.class, value)
+        .bindSetEntry(Values.class, Value.class.getName())
+        .build();
+  }
+
+  /**
+   * Nested compact configurations are embedded as structures and read back as strings of the same configuration.
+   */
+  @Test
+  public void testNestedConfiguration() throws Exception {
+    final String inner = this.serializer.toString(newConfiguration("inner"));
+    final Configuration middle = Tang.Factory.getTang().newConfigurationBuilder(newConfiguration("middle"))
+        .bindNamedParameter(Inner.class, inner)
+        .build();
+    final Configuration outer = Tang.Factory.getTang().newConfigurationBuilder(newConfiguration("outer"))
+        .bindNamedParameter(Outer.class, this.serializer.toString(middle))
+        .build();
+
+    final CompactConfiguration compact = this.serializer.toCompact(outer);
+    Assert.assertEquals(2, countNested(compact.getBindings()));
+    // Shared between the three configurations
+    Assert.assertEquals(1, countOccurrences(compact, Value.class.getName()));
+
+    final Configuration outerAfter = this.serializer.fromByteArray(this.serializer.toByteArray(outer));
+    Assert.assertEquals("outer", Tang.Factory.getTang().newInjector(outerAfter).getNamedInstance(Value.class));
+    final Configuration middleAfter = this.serializer.fromString(
+        Tang.Factory.getTang().newInjector(outerAfter).getNamedInstance(Outer.class));
+    Assert.assertEquals("middle", Tang.Factory.getTang().newInjector(middleAfter).getNamedInstance(Value.class));
+    final String innerAfter = Tang.Factory.getTang().newInjector(middleAfter).getNamedInstance(Inner.class);
+    Assert.assertEquals(inner, innerAfter);
+    final Configuration innerConf = this.serializer.fromString(innerAfter);
+    Assert.assertEquals("inner", Tang.Factory.getTang().newInjector(innerConf).getNamedInstance(Value.class));
+    Assert.assertEquals(new HashSet<>(Arrays.asList("inner", Value.class.getName())),
+        Tang.Factory.getTang().newInjector(innerConf).getNamedInstance(Values.class));
+  }
+
+  /**
+   * AvroConfigurationSerializer reads the compact form from files, byte arrays and strings.
+   */
+  @Test
+  public void testAvroSerializerReadsCompact() throws Exception {
+    final AvroConfigurationSerializer avroSerializer = new AvroConfigurationSerializer();
+    final Configuration conf = newConfiguration("value");
+
+    final File file = File.createTempFile("TangTest", "compactconf");
+    try {
+      this.serializer.toFile(conf, file);
+      assertValue("value", avroSerializer.fromFile(file));
+    } finally {
+      file.delete();
+    }
+    assertValue("value", avroSerializer.fromByteArray(this.serializer.toByteArray(conf)));
+    assertValue("value", avroSerializer.fromString(this.serializer.toString(conf)));
+    // Compact configurations nested in JSON ones are strings like any other
+    final Configuration json = Tang.Factory.getTang().newConfigurationBuilder()
+        .bindNamedParameter(Inner.class, this.serializer.toString(conf))
+        .build();
+    final String inner = Tang.Factory.getTang().newInjector(avroSerializer.fromString(avroSerializer.toString(json)))
+        .getNamedInstance(Inner.class);
+    assertValue("value", avroSerializer.fromString(inner));
+  }
+
+  /**
+   * The text file form is JSON, with the nested configurations in JSON as well, and is read by both serializers.
+   */
+  @Test
+  public void testTextFileIsJson() throws Exception {
+    final Configuration outer = Tang.Factory.getTang().newConfigurationBuilder(newConfiguration("outer"))
+        .bindNamedParameter(Inner.class, this.serializer.toString(newConfiguration("inner")))
+        .build();
+    final File file = File.createTempFile("TangTest", "compactconf");
+    try {
+      this.serializer.toTextFile(outer, file);
+      Assert.assertFalse(CompactConfigurationSerializer.isCompact(file));
+
+      final AvroConfigurationSerializer avroSerializer = new AvroConfigurationSerializer();
+      for (final ConfigurationSerializer reader : new ConfigurationSerializer[] {avroSerializer, this.serializer}) {
+        final Configuration outerAfter = reader.fromTextFile(file);
+        assertValue("outer", outerAfter);
+        final String inner = Tang.Factory.getTang().newInjector(outerAfter).getNamedInstance(Inner.class);
+        Assert.assertFalse(CompactConfigurationSerializer.isCompact(inner));
+        assertValue("inner", avroSerializer.fromString(inner));
+      }
+    } finally {
+      file.delete();
+    }
+  }
+
+  @Test
+  public void testIsCompact() throws Exception {
+    final Configuration conf = newConfiguration("value");
+    Assert.assertTrue(CompactConfigurationSerializer.isCompact(this.serializer.toByteArray(conf)));
+    Assert.assertTrue(CompactConfigurationSerializer.isCompact(this.serializer.toString(conf)));
+    final AvroConfigurationSerializer avroSerializer = new AvroConfigurationSerializer();
+    Assert.assertFalse(CompactConfigurationSerializer.isCompact(avroSerializer.toByteArray(conf)));
+    Assert.assertFalse(CompactConfigurationSerializer.isCompact(avroSerializer.toString(conf)));
+    Assert.assertFalse(CompactConfigurationSerializer.isCompact(new byte[0]));
+  }
+
+  private static void assertValue(final String expected, final Configuration conf) throws Exception {
+    Assert.assertEquals(expected, Tang.Factory.getTang().newInjector(conf).getNamedInstance(Value.class));
+  }
+
+  private static int countNested(final CompactBindings bindings) {
+    int count = 0;
+    for (final CompactConfigurationEntry entry : bindings.getEntries()) {
+      if (entry.getValue() instanceof CompactBindings) {
+        count += 1 + countNested((CompactBindings) entry.getValue());
+      }
+    }
+    return count;
+  }
+
+  private static int countOccurrences(final CompactConfiguration compact, final String string) {
+    int count = 0;
+    for (final CharSequence s : compact.getStrings()) {
+      if (s.toString().equals(string)) {
+        ++count;
+      }
+    }
+    return count;
+  }
+}
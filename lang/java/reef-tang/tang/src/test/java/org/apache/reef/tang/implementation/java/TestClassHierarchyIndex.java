@@ -0,0 +1,181 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.reef.tang.implementation.java;
+
+import org.apache.reef.tang.ConfigurationBuilder;
+import org.apache.reef.tang.Injector;
+import org.apache.reef.tang.Tang;
+import org.apache.reef.tang.annotations.Name;
+import org.apache.reef.tang.annotations.NamedParameter;
+import org.apache.reef.tang.annotations.Parameter;
+import org.apache.reef.tang.implementation.java.ClassHierarchyIndex.IndexedNode;
+import org.apache.reef.tang.types.ClassNode;
+import org.apache.reef.tang.types.NamedParameterNode;
+import org.apache.reef.tang.types.Node;
+import org.junit.*;
+
+import javax.inject.Inject;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.InputStream;
+import java.util.*;
+
+/**
+ * Tests that class hierarchies read from a ClassHierarchyIndexer index match the ones built by reflection.
+ * The index of the test classes is written next to them for the duration of the tests.
+ */
+public class TestClassHierarchyIndex {
+
+  private static File testClasses;
+  private static File indexFile;
+  private static List<IndexedNode> indexedNodes;
+  private static List<String> indexedNames;
+
+  @BeforeClass
+  public static void indexTestClasses() throws Exception {
+    testClasses = new File(TestClassHierarchyIndex.class.getProtectionDomain().getCodeSource().getLocation().toURI());
+    indexFile = new File(testClasses,
+        ClassHierarchyIndex.getResourceName(TestClassHierarchyIndex.class.getPackage().getName()));
+    indexedNodes = ClassHierarchyIndexer.index(testClasses);
+    indexedNames = new ArrayList<>();
+    for (final IndexedNode n : indexedNodes) {
+      indexedNames.add(n.getFullName());
+    }
+  }
+
+  @Before
+  public void writeIndex() throws Exception {
+    ClassHierarchyIndexer.write(indexedNodes, testClasses);
+  }
+
+  @AfterClass
+  public static void deleteIndexes() throws Exception {
+    ClassHierarchyIndexer.deleteIndexes(new File(testClasses, ClassHierarchyIndex.RESOURCE_DIRECTORY));
+  }
+
+  @Test
+  public void testIndexContents() throws Exception {
+    final Set<String> names = new HashSet<>();
+    for (final File file : ClassHierarchyIndexer.write(indexedNodes, testClasses)) {
+      try (InputStream in = new FileInputStream(file)) {
+        names.addAll(ClassHierarchyIndex.read(in).keySet());
+      }
+    }
+    Assert.assertEquals(new HashSet<>(indexedNames), names);
+    Assert.assertTrue(indexFile.isFile());
+    final ClassHierarchyIndex index = ClassHierarchyIndex.create();
+    Assert.assertNotNull(index.get(Greeter.class));
+    Assert.assertNotNull(index.get(Greeting.class));
+    // Rejected by Tang: defines a default class for a parsable type
+    Assert.assertFalse(indexedNames.contains("org.apache.reef.tang.implementation.BadParsableDefaultClass"));
+    // Not in the test classes
+    Assert.assertNull(index.get(Tang.class));
+    Assert.assertNull(ClassHierarchyIndex.empty().get(Greeter.class));
+  }
+
+  @Test
+  public void testIndexedNodesMatchReflection() throws Exception {
+    final ClassHierarchyImpl indexed = new ClassHierarchyImpl();
+    final ClassHierarchyImpl reflected = new ClassHierarchyImpl();
+    reflected.ignoreIndex();
+    for (final String name : indexedNames) {
+      final Node expected = reflected.getNode(name);
+      final Node actual = indexed.getNode(name);
+      Assert.assertEquals(name, expected.getFullName(), actual.getFullName());
+      Assert.assertEquals(name, expected.getClass(), actual.getClass());
+      if (expected instanceof ClassNode) {
+        assertClassNodesEqual((ClassNode<?>) expected, (ClassNode<?>) actual);
+      } else {
+        assertNamedParameterNodesEqual((NamedParameterNode<?>) expected, (NamedParameterNode<?>) actual);
+      }
+    }
+  }
+
+  @Test
+  public void testInjectWithIndex() throws Exception {
+    final ConfigurationBuilder cb = Tang.Factory.getTang().newConfigurationBuilder(new ClassHierarchyImpl());
+    cb.bind(Greeting.class.getName(), "hi");
+    final Injector injector = Tang.Factory.getTang().newInjector(cb.build());
+    Assert.assertEquals("hi", injector.getInstance(Greeter.class).getGreeting());
+  }
+
+  /**
+   * A class that changed since it was indexed is reflected over instead.
+   */
+  @Test
+  public void testOutOfDateIndex() throws Exception {
+    final ClassHierarchyImpl reflected = new ClassHierarchyImpl();
+    reflected.ignoreIndex();
+    final List<IndexedNode> nodes = new ArrayList<>();
+    for (final IndexedNode n : indexedNodes) {
+      nodes.add(n.getFullName().equals(Greeter.class.getName())
+          ? IndexedNode.of(reflected.getNode(Greeter.class), 0) : n);
+    }
+    ClassHierarchyIndexer.write(nodes, testClasses);
+
+    final ClassHierarchyIndex index = ClassHierarchyIndex.create();
+    Assert.assertNull(index.get(Greeter.class));
+    Assert.assertNotNull(index.get(Greeting.class));
+    Assert.assertEquals(reflected.getNode(Greeter.class).getFullName(),
+        new ClassHierarchyImpl().getNode(Greeter.class).getFullName());
+  }
+  private static void assertClassNodesEqual(final ClassNode<?> expected, final ClassNode<?> actual) {
+    final String name = expected.getFullName();
+    Assert.assertEquals(name, expected.isUnit(), actual.isUnit());
+    Assert.assertEquals(name, expected.isInjectionCandidate(), actual.isInjectionCandidate());
+    Assert.assertEquals(name, expected.isExternalConstructor(), actual.isExternalConstructor());
+    Assert.assertEquals(name, expected.getDefaultImplementation(), actual.getDefaultImplementation());
+    Assert.assertEquals(name, Arrays.asList(expected.getInjectableConstructors()),
+        Arrays.asList(actual.getInjectableConstructors()));
+    // The index lists the injectable constructors first
+    final List<?> expectedAll = Arrays.asList(expected.getAllConstructors());
+    final List<?> actualAll = Arrays.asList(actual.getAllConstructors());
+    Assert.assertEquals(name, expectedAll.size(), actualAll.size());
+    Assert.assertTrue(name, actualAll.containsAll(expectedAll));
+  }
+
+  private static void assertNamedParameterNodesEqual(final NamedParameterNode<?> expected,
+                                                     final NamedParameterNode<?> actual) {
+    final String name = expected.getFullName();
+    Assert.assertEquals(name, expected.getFullArgName(), actual.getFullArgName());
+    Assert.assertEquals(name, expected.getSimpleArgName(), actual.getSimpleArgName());
+    Assert.assertEquals(name, expected.isSet(), actual.isSet());
+    Assert.assertEquals(name, expected.isList(), actual.isList());
+    Assert.assertEquals(name, expected.getDocumentation(), actual.getDocumentation());
+    Assert.assertEquals(name, expected.getShortName(), actual.getShortName());
+    Assert.assertArrayEquals(name, expected.getDefaultInstanceAsStrings(), actual.getDefaultInstanceAsStrings());
+  }
+
+  @NamedParameter(default_value = "hello", short_name = "greeting")
+  static final class Greeting implements Name<String> {
+  }
+
+  static final class Greeter {
+    private final String greeting;
+
+    @Inject
+    Greeter(@Parameter(Greeting.class) final String greeting) {
+      this.greeting = greeting;
+    }
+
+    String getGreeting() {
+      return greeting;
+    }
+  }
+}
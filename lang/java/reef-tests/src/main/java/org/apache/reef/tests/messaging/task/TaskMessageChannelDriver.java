@@ -0,0 +1,95 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.reef.tests.messaging.task;
+
+import org.apache.reef.driver.evaluator.AllocatedEvaluator;
+import org.apache.reef.driver.task.RunningTask;
+import org.apache.reef.driver.task.TaskConfiguration;
+import org.apache.reef.driver.task.TaskMessage;
+import org.apache.reef.tang.Configuration;
+import org.apache.reef.tang.annotations.Unit;
+import org.apache.reef.tests.library.exceptions.DriverSideFailure;
+import org.apache.reef.wake.EventHandler;
+
+import javax.inject.Inject;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Driver for the TaskMessageChannel test: checks that all the messages arrive in order, then acknowledges them.
+ */
+@Unit
+public final class TaskMessageChannelDriver {
+
+  private static final Logger LOG = Logger.getLogger(TaskMessageChannelDriver.class.getName());
+
+  private RunningTask runningTask;
+  private int numMessages = 0;
+
+  @Inject
+  private TaskMessageChannelDriver() {
+  }
+
+  /**
+   * Handler for AllocatedEvaluator.
+   */
+  public final class EvaluatorAllocatedHandler implements EventHandler<AllocatedEvaluator> {
+    @Override
+    public void onNext(final AllocatedEvaluator eval) {
+      final Configuration taskConfig = TaskConfiguration.CONF
+          .set(TaskConfiguration.IDENTIFIER, "Task_" + eval.getId())
+          .set(TaskConfiguration.TASK, TaskMessageChannelTask.class)
+          .set(TaskConfiguration.ON_MESSAGE, TaskMessageChannelTask.DriverMessageHandler.class)
+          .set(TaskConfiguration.ON_SEND_MESSAGE, TaskMessageChannelTask.class)
+          .build();
+      eval.submitTask(taskConfig);
+    }
+  }
+
+  /**
+   * Handler for RunningTask.
+   */
+  public final class TaskRunningHandler implements EventHandler<RunningTask> {
+    @Override
+    public void onNext(final RunningTask task) {
+      synchronized (TaskMessageChannelDriver.this) {
+        runningTask = task;
+      }
+    }
+  }
+
+  /**
+   * Handler for TaskMessage.
+   */
+  public final class TaskMessageHandler implements EventHandler<TaskMessage> {
+    @Override
+    public void onNext(final TaskMessage msg) {
+      synchronized (TaskMessageChannelDriver.this) {
+        final int message = TaskMessageChannelTask.decode(msg.get());
+        if (message != numMessages) {
+          throw new DriverSideFailure("Expected message " + numMessages + " but got " + message);
+        }
+        if (++numMessages == TaskMessageChannelTask.NUM_MESSAGES) {
+          LOG.log(Level.INFO, "Received all {0} messages.", numMessages);
+          runningTask.send(new byte[0]);
+        }
+      }
+    }
+  }
+}
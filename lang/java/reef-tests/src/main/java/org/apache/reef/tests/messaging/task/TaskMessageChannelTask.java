@@ -0,0 +1,91 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.reef.tests.messaging.task;
+
+import org.apache.reef.tang.annotations.Unit;
+import org.apache.reef.task.Task;
+import org.apache.reef.task.TaskMessage;
+import org.apache.reef.task.TaskMessageChannel;
+import org.apache.reef.task.TaskMessageSource;
+import org.apache.reef.task.events.DriverMessage;
+import org.apache.reef.util.Optional;
+import org.apache.reef.wake.EventHandler;
+import org.apache.reef.wake.remote.impl.ObjectSerializableCodec;
+
+import javax.inject.Inject;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * A task that streams numbered messages to the driver through the TaskMessageChannel,
+ * and waits for the driver to acknowledge all of them.
+ */
+@Unit
+public final class TaskMessageChannelTask implements Task, TaskMessageSource {
+
+  private static final Logger LOG = Logger.getLogger(TaskMessageChannelTask.class.getName());
+  private static final ObjectSerializableCodec<Integer> CODEC = new ObjectSerializableCodec<>();
+
+  /**
+   * Number of messages; far more than could be sent with one message per heartbeat before the test times out.
+   */
+  static final int NUM_MESSAGES = 10000;
+
+  private final TaskMessageChannel taskMessageChannel;
+  private final Queue<TaskMessage> messages = new ConcurrentLinkedQueue<>();
+  private final CountDownLatch acknowledged = new CountDownLatch(1);
+
+  @Inject
+  private TaskMessageChannelTask(final TaskMessageChannel taskMessageChannel) {
+    this.taskMessageChannel = taskMessageChannel;
+  }
+
+  @Override
+  public byte[] call(final byte[] memento) throws InterruptedException {
+    for (int i = 0; i < NUM_MESSAGES; ++i) {
+      this.messages.add(TaskMessage.from(TaskMessageChannelTask.class.getName(), CODEC.encode(i)));
+      this.taskMessageChannel.messagesAvailable();
+    }
+    LOG.log(Level.INFO, "Sent {0} messages. Waiting for the acknowledgement.", NUM_MESSAGES);
+    this.acknowledged.await();
+    return null;
+  }
+
+  @Override
+  public Optional<TaskMessage> getMessage() {
+    return Optional.ofNullable(this.messages.poll());
+  }
+
+  static int decode(final byte[] message) {
+    return CODEC.decode(message);
+  }
+
+  /**
+   * Handler for DriverMessage, which acknowledges all the messages.
+   */
+  public final class DriverMessageHandler implements EventHandler<DriverMessage> {
+    @Override
+    public void onNext(final DriverMessage driverMessage) {
+      acknowledged.countDown();
+    }
+  }
+}
@@ -21,6 +21,7 @@ package org.apache.reef.tests.applications.vortex;
 import org.apache.reef.tests.applications.vortex.addone.AddOneTest;
 import org.apache.reef.tests.applications.vortex.exception.VortexExceptionTest;
 import org.apache.reef.tests.applications.vortex.cancellation.TaskletCancellationRequestTest;
+import org.apache.reef.tests.applications.vortex.throughput.TaskletThroughputTest;
 import org.junit.runner.RunWith;
 import org.junit.runners.Suite;
 
@@ -31,7 +32,8 @@ import org.junit.runners.Suite;
 @Suite.SuiteClasses({
     AddOneTest.class,
     VortexExceptionTest.class,
-    TaskletCancellationRequestTest.class
+    TaskletCancellationRequestTest.class,
+    TaskletThroughputTest.class
     })
 public final class VortexTestSuite {
 }
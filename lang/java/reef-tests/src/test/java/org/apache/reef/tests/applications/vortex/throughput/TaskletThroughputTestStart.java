@@ -0,0 +1,71 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.reef.tests.applications.vortex.throughput;
+
+import org.apache.reef.tests.applications.vortex.addone.AddOneFunction;
+import org.apache.reef.vortex.api.VortexFuture;
+import org.apache.reef.vortex.api.VortexStart;
+import org.apache.reef.vortex.api.VortexThreadPool;
+
+import javax.inject.Inject;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Runs many small tasklets on Vortex and logs how many complete per second.
+ */
+public final class TaskletThroughputTestStart implements VortexStart {
+  private static final Logger LOG = Logger.getLogger(TaskletThroughputTestStart.class.getName());
+
+  static final int NUM_TASKLETS = 20000;
+
+  @Inject
+  private TaskletThroughputTestStart() {
+  }
+
+  /**
+   * Submit the tasklets at once, wait for all their results, and check them.
+   */
+  @Override
+  public void start(final VortexThreadPool vortexThreadPool) {
+    final long startTime = System.currentTimeMillis();
+    final List<VortexFuture<Integer>> futures = new ArrayList<>(NUM_TASKLETS);
+    final AddOneFunction addOneFunction = new AddOneFunction();
+    for (int i = 0; i < NUM_TASKLETS; i++) {
+      futures.add(vortexThreadPool.submit(addOneFunction, i));
+    }
+
+    for (int i = 0; i < NUM_TASKLETS; i++) {
+      try {
+        if (i + 1 != futures.get(i).get()) {
+          throw new RuntimeException("Unexpected result of tasklet " + i);
+        }
+      } catch (InterruptedException | ExecutionException e) {
+        throw new RuntimeException(e);
+      }
+    }
+
+    final long elapsedTime = Math.max(1, System.currentTimeMillis() - startTime);
+    LOG.log(Level.INFO, "Completed {0} tasklets in {1} ms: {2} tasklets/s",
+        new Object[]{NUM_TASKLETS, elapsedTime, NUM_TASKLETS * 1000L / elapsedTime});
+  }
+}
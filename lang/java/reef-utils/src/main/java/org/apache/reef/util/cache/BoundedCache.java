@@ -0,0 +1,374 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.reef.util.cache;
+
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Implementation that supports expire-after-write and a maximum size.
+ * When the cache holds more than maximumSize loaded entries,
+ * the least recently used entries are evicted.
+ *
+ * Hits are served from a ConcurrentHashMap without locking. The entries are also kept in two
+ * intrusive queues guarded by a lock: one in access order, whose head is the next victim for eviction,
+ * and one in write order, whose head is the next entry to expire. New entries are appended to both,
+ * and each insertion pops the expired entries from the head of the write queue.
+ * As an entry is removed at most once, expiry costs amortized O(1) per get
+ * instead of the periodic sweep over the whole map done by {@link CacheImpl}.
+ * An expired entry that has not been popped yet is not returned either: its write time is checked on every hit.
+ *
+ * A hit reads the value of its entry with a single volatile read, and checks its write time
+ * against the clock, which it reads itself.
+ * To keep hits from contending on the lock, a hit moves its entry to the tail of the access queue
+ * only for a random sample of hits and only if the lock is free. The eviction order is thus an approximation
+ * of LRU, in which frequently used entries are still unlikely to be evicted.
+ *
+ * As in CacheImpl, concurrent gets on an absent key load the value once; the other callers wait for it.
+ * A failed load is not cached: the loading caller and the waiting callers all get an ExecutionException.
+ *
+ * The cache counts hits, misses, evictions and expirations.
+ * A get that waits for another caller's load counts as a hit.
+ */
+public final class BoundedCache<K, V> implements Cache<K, V> {
+  /**
+   * One hit in ACCESS_SAMPLE_MASK + 1 tries to reorder the access queue.
+   */
+  private static final int ACCESS_SAMPLE_MASK = 63;
+
+  private final ConcurrentMap<K, Node<K, V>> internalMap;
+  private final CurrentTime currentTime;
+  private final long timeoutMillis;
+  private final int maximumSize;
+
+  private final ReentrantLock lock = new ReentrantLock();
+  private final Node<K, V> accessQueue = Node.newSentinel();
+  private final Node<K, V> writeQueue = Node.newSentinel();
+  private int queuedCount = 0;
+
+  private final LongAdder hitCount = new LongAdder();
+  private final LongAdder missCount = new LongAdder();
+  private final LongAdder evictionCount = new LongAdder();
+  private final LongAdder expirationCount = new LongAdder();
+
+  /**
+   * Construct a bounded expire-after-write cache.
+   *
+   * @param currentTime   class that returns the current time for timeout purposes
+   * @param timeoutMillis a cache entry timeout after write
+   * @param maximumSize   the maximum number of loaded entries
+   */
+  public BoundedCache(final CurrentTime currentTime,
+                      final long timeoutMillis,
+                      final int maximumSize) {
+    if (maximumSize < 1) {
+      throw new IllegalArgumentException("maximumSize must be positive: " + maximumSize);
+    }
+    this.internalMap = new ConcurrentHashMap<>();
+    this.currentTime = currentTime;
+    this.timeoutMillis = timeoutMillis;
+    this.maximumSize = maximumSize;
+  }
+
+  @Override
+  public V get(final K key, final Callable<V> valueFetcher) throws ExecutionException {
+    while (true) {
+      final Node<K, V> existing = internalMap.get(key);
+      if (existing == null) {
+        final Node<K, V> created = new Node<>(key);
+        if (internalMap.putIfAbsent(key, created) == null) {
+          missCount.increment();
+          return load(created, valueFetcher);
+        }
+      } else {
+        final V value = existing.value;
+        if (value == null) {
+          // Still loading, or failed
+          hitCount.increment();
+          return existing.waitAndGet();
+        } else if (isExpired(existing, currentTime.now())) {
+          if (internalMap.remove(key, existing)) {
+            expirationCount.increment();
+            dequeue(existing);
+          }
+        } else {
+          hitCount.increment();
+          recordAccess(existing);
+          return value;
+        }
+      }
+    }
+  }
+
+  @Override
+  public void invalidate(final K key) {
+    final Node<K, V> node = internalMap.remove(key);
+    if (node != null) {
+      dequeue(node);
+    }
+  }
+
+  /**
+   * Invalidates all the keys in the cache.
+   */
+  public void invalidateAll() {
+    for (final K key : internalMap.keySet()) {
+      invalidate(key);
+    }
+  }
+
+  /**
+   * @return the number of entries in the cache, including the ones being loaded
+   */
+  public int size() {
+    return internalMap.size();
+  }
+
+  /**
+   * @return the number of gets that found their key in the cache
+   */
+  public long getHitCount() {
+    return hitCount.sum();
+  }
+
+  /**
+   * @return the number of gets that loaded a new value
+   */
+  public long getMissCount() {
+    return missCount.sum();
+  }
+
+  /**
+   * @return the number of entries removed to keep the cache within its maximum size
+   */
+  public long getEvictionCount() {
+    return evictionCount.sum();
+  }
+
+  /**
+   * @return the number of entries removed because they expired
+   */
+  public long getExpirationCount() {
+    return expirationCount.sum();
+  }
+
+  private V load(final Node<K, V> node, final Callable<V> valueFetcher) throws ExecutionException {
+    final V value;
+    try {
+      value = valueFetcher.call();
+    } catch (final Exception e) {
+      internalMap.remove(node.key, node);
+      node.fail(e);
+      throw new ExecutionException(e);
+    }
+    if (value == null) {
+      final NullPointerException e = new NullPointerException("valueFetcher returned null");
+      internalMap.remove(node.key, node);
+      node.fail(e);
+      throw new ExecutionException(e);
+    }
+
+    final long now = currentTime.now();
+    node.complete(value, now);
+    lock.lock();
+    try {
+      // Skip the queues if the entry was invalidated while loading
+      if (internalMap.get(node.key) == node) {
+        node.linkBefore(accessQueue, writeQueue);
+        queuedCount++;
+      }
+      expireEntries(now);
+      evictEntries();
+    } finally {
+      lock.unlock();
+    }
+    return value;
+  }
+
+  private boolean isExpired(final Node<K, V> node, final long now) {
+    return node.writeTime + timeoutMillis < now;
+  }
+
+  private void recordAccess(final Node<K, V> node) {
+    if ((ThreadLocalRandom.current().nextInt() & ACCESS_SAMPLE_MASK) == 0 && !lock.isLocked() && lock.tryLock()) {
+      try {
+        if (node.isQueued()) {
+          node.moveToTail(accessQueue);
+        }
+      } finally {
+        lock.unlock();
+      }
+    }
+  }
+
+  private void dequeue(final Node<K, V> node) {
+    lock.lock();
+    try {
+      if (node.isQueued()) {
+        node.unlink();
+        queuedCount--;
+      }
+    } finally {
+      lock.unlock();
+    }
+  }
+
+  /**
+   * Pop the expired entries from the head of the write queue. Must be called with the lock held.
+   * The entries are queued shortly after their write time is taken, so the queue is only approximately
+   * in write time order. An expired entry behind a live one is popped by a later sweep or on its next access.
+   */
+  private void expireEntries(final long now) {
+    while (writeQueue.nextWrite != writeQueue && isExpired(writeQueue.nextWrite, now)) {
+      removeHead(writeQueue.nextWrite);
+      expirationCount.increment();
+    }
+  }
+
+  /**
+   * Evict the least recently used entries until the cache is within its maximum size.
+   * Must be called with the lock held.
+   */
+  private void evictEntries() {
+    while (queuedCount > maximumSize) {
+      removeHead(accessQueue.nextAccess);
+      evictionCount.increment();
+    }
+  }
+
+  private void removeHead(final Node<K, V> node) {
+    node.unlink();
+    queuedCount--;
+    internalMap.remove(node.key, node);
+  }
+
+  /**
+   * A cache entry, linked into the access and write queues once loaded.
+   * The links are guarded by the lock of the cache; the value is published through the monitor of the node.
+   * The write time is set before the value, so it is visible to any thread that reads the value.
+   */
+  private static final class Node<K, V> {
+    private final K key;
+
+    private volatile V value;
+    private volatile Exception failure;
+    private long writeTime;
+
+    private Node<K, V> prevAccess;
+    private Node<K, V> nextAccess;
+    private Node<K, V> prevWrite;
+    private Node<K, V> nextWrite;
+
+    Node(final K key) {
+      this.key = key;
+    }
+
+    static <K, V> Node<K, V> newSentinel() {
+      final Node<K, V> sentinel = new Node<>(null);
+      sentinel.prevAccess = sentinel;
+      sentinel.nextAccess = sentinel;
+      sentinel.prevWrite = sentinel;
+      sentinel.nextWrite = sentinel;
+      return sentinel;
+    }
+
+    boolean isDone() {
+      return value != null || failure != null;
+    }
+
+    synchronized void complete(final V loadedValue, final long now) {
+      this.writeTime = now;
+      this.value = loadedValue;
+      this.notifyAll();
+    }
+
+    synchronized void fail(final Exception e) {
+      this.failure = e;
+      this.notifyAll();
+    }
+
+    V waitAndGet() throws ExecutionException {
+      V result = value;
+      if (result == null) {
+        synchronized (this) {
+          boolean interrupted = false;
+          while (!isDone()) {
+            try {
+              this.wait();
+            } catch (final InterruptedException e) {
+              interrupted = true;
+            }
+          }
+          if (interrupted) {
+            Thread.currentThread().interrupt();
+          }
+          if (failure != null) {
+            throw new ExecutionException(failure);
+          }
+          result = value;
+        }
+      }
+      return result;
+    }
+
+    boolean isQueued() {
+      return nextAccess != null;
+    }
+
+    void linkBefore(final Node<K, V> accessSentinel, final Node<K, V> writeSentinel) {
+      linkAccessBefore(accessSentinel);
+      prevWrite = writeSentinel.prevWrite;
+      nextWrite = writeSentinel;
+      prevWrite.nextWrite = this;
+      writeSentinel.prevWrite = this;
+    }
+
+    void moveToTail(final Node<K, V> accessSentinel) {
+      unlinkAccess();
+      linkAccessBefore(accessSentinel);
+    }
+
+    void unlink() {
+      unlinkAccess();
+      prevWrite.nextWrite = nextWrite;
+      nextWrite.prevWrite = prevWrite;
+      prevWrite = null;
+      nextWrite = null;
+    }
+
+    private void linkAccessBefore(final Node<K, V> accessSentinel) {
+      prevAccess = accessSentinel.prevAccess;
+      nextAccess = accessSentinel;
+      prevAccess.nextAccess = this;
+      accessSentinel.prevAccess = this;
+    }
+
+    private void unlinkAccess() {
+      prevAccess.nextAccess = nextAccess;
+      nextAccess.prevAccess = prevAccess;
+      prevAccess = null;
+      nextAccess = null;
+    }
+  }
+}
@@ -0,0 +1,239 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.reef.util.cache;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+/**
+ * Test eviction, expiry and statistics of BoundedCache.
+ */
+public final class BoundedCacheTest {
+
+  private final long timeoutMillis = 1000;
+  private final int maximumSize = 3;
+
+  private long now = 0;
+  private final CurrentTime manualTime = new CurrentTime() {
+    @Override
+    public long now() {
+      return now;
+    }
+  };
+
+  private BoundedCache<String, Integer> cache;
+
+  @Before
+  public void setUp() {
+    cache = new BoundedCache<>(manualTime, timeoutMillis, maximumSize);
+  }
+
+  /**
+   * Test that a second get on the same key returns the cached value and counts as a hit.
+   */
+  @Test
+  public void testGet() throws ExecutionException {
+    assertEquals(20, (int) cache.get("key", new ImmediateInteger(20)));
+    assertEquals(20, (int) cache.get("key", new ImmediateInteger(40)));
+
+    assertEquals(1, cache.getMissCount());
+    assertEquals(1, cache.getHitCount());
+  }
+
+  /**
+   * Test that the least recently used entry is evicted when the maximum size is exceeded.
+   */
+  @Test
+  public void testEvictLeastRecentlyUsed() throws ExecutionException {
+    for (int i = 0; i < maximumSize; i++) {
+      cache.get("key" + i, new ImmediateInteger(i));
+    }
+    // Access key0 so that key1 becomes the least recently used.
+    // Only a sample of the hits reorders the entries, so access it enough times to be moved.
+    for (int i = 0; i < 2000; i++) {
+      cache.get("key0", new ImmediateInteger(-1));
+    }
+    cache.get("key3", new ImmediateInteger(3));
+
+    assertEquals(maximumSize, cache.size());
+    assertEquals(1, cache.getEvictionCount());
+    assertEquals(0, (int) cache.get("key0", new ImmediateInteger(-1)));
+    assertEquals(2, (int) cache.get("key2", new ImmediateInteger(-1)));
+    assertEquals(-1, (int) cache.get("key1", new ImmediateInteger(-1)));
+  }
+
+  /**
+   * Test that an entry expires after write, both on access and by the sweep on insertion.
+   */
+  @Test
+  public void testExpireOnWrite() throws ExecutionException {
+    cache.get("key0", new ImmediateInteger(0));
+    now += timeoutMillis / 2;
+    cache.get("key1", new ImmediateInteger(1));
+
+    // An access does not extend the lifetime of an entry
+    now += timeoutMillis / 2;
+    assertEquals(0, (int) cache.get("key0", new ImmediateInteger(-1)));
+
+    // key0 expires on access and is loaded again
+    now += 1;
+    assertEquals(-1, (int) cache.get("key0", new ImmediateInteger(-1)));
+    assertEquals(1, cache.getExpirationCount());
+
+    // key1 is swept when key2 is inserted, without being accessed
+    now += timeoutMillis / 2;
+    cache.get("key2", new ImmediateInteger(2));
+    assertEquals(2, cache.getExpirationCount());
+    assertEquals(2, cache.size());
+  }
+
+  /**
+   * Test that an invalidate clears the cached value and frees its slot.
+   */
+  @Test
+  public void testInvalidate() throws ExecutionException {
+    for (int i = 0; i < maximumSize; i++) {
+      cache.get("key" + i, new ImmediateInteger(i));
+    }
+    cache.invalidate("key0");
+    cache.get("key3", new ImmediateInteger(3));
+
+    assertEquals(maximumSize, cache.size());
+    assertEquals(0, cache.getEvictionCount());
+    assertEquals(-1, (int) cache.get("key0", new ImmediateInteger(-1)));
+  }
+
+  /**
+   * Test that invalidateAll clears every cached value.
+   */
+  @Test
+  public void testInvalidateAll() throws ExecutionException {
+    for (int i = 0; i < maximumSize; i++) {
+      cache.get("key" + i, new ImmediateInteger(i));
+    }
+    cache.invalidateAll();
+
+    assertEquals(0, cache.size());
+    for (int i = 0; i < maximumSize; i++) {
+      assertEquals(-1, (int) cache.get("key" + i, new ImmediateInteger(-1)));
+    }
+  }
+
+  /**
+   * Test that a failed load is reported to the waiting callers and is not cached.
+   */
+  @Test(timeout = 10000)
+  public void testFailedLoad() throws Exception {
+    final CountDownLatch loading = new CountDownLatch(1);
+    final CountDownLatch fail = new CountDownLatch(1);
+    final ExecutorService es = Executors.newFixedThreadPool(2);
+    try {
+      final Future<Integer> loader = es.submit(new Callable<Integer>() {
+        @Override
+        public Integer call() throws Exception {
+          return cache.get("key", new Callable<Integer>() {
+            @Override
+            public Integer call() throws Exception {
+              loading.countDown();
+              fail.await();
+              throw new IllegalStateException("load failed");
+            }
+          });
+        }
+      });
+      loading.await();
+      final Future<Integer> waiter = es.submit(new Callable<Integer>() {
+        @Override
+        public Integer call() throws Exception {
+          return cache.get("key", new ImmediateInteger(-1));
+        }
+      });
+      while (cache.getHitCount() == 0) {
+        Thread.sleep(10);
+      }
+      fail.countDown();
+
+      final List<Future<Integer>> futures = Arrays.asList(loader, waiter);
+      for (final Future<Integer> future : futures) {
+        try {
+          future.get();
+          fail("Expected the load to fail");
+        } catch (final ExecutionException e) {
+          assertTrue(e.getCause() instanceof ExecutionException);
+        }
+      }
+    } finally {
+      es.shutdownNow();
+    }
+
+    assertEquals(0, cache.size());
+    assertEquals(20, (int) cache.get("key", new ImmediateInteger(20)));
+  }
+
+  /**
+   * Test that concurrent gets over more keys than fit keep the cache within its maximum size.
+   */
+  @Test(timeout = 30000)
+  public void testConcurrentGetsStayBounded() throws Exception {
+    final int numThreads = 8;
+    final int numGets = 10000;
+    final BoundedCache<Integer, Integer> concurrentCache = new BoundedCache<>(new SystemTime(), 60000, 100);
+    final ExecutorService es = Executors.newFixedThreadPool(numThreads);
+    try {
+      final List<Future<?>> futures = new ArrayList<>();
+      for (int t = 0; t < numThreads; t++) {
+        final Random random = new Random(t);
+        futures.add(es.submit(new Callable<Void>() {
+          @Override
+          public Void call() throws Exception {
+            for (int i = 0; i < numGets; i++) {
+              final int key = random.nextInt(1000);
+              assertEquals(key, (int) concurrentCache.get(key, new ImmediateInteger(key)));
+            }
+            return null;
+          }
+        }));
+      }
+      for (final Future<?> future : futures) {
+        future.get();
+      }
+    } finally {
+      es.shutdownNow();
+    }
+
+    assertEquals(100, concurrentCache.size());
+    assertEquals(numThreads * numGets, concurrentCache.getHitCount() + concurrentCache.getMissCount());
+    assertEquals(concurrentCache.getMissCount() - 100, concurrentCache.getEvictionCount());
+  }
+}
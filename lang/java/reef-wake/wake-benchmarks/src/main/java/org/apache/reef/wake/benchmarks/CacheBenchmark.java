@@ -0,0 +1,123 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.reef.wake.benchmarks;
+
+import org.apache.reef.util.cache.BoundedCache;
+import org.apache.reef.util.cache.Cache;
+import org.apache.reef.util.cache.CacheImpl;
+import org.apache.reef.util.cache.SystemTime;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.Random;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.logging.Logger;
+
+/**
+ * Concurrent gets on {@link CacheImpl} and {@link BoundedCache}, the caches behind the name lookups.
+ * The keys are drawn from a skewed distribution over keySpace keys, so that the bounded cache,
+ * which holds at most {@link #MAXIMUM_SIZE} of them, both hits and evicts when the key space is larger.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Threads(8)
+@Fork(1)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+public class CacheBenchmark {
+
+  private static final Logger LOG = Logger.getLogger(CacheBenchmark.class.getName());
+
+  static final int MAXIMUM_SIZE = 10000;
+  private static final long TIMEOUT_MILLIS = 60000;
+  private static final int NUM_KEYS_PER_THREAD = 1 << 16;
+
+  /**
+   * The cache implementation under test.
+   */
+  public enum CacheType {
+    CACHE_IMPL,
+    BOUNDED
+  }
+
+  @Param({"CACHE_IMPL", "BOUNDED"})
+  CacheType cacheType;
+
+  @Param({"1000", "100000"})
+  int keySpace;
+
+  private Cache<Integer, Integer> cache;
+
+  @Setup(Level.Iteration)
+  public void setUp() {
+    this.cache = this.cacheType == CacheType.BOUNDED
+        ? new BoundedCache<Integer, Integer>(new SystemTime(), TIMEOUT_MILLIS, MAXIMUM_SIZE)
+        : new CacheImpl<Integer, Integer>(new SystemTime(), TIMEOUT_MILLIS);
+  }
+
+  @TearDown(Level.Iteration)
+  public void tearDown() {
+    if (this.cache instanceof BoundedCache) {
+      final BoundedCache<Integer, Integer> bounded = (BoundedCache<Integer, Integer>) this.cache;
+      LOG.info(String.format("hits %d, misses %d, evictions %d", bounded.getHitCount(),
+          bounded.getMissCount(), bounded.getEvictionCount()));
+    }
+  }
+
+  /**
+   * The keys one benchmark thread looks up, in order.
+   */
+  @State(Scope.Thread)
+  public static class Keys {
+
+    private Integer[] keys;
+    private int next = 0;
+
+    @Setup
+    public void setUp(final CacheBenchmark benchmark) {
+      final Random random = new Random(Thread.currentThread().getId());
+      this.keys = new Integer[NUM_KEYS_PER_THREAD];
+      for (int i = 0; i < this.keys.length; i++) {
+        // Squaring a uniform variable favors the low keys: key k is drawn with probability ~ 1/sqrt(k)
+        final double uniform = random.nextDouble();
+        this.keys[i] = (int) (uniform * uniform * benchmark.keySpace);
+      }
+    }
+
+    Integer next() {
+      final Integer key = this.keys[this.next];
+      this.next = (this.next + 1) & (NUM_KEYS_PER_THREAD - 1);
+      return key;
+    }
+  }
+
+  private static final Callable<Integer> LOADER = new Callable<Integer>() {
+    @Override
+    public Integer call() {
+      return 42;
+    }
+  };
+
+  @Benchmark
+  public Integer get(final Keys keys) throws ExecutionException {
+    return this.cache.get(keys.next(), LOADER);
+  }
+}
@@ -0,0 +1,109 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.reef.wake.benchmarks;
+
+import org.apache.reef.tang.Tang;
+import org.apache.reef.tang.exceptions.InjectionException;
+import org.apache.reef.wake.EventHandler;
+import org.apache.reef.wake.time.Clock;
+import org.apache.reef.wake.time.event.Alarm;
+import org.apache.reef.wake.time.runtime.RuntimeClock;
+import org.apache.reef.wake.time.runtime.TimingWheelClock;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.Random;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cost of scheduling alarms on {@link RuntimeClock} and {@link TimingWheelClock}
+ * while 100k alarms are outstanding, as on a driver with many evaluators.
+ * {@code schedule} measures the throughput of scheduling far-future alarms from several threads;
+ * {@code fire} measures the latency from scheduling an immediate alarm to running its handler.
+ */
+@State(Scope.Benchmark)
+@Fork(1)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+public class ClockBenchmark {
+
+  static final int NUM_OUTSTANDING_ALARMS = 100000;
+
+  /** Far-future alarms stay outstanding for the whole benchmark. */
+  private static final int MIN_FAR_OFFSET = 600000;
+
+  /**
+   * The clock implementation under test.
+   */
+  public enum ClockType {
+    RUNTIME,
+    TIMING_WHEEL
+  }
+
+  private static final EventHandler<Alarm> NO_OP = new EventHandler<Alarm>() {
+    @Override
+    public void onNext(final Alarm value) {
+    }
+  };
+
+  @Param({"RUNTIME", "TIMING_WHEEL"})
+  ClockType clockType;
+
+  private Clock clock;
+
+  @Setup(Level.Iteration)
+  public void setUp() throws InjectionException {
+    final Class<? extends Clock> clockClass =
+        this.clockType == ClockType.TIMING_WHEEL ? TimingWheelClock.class : RuntimeClock.class;
+    this.clock = Tang.Factory.getTang().newInjector().getInstance(clockClass);
+    new Thread(this.clock, "clock-benchmark").start();
+    final Random random = new Random(NUM_OUTSTANDING_ALARMS);
+    for (int i = 0; i < NUM_OUTSTANDING_ALARMS; i++) {
+      this.clock.scheduleAlarm(MIN_FAR_OFFSET + random.nextInt(MIN_FAR_OFFSET), NO_OP);
+    }
+  }
+
+  @TearDown(Level.Iteration)
+  public void tearDown() {
+    this.clock.stop();
+  }
+
+  @Benchmark
+  @BenchmarkMode(Mode.Throughput)
+  @OutputTimeUnit(TimeUnit.MILLISECONDS)
+  @Threads(4)
+  public void schedule() {
+    this.clock.scheduleAlarm(MIN_FAR_OFFSET + ThreadLocalRandom.current().nextInt(MIN_FAR_OFFSET), NO_OP);
+  }
+
+  @Benchmark
+  @BenchmarkMode(Mode.SampleTime)
+  @OutputTimeUnit(TimeUnit.MICROSECONDS)
+  public void fire() throws InterruptedException {
+    final CountDownLatch fired = new CountDownLatch(1);
+    this.clock.scheduleAlarm(0, new EventHandler<Alarm>() {
+      @Override
+      public void onNext(final Alarm value) {
+        fired.countDown();
+      }
+    });
+    fired.await();
+  }
+}
@@ -0,0 +1,91 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.reef.wake.benchmarks;
+
+import org.apache.reef.wake.remote.Codec;
+import org.apache.reef.wake.remote.impl.ByteCodec;
+import org.apache.reef.wake.remote.impl.MultiCodec;
+import org.apache.reef.wake.remote.impl.RemoteEvent;
+import org.apache.reef.wake.remote.impl.RemoteEventCodec;
+import org.apache.reef.wake.remote.impl.StringCodec;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Encoding and decoding cost of {@link MultiCodec} and {@link RemoteEventCodec} across payload sizes.
+ * Run with {@code -prof gc} to also report the bytes allocated per operation ({@code gc.alloc.rate.norm}).
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Fork(1)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+public class CodecBenchmark {
+
+  @Param({"16", "1024", "65536"})
+  int payloadSize;
+
+  private byte[] payload;
+  private MultiCodec<Object> multiCodec;
+  private RemoteEventCodec<byte[]> remoteEventCodec;
+  private RemoteEvent<byte[]> remoteEvent;
+  private byte[] encodedMulti;
+  private byte[] encodedRemoteEvent;
+
+  @Setup
+  public void setUp() {
+    this.payload = new byte[this.payloadSize];
+    new Random(this.payloadSize).nextBytes(this.payload);
+
+    final Map<Class<?>, Codec<?>> codecs = new HashMap<>();
+    codecs.put(byte[].class, new ByteCodec());
+    codecs.put(String.class, new StringCodec());
+    this.multiCodec = new MultiCodec<>(codecs);
+    this.encodedMulti = this.multiCodec.encode(this.payload);
+
+    this.remoteEventCodec = new RemoteEventCodec<>(new ByteCodec());
+    this.remoteEvent = new RemoteEvent<>(null, null, 42, this.payload);
+    this.encodedRemoteEvent = this.remoteEventCodec.encode(this.remoteEvent);
+  }
+
+  @Benchmark
+  public byte[] multiCodecEncode() {
+    return this.multiCodec.encode(this.payload);
+  }
+
+  @Benchmark
+  public Object multiCodecDecode() {
+    return this.multiCodec.decode(this.encodedMulti);
+  }
+
+  @Benchmark
+  public byte[] remoteEventCodecEncode() {
+    return this.remoteEventCodec.encode(this.remoteEvent);
+  }
+
+  @Benchmark
+  public RemoteEvent<byte[]> remoteEventCodecDecode() {
+    return this.remoteEventCodec.decode(this.encodedRemoteEvent);
+  }
+}
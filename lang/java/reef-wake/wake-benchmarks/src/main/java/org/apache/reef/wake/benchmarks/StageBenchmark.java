@@ -0,0 +1,175 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.reef.wake.benchmarks;
+
+import org.apache.reef.wake.EStage;
+import org.apache.reef.wake.EventHandler;
+import org.apache.reef.wake.Stage;
+import org.apache.reef.wake.impl.ForkPoolStage;
+import org.apache.reef.wake.impl.RingBufferStage;
+import org.apache.reef.wake.impl.RingBufferStage.OverflowPolicy;
+import org.apache.reef.wake.impl.RingBufferStage.WaitStrategy;
+import org.apache.reef.wake.impl.SingleThreadStage;
+import org.apache.reef.wake.impl.ThreadPoolStage;
+import org.apache.reef.wake.impl.WakeSharedPool;
+import org.apache.reef.wake.rx.Observer;
+import org.apache.reef.wake.rx.RxStage;
+import org.apache.reef.wake.rx.impl.RxThreadPoolStage;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Hand-off latency and throughput of the Wake stages.
+ * {@link #handOff()} measures the time from {@code onNext()} until the handler runs on a stage thread,
+ * {@link #burst()} the throughput of a burst of events handed off by one producer.
+ */
+@State(Scope.Benchmark)
+@Fork(1)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+public class StageBenchmark {
+
+  private static final int BURST = 1000;
+
+  /**
+   * The stages under test.
+   */
+  public enum StageType {
+    THREAD_POOL, SINGLE_THREAD, FORK_POOL, RX_THREAD_POOL, RING_BUFFER_PARK, RING_BUFFER_YIELD, RING_BUFFER_SPIN
+  }
+
+  @Param
+  StageType stageType;
+
+  /** Ignored by the single thread and ring buffer stages. */
+  @Param({"1", "4"})
+  int numThreads;
+
+  private final AtomicLong handled = new AtomicLong(0);
+  private long submitted;
+  private EventHandler<Long> input;
+  private Stage stage;
+  private WakeSharedPool sharedPool;
+
+  @Setup
+  public void setUp() {
+    final EventHandler<Long> handler = new EventHandler<Long>() {
+      @Override
+      public void onNext(final Long value) {
+        handled.incrementAndGet();
+      }
+    };
+    switch (this.stageType) {
+    case THREAD_POOL:
+      setStage(new ThreadPoolStage<>(handler, this.numThreads));
+      break;
+    case SINGLE_THREAD:
+      setStage(new SingleThreadStage<>(handler, BURST));
+      break;
+    case RING_BUFFER_PARK:
+      setStage(newRingBufferStage(handler, WaitStrategy.PARK));
+      break;
+    case RING_BUFFER_YIELD:
+      setStage(newRingBufferStage(handler, WaitStrategy.YIELD));
+      break;
+    case RING_BUFFER_SPIN:
+      setStage(newRingBufferStage(handler, WaitStrategy.SPIN));
+      break;
+    case FORK_POOL:
+      this.sharedPool = new WakeSharedPool(this.numThreads);
+      setStage(new ForkPoolStage<>(handler, this.sharedPool));
+      break;
+    case RX_THREAD_POOL:
+      final RxStage<Long> rxStage = new RxThreadPoolStage<>(new Observer<Long>() {
+        @Override
+        public void onNext(final Long value) {
+          handled.incrementAndGet();
+        }
+
+        @Override
+        public void onError(final Exception error) {
+        }
+
+        @Override
+        public void onCompleted() {
+        }
+      }, this.numThreads);
+      this.stage = rxStage;
+      this.input = new EventHandler<Long>() {
+        @Override
+        public void onNext(final Long value) {
+          rxStage.onNext(value);
+        }
+      };
+      break;
+    default:
+      throw new IllegalArgumentException("Unknown stage " + this.stageType);
+    }
+  }
+
+  private static EStage<Long> newRingBufferStage(final EventHandler<Long> handler, final WaitStrategy waitStrategy) {
+    return new RingBufferStage<>("StageBenchmark", handler, BURST, waitStrategy, OverflowPolicy.BLOCK,
+        RingBufferStage.DEFAULT_BATCH_SIZE, null);
+  }
+
+  private void setStage(final EStage<Long> eStage) {
+    this.stage = eStage;
+    this.input = eStage;
+  }
+
+  @TearDown
+  public void tearDown() throws Exception {
+    this.stage.close();
+    if (this.sharedPool != null) {
+      this.sharedPool.close();
+    }
+  }
+
+  @Benchmark
+  @BenchmarkMode({Mode.AverageTime, Mode.SampleTime})
+  @OutputTimeUnit(TimeUnit.MICROSECONDS)
+  public long handOff() {
+    this.input.onNext(++this.submitted);
+    return awaitHandled();
+  }
+
+  @Benchmark
+  @BenchmarkMode(Mode.Throughput)
+  @OutputTimeUnit(TimeUnit.SECONDS)
+  @OperationsPerInvocation(BURST)
+  public long burst() {
+    for (int i = 0; i < BURST; ++i) {
+      this.input.onNext(++this.submitted);
+    }
+    return awaitHandled();
+  }
+
+  /**
+   * Spins until the handler has seen every submitted event, so that no events queue up across invocations.
+   */
+  private long awaitHandled() {
+    long count;
+    while ((count = this.handled.get()) < this.submitted) {
+      Thread.yield();
+    }
+    return count;
+  }
+}
@@ -0,0 +1,108 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.reef.wake.benchmarks;
+
+import org.apache.reef.tang.Injector;
+import org.apache.reef.tang.Tang;
+import org.apache.reef.tang.exceptions.InjectionException;
+import org.apache.reef.wake.EStage;
+import org.apache.reef.wake.remote.RemoteConfiguration;
+import org.apache.reef.wake.remote.address.LocalAddressProvider;
+import org.apache.reef.wake.remote.impl.ByteCodec;
+import org.apache.reef.wake.remote.impl.TransportEvent;
+import org.apache.reef.wake.remote.transport.Link;
+import org.apache.reef.wake.remote.transport.Transport;
+import org.apache.reef.wake.remote.transport.TransportFactory;
+import org.apache.reef.wake.remote.transport.netty.LoggingLinkListener;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Messages per second through a {@link org.apache.reef.wake.remote.transport.netty.NettyMessagingTransport}
+ * that sends to itself over loopback, across payload sizes.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Fork(1)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+public class TransportBenchmark {
+
+  private static final int BURST = 100;
+
+  @Param({"16", "1024", "65536"})
+  int payloadSize;
+
+  @Param({"false", "true"})
+  boolean nativeTransport;
+
+  private final AtomicLong received = new AtomicLong(0);
+  private long sent;
+  private byte[] payload;
+  private Transport transport;
+  private Link<byte[]> link;
+
+  @Setup
+  public void setUp() throws InjectionException, IOException {
+    this.payload = new byte[this.payloadSize];
+    new Random(this.payloadSize).nextBytes(this.payload);
+
+    final Injector injector = Tang.Factory.getTang().newInjector();
+    injector.bindVolatileParameter(RemoteConfiguration.NativeTransport.class, this.nativeTransport);
+    final String hostAddress = injector.getInstance(LocalAddressProvider.class).getLocalAddress();
+    final EStage<TransportEvent> stage = new EStage<TransportEvent>() {
+      @Override
+      public void onNext(final TransportEvent value) {
+        received.incrementAndGet();
+      }
+
+      @Override
+      public void close() {
+      }
+    };
+    this.transport = injector.getInstance(TransportFactory.class).newInstance(hostAddress, 0, stage, stage, 1, 10000);
+    this.link = this.transport.open(new InetSocketAddress(hostAddress, this.transport.getListeningPort()),
+        new ByteCodec(), new LoggingLinkListener<byte[]>());
+  }
+
+  @TearDown
+  public void tearDown() throws Exception {
+    this.transport.close();
+  }
+
+  @Benchmark
+  @OperationsPerInvocation(BURST)
+  public long loopback() {
+    for (int i = 0; i < BURST; ++i) {
+      this.link.write(this.payload);
+    }
+    this.sent += BURST;
+    long count;
+    while ((count = this.received.get()) < this.sent) {
+      Thread.yield();
+    }
+    return count;
+  }
+}
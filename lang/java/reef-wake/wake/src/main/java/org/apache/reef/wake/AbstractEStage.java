@@ -18,17 +18,28 @@
  */
 package org.apache.reef.wake;
 
+import org.apache.reef.wake.metrics.LatencyRecording;
+import org.apache.reef.wake.metrics.LogLinearHistogram;
 import org.apache.reef.wake.metrics.Meter;
+import org.apache.reef.wake.metrics.StageMetrics;
 
 import java.util.concurrent.atomic.AtomicBoolean;
 
 /**
  * An {@link EStage} that implements metering.
+ * <p>
+ * While {@link LatencyRecording} is on, stages that call the timing methods
+ * also record how long events wait before their handler is called, and how long the handler takes.
  *
  * @param <T> type
  */
 public abstract class AbstractEStage<T> implements EStage<T> {
 
+  /**
+   * Timestamp of an event that is not timed, because latency recording was off.
+   */
+  protected static final long NOT_TIMED = Long.MIN_VALUE;
+
   protected final AtomicBoolean closed;
   protected final String name;
   private final Meter inMeter;
@@ -38,6 +49,12 @@ public abstract class AbstractEStage<T> implements EStage<T> {
    */
   private final Meter outMeter;
 
+  /**
+   * Latency histograms in nanoseconds, created when the stage first records a latency.
+   */
+  private volatile LogLinearHistogram queueWaitTime;
+  private volatile LogLinearHistogram serviceTime;
+
   /**
    * Constructs an abstract estage.
    *
@@ -88,6 +105,83 @@ public abstract class AbstractEStage<T> implements EStage<T> {
     outMeter.mark(1);
   }
 
+  /**
+   * Gets the current time for timing an event, if latency recording is on.
+   * Stages with a queue call this when an event is input, and pass the result to {@link #recordQueueWait(long)}.
+   *
+   * @return the current time in nanoseconds, or NOT_TIMED if latency recording is off
+   */
+  protected long startTiming() {
+    return LatencyRecording.isEnabled() ? System.nanoTime() : NOT_TIMED;
+  }
+
+  /**
+   * Records the time an event waited before its handler is called.
+   *
+   * @param inputTime the time the event was input, as returned by {@link #startTiming()}
+   * @return the current time in nanoseconds, to pass to {@link #recordServiceTime(long)}, or NOT_TIMED
+   */
+  protected long recordQueueWait(final long inputTime) {
+    if (inputTime == NOT_TIMED) {
+      return NOT_TIMED;
+    }
+    final long now = System.nanoTime();
+    getQueueWaitTime().update(now - inputTime);
+    return now;
+  }
+
+  /**
+   * Records the time the handler took for an event.
+   *
+   * @param startTime the time the handler was called, as returned by {@link #startTiming()}
+   *                  or {@link #recordQueueWait(long)}
+   */
+  protected void recordServiceTime(final long startTime) {
+    if (startTime != NOT_TIMED) {
+      getServiceTime().update(System.nanoTime() - startTime);
+    }
+  }
+
+  /**
+   * Gets the histogram of the times events waited before their handler was called.
+   *
+   * @return the histogram in nanoseconds
+   */
+  public LogLinearHistogram getQueueWaitTime() {
+    if (queueWaitTime == null) {
+      createHistograms();
+    }
+    return queueWaitTime;
+  }
+
+  /**
+   * Gets the histogram of the times the handler took.
+   *
+   * @return the histogram in nanoseconds
+   */
+  public LogLinearHistogram getServiceTime() {
+    if (serviceTime == null) {
+      createHistograms();
+    }
+    return serviceTime;
+  }
+
+  private synchronized void createHistograms() {
+    if (serviceTime == null) {
+      queueWaitTime = new LogLinearHistogram();
+      serviceTime = new LogLinearHistogram();
+    }
+  }
+
+  /**
+   * Takes a snapshot of the meters and latency histograms of this stage.
+   *
+   * @return the stage metrics
+   */
+  public StageMetrics getMetrics() {
+    return new StageMetrics(name, inMeter, outMeter, queueWaitTime, serviceTime);
+  }
+
   /**
    * Check if the stage can still accept messages.
    * @return true if the stage is closed, false otherwise.
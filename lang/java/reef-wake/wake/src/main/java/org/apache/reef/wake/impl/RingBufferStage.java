@@ -0,0 +1,438 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.reef.wake.impl;
+
+import org.apache.reef.tang.annotations.Parameter;
+import org.apache.reef.wake.AbstractEStage;
+import org.apache.reef.wake.EventHandler;
+import org.apache.reef.wake.StageConfiguration.Capacity;
+import org.apache.reef.wake.StageConfiguration.StageHandler;
+import org.apache.reef.wake.StageConfiguration.StageName;
+import org.apache.reef.wake.WakeParameters;
+
+import javax.inject.Inject;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Stage that hands events from any number of threads to a single thread through a bounded ring buffer.
+ * <p>
+ * The ring buffer is allocated once, with a capacity rounded up to a power of two. Producers claim slots
+ * with a compare-and-set on the tail, and each slot carries a sequence number that tells whether it is
+ * free or holds an event, so that neither producers nor the consumer take a lock or allocate per event.
+ * The consumer thread runs the handler on up to batchSize events per pass, and only waits,
+ * according to the {@link WaitStrategy}, when the buffer is empty. Producers only wake it up if it parked.
+ * <p>
+ * When the buffer is full, onNext() follows the {@link OverflowPolicy}: it blocks until there is room,
+ * drops the oldest event, or rejects the new event. {@link #offer(Object)} never blocks, and returns
+ * false instead. Dropped events count as output in the stage metrics, as they leave the queue.
+ * <p>
+ * An exception from the handler goes to the error handler, or is logged; the stage keeps running.
+ * Closing the stage stops it from accepting events; the consumer thread handles the queued events
+ * and exits, and close() waits for it up to {@link WakeParameters#EXECUTOR_SHUTDOWN_TIMEOUT} ms.
+ *
+ * @param <T> type
+ */
+public final class RingBufferStage<T> extends AbstractEStage<T> {
+
+  private static final Logger LOG = Logger.getLogger(RingBufferStage.class.getName());
+
+  private static final long SHUTDOWN_TIMEOUT = WakeParameters.EXECUTOR_SHUTDOWN_TIMEOUT;
+
+  /** Default number of events the consumer handles before it checks for close. */
+  public static final int DEFAULT_BATCH_SIZE = 256;
+
+  /** Longest time a producer blocked on a full buffer parks before it tries again. */
+  private static final long PRODUCER_PARK_NANOS = TimeUnit.MICROSECONDS.toNanos(50);
+
+  /** Fills a slot claimed by a producer that found the stage closed; the consumer skips it. */
+  private static final Object REJECTED = new Object();
+
+  /**
+   * How the consumer waits for events. Producers blocked on a full buffer park under PARK, and yield otherwise.
+   */
+  public enum WaitStrategy {
+    /** Busy-spin: lowest latency, but keeps a processor busy while idle; needs a processor of its own. */
+    SPIN,
+    /** Yield the processor between checks. */
+    YIELD,
+    /** Park the consumer until a producer wakes it up, and blocked producers for short intervals. */
+    PARK
+  }
+
+  /**
+   * What onNext() does when the buffer is full.
+   */
+  public enum OverflowPolicy {
+    /** Block the producer until there is room. */
+    BLOCK,
+    /** Drop the oldest queued event to make room. */
+    DROP_OLDEST,
+    /** Throw a RejectedExecutionException to the producer. */
+    REJECT
+  }
+
+  private final EventHandler<T> handler;
+  private final EventHandler<Throwable> errorHandler;
+  private final WaitStrategy waitStrategy;
+  private final OverflowPolicy overflowPolicy;
+  private final int batchSize;
+
+  private final int mask;
+  private final Object[] events;
+  /** Time each event was input, for latency recording. */
+  private final long[] inputTimes;
+  /**
+   * Sequence number of each slot: equal to the position of the slot if it is free for that position,
+   * and to the position plus one if it holds the event of that position.
+   */
+  private final AtomicLongArray sequences;
+  private final AtomicLong tail = new AtomicLong(0);
+  private final AtomicLong head = new AtomicLong(0);
+
+  private final Thread consumer;
+  private volatile boolean consumerParked = false;
+  private final LongAdder droppedCount = new LongAdder();
+
+  /**
+   * Constructs a ring buffer stage that blocks producers on overflow and parks its idle consumer.
+   *
+   * @param handler  the event handler to execute
+   * @param capacity the minimum capacity of the ring buffer
+   */
+  @Inject
+  public RingBufferStage(@Parameter(StageHandler.class) final EventHandler<T> handler,
+                         @Parameter(Capacity.class) final int capacity) {
+    this(handler.getClass().getName(), handler, capacity);
+  }
+
+  /**
+   * Constructs a ring buffer stage that blocks producers on overflow and parks its idle consumer.
+   *
+   * @param name     the stage name
+   * @param handler  the event handler to execute
+   * @param capacity the minimum capacity of the ring buffer
+   */
+  @Inject
+  public RingBufferStage(@Parameter(StageName.class) final String name,
+                         @Parameter(StageHandler.class) final EventHandler<T> handler,
+                         @Parameter(Capacity.class) final int capacity) {
+    this(name, handler, capacity, WaitStrategy.PARK, OverflowPolicy.BLOCK, DEFAULT_BATCH_SIZE, null);
+  }
+
+  /**
+   * Constructs a ring buffer stage.
+   *
+   * @param name           the stage name
+   * @param handler        the event handler to execute
+   * @param capacity       the minimum capacity of the ring buffer
+   * @param waitStrategy   how the consumer waits for events
+   * @param overflowPolicy what onNext() does when the buffer is full
+   * @param batchSize      the number of events the consumer handles before it checks for close
+   * @param errorHandler   the error handler, or null to log the exceptions of the handler
+   */
+  public RingBufferStage(final String name,
+                         final EventHandler<T> handler,
+                         final int capacity,
+                         final WaitStrategy waitStrategy,
+                         final OverflowPolicy overflowPolicy,
+                         final int batchSize,
+                         final EventHandler<Throwable> errorHandler) {
+    super(name);
+    if (capacity <= 0 || capacity > 1 << 30) {
+      throw new IllegalArgumentException(name + " capacity " + capacity + " is out of range");
+    }
+    if (batchSize <= 0) {
+      throw new IllegalArgumentException(name + " batchSize " + batchSize + " is less than or equal to 0");
+    }
+    this.handler = handler;
+    this.errorHandler = errorHandler;
+    this.waitStrategy = waitStrategy;
+    this.overflowPolicy = overflowPolicy;
+    this.batchSize = batchSize;
+
+    final int size = capacity == 1 ? 1 : Integer.highestOneBit(capacity - 1) << 1;
+    this.mask = size - 1;
+    this.events = new Object[size];
+    this.inputTimes = new long[size];
+    this.sequences = new AtomicLongArray(size);
+    for (int i = 0; i < size; ++i) {
+      this.sequences.set(i, i);
+    }
+
+    this.consumer = new Thread(new Consumer(), "RingBufferStage<" + name + ">");
+    this.consumer.setDaemon(true);
+    this.consumer.start();
+    StageManager.instance().register(this);
+  }
+
+  /**
+   * Puts the event into the ring buffer, to be handled by the consumer thread.
+   * If the buffer is full, the overflow policy applies.
+   *
+   * @param value the event
+   * @throws IllegalStateException      if the stage is closed
+   * @throws RejectedExecutionException if the buffer is full and the overflow policy is REJECT
+   */
+  @Override
+  public void onNext(final T value) {
+    final long inputTime = startTiming();
+    while (!tryEnqueue(value, inputTime)) {
+      switch (overflowPolicy) {
+      case BLOCK:
+        backOff();
+        break;
+      case DROP_OLDEST:
+        if (dequeueAndDrop()) {
+          LOG.log(Level.FINEST, "{0} dropped the oldest event", name);
+        }
+        break;
+      case REJECT:
+        throw new RejectedExecutionException(name + " is full");
+      default:
+        throw new IllegalStateException("Unknown overflow policy " + overflowPolicy);
+      }
+    }
+    beforeOnNext();
+  }
+
+  /**
+   * Puts the event into the ring buffer if there is room, whatever the overflow policy.
+   *
+   * @param value the event
+   * @return true if the event was queued, false if the buffer is full
+   * @throws IllegalStateException if the stage is closed
+   */
+  public boolean offer(final T value) {
+    if (!tryEnqueue(value, startTiming())) {
+      return false;
+    }
+    beforeOnNext();
+    return true;
+  }
+
+  /**
+   * @return the number of events dropped to make room for new ones
+   */
+  public long getDroppedCount() {
+    return droppedCount.sum();
+  }
+
+  /**
+   * @return the number of events in the ring buffer, approximately if it changes concurrently
+   */
+  public int getQueueLength() {
+    return (int) Math.max(0, tail.get() - head.get());
+  }
+
+  /**
+   * @return the capacity of the ring buffer
+   */
+  public int getCapacity() {
+    return mask + 1;
+  }
+
+  /**
+   * Closes the stage: no more events are accepted, and the queued events are handled before the
+   * consumer thread exits.
+   */
+  @Override
+  public void close() throws Exception {
+    if (closed.compareAndSet(false, true)) {
+      LockSupport.unpark(consumer);
+      if (Thread.currentThread() != consumer) {
+        consumer.join(SHUTDOWN_TIMEOUT);
+        if (consumer.isAlive()) {
+          LOG.log(Level.SEVERE, "Closing {0}: consumer did not finish in {1} ms with {2} events queued",
+              new Object[] {name, SHUTDOWN_TIMEOUT, getQueueLength()});
+        }
+      }
+    }
+  }
+
+  private boolean tryEnqueue(final T value, final long inputTime) {
+    if (closed.get()) {
+      throw new IllegalStateException(name + " is closed");
+    }
+    long position = tail.get();
+    while (true) {
+      final int index = (int) position & mask;
+      final long difference = sequences.get(index) - position;
+      if (difference == 0) {
+        if (tail.compareAndSet(position, position + 1)) {
+          // Check again after the claim: the consumer only exits once it has seen the stage closed
+          // and every claimed slot taken, so it handles the event unless the stage was closed by now
+          final boolean rejected = closed.get();
+          events[index] = rejected ? REJECTED : value;
+          inputTimes[index] = inputTime;
+          sequences.set(index, position + 1);
+          if (consumerParked) {
+            consumerParked = false;
+            LockSupport.unpark(consumer);
+          }
+          if (rejected) {
+            throw new IllegalStateException(name + " is closed");
+          }
+          return true;
+        }
+        position = tail.get();
+      } else if (difference < 0) {
+        return false;
+      } else {
+        position = tail.get();
+      }
+    }
+  }
+
+  /**
+   * Takes the oldest event out of the ring buffer.
+   * Both the consumer and, under the DROP_OLDEST policy, the producers do this.
+   *
+   * @param inputTime where to store the input time of the event; may be null
+   * @return the event, or null if the buffer is empty
+   */
+  @SuppressWarnings("unchecked")
+  private T dequeue(final long[] inputTime) {
+    long position = head.get();
+    while (true) {
+      final int index = (int) position & mask;
+      final long difference = sequences.get(index) - (position + 1);
+      if (difference == 0) {
+        if (head.compareAndSet(position, position + 1)) {
+          final T value = (T) events[index];
+          if (inputTime != null) {
+            inputTime[0] = inputTimes[index];
+          }
+          events[index] = null;
+          sequences.set(index, position + mask + 1);
+          return value;
+        }
+        position = head.get();
+      } else if (difference < 0) {
+        return null;
+      } else {
+        position = head.get();
+      }
+    }
+  }
+
+  private boolean dequeueAndDrop() {
+    final T value = dequeue(null);
+    if (value == null) {
+      return false;
+    }
+    if (value != REJECTED) {
+      droppedCount.increment();
+      afterOnNext();
+    }
+    return true;
+  }
+
+  private boolean isEmpty() {
+    final long position = head.get();
+    return sequences.get((int) position & mask) - (position + 1) < 0;
+  }
+
+  /**
+   * @return true if every claimed slot has been taken, including the ones whose event is not published yet
+   */
+  private boolean isDrained() {
+    return head.get() == tail.get();
+  }
+
+  /**
+   * Waits for room in the buffer. Producers yield rather than spin under SPIN,
+   * so as not to take the processor from the consumer that has to make the room.
+   */
+  private void backOff() {
+    if (waitStrategy == WaitStrategy.PARK) {
+      LockSupport.parkNanos(this, PRODUCER_PARK_NANOS);
+    } else {
+      Thread.yield();
+    }
+  }
+
+  @SuppressWarnings("checkstyle:illegalcatch")
+  private void handle(final T value, final long inputTime) {
+    final long startTime = recordQueueWait(inputTime);
+    try {
+      handler.onNext(value);
+      recordServiceTime(startTime);
+    } catch (final Throwable t) {
+      if (errorHandler != null) {
+        errorHandler.onNext(t);
+      } else {
+        LOG.log(Level.SEVERE, name + " Exception from event handler", t);
+      }
+    } finally {
+      afterOnNext();
+    }
+  }
+
+  /**
+   * Takes batches of events from the ring buffer and handles them, waiting when it is empty.
+   */
+  private final class Consumer implements Runnable {
+
+    private final long[] inputTime = new long[1];
+
+    @Override
+    public void run() {
+      while (true) {
+        int handled = 0;
+        for (T value = dequeue(inputTime); value != null; value = handled < batchSize ? dequeue(inputTime) : null) {
+          if (value != REJECTED) {
+            handle(value, inputTime[0]);
+          }
+          ++handled;
+        }
+        if (handled == 0) {
+          if (closed.get() && isDrained()) {
+            LOG.log(Level.FINEST, "{0} consumer exits", name);
+            return;
+          }
+          await();
+        }
+      }
+    }
+
+    private void await() {
+      switch (waitStrategy) {
+      case SPIN:
+        break;
+      case YIELD:
+        Thread.yield();
+        break;
+      default:
+        consumerParked = true;
+        // Check again after announcing the park, so that a concurrent producer either sees the flag or is seen here
+        if (isEmpty() && !closed.get()) {
+          LockSupport.park(RingBufferStage.this);
+        }
+        consumerParked = false;
+      }
+    }
+  }
+}
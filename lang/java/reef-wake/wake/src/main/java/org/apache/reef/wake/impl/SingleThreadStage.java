@@ -40,7 +40,10 @@ import java.util.logging.Logger;
 public final class SingleThreadStage<T> extends AbstractEStage<T> {
   private static final Logger LOG = Logger.getLogger(SingleThreadStage.class.getName());
 
-  private final BlockingQueue<T> queue;
+  /**
+   * Holds the events, or TimedEvents while latency recording is on.
+   */
+  private final BlockingQueue<Object> queue;
   private final Thread thread;
   private final AtomicBoolean interrupted;
 
@@ -68,7 +71,7 @@ public final class SingleThreadStage<T> extends AbstractEStage<T> {
                            @Parameter(StageHandler.class) final EventHandler<T> handler,
                            @Parameter(Capacity.class) final int capacity) {
     super(name);
-    queue = new ArrayBlockingQueue<T>(capacity);
+    queue = new ArrayBlockingQueue<>(capacity);
     interrupted = new AtomicBoolean(false);
     thread = new Thread(new Producer<T>(name, queue, handler, interrupted));
     thread.setName("SingleThreadStage<" + name + ">");
@@ -86,7 +89,8 @@ public final class SingleThreadStage<T> extends AbstractEStage<T> {
   @Override
   public void onNext(final T value) {
     beforeOnNext();
-    queue.add(value);
+    final long inputTime = startTiming();
+    queue.add(inputTime == NOT_TIMED ? value : new TimedEvent<>(value, inputTime));
   }
 
   /**
@@ -109,11 +113,11 @@ public final class SingleThreadStage<T> extends AbstractEStage<T> {
   private class Producer<U> implements Runnable {
 
     private final String name;
-    private final BlockingQueue<U> queue;
+    private final BlockingQueue<Object> queue;
     private final EventHandler<U> handler;
     private final AtomicBoolean interrupted;
 
-    Producer(final String name, final BlockingQueue<U> queue, final EventHandler<U> handler,
+    Producer(final String name, final BlockingQueue<Object> queue, final EventHandler<U> handler,
              final AtomicBoolean interrupted) {
       this.name = name;
       this.queue = queue;
@@ -122,11 +126,19 @@ public final class SingleThreadStage<T> extends AbstractEStage<T> {
     }
 
     @Override
+    @SuppressWarnings("unchecked")
     public void run() {
       while (true) {
         try {
-          final U value = queue.take();
-          handler.onNext(value);
+          final Object item = queue.take();
+          if (item instanceof TimedEvent) {
+            final TimedEvent<U> timedEvent = (TimedEvent<U>) item;
+            final long startTime = SingleThreadStage.this.recordQueueWait(timedEvent.inputTime);
+            handler.onNext(timedEvent.value);
+            SingleThreadStage.this.recordServiceTime(startTime);
+          } else {
+            handler.onNext((U) item);
+          }
           SingleThreadStage.this.afterOnNext();
         } catch (final InterruptedException e) {
           if (interrupted.get()) {
@@ -141,5 +153,17 @@ public final class SingleThreadStage<T> extends AbstractEStage<T> {
     }
   }
 
-}
+  /**
+   * An event queued with the time it was input, to record its queue wait.
+   */
+  private static final class TimedEvent<U> {
+
+    private final U value;
+    private final long inputTime;
 
+    TimedEvent(final U value, final long inputTime) {
+      this.value = value;
+      this.inputTime = inputTime;
+    }
+  }
+}
@@ -18,7 +18,10 @@
  */
 package org.apache.reef.wake.impl;
 
+import org.apache.reef.wake.AbstractEStage;
 import org.apache.reef.wake.Stage;
+import org.apache.reef.wake.metrics.LatencyRecording;
+import org.apache.reef.wake.metrics.StageMetrics;
 
 import java.util.ArrayList;
 import java.util.Collections;
@@ -29,6 +32,7 @@ import java.util.logging.Logger;
 
 /**
  * A manager that manages all the stage.
+ * It also turns latency recording of the stages on and off, and collects their metrics.
  */
 public final class StageManager implements Stage {
 
@@ -66,6 +70,40 @@ public final class StageManager implements Stage {
     this.stages.add(stage);
   }
 
+  /**
+   * Turns recording of queue wait and service times in the stages on or off. It is off by default,
+   * as it reads the system time at least twice per event.
+   *
+   * @param latencyRecording whether to record latencies
+   */
+  public void setLatencyRecording(final boolean latencyRecording) {
+    LatencyRecording.setEnabled(latencyRecording);
+  }
+
+  /**
+   * @return true if the stages record their queue wait and service times
+   */
+  public boolean isLatencyRecording() {
+    return LatencyRecording.isEnabled();
+  }
+
+  /**
+   * Takes a snapshot of the meters and latency histograms of the registered stages that have them.
+   *
+   * @return the metrics of the stages, in the order they were registered
+   */
+  public List<StageMetrics> getMetrics() {
+    final List<StageMetrics> metrics = new ArrayList<>();
+    synchronized (this.stages) {
+      for (final Stage stage : this.stages) {
+        if (stage instanceof AbstractEStage) {
+          metrics.add(((AbstractEStage<?>) stage).getMetrics());
+        }
+      }
+    }
+    return metrics;
+  }
+
   @Override
   public void close() throws Exception {
     if (this.closed.compareAndSet(false, true)) {
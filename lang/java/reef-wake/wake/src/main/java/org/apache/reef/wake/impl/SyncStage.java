@@ -89,8 +89,10 @@ public final class SyncStage<T> extends AbstractEStage<T> {
   @SuppressWarnings("checkstyle:illegalcatch")
   public void onNext(final T value) {
     beforeOnNext();
+    final long startTime = startTiming();
     try {
       handler.onNext(value);
+      recordServiceTime(startTime);
     } catch (final Throwable t) {
       if (errorHandler != null) {
         errorHandler.onNext(t);
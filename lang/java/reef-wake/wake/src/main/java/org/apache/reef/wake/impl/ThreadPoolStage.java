@@ -173,13 +173,16 @@ public final class ThreadPoolStage<T> extends AbstractEStage<T> {
   @SuppressWarnings("checkstyle:illegalcatch")
   public void onNext(final T value) {
     beforeOnNext();
+    final long inputTime = startTiming();
     try {
       executor.submit(new Runnable() {
 
         @Override
         public void run() {
+          final long startTime = recordQueueWait(inputTime);
           try {
             handler.onNext(value);
+            recordServiceTime(startTime);
           } catch (final Throwable t) {
             if (errorHandler != null) {
               errorHandler.onNext(t);
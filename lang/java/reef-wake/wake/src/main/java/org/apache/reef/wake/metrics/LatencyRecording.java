@@ -0,0 +1,48 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.reef.wake.metrics;
+
+/**
+ * Whether the stages record their queue wait and service times.
+ * It is off by default, as it reads the system time at least twice per event.
+ * Turned on and off through the StageManager.
+ */
+public final class LatencyRecording {
+
+  private static volatile boolean enabled = false;
+
+  private LatencyRecording() {
+  }
+
+  /**
+   * Turns latency recording on or off.
+   *
+   * @param on whether to record latencies
+   */
+  public static void setEnabled(final boolean on) {
+    enabled = on;
+  }
+
+  /**
+   * @return true if the stages record their queue wait and service times
+   */
+  public static boolean isEnabled() {
+    return enabled;
+  }
+}
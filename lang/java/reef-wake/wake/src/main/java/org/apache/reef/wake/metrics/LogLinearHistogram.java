@@ -0,0 +1,166 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.reef.wake.metrics;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Histogram of non-negative values with bins of bounded relative width, e.g. for latencies in nanoseconds.
+ *
+ * Values below 32 have a bin each. Above, each power of two is split into 16 bins of equal width,
+ * so that a bin is at most 1/16th of its lower bound wide. Values of 2^40 and more share the last bin.
+ * The bins are striped by thread to keep updates from many threads from contending.
+ */
+public final class LogLinearHistogram implements Histogram {
+
+  private static final int SUB_BIN_BITS = 4;
+  private static final int SUB_BINS = 1 << SUB_BIN_BITS;
+  private static final int MAX_EXPONENT = 40;
+  private static final int NUM_BINS = (MAX_EXPONENT - SUB_BIN_BITS + 1) * SUB_BINS;
+  private static final int NUM_STRIPES = 4;
+
+  private final LongAdder count = new LongAdder();
+  private final AtomicLongArray[] stripes = new AtomicLongArray[NUM_STRIPES];
+
+  /**
+   * Constructs a histogram.
+   */
+  public LogLinearHistogram() {
+    for (int i = 0; i < NUM_STRIPES; ++i) {
+      this.stripes[i] = new AtomicLongArray(NUM_BINS);
+    }
+  }
+
+  /**
+   * Updates the value. Negative values are recorded as 0.
+   *
+   * @param value the new value
+   */
+  @Override
+  public void update(final long value) {
+    count.increment();
+    final int stripe = (int) Thread.currentThread().getId() & (NUM_STRIPES - 1);
+    stripes[stripe].incrementAndGet(getBinIndex(value));
+  }
+
+  /**
+   * Returns the number of recorded values.
+   *
+   * @return the number of recorded values
+   */
+  @Override
+  public long getCount() {
+    return count.sum();
+  }
+
+  /**
+   * Returns the number of values recorded in a bin.
+   *
+   * @param index the bin index
+   * @return the number of values in the bin
+   */
+  @Override
+  public long getValue(final int index) {
+    long sum = 0;
+    for (final AtomicLongArray stripe : stripes) {
+      sum += stripe.get(index);
+    }
+    return sum;
+  }
+
+  /**
+   * Returns the number of bins.
+   *
+   * @return the number of bins
+   */
+  @Override
+  public int getNumBins() {
+    return NUM_BINS;
+  }
+
+  /**
+   * Returns the largest value that falls into a bin.
+   *
+   * @param index the bin index
+   * @return the upper bound of the bin, inclusive
+   */
+  public long getUpperBound(final int index) {
+    final int block = index >>> SUB_BIN_BITS;
+    final long subBin = index & (SUB_BINS - 1);
+    if (block == 0) {
+      return subBin;
+    }
+    return ((SUB_BINS + subBin + 1) << (block - 1)) - 1;
+  }
+
+  /**
+   * Returns a value that is greater than or equal to the given percentage of the recorded values,
+   * within the relative error of the bins.
+   *
+   * @param percentile the percentage, between 0 and 100
+   * @return the upper bound of the bin of the percentile, or 0 if there are no recorded values
+   */
+  public long getPercentile(final double percentile) {
+    long total = 0;
+    final long[] bins = new long[NUM_BINS];
+    for (int i = 0; i < NUM_BINS; ++i) {
+      bins[i] = getValue(i);
+      total += bins[i];
+    }
+    if (total == 0) {
+      return 0;
+    }
+    final long rank = Math.max(1, (long) Math.ceil(percentile / 100.0 * total));
+    long seen = 0;
+    for (int i = 0; i < NUM_BINS; ++i) {
+      seen += bins[i];
+      if (seen >= rank) {
+        return getUpperBound(i);
+      }
+    }
+    return getUpperBound(NUM_BINS - 1);
+  }
+
+  /**
+   * Forgets all the recorded values.
+   * Values recorded concurrently may be partly forgotten, e.g. counted but not in any bin.
+   */
+  public void reset() {
+    count.reset();
+    for (final AtomicLongArray stripe : stripes) {
+      for (int i = 0; i < NUM_BINS; ++i) {
+        stripe.set(i, 0);
+      }
+    }
+  }
+
+  private static int getBinIndex(final long value) {
+    if (value < SUB_BINS) {
+      return value < 0 ? 0 : (int) value;
+    }
+    final int exponent = 63 - Long.numberOfLeadingZeros(value);
+    if (exponent >= MAX_EXPONENT) {
+      return NUM_BINS - 1;
+    }
+    final int block = exponent - SUB_BIN_BITS + 1;
+    final int subBin = (int) (value >>> (exponent - SUB_BIN_BITS)) & (SUB_BINS - 1);
+    return (block << SUB_BIN_BITS) + subBin;
+  }
+}
@@ -20,18 +20,28 @@ package org.apache.reef.wake.metrics;
 
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
 
 /**
  * Meter that monitors mean throughput and ewma (1m, 5m, 15m) throughput.
+ *
+ * Marks only add to a striped counter, so that busy stages marked from many threads do not contend
+ * on one cache line. The EWMA rates are updated from the difference of the counter at most once
+ * per tick interval, by the first mark or read after the interval has passed.
  */
 public class Meter {
 
   private static final long TICK_INTERVAL = TimeUnit.SECONDS.toNanos(5);
 
-  private final AtomicLong count = new AtomicLong();
+  private final LongAdder count = new LongAdder();
   private final long startTime;
   private final AtomicLong lastTick;
 
+  /**
+   * The count at the last tick; guarded by the monitor of the meter.
+   */
+  private long lastTickCount = 0;
+
   private final EWMA m1Thp;
   private final EWMA m5Thp;
   private final EWMA m15Thp;
@@ -68,10 +78,7 @@ public class Meter {
    */
   public void mark(final long n) {
     tickIfNecessary();
-    count.addAndGet(n);
-    m1Thp.update(n);
-    m5Thp.update(n);
-    m15Thp.update(n);
+    count.add(n);
   }
 
   /**
@@ -80,7 +87,7 @@ public class Meter {
    * @return the count
    */
   public long getCount() {
-    return count.get();
+    return count.sum();
   }
 
   /**
@@ -136,12 +143,24 @@ public class Meter {
     final long newTick = getTick();
     final long age = newTick - oldTick;
     if (age > TICK_INTERVAL && lastTick.compareAndSet(oldTick, newTick)) {
-      final long requiredTicks = age / TICK_INTERVAL;
-      for (long i = 0; i < requiredTicks; i++) {
-        m1Thp.tick();
-        m5Thp.tick();
-        m15Thp.tick();
-      }
+      tick(age / TICK_INTERVAL);
+    }
+  }
+
+  /**
+   * Feeds the events counted since the last tick to the EWMAs, and decays them for the remaining ticks.
+   */
+  private synchronized void tick(final long requiredTicks) {
+    final long newCount = count.sum();
+    final long uncounted = newCount - lastTickCount;
+    lastTickCount = newCount;
+    m1Thp.update(uncounted);
+    m5Thp.update(uncounted);
+    m15Thp.update(uncounted);
+    for (long i = 0; i < requiredTicks; i++) {
+      m1Thp.tick();
+      m5Thp.tick();
+      m15Thp.tick();
     }
   }
 }
@@ -0,0 +1,143 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.reef.wake.metrics;
+
+/**
+ * Snapshot of the throughput and latency of a stage.
+ * Latencies are in nanoseconds, and 0 if the stage has not recorded any.
+ */
+public final class StageMetrics {
+
+  private final String stageName;
+  private final long inCount;
+  private final long outCount;
+  private final double in1mEWMAThp;
+  private final double out1mEWMAThp;
+  private final long queueDepth;
+  private final LatencyPercentiles queueWait;
+  private final LatencyPercentiles serviceTime;
+
+  /**
+   * Takes a snapshot of the meters and latency histograms of a stage.
+   *
+   * @param stageName   the stage name
+   * @param inMeter     the input meter
+   * @param outMeter    the output meter
+   * @param queueWait   the histogram of the times events waited before their handler was called
+   * @param serviceTime the histogram of the times the handler took
+   */
+  public StageMetrics(final String stageName, final Meter inMeter, final Meter outMeter,
+                      final LogLinearHistogram queueWait, final LogLinearHistogram serviceTime) {
+    this.stageName = stageName;
+    // Read the output count first, so that the input count is never behind it
+    this.outCount = outMeter.getCount();
+    this.inCount = inMeter.getCount();
+    this.in1mEWMAThp = inMeter.get1mEWMAThp();
+    this.out1mEWMAThp = outMeter.get1mEWMAThp();
+    this.queueDepth = inCount - outCount;
+    this.queueWait = new LatencyPercentiles(queueWait);
+    this.serviceTime = new LatencyPercentiles(serviceTime);
+  }
+
+  public String getStageName() {
+    return stageName;
+  }
+
+  public long getInCount() {
+    return inCount;
+  }
+
+  public long getOutCount() {
+    return outCount;
+  }
+
+  public double getIn1mEWMAThp() {
+    return in1mEWMAThp;
+  }
+
+  public double getOut1mEWMAThp() {
+    return out1mEWMAThp;
+  }
+
+  /**
+   * @return number of events input and not yet output, i.e. queued or in processing
+   */
+  public long getQueueDepth() {
+    return queueDepth;
+  }
+
+  /**
+   * @return percentiles of the times events waited in the stage before their handler was called
+   */
+  public LatencyPercentiles getQueueWait() {
+    return queueWait;
+  }
+
+  /**
+   * @return percentiles of the times the handler of the stage took
+   */
+  public LatencyPercentiles getServiceTime() {
+    return serviceTime;
+  }
+
+  @Override
+  public String toString() {
+    return String.format("%s: in %d (%.1f/s) out %d (%.1f/s) depth %d queue wait [%s] service time [%s]",
+        stageName, inCount, in1mEWMAThp, outCount, out1mEWMAThp, queueDepth, queueWait, serviceTime);
+  }
+
+  /**
+   * The median, 99th and 99.9th percentiles of a latency histogram, in nanoseconds.
+   */
+  public static final class LatencyPercentiles {
+
+    private final long count;
+    private final long p50;
+    private final long p99;
+    private final long p999;
+
+    LatencyPercentiles(final LogLinearHistogram histogram) {
+      this.count = histogram == null ? 0 : histogram.getCount();
+      this.p50 = histogram == null ? 0 : histogram.getPercentile(50);
+      this.p99 = histogram == null ? 0 : histogram.getPercentile(99);
+      this.p999 = histogram == null ? 0 : histogram.getPercentile(99.9);
+    }
+
+    public long getCount() {
+      return count;
+    }
+
+    public long getP50() {
+      return p50;
+    }
+
+    public long getP99() {
+      return p99;
+    }
+
+    public long getP999() {
+      return p999;
+    }
+
+    @Override
+    public String toString() {
+      return String.format("n=%d p50=%dns p99=%dns p999=%dns", count, p50, p99, p999);
+    }
+  }
+}
@@ -39,6 +39,7 @@ final class DefaultRemoteManagerFactory implements RemoteManagerFactory {
   private final Codec<?> codec;
   private final EventHandler<Throwable> errorHandler;
   private final boolean orderingGuarantee;
+  private final boolean concurrentDispatch;
   private final int numberOfTries;
   private final int retryTimeout;
   private final LocalAddressProvider localAddressProvider;
@@ -50,6 +51,7 @@ final class DefaultRemoteManagerFactory implements RemoteManagerFactory {
       @Parameter(RemoteConfiguration.MessageCodec.class) final Codec<?> codec,
       @Parameter(RemoteConfiguration.ErrorHandler.class) final EventHandler<Throwable> errorHandler,
       @Parameter(RemoteConfiguration.OrderingGuarantee.class) final boolean orderingGuarantee,
+      @Parameter(RemoteConfiguration.ConcurrentDispatch.class) final boolean concurrentDispatch,
       @Parameter(RemoteConfiguration.NumberOfTries.class) final int numberOfTries,
       @Parameter(RemoteConfiguration.RetryTimeout.class) final int retryTimeout,
       final LocalAddressProvider localAddressProvider,
@@ -59,6 +61,7 @@ final class DefaultRemoteManagerFactory implements RemoteManagerFactory {
     this.codec = codec;
     this.errorHandler = errorHandler;
     this.orderingGuarantee = orderingGuarantee;
+    this.concurrentDispatch = concurrentDispatch;
     this.numberOfTries = numberOfTries;
     this.retryTimeout = retryTimeout;
     this.localAddressProvider = localAddressProvider;
@@ -137,6 +140,7 @@ final class DefaultRemoteManagerFactory implements RemoteManagerFactory {
       newInjector.bindVolatileParameter(RemoteConfiguration.MessageCodec.class, newCodec);
       newInjector.bindVolatileParameter(RemoteConfiguration.ErrorHandler.class, newErrorHandler);
       newInjector.bindVolatileParameter(RemoteConfiguration.OrderingGuarantee.class, newOrderingGuarantee);
+      newInjector.bindVolatileParameter(RemoteConfiguration.ConcurrentDispatch.class, this.concurrentDispatch);
       newInjector.bindVolatileParameter(RemoteConfiguration.NumberOfTries.class, newNumberOfTries);
       newInjector.bindVolatileParameter(RemoteConfiguration.RetryTimeout.class, newRetryTimeout);
       newInjector.bindVolatileInstance(LocalAddressProvider.class, newLocalAddressProvider);
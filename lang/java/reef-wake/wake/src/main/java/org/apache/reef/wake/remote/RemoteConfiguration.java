@@ -101,6 +101,123 @@ public final class RemoteConfiguration {
     // Intentionally empty
   }
 
+  /**
+   * Whether or not to decode and dispatch remote messages concurrently.
+   * When enabled, messages from different senders are handled in parallel;
+   * messages from the same sender keep their order if the ordering guarantee is on.
+   * The message codec and the registered handlers must be thread-safe.
+   */
+  @NamedParameter(short_name = "rm_concurrent_dispatch",
+      doc = "Whether or not to decode and dispatch remote messages concurrently.", default_value = "false")
+  public static final class ConcurrentDispatch implements Name<Boolean> {
+    // Intentionally empty
+  }
+
+  /**
+   * Whether or not to batch writes of the messaging transport.
+   * When enabled, the flushes of messages written to the same channel are coalesced
+   * so that several small messages go out in one syscall.
+   */
+  @NamedParameter(doc = "Whether or not to batch writes of the messaging transport.", default_value = "false")
+  public static final class WriteBatching implements Name<Boolean> {
+    // Intentionally empty
+  }
+
+  /**
+   * The number of pending bytes that triggers the flush of a write batch.
+   */
+  @NamedParameter(doc = "The number of pending bytes that triggers the flush of a write batch.",
+      default_value = "65536")
+  public static final class WriteBatchMaxBytes implements Name<Integer> {
+    // Intentionally empty
+  }
+
+  /**
+   * The maximum delay of a write batch, in microseconds.
+   * With 0, pending writes are flushed as soon as the event loop has run its queued tasks.
+   */
+  @NamedParameter(doc = "The maximum delay of a write batch, in microseconds. " +
+      "With 0, pending writes are flushed as soon as the event loop has run its queued tasks.", default_value = "0")
+  public static final class WriteBatchMaxDelay implements Name<Integer> {
+    // Intentionally empty
+  }
+
+  /**
+   * Whether the Netty transport frames messages directly in pooled buffers.
+   * In that mode, messages are not copied to heap byte arrays on the way to the socket and are not
+   * split into chunks, so frames are not limited in size. Both ends of a connection must use the same setting.
+   */
+  @NamedParameter(doc = "Whether to frame messages directly in pooled Netty buffers",
+      short_name = "rm_direct_framing", default_value = "false")
+  public static final class DirectBufferFraming implements Name<Boolean> {
+    // Intentionally empty
+  }
+
+  /**
+   * Whether the Netty transport uses the native epoll transport.
+   * Falls back to NIO where epoll is not available, e.g. on other operating systems than Linux.
+   */
+  @NamedParameter(doc = "Whether to use the native epoll transport when it is available",
+      short_name = "rm_native_transport", default_value = "false")
+  public static final class NativeTransport implements Name<Boolean> {
+    // Intentionally empty
+  }
+
+  /**
+   * The number of event loop threads that serve the accepted connections of the Netty transport.
+   * With 0, the number of available cores is used.
+   */
+  @NamedParameter(doc = "The number of server worker threads of the messaging transport; 0 for the number of cores",
+      short_name = "rm_server_threads", default_value = "0")
+  public static final class ServerWorkerThreads implements Name<Integer> {
+    // Intentionally empty
+  }
+
+  /**
+   * The number of event loop threads that serve the outgoing connections of the Netty transport.
+   * With 0, the number of available cores is used. Ignored if the event loop is shared.
+   */
+  @NamedParameter(doc = "The number of client worker threads of the messaging transport; 0 for the number of cores",
+      short_name = "rm_client_threads", default_value = "0")
+  public static final class ClientWorkerThreads implements Name<Integer> {
+    // Intentionally empty
+  }
+
+  /**
+   * Whether the outgoing and the accepted connections of the Netty transport share one event loop group.
+   * The group has {@link ServerWorkerThreads} threads.
+   */
+  @NamedParameter(doc = "Whether client and server connections share one event loop group",
+      short_name = "rm_shared_event_loop", default_value = "false")
+  public static final class SharedEventLoop implements Name<Boolean> {
+    // Intentionally empty
+  }
+
+  /**
+   * Whether to disable Nagle's algorithm on the connections of the Netty transport.
+   */
+  @NamedParameter(doc = "Whether to set TCP_NODELAY on transport connections",
+      short_name = "rm_tcp_nodelay", default_value = "true")
+  public static final class TcpNoDelay implements Name<Boolean> {
+    // Intentionally empty
+  }
+
+  /**
+   * The size of the socket send buffer of the Netty transport connections, in bytes. 0 for the OS default.
+   */
+  @NamedParameter(doc = "The SO_SNDBUF size of transport connections; 0 for the OS default", default_value = "0")
+  public static final class SocketSendBufferSize implements Name<Integer> {
+    // Intentionally empty
+  }
+
+  /**
+   * The size of the socket receive buffer of the Netty transport connections, in bytes. 0 for the OS default.
+   */
+  @NamedParameter(doc = "The SO_RCVBUF size of transport connections; 0 for the OS default", default_value = "0")
+  public static final class SocketReceiveBufferSize implements Name<Integer> {
+    // Intentionally empty
+  }
+
   /**
    * The number of tries.
    */
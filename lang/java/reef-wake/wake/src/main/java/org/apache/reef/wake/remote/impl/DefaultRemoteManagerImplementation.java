@@ -71,6 +71,7 @@ public final class DefaultRemoteManagerImplementation implements RemoteManager {
         @Parameter(RemoteConfiguration.MessageCodec.class) final Codec<T> codec,
         @Parameter(RemoteConfiguration.ErrorHandler.class) final EventHandler<Throwable> errorHandler,
         @Parameter(RemoteConfiguration.OrderingGuarantee.class) final boolean orderingGuarantee,
+        @Parameter(RemoteConfiguration.ConcurrentDispatch.class) final boolean concurrentDispatch,
         @Parameter(RemoteConfiguration.NumberOfTries.class) final int numberOfTries,
         @Parameter(RemoteConfiguration.RetryTimeout.class) final int retryTimeout,
         final LocalAddressProvider localAddressProvider,
@@ -78,7 +79,7 @@ public final class DefaultRemoteManagerImplementation implements RemoteManager {
         final TcpPortProvider tcpPortProvider) {
 
     this.name = name;
-    this.handlerContainer = new HandlerContainer<>(name, codec);
+    this.handlerContainer = new HandlerContainer<>(name, codec, concurrentDispatch);
 
     this.reRecvStage = orderingGuarantee ?
         new OrderedRemoteReceiverStage(this.handlerContainer, errorHandler) :
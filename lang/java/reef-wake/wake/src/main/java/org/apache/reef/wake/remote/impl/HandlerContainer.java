@@ -26,6 +26,9 @@ import org.apache.reef.wake.remote.exception.RemoteRuntimeException;
 import org.apache.reef.wake.remote.transport.Transport;
 
 import java.net.InetSocketAddress;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ConcurrentMap;
 import java.util.logging.Level;
@@ -35,6 +38,13 @@ import java.util.logging.Logger;
  * Main logic to dispatch messages.
  * An event handler that receives a remote message with a binary payload,
  * decodes a message from the blob, and dispatches that message to a proper handler.
+ * <p>
+ * Handler lookups go through immutable snapshots of the handler maps that are rebuilt
+ * whenever a handler is registered or unsubscribed, so dispatch never contends with registration.
+ * By default, messages are decoded and dispatched one at a time. In concurrent mode
+ * (see {@link org.apache.reef.wake.remote.RemoteConfiguration.ConcurrentDispatch}) the container
+ * does not serialize dispatch at all: ordering per remote sender is then provided by the
+ * receiver stage when the ordering guarantee is on, and the codec and the handlers must be thread-safe.
  */
 final class HandlerContainer<T> implements EventHandler<RemoteEvent<byte[]>> {
 
@@ -46,23 +56,45 @@ final class HandlerContainer<T> implements EventHandler<RemoteEvent<byte[]>> {
   private final ConcurrentMap<Tuple2<RemoteIdentifier, Class<? extends T>>,
       EventHandler<? super T>> tupleToHandlerMap = new ConcurrentHashMap<>();
 
+  /** Read-only copy of msgTypeToHandlerMap used on the dispatch path. */
+  private volatile Map<Class<? extends T>, EventHandler<RemoteMessage<? extends T>>>
+      msgTypeToHandlerSnapshot = Collections.emptyMap();
+
+  /** Read-only copy of tupleToHandlerMap used on the dispatch path. */
+  private volatile Map<Tuple2<RemoteIdentifier, Class<? extends T>>, EventHandler<? super T>>
+      tupleToHandlerSnapshot = Collections.emptyMap();
+
   private final Codec<T> codec;
   private final String name;
+  private final boolean concurrentDispatch;
+
+  /** Serializes dispatch unless the container runs in concurrent mode. */
+  private final Object dispatchLock = new Object();
 
   private Transport transport;
 
   HandlerContainer(final String name, final Codec<T> codec) {
+    this(name, codec, false);
+  }
+
+  /**
+   * @param name Name of the remote manager that owns this container.
+   * @param codec Codec to decode the messages.
+   * @param concurrentDispatch If true, decode and dispatch messages without a global lock.
+   */
+  HandlerContainer(final String name, final Codec<T> codec, final boolean concurrentDispatch) {
 
     this.name = name;
     this.codec = codec;
+    this.concurrentDispatch = concurrentDispatch;
 
     LOG.log(Level.FINER, "Instantiated {0}", this);
   }
 
   @Override
   public String toString() {
-    return String.format("HandlerContainer: {name:%s codec:%s}",
-        this.name, this.codec.getClass().getCanonicalName());
+    return String.format("HandlerContainer: {name:%s codec:%s concurrent:%s}",
+        this.name, this.codec.getClass().getCanonicalName(), this.concurrentDispatch);
   }
 
   void setTransport(final Transport transport) {
@@ -86,6 +118,7 @@ final class HandlerContainer<T> implements EventHandler<RemoteEvent<byte[]>> {
         new Tuple2<RemoteIdentifier, Class<? extends T>>(sourceIdentifier, messageType);
 
     this.tupleToHandlerMap.put(tuple, theHandler);
+    this.rebuildTupleSnapshot();
 
     LOG.log(Level.FINER,
         "Add handler for tuple: {0},{1}",
@@ -105,6 +138,7 @@ final class HandlerContainer<T> implements EventHandler<RemoteEvent<byte[]>> {
       final EventHandler<RemoteMessage<? extends T>> theHandler) {
 
     this.msgTypeToHandlerMap.put(messageType, theHandler);
+    this.rebuildMessageTypeSnapshot();
 
     LOG.log(Level.FINER, "Add handler for class: {0}", messageType.getCanonicalName());
 
@@ -137,8 +171,10 @@ final class HandlerContainer<T> implements EventHandler<RemoteEvent<byte[]>> {
       this.transport.registerErrorHandler(null);
     } else if (token instanceof Tuple2) {
       this.tupleToHandlerMap.remove(token);
+      this.rebuildTupleSnapshot();
     } else if (token instanceof Class) {
       this.msgTypeToHandlerMap.remove(token);
+      this.rebuildMessageTypeSnapshot();
     } else {
       throw new RemoteRuntimeException(
           "Unknown subscription type: " + subscription.getClass().getCanonicalName());
@@ -152,6 +188,7 @@ final class HandlerContainer<T> implements EventHandler<RemoteEvent<byte[]>> {
         public void unsubscribe(final Class<? extends T> token) {
           LOG.log(Level.FINER, "Unsubscribe: {0} class {1}", new Object[] {name, token.getCanonicalName()});
           msgTypeToHandlerMap.remove(token);
+          rebuildMessageTypeSnapshot();
         }
       };
 
@@ -163,6 +200,7 @@ final class HandlerContainer<T> implements EventHandler<RemoteEvent<byte[]>> {
           LOG.log(Level.FINER, "Unsubscribe: {0} tuple {1},{2}",
               new Object[] {name, token.getT1(), token.getT2().getCanonicalName()});
           tupleToHandlerMap.remove(token);
+          rebuildTupleSnapshot();
         }
       };
 
@@ -176,13 +214,44 @@ final class HandlerContainer<T> implements EventHandler<RemoteEvent<byte[]>> {
         }
       };
 
+  /**
+   * Replace the dispatch snapshot of message type handlers with a fresh copy of the registrations.
+   * Synchronized so that concurrent registrations cannot publish an older copy over a newer one.
+   */
+  private synchronized void rebuildMessageTypeSnapshot() {
+    this.msgTypeToHandlerSnapshot = Collections.unmodifiableMap(new HashMap<>(this.msgTypeToHandlerMap));
+  }
+
+  /**
+   * Replace the dispatch snapshot of (source, message type) handlers with a fresh copy of the registrations.
+   * Synchronized so that concurrent registrations cannot publish an older copy over a newer one.
+   */
+  private synchronized void rebuildTupleSnapshot() {
+    this.tupleToHandlerSnapshot = Collections.unmodifiableMap(new HashMap<>(this.tupleToHandlerMap));
+  }
+
   /**
    * Dispatch message received from the remote to proper event handler.
+   * Messages are serialized on this container unless it runs in concurrent mode.
    * @param value Remote message, encoded as byte[].
    */
   @Override
+  public void onNext(final RemoteEvent<byte[]> value) {
+    if (this.concurrentDispatch) {
+      this.dispatch(value);
+    } else {
+      synchronized (this.dispatchLock) {
+        this.dispatch(value);
+      }
+    }
+  }
+
+  /**
+   * Decode the message and pass it to the handler registered for its source and type.
+   * @param value Remote message, encoded as byte[].
+   */
   @SuppressWarnings("checkstyle:diamondoperatorforvariabledefinition")
-  public synchronized void onNext(final RemoteEvent<byte[]> value) {
+  private void dispatch(final RemoteEvent<byte[]> value) {
 
     LOG.log(Level.FINER, "RemoteManager: {0} value: {1}", new Object[] {this.name, value});
 
@@ -195,32 +264,37 @@ final class HandlerContainer<T> implements EventHandler<RemoteEvent<byte[]>> {
     // check remote identifier and message type
     final SocketRemoteIdentifier id = new SocketRemoteIdentifier((InetSocketAddress)value.remoteAddress());
 
-    final Tuple2<RemoteIdentifier, Class<? extends T>> tuple =
-        new Tuple2<RemoteIdentifier, Class<? extends T>>(id, clazz);
-
-    final EventHandler<? super T> tupleHandler = this.tupleToHandlerMap.get(tuple);
+    final Map<Tuple2<RemoteIdentifier, Class<? extends T>>, EventHandler<? super T>> tupleHandlers =
+        this.tupleToHandlerSnapshot;
 
-    if (tupleHandler != null) {
+    if (!tupleHandlers.isEmpty()) {
 
-      LOG.log(Level.FINER, "Tuple handler: {0},{1}",
-          new Object[] {tuple.getT1(), tuple.getT2().getCanonicalName()});
+      final Tuple2<RemoteIdentifier, Class<? extends T>> tuple =
+          new Tuple2<RemoteIdentifier, Class<? extends T>>(id, clazz);
 
-      tupleHandler.onNext(decodedEvent);
+      final EventHandler<? super T> tupleHandler = tupleHandlers.get(tuple);
 
-    } else {
+      if (tupleHandler != null) {
 
-      final EventHandler<RemoteMessage<? extends T>> messageHandler = this.msgTypeToHandlerMap.get(clazz);
+        LOG.log(Level.FINER, "Tuple handler: {0},{1}",
+            new Object[] {tuple.getT1(), tuple.getT2().getCanonicalName()});
 
-      if (messageHandler == null) {
-        final RuntimeException ex = new RemoteRuntimeException(
-            "Unknown message type in dispatch: " + clazz.getCanonicalName() + " from " + id);
-        LOG.log(Level.WARNING, "Unknown message type in dispatch.", ex);
-        throw ex;
+        tupleHandler.onNext(decodedEvent);
+        return;
       }
+    }
 
-      LOG.log(Level.FINER, "Message handler: {0}", clazz.getCanonicalName());
+    final EventHandler<RemoteMessage<? extends T>> messageHandler = this.msgTypeToHandlerSnapshot.get(clazz);
 
-      messageHandler.onNext(new DefaultRemoteMessage<>(id, decodedEvent));
+    if (messageHandler == null) {
+      final RuntimeException ex = new RemoteRuntimeException(
+          "Unknown message type in dispatch: " + clazz.getCanonicalName() + " from " + id);
+      LOG.log(Level.WARNING, "Unknown message type in dispatch.", ex);
+      throw ex;
     }
+
+    LOG.log(Level.FINER, "Message handler: {0}", clazz.getCanonicalName());
+
+    messageHandler.onNext(new DefaultRemoteMessage<>(id, decodedEvent));
   }
 }
@@ -102,20 +102,21 @@ class OrderedPushEventHandler implements EventHandler<TransportEvent> {
 
   private static final Logger LOG = Logger.getLogger(OrderedPushEventHandler.class.getName());
 
-  private final RemoteEventCodec<byte[]> codec;
+  private final RemoteEventDecoder<byte[]> decoder;
   private final ConcurrentMap<SocketAddress, OrderedEventStream> streamMap; // per remote address
   private final ThreadPoolStage<OrderedEventStream> pullStage;
 
   OrderedPushEventHandler(final ConcurrentMap<SocketAddress, OrderedEventStream> streamMap,
                           final ThreadPoolStage<OrderedEventStream> pullStage) {
-    this.codec = new RemoteEventCodec<>(new ByteCodec());
+    this.decoder = new RemoteEventDecoder<>(new ByteCodec());
     this.streamMap = streamMap;
     this.pullStage = pullStage;
   }
 
   @Override
   public void onNext(final TransportEvent value) {
-    final RemoteEvent<byte[]> re = codec.decode(value.getData());
+    // In direct framing mode, the event is decoded straight from the received frame
+    final RemoteEvent<byte[]> re = value.decode(decoder);
     re.setLocalAddress(value.getLocalAddress());
     re.setRemoteAddress(value.getRemoteAddress());
 
@@ -123,8 +124,6 @@ class OrderedPushEventHandler implements EventHandler<TransportEvent> {
       LOG.log(Level.FINER, "{0} {1}", new Object[]{value, re});
     }
 
-    LOG.log(Level.FINER, "Value length is {0}", value.getData().length);
-
     final SocketAddress addr = re.remoteAddress();
     OrderedEventStream stream = streamMap.get(re.remoteAddress());
     if (stream == null) {
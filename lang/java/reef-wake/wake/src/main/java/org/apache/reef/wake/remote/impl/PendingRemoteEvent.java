@@ -0,0 +1,51 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.reef.wake.remote.impl;
+
+import io.netty.buffer.ByteBuf;
+
+/**
+ * A remote event written to a link together with its encoder,
+ * so that the link encodes it either to bytes or straight into the buffer of the channel.
+ *
+ * @param <T> type
+ */
+final class PendingRemoteEvent<T> {
+
+  private final RemoteEventEncoder<T> encoder;
+  private final RemoteEvent<T> event;
+
+  PendingRemoteEvent(final RemoteEventEncoder<T> encoder, final RemoteEvent<T> event) {
+    this.encoder = encoder;
+    this.event = event;
+  }
+
+  byte[] encode() {
+    return this.encoder.encode(this.event);
+  }
+
+  void encode(final ByteBuf buf) {
+    this.encoder.encode(this.event, buf);
+  }
+
+  @Override
+  public String toString() {
+    return this.event.toString();
+  }
+}
@@ -18,17 +18,26 @@
  */
 package org.apache.reef.wake.remote.impl;
 
+import com.google.protobuf.CodedInputStream;
 import com.google.protobuf.InvalidProtocolBufferException;
+import com.google.protobuf.WireFormat;
+import io.netty.buffer.ByteBuf;
 import org.apache.reef.wake.remote.Decoder;
 import org.apache.reef.wake.remote.exception.RemoteRuntimeException;
 import org.apache.reef.wake.remote.proto.WakeRemoteProtos.WakeMessagePBuf;
+import org.apache.reef.wake.remote.transport.netty.ByteBufDecoder;
+
+import java.io.IOException;
 
 /**
  * Remote event decoder using the WakeMessage protocol buffer.
+ * <p>
+ * The {@link WakeMessagePBuf} message is read field by field, so the event bytes are copied once out of the input
+ * instead of going through a ByteString. Unknown fields are skipped.
  *
  * @param <T> type
  */
-public class RemoteEventDecoder<T> implements Decoder<RemoteEvent<T>> {
+public class RemoteEventDecoder<T> implements ByteBufDecoder<RemoteEvent<T>> {
 
   private final Decoder<T> decoder;
 
@@ -50,13 +59,115 @@ public class RemoteEventDecoder<T> implements Decoder<RemoteEvent<T>> {
    */
   @Override
   public RemoteEvent<T> decode(final byte[] data) {
-    final WakeMessagePBuf pbuf;
+
+    final CodedInputStream in = CodedInputStream.newInstance(data);
+
+    byte[] event = null;
+    long seq = 0;
+    boolean hasSeq = false;
+
     try {
-      pbuf = WakeMessagePBuf.parseFrom(data);
-      return new RemoteEvent<T>(null, null, pbuf.getSeq(), decoder.decode(pbuf.getData().toByteArray()));
-    } catch (final InvalidProtocolBufferException e) {
+      for (int tag = in.readTag(); tag != 0; tag = in.readTag()) {
+        if (tag == RemoteEventEncoder.DATA_TAG) {
+          event = in.readRawBytes(in.readRawVarint32());
+        } else if (tag == RemoteEventEncoder.SEQ_TAG) {
+          seq = in.readInt64();
+          hasSeq = true;
+        } else if (!in.skipField(tag)) {
+          break;
+        }
+      }
+    } catch (final IOException e) {
       throw new RemoteRuntimeException(e);
     }
+
+    return this.newEvent(event, hasSeq, seq);
+  }
+
+  /**
+   * Decodes a remote event from the readable bytes of a buffer, in the same format as {@link #decode(byte[])}.
+   * The event bytes are copied once out of the buffer.
+   *
+   * @param buf the buffer
+   * @return a remote event object
+   * @throws RemoteRuntimeException
+   */
+  @Override
+  public RemoteEvent<T> decode(final ByteBuf buf) {
+
+    byte[] event = null;
+    long seq = 0;
+    boolean hasSeq = false;
+
+    try {
+      while (buf.isReadable()) {
+        final int tag = (int) readVarint(buf);
+        if (tag == RemoteEventEncoder.DATA_TAG) {
+          event = new byte[readLength(buf)];
+          buf.readBytes(event);
+        } else if (tag == RemoteEventEncoder.SEQ_TAG) {
+          seq = readVarint(buf);
+          hasSeq = true;
+        } else {
+          skipField(buf, tag);
+        }
+      }
+    } catch (final IndexOutOfBoundsException e) {
+      throw new RemoteRuntimeException(new InvalidProtocolBufferException("Truncated message: " + e.getMessage()));
+    }
+
+    return this.newEvent(event, hasSeq, seq);
+  }
+
+  private RemoteEvent<T> newEvent(final byte[] event, final boolean hasSeq, final long seq) {
+    if (event == null || !hasSeq) {
+      throw new RemoteRuntimeException(new InvalidProtocolBufferException(
+          "Message missing required fields: " + (event == null ? "data" : "seq")));
+    }
+    return new RemoteEvent<T>(null, null, seq, this.decoder.decode(event));
+  }
+
+  /**
+   * Reads a base 128 varint the way protocol buffers do.
+   */
+  private static long readVarint(final ByteBuf buf) {
+    long value = 0;
+    for (int shift = 0; shift < 64; shift += 7) {
+      final byte b = buf.readByte();
+      value |= (long) (b & 0x7F) << shift;
+      if (b >= 0) {
+        return value;
+      }
+    }
+    throw new RemoteRuntimeException(new InvalidProtocolBufferException("Malformed varint"));
+  }
+
+  private static int readLength(final ByteBuf buf) {
+    final long length = readVarint(buf);
+    if (length < 0 || length > buf.readableBytes()) {
+      throw new RemoteRuntimeException(new InvalidProtocolBufferException("Invalid length " + length));
+    }
+    return (int) length;
+  }
+
+  private static void skipField(final ByteBuf buf, final int tag) {
+    // The wire type is in the low 3 bits of the tag
+    switch (tag & 0x7) {
+    case WireFormat.WIRETYPE_VARINT:
+      readVarint(buf);
+      break;
+    case WireFormat.WIRETYPE_FIXED64:
+      buf.skipBytes(8);
+      break;
+    case WireFormat.WIRETYPE_LENGTH_DELIMITED:
+      buf.skipBytes(readLength(buf));
+      break;
+    case WireFormat.WIRETYPE_FIXED32:
+      buf.skipBytes(4);
+      break;
+    default:
+      throw new RemoteRuntimeException(new InvalidProtocolBufferException("Unsupported wire type in tag " + tag));
+    }
   }
 
   @Override
@@ -18,17 +18,31 @@
  */
 package org.apache.reef.wake.remote.impl;
 
-import com.google.protobuf.ByteString;
+import com.google.protobuf.CodedOutputStream;
+import com.google.protobuf.WireFormat;
+import io.netty.buffer.ByteBuf;
 import org.apache.reef.wake.remote.Encoder;
 import org.apache.reef.wake.remote.exception.RemoteRuntimeException;
 import org.apache.reef.wake.remote.proto.WakeRemoteProtos.WakeMessagePBuf;
+import org.apache.reef.wake.remote.transport.netty.ByteBufEncoder;
+
+import java.io.IOException;
 
 /**
  * Remote event encoder using the WakeMessage protocol buffer.
+ * <p>
+ * The message is written field by field in the same wire format as {@link WakeMessagePBuf},
+ * so the encoded event is copied once into the output instead of going through a ByteString.
  *
  * @param <T> type
  */
-public class RemoteEventEncoder<T> implements Encoder<RemoteEvent<T>> {
+public class RemoteEventEncoder<T> implements ByteBufEncoder<RemoteEvent<T>> {
+
+  static final int DATA_TAG = (WakeMessagePBuf.DATA_FIELD_NUMBER << 3) | WireFormat.WIRETYPE_LENGTH_DELIMITED;
+  static final int SEQ_TAG = (WakeMessagePBuf.SEQ_FIELD_NUMBER << 3) | WireFormat.WIRETYPE_VARINT;
+
+  /** Upper bound of the size of the data field header: tag and 32-bit varint length. */
+  private static final int MAX_HEADER_SIZE = 10;
 
   private final Encoder<T> encoder;
 
@@ -50,15 +64,66 @@ public class RemoteEventEncoder<T> implements Encoder<RemoteEvent<T>> {
    */
   @Override
   public byte[] encode(final RemoteEvent<T> obj) {
+
+    final byte[] data = this.encodeEvent(obj);
+    final long seq = obj.getSeq();
+
+    final byte[] result = new byte[CodedOutputStream.computeRawVarint32Size(DATA_TAG)
+        + CodedOutputStream.computeRawVarint32Size(data.length) + data.length
+        + CodedOutputStream.computeRawVarint32Size(SEQ_TAG) + CodedOutputStream.computeRawVarint64Size(seq)];
+
+    final CodedOutputStream out = CodedOutputStream.newInstance(result);
+    try {
+      out.writeRawVarint32(DATA_TAG);
+      out.writeRawVarint32(data.length);
+      out.writeRawBytes(data);
+      out.writeRawVarint32(SEQ_TAG);
+      out.writeRawVarint64(seq);
+      out.checkNoSpaceLeft();
+    } catch (final IOException e) {
+      throw new RemoteRuntimeException(e);
+    }
+
+    return result;
+  }
+
+  /**
+   * Encodes the remote event object into a buffer, in the same format as {@link #encode(RemoteEvent)}.
+   *
+   * @param obj the remote event
+   * @param buf the buffer to write to
+   * @throws RemoteRuntimeException
+   */
+  @Override
+  public void encode(final RemoteEvent<T> obj, final ByteBuf buf) {
+
+    final byte[] data = this.encodeEvent(obj);
+
+    buf.ensureWritable(MAX_HEADER_SIZE + data.length + MAX_HEADER_SIZE + 1);
+    writeVarint(buf, DATA_TAG);
+    writeVarint(buf, data.length);
+    buf.writeBytes(data);
+    writeVarint(buf, SEQ_TAG);
+    writeVarint(buf, obj.getSeq());
+  }
+
+  private byte[] encodeEvent(final RemoteEvent<T> obj) {
     if (obj.getEvent() == null) {
       throw new RemoteRuntimeException("Event is null");
     }
+    return this.encoder.encode(obj.getEvent());
+  }
 
-    final WakeMessagePBuf.Builder builder = WakeMessagePBuf.newBuilder();
-    builder.setSeq(obj.getSeq());
-    builder.setData(ByteString.copyFrom(encoder.encode(obj.getEvent())));
-
-    return builder.build().toByteArray();
+  /**
+   * Writes a base 128 varint the way protocol buffers do; negative ints take 10 bytes.
+   */
+  private static void writeVarint(final ByteBuf buf, final long value) {
+    long v = value;
+    while ((v & ~0x7FL) != 0) {
+      buf.writeByte((int) ((v & 0x7F) | 0x80));
+      v >>>= 7;
+    }
+    buf.writeByte((int) v);
   }
 
   @Override
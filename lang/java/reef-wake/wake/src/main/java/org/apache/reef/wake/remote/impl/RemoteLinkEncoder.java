@@ -0,0 +1,60 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.reef.wake.remote.impl;
+
+import io.netty.buffer.ByteBuf;
+import org.apache.reef.wake.remote.transport.netty.ByteBufEncoder;
+
+/**
+ * Encoder of the links of a remote manager.
+ * Bytes are written as they are, like with {@link ByteCodec};
+ * the remote events of the sender stage are encoded by their own encoder, into the buffer of the channel
+ * when the transport uses direct buffer framing.
+ */
+public final class RemoteLinkEncoder implements ByteBufEncoder<Object> {
+
+  /**
+   * Returns the bytes of the message.
+   *
+   * @param obj bytes or a remote event of the sender stage
+   * @return the encoded bytes
+   */
+  @Override
+  public byte[] encode(final Object obj) {
+    if (obj instanceof PendingRemoteEvent) {
+      return ((PendingRemoteEvent<?>) obj).encode();
+    }
+    return (byte[]) obj;
+  }
+
+  /**
+   * Writes the bytes of the message into a buffer.
+   *
+   * @param obj bytes or a remote event of the sender stage
+   * @param buf the buffer to write to
+   */
+  @Override
+  public void encode(final Object obj, final ByteBuf buf) {
+    if (obj instanceof PendingRemoteEvent) {
+      ((PendingRemoteEvent<?>) obj).encode(buf);
+    } else {
+      buf.writeBytes((byte[]) obj);
+    }
+  }
+}
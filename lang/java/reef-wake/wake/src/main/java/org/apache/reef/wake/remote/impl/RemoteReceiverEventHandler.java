@@ -30,7 +30,7 @@ class RemoteReceiverEventHandler implements EventHandler<TransportEvent> {
 
   private static final Logger LOG = Logger.getLogger(RemoteReceiverEventHandler.class.getName());
 
-  private final RemoteEventCodec<byte[]> codec;
+  private final RemoteEventDecoder<byte[]> decoder;
   private final EventHandler<RemoteEvent<byte[]>> handler;
 
   /**
@@ -39,7 +39,7 @@ class RemoteReceiverEventHandler implements EventHandler<TransportEvent> {
    * @param handler the upstream handler
    */
   RemoteReceiverEventHandler(final EventHandler<RemoteEvent<byte[]>> handler) {
-    this.codec = new RemoteEventCodec<byte[]>(new ByteCodec());
+    this.decoder = new RemoteEventDecoder<>(new ByteCodec());
     this.handler = handler;
   }
 
@@ -50,7 +50,8 @@ class RemoteReceiverEventHandler implements EventHandler<TransportEvent> {
    */
   @Override
   public void onNext(final TransportEvent e) {
-    final RemoteEvent<byte[]> re = codec.decode(e.getData());
+    // In direct framing mode, the event is decoded straight from the received frame
+    final RemoteEvent<byte[]> re = e.decode(decoder);
     re.setLocalAddress(e.getLocalAddress());
     re.setRemoteAddress(e.getRemoteAddress());
 
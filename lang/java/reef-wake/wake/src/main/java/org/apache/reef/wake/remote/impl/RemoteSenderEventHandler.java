@@ -26,6 +26,8 @@ import org.apache.reef.wake.remote.transport.Transport;
 import org.apache.reef.wake.remote.transport.netty.LoggingLinkListener;
 
 import java.net.SocketAddress;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.concurrent.*;
 import java.util.concurrent.atomic.AtomicReference;
 import java.util.logging.Level;
@@ -41,7 +43,7 @@ class RemoteSenderEventHandler<T> implements EventHandler<RemoteEvent<T>> {
   private static final Logger LOG = Logger.getLogger(RemoteSenderEventHandler.class.getName());
 
   private final BlockingQueue<RemoteEvent<T>> queue = new LinkedBlockingQueue<>();
-  private final AtomicReference<Link<byte[]>> linkRef = new AtomicReference<>();
+  private final AtomicReference<Link<Object>> linkRef = new AtomicReference<>();
 
   private final RemoteEventEncoder<T> encoder;
   private final Transport transport;
@@ -65,22 +67,26 @@ class RemoteSenderEventHandler<T> implements EventHandler<RemoteEvent<T>> {
     return String.format("RemoteSenderEventHandler: { transport: %s encoder: %s}", this.transport, this.encoder);
   }
 
-  void setLink(final Link<byte[]> link) {
+  void setLink(final Link<Object> link) {
     LOG.log(Level.FINEST, "thread {0} set link {1}", new Object[] {Thread.currentThread(), link});
     linkRef.compareAndSet(null, link);
     consumeQueue();
   }
 
+  /**
+   * Write out all events queued while the link was being opened.
+   * The events are taken from the queue in one batch; with write batching enabled
+   * in the transport, they also reach the socket together.
+   */
   void consumeQueue() {
-    try {
-      RemoteEvent<T> event;
-      while ((event = queue.poll(0, TimeUnit.MICROSECONDS)) != null) {
+    final List<RemoteEvent<T>> events = new ArrayList<>();
+    while (queue.drainTo(events) > 0) {
+      final Link<Object> link = linkRef.get();
+      for (final RemoteEvent<T> event : events) {
         LOG.log(Level.FINEST, "Event: {0}", event);
-        linkRef.get().write(encoder.encode(event));
+        link.write(new PendingRemoteEvent<>(encoder, event));
       }
-    } catch (final InterruptedException ex) {
-      LOG.log(Level.SEVERE, "Interrupted", ex);
-      throw new RemoteRuntimeException(ex);
+      events.clear();
     }
   }
 
@@ -99,23 +105,23 @@ class RemoteSenderEventHandler<T> implements EventHandler<RemoteEvent<T>> {
       if (linkRef.get() == null) {
         queue.add(value);
 
-        final Link<byte[]> link = transport.get(value.remoteAddress());
+        final Link<Object> link = transport.get(value.remoteAddress());
         if (link != null) {
           LOG.log(Level.FINEST, "transport get link: {0}", link);
           setLink(link);
           return;
         }
 
-        final ConnectFutureTask<Link<byte[]>> cf = new ConnectFutureTask<>(
+        final ConnectFutureTask<Link<Object>> cf = new ConnectFutureTask<>(
             new ConnectCallable(transport, value.localAddress(), value.remoteAddress()),
             new ConnectEventHandler<>(this));
         executor.submit(cf);
 
       } else {
-        // encode and write bytes
+        // the link encodes the event
         // consumeQueue();
         LOG.log(Level.FINEST, "Send: {0} event: {1}", new Object[] {linkRef, value});
-        linkRef.get().write(encoder.encode(value));
+        linkRef.get().write(new PendingRemoteEvent<>(encoder, value));
       }
 
     } catch (final RemoteRuntimeException ex) {
@@ -125,7 +131,7 @@ class RemoteSenderEventHandler<T> implements EventHandler<RemoteEvent<T>> {
   }
 }
 
-class ConnectCallable implements Callable<Link<byte[]>> {
+class ConnectCallable implements Callable<Link<Object>> {
 
   private final Transport transport;
   private final SocketAddress remoteAddress;
@@ -136,14 +142,14 @@ class ConnectCallable implements Callable<Link<byte[]>> {
   }
 
   @Override
-  public Link<byte[]> call() throws Exception {
+  public Link<Object> call() throws Exception {
     return transport.open(remoteAddress,
-        new ByteCodec(),
-        new LoggingLinkListener<byte[]>());
+        new RemoteLinkEncoder(),
+        new LoggingLinkListener<>());
   }
 }
 
-class ConnectEventHandler<T> implements EventHandler<ConnectFutureTask<Link<byte[]>>> {
+class ConnectEventHandler<T> implements EventHandler<ConnectFutureTask<Link<Object>>> {
 
   private static final Logger LOG = Logger.getLogger(ConnectEventHandler.class.getName());
 
@@ -154,7 +160,7 @@ class ConnectEventHandler<T> implements EventHandler<ConnectFutureTask<Link<byte
   }
 
   @Override
-  public void onNext(final ConnectFutureTask<Link<byte[]>> value) {
+  public void onNext(final ConnectFutureTask<Link<Object>> value) {
     try {
       handler.setLink(value.get());
     } catch (final InterruptedException | ExecutionException ex) {
@@ -18,16 +18,25 @@
  */
 package org.apache.reef.wake.remote.impl;
 
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.ByteBufUtil;
 import org.apache.reef.wake.remote.transport.Link;
+import org.apache.reef.wake.remote.transport.netty.ByteBufDecoder;
 
 import java.net.SocketAddress;
 
 /**
  * Event sent from a remote node.
+ * <p>
+ * In direct framing mode, the event holds the received frame in a pooled buffer instead of a byte array.
+ * The frame is released once it is consumed by {@link #getData()} or {@link #decode(ByteBufDecoder)},
+ * so the handlers of such a transport must consume every event they receive.
  */
 public class TransportEvent {
 
-  private final byte[] data;
+  private byte[] data;
+  private ByteBuf frame;
+  private final int size;
   private final SocketAddress localAddr;
   private final SocketAddress remoteAddr;
   private final Link<byte[]> link;
@@ -41,6 +50,7 @@ public class TransportEvent {
    */
   public TransportEvent(final byte[] data, final SocketAddress localAddr, final SocketAddress remoteAddr) {
     this.data = data;
+    this.size = data.length;
     this.localAddr = localAddr;
     this.remoteAddr = remoteAddr;
     link = null;
@@ -55,6 +65,7 @@ public class TransportEvent {
    */
   public TransportEvent(final byte[] data, final Link<byte[]> link) {
     this.data = data;
+    this.size = data.length;
     this.link = link;
     if (this.link != null) {
       localAddr = link.getLocalAddress();
@@ -65,11 +76,40 @@ public class TransportEvent {
     }
   }
 
+  /**
+   * Constructs an event that holds a received frame.
+   *
+   * @param frame      the frame; the event takes over a reference to it
+   * @param localAddr  the local socket address
+   * @param remoteAddr the remote socket address
+   */
+  public TransportEvent(final ByteBuf frame, final SocketAddress localAddr, final SocketAddress remoteAddr) {
+    this.frame = frame;
+    this.size = frame.readableBytes();
+    this.localAddr = localAddr;
+    this.remoteAddr = remoteAddr;
+    link = null;
+  }
+
+  /**
+   * Constructs an event that holds a received frame, with the link to write back to its sender.
+   *
+   * @param frame the frame; the event takes over a reference to it
+   * @param link  the link
+   */
+  public TransportEvent(final ByteBuf frame, final Link<byte[]> link) {
+    this.frame = frame;
+    this.size = frame.readableBytes();
+    this.link = link;
+    localAddr = link.getLocalAddress();
+    remoteAddr = link.getRemoteAddress();
+  }
+
   @Override
   public String toString() {
     return String.format(
         "TransportEvent: {local: %s remote: %s size: %d bytes}",
-        this.localAddr, this.remoteAddr, this.data.length);
+        this.localAddr, this.remoteAddr, this.size);
   }
 
   /**
@@ -77,10 +117,41 @@ public class TransportEvent {
    *
    * @return data
    */
-  public byte[] getData() {
+  public synchronized byte[] getData() {
+    if (data == null) {
+      if (frame == null) {
+        throw new IllegalStateException("The frame of " + this + " was already decoded");
+      }
+      try {
+        data = ByteBufUtil.getBytes(frame);
+      } finally {
+        frame.release();
+        frame = null;
+      }
+    }
     return data;
   }
 
+  /**
+   * Decodes the data. A frame received in direct framing mode is read straight from its buffer and released,
+   * after which {@link #getData()} can no longer be called.
+   *
+   * @param decoder the decoder
+   * @param <T>     the type of the decoded object
+   * @return the decoded object
+   */
+  public synchronized <T> T decode(final ByteBufDecoder<T> decoder) {
+    if (frame == null) {
+      return decoder.decode(getData());
+    }
+    try {
+      return decoder.decode(frame);
+    } finally {
+      frame.release();
+      frame = null;
+    }
+  }
+
   /**
    * Returns the link associated with the event.
    * which can be used to write back to the client
@@ -18,6 +18,7 @@
  */
 package org.apache.reef.wake.remote.transport.netty;
 
+import io.netty.buffer.ByteBuf;
 import io.netty.channel.Channel;
 import io.netty.channel.ChannelHandlerContext;
 import org.apache.reef.wake.EStage;
@@ -56,16 +57,34 @@ abstract class AbstractNettyEventListener implements NettyEventListener {
   @Override
   public void channelRead(final ChannelHandlerContext ctx, final Object msg) {
     final Channel channel = ctx.channel();
-    final byte[] message = (byte[]) msg;
 
     if (LOG.isLoggable(Level.FINEST)) {
       LOG.log(Level.FINEST, "MessageEvent: local: {0} remote: {1} :: {2}", new Object[]{
-          channel.localAddress(), channel.remoteAddress(), message});
+          channel.localAddress(), channel.remoteAddress(), msg});
     }
 
-    if (message.length > 0) {
-      // send to the dispatch stage
-      this.stage.onNext(this.getTransportEvent(message, channel));
+    if (msg instanceof ByteBuf) {
+      // In direct framing mode the frame arrives as a pooled buffer that the caller releases.
+      // The event keeps its own reference until the frame is decoded, so it is never copied to a byte array.
+      final ByteBuf frame = (ByteBuf) msg;
+      if (frame.isReadable()) {
+        frame.retain();
+        boolean dispatched = false;
+        try {
+          this.stage.onNext(this.getTransportEvent(frame, channel));
+          dispatched = true;
+        } finally {
+          if (!dispatched) {
+            frame.release();
+          }
+        }
+      }
+    } else {
+      final byte[] message = (byte[]) msg;
+      if (message.length > 0) {
+        // send to the dispatch stage
+        this.stage.onNext(this.getTransportEvent(message, channel));
+      }
     }
   }
 
@@ -87,6 +106,8 @@ abstract class AbstractNettyEventListener implements NettyEventListener {
 
   protected abstract TransportEvent getTransportEvent(byte[] message, Channel channel);
 
+  protected abstract TransportEvent getTransportEvent(ByteBuf frame, Channel channel);
+
   protected abstract void exceptionCleanup(ChannelHandlerContext ctx, Throwable cause);
 
   protected void closeChannel(final Channel channel) {
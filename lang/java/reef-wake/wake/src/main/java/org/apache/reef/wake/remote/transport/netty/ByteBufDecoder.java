@@ -0,0 +1,41 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.reef.wake.remote.transport.netty;
+
+import io.netty.buffer.ByteBuf;
+import org.apache.reef.wake.remote.Decoder;
+
+/**
+ * Decoder that can read its input directly from a Netty buffer.
+ * {@link org.apache.reef.wake.remote.impl.TransportEvent#decode(ByteBufDecoder)} uses this method
+ * on the frames received in direct framing mode, so that a message is decoded straight from
+ * the receive buffer without an intermediate byte array.
+ *
+ * @param <T> The type of the objects deserialized
+ */
+public interface ByteBufDecoder<T> extends Decoder<T> {
+
+  /**
+   * Decodes an object from the readable bytes of a buffer.
+   *
+   * @param buf the buffer to read from
+   * @return the decoded object
+   */
+  T decode(ByteBuf buf);
+}
@@ -0,0 +1,41 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.reef.wake.remote.transport.netty;
+
+import io.netty.buffer.ByteBuf;
+import org.apache.reef.wake.remote.Encoder;
+
+/**
+ * Encoder that can write its output directly into a Netty buffer.
+ * {@link NettyLink} uses this method instead of {@link Encoder#encode(Object)}
+ * when it is available, so that the message is serialized straight into
+ * a pooled buffer of the channel without an intermediate byte array.
+ *
+ * @param <T> The type of the objects serialized
+ */
+public interface ByteBufEncoder<T> extends Encoder<T> {
+
+  /**
+   * Encodes the given object into a buffer.
+   *
+   * @param obj an object to be encoded
+   * @param buf the buffer to write to; it grows as needed
+   */
+  void encode(T obj, ByteBuf buf);
+}
@@ -18,8 +18,12 @@
  */
 package org.apache.reef.wake.remote.transport.netty;
 
+import org.apache.reef.tang.Configuration;
 import org.apache.reef.tang.Injector;
+import org.apache.reef.tang.JavaConfigurationBuilder;
 import org.apache.reef.tang.Tang;
+import org.apache.reef.tang.annotations.Parameter;
+import org.apache.reef.tang.exceptions.BindException;
 import org.apache.reef.tang.exceptions.InjectionException;
 import org.apache.reef.wake.EStage;
 import org.apache.reef.wake.EventHandler;
@@ -40,9 +44,43 @@ public final class MessagingTransportFactory implements TransportFactory {
 
   private final String localAddress;
 
+  /** Settings of the transport given to this factory, passed on to the transports it creates. */
+  private final Configuration transportSettings;
+
   @Inject
-  private MessagingTransportFactory(final LocalAddressProvider localAddressProvider) {
+  private MessagingTransportFactory(
+      final LocalAddressProvider localAddressProvider,
+      @Parameter(RemoteConfiguration.WriteBatching.class) final boolean writeBatching,
+      @Parameter(RemoteConfiguration.WriteBatchMaxBytes.class) final int writeBatchMaxBytes,
+      @Parameter(RemoteConfiguration.WriteBatchMaxDelay.class) final int writeBatchMaxDelay,
+      @Parameter(RemoteConfiguration.DirectBufferFraming.class) final boolean directBufferFraming,
+      @Parameter(RemoteConfiguration.NativeTransport.class) final boolean nativeTransport,
+      @Parameter(RemoteConfiguration.ServerWorkerThreads.class) final int serverWorkerThreads,
+      @Parameter(RemoteConfiguration.ClientWorkerThreads.class) final int clientWorkerThreads,
+      @Parameter(RemoteConfiguration.SharedEventLoop.class) final boolean sharedEventLoop,
+      @Parameter(RemoteConfiguration.TcpNoDelay.class) final boolean tcpNoDelay,
+      @Parameter(RemoteConfiguration.SocketSendBufferSize.class) final int sendBufferSize,
+      @Parameter(RemoteConfiguration.SocketReceiveBufferSize.class) final int receiveBufferSize) {
+
     this.localAddress = localAddressProvider.getLocalAddress();
+
+    final JavaConfigurationBuilder cb = Tang.Factory.getTang().newConfigurationBuilder();
+    try {
+      cb.bindNamedParameter(RemoteConfiguration.WriteBatching.class, String.valueOf(writeBatching));
+      cb.bindNamedParameter(RemoteConfiguration.WriteBatchMaxBytes.class, String.valueOf(writeBatchMaxBytes));
+      cb.bindNamedParameter(RemoteConfiguration.WriteBatchMaxDelay.class, String.valueOf(writeBatchMaxDelay));
+      cb.bindNamedParameter(RemoteConfiguration.DirectBufferFraming.class, String.valueOf(directBufferFraming));
+      cb.bindNamedParameter(RemoteConfiguration.NativeTransport.class, String.valueOf(nativeTransport));
+      cb.bindNamedParameter(RemoteConfiguration.ServerWorkerThreads.class, String.valueOf(serverWorkerThreads));
+      cb.bindNamedParameter(RemoteConfiguration.ClientWorkerThreads.class, String.valueOf(clientWorkerThreads));
+      cb.bindNamedParameter(RemoteConfiguration.SharedEventLoop.class, String.valueOf(sharedEventLoop));
+      cb.bindNamedParameter(RemoteConfiguration.TcpNoDelay.class, String.valueOf(tcpNoDelay));
+      cb.bindNamedParameter(RemoteConfiguration.SocketSendBufferSize.class, String.valueOf(sendBufferSize));
+      cb.bindNamedParameter(RemoteConfiguration.SocketReceiveBufferSize.class, String.valueOf(receiveBufferSize));
+    } catch (final BindException e) {
+      throw new IllegalStateException("Cannot bind the transport settings", e);
+    }
+    this.transportSettings = cb.build();
   }
 
   /**
@@ -59,7 +97,7 @@ public final class MessagingTransportFactory implements TransportFactory {
                                final EventHandler<TransportEvent> serverHandler,
                                final EventHandler<Exception> exHandler) {
 
-    final Injector injector = Tang.Factory.getTang().newInjector();
+    final Injector injector = Tang.Factory.getTang().newInjector(this.transportSettings);
     injector.bindVolatileParameter(RemoteConfiguration.HostAddress.class, this.localAddress);
     injector.bindVolatileParameter(RemoteConfiguration.Port.class, port);
     injector.bindVolatileParameter(RemoteConfiguration.RemoteClientStage.class, new SyncStage<>(clientHandler));
@@ -121,7 +159,7 @@ public final class MessagingTransportFactory implements TransportFactory {
                                final int retryTimeout,
                                final TcpPortProvider tcpPortProvider) {
 
-    final Injector injector = Tang.Factory.getTang().newInjector();
+    final Injector injector = Tang.Factory.getTang().newInjector(this.transportSettings);
     injector.bindVolatileParameter(RemoteConfiguration.HostAddress.class, hostAddress);
     injector.bindVolatileParameter(RemoteConfiguration.Port.class, port);
     injector.bindVolatileParameter(RemoteConfiguration.RemoteClientStage.class, clientStage);
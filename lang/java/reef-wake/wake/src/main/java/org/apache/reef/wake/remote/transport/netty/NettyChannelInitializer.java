@@ -35,18 +35,56 @@ class NettyChannelInitializer extends ChannelInitializer<SocketChannel> {
   public static final int MAXFRAMELENGTH = 10 * 1024 * 1024;
   private final NettyChannelHandlerFactory handlerFactory;
 
+  /** Counters of the write batching handlers; null if write batching is off. */
+  private final WriteBatchStats batchStats;
+  private final int maxBatchBytes;
+  private final long maxBatchDelayMicros;
+
+  /** Whether to pass pooled buffers straight to the length field codecs. */
+  private final boolean directFraming;
+
   NettyChannelInitializer(final NettyChannelHandlerFactory handlerFactory) {
+    this(handlerFactory, null, 0, 0, false);
+  }
+
+  /**
+   * @param handlerFactory factory of the inbound handler at the tail of the pipeline.
+   * @param batchStats counters for write batching; null to write each message with its own flush.
+   * @param maxBatchBytes size budget of a write batch, in bytes.
+   * @param maxBatchDelayMicros time budget of a write batch, in microseconds.
+   * @param directFraming if true, frame the buffers written by the links as they are,
+   *                      without the byte array codecs and the chunker.
+   */
+  NettyChannelInitializer(final NettyChannelHandlerFactory handlerFactory, final WriteBatchStats batchStats,
+                          final int maxBatchBytes, final long maxBatchDelayMicros, final boolean directFraming) {
     this.handlerFactory = handlerFactory;
+    this.batchStats = batchStats;
+    this.maxBatchBytes = maxBatchBytes;
+    this.maxBatchDelayMicros = maxBatchDelayMicros;
+    this.directFraming = directFraming;
   }
 
   @Override
   protected void initChannel(final SocketChannel ch) throws Exception {
-    ch.pipeline()
-        .addLast("frameDecoder", new LengthFieldBasedFrameDecoder(MAXFRAMELENGTH, 0, 4, 0, 4))
-        .addLast("bytesDecoder", new ByteArrayDecoder())
-        .addLast("frameEncoder", new LengthFieldPrepender(4))
-        .addLast("bytesEncoder", new ByteArrayEncoder())
-        .addLast("chunker", new ChunkedReadWriteHandler())
-        .addLast("handler", handlerFactory.createChannelInboundHandler());
+    if (this.directFraming) {
+      // The frame body reaches the handler as a slice of the pooled receive buffer,
+      // and the frame header is written as a separate buffer in front of the message buffer.
+      ch.pipeline()
+          .addLast("frameDecoder", new LengthFieldBasedFrameDecoder(Integer.MAX_VALUE, 0, 4, 0, 4))
+          .addLast("frameEncoder", new LengthFieldPrepender(4))
+          .addLast("handler", handlerFactory.createChannelInboundHandler());
+    } else {
+      ch.pipeline()
+          .addLast("frameDecoder", new LengthFieldBasedFrameDecoder(MAXFRAMELENGTH, 0, 4, 0, 4))
+          .addLast("bytesDecoder", new ByteArrayDecoder())
+          .addLast("frameEncoder", new LengthFieldPrepender(4))
+          .addLast("bytesEncoder", new ByteArrayEncoder())
+          .addLast("chunker", new ChunkedReadWriteHandler())
+          .addLast("handler", handlerFactory.createChannelInboundHandler());
+    }
+    if (this.batchStats != null) {
+      ch.pipeline().addFirst("writeBatcher",
+          new WriteBatchingHandler(this.maxBatchBytes, this.maxBatchDelayMicros, this.batchStats));
+    }
   }
 }
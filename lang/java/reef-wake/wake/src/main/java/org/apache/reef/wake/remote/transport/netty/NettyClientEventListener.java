@@ -18,6 +18,7 @@
  */
 package org.apache.reef.wake.remote.transport.netty;
 
+import io.netty.buffer.ByteBuf;
 import io.netty.channel.Channel;
 import io.netty.channel.ChannelHandlerContext;
 import org.apache.reef.wake.EStage;
@@ -52,6 +53,11 @@ final class NettyClientEventListener extends AbstractNettyEventListener {
     return new TransportEvent(message, channel.localAddress(), channel.remoteAddress());
   }
 
+  @Override
+  protected TransportEvent getTransportEvent(final ByteBuf frame, final Channel channel) {
+    return new TransportEvent(frame, channel.localAddress(), channel.remoteAddress());
+  }
+
   @Override
   protected void exceptionCleanup(final ChannelHandlerContext ctx, final Throwable cause) {
     this.closeChannel(ctx.channel());
@@ -0,0 +1,94 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.reef.wake.remote.transport.netty;
+
+import io.netty.channel.EventLoopGroup;
+import io.netty.channel.ServerChannel;
+import io.netty.channel.epoll.Epoll;
+import io.netty.channel.epoll.EpollEventLoopGroup;
+import io.netty.channel.epoll.EpollServerSocketChannel;
+import io.netty.channel.epoll.EpollSocketChannel;
+import io.netty.channel.nio.NioEventLoopGroup;
+import io.netty.channel.socket.SocketChannel;
+import io.netty.channel.socket.nio.NioServerSocketChannel;
+import io.netty.channel.socket.nio.NioSocketChannel;
+import org.apache.reef.wake.impl.DefaultThreadFactory;
+
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Event loop groups and channel classes of one flavor of Netty transport: native epoll or NIO.
+ */
+final class NettyEventLoops {
+
+  private static final Logger LOG = Logger.getLogger(NettyEventLoops.class.getName());
+
+  private final boolean epoll;
+
+  /**
+   * @param nativeTransport whether to use epoll if it is available on this platform.
+   */
+  NettyEventLoops(final boolean nativeTransport) {
+    if (nativeTransport && !Epoll.isAvailable()) {
+      LOG.log(Level.INFO, "Native epoll transport is not available, falling back to NIO: {0}",
+          Epoll.unavailabilityCause() == null ? "unknown cause" : Epoll.unavailabilityCause().toString());
+    }
+    this.epoll = nativeTransport && Epoll.isAvailable();
+  }
+
+  /**
+   * @return true if this is the native epoll transport.
+   */
+  boolean isEpoll() {
+    return this.epoll;
+  }
+
+  /**
+   * Creates a new event loop group.
+   *
+   * @param numThreads number of threads; 0 for the number of available cores
+   * @param name       prefix of the thread names
+   * @return a new event loop group
+   */
+  EventLoopGroup newGroup(final int numThreads, final String name) {
+    final int threads = numThreads > 0 ? numThreads : Runtime.getRuntime().availableProcessors();
+    final DefaultThreadFactory threadFactory = new DefaultThreadFactory(name);
+    return this.epoll ? new EpollEventLoopGroup(threads, threadFactory) : new NioEventLoopGroup(threads, threadFactory);
+  }
+
+  /**
+   * @return the class of the channels for outgoing connections
+   */
+  Class<? extends SocketChannel> getSocketChannelClass() {
+    return this.epoll ? EpollSocketChannel.class : NioSocketChannel.class;
+  }
+
+  /**
+   * @return the class of the listening channels
+   */
+  Class<? extends ServerChannel> getServerChannelClass() {
+    return this.epoll ? EpollServerSocketChannel.class : NioServerSocketChannel.class;
+  }
+
+  @Override
+  public String toString() {
+    return this.epoll ? "epoll" : "nio";
+  }
+}
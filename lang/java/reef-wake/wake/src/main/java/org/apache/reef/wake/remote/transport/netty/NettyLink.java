@@ -18,6 +18,7 @@
  */
 package org.apache.reef.wake.remote.transport.netty;
 
+import io.netty.buffer.ByteBuf;
 import io.netty.buffer.Unpooled;
 import io.netty.channel.Channel;
 import io.netty.channel.ChannelFuture;
@@ -35,6 +36,10 @@ import java.util.logging.Logger;
  *
  * If you set a {@code LinkListener<T>}, it keeps message until writeAndFlush operation completes
  * and notifies whether the sent message transferred successfully through the listener.
+ *
+ * If the encoder is a {@link ByteBufEncoder} and the channel uses direct framing,
+ * messages are encoded directly into a pooled buffer of the channel.
+ * The default pipeline chunks byte arrays, so messages are encoded to byte arrays there.
  */
 public class NettyLink<T> implements Link<T> {
 
@@ -45,6 +50,7 @@ public class NettyLink<T> implements Link<T> {
   private final Channel channel;
   private final Encoder<? super T> encoder;
   private final LinkListener<? super T> listener;
+  private final boolean encodeToPooledBuffer;
 
   /**
    * Constructs a link.
@@ -67,6 +73,8 @@ public class NettyLink<T> implements Link<T> {
     this.channel = channel;
     this.encoder = encoder;
     this.listener = listener;
+    this.encodeToPooledBuffer = encoder instanceof ByteBufEncoder
+        && channel.pipeline().get(ChunkedReadWriteHandler.class) == null;
   }
 
   /**
@@ -77,12 +85,37 @@ public class NettyLink<T> implements Link<T> {
   @Override
   public void write(final T message) {
     LOG.log(Level.FINEST, "write {0} :: {1}", new Object[] {channel, message});
-    final ChannelFuture future = channel.writeAndFlush(Unpooled.wrappedBuffer(encoder.encode(message)));
+    final ChannelFuture future = channel.writeAndFlush(this.encodeToBuffer(message));
     if (listener !=  null) {
       future.addListener(new NettyChannelFutureListener<>(message, listener));
     }
   }
 
+  /**
+   * Encodes the message into a buffer that the pipeline will release once written.
+   *
+   * @param message the message
+   * @return a pooled buffer if the encoder and the pipeline support it;
+   *         otherwise a buffer that wraps the encoded bytes
+   */
+  @SuppressWarnings("unchecked")
+  private ByteBuf encodeToBuffer(final T message) {
+    if (encodeToPooledBuffer) {
+      final ByteBuf buf = channel.alloc().ioBuffer();
+      boolean encoded = false;
+      try {
+        ((ByteBufEncoder<? super T>) encoder).encode(message, buf);
+        encoded = true;
+      } finally {
+        if (!encoded) {
+          buf.release();
+        }
+      }
+      return buf;
+    }
+    return Unpooled.wrappedBuffer(encoder.encode(message));
+  }
+
   /**
    * Gets a local address of the link.
    *
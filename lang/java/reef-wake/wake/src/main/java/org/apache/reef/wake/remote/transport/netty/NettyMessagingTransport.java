@@ -27,15 +27,12 @@ import io.netty.channel.EventLoopGroup;
 import io.netty.channel.group.ChannelGroup;
 import io.netty.channel.group.ChannelGroupFuture;
 import io.netty.channel.group.DefaultChannelGroup;
-import io.netty.channel.nio.NioEventLoopGroup;
-import io.netty.channel.socket.nio.NioServerSocketChannel;
-import io.netty.channel.socket.nio.NioSocketChannel;
+import io.netty.util.concurrent.EventExecutor;
 import io.netty.util.concurrent.Future;
 import io.netty.util.concurrent.GlobalEventExecutor;
 import org.apache.reef.tang.annotations.Parameter;
 import org.apache.reef.wake.EStage;
 import org.apache.reef.wake.EventHandler;
-import org.apache.reef.wake.impl.DefaultThreadFactory;
 import org.apache.reef.wake.remote.Encoder;
 import org.apache.reef.wake.remote.RemoteConfiguration;
 import org.apache.reef.wake.remote.address.LocalAddressProvider;
@@ -54,6 +51,7 @@ import java.net.ConnectException;
 import java.net.InetSocketAddress;
 import java.net.SocketAddress;
 import java.util.ArrayList;
+import java.util.List;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ConcurrentMap;
 import java.util.concurrent.atomic.AtomicInteger;
@@ -74,9 +72,8 @@ public final class NettyMessagingTransport implements Transport {
 
   private static final Logger LOG = Logger.getLogger(CLASS_NAME);
 
-  private static final int SERVER_BOSS_NUM_THREADS = 3;
-  private static final int SERVER_WORKER_NUM_THREADS = 20;
-  private static final int CLIENT_WORKER_NUM_THREADS = 10;
+  /** The transport has a single listening channel, so one thread is enough to accept connections. */
+  private static final int SERVER_BOSS_NUM_THREADS = 1;
 
   private final ConcurrentMap<SocketAddress, LinkReference> addrToLinkRefMap = new ConcurrentHashMap<>();
 
@@ -98,6 +95,10 @@ public final class NettyMessagingTransport implements Transport {
   private final int numberOfTries;
   private final int retryTimeout;
 
+  private final WriteBatchStats writeBatchStats = new WriteBatchStats();
+
+  private final NettyEventLoops eventLoops;
+
   /**
    * Constructs a messaging transport.
    *
@@ -107,6 +108,17 @@ public final class NettyMessagingTransport implements Transport {
    * @param serverStage   the server-side stage that handles transport events
    * @param numberOfTries the number of tries of connection
    * @param retryTimeout  the timeout of reconnection
+   * @param writeBatching whether to coalesce the flushes of writes on the same channel
+   * @param writeBatchMaxBytes  the number of pending bytes that triggers a flush in write batching mode
+   * @param writeBatchMaxDelay  the maximum delay of a flush in write batching mode, in microseconds
+   * @param directBufferFraming whether to frame messages directly in pooled buffers
+   * @param nativeTransport whether to use the native epoll transport if it is available
+   * @param serverWorkerThreads the number of threads that serve accepted connections; 0 for the number of cores
+   * @param clientWorkerThreads the number of threads that serve outgoing connections; 0 for the number of cores
+   * @param sharedEventLoop whether all connections share the server worker threads
+   * @param tcpNoDelay       whether to set TCP_NODELAY on the connections
+   * @param sendBufferSize   the SO_SNDBUF size of the connections; 0 for the OS default
+   * @param receiveBufferSize  the SO_RCVBUF size of the connections; 0 for the OS default
    * @param tcpPortProvider  gives an iterator that produces random tcp ports in a range
    */
   @Inject
@@ -117,6 +129,17 @@ public final class NettyMessagingTransport implements Transport {
       @Parameter(RemoteConfiguration.RemoteServerStage.class) final EStage<TransportEvent> serverStage,
       @Parameter(RemoteConfiguration.NumberOfTries.class) final int numberOfTries,
       @Parameter(RemoteConfiguration.RetryTimeout.class) final int retryTimeout,
+      @Parameter(RemoteConfiguration.WriteBatching.class) final boolean writeBatching,
+      @Parameter(RemoteConfiguration.WriteBatchMaxBytes.class) final int writeBatchMaxBytes,
+      @Parameter(RemoteConfiguration.WriteBatchMaxDelay.class) final int writeBatchMaxDelay,
+      @Parameter(RemoteConfiguration.DirectBufferFraming.class) final boolean directBufferFraming,
+      @Parameter(RemoteConfiguration.NativeTransport.class) final boolean nativeTransport,
+      @Parameter(RemoteConfiguration.ServerWorkerThreads.class) final int serverWorkerThreads,
+      @Parameter(RemoteConfiguration.ClientWorkerThreads.class) final int clientWorkerThreads,
+      @Parameter(RemoteConfiguration.SharedEventLoop.class) final boolean sharedEventLoop,
+      @Parameter(RemoteConfiguration.TcpNoDelay.class) final boolean tcpNoDelay,
+      @Parameter(RemoteConfiguration.SocketSendBufferSize.class) final int sendBufferSize,
+      @Parameter(RemoteConfiguration.SocketReceiveBufferSize.class) final int receiveBufferSize,
       final TcpPortProvider tcpPortProvider,
       final LocalAddressProvider localAddressProvider) {
 
@@ -131,29 +154,51 @@ public final class NettyMessagingTransport implements Transport {
     this.clientEventListener = new NettyClientEventListener(this.addrToLinkRefMap, clientStage);
     this.serverEventListener = new NettyServerEventListener(this.addrToLinkRefMap, serverStage);
 
-    this.serverBossGroup = new NioEventLoopGroup(SERVER_BOSS_NUM_THREADS,
-        new DefaultThreadFactory(CLASS_NAME + ":ServerBoss"));
-    this.serverWorkerGroup = new NioEventLoopGroup(SERVER_WORKER_NUM_THREADS,
-        new DefaultThreadFactory(CLASS_NAME + ":ServerWorker"));
-    this.clientWorkerGroup = new NioEventLoopGroup(CLIENT_WORKER_NUM_THREADS,
-        new DefaultThreadFactory(CLASS_NAME + ":ClientWorker"));
+    this.eventLoops = new NettyEventLoops(nativeTransport);
+
+    this.serverWorkerGroup = this.eventLoops.newGroup(serverWorkerThreads, CLASS_NAME + ":ServerWorker");
+    if (sharedEventLoop) {
+      this.serverBossGroup = this.serverWorkerGroup;
+      this.clientWorkerGroup = this.serverWorkerGroup;
+    } else {
+      this.serverBossGroup = this.eventLoops.newGroup(SERVER_BOSS_NUM_THREADS, CLASS_NAME + ":ServerBoss");
+      this.clientWorkerGroup = this.eventLoops.newGroup(clientWorkerThreads, CLASS_NAME + ":ClientWorker");
+    }
+
+    final WriteBatchStats batchStats = writeBatching ? this.writeBatchStats : null;
 
     this.clientBootstrap = new Bootstrap()
         .group(this.clientWorkerGroup)
-        .channel(NioSocketChannel.class)
+        .channel(this.eventLoops.getSocketChannelClass())
         .handler(new NettyChannelInitializer(new NettyDefaultChannelHandlerFactory("client",
-            this.clientChannelGroup, this.clientEventListener)))
+            this.clientChannelGroup, this.clientEventListener),
+            batchStats, writeBatchMaxBytes, writeBatchMaxDelay, directBufferFraming))
         .option(ChannelOption.SO_REUSEADDR, true)
-        .option(ChannelOption.SO_KEEPALIVE, true);
+        .option(ChannelOption.SO_KEEPALIVE, true)
+        .option(ChannelOption.TCP_NODELAY, tcpNoDelay);
 
     final ServerBootstrap serverBootstrap = new ServerBootstrap()
         .group(this.serverBossGroup, this.serverWorkerGroup)
-        .channel(NioServerSocketChannel.class)
+        .channel(this.eventLoops.getServerChannelClass())
         .childHandler(new NettyChannelInitializer(new NettyDefaultChannelHandlerFactory("server",
-            this.serverChannelGroup, this.serverEventListener)))
+            this.serverChannelGroup, this.serverEventListener),
+            batchStats, writeBatchMaxBytes, writeBatchMaxDelay, directBufferFraming))
         .option(ChannelOption.SO_BACKLOG, 128)
         .option(ChannelOption.SO_REUSEADDR, true)
-        .childOption(ChannelOption.SO_KEEPALIVE, true);
+        .childOption(ChannelOption.SO_KEEPALIVE, true)
+        .childOption(ChannelOption.TCP_NODELAY, tcpNoDelay);
+
+    if (sendBufferSize > 0) {
+      this.clientBootstrap.option(ChannelOption.SO_SNDBUF, sendBufferSize);
+      serverBootstrap.childOption(ChannelOption.SO_SNDBUF, sendBufferSize);
+    }
+
+    if (receiveBufferSize > 0) {
+      // Set on the listening socket too, so that accepted connections can negotiate a large window
+      this.clientBootstrap.option(ChannelOption.SO_RCVBUF, receiveBufferSize);
+      serverBootstrap.option(ChannelOption.SO_RCVBUF, receiveBufferSize);
+      serverBootstrap.childOption(ChannelOption.SO_RCVBUF, receiveBufferSize);
+    }
 
     LOG.log(Level.FINE, "Binding to {0}:{1}", new Object[] {host, listenPort});
 
@@ -186,13 +231,12 @@ public final class NettyMessagingTransport implements Transport {
       }
     } catch (final IllegalStateException | InterruptedException ex) {
       LOG.log(Level.SEVERE, "Cannot bind to port " + listenPort, ex);
-      this.clientWorkerGroup.shutdownGracefully();
-      this.serverBossGroup.shutdownGracefully();
-      this.serverWorkerGroup.shutdownGracefully();
+      this.shutdownEventLoopGroups();
       throw new TransportRuntimeException("Cannot bind to port " + listenPort, ex);
     }
 
-    LOG.log(Level.FINE, "Starting netty transport socket address: {0}", this.localAddress);
+    LOG.log(Level.FINE, "Starting netty transport socket address: {0} with {1}",
+        new Object[] {this.localAddress, this.eventLoops});
   }
 
   /**
@@ -207,10 +251,7 @@ public final class NettyMessagingTransport implements Transport {
     final ChannelGroupFuture serverChannelGroupFuture = this.serverChannelGroup.close();
     final ChannelFuture acceptorFuture = this.acceptor.close();
 
-    final ArrayList<Future> eventLoopGroupFutures = new ArrayList<>(3);
-    eventLoopGroupFutures.add(this.clientWorkerGroup.shutdownGracefully());
-    eventLoopGroupFutures.add(this.serverBossGroup.shutdownGracefully());
-    eventLoopGroupFutures.add(this.serverWorkerGroup.shutdownGracefully());
+    final List<Future<?>> eventLoopGroupFutures = this.shutdownEventLoopGroups();
 
     clientChannelGroupFuture.awaitUninterruptibly();
     serverChannelGroupFuture.awaitUninterruptibly();
@@ -221,13 +262,30 @@ public final class NettyMessagingTransport implements Transport {
       LOG.log(Level.SEVERE, "Error closing the acceptor channel for " + this.localAddress, ex);
     }
 
-    for (final Future eventLoopGroupFuture : eventLoopGroupFutures) {
+    for (final Future<?> eventLoopGroupFuture : eventLoopGroupFutures) {
       eventLoopGroupFuture.awaitUninterruptibly();
     }
 
     LOG.log(Level.FINE, "Closing netty transport socket address: {0} done", this.localAddress);
   }
 
+  /**
+   * Shuts down the event loop groups; a group shared between roles is shut down once.
+   *
+   * @return the termination futures of the groups
+   */
+  private List<Future<?>> shutdownEventLoopGroups() {
+    final List<Future<?>> futures = new ArrayList<>(3);
+    futures.add(this.serverWorkerGroup.shutdownGracefully());
+    if (this.serverBossGroup != this.serverWorkerGroup) {
+      futures.add(this.serverBossGroup.shutdownGracefully());
+    }
+    if (this.clientWorkerGroup != this.serverWorkerGroup) {
+      futures.add(this.clientWorkerGroup.shutdownGracefully());
+    }
+    return futures;
+  }
+
   /**
    * Returns a link for the remote address if cached; otherwise opens, caches and returns.
    * When it opens a link for the remote address, only one attempt for the address is made at a given time
@@ -358,6 +416,50 @@ public final class NettyMessagingTransport implements Transport {
     return this.localAddress.getPort();
   }
 
+  /**
+   * Gets the counters of the write batching mode.
+   * All counters stay at zero unless write batching is enabled.
+   *
+   * @return write batching counters of this transport
+   */
+  public WriteBatchStats getWriteBatchStats() {
+    return this.writeBatchStats;
+  }
+
+  /**
+   * Tells whether this transport runs on the native epoll transport.
+   * It is false unless the native transport is requested and available on this platform.
+   *
+   * @return true if the channels of this transport use epoll
+   */
+  public boolean isNativeTransport() {
+    return this.eventLoops.isEpoll();
+  }
+
+  /**
+   * Counts the event loops of this transport; a group shared between roles is counted once.
+   *
+   * @return the number of event loops serving the server and client channels of this transport
+   */
+  public int getEventLoopCount() {
+    int count = countEventLoops(this.serverWorkerGroup);
+    if (this.serverBossGroup != this.serverWorkerGroup) {
+      count += countEventLoops(this.serverBossGroup);
+    }
+    if (this.clientWorkerGroup != this.serverWorkerGroup) {
+      count += countEventLoops(this.clientWorkerGroup);
+    }
+    return count;
+  }
+
+  private static int countEventLoops(final EventLoopGroup group) {
+    int count = 0;
+    for (final EventExecutor ignored : group) {
+      ++count;
+    }
+    return count;
+  }
+
   /**
    * Registers the exception event handler.
    *
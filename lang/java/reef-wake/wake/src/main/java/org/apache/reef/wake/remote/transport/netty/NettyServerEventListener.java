@@ -18,10 +18,11 @@
  */
 package org.apache.reef.wake.remote.transport.netty;
 
+import io.netty.buffer.ByteBuf;
 import io.netty.channel.Channel;
 import io.netty.channel.ChannelHandlerContext;
 import org.apache.reef.wake.EStage;
-import org.apache.reef.wake.remote.impl.ByteCodec;
+import org.apache.reef.wake.remote.impl.RemoteLinkEncoder;
 import org.apache.reef.wake.remote.impl.TransportEvent;
 
 import java.net.SocketAddress;
@@ -50,7 +51,7 @@ final class NettyServerEventListener extends AbstractNettyEventListener {
 
     this.addrToLinkRefMap.putIfAbsent(
         channel.remoteAddress(), new LinkReference(new NettyLink<>(
-            channel, new ByteCodec(), new LoggingLinkListener<byte[]>())));
+            channel, new RemoteLinkEncoder(), new LoggingLinkListener<>())));
 
     LOG.log(Level.FINER, "Add connected channel ref: {0}", this.addrToLinkRefMap.get(channel.remoteAddress()));
 
@@ -61,6 +62,11 @@ final class NettyServerEventListener extends AbstractNettyEventListener {
     return new TransportEvent(message, new NettyLink<>(channel, new ByteEncoder()));
   }
 
+  @Override
+  protected TransportEvent getTransportEvent(final ByteBuf frame, final Channel channel) {
+    return new TransportEvent(frame, new NettyLink<>(channel, new ByteEncoder()));
+  }
+
   @Override
   protected void exceptionCleanup(final ChannelHandlerContext ctx, final Throwable cause) {
     // noop
@@ -0,0 +1,111 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.reef.wake.remote.transport.netty;
+
+import org.apache.reef.wake.metrics.Histogram;
+import org.apache.reef.wake.metrics.UniformHistogram;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Counters of the write batching mode of the Netty transport.
+ * One instance is shared by all channels of a transport.
+ */
+public final class WriteBatchStats {
+
+  /** Width of a bin of the flush latency histogram, in microseconds. */
+  public static final long LATENCY_BIN_WIDTH_MICROS = 50;
+
+  private static final int NUM_BINS = 64;
+
+  private final AtomicLong numFlushes = new AtomicLong(0);
+  private final AtomicLong numWrites = new AtomicLong(0);
+  private final AtomicLong numBytes = new AtomicLong(0);
+
+  private final Histogram batchSizeHistogram = new UniformHistogram(1, NUM_BINS);
+  private final Histogram flushLatencyHistogram = new UniformHistogram(LATENCY_BIN_WIDTH_MICROS, NUM_BINS);
+
+  WriteBatchStats() {
+  }
+
+  /**
+   * Record one flush to the socket.
+   * @param writes number of buffers written since the previous flush.
+   * @param bytes number of bytes written since the previous flush.
+   * @param latencyMicros time between the first write of the batch and the flush, in microseconds.
+   */
+  void onFlush(final int writes, final long bytes, final long latencyMicros) {
+    this.numFlushes.incrementAndGet();
+    this.numWrites.addAndGet(writes);
+    this.numBytes.addAndGet(bytes);
+    this.batchSizeHistogram.update(writes);
+    this.flushLatencyHistogram.update(latencyMicros);
+  }
+
+  /**
+   * @return number of flushes to the socket.
+   */
+  public long getNumFlushes() {
+    return this.numFlushes.get();
+  }
+
+  /**
+   * @return number of buffers written. Every message is written as at least two buffers:
+   * a frame header and the frame body.
+   */
+  public long getNumWrites() {
+    return this.numWrites.get();
+  }
+
+  /**
+   * @return number of bytes written.
+   */
+  public long getNumBytes() {
+    return this.numBytes.get();
+  }
+
+  /**
+   * @return average number of buffers written per flush.
+   */
+  public double getAverageBatchSize() {
+    final long flushes = this.numFlushes.get();
+    return flushes == 0 ? 0 : (double) this.numWrites.get() / flushes;
+  }
+
+  /**
+   * @return histogram of the number of buffers per flush; bin i counts batches of i buffers.
+   */
+  public Histogram getBatchSizeHistogram() {
+    return this.batchSizeHistogram;
+  }
+
+  /**
+   * @return histogram of the delay between the first write of a batch and its flush,
+   * in bins of {@link #LATENCY_BIN_WIDTH_MICROS} microseconds.
+   */
+  public Histogram getFlushLatencyHistogram() {
+    return this.flushLatencyHistogram;
+  }
+
+  @Override
+  public String toString() {
+    return String.format("WriteBatchStats: {flushes: %d writes: %d bytes: %d avgBatch: %.2f}",
+        getNumFlushes(), getNumWrites(), getNumBytes(), getAverageBatchSize());
+  }
+}
@@ -0,0 +1,157 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.reef.wake.remote.transport.netty;
+
+import io.netty.buffer.ByteBuf;
+import io.netty.channel.ChannelDuplexHandler;
+import io.netty.channel.ChannelHandlerContext;
+import io.netty.channel.ChannelPromise;
+
+import java.util.concurrent.TimeUnit;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Outbound handler that coalesces flushes of a channel.
+ * <p>
+ * Writes go down the pipeline right away, but the flush that follows each message is deferred
+ * so that the messages written in the meantime reach the socket in one syscall.
+ * Pending data is flushed when it reaches the size budget, when the time budget elapses,
+ * or, if the time budget is zero, once the event loop has run the tasks already queued on it.
+ * <p>
+ * All methods run on the event loop of the channel, so the state needs no synchronization.
+ * Sits at the head of the pipeline to see the encoded frames.
+ */
+final class WriteBatchingHandler extends ChannelDuplexHandler {
+
+  private static final Logger LOG = Logger.getLogger(WriteBatchingHandler.class.getName());
+
+  private final int maxBatchBytes;
+  private final long maxBatchDelayMicros;
+  private final WriteBatchStats stats;
+
+  private final Runnable flushTask = new Runnable() {
+    @Override
+    public void run() {
+      flushScheduled = false;
+      if (context != null && pendingWrites > 0) {
+        flushNow(context);
+      }
+    }
+  };
+
+  private ChannelHandlerContext context;
+  private boolean flushScheduled = false;
+  private int pendingWrites = 0;
+  private long pendingBytes = 0;
+  private long firstPendingNanos = 0;
+
+  /**
+   * @param maxBatchBytes flush as soon as that many bytes are pending.
+   * @param maxBatchDelayMicros flush pending data that many microseconds after the first write of a batch;
+   *                            0 to flush when the event loop has run its queued tasks.
+   * @param stats counters to update on every flush.
+   */
+  WriteBatchingHandler(final int maxBatchBytes, final long maxBatchDelayMicros, final WriteBatchStats stats) {
+    this.maxBatchBytes = maxBatchBytes;
+    this.maxBatchDelayMicros = maxBatchDelayMicros;
+    this.stats = stats;
+  }
+
+  @Override
+  public void handlerAdded(final ChannelHandlerContext ctx) {
+    this.context = ctx;
+  }
+
+  @Override
+  public void handlerRemoved(final ChannelHandlerContext ctx) {
+    if (this.pendingWrites > 0) {
+      this.flushNow(ctx);
+    }
+    this.context = null;
+  }
+
+  @Override
+  public void write(final ChannelHandlerContext ctx, final Object msg, final ChannelPromise promise) {
+    if (this.pendingWrites++ == 0) {
+      this.firstPendingNanos = System.nanoTime();
+    }
+    if (msg instanceof ByteBuf) {
+      this.pendingBytes += ((ByteBuf) msg).readableBytes();
+    }
+    ctx.write(msg, promise);
+  }
+
+  @Override
+  public void flush(final ChannelHandlerContext ctx) {
+
+    if (this.pendingWrites == 0) {
+      return;
+    }
+
+    if (this.pendingBytes >= this.maxBatchBytes || !ctx.channel().isWritable()) {
+      this.flushNow(ctx);
+    } else if (!this.flushScheduled) {
+      this.flushScheduled = true;
+      if (this.maxBatchDelayMicros > 0) {
+        ctx.executor().schedule(this.flushTask, this.maxBatchDelayMicros, TimeUnit.MICROSECONDS);
+      } else {
+        ctx.executor().execute(this.flushTask);
+      }
+    }
+  }
+
+  @Override
+  public void close(final ChannelHandlerContext ctx, final ChannelPromise promise) throws Exception {
+    if (this.pendingWrites > 0) {
+      this.flushNow(ctx);
+    }
+    super.close(ctx, promise);
+  }
+
+  /**
+   * Flush pending data when the outbound buffer fills up so that the handlers above can make progress.
+   * The flush runs as a separate task: this event can fire in the middle of a write from
+   * ChunkedWriteHandler, and flushing from there would re-enter it before its state is updated.
+   */
+  @Override
+  public void channelWritabilityChanged(final ChannelHandlerContext ctx) throws Exception {
+    if (!ctx.channel().isWritable() && this.pendingWrites > 0) {
+      ctx.executor().execute(this.flushTask);
+    }
+    super.channelWritabilityChanged(ctx);
+  }
+
+  private void flushNow(final ChannelHandlerContext ctx) {
+
+    final long latencyMicros = TimeUnit.NANOSECONDS.toMicros(System.nanoTime() - this.firstPendingNanos);
+
+    if (LOG.isLoggable(Level.FINEST)) {
+      LOG.log(Level.FINEST, "Flush {0}: {1} writes {2} bytes after {3} us",
+          new Object[] {ctx.channel(), this.pendingWrites, this.pendingBytes, latencyMicros});
+    }
+
+    this.stats.onFlush(this.pendingWrites, this.pendingBytes, latencyMicros);
+
+    this.pendingWrites = 0;
+    this.pendingBytes = 0;
+
+    ctx.flush();
+  }
+}
@@ -0,0 +1,570 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.reef.wake.time.runtime;
+
+import org.apache.reef.tang.InjectionFuture;
+import org.apache.reef.tang.annotations.Name;
+import org.apache.reef.tang.annotations.NamedParameter;
+import org.apache.reef.tang.annotations.Parameter;
+import org.apache.reef.wake.EStage;
+import org.apache.reef.wake.EventHandler;
+import org.apache.reef.wake.impl.PubSubEventHandler;
+import org.apache.reef.wake.impl.ThreadPoolStage;
+import org.apache.reef.wake.time.Clock;
+import org.apache.reef.wake.time.Time;
+import org.apache.reef.wake.time.event.Alarm;
+import org.apache.reef.wake.time.event.StartTime;
+import org.apache.reef.wake.time.event.StopTime;
+import org.apache.reef.wake.time.runtime.event.*;
+
+import javax.inject.Inject;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.PriorityQueue;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.LockSupport;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Clock that keeps its alarms in a hierarchical timing wheel, for schedules of many outstanding alarms.
+ *
+ * Unlike {@link RuntimeClock}, scheduling an alarm takes no lock: new alarms go to a lock-free queue,
+ * and the clock thread is only woken up if the new alarm is due before the time it sleeps until.
+ * The clock thread moves the alarms from the queue into the wheel, which only it accesses.
+ * The wheel has levels of 64 slots; a slot of the first level spans one millisecond, and a slot of each
+ * next level spans the whole previous level. The non-empty slots are kept in a priority queue by start time,
+ * so that the clock sleeps until the next non-empty slot, however far it is. When a slot of a higher level
+ * comes due, its alarms cascade into the lower levels. Scheduling and firing an alarm thus cost
+ * O(1) operations on the wheel, plus O(log s) on the priority queue of the s non-empty slots,
+ * of which there are at most 64 per level.
+ *
+ * Alarms fire in the order of their timestamps. By default, their handlers run on the clock thread,
+ * as in RuntimeClock. If {@link AlarmStageThreads} is positive, they run on a thread pool stage
+ * of that many threads instead, so that a slow handler does not delay the other alarms.
+ * In that case, concurrent alarms may run out of order, and an alarm handler that throws
+ * stops the clock with its exception.
+ *
+ * The start, stop, close and idle semantics are the ones of RuntimeClock. A client alarm is outstanding
+ * until its handler is called, or, on the stage, until its handler returns: a graceful close fires StopTime
+ * once no client alarm is outstanding anymore.
+ */
+public final class TimingWheelClock implements Clock {
+
+  private static final Logger LOG = Logger.getLogger(TimingWheelClock.class.getName());
+  private static final String CLASS_NAME = TimingWheelClock.class.getCanonicalName();
+
+  /** Number of slots in each level of the timing wheel. */
+  private static final int WHEEL_SIZE = 64;
+
+  /** Sorts alarms by their timestamps only; the sort is stable for alarms at the same time. */
+  private static final Comparator<Time> BY_TIMESTAMP = new Comparator<Time>() {
+    @Override
+    public int compare(final Time time1, final Time time2) {
+      return Long.compare(time1.getTimestamp(), time2.getTimestamp());
+    }
+  };
+
+  /**
+   * Number of threads to run the alarm handlers on. If 0, the handlers run on the clock thread.
+   */
+  @NamedParameter(doc = "Number of threads to run the alarm handlers on. If 0, they run on the clock thread.",
+      short_name = "alarm_stage_threads", default_value = "0")
+  public static final class AlarmStageThreads implements Name<Integer> {
+  }
+
+  /**
+   * Injectable source of current time information.
+   * Usually an instance of RealTimer that wraps the system clock.
+   */
+  private final Timer timer;
+
+  /** Alarms scheduled since the clock thread last looked. */
+  private final Queue<ClientAlarm> newAlarms = new ConcurrentLinkedQueue<>();
+
+  /**
+   * Number of outstanding client alarms.
+   * We need it to determine whether event loop is idle (i.e. has no client alarms scheduled)
+   */
+  private final AtomicInteger numClientAlarms = new AtomicInteger(0);
+
+  /** Event handlers - populated with the injectable parameters provided to the TimingWheelClock constructor. */
+  private final PubSubEventHandler<Time> handlers = new PubSubEventHandler<>();
+
+  private final InjectionFuture<Set<EventHandler<StartTime>>> startHandler;
+  private final InjectionFuture<Set<EventHandler<StopTime>>> stopHandler;
+  private final InjectionFuture<Set<EventHandler<RuntimeStart>>> runtimeStartHandler;
+  private final InjectionFuture<Set<EventHandler<RuntimeStop>>> runtimeStopHandler;
+  private final InjectionFuture<Set<EventHandler<IdleClock>>> idleHandler;
+
+  /** Stage to run the alarm handlers on, or null to run them on the clock thread. */
+  private final EStage<Alarm> alarmStage;
+
+  /** The thread of the event loop, to wake up when an earlier alarm is scheduled. */
+  private volatile Thread clockThread = null;
+
+  /**
+   * Timestamp the clock thread sleeps until; Long.MAX_VALUE if it sleeps until woken up,
+   * and Long.MIN_VALUE if it does not sleep.
+   */
+  private volatile long wakeUpTime = Long.MIN_VALUE;
+
+  /** Set to true when the clock is closed. */
+  private volatile boolean isClosed = false;
+
+  /** Set to true when the clock is stopped without waiting for the client alarms. */
+  private volatile boolean isStopped = false;
+
+  /** Exception that caused the clock to stop. */
+  private volatile Throwable exceptionCausedStop = null;
+
+  @Inject
+  private TimingWheelClock(
+      final Timer timer,
+      @Parameter(AlarmStageThreads.class) final int alarmStageThreads,
+      @Parameter(Clock.StartHandler.class)
+          final InjectionFuture<Set<EventHandler<StartTime>>> startHandler,
+      @Parameter(Clock.StopHandler.class)
+          final InjectionFuture<Set<EventHandler<StopTime>>> stopHandler,
+      @Parameter(Clock.RuntimeStartHandler.class)
+          final InjectionFuture<Set<EventHandler<RuntimeStart>>> runtimeStartHandler,
+      @Parameter(Clock.RuntimeStopHandler.class)
+          final InjectionFuture<Set<EventHandler<RuntimeStop>>> runtimeStopHandler,
+      @Parameter(Clock.IdleHandler.class)
+          final InjectionFuture<Set<EventHandler<IdleClock>>> idleHandler) {
+
+    this.timer = timer;
+    this.startHandler = startHandler;
+    this.stopHandler = stopHandler;
+    this.runtimeStartHandler = runtimeStartHandler;
+    this.runtimeStopHandler = runtimeStopHandler;
+    this.idleHandler = idleHandler;
+
+    this.alarmStage = alarmStageThreads > 0
+        ? new ThreadPoolStage<>(CLASS_NAME, new AlarmRunner(), alarmStageThreads, new AlarmErrorHandler())
+        : null;
+
+    LOG.log(Level.FINE, "TimingWheelClock instantiated with {0} alarm stage threads.", alarmStageThreads);
+  }
+
+  /**
+   * Schedule a new Alarm event in `offset` milliseconds into the future,
+   * and supply an event handler to be called at that time.
+   * @param offset Number of milliseconds into the future relative to current time.
+   * @param handler Event handler to be invoked.
+   * @return Newly scheduled alarm.
+   * @throws IllegalStateException if the clock is already closed.
+   */
+  @Override
+  public Time scheduleAlarm(final int offset, final EventHandler<Alarm> handler) {
+
+    final ClientAlarm alarm = new ClientAlarm(this.timer.getCurrent() + offset, handler);
+
+    // Count the alarm before checking for close, so that a concurrent close either rejects it or waits for it.
+    final int eventQueueLen = this.numClientAlarms.incrementAndGet();
+    if (this.isClosed) {
+      this.alarmDone();
+      throw new IllegalStateException("Scheduling alarm on a closed clock");
+    }
+
+    LOG.log(Level.FINEST, "Schedule alarm: {0} Outstanding client alarms: {1}",
+        new Object[] {alarm, eventQueueLen});
+
+    this.newAlarms.add(alarm);
+    if (alarm.getTimestamp() < this.wakeUpTime) {
+      this.wakeUp();
+    }
+
+    return alarm;
+  }
+
+  /**
+   * Stop the clock. Remove all other events from the schedule and fire StopTimer
+   * event immediately. It is recommended to use close() method for graceful shutdown
+   * instead of stop().
+   */
+  @Override
+  public void stop() {
+    this.stop(null);
+  }
+
+  /**
+   * Stop the clock on exception.
+   * Remove all other events from the schedule and fire StopTimer event immediately.
+   * @param exception Exception that is the cause for the stop. Can be null.
+   */
+  @Override
+  public synchronized void stop(final Throwable exception) {
+
+    LOG.entering(CLASS_NAME, "stop");
+
+    if (this.isClosed) {
+      LOG.log(Level.FINEST, "Clock has already been closed");
+      return;
+    }
+
+    LOG.log(Level.FINE, "Stop scheduled immediately. Outstanding client alarms: {0}", this.numClientAlarms.get());
+
+    this.exceptionCausedStop = exception;
+    this.isStopped = true;
+    this.isClosed = true;
+    this.wakeUp();
+
+    LOG.exiting(CLASS_NAME, "stop");
+  }
+
+  /**
+   * Wait for all client alarms to finish executing and gracefully shutdown the clock.
+   */
+  @Override
+  public synchronized void close() {
+
+    LOG.entering(CLASS_NAME, "close");
+
+    if (this.isClosed) {
+      LOG.exiting(CLASS_NAME, "close", "Clock has already been closed");
+      return;
+    }
+
+    LOG.log(Level.FINE, "Graceful shutdown scheduled. Outstanding client alarms: {0}", this.numClientAlarms.get());
+
+    this.isClosed = true;
+    this.wakeUp();
+
+    LOG.exiting(CLASS_NAME, "close");
+  }
+
+  /**
+   * Check if there are no client alarms scheduled.
+   * @return True if there are no client alarms in the schedule, false otherwise.
+   */
+  @Override
+  public boolean isIdle() {
+    return this.isStopped || this.numClientAlarms.get() <= 0;
+  }
+
+  /**
+   * The clock is closed after a call to stop() or close().
+   * A closed clock cannot add new alarms to the schedule, but, in case of the
+   * graceful shutdown, can still invoke previously scheduled ones.
+   * @return true if closed, false otherwise.
+   */
+  @Override
+  public boolean isClosed() {
+    return this.isClosed;
+  }
+
+  /**
+   * Register event handlers for the given event class.
+   * @param eventClass Event type to handle. Must be derived from Time.
+   * @param handlers One or many event handlers that can process given event type.
+   * @param <T> Event type - must be derived from class Time. (i.e. contain a timestamp).
+   */
+  @SuppressWarnings("checkstyle:hiddenfield")
+  private <T extends Time> void subscribe(final Class<T> eventClass, final Set<EventHandler<T>> handlers) {
+    for (final EventHandler<T> handler : handlers) {
+      LOG.log(Level.FINEST, "Subscribe: event {0} handler {1}", new Object[] {eventClass.getName(), handler});
+      this.handlers.subscribe(eventClass, handler);
+    }
+  }
+
+  /**
+   * Main event loop.
+   * Set up the event handlers, and go into event loop that moves the new alarms into the timing wheel
+   * and fires the alarms that are due.
+   */
+  @Override
+  @SuppressWarnings("checkstyle:illegalcatch")
+  public void run() {
+
+    LOG.entering(CLASS_NAME, "run");
+
+    this.clockThread = Thread.currentThread();
+
+    try {
+
+      LOG.log(Level.FINE, "Subscribe event handlers");
+
+      subscribe(StartTime.class, this.startHandler.get());
+      subscribe(StopTime.class, this.stopHandler.get());
+      subscribe(RuntimeStart.class, this.runtimeStartHandler.get());
+      subscribe(RuntimeStop.class, this.runtimeStopHandler.get());
+      subscribe(IdleClock.class, this.idleHandler.get());
+
+      LOG.log(Level.FINE, "Initiate runtime start");
+      this.handlers.onNext(new RuntimeStart(this.timer.getCurrent()));
+
+      LOG.log(Level.FINE, "Initiate start time");
+      this.handlers.onNext(new StartTime(this.timer.getCurrent()));
+
+      final PriorityQueue<Slot> dueSlots = new PriorityQueue<>();
+      final TimingWheel wheel = new TimingWheel(1, this.timer.getCurrent(), dueSlots);
+      final List<ClientAlarm> dueAlarms = new ArrayList<>();
+      boolean idleReported = false;
+
+      while (true) {
+
+        LOG.log(Level.FINEST, "Enter clock main loop.");
+
+        if (this.isStopped) {
+          break;
+        }
+
+        if (this.isIdle()) {
+          if (!idleReported) {
+            // Handle an idle clock event once until the next alarm fires
+            this.handlers.onNext(new IdleClock(this.timer.getCurrent()));
+            idleReported = true;
+            continue;
+          }
+          if (this.isClosed) {
+            break; // graceful shutdown: no client alarms left
+          }
+        }
+
+        for (ClientAlarm alarm = this.newAlarms.poll(); alarm != null; alarm = this.newAlarms.poll()) {
+          if (!wheel.add(alarm)) {
+            dueAlarms.add(alarm);
+          }
+        }
+
+        final long now = this.timer.getCurrent();
+        while (!dueSlots.isEmpty() && dueSlots.peek().getTimestamp() <= now) {
+          final Slot slot = dueSlots.poll();
+          slot.detach();
+          wheel.advanceTo(slot.getTimestamp());
+          for (final ClientAlarm alarm : slot.alarms) {
+            if (!wheel.add(alarm)) {
+              dueAlarms.add(alarm);
+            }
+          }
+        }
+        wheel.advanceTo(now);
+
+        if (!dueAlarms.isEmpty()) {
+          Collections.sort(dueAlarms, BY_TIMESTAMP);
+          LOG.log(Level.FINER, "Fire {0} alarms. Outstanding client alarms: {1}",
+              new Object[] {dueAlarms.size(), this.numClientAlarms.get()});
+          for (final ClientAlarm alarm : dueAlarms) {
+            if (this.isStopped) {
+              break;
+            }
+            this.fire(alarm);
+          }
+          dueAlarms.clear();
+          idleReported = false;
+          continue;
+        }
+
+        this.sleepUntil(dueSlots.peek());
+      }
+
+      final Time stopEvent = new StopTime(this.timer.getCurrent());
+      LOG.log(Level.FINE, "Process event: {0} Outstanding client alarms: {1}",
+          new Object[] {stopEvent, this.numClientAlarms.get()});
+      this.handlers.onNext(stopEvent);
+
+      this.handlers.onNext(new RuntimeStop(this.timer.getCurrent(), this.exceptionCausedStop));
+
+    } catch (final Exception e) {
+
+      LOG.log(Level.SEVERE, "Error in timing wheel clock", e);
+      this.handlers.onNext(new RuntimeStop(this.timer.getCurrent(), e));
+
+    } finally {
+      if (this.alarmStage != null) {
+        try {
+          this.alarmStage.close();
+        } catch (final Exception e) {
+          LOG.log(Level.WARNING, "Error closing the alarm stage", e);
+        }
+      }
+      LOG.log(Level.FINE, "Timing wheel clock exit");
+    }
+
+    LOG.exiting(CLASS_NAME, "run");
+  }
+
+  /**
+   * Run the handler of an alarm on the clock thread or pass it to the alarm stage.
+   */
+  private void fire(final ClientAlarm alarm) {
+    if (this.alarmStage == null) {
+      this.alarmDone();
+      alarm.run();
+    } else {
+      this.alarmStage.onNext(alarm);
+    }
+  }
+
+  /**
+   * Sleep until the start of the given slot, until the clock is woken up, or until the timer says so.
+   * @param nextSlot The next slot to come due, or null to sleep until woken up.
+   */
+  private void sleepUntil(final Slot nextSlot) {
+    this.wakeUpTime = nextSlot == null ? Long.MAX_VALUE : nextSlot.getTimestamp();
+    // Check for work again now that wakeUpTime is published, so that a concurrent scheduleAlarm,
+    // stop or close either sees the new wakeUpTime and wakes us up, or is seen here.
+    if (this.newAlarms.isEmpty() && !this.isStopped && !(this.isClosed && this.isIdle())) {
+      if (nextSlot == null) {
+        LockSupport.park(this);
+      } else {
+        final long waitDuration = this.timer.getDuration(nextSlot);
+        if (waitDuration > 0) {
+          LockSupport.parkNanos(this, TimeUnit.MILLISECONDS.toNanos(waitDuration));
+        }
+      }
+    }
+    this.wakeUpTime = Long.MIN_VALUE;
+  }
+
+  private void wakeUp() {
+    final Thread thread = this.clockThread;
+    if (thread != null) {
+      LockSupport.unpark(thread);
+    }
+  }
+
+  /**
+   * Called once per client alarm when it is no longer outstanding.
+   */
+  private void alarmDone() {
+    if (this.numClientAlarms.decrementAndGet() == 0) {
+      // Let the clock thread report idleness or finish a graceful close
+      this.wakeUp();
+    }
+  }
+
+  /**
+   * Runs the alarm handlers on the alarm stage.
+   */
+  private final class AlarmRunner implements EventHandler<Alarm> {
+    @Override
+    public void onNext(final Alarm alarm) {
+      try {
+        alarm.run();
+      } finally {
+        alarmDone();
+      }
+    }
+  }
+
+  /**
+   * Stops the clock on an exception from an alarm handler on the alarm stage.
+   */
+  private final class AlarmErrorHandler implements EventHandler<Throwable> {
+    @Override
+    public void onNext(final Throwable error) {
+      LOG.log(Level.SEVERE, "Error in alarm handler", error);
+      stop(error);
+    }
+  }
+
+  /**
+   * A slot of the timing wheel: the alarms due in the time span of the slot.
+   * A slot is created when the first alarm is added to it, and leaves the wheel when it comes due.
+   * Its timestamp is the start of its time span.
+   */
+  private static final class Slot extends Time {
+
+    private final TimingWheel wheel;
+    private final int index;
+    private final List<ClientAlarm> alarms = new ArrayList<>();
+
+    Slot(final long startTime, final TimingWheel wheel, final int index) {
+      super(startTime);
+      this.wheel = wheel;
+      this.index = index;
+    }
+
+    void detach() {
+      this.wheel.slots[this.index] = null;
+    }
+  }
+
+  /**
+   * One level of the hierarchical timing wheel. Only accessed by the clock thread.
+   * Each level spans WHEEL_SIZE slots of tickMillis each, starting at currentTime.
+   * Alarms that are due beyond the span of a level go to the next level, which is created on demand.
+   * The non-empty slots of all levels go to a shared priority queue.
+   */
+  private static final class TimingWheel {
+
+    private final long tickMillis;
+    private final long spanMillis;
+    private final Slot[] slots = new Slot[WHEEL_SIZE];
+    private final PriorityQueue<Slot> dueSlots;
+
+    private long currentTime;
+    private TimingWheel overflowWheel = null;
+
+    TimingWheel(final long tickMillis, final long startTime, final PriorityQueue<Slot> dueSlots) {
+      this.tickMillis = tickMillis;
+      this.spanMillis = tickMillis * WHEEL_SIZE;
+      this.dueSlots = dueSlots;
+      this.currentTime = startTime - Math.floorMod(startTime, tickMillis);
+    }
+
+    /**
+     * Add an alarm to the slot of this level or of a higher level that spans its timestamp.
+     * @return false if the alarm is already due and was not added.
+     */
+    boolean add(final ClientAlarm alarm) {
+      final long timestamp = alarm.getTimestamp();
+      if (timestamp < this.currentTime + this.tickMillis) {
+        return false;
+      }
+      if (timestamp < this.currentTime + this.spanMillis) {
+        final long tick = Math.floorDiv(timestamp, this.tickMillis);
+        final int index = (int) Math.floorMod(tick, WHEEL_SIZE);
+        Slot slot = this.slots[index];
+        if (slot == null) {
+          slot = new Slot(tick * this.tickMillis, this, index);
+          this.slots[index] = slot;
+          this.dueSlots.add(slot);
+        }
+        slot.alarms.add(alarm);
+        return true;
+      }
+      if (this.overflowWheel == null) {
+        this.overflowWheel = new TimingWheel(this.spanMillis, this.currentTime, this.dueSlots);
+      }
+      return this.overflowWheel.add(alarm);
+    }
+
+    /**
+     * Advance the current time of this level and of the higher levels.
+     * All the slots that start before the given time must have been taken out of the wheel.
+     */
+    void advanceTo(final long time) {
+      if (time >= this.currentTime + this.tickMillis) {
+        this.currentTime = time - Math.floorMod(time, this.tickMillis);
+        if (this.overflowWheel != null) {
+          this.overflowWheel.advanceTo(this.currentTime);
+        }
+      }
+    }
+  }
+}
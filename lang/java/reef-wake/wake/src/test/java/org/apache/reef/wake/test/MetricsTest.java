@@ -19,13 +19,25 @@
 package org.apache.reef.wake.test;
 
 
+import org.apache.reef.wake.EventHandler;
+import org.apache.reef.wake.impl.SingleThreadStage;
+import org.apache.reef.wake.impl.StageManager;
+import org.apache.reef.wake.impl.ThreadPoolStage;
 import org.apache.reef.wake.metrics.Histogram;
+import org.apache.reef.wake.metrics.LogLinearHistogram;
+import org.apache.reef.wake.metrics.Meter;
+import org.apache.reef.wake.metrics.StageMetrics;
 import org.apache.reef.wake.metrics.UniformHistogram;
+import org.junit.Assert;
 import org.junit.Rule;
 import org.junit.Test;
 import org.junit.rules.TestName;
 
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Random;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
 
 /**
  * Metrics tests.
@@ -52,4 +64,106 @@ public class MetricsTest {
       histogram.getValue(i);
     }
   }
+
+  @Test
+  public void testLogLinearHistogram() throws Exception {
+    System.out.println(LOG_PREFIX + name.getMethodName());
+
+    final LogLinearHistogram histogram = new LogLinearHistogram();
+    Assert.assertEquals(0, histogram.getPercentile(50));
+
+    for (int i = 1; i <= 1000000; ++i) {
+      histogram.update(i);
+    }
+    Assert.assertEquals(1000000, histogram.getCount());
+
+    // Each bin is at most 1/16th of its lower bound wide
+    assertWithinBin(500000, histogram.getPercentile(50));
+    assertWithinBin(990000, histogram.getPercentile(99));
+    assertWithinBin(999000, histogram.getPercentile(99.9));
+    assertWithinBin(1000000, histogram.getPercentile(100));
+
+    long total = 0;
+    for (int i = 0; i < histogram.getNumBins(); ++i) {
+      total += histogram.getValue(i);
+    }
+    Assert.assertEquals(histogram.getCount(), total);
+
+    histogram.reset();
+    Assert.assertEquals(0, histogram.getCount());
+    Assert.assertEquals(0, histogram.getPercentile(50));
+  }
+
+  private static void assertWithinBin(final long expected, final long actual) {
+    Assert.assertTrue("Expected about " + expected + " but was " + actual,
+        actual >= expected && actual <= expected + expected / 16);
+  }
+
+  @Test
+  public void testMeterFromManyThreads() throws Exception {
+    System.out.println(LOG_PREFIX + name.getMethodName());
+
+    final Meter meter = new Meter("test");
+    final List<Thread> threads = new ArrayList<>();
+    for (int t = 0; t < 8; ++t) {
+      threads.add(new Thread(new Runnable() {
+        @Override
+        public void run() {
+          for (int i = 0; i < 100000; ++i) {
+            meter.mark(1);
+          }
+        }
+      }));
+    }
+    for (final Thread thread : threads) {
+      thread.start();
+    }
+    for (final Thread thread : threads) {
+      thread.join();
+    }
+    Assert.assertEquals(800000, meter.getCount());
+    Assert.assertTrue(meter.getMeanThp() > 0);
+  }
+
+  @Test
+  public void testStageLatencyMetrics() throws Exception {
+    System.out.println(LOG_PREFIX + name.getMethodName());
+
+    final int numEvents = 1000;
+    final CountDownLatch latch = new CountDownLatch(2 * numEvents);
+    final EventHandler<Integer> handler = new EventHandler<Integer>() {
+      @Override
+      public void onNext(final Integer value) {
+        latch.countDown();
+      }
+    };
+
+    StageManager.instance().setLatencyRecording(true);
+    try (ThreadPoolStage<Integer> threadPoolStage = new ThreadPoolStage<>("metricsThreadPool", handler, 2);
+         SingleThreadStage<Integer> singleThreadStage =
+             new SingleThreadStage<>("metricsSingleThread", handler, numEvents)) {
+      for (int i = 0; i < numEvents; ++i) {
+        threadPoolStage.onNext(i);
+        singleThreadStage.onNext(i);
+      }
+      Assert.assertTrue(latch.await(10, TimeUnit.SECONDS));
+    } finally {
+      StageManager.instance().setLatencyRecording(false);
+    }
+
+    int numStages = 0;
+    for (final StageMetrics metrics : StageManager.instance().getMetrics()) {
+      if (metrics.getStageName().startsWith("metrics")) {
+        System.out.println(LOG_PREFIX + metrics);
+        Assert.assertEquals(numEvents, metrics.getInCount());
+        Assert.assertEquals(numEvents, metrics.getOutCount());
+        Assert.assertEquals(0, metrics.getQueueDepth());
+        Assert.assertEquals(numEvents, metrics.getQueueWait().getCount());
+        Assert.assertEquals(numEvents, metrics.getServiceTime().getCount());
+        Assert.assertTrue(metrics.getQueueWait().getP50() <= metrics.getQueueWait().getP999());
+        ++numStages;
+      }
+    }
+    Assert.assertEquals(2, numStages);
+  }
 }
@@ -0,0 +1,348 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.reef.wake.test;
+
+import org.apache.reef.wake.EventHandler;
+import org.apache.reef.wake.impl.RingBufferStage;
+import org.apache.reef.wake.impl.RingBufferStage.OverflowPolicy;
+import org.apache.reef.wake.impl.RingBufferStage.WaitStrategy;
+import org.junit.Assert;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TestName;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Ring buffer stage tests.
+ */
+public class RingBufferStageTest {
+
+  private static final String LOG_PREFIX = "TEST ";
+  @Rule
+  public TestName name = new TestName();
+
+  /**
+   * Events from several producers are all handled, each producer's in order.
+   */
+  @Test(timeout = 20000)
+  public void testMultipleProducers() throws Exception {
+    System.out.println(LOG_PREFIX + name.getMethodName());
+
+    final int numProducers = 4;
+    final int numEvents = 10000;
+    final int[] last = new int[numProducers];
+    final AtomicInteger outOfOrder = new AtomicInteger(0);
+
+    for (final WaitStrategy waitStrategy : WaitStrategy.values()) {
+      if (waitStrategy == WaitStrategy.SPIN && Runtime.getRuntime().availableProcessors() < 2) {
+        // A spinning consumer needs a processor of its own
+        continue;
+      }
+      final RingBufferStage<Integer> stage = new RingBufferStage<>(name.getMethodName(), new EventHandler<Integer>() {
+        @Override
+        public void onNext(final Integer value) {
+          final int producer = value % numProducers;
+          if (value / numProducers != last[producer]) {
+            outOfOrder.incrementAndGet();
+          }
+          last[producer] = value / numProducers + 1;
+        }
+      }, 16, waitStrategy, OverflowPolicy.BLOCK, 8, null);
+
+      final List<Thread> producers = new ArrayList<>();
+      for (int p = 0; p < numProducers; ++p) {
+        final int producer = p;
+        last[p] = 0;
+        producers.add(new Thread(new Runnable() {
+          @Override
+          public void run() {
+            for (int i = 0; i < numEvents; ++i) {
+              stage.onNext(i * numProducers + producer);
+            }
+          }
+        }));
+      }
+      for (final Thread producer : producers) {
+        producer.start();
+      }
+      for (final Thread producer : producers) {
+        producer.join();
+      }
+      stage.close();
+
+      Assert.assertEquals(waitStrategy.toString(), 0, outOfOrder.get());
+      Assert.assertEquals(waitStrategy.toString(), numProducers * numEvents, stage.getOutMeter().getCount());
+      for (int p = 0; p < numProducers; ++p) {
+        Assert.assertEquals(numEvents, last[p]);
+      }
+    }
+  }
+
+  /**
+   * A full buffer blocks the producer until the consumer makes room.
+   */
+  @Test(timeout = 10000)
+  public void testBlockWhenFull() throws Exception {
+    System.out.println(LOG_PREFIX + name.getMethodName());
+
+    final CountDownLatch release = new CountDownLatch(1);
+    final RingBufferStage<Integer> stage = new RingBufferStage<>(new BlockingHandler(release), 4);
+    Assert.assertEquals(4, stage.getCapacity());
+
+    final AtomicInteger produced = new AtomicInteger(0);
+    final Thread producer = new Thread(new Runnable() {
+      @Override
+      public void run() {
+        for (int i = 0; i < 10; ++i) {
+          stage.onNext(i);
+          produced.incrementAndGet();
+        }
+      }
+    });
+    producer.start();
+
+    // The consumer holds one event in the handler and the buffer holds four more
+    producer.join(500);
+    Assert.assertTrue(producer.isAlive());
+    Assert.assertEquals(5, produced.get());
+
+    release.countDown();
+    producer.join();
+    stage.close();
+    Assert.assertEquals(10, stage.getOutMeter().getCount());
+  }
+
+  /**
+   * Under DROP_OLDEST, the producer never blocks and the newest events are kept.
+   */
+  @Test(timeout = 10000)
+  public void testDropOldest() throws Exception {
+    System.out.println(LOG_PREFIX + name.getMethodName());
+
+    final CountDownLatch release = new CountDownLatch(1);
+    final BlockingHandler handler = new BlockingHandler(release);
+    final RingBufferStage<Integer> stage = new RingBufferStage<>(name.getMethodName(), handler, 4,
+        WaitStrategy.PARK, OverflowPolicy.DROP_OLDEST, RingBufferStage.DEFAULT_BATCH_SIZE, null);
+
+    stage.onNext(0);
+    handler.awaitStarted();
+    for (int i = 1; i <= 10; ++i) {
+      stage.onNext(i);
+    }
+    Assert.assertEquals(6, stage.getDroppedCount());
+    // The event in the handler and the four queued ones
+    Assert.assertEquals(5, stage.getMetrics().getQueueDepth());
+
+    release.countDown();
+    stage.close();
+    Assert.assertEquals(Arrays.asList(0, 7, 8, 9, 10), handler.getHandled());
+    Assert.assertEquals(0, stage.getMetrics().getQueueDepth());
+  }
+
+  /**
+   * Under REJECT, a full buffer makes offer() return false and onNext() throw.
+   */
+  @Test(timeout = 10000)
+  public void testReject() throws Exception {
+    System.out.println(LOG_PREFIX + name.getMethodName());
+
+    final CountDownLatch release = new CountDownLatch(1);
+    final BlockingHandler handler = new BlockingHandler(release);
+    final RingBufferStage<Integer> stage = new RingBufferStage<>(name.getMethodName(), handler, 2,
+        WaitStrategy.YIELD, OverflowPolicy.REJECT, RingBufferStage.DEFAULT_BATCH_SIZE, null);
+
+    Assert.assertTrue(stage.offer(0));
+    handler.awaitStarted();
+    Assert.assertTrue(stage.offer(1));
+    Assert.assertTrue(stage.offer(2));
+    Assert.assertFalse(stage.offer(3));
+    try {
+      stage.onNext(4);
+      Assert.fail("No exception thrown");
+    } catch (final RejectedExecutionException e) {
+      Assert.assertFalse(handler.getHandled().contains(4));
+    }
+
+    release.countDown();
+    stage.close();
+    Assert.assertEquals(Arrays.asList(0, 1, 2), handler.getHandled());
+    Assert.assertEquals(3, stage.getInMeter().getCount());
+  }
+
+  /**
+   * Exceptions from the handler go to the error handler and do not stop the stage.
+   */
+  @Test(timeout = 10000)
+  public void testErrorHandler() throws Exception {
+    System.out.println(LOG_PREFIX + name.getMethodName());
+
+    final AtomicInteger errors = new AtomicInteger(0);
+    final RingBufferStage<Integer> stage = new RingBufferStage<>(name.getMethodName(), new EventHandler<Integer>() {
+      @Override
+      public void onNext(final Integer value) {
+        if (value % 2 == 0) {
+          throw new IllegalArgumentException("even");
+        }
+      }
+    }, 8, WaitStrategy.PARK, OverflowPolicy.BLOCK, 2, new EventHandler<Throwable>() {
+      @Override
+      public void onNext(final Throwable value) {
+        errors.incrementAndGet();
+      }
+    });
+
+    for (int i = 0; i < 100; ++i) {
+      stage.onNext(i);
+    }
+    stage.close();
+    Assert.assertEquals(50, errors.get());
+    Assert.assertEquals(100, stage.getOutMeter().getCount());
+  }
+
+  /**
+   * Closing the stage handles the queued events and rejects new ones.
+   */
+  @Test(timeout = 10000)
+  public void testCloseDrains() throws Exception {
+    System.out.println(LOG_PREFIX + name.getMethodName());
+
+    final CountDownLatch release = new CountDownLatch(1);
+    final BlockingHandler handler = new BlockingHandler(release);
+    final RingBufferStage<Integer> stage = new RingBufferStage<>(handler, 16);
+    for (int i = 0; i < 10; ++i) {
+      stage.onNext(i);
+    }
+    handler.awaitStarted();
+
+    final Thread closer = new Thread(new Runnable() {
+      @Override
+      public void run() {
+        try {
+          stage.close();
+        } catch (final Exception e) {
+          throw new RuntimeException(e);
+        }
+      }
+    });
+    closer.start();
+    while (!stage.isClosed()) {
+      Thread.yield();
+    }
+    try {
+      stage.onNext(10);
+      Assert.fail("No exception thrown");
+    } catch (final IllegalStateException e) {
+      Assert.assertTrue(stage.isClosed());
+    }
+
+    release.countDown();
+    closer.join();
+    Assert.assertEquals(10, handler.getHandled().size());
+  }
+
+  /**
+   * Every event accepted by onNext() while the stage is being closed is handled; the others are rejected.
+   */
+  @Test(timeout = 20000)
+  public void testCloseWhileProducing() throws Exception {
+    System.out.println(LOG_PREFIX + name.getMethodName());
+
+    final int numProducers = 4;
+    for (int round = 0; round < 20; ++round) {
+      final AtomicInteger handled = new AtomicInteger(0);
+      final AtomicInteger accepted = new AtomicInteger(0);
+      final RingBufferStage<Integer> stage = new RingBufferStage<>(name.getMethodName(), new EventHandler<Integer>() {
+        @Override
+        public void onNext(final Integer value) {
+          handled.incrementAndGet();
+        }
+      }, 64, WaitStrategy.PARK, OverflowPolicy.BLOCK, 8, null);
+
+      final CountDownLatch started = new CountDownLatch(numProducers);
+      final List<Thread> producers = new ArrayList<>();
+      for (int p = 0; p < numProducers; ++p) {
+        producers.add(new Thread(new Runnable() {
+          @Override
+          public void run() {
+            started.countDown();
+            try {
+              for (int i = 0;; ++i) {
+                stage.onNext(i);
+                accepted.incrementAndGet();
+              }
+            } catch (final IllegalStateException e) {
+              Assert.assertTrue(stage.isClosed());
+            }
+          }
+        }));
+      }
+      for (final Thread producer : producers) {
+        producer.start();
+      }
+      started.await();
+      stage.close();
+      for (final Thread producer : producers) {
+        producer.join();
+      }
+
+      Assert.assertEquals("Round " + round, accepted.get(), handled.get());
+    }
+  }
+
+  /**
+   * Records the events it handles, holding the first one until released.
+   */
+  private static final class BlockingHandler implements EventHandler<Integer> {
+
+    private final CountDownLatch release;
+    private final CountDownLatch started = new CountDownLatch(1);
+    private final List<Integer> handled = Collections.synchronizedList(new ArrayList<Integer>());
+
+    BlockingHandler(final CountDownLatch release) {
+      this.release = release;
+    }
+
+    @Override
+    public void onNext(final Integer value) {
+      started.countDown();
+      try {
+        release.await();
+      } catch (final InterruptedException e) {
+        throw new RuntimeException(e);
+      }
+      handled.add(value);
+    }
+
+    void awaitStarted() throws InterruptedException {
+      Assert.assertTrue(started.await(5, TimeUnit.SECONDS));
+    }
+
+    List<Integer> getHandled() {
+      return handled;
+    }
+  }
+}
@@ -0,0 +1,243 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.reef.wake.test.remote;
+
+import org.apache.reef.tang.Injector;
+import org.apache.reef.tang.Tang;
+import org.apache.reef.tang.exceptions.InjectionException;
+import org.apache.reef.wake.EventHandler;
+import org.apache.reef.wake.impl.LoggingEventHandler;
+import org.apache.reef.wake.impl.LoggingUtils;
+import org.apache.reef.wake.remote.*;
+import org.apache.reef.wake.remote.address.LocalAddressProvider;
+import org.apache.reef.wake.remote.impl.ObjectSerializableCodec;
+import org.apache.reef.wake.remote.ports.TcpPortProvider;
+import org.junit.Assert;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TestName;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.logging.Level;
+
+/**
+ * Multi-sender tests for the remote manager in serial and concurrent dispatch modes.
+ */
+public class ConcurrentDispatchTest {
+
+  private static final String LOG_PREFIX = "TEST ";
+
+  /** Number of messages each sender sends. */
+  private static final int NUM_MESSAGES = 250;
+
+  /** Simulated handler service time, in milliseconds. */
+  private static final long HANDLER_DELAY = 1;
+
+  private static final long TIMEOUT = 60; // seconds
+
+  /** How long a handler waits for the handler of another sender to start, in milliseconds. */
+  private static final long OVERLAP_WAIT = 2000;
+
+  private final LocalAddressProvider localAddressProvider;
+  private final TcpPortProvider tcpPortProvider;
+
+  @Rule
+  public final TestName name = new TestName();
+
+  public ConcurrentDispatchTest() throws InjectionException {
+    final Injector injector = Tang.Factory.getTang().newInjector();
+    this.localAddressProvider = injector.getInstance(LocalAddressProvider.class);
+    this.tcpPortProvider = injector.getInstance(TcpPortProvider.class);
+  }
+
+  /**
+   * Messages from several senders must all arrive, in order per sender, when dispatched concurrently.
+   */
+  @Test
+  public void testConcurrentDispatchKeepsPerSenderOrder() throws Exception {
+    System.out.println(LOG_PREFIX + name.getMethodName());
+    LoggingUtils.setLoggingLevel(Level.INFO);
+
+    final long elapsed = runSenders(4, true);
+    System.out.println(LOG_PREFIX + "4 senders, concurrent dispatch: " + elapsed + " ms");
+  }
+
+  /**
+   * Messages from different senders must be handled at the same time when dispatched concurrently.
+   * The handler of the first message of each sender waits for the first message of the other sender,
+   * so both handlers run at once.
+   */
+  @Test
+  public void testConcurrentDispatchRunsHandlersInParallel() throws Exception {
+    System.out.println(LOG_PREFIX + name.getMethodName());
+    LoggingUtils.setLoggingLevel(Level.INFO);
+
+    Assert.assertEquals("Handlers of two senders should run at the same time", 2, maxRunningHandlers(true));
+  }
+
+  /**
+   * The serialized container must never run two handlers at the same time,
+   * even while the handler of one sender waits for the message of another.
+   */
+  @Test
+  public void testSerialDispatchRunsOneHandlerAtATime() throws Exception {
+    System.out.println(LOG_PREFIX + name.getMethodName());
+    LoggingUtils.setLoggingLevel(Level.INFO);
+
+    Assert.assertEquals("Serial dispatch ran two handlers at the same time", 1, maxRunningHandlers(false));
+  }
+
+  /**
+   * Send the first message from each of two remote managers to one receiver. The handler of each message
+   * waits until the handler of the other message starts, or for OVERLAP_WAIT if it does not.
+   * @return the largest number of handlers that ran at the same time.
+   */
+  private int maxRunningHandlers(final boolean concurrentDispatch) throws Exception {
+
+    final String hostAddress = this.localAddressProvider.getLocalAddress();
+    final CountDownLatch started = new CountDownLatch(2);
+    final CountDownLatch done = new CountDownLatch(2);
+    final AtomicInteger running = new AtomicInteger(0);
+    final AtomicInteger maxRunning = new AtomicInteger(0);
+
+    try (RemoteManager receiver = newRemoteManager("receiver", hostAddress, concurrentDispatch);
+         RemoteManager sender0 = newRemoteManager("sender0", hostAddress, concurrentDispatch);
+         RemoteManager sender1 = newRemoteManager("sender1", hostAddress, concurrentDispatch)) {
+
+      receiver.registerHandler(TestEvent.class, new EventHandler<RemoteMessage<TestEvent>>() {
+        @Override
+        public void onNext(final RemoteMessage<TestEvent> value) {
+          final int nowRunning = running.incrementAndGet();
+          int max = maxRunning.get();
+          while (nowRunning > max && !maxRunning.compareAndSet(max, nowRunning)) {
+            max = maxRunning.get();
+          }
+          started.countDown();
+          try {
+            started.await(OVERLAP_WAIT, TimeUnit.MILLISECONDS);
+          } catch (final InterruptedException e) {
+            throw new RuntimeException(e);
+          }
+          running.decrementAndGet();
+          done.countDown();
+        }
+      });
+
+      sender0.<TestEvent>getHandler(receiver.getMyIdentifier(), TestEvent.class).onNext(new TestEvent("sender0", 0));
+      sender1.<TestEvent>getHandler(receiver.getMyIdentifier(), TestEvent.class).onNext(new TestEvent("sender1", 0));
+
+      Assert.assertTrue("Timed out waiting for messages", done.await(TIMEOUT, TimeUnit.SECONDS));
+      return maxRunning.get();
+    }
+  }
+
+  /**
+   * Send NUM_MESSAGES messages from each of numSenders remote managers to one receiver
+   * with the ordering guarantee on, and wait for all of them to be handled.
+   * @return time in milliseconds from the first send to the last message handled.
+   */
+  private long runSenders(final int numSenders, final boolean concurrentDispatch) throws Exception {
+
+    final String hostAddress = this.localAddressProvider.getLocalAddress();
+    final CountDownLatch done = new CountDownLatch(numSenders * NUM_MESSAGES);
+    final ConcurrentMap<String, AtomicInteger> nextSeq = new ConcurrentHashMap<>();
+    final AtomicInteger outOfOrder = new AtomicInteger(0);
+
+    final List<RemoteManager> senders = new ArrayList<>(numSenders);
+
+    try (RemoteManager receiver = newRemoteManager("receiver", hostAddress, concurrentDispatch)) {
+
+      receiver.registerHandler(TestEvent.class, new EventHandler<RemoteMessage<TestEvent>>() {
+        @Override
+        public void onNext(final RemoteMessage<TestEvent> value) {
+          final TestEvent event = value.getMessage();
+          final AtomicInteger expected = nextSeq.get(event.getMessage());
+          if (expected.getAndIncrement() != (int) event.getLoad()) {
+            outOfOrder.incrementAndGet();
+          }
+          try {
+            Thread.sleep(HANDLER_DELAY);
+          } catch (final InterruptedException e) {
+            throw new RuntimeException(e);
+          }
+          done.countDown();
+        }
+      });
+
+      final List<EventHandler<TestEvent>> proxies = new ArrayList<>(numSenders);
+      for (int i = 0; i < numSenders; ++i) {
+        final RemoteManager sender = newRemoteManager("sender" + i, hostAddress, concurrentDispatch);
+        senders.add(sender);
+        proxies.add(sender.<TestEvent>getHandler(receiver.getMyIdentifier(), TestEvent.class));
+        nextSeq.put("sender" + i, new AtomicInteger(0));
+      }
+
+      final long startTime = System.currentTimeMillis();
+
+      final List<Thread> threads = new ArrayList<>(numSenders);
+      for (int i = 0; i < numSenders; ++i) {
+        final String senderName = "sender" + i;
+        final EventHandler<TestEvent> proxy = proxies.get(i);
+        final Thread thread = new Thread(new Runnable() {
+          @Override
+          public void run() {
+            for (int seq = 0; seq < NUM_MESSAGES; ++seq) {
+              proxy.onNext(new TestEvent(senderName, seq));
+            }
+          }
+        });
+        threads.add(thread);
+        thread.start();
+      }
+
+      for (final Thread thread : threads) {
+        thread.join();
+      }
+
+      Assert.assertTrue("Timed out waiting for messages", done.await(TIMEOUT, TimeUnit.SECONDS));
+      final long elapsed = System.currentTimeMillis() - startTime;
+
+      Assert.assertEquals("Messages from one sender were reordered", 0, outOfOrder.get());
+
+      return elapsed;
+
+    } finally {
+      for (final RemoteManager sender : senders) {
+        sender.close();
+      }
+    }
+  }
+
+  private RemoteManager newRemoteManager(final String rmName, final String hostAddress,
+                                         final boolean concurrentDispatch) throws InjectionException {
+
+    final Injector injector = Tang.Factory.getTang().newInjector();
+    injector.bindVolatileParameter(RemoteConfiguration.ConcurrentDispatch.class, concurrentDispatch);
+
+    return injector.getInstance(RemoteManagerFactory.class).getInstance(
+        rmName, hostAddress, 0, new ObjectSerializableCodec<TestEvent>(), new LoggingEventHandler<Throwable>(),
+        true, 3, 10000, this.localAddressProvider, this.tcpPortProvider);
+  }
+}
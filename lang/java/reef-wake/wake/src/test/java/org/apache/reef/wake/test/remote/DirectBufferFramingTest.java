@@ -0,0 +1,424 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.reef.wake.test.remote;
+
+import com.google.protobuf.ByteString;
+import com.google.protobuf.UnknownFieldSet;
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.Unpooled;
+import org.apache.reef.tang.Injector;
+import org.apache.reef.tang.Tang;
+import org.apache.reef.tang.exceptions.InjectionException;
+import org.apache.reef.wake.EStage;
+import org.apache.reef.wake.EventHandler;
+import org.apache.reef.wake.impl.LoggingEventHandler;
+import org.apache.reef.wake.impl.LoggingUtils;
+import org.apache.reef.wake.remote.RemoteConfiguration;
+import org.apache.reef.wake.remote.RemoteManager;
+import org.apache.reef.wake.remote.RemoteManagerFactory;
+import org.apache.reef.wake.remote.RemoteMessage;
+import org.apache.reef.wake.remote.address.LocalAddressProvider;
+import org.apache.reef.wake.remote.impl.ByteCodec;
+import org.apache.reef.wake.remote.impl.RemoteEvent;
+import org.apache.reef.wake.remote.impl.RemoteEventDecoder;
+import org.apache.reef.wake.remote.impl.RemoteEventEncoder;
+import org.apache.reef.wake.remote.impl.TransportEvent;
+import org.apache.reef.wake.remote.ports.TcpPortProvider;
+import org.apache.reef.wake.remote.proto.WakeRemoteProtos.WakeMessagePBuf;
+import org.apache.reef.wake.remote.transport.Link;
+import org.apache.reef.wake.remote.transport.Transport;
+import org.apache.reef.wake.remote.transport.TransportFactory;
+import org.apache.reef.wake.remote.transport.netty.ByteBufEncoder;
+import org.apache.reef.wake.remote.transport.netty.LoggingLinkListener;
+import org.junit.Assert;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TestName;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.net.InetSocketAddress;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.logging.Level;
+
+/**
+ * Tests for the direct buffer framing mode of the Netty transport.
+ */
+public class DirectBufferFramingTest {
+
+  private static final String LOG_PREFIX = "TEST ";
+
+  private static final int MB = 1024 * 1024;
+
+  private static final long TIMEOUT = 60; // seconds
+
+  private final LocalAddressProvider localAddressProvider;
+
+  @Rule
+  public final TestName name = new TestName();
+
+  public DirectBufferFramingTest() throws InjectionException {
+    this.localAddressProvider = Tang.Factory.getTang().newInjector().getInstance(LocalAddressProvider.class);
+  }
+
+  /**
+   * Messages of up to twice the chunk size of the default pipeline arrive intact in direct framing mode.
+   */
+  @Test
+  public void testDirectFramingLargeMessages() throws Exception {
+    System.out.println(LOG_PREFIX + name.getMethodName());
+    LoggingUtils.setLoggingLevel(Level.INFO);
+
+    final int[] sizes = {1, 1024, MB, 20 * MB};
+    Assert.assertEquals(0, sendMessages(true, sizes, 1).getMismatches());
+  }
+
+  /**
+   * Compares the heap allocation of all threads and the throughput of both framing modes.
+   * The direct mode serializes into pooled buffers and must allocate less heap per message.
+   */
+  @Test
+  public void testDirectFramingAllocation() throws Exception {
+    System.out.println(LOG_PREFIX + name.getMethodName());
+    LoggingUtils.setLoggingLevel(Level.INFO);
+
+    final int[] sizes = {MB};
+    final int numMessages = 50;
+
+    // Warm up the pools and the JIT before measuring
+    sendMessages(false, sizes, 5);
+    sendMessages(true, sizes, 5);
+
+    final Result legacy = sendMessages(false, sizes, numMessages);
+    final Result direct = sendMessages(true, sizes, numMessages);
+
+    System.out.println(LOG_PREFIX + "byte[] framing: " + legacy);
+    System.out.println(LOG_PREFIX + "direct framing: " + direct);
+
+    Assert.assertEquals(0, legacy.getMismatches());
+    Assert.assertEquals(0, direct.getMismatches());
+    if (legacy.getAllocatedBytes() >= 0) {
+      Assert.assertTrue("Direct framing should allocate less heap",
+          direct.getAllocatedBytes() < legacy.getAllocatedBytes());
+    }
+  }
+
+  /**
+   * Messages sent through a remote manager arrive intact in both framing modes,
+   * with and without the ordering guarantee.
+   */
+  @Test
+  public void testRemoteManager() throws Exception {
+    System.out.println(LOG_PREFIX + name.getMethodName());
+    LoggingUtils.setLoggingLevel(Level.INFO);
+
+    for (final boolean directFraming : new boolean[] {false, true}) {
+      for (final boolean orderingGuarantee : new boolean[] {false, true}) {
+        sendThroughRemoteManager(directFraming, orderingGuarantee);
+      }
+    }
+  }
+
+  /**
+   * The remote event codec must stay compatible with the generated WakeMessagePBuf code,
+   * including messages with fields it does not know.
+   */
+  @Test
+  public void testRemoteEventCodecWireFormat() throws Exception {
+    System.out.println(LOG_PREFIX + name.getMethodName());
+
+    final byte[] payload = new byte[300];
+    fill(payload, 7);
+
+    final RemoteEventEncoder<byte[]> encoder = new RemoteEventEncoder<>(new ByteCodec());
+    final RemoteEventDecoder<byte[]> decoder = new RemoteEventDecoder<>(new ByteCodec());
+
+    for (final long seq : new long[] {0, 1, 300, Long.MAX_VALUE, -1}) {
+
+      final RemoteEvent<byte[]> event = new RemoteEvent<>(null, null, seq, payload);
+      final byte[] expected = WakeMessagePBuf.newBuilder()
+          .setSeq(seq).setData(ByteString.copyFrom(payload)).build().toByteArray();
+
+      final byte[] encoded = encoder.encode(event);
+      Assert.assertArrayEquals(expected, encoded);
+
+      final ByteBuf buf = Unpooled.buffer(1);
+      try {
+        encoder.encode(event, buf);
+        final byte[] bufBytes = new byte[buf.readableBytes()];
+        buf.readBytes(bufBytes);
+        Assert.assertArrayEquals(expected, bufBytes);
+      } finally {
+        buf.release();
+      }
+
+      final RemoteEvent<byte[]> decoded = decoder.decode(expected);
+      Assert.assertEquals(seq, decoded.getSeq());
+      Assert.assertArrayEquals(payload, decoded.getEvent());
+
+      final ByteBuf frame = Unpooled.wrappedBuffer(expected);
+      try {
+        final RemoteEvent<byte[]> decodedFrame = decoder.decode(frame);
+        Assert.assertEquals(seq, decodedFrame.getSeq());
+        Assert.assertArrayEquals(payload, decodedFrame.getEvent());
+      } finally {
+        frame.release();
+      }
+    }
+
+    // Field 3 (a string, as the .NET side sends) must be skipped
+    final byte[] withUnknownField = WakeMessagePBuf.newBuilder()
+        .setSeq(5).setData(ByteString.copyFrom(payload)).build().toBuilder()
+        .setUnknownFields(UnknownFieldSet.newBuilder()
+            .addField(3, UnknownFieldSet.Field.newBuilder()
+                .addLengthDelimited(ByteString.copyFromUtf8("source")).build())
+            .build())
+        .build().toByteArray();
+    final RemoteEvent<byte[]> decoded = decoder.decode(withUnknownField);
+    Assert.assertEquals(5, decoded.getSeq());
+    Assert.assertArrayEquals(payload, decoded.getEvent());
+  }
+
+  /**
+   * Send numMessages messages of each size over a transport and check their content on arrival.
+   */
+  private Result sendMessages(final boolean directFraming, final int[] sizes, final int numMessages)
+      throws Exception {
+
+    final Injector injector = Tang.Factory.getTang().newInjector();
+    injector.bindVolatileParameter(RemoteConfiguration.DirectBufferFraming.class, directFraming);
+    final TransportFactory tpFactory = injector.getInstance(TransportFactory.class);
+
+    final String hostAddress = this.localAddressProvider.getLocalAddress();
+    final CountDownLatch warmUp = new CountDownLatch(1);
+    final CountDownLatch done = new CountDownLatch(sizes.length * numMessages + 1);
+    final AtomicInteger mismatches = new AtomicInteger(0);
+
+    final EStage<TransportEvent> stage = new EStage<TransportEvent>() {
+      @Override
+      public void onNext(final TransportEvent value) {
+        final byte[] data = value.getData();
+        if (!isFilled(data)) {
+          mismatches.incrementAndGet();
+        }
+        warmUp.countDown();
+        done.countDown();
+      }
+
+      @Override
+      public void close() {
+      }
+    };
+
+    final byte[][] messages = new byte[sizes.length][];
+    for (int i = 0; i < sizes.length; ++i) {
+      messages[i] = new byte[sizes[i]];
+      fill(messages[i], sizes[i]);
+    }
+
+    try (Transport transport = tpFactory.newInstance(hostAddress, 0, stage, stage, 1, 10000)) {
+
+      // The default pipeline is measured with a plain encoder, as it was used before direct framing
+      final Link<byte[]> link = transport.open(new InetSocketAddress(hostAddress, transport.getListeningPort()),
+          directFraming ? new ArrayBufEncoder() : new ByteCodec(), new LoggingLinkListener<byte[]>());
+
+      // Make sure both ends of the connection are running before taking the snapshot
+      link.write(messages[0]);
+      Assert.assertTrue("Timed out waiting for the first message", warmUp.await(TIMEOUT, TimeUnit.SECONDS));
+
+      final Map<Long, Long> startAllocated = getAllocatedBytes();
+      final long startTime = System.nanoTime();
+
+      for (int n = 0; n < numMessages; ++n) {
+        for (final byte[] message : messages) {
+          link.write(message);
+        }
+      }
+
+      Assert.assertTrue("Timed out waiting for messages", done.await(TIMEOUT, TimeUnit.SECONDS));
+
+      // Threads that come and go during the measurement are left out
+      long allocated = 0;
+      for (final Map.Entry<Long, Long> entry : getAllocatedBytes().entrySet()) {
+        final Long start = startAllocated.get(entry.getKey());
+        if (start != null && entry.getValue() >= start) {
+          allocated += entry.getValue() - start;
+        }
+      }
+
+      final long elapsedMs = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startTime);
+      long totalBytes = 0;
+      for (final int size : sizes) {
+        totalBytes += (long) size * numMessages;
+      }
+
+      return new Result(mismatches.get(), startAllocated.isEmpty() ? -1 : allocated, totalBytes, elapsedMs);
+    }
+  }
+
+  /**
+   * Send messages of several sizes from a remote manager to itself and check their content on arrival.
+   * They must also arrive in order when the ordering guarantee is set.
+   */
+  private void sendThroughRemoteManager(final boolean directFraming, final boolean orderingGuarantee)
+      throws Exception {
+
+    final Injector injector = Tang.Factory.getTang().newInjector();
+    injector.bindVolatileParameter(RemoteConfiguration.DirectBufferFraming.class, directFraming);
+    final RemoteManagerFactory remoteManagerFactory = injector.getInstance(RemoteManagerFactory.class);
+
+    final int[] sizes = {1, 1024, MB, 20 * MB, 7};
+    final BlockingQueue<byte[]> received = new LinkedBlockingQueue<>();
+
+    try (RemoteManager rm = remoteManagerFactory.getInstance("DirectBufferFramingTest",
+        this.localAddressProvider.getLocalAddress(), 0, new ByteCodec(), new LoggingEventHandler<Throwable>(),
+        orderingGuarantee, 3, 10000, this.localAddressProvider, injector.getInstance(TcpPortProvider.class))) {
+
+      rm.registerHandler(byte[].class, new EventHandler<RemoteMessage<byte[]>>() {
+        @Override
+        public void onNext(final RemoteMessage<byte[]> value) {
+          received.add(value.getMessage());
+        }
+      });
+
+      final EventHandler<byte[]> proxyHandler = rm.getHandler(rm.getMyIdentifier(), byte[].class);
+      for (final int size : sizes) {
+        final byte[] message = new byte[size];
+        fill(message, size);
+        proxyHandler.onNext(message);
+      }
+
+      final List<byte[]> messages = new ArrayList<>();
+      for (int i = 0; i < sizes.length; ++i) {
+        final byte[] message = received.poll(TIMEOUT, TimeUnit.SECONDS);
+        Assert.assertNotNull("Timed out waiting for messages", message);
+        Assert.assertTrue("Message of " + message.length + " bytes is corrupted", isFilled(message));
+        messages.add(message);
+      }
+
+      final int[] expectedSizes = sizes.clone();
+      if (!orderingGuarantee) {
+        Arrays.sort(expectedSizes);
+        Collections.sort(messages, new Comparator<byte[]>() {
+          @Override
+          public int compare(final byte[] a, final byte[] b) {
+            return Integer.compare(a.length, b.length);
+          }
+        });
+      }
+      for (int i = 0; i < expectedSizes.length; ++i) {
+        Assert.assertEquals(expectedSizes[i], messages.get(i).length);
+      }
+    }
+  }
+
+  /**
+   * @return heap bytes allocated so far by each live thread, keyed by thread id;
+   * empty if the JVM does not measure allocation.
+   */
+  private static Map<Long, Long> getAllocatedBytes() {
+    final Map<Long, Long> result = new HashMap<>();
+    final ThreadMXBean threadBean = ManagementFactory.getThreadMXBean();
+    if (threadBean instanceof com.sun.management.ThreadMXBean) {
+      final long[] ids = threadBean.getAllThreadIds();
+      final long[] allocated = ((com.sun.management.ThreadMXBean) threadBean).getThreadAllocatedBytes(ids);
+      for (int i = 0; i < ids.length; ++i) {
+        if (allocated[i] >= 0) {
+          result.put(ids[i], allocated[i]);
+        }
+      }
+    }
+    return result;
+  }
+
+  /**
+   * Fill the array with a pattern that depends on its length, so that truncated or mixed up messages show.
+   */
+  private static void fill(final byte[] data, final int seed) {
+    for (int i = 0; i < data.length; ++i) {
+      data[i] = (byte) (i * 31 + seed);
+    }
+  }
+
+  private static boolean isFilled(final byte[] data) {
+    for (int i = 0; i < data.length; ++i) {
+      if (data[i] != (byte) (i * 31 + data.length)) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  /**
+   * Byte array encoder that also writes straight into a buffer.
+   */
+  private static final class ArrayBufEncoder implements ByteBufEncoder<byte[]> {
+
+    @Override
+    public byte[] encode(final byte[] obj) {
+      return obj.clone();
+    }
+
+    @Override
+    public void encode(final byte[] obj, final ByteBuf buf) {
+      buf.writeBytes(obj);
+    }
+  }
+
+  private static final class Result {
+
+    private final int mismatches;
+    private final long allocatedBytes;
+    private final long totalBytes;
+    private final long elapsedMs;
+
+    Result(final int mismatches, final long allocatedBytes, final long totalBytes, final long elapsedMs) {
+      this.mismatches = mismatches;
+      this.allocatedBytes = allocatedBytes;
+      this.totalBytes = totalBytes;
+      this.elapsedMs = elapsedMs;
+    }
+
+    int getMismatches() {
+      return this.mismatches;
+    }
+
+    long getAllocatedBytes() {
+      return this.allocatedBytes;
+    }
+
+    @Override
+    public String toString() {
+      return String.format("%d MB in %d ms (%.1f MB/s), %.1f KB heap allocated per MB sent",
+          this.totalBytes / MB, this.elapsedMs, this.totalBytes * 1000.0 / MB / Math.max(1, this.elapsedMs),
+          this.allocatedBytes * 1024.0 / this.totalBytes);
+    }
+  }
+}
@@ -18,6 +18,7 @@
  */
 package org.apache.reef.wake.test.remote;
 
+import io.netty.channel.epoll.Epoll;
 import org.apache.reef.tang.Injector;
 import org.apache.reef.tang.Tang;
 import org.apache.reef.tang.exceptions.InjectionException;
@@ -25,12 +26,15 @@ import org.apache.reef.wake.EStage;
 import org.apache.reef.wake.impl.LoggingUtils;
 import org.apache.reef.wake.impl.TimerStage;
 import org.apache.reef.wake.remote.Codec;
+import org.apache.reef.wake.remote.RemoteConfiguration;
 import org.apache.reef.wake.remote.address.LocalAddressProvider;
 import org.apache.reef.wake.remote.impl.ObjectSerializableCodec;
 import org.apache.reef.wake.remote.impl.TransportEvent;
 import org.apache.reef.wake.remote.transport.Link;
 import org.apache.reef.wake.remote.transport.Transport;
 import org.apache.reef.wake.remote.transport.netty.LoggingLinkListener;
+import org.apache.reef.wake.remote.transport.netty.NettyMessagingTransport;
+import org.apache.reef.wake.remote.transport.netty.WriteBatchStats;
 import org.apache.reef.wake.remote.transport.TransportFactory;
 import org.apache.reef.wake.test.util.Monitor;
 import org.apache.reef.wake.test.util.TimeoutHandler;
@@ -125,6 +129,113 @@ public class TransportTest {
     Assert.assertEquals(expected, stage.getCount());
   }
 
+  @Test
+  public void testTransportWriteBatching() throws Exception {
+    System.out.println(LOG_PREFIX + name.getMethodName());
+    LoggingUtils.setLoggingLevel(Level.INFO);
+
+    final Monitor monitor = new Monitor();
+    final TimerStage timer = new TimerStage(new TimeoutHandler(monitor), 10000, 10000);
+
+    final int numThreads = 4;
+    final int numMessages = 1000;
+    final int expected = numThreads * numMessages;
+    final String hostAddress = this.localAddressProvider.getLocalAddress();
+
+    final Injector injector = Tang.Factory.getTang().newInjector();
+    injector.bindVolatileParameter(RemoteConfiguration.WriteBatching.class, true);
+    injector.bindVolatileParameter(RemoteConfiguration.WriteBatchMaxDelay.class, 1000);
+    final TransportFactory batchingFactory = injector.getInstance(TransportFactory.class);
+
+    final ReceiverStage<String> stage =
+        new ReceiverStage<>(new ObjectSerializableCodec<String>(), monitor, expected);
+    final Transport transport = batchingFactory.newInstance(hostAddress, 0, stage, stage, 1, 10000);
+    final int port = transport.getListeningPort();
+
+    final Link<String> link = transport.open(
+        new InetSocketAddress(hostAddress, port),
+        new ObjectSerializableCodec<String>(),
+        new LoggingLinkListener<String>());
+
+    final Thread[] senders = new Thread[numThreads];
+    for (int i = 0; i < numThreads; ++i) {
+      senders[i] = new Thread(new Runnable() {
+        @Override
+        public void run() {
+          for (int j = 0; j < numMessages; ++j) {
+            link.write("hello" + j);
+          }
+        }
+      });
+      senders[i].start();
+    }
+    for (final Thread sender : senders) {
+      sender.join();
+    }
+
+    monitor.mwait();
+
+    final WriteBatchStats stats = ((NettyMessagingTransport) transport).getWriteBatchStats();
+    System.out.println(LOG_PREFIX + stats);
+
+    transport.close();
+    timer.close();
+
+    Assert.assertEquals(expected, stage.getCount());
+    // without batching, every message (a frame header and a frame body) is flushed on its own
+    Assert.assertTrue("Writes should be coalesced into fewer flushes", stats.getNumFlushes() < expected);
+    Assert.assertTrue(stats.getNumWrites() >= 2 * expected);
+  }
+
+  @Test
+  public void testTransportNativeSharedEventLoop() throws Exception {
+    System.out.println(LOG_PREFIX + name.getMethodName());
+    LoggingUtils.setLoggingLevel(Level.INFO);
+
+    final Monitor monitor = new Monitor();
+    final TimerStage timer = new TimerStage(new TimeoutHandler(monitor), 10000, 10000);
+
+    final int numMessages = 1000;
+    final int numThreads = 2;
+    final String hostAddress = this.localAddressProvider.getLocalAddress();
+
+    final Injector injector = Tang.Factory.getTang().newInjector();
+    injector.bindVolatileParameter(RemoteConfiguration.NativeTransport.class, true);
+    injector.bindVolatileParameter(RemoteConfiguration.SharedEventLoop.class, true);
+    injector.bindVolatileParameter(RemoteConfiguration.ServerWorkerThreads.class, numThreads);
+    injector.bindVolatileParameter(RemoteConfiguration.SocketSendBufferSize.class, 256 * 1024);
+    injector.bindVolatileParameter(RemoteConfiguration.SocketReceiveBufferSize.class, 256 * 1024);
+    final TransportFactory nativeFactory = injector.getInstance(TransportFactory.class);
+
+    final ReceiverStage<String> stage =
+        new ReceiverStage<>(new ObjectSerializableCodec<String>(), monitor, numMessages);
+    final Transport transport = nativeFactory.newInstance(hostAddress, 0, stage, stage, 1, 10000);
+    final int port = transport.getListeningPort();
+
+    final Link<String> link = transport.open(
+        new InetSocketAddress(hostAddress, port),
+        new ObjectSerializableCodec<String>(),
+        new LoggingLinkListener<String>());
+
+    for (int i = 0; i < numMessages; ++i) {
+      link.write("hello" + i);
+    }
+
+    monitor.mwait();
+
+    final boolean isNative = ((NettyMessagingTransport) transport).isNativeTransport();
+    final int numEventLoops = ((NettyMessagingTransport) transport).getEventLoopCount();
+    System.out.println(LOG_PREFIX + "native: " + isNative + " event loops: " + numEventLoops);
+
+    transport.close();
+    timer.close();
+
+    Assert.assertEquals(numMessages, stage.getCount());
+    Assert.assertEquals(Epoll.isAvailable(), isNative);
+    // The acceptor, the client and the server channels all run on the shared group
+    Assert.assertEquals(numThreads, numEventLoops);
+  }
+
   class ReceiverStage<T> implements EStage<TransportEvent> {
 
     private final Codec<T> codec;
@@ -26,15 +26,21 @@ import org.apache.reef.wake.impl.LoggingUtils;
 import org.apache.reef.wake.impl.ThreadPoolStage;
 import org.apache.reef.wake.test.time.util.AlarmProducer;
 import org.apache.reef.wake.test.time.util.EventRecorder;
+import org.apache.reef.wake.time.Clock;
 import org.apache.reef.wake.time.Time;
 import org.apache.reef.wake.time.event.Alarm;
 import org.apache.reef.wake.time.runtime.LogicalTimer;
 import org.apache.reef.wake.time.runtime.RealTimer;
 import org.apache.reef.wake.time.runtime.RuntimeClock;
 import org.apache.reef.wake.time.runtime.Timer;
+import org.apache.reef.wake.time.runtime.TimingWheelClock;
 import org.junit.Assert;
 import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.Parameterized;
 
+import java.util.Arrays;
+import java.util.Collection;
 import java.util.List;
 import java.util.Random;
 import java.util.concurrent.CountDownLatch;
@@ -42,29 +48,45 @@ import java.util.concurrent.TimeUnit;
 import java.util.logging.Level;
 
 /**
- * Tests for RuntimeClock event loop.
+ * Tests for the event loop of each Clock implementation.
  */
+@RunWith(Parameterized.class)
 public class RuntimeClockTest {
 
   private static final Tang TANG = Tang.Factory.getTang();
 
   private final Random rand = new Random();
 
+  private final Class<? extends Clock> clockClass;
+
   /**
-   * Create new RuntimeClock object injected with the given timer.
+   * @return the Clock implementations to test.
+   */
+  @Parameterized.Parameters(name = "{0}")
+  public static Collection<Object[]> clockClasses() {
+    return Arrays.asList(new Object[][] {{RuntimeClock.class}, {TimingWheelClock.class}});
+  }
+
+  public RuntimeClockTest(final Class<? extends Clock> clockClass) {
+    this.clockClass = clockClass;
+  }
+
+  /**
+   * Create new Clock object of the tested implementation injected with the given timer.
    *
-   * @param timerClass Timer to use inside the RuntimeClock. Must implement the Timer interface.
-   * @return A new instance of the RuntimeClock, instrumented with the given timer.
+   * @param timerClass Timer to use inside the Clock. Must implement the Timer interface.
+   * @return A new instance of the Clock, instrumented with the given timer.
    * @throws InjectionException On configuration error.
    */
-  private static RuntimeClock buildClock(
+  private Clock buildClock(
       final Class<? extends Timer> timerClass) throws InjectionException {
 
     final Configuration clockConfig = TANG.newConfigurationBuilder()
         .bind(Timer.class, timerClass)
+        .bind(Clock.class, clockClass)
         .build();
 
-    return TANG.newInjector(clockConfig).getInstance(RuntimeClock.class);
+    return TANG.newInjector(clockConfig).getInstance(Clock.class);
   }
 
   /**
@@ -77,7 +99,7 @@ public class RuntimeClockTest {
 
     LoggingUtils.setLoggingLevel(Level.FINEST);
 
-    try (RuntimeClock clock = buildClock(RealTimer.class)) {
+    try (Clock clock = buildClock(RealTimer.class)) {
 
       new Thread(clock).start();
 
@@ -101,7 +123,7 @@ public class RuntimeClockTest {
 
     LoggingUtils.setLoggingLevel(Level.FINEST);
 
-    try (RuntimeClock clock = buildClock(RealTimer.class)) {
+    try (Clock clock = buildClock(RealTimer.class)) {
 
       new Thread(clock).start();
 
@@ -140,7 +162,7 @@ public class RuntimeClockTest {
     final int numThreads = 3;
     final CountDownLatch eventCountLatch = new CountDownLatch(numThreads);
 
-    try (RuntimeClock clock = buildClock(RealTimer.class)) {
+    try (Clock clock = buildClock(RealTimer.class)) {
 
       final EventHandler<Alarm> handler = new EventHandler<Alarm>() {
         @Override
@@ -171,7 +193,7 @@ public class RuntimeClockTest {
     final int expectedEvent = 2;
     final CountDownLatch eventCountLatch = new CountDownLatch(expectedEvent);
 
-    try (RuntimeClock clock = buildClock(LogicalTimer.class)) {
+    try (Clock clock = buildClock(LogicalTimer.class)) {
 
       new Thread(clock).start();
 
@@ -197,7 +219,7 @@ public class RuntimeClockTest {
 
     final long[] expected = new long[numAlarms];
 
-    try (RuntimeClock clock = buildClock(RealTimer.class)) {
+    try (Clock clock = buildClock(RealTimer.class)) {
 
       new Thread(clock).start();
 
@@ -227,7 +249,7 @@ public class RuntimeClockTest {
    * Schedule two events and close the clock. Make sure that no events occur soon after
    * closing the alarm and both of them occur at the scheduled time. Check that the clock
    * is closed after that.
-   * @throws InjectionException Error building a runtime clock object.
+   * @throws InjectionException Error building a clock object.
    * @throws InterruptedException Sleep interrupted.
    */
   @Test
@@ -239,7 +261,7 @@ public class RuntimeClockTest {
     final CountDownLatch eventCountLatch = new CountDownLatch(numAlarms);
     final EventRecorder alarmRecorder = new EventRecorder(eventCountLatch);
 
-    final RuntimeClock clock = buildClock(RealTimer.class);
+    final Clock clock = buildClock(RealTimer.class);
     new Thread(clock).start();
 
     clock.scheduleAlarm(100, alarmRecorder);
@@ -249,6 +271,13 @@ public class RuntimeClockTest {
     Assert.assertFalse("Clock cannot be idle yet", clock.isIdle());
     Assert.assertTrue("Clock must be in closed state", clock.isClosed());
 
+    try {
+      clock.scheduleAlarm(100, alarmRecorder);
+      Assert.fail("A closed clock cannot schedule alarms");
+    } catch (final IllegalStateException expected) {
+      // Expected
+    }
+
     Thread.sleep(10);
     Assert.assertTrue(
         "No events should occur immediately after the graceful shutdown",
@@ -256,7 +285,7 @@ public class RuntimeClockTest {
 
     Thread.sleep(200);
     final List<Time> events = alarmRecorder.getEvents();
-    Assert.assertEquals("Expected events on graceful shutdown", events.size(), numAlarms);
+    Assert.assertEquals("Expected events on graceful shutdown", numAlarms, events.size());
 
     Assert.assertTrue("No client alarms should be scheduled at this time", clock.isIdle());
     Assert.assertTrue("Clock must be in closed state", clock.isClosed());
@@ -265,7 +294,7 @@ public class RuntimeClockTest {
   /**
    * Test forceful shutdown of the event loop. Schedule two events and close the clock.
    * Make sure that no events occur after that and the clock is in closed and idle state.
-   * @throws InjectionException Error building a runtime clock object.
+   * @throws InjectionException Error building a clock object.
    * @throws InterruptedException Sleep interrupted.
    */
   @Test
@@ -277,7 +306,7 @@ public class RuntimeClockTest {
     final CountDownLatch eventCountLatch = new CountDownLatch(numAlarms);
     final EventRecorder alarmRecorder = new EventRecorder(eventCountLatch);
 
-    final RuntimeClock clock = buildClock(RealTimer.class);
+    final Clock clock = buildClock(RealTimer.class);
     new Thread(clock).start();
 
     clock.scheduleAlarm(100, alarmRecorder);
@@ -0,0 +1,130 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.reef.wake.test.time;
+
+import org.apache.reef.tang.Configuration;
+import org.apache.reef.tang.Tang;
+import org.apache.reef.tang.exceptions.InjectionException;
+import org.apache.reef.wake.EventHandler;
+import org.apache.reef.wake.test.time.util.EventRecorder;
+import org.apache.reef.wake.time.Time;
+import org.apache.reef.wake.time.event.Alarm;
+import org.apache.reef.wake.time.runtime.LogicalTimer;
+import org.apache.reef.wake.time.runtime.RealTimer;
+import org.apache.reef.wake.time.runtime.TimingWheelClock;
+import org.apache.reef.wake.time.runtime.Timer;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.Random;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Tests specific to TimingWheelClock: the levels of the wheel and the alarm stage.
+ * The event loop behavior shared by all clocks is tested in RuntimeClockTest.
+ */
+public final class TimingWheelClockTest {
+
+  private static final Tang TANG = Tang.Factory.getTang();
+
+  private final Random rand = new Random();
+
+  /**
+   * Create new TimingWheelClock object injected with the given timer.
+   *
+   * @param timerClass Timer to use inside the clock. Must implement the Timer interface.
+   * @param alarmStageThreads Number of threads to run the alarm handlers on; 0 for the clock thread.
+   * @return A new instance of the TimingWheelClock, instrumented with the given timer.
+   * @throws InjectionException On configuration error.
+   */
+  private static TimingWheelClock buildClock(
+      final Class<? extends Timer> timerClass, final int alarmStageThreads) throws InjectionException {
+
+    final Configuration clockConfig = TANG.newConfigurationBuilder()
+        .bind(Timer.class, timerClass)
+        .bindNamedParameter(TimingWheelClock.AlarmStageThreads.class, Integer.toString(alarmStageThreads))
+        .build();
+
+    return TANG.newInjector(clockConfig).getInstance(TimingWheelClock.class);
+  }
+
+  /**
+   * Schedule alarms that span several levels of the timing wheel and check that they all fire in order.
+   */
+  @Test
+  public void testAlarmOrderAcrossWheelLevels() throws Exception {
+
+    final int numAlarms = 1000;
+    final CountDownLatch eventCountLatch = new CountDownLatch(numAlarms);
+    final EventRecorder alarmRecorder = new EventRecorder(eventCountLatch);
+
+    try (TimingWheelClock clock = buildClock(LogicalTimer.class, 0)) {
+
+      for (int i = 0; i < numAlarms; ++i) {
+        clock.scheduleAlarm(rand.nextInt(100000000), alarmRecorder);
+      }
+
+      new Thread(clock).start();
+      Assert.assertTrue(eventCountLatch.await(10, TimeUnit.SECONDS));
+    }
+
+    long previous = Long.MIN_VALUE;
+    for (final Time event : alarmRecorder.getEvents()) {
+      Assert.assertTrue("Alarms processed in the wrong order", event.getTimestamp() >= previous);
+      previous = event.getTimestamp();
+    }
+  }
+
+  /**
+   * Block one alarm handler on the alarm stage and check that a later alarm still fires,
+   * and that the clock is not idle until the blocked handler returns.
+   */
+  @Test
+  public void testSlowHandlerOnAlarmStage() throws Exception {
+
+    final CountDownLatch release = new CountDownLatch(1);
+    final CountDownLatch laterAlarmLatch = new CountDownLatch(1);
+    final EventRecorder laterAlarmRecorder = new EventRecorder(laterAlarmLatch);
+
+    try (TimingWheelClock clock = buildClock(RealTimer.class, 2)) {
+
+      new Thread(clock).start();
+
+      clock.scheduleAlarm(0, new EventHandler<Alarm>() {
+        @Override
+        public void onNext(final Alarm value) {
+          try {
+            release.await();
+          } catch (final InterruptedException e) {
+            throw new RuntimeException(e);
+          }
+        }
+      });
+      clock.scheduleAlarm(50, laterAlarmRecorder);
+
+      Assert.assertTrue(laterAlarmLatch.await(10, TimeUnit.SECONDS));
+      Assert.assertFalse("Clock cannot be idle while a handler runs", clock.isIdle());
+
+      release.countDown();
+      Thread.sleep(100);
+      Assert.assertTrue("No client alarms should be outstanding at this time", clock.isIdle());
+    }
+  }
+}